@@ -0,0 +1,84 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.meshsimulation;
+
+import com.digi.xbee.api.connection.virtual.MeshSimulation;
+import com.digi.xbee.api.connection.virtual.MeshSimulationReport;
+import com.digi.xbee.api.connection.virtual.VirtualMeshNetwork;
+import com.digi.xbee.api.exceptions.XBeeException;
+
+/**
+ * XBee Java Library Mesh Simulation sample application.
+ * 
+ * <p>This example simulates networks of growing size with a virtual mesh 
+ * network and reports the discovery time, the memory used per remote 
+ * device and the sustained send throughput of every network.</p>
+ * 
+ * <p>For a complete description on the example, refer to the 'ReadMe.txt' file
+ * included in the root directory.</p>
+ */
+public class MainApp {
+
+	/* Constants */
+	
+	// Number of nodes of the simulated networks (can be given as arguments).
+	private static final int[] NODE_COUNTS = {5000, 10000, 20000};
+	// Maximum number of hops to the remote nodes.
+	private static final int MAX_HOPS = 4;
+	// Latency of every hop in milliseconds.
+	private static final int HOP_LATENCY = 2;
+	// Number of threads sending data.
+	private static final int SENDER_THREADS = 8;
+	
+	/**
+	 * Application main method.
+	 * 
+	 * @param args Command line arguments.
+	 */
+	public static void main(String[] args) {
+		System.out.println(" +-------------------------------------------+");
+		System.out.println(" |  XBee Java Library Mesh Simulation Sample |");
+		System.out.println(" +-------------------------------------------+\n");
+		
+		int[] nodeCounts = NODE_COUNTS;
+		if (args.length > 0) {
+			nodeCounts = new int[args.length];
+			for (int i = 0; i < args.length; i++)
+				nodeCounts[i] = Integer.parseInt(args[i]);
+		}
+		
+		MeshSimulation simulation = new MeshSimulation();
+		simulation.setSenderThreads(SENDER_THREADS);
+		
+		try {
+			for (int nodes : nodeCounts) {
+				System.out.println(">> Simulating a network of " + nodes + " nodes...");
+				
+				VirtualMeshNetwork network = new VirtualMeshNetwork(nodes);
+				network.setMaxHops(MAX_HOPS);
+				network.setHopLatency(HOP_LATENCY);
+				
+				MeshSimulationReport report = simulation.run(network);
+				
+				System.out.println(">> " + report + "\n");
+			}
+		} catch (XBeeException | InterruptedException e) {
+			e.printStackTrace();
+			System.exit(1);
+		}
+		System.exit(0);
+	}
+}
@@ -0,0 +1,169 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.jfr;
+
+import com.digi.xbee.api.metrics.IPacketTracer;
+import com.digi.xbee.api.packet.XBeeAPIPacket;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.common.ATCommandPacket;
+import com.digi.xbee.api.packet.common.ATCommandQueuePacket;
+import com.digi.xbee.api.packet.common.RemoteATCommandPacket;
+import com.digi.xbee.api.packet.thread.IPv6RemoteATCommandRequestPacket;
+import com.digi.xbee.api.packet.wifi.RemoteATCommandWifiPacket;
+
+/**
+ * This class is a {@code IPacketTracer} that emits JDK Flight Recorder 
+ * events for the API frames of a local XBee device, so frame latencies can 
+ * be correlated with garbage collections, thread activity and the rest of 
+ * the events of a recording.
+ * 
+ * <p>The following events are emitted, all of them in the {@code XBee} 
+ * category:</p>
+ * <ul>
+ * <li>{@code com.digi.xbee.FrameSent}: an API frame written to the 
+ * connection interface.</li>
+ * <li>{@code com.digi.xbee.FrameReceived}: an API frame read from the 
+ * connection interface.</li>
+ * <li>{@code com.digi.xbee.ListenerDispatch}: the queueing and 
+ * notification of a received API frame.</li>
+ * <li>{@code com.digi.xbee.ResponseWait}: a synchronous request (for 
+ * example, an AT command), from the moment it is sent until its response 
+ * arrives or the timeout expires.</li>
+ * </ul>
+ * 
+ * <p>Events are created only if they are enabled in a running recording, 
+ * so the tracer has almost no cost otherwise.</p>
+ * 
+ * <pre>
+ * XBeeDevice device = new XBeeDevice("COM1", 9600);
+ * device.setPacketTracer(new JfrPacketTracer());
+ * </pre>
+ * 
+ * @see com.digi.xbee.api.XBeeDevice#setPacketTracer(IPacketTracer)
+ * 
+ * @since 1.4.0
+ */
+public class JfrPacketTracer implements IPacketTracer {
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.IPacketTracer#beginSend(com.digi.xbee.api.packet.XBeePacket, int)
+	 */
+	@Override
+	public Object beginSend(XBeePacket packet, int size) {
+		FrameSentEvent event = new FrameSentEvent();
+		if (!event.isEnabled())
+			return null;
+		event.setFrame(packet, size);
+		event.begin();
+		return event;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.IPacketTracer#endSend(java.lang.Object)
+	 */
+	@Override
+	public void endSend(Object trace) {
+		if (trace != null)
+			((FrameSentEvent)trace).commit();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.IPacketTracer#beginDispatch(com.digi.xbee.api.packet.XBeePacket, int)
+	 */
+	@Override
+	public Object beginDispatch(XBeePacket packet, int size) {
+		FrameReceivedEvent received = new FrameReceivedEvent();
+		if (received.shouldCommit()) {
+			received.setFrame(packet, size);
+			received.commit();
+		}
+		
+		ListenerDispatchEvent event = new ListenerDispatchEvent();
+		if (!event.isEnabled())
+			return null;
+		event.setFrame(packet, size);
+		event.begin();
+		return event;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.IPacketTracer#endDispatch(java.lang.Object)
+	 */
+	@Override
+	public void endDispatch(Object trace) {
+		if (trace != null)
+			((ListenerDispatchEvent)trace).commit();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.IPacketTracer#beginResponseWait(com.digi.xbee.api.packet.XBeePacket)
+	 */
+	@Override
+	public Object beginResponseWait(XBeePacket request) {
+		ResponseWaitEvent event = new ResponseWaitEvent();
+		if (!event.isEnabled())
+			return null;
+		event.setFrame(request, request.getPacketLength() + 4);
+		event.atCommand = getATCommand(request);
+		event.begin();
+		return event;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.IPacketTracer#endResponseWait(java.lang.Object, com.digi.xbee.api.packet.XBeePacket)
+	 */
+	@Override
+	public void endResponseWait(Object trace, XBeePacket response) {
+		if (trace == null)
+			return;
+		ResponseWaitEvent event = (ResponseWaitEvent)trace;
+		event.end();
+		if (!event.shouldCommit())
+			return;
+		event.timedOut = response == null;
+		if (response instanceof XBeeAPIPacket && ((XBeeAPIPacket)response).getFrameType() != null)
+			event.responseFrameType = ((XBeeAPIPacket)response).getFrameType().getName();
+		event.commit();
+	}
+	
+	/**
+	 * Returns the AT command of the given request.
+	 * 
+	 * @param request The request packet.
+	 * 
+	 * @return The AT command, {@code null} if the request is not an AT 
+	 *         command packet.
+	 */
+	private static String getATCommand(XBeePacket request) {
+		if (request instanceof ATCommandPacket)
+			return ((ATCommandPacket)request).getCommand();
+		if (request instanceof ATCommandQueuePacket)
+			return ((ATCommandQueuePacket)request).getCommand();
+		if (request instanceof RemoteATCommandPacket)
+			return ((RemoteATCommandPacket)request).getCommand();
+		if (request instanceof RemoteATCommandWifiPacket)
+			return ((RemoteATCommandWifiPacket)request).getCommand();
+		if (request instanceof IPv6RemoteATCommandRequestPacket)
+			return ((IPv6RemoteATCommandRequestPacket)request).getCommand();
+		return null;
+	}
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDK Flight Recorder event of a synchronous request: the time since a 
+ * thread starts sending an API frame until it receives the response or 
+ * the timeout expires. The frame fields describe the request.
+ * 
+ * @since 1.4.0
+ */
+@Name("com.digi.xbee.ResponseWait")
+@Label("XBee Response Wait")
+@Description("Round trip of a synchronous API frame, such as an AT command or a transmit request.")
+class ResponseWaitEvent extends XBeeFrameEvent {
+	
+	// Variables.
+	@Label("AT Command")
+	@Description("AT command of the request, if it is an AT command frame.")
+	String atCommand;
+	
+	@Label("Response Frame Type")
+	@Description("Name of the API frame type of the response.")
+	String responseFrameType;
+	
+	@Label("Timed Out")
+	@Description("Whether the response was not received.")
+	boolean timedOut;
+}
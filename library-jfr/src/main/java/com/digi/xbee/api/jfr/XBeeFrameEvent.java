@@ -0,0 +1,203 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.jfr;
+
+import java.net.InetAddress;
+
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.packet.XBeeAPIPacket;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.common.ExplicitAddressingPacket;
+import com.digi.xbee.api.packet.common.ExplicitRxIndicatorPacket;
+import com.digi.xbee.api.packet.common.IODataSampleRxIndicatorPacket;
+import com.digi.xbee.api.packet.common.ReceivePacket;
+import com.digi.xbee.api.packet.common.RemoteATCommandPacket;
+import com.digi.xbee.api.packet.common.RemoteATCommandResponsePacket;
+import com.digi.xbee.api.packet.common.TransmitPacket;
+import com.digi.xbee.api.packet.ip.RXIPv4Packet;
+import com.digi.xbee.api.packet.ip.TXIPv4Packet;
+import com.digi.xbee.api.packet.raw.RX16IOPacket;
+import com.digi.xbee.api.packet.raw.RX16Packet;
+import com.digi.xbee.api.packet.raw.RX64IOPacket;
+import com.digi.xbee.api.packet.raw.RX64Packet;
+import com.digi.xbee.api.packet.raw.TX16Packet;
+import com.digi.xbee.api.packet.raw.TX64Packet;
+import com.digi.xbee.api.packet.thread.RXIPv6Packet;
+import com.digi.xbee.api.packet.thread.TXIPv6Packet;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+
+/**
+ * This class is the base of the JDK Flight Recorder events of an API frame. 
+ * It contains the frame type, the frame ID, the addresses and the size of 
+ * the frame.
+ * 
+ * <p>The fields are only filled when the event is enabled in a running 
+ * recording, so the disabled events do not pay for them.</p>
+ * 
+ * @since 1.4.0
+ */
+@Category({"XBee", "API Frames"})
+abstract class XBeeFrameEvent extends jdk.jfr.Event {
+	
+	// Variables.
+	@Label("Frame Type")
+	@Description("Name of the API frame type.")
+	String frameType;
+	
+	@Label("Frame ID")
+	@Description("Frame ID of the API frame, -1 if the frame does not have one.")
+	int frameID = -1;
+	
+	@Label("Source Address")
+	@Description("Address of the remote device that sent the frame.")
+	String sourceAddress;
+	
+	@Label("Destination Address")
+	@Description("Address of the remote device the frame is sent to.")
+	String destinationAddress;
+	
+	@Label("Payload Size")
+	@Description("Length of the API frame data.")
+	@DataAmount
+	int payloadSize;
+	
+	@Label("Frame Size")
+	@Description("Number of bytes of the frame in the connection interface.")
+	@DataAmount
+	int frameSize;
+	
+	/**
+	 * Fills the frame fields of this event with the given packet.
+	 * 
+	 * @param packet The API frame.
+	 * @param size Number of bytes of the frame in the connection interface.
+	 */
+	void setFrame(XBeePacket packet, int size) {
+		frameSize = size;
+		payloadSize = packet.getPacketLength();
+		if (!(packet instanceof XBeeAPIPacket)) {
+			frameType = "Generic";
+			return;
+		}
+		XBeeAPIPacket apiPacket = (XBeeAPIPacket)packet;
+		frameType = apiPacket.getFrameType() == null ? 
+				"Unknown" : apiPacket.getFrameType().getName();
+		if (apiPacket.needsAPIFrameID())
+			frameID = apiPacket.getFrameID();
+		sourceAddress = getSourceAddress(apiPacket);
+		destinationAddress = getDestinationAddress(apiPacket);
+	}
+	
+	/**
+	 * Returns the source address of the given packet.
+	 * 
+	 * @param packet The API packet.
+	 * 
+	 * @return The source address, {@code null} if the packet does not have 
+	 *         one.
+	 */
+	private static String getSourceAddress(XBeeAPIPacket packet) {
+		if (packet instanceof ReceivePacket)
+			return toString(((ReceivePacket)packet).get64bitSourceAddress(), 
+					((ReceivePacket)packet).get16bitSourceAddress());
+		if (packet instanceof ExplicitRxIndicatorPacket)
+			return toString(((ExplicitRxIndicatorPacket)packet).get64BitSourceAddress(), 
+					((ExplicitRxIndicatorPacket)packet).get16BitSourceAddress());
+		if (packet instanceof IODataSampleRxIndicatorPacket)
+			return toString(((IODataSampleRxIndicatorPacket)packet).get64bitSourceAddress(), 
+					((IODataSampleRxIndicatorPacket)packet).get16bitSourceAddress());
+		if (packet instanceof RemoteATCommandResponsePacket)
+			return toString(((RemoteATCommandResponsePacket)packet).get64bitSourceAddress(), 
+					((RemoteATCommandResponsePacket)packet).get16bitSourceAddress());
+		if (packet instanceof RX64Packet)
+			return toString(((RX64Packet)packet).get64bitSourceAddress(), null);
+		if (packet instanceof RX64IOPacket)
+			return toString(((RX64IOPacket)packet).get64bitSourceAddress(), null);
+		if (packet instanceof RX16Packet)
+			return toString(null, ((RX16Packet)packet).get16bitSourceAddress());
+		if (packet instanceof RX16IOPacket)
+			return toString(null, ((RX16IOPacket)packet).get16bitSourceAddress());
+		if (packet instanceof RXIPv4Packet)
+			return toString(((RXIPv4Packet)packet).getSourceAddress());
+		if (packet instanceof RXIPv6Packet)
+			return toString(((RXIPv6Packet)packet).getSourceAddress());
+		return null;
+	}
+	
+	/**
+	 * Returns the destination address of the given packet.
+	 * 
+	 * @param packet The API packet.
+	 * 
+	 * @return The destination address, {@code null} if the packet does not 
+	 *         have one.
+	 */
+	private static String getDestinationAddress(XBeeAPIPacket packet) {
+		if (packet instanceof TransmitPacket)
+			return toString(((TransmitPacket)packet).get64bitDestinationAddress(), 
+					((TransmitPacket)packet).get16bitDestinationAddress());
+		if (packet instanceof ExplicitAddressingPacket)
+			return toString(((ExplicitAddressingPacket)packet).get64BitDestinationAddress(), 
+					((ExplicitAddressingPacket)packet).get16BitDestinationAddress());
+		if (packet instanceof RemoteATCommandPacket)
+			return toString(((RemoteATCommandPacket)packet).get64bitDestinationAddress(), 
+					((RemoteATCommandPacket)packet).get16bitDestinationAddress());
+		if (packet instanceof TX64Packet)
+			return toString(((TX64Packet)packet).get64bitDestinationAddress(), null);
+		if (packet instanceof TX16Packet)
+			return toString(null, ((TX16Packet)packet).get16bitDestinationAddress());
+		if (packet instanceof TXIPv4Packet)
+			return toString(((TXIPv4Packet)packet).getDestAddress());
+		if (packet instanceof TXIPv6Packet)
+			return toString(((TXIPv6Packet)packet).getDestAddress());
+		if (packet instanceof RXIPv6Packet)
+			return toString(((RXIPv6Packet)packet).getDestAddress());
+		return null;
+	}
+	
+	/**
+	 * Returns the string representation of the given XBee addresses.
+	 * 
+	 * @param addr64 The 64-bit address, may be {@code null}.
+	 * @param addr16 The 16-bit address, may be {@code null}.
+	 * 
+	 * @return The 64-bit address followed by the 16-bit address between 
+	 *         parentheses, or the one that is not {@code null}.
+	 */
+	private static String toString(XBee64BitAddress addr64, XBee16BitAddress addr16) {
+		if (addr64 == null)
+			return addr16 == null ? null : addr16.toString();
+		if (addr16 == null)
+			return addr64.toString();
+		return addr64 + " (" + addr16 + ")";
+	}
+	
+	/**
+	 * Returns the string representation of the given IP address.
+	 * 
+	 * @param address The IP address, may be {@code null}.
+	 * 
+	 * @return The IP address without the host name.
+	 */
+	private static String toString(InetAddress address) {
+		return address == null ? null : address.getHostAddress();
+	}
+}
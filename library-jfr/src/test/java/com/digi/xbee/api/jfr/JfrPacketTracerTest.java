@@ -0,0 +1,117 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.jfr;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.digi.xbee.api.XBeeDevice;
+import com.digi.xbee.api.connection.virtual.VirtualXBeeRadio;
+import com.digi.xbee.api.models.OperatingMode;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class JfrPacketTracerTest {
+	
+	// Variables.
+	private XBeeDevice device;
+	
+	private Path file;
+	
+	@Before
+	public void setUp() throws Exception {
+		device = new XBeeDevice(new VirtualXBeeRadio(OperatingMode.API));
+		device.setPacketTracer(new JfrPacketTracer());
+		file = Files.createTempFile("xbee", ".jfr");
+	}
+	
+	@After
+	public void tearDown() throws Exception {
+		if (device.isOpen())
+			device.close();
+		Files.deleteIfExists(file);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.jfr.JfrPacketTracer}.
+	 * 
+	 * <p>Verify that the sent and received frames, their dispatch and the 
+	 * AT command round trips are recorded.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testRecordedEvents() throws Exception {
+		// Setup the resources for the test.
+		device.open();
+		
+		// Call the method under test.
+		try (Recording recording = new Recording()) {
+			recording.enable(FrameSentEvent.class);
+			recording.enable(FrameReceivedEvent.class);
+			recording.enable(ListenerDispatchEvent.class);
+			recording.enable(ResponseWaitEvent.class);
+			recording.start();
+			device.getParameter("NI");
+			recording.stop();
+			recording.dump(file);
+		}
+		
+		// Verify the result.
+		List<RecordedEvent> waits = new ArrayList<>();
+		int sent = 0;
+		int received = 0;
+		for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+			switch (event.getEventType().getName()) {
+			case "com.digi.xbee.FrameSent":
+				assertThat(event.getString("frameType"), is(equalTo("AT Command")));
+				assertThat(event.getInt("frameSize"), is(equalTo(8)));
+				sent++;
+				break;
+			case "com.digi.xbee.FrameReceived":
+				assertThat(event.getString("frameType"), is(equalTo("AT Command Response")));
+				received++;
+				break;
+			case "com.digi.xbee.ResponseWait":
+				waits.add(event);
+				break;
+			default:
+				break;
+			}
+		}
+		assertThat(sent, is(equalTo(1)));
+		assertThat(received, is(equalTo(1)));
+		assertThat(waits.size(), is(equalTo(1)));
+		RecordedEvent wait = waits.get(0);
+		assertThat(wait.getString("atCommand"), is(equalTo("NI")));
+		assertThat(wait.getString("responseFrameType"), is(equalTo("AT Command Response")));
+		assertThat(wait.getBoolean("timedOut"), is(equalTo(false)));
+		assertTrue(wait.getInt("frameID") > 0);
+	}
+}
@@ -21,8 +21,16 @@ import java.net.UnknownHostException;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,9 +39,11 @@ import com.digi.xbee.api.connection.IConnectionInterface;
 import com.digi.xbee.api.connection.bluetooth.AbstractBluetoothInterface;
 import com.digi.xbee.api.connection.ConnectionType;
 import com.digi.xbee.api.connection.serial.AbstractSerialPort;
+import com.digi.xbee.api.connection.serial.ReceiveBackpressure;
 import com.digi.xbee.api.connection.serial.SerialPortParameters;
 import com.digi.xbee.api.exceptions.ATCommandException;
 import com.digi.xbee.api.exceptions.BluetoothAuthenticationException;
+import com.digi.xbee.api.exceptions.ConnectionException;
 import com.digi.xbee.api.exceptions.InterfaceAlreadyOpenException;
 import com.digi.xbee.api.exceptions.InterfaceNotOpenException;
 import com.digi.xbee.api.exceptions.InvalidOperatingModeException;
@@ -44,7 +54,14 @@ import com.digi.xbee.api.exceptions.XBeeException;
 import com.digi.xbee.api.io.IOLine;
 import com.digi.xbee.api.io.IOMode;
 import com.digi.xbee.api.io.IOSample;
+import com.digi.xbee.api.io.IOSampleDeliveryOptions;
+import com.digi.xbee.api.io.IOSampleHistory;
 import com.digi.xbee.api.io.IOValue;
+import com.digi.xbee.api.metrics.IMetricsRecorder;
+import com.digi.xbee.api.metrics.IPacketTracer;
+import com.digi.xbee.api.metrics.MetricsCounter;
+import com.digi.xbee.api.metrics.MetricsTimer;
+import com.digi.xbee.api.metrics.XBeeMetrics;
 import com.digi.xbee.api.listeners.IExplicitDataReceiveListener;
 import com.digi.xbee.api.listeners.IIOSampleReceiveListener;
 import com.digi.xbee.api.listeners.IModemStatusReceiveListener;
@@ -61,16 +78,22 @@ import com.digi.xbee.api.models.ATCommand;
 import com.digi.xbee.api.models.ATCommandResponse;
 import com.digi.xbee.api.models.ATCommandStatus;
 import com.digi.xbee.api.models.AssociationIndicationStatus;
+import com.digi.xbee.api.models.DeviceProfile;
 import com.digi.xbee.api.models.ExplicitXBeeMessage;
 import com.digi.xbee.api.models.HardwareVersion;
+import com.digi.xbee.api.models.LinkStatisticsTable;
 import com.digi.xbee.api.models.ModemStatusEvent;
 import com.digi.xbee.api.models.PowerLevel;
+import com.digi.xbee.api.models.ReceivePipelineOptions;
 import com.digi.xbee.api.models.RemoteATCommandOptions;
-import com.digi.xbee.api.models.RestFulStatusEnum;
+import com.digi.xbee.api.models.RoundTripTimeEstimate;
+import com.digi.xbee.api.models.RoundTripTimeEstimator;
+import com.digi.xbee.api.models.TransmitRateController;
 import com.digi.xbee.api.models.XBee16BitAddress;
 import com.digi.xbee.api.models.XBee64BitAddress;
 import com.digi.xbee.api.models.XBeeLocalInterface;
 import com.digi.xbee.api.models.XBeeMessage;
+import com.digi.xbee.api.models.XBeePacketFilter;
 import com.digi.xbee.api.models.XBeePacketsQueue;
 import com.digi.xbee.api.models.OperatingMode;
 import com.digi.xbee.api.models.XBeeProtocol;
@@ -94,15 +117,20 @@ import com.digi.xbee.api.packet.raw.RX16IOPacket;
 import com.digi.xbee.api.packet.raw.RX16Packet;
 import com.digi.xbee.api.packet.raw.RX64IOPacket;
 import com.digi.xbee.api.packet.raw.RX64Packet;
+import com.digi.xbee.api.packet.raw.TX16Packet;
 import com.digi.xbee.api.packet.raw.TX64Packet;
 import com.digi.xbee.api.packet.raw.TXStatusPacket;
 import com.digi.xbee.api.packet.relay.UserDataRelayPacket;
-import com.digi.xbee.api.packet.thread.CoAPRxResponsePacket;
 import com.digi.xbee.api.packet.thread.CoAPTxRequestPacket;
 import com.digi.xbee.api.packet.thread.IPv6RemoteATCommandRequestPacket;
 import com.digi.xbee.api.packet.thread.IPv6RemoteATCommandResponsePacket;
+import com.digi.xbee.api.transport.FragmentationTransport;
+import com.digi.xbee.api.transport.MessageAggregator;
+import com.digi.xbee.api.transport.RPCTransport;
 import com.digi.xbee.api.utils.ByteUtils;
+import com.digi.xbee.api.utils.HashedWheelTimer;
 import com.digi.xbee.api.utils.HexUtils;
+import com.digi.xbee.api.utils.XBeeFuture;
 import com.digi.xbee.api.utils.srp.SrpUtils;
 
 /**
@@ -166,6 +194,19 @@ public abstract class AbstractXBeeDevice {
 	 */
 	protected final static int DEFAULT_GUARD_TIME = 1500;
 	
+	/**
+	 * Maximum time to wait for the data reader to start when opening the 
+	 * device, in milliseconds.
+	 */
+	private final static int DATA_READER_START_TIMEOUT = 1000;
+	
+	/**
+	 * Serial baud rates supported by the XBee modules. The index of every 
+	 * value is the value of the {@code BD} parameter to configure it.
+	 */
+	private final static int[] BAUD_RATES = new int[] {1200, 2400, 4800, 9600, 19200, 
+			38400, 57600, 115200, 230400, 460800, 921600};
+	
 	// Variables.
 	protected IConnectionInterface connectionInterface;
 	
@@ -199,6 +240,40 @@ public abstract class AbstractXBeeDevice {
 	
 	private byte[] ioPacketPayload;
 	
+	private IOSampleHistory ioSampleHistory = null;
+	
+	private IOSampleDeliveryOptions ioSampleDeliveryOptions = null;
+	
+	private ReceivePipelineOptions receivePipelineOptions = null;
+	
+	private volatile IMetricsRecorder metricsRecorder = null;
+	
+	private volatile IPacketTracer packetTracer = null;
+	
+	private final RoundTripTimeEstimator rttEstimator = new RoundTripTimeEstimator();
+	
+	private volatile boolean adaptiveReceiveTimeout = false;
+	
+	private volatile TransmitRateController transmitRateController = null;
+	
+	private volatile ReceiveBackpressure receiveBackpressure = null;
+	
+	private volatile FragmentationTransport fragmentationTransport = null;
+	
+	private volatile MessageAggregator messageAggregator = null;
+	
+	private volatile RPCTransport rpcTransport = null;
+	
+	private volatile DeviceProfile deviceProfile = null;
+	
+	private volatile int maxNegotiatedBaudRate = 0;
+	
+	private volatile boolean persistNegotiatedBaudRate = false;
+	
+	private volatile HashedWheelTimer timer = null;
+	
+	private volatile CoAPRequestTable coapRequestTable = null;
+	
 	/**
 	 * Class constructor. Instantiates a new {@code XBeeDevice} object in the 
 	 * given port name and baud rate.
@@ -484,19 +559,10 @@ public abstract class AbstractXBeeDevice {
 		byte[] response = null;
 		// Get the 64-bit address.
 		if (xbee64BitAddress == null || xbee64BitAddress.equals(XBee64BitAddress.UNKNOWN_ADDRESS)) {
-			String addressHigh;
-			String addressLow;
+			byte[] addressHigh = getParameter("SH");
+			byte[] addressLow = getParameter("SL");
 			
-			response = getParameter("SH");
-			addressHigh = HexUtils.byteArrayToHexString(response);
-			
-			response = getParameter("SL");
-			addressLow = HexUtils.byteArrayToHexString(response);
-			
-			while(addressLow.length() < 8)
-				addressLow = "0" + addressLow;
-			
-			xbee64BitAddress = new XBee64BitAddress(addressHigh + addressLow);
+			xbee64BitAddress = toXBee64BitAddress(addressHigh, addressLow);
 		}
 		// Get the Node ID.
 		response = getParameter("NI");
@@ -527,15 +593,93 @@ public abstract class AbstractXBeeDevice {
 		
 		// Get the 16-bit address. This must be done after obtaining the protocol because 
 		// DigiMesh and Point-to-Multipoint protocols don't have 16-bit addresses.
-		XBeeProtocol protocol = getXBeeProtocol();
-		if (protocol == XBeeProtocol.ZIGBEE
-				|| protocol == XBeeProtocol.RAW_802_15_4
-				|| protocol == XBeeProtocol.XTEND
-				|| protocol == XBeeProtocol.SMART_ENERGY
-				|| protocol == XBeeProtocol.ZNET) {
+		if (has16BitAddress(getXBeeProtocol())) {
 			response = getParameter("MY");
 			xbee16BitAddress = new XBee16BitAddress(response);
 		}
+		
+		// Get the information of the specific device type.
+		readDeviceSpecificInfo();
+	}
+	
+	/**
+	 * Reads the parameters that only devices of a specific type have.
+	 * 
+	 * <p>This method is called at the end of {@link #readDeviceInfo()}, and 
+	 * also when opening the device if it matches its profile, because then 
+	 * the device information is not read. Subclasses override it to refresh 
+	 * their own information. This implementation does nothing.</p>
+	 * 
+	 * @throws InterfaceNotOpenException if this device connection is not open.
+	 * @throws TimeoutException if there is a timeout reading the parameters.
+	 * @throws XBeeException if there is any error trying to read the device 
+	 *                       information or if there is any other XBee 
+	 *                       related exception.
+	 * 
+	 * @see #readDeviceInfo()
+	 * @see #setDeviceProfile(DeviceProfile)
+	 * 
+	 * @since 1.4.0
+	 */
+	protected void readDeviceSpecificInfo() throws TimeoutException, XBeeException {
+		// Nothing to read for generic devices.
+	}
+	
+	/**
+	 * Returns the profile of this XBee device with the information read when 
+	 * opening it.
+	 * 
+	 * <p>The profile can be stored and provided to the 
+	 * {@link #setDeviceProfile(DeviceProfile)} method so the next opening of 
+	 * the device only verifies it instead of detecting the device again.</p>
+	 * 
+	 * @return The profile of this XBee device, {@code null} if its 
+	 *         information has not been read yet.
+	 * 
+	 * @see #open()
+	 * @see #setDeviceProfile(DeviceProfile)
+	 * @see com.digi.xbee.api.models.DeviceProfile
+	 * 
+	 * @since 1.4.0
+	 */
+	protected DeviceProfile getDeviceProfile() {
+		if (xbee64BitAddress == null || xbee64BitAddress.equals(XBee64BitAddress.UNKNOWN_ADDRESS)
+				|| hardwareVersion == null || firmwareVersion == null
+				|| (operatingMode != OperatingMode.API && operatingMode != OperatingMode.API_ESCAPE))
+			return null;
+		
+		return new DeviceProfile(operatingMode, xbee64BitAddress, hardwareVersion, 
+				firmwareVersion, xbeeProtocol, 
+				has16BitAddress(xbeeProtocol) ? xbee16BitAddress : null, nodeID);
+	}
+	
+	/**
+	 * Sets the profile to verify the next time this XBee device is opened 
+	 * (fast open).
+	 * 
+	 * <p>When a profile is configured, the {@link #open()} method sends all 
+	 * the commands to verify it (operating mode, 64-bit address and firmware 
+	 * version) at once and, if the device matches, takes the rest of the 
+	 * information from the profile. Only the node identifier, the 16-bit 
+	 * address and the information specific to the device type (see 
+	 * {@link #readDeviceSpecificInfo()}) are read again. The operating mode 
+	 * detection and the complete device information reading are only 
+	 * performed if the device does not match the profile.</p>
+	 * 
+	 * <p>After every successful opening, the configured profile is updated 
+	 * with the current information of the device.</p>
+	 * 
+	 * @param profile The profile of the device, {@code null} to always 
+	 *                detect the device when opening it.
+	 * 
+	 * @see #getDeviceProfile()
+	 * @see #open()
+	 * @see com.digi.xbee.api.models.DeviceProfile
+	 * 
+	 * @since 1.4.0
+	 */
+	protected void setDeviceProfile(DeviceProfile profile) {
+		this.deviceProfile = profile;
 	}
 	
 	/**
@@ -805,6 +949,59 @@ public abstract class AbstractXBeeDevice {
 		dataReader.removeDataReceiveListener(listener);
 	}
 	
+	/**
+	 * Subscribes the provided handler to the received packets matching the 
+	 * given filter.
+	 * 
+	 * <p>Unlike packet listeners, which receive all the packets, the handler 
+	 * is only notified of the packets matching the filter.</p>
+	 * 
+	 * @param filter The filter the packets must match.
+	 * @param handler The handler to be notified of the matching packets.
+	 * 
+	 * @throws NullPointerException if {@code filter == null} or 
+	 *                              if {@code handler == null}.
+	 * 
+	 * @see #unsubscribe(IPacketReceiveListener)
+	 * @see com.digi.xbee.api.listeners.IPacketReceiveListener
+	 * @see com.digi.xbee.api.models.XBeePacketFilter
+	 * 
+	 * @since 1.4.0
+	 */
+	protected void subscribe(XBeePacketFilter filter, IPacketReceiveListener handler) {
+		if (filter == null)
+			throw new NullPointerException("Filter cannot be null.");
+		if (handler == null)
+			throw new NullPointerException("Handler cannot be null.");
+		
+		if (dataReader == null)
+			return;
+		dataReader.subscribe(filter, handler);
+	}
+	
+	/**
+	 * Removes all the subscriptions of the provided handler.
+	 * 
+	 * <p>If the handler was not subscribed this method does nothing.</p>
+	 * 
+	 * @param handler The handler to unsubscribe.
+	 * 
+	 * @throws NullPointerException if {@code handler == null}.
+	 * 
+	 * @see #subscribe(XBeePacketFilter, IPacketReceiveListener)
+	 * @see com.digi.xbee.api.listeners.IPacketReceiveListener
+	 * 
+	 * @since 1.4.0
+	 */
+	protected void unsubscribe(IPacketReceiveListener handler) {
+		if (handler == null)
+			throw new NullPointerException("Handler cannot be null.");
+		
+		if (dataReader == null)
+			return;
+		dataReader.unsubscribe(handler);
+	}
+	
 	/**
 	 * Adds the provided listener to the list of listeners to be notified
 	 * when new IO samples are received. 
@@ -849,6 +1046,679 @@ public abstract class AbstractXBeeDevice {
 		dataReader.removeIOSampleReceiveListener(listener);
 	}
 	
+	/**
+	 * Sets the history where the IO samples received from remote devices 
+	 * are stored.
+	 * 
+	 * <p>The history is kept when the connection is closed and opened again. 
+	 * Use {@code null} to stop storing the received IO samples.</p>
+	 * 
+	 * @param ioSampleHistory The history to store the IO samples in, 
+	 *                        {@code null} to disable it.
+	 * 
+	 * @see #getIOSampleHistory()
+	 * @see com.digi.xbee.api.io.IOSampleHistory
+	 * 
+	 * @since 1.4.0
+	 */
+	protected void setIOSampleHistory(IOSampleHistory ioSampleHistory) {
+		this.ioSampleHistory = ioSampleHistory;
+		
+		if (dataReader != null)
+			dataReader.setIOSampleHistory(ioSampleHistory);
+	}
+	
+	/**
+	 * Returns the history where the IO samples received from remote devices 
+	 * are stored.
+	 * 
+	 * @return The IO samples history, {@code null} if it is not configured.
+	 * 
+	 * @see #setIOSampleHistory(IOSampleHistory)
+	 * @see com.digi.xbee.api.io.IOSampleHistory
+	 * 
+	 * @since 1.4.0
+	 */
+	protected IOSampleHistory getIOSampleHistory() {
+		return ioSampleHistory;
+	}
+	
+	/**
+	 * Sets the options used to deliver the received IO samples to the IO 
+	 * sample listeners: conflation of the samples received while a listener 
+	 * is busy and delivery of only the samples with changes.
+	 * 
+	 * <p>The options are kept when the connection is closed and opened 
+	 * again.</p>
+	 * 
+	 * @param options The IO sample delivery options, {@code null} to deliver 
+	 *                all the samples to every listener.
+	 * 
+	 * @see #getIOSampleDeliveryOptions()
+	 * @see #getSuppressedIOSamples(RemoteXBeeDevice)
+	 * @see com.digi.xbee.api.io.IOSampleDeliveryOptions
+	 * 
+	 * @since 1.4.0
+	 */
+	protected void setIOSampleDeliveryOptions(IOSampleDeliveryOptions options) {
+		this.ioSampleDeliveryOptions = options;
+		
+		if (dataReader != null)
+			dataReader.setIOSampleDeliveryOptions(options);
+	}
+	
+	/**
+	 * Returns the options used to deliver the received IO samples to the IO 
+	 * sample listeners.
+	 * 
+	 * @return The IO sample delivery options, {@code null} if all the 
+	 *         samples are delivered.
+	 * 
+	 * @see #setIOSampleDeliveryOptions(IOSampleDeliveryOptions)
+	 * @see com.digi.xbee.api.io.IOSampleDeliveryOptions
+	 * 
+	 * @since 1.4.0
+	 */
+	protected IOSampleDeliveryOptions getIOSampleDeliveryOptions() {
+		return ioSampleDeliveryOptions;
+	}
+	
+	/**
+	 * Sets the options of the staged receive pipeline, which reads, decodes 
+	 * and dispatches the received frames in separate threads.
+	 * 
+	 * <p>The options are applied the next time the connection is opened. 
+	 * Use {@code null} to read, decode and dispatch the frames in the data 
+	 * reader thread.</p>
+	 * 
+	 * @param options The receive pipeline options, {@code null} to disable 
+	 *                the staged pipeline.
+	 * 
+	 * @see #getReceivePipelineOptions()
+	 * @see com.digi.xbee.api.models.ReceivePipelineOptions
+	 * 
+	 * @since 1.4.0
+	 */
+	protected void setReceivePipelineOptions(ReceivePipelineOptions options) {
+		this.receivePipelineOptions = options;
+	}
+	
+	/**
+	 * Returns the options of the staged receive pipeline.
+	 * 
+	 * @return The receive pipeline options, {@code null} if the staged 
+	 *         pipeline is disabled.
+	 * 
+	 * @see #setReceivePipelineOptions(ReceivePipelineOptions)
+	 * @see com.digi.xbee.api.models.ReceivePipelineOptions
+	 * 
+	 * @since 1.4.0
+	 */
+	protected ReceivePipelineOptions getReceivePipelineOptions() {
+		return receivePipelineOptions;
+	}
+	
+	/**
+	 * Returns the number of IO samples of the given remote device that were 
+	 * not delivered to the listeners because of the IO sample delivery 
+	 * options since the connection was opened.
+	 * 
+	 * @param remoteDevice The remote XBee device.
+	 * 
+	 * @return The number of suppressed IO samples.
+	 * 
+	 * @throws NullPointerException if {@code remoteDevice == null}.
+	 * 
+	 * @see #setIOSampleDeliveryOptions(IOSampleDeliveryOptions)
+	 * 
+	 * @since 1.4.0
+	 */
+	protected long getSuppressedIOSamples(RemoteXBeeDevice remoteDevice) {
+		if (remoteDevice == null)
+			throw new NullPointerException("Remote device cannot be null.");
+		
+		if (dataReader == null)
+			return 0;
+		return dataReader.getSuppressedIOSamples(remoteDevice);
+	}
+	
+	/**
+	 * Sets the recorder that receives the metrics of this XBee device: 
+	 * frames and bytes read and written, parse errors, packets queue depth, 
+	 * listener dispatch time and response latencies.
+	 * 
+	 * <p>The recorder is kept when the connection is closed and opened 
+	 * again. Use {@code null} to stop collecting metrics; in that case the 
+	 * instrumentation only checks that there is no recorder.</p>
+	 * 
+	 * @param recorder The metrics recorder, {@code null} to disable the 
+	 *                 metrics.
+	 * 
+	 * @see #getMetricsRecorder()
+	 * @see #enableMetrics()
+	 * @see com.digi.xbee.api.metrics.IMetricsRecorder
+	 * 
+	 * @since 1.4.0
+	 */
+	protected synchronized void setMetricsRecorder(IMetricsRecorder recorder) {
+		IMetricsRecorder previous = metricsRecorder;
+		metricsRecorder = recorder;
+		
+		// Unregister the bean of the replaced metrics.
+		if (previous instanceof XBeeMetrics && previous != recorder) {
+			try {
+				((XBeeMetrics)previous).unregister();
+			} catch (JMException e) {
+				logger.warn(toString() + "Error unregistering the metrics bean.", e);
+			}
+		}
+	}
+	
+	/**
+	 * Returns the recorder that receives the metrics of this XBee device.
+	 * 
+	 * <p>Remote devices return the recorder of their local device.</p>
+	 * 
+	 * @return The metrics recorder, {@code null} if the metrics are 
+	 *         disabled.
+	 * 
+	 * @see #setMetricsRecorder(IMetricsRecorder)
+	 * @see com.digi.xbee.api.metrics.IMetricsRecorder
+	 * 
+	 * @since 1.4.0
+	 */
+	protected IMetricsRecorder getMetricsRecorder() {
+		if (isRemote())
+			return localXBeeDevice.getMetricsRecorder();
+		return metricsRecorder;
+	}
+	
+	/**
+	 * Enables the built-in metrics of this XBee device and registers them 
+	 * in the platform MBean server.
+	 * 
+	 * <p>If the built-in metrics are already enabled, this method returns 
+	 * them.</p>
+	 * 
+	 * @return The metrics of this XBee device.
+	 * 
+	 * @see #disableMetrics()
+	 * @see com.digi.xbee.api.metrics.XBeeMetrics
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean
+	 * 
+	 * @since 1.4.0
+	 */
+	protected synchronized XBeeMetrics enableMetrics() {
+		if (metricsRecorder instanceof XBeeMetrics)
+			return (XBeeMetrics)metricsRecorder;
+		
+		XBeeMetrics metrics = new XBeeMetrics();
+		try {
+			metrics.register(connectionInterface.toString().trim());
+		} catch (JMException e) {
+			logger.warn(toString() + "Error registering the metrics bean.", e);
+		}
+		setMetricsRecorder(metrics);
+		return metrics;
+	}
+	
+	/**
+	 * Disables the metrics of this XBee device and unregisters the built-in 
+	 * metrics from the platform MBean server.
+	 * 
+	 * @see #enableMetrics()
+	 * 
+	 * @since 1.4.0
+	 */
+	protected void disableMetrics() {
+		setMetricsRecorder(null);
+	}
+	
+	/**
+	 * Sets the tracer that receives the API frames written and read by this 
+	 * XBee device and the synchronous waits for their responses.
+	 * 
+	 * <p>The tracer is kept when the connection is closed and opened 
+	 * again. Use {@code null} to stop tracing.</p>
+	 * 
+	 * @param tracer The packet tracer, {@code null} to disable the tracing.
+	 * 
+	 * @see #getPacketTracer()
+	 * @see com.digi.xbee.api.metrics.IPacketTracer
+	 * 
+	 * @since 1.4.0
+	 */
+	protected void setPacketTracer(IPacketTracer tracer) {
+		packetTracer = tracer;
+	}
+	
+	/**
+	 * Returns the tracer that receives the API frames of this XBee device.
+	 * 
+	 * <p>Remote devices return the tracer of their local device.</p>
+	 * 
+	 * @return The packet tracer, {@code null} if the tracing is disabled.
+	 * 
+	 * @see #setPacketTracer(IPacketTracer)
+	 * @see com.digi.xbee.api.metrics.IPacketTracer
+	 * 
+	 * @since 1.4.0
+	 */
+	protected IPacketTracer getPacketTracer() {
+		if (isRemote())
+			return localXBeeDevice.getPacketTracer();
+		return packetTracer;
+	}
+	
+	/**
+	 * Enables the adaptive receive timeouts of this XBee device.
+	 * 
+	 * <p>Synchronous transmit requests and remote AT commands sent to a 
+	 * remote device wait for their response a timeout computed from the 
+	 * measured round-trip times of that device, instead of the fixed receive 
+	 * timeout. The timeout is kept between the given bounds. Remote devices 
+	 * without measured round-trip times use the receive timeout.</p>
+	 * 
+	 * <p>Round-trip times are always measured, even if the adaptive timeouts 
+	 * are disabled.</p>
+	 * 
+	 * @param minTimeout Minimum receive timeout in milliseconds.
+	 * @param maxTimeout Maximum receive timeout in milliseconds.
+	 * 
+	 * @throws IllegalArgumentException if {@code minTimeout < 1} or 
+	 *                                  if {@code maxTimeout < minTimeout}.
+	 * 
+	 * @see #disableAdaptiveReceiveTimeout()
+	 * @see #isAdaptiveReceiveTimeout()
+	 * @see #getRoundTripTimeEstimator()
+	 * @see #setReceiveTimeout(int)
+	 * 
+	 * @since 1.4.0
+	 */
+	protected void enableAdaptiveReceiveTimeout(int minTimeout, int maxTimeout) {
+		rttEstimator.setTimeoutBounds(minTimeout, maxTimeout);
+		adaptiveReceiveTimeout = true;
+	}
+	
+	/**
+	 * Disables the adaptive receive timeouts of this XBee device, so all 
+	 * synchronous operations use the receive timeout.
+	 * 
+	 * @see #enableAdaptiveReceiveTimeout(int, int)
+	 * @see #setReceiveTimeout(int)
+	 * 
+	 * @since 1.4.0
+	 */
+	protected void disableAdaptiveReceiveTimeout() {
+		adaptiveReceiveTimeout = false;
+	}
+	
+	/**
+	 * Returns whether the adaptive receive timeouts are enabled.
+	 * 
+	 * <p>Remote devices return the value of their local device.</p>
+	 * 
+	 * @return {@code true} if the adaptive receive timeouts are enabled, 
+	 *         {@code false} otherwise.
+	 * 
+	 * @see #enableAdaptiveReceiveTimeout(int, int)
+	 * 
+	 * @since 1.4.0
+	 */
+	protected boolean isAdaptiveReceiveTimeout() {
+		if (isRemote())
+			return localXBeeDevice.isAdaptiveReceiveTimeout();
+		return adaptiveReceiveTimeout;
+	}
+	
+	/**
+	 * Returns the round-trip time estimator of this XBee device.
+	 * 
+	 * <p>Remote devices return the estimator of their local device.</p>
+	 * 
+	 * @return The round-trip time estimator.
+	 * 
+	 * @see #getRoundTripTimeEstimate(RemoteXBeeDevice)
+	 * @see com.digi.xbee.api.models.RoundTripTimeEstimator
+	 * 
+	 * @since 1.4.0
+	 */
+	protected RoundTripTimeEstimator getRoundTripTimeEstimator() {
+		if (isRemote())
+			return localXBeeDevice.getRoundTripTimeEstimator();
+		return rttEstimator;
+	}
+	
+	/**
+	 * Returns the round-trip time estimate of the given remote device.
+	 * 
+	 * @param remoteDevice The remote XBee device.
+	 * 
+	 * @return The round-trip time estimate, {@code null} if no round-trip 
+	 *         time of the remote device has been measured.
+	 * 
+	 * @throws NullPointerException if {@code remoteDevice == null}.
+	 * 
+	 * @see #getRoundTripTimeEstimator()
+	 * @see com.digi.xbee.api.models.RoundTripTimeEstimate
+	 * 
+	 * @since 1.4.0
+	 */
+	protected RoundTripTimeEstimate getRoundTripTimeEstimate(RemoteXBeeDevice remoteDevice) {
+		if (remoteDevice == null)
+			throw new NullPointerException("Remote device cannot be null.");
+		
+		XBee64BitAddress address = remoteDevice.get64BitAddress();
+		if (address == null)
+			return null;
+		return getRoundTripTimeEstimator().getEstimate(address);
+	}
+	
+	/**
+	 * Sets the controller that limits the synchronous transmissions of this 
+	 * XBee device to keep them near the capacity of the network.
+	 * 
+	 * <p>Before sending a synchronous transmit request, the device waits 
+	 * up to the receive timeout until the controller allows it, and then 
+	 * reports its transmit status to the controller. Modem status events are 
+	 * also reported to it. Use {@code null} to send without limits.</p>
+	 * 
+	 * @param controller The transmit rate controller, {@code null} to 
+	 *                   disable it.
+	 * 
+	 * @see #getTransmitRateController()
+	 * @see com.digi.xbee.api.models.TransmitRateController
+	 * 
+	 * @since 1.4.0
+	 */
+	protected void setTransmitRateController(TransmitRateController controller) {
+		transmitRateController = controller;
+	}
+	
+	/**
+	 * Returns the controller that limits the synchronous transmissions of 
+	 * this XBee device.
+	 * 
+	 * <p>Remote devices return the controller of their local device.</p>
+	 * 
+	 * @return The transmit rate controller, {@code null} if it is disabled.
+	 * 
+	 * @see #setTransmitRateController(TransmitRateController)
+	 * @see com.digi.xbee.api.models.TransmitRateController
+	 * 
+	 * @since 1.4.0
+	 */
+	protected TransmitRateController getTransmitRateController() {
+		if (isRemote())
+			return localXBeeDevice.getTransmitRateController();
+		return transmitRateController;
+	}
+	
+	/**
+	 * Sets the backpressure that stops the reception of this XBee device 
+	 * using the RTS line while the received frames are not processed.
+	 * 
+	 * <p>Instead of discarding the oldest packets when the listeners or the 
+	 * application fall behind, the module keeps the new data in its buffer 
+	 * until the receive pipeline drains. It only has effect if the device 
+	 * is connected through a serial port with hardware flow control and the 
+	 * module honors RTS. Use {@code null} to disable it.</p>
+	 * 
+	 * @param backpressure The receive backpressure, {@code null} to disable 
+	 *                     it.
+	 * 
+	 * @see #getReceiveBackpressure()
+	 * @see com.digi.xbee.api.connection.serial.ReceiveBackpressure
+	 * 
+	 * @since 1.4.0
+	 */
+	protected void setReceiveBackpressure(ReceiveBackpressure backpressure) {
+		ReceiveBackpressure previous = receiveBackpressure;
+		receiveBackpressure = backpressure;
+		
+		// Do not keep the reception stopped by the previous one.
+		if (previous != null && previous != backpressure 
+				&& connectionInterface instanceof AbstractSerialPort && connectionInterface.isOpen())
+			previous.release((AbstractSerialPort)connectionInterface);
+	}
+	
+	/**
+	 * Returns the backpressure that stops the reception of this XBee device 
+	 * while the received frames are not processed.
+	 * 
+	 * @return The receive backpressure, {@code null} if it is disabled.
+	 * 
+	 * @see #setReceiveBackpressure(ReceiveBackpressure)
+	 * @see com.digi.xbee.api.connection.serial.ReceiveBackpressure
+	 * 
+	 * @since 1.4.0
+	 */
+	protected ReceiveBackpressure getReceiveBackpressure() {
+		return receiveBackpressure;
+	}
+	
+	/**
+	 * Returns the timer that drives the timeouts of the asynchronous 
+	 * operations of this XBee device.
+	 * 
+	 * <p>All the pending timeouts share a single thread, which only runs 
+	 * while there are pending timeouts. Remote devices return the timer of 
+	 * their local device.</p>
+	 * 
+	 * @return The timer of this XBee device.
+	 * 
+	 * @see com.digi.xbee.api.utils.HashedWheelTimer
+	 * 
+	 * @since 1.4.0
+	 */
+	protected HashedWheelTimer getTimer() {
+		if (isRemote())
+			return localXBeeDevice.getTimer();
+		HashedWheelTimer t = timer;
+		if (t == null) {
+			synchronized (this) {
+				t = timer;
+				if (t == null) {
+					t = new HashedWheelTimer("XBee timer " + connectionInterface);
+					timer = t;
+				}
+			}
+		}
+		return t;
+	}
+	
+	/**
+	 * Enables the fragmentation transport of this XBee device to send and 
+	 * receive messages larger than the maximum RF payload of the radio.
+	 * 
+	 * <p>Once enabled, the fragments received from other devices are 
+	 * reassembled and the complete messages are delivered to the data 
+	 * listeners. If the transport is already enabled, this method returns 
+	 * it.</p>
+	 * 
+	 * @return The fragmentation transport of this XBee device.
+	 * 
+	 * @see #disableFragmentation()
+	 * @see #getFragmentationTransport()
+	 * @see com.digi.xbee.api.transport.FragmentationTransport
+	 * 
+	 * @since 1.4.0
+	 */
+	protected synchronized FragmentationTransport enableFragmentation() {
+		if (isRemote())
+			return localXBeeDevice.enableFragmentation();
+		if (fragmentationTransport == null)
+			fragmentationTransport = new FragmentationTransport((XBeeDevice)this);
+		return fragmentationTransport;
+	}
+	
+	/**
+	 * Disables the fragmentation transport of this XBee device.
+	 * 
+	 * @see #enableFragmentation()
+	 * 
+	 * @since 1.4.0
+	 */
+	protected void disableFragmentation() {
+		if (isRemote())
+			localXBeeDevice.disableFragmentation();
+		else
+			fragmentationTransport = null;
+	}
+	
+	/**
+	 * Returns the fragmentation transport of this XBee device.
+	 * 
+	 * <p>Remote devices return the transport of their local device.</p>
+	 * 
+	 * @return The fragmentation transport, {@code null} if it is disabled.
+	 * 
+	 * @see #enableFragmentation()
+	 * @see com.digi.xbee.api.transport.FragmentationTransport
+	 * 
+	 * @since 1.4.0
+	 */
+	protected FragmentationTransport getFragmentationTransport() {
+		if (isRemote())
+			return localXBeeDevice.getFragmentationTransport();
+		return fragmentationTransport;
+	}
+	
+	/**
+	 * Enables the aggregation of small messages sent to the same remote 
+	 * device in a single transmission.
+	 * 
+	 * <p>Once enabled, the aggregated messages received from other devices 
+	 * are split and delivered one by one to the data listeners. If the 
+	 * aggregation is already enabled, this method returns its 
+	 * aggregator.</p>
+	 * 
+	 * @return The message aggregator of this XBee device.
+	 * 
+	 * @see #disableAggregation()
+	 * @see #getMessageAggregator()
+	 * @see com.digi.xbee.api.transport.MessageAggregator
+	 * 
+	 * @since 1.4.0
+	 */
+	protected synchronized MessageAggregator enableAggregation() {
+		if (isRemote())
+			return localXBeeDevice.enableAggregation();
+		if (messageAggregator == null)
+			messageAggregator = new MessageAggregator((XBeeDevice)this);
+		return messageAggregator;
+	}
+	
+	/**
+	 * Disables the aggregation of small messages, transmitting the messages 
+	 * that are still buffered.
+	 * 
+	 * @throws XBeeException if there is any error transmitting the buffered 
+	 *                       messages.
+	 * 
+	 * @see #enableAggregation()
+	 * 
+	 * @since 1.4.0
+	 */
+	protected void disableAggregation() throws XBeeException {
+		if (isRemote()) {
+			localXBeeDevice.disableAggregation();
+			return;
+		}
+		MessageAggregator aggregator;
+		synchronized (this) {
+			aggregator = messageAggregator;
+			messageAggregator = null;
+		}
+		if (aggregator != null)
+			aggregator.close();
+	}
+	
+	/**
+	 * Returns the message aggregator of this XBee device.
+	 * 
+	 * <p>Remote devices return the aggregator of their local device.</p>
+	 * 
+	 * @return The message aggregator, {@code null} if the aggregation is 
+	 *         disabled.
+	 * 
+	 * @see #enableAggregation()
+	 * @see com.digi.xbee.api.transport.MessageAggregator
+	 * 
+	 * @since 1.4.0
+	 */
+	protected MessageAggregator getMessageAggregator() {
+		if (isRemote())
+			return localXBeeDevice.getMessageAggregator();
+		return messageAggregator;
+	}
+	
+	/**
+	 * Enables the request/response transport of this XBee device to send 
+	 * requests to other devices and answer theirs.
+	 * 
+	 * <p>Once enabled, the responses received from other devices complete 
+	 * their requests and the requests are passed to the request handler of 
+	 * the transport. If the transport is already enabled, this method 
+	 * returns it.</p>
+	 * 
+	 * @return The request/response transport of this XBee device.
+	 * 
+	 * @see #disableRPC()
+	 * @see #getRPCTransport()
+	 * @see com.digi.xbee.api.transport.RPCTransport
+	 * 
+	 * @since 1.4.0
+	 */
+	protected synchronized RPCTransport enableRPC() {
+		if (isRemote())
+			return localXBeeDevice.enableRPC();
+		if (rpcTransport == null)
+			rpcTransport = new RPCTransport((XBeeDevice)this);
+		return rpcTransport;
+	}
+	
+	/**
+	 * Disables the request/response transport of this XBee device, 
+	 * cancelling the pending requests.
+	 * 
+	 * @see #enableRPC()
+	 * 
+	 * @since 1.4.0
+	 */
+	protected void disableRPC() {
+		if (isRemote()) {
+			localXBeeDevice.disableRPC();
+			return;
+		}
+		RPCTransport transport;
+		synchronized (this) {
+			transport = rpcTransport;
+			rpcTransport = null;
+		}
+		if (transport != null)
+			transport.close();
+	}
+	
+	/**
+	 * Returns the request/response transport of this XBee device.
+	 * 
+	 * <p>Remote devices return the transport of their local device.</p>
+	 * 
+	 * @return The request/response transport, {@code null} if it is 
+	 *         disabled.
+	 * 
+	 * @see #enableRPC()
+	 * @see com.digi.xbee.api.transport.RPCTransport
+	 * 
+	 * @since 1.4.0
+	 */
+	protected RPCTransport getRPCTransport() {
+		if (isRemote())
+			return localXBeeDevice.getRPCTransport();
+		return rpcTransport;
+	}
+	
 	/**
 	 * Adds the provided listener to the list of listeners to be notified
 	 * when new Modem Status events are received.
@@ -1312,6 +2182,12 @@ public abstract class AbstractXBeeDevice {
 			else
 				logger.debug(toString() + "Sending AT command '{} {}'.", command.getCommand(), 
 						HexUtils.prettyHexString(command.getParameter()));
+			IMetricsRecorder metrics = getMetricsRecorder();
+			long start = 0;
+			if (metrics != null) {
+				metrics.increment(MetricsCounter.AT_COMMANDS, 1);
+				start = System.nanoTime();
+			}
 			try {
 				// Send the packet and build the corresponding response depending on if the device is local or remote.
 				XBeePacket answerPacket;
@@ -1319,6 +2195,8 @@ public abstract class AbstractXBeeDevice {
 					answerPacket = localXBeeDevice.sendXBeePacket(packet);
 				else
 					answerPacket = sendXBeePacket(packet);
+				if (metrics != null)
+					metrics.record(MetricsTimer.AT_COMMAND, System.nanoTime() - start);
 				
 				if (answerPacket instanceof ATCommandResponsePacket) {
 					ATCommandResponsePacket r = (ATCommandResponsePacket)answerPacket;
@@ -1331,6 +2209,9 @@ public abstract class AbstractXBeeDevice {
 					response = new ATCommandResponse(command, r.getCommandValue(), r.getStatus());
 				}
 				
+				if (metrics != null && response != null && response.getResponseStatus() != ATCommandStatus.OK)
+					metrics.increment(MetricsCounter.AT_COMMAND_ERRORS, 1);
+				
 				if (response != null && response.getResponse() != null)
 					logger.debug(toString() + "AT command response: {}.", HexUtils.prettyHexString(response.getResponse()));
 				else
@@ -1435,7 +2316,9 @@ public abstract class AbstractXBeeDevice {
 	 * received or receive timeout is reached.
 	 * 
 	 * <p>The receive timeout is configured using the {@code setReceiveTimeout}
-	 * method and can be consulted with {@code getReceiveTimeout} method.</p>
+	 * method and can be consulted with {@code getReceiveTimeout} method. If 
+	 * the adaptive receive timeouts are enabled, requests to a remote device 
+	 * use the timeout computed from its round-trip times.</p>
 	 * 
 	 * <p>Use {@link #sendXBeePacketAsync(XBeePacket)} for non-blocking 
 	 * operations.</p>
@@ -1494,33 +2377,163 @@ public abstract class AbstractXBeeDevice {
 			// Add the required frame ID to the packet if necessary.
 			insertFrameID(packet);
 			
+			// Wait until the rate controller allows the transmission.
+			TransmitRateController controller = isTransmitRequest(packet) ? getTransmitRateController() : null;
+			XBee64BitAddress destination = getRoundTripTimeDestination(packet);
+			if (controller != null && !controller.acquire(destination, receiveTimeout))
+				throw new TimeoutException("The transmit rate controller did not allow the transmission.");
+			
 			// Generate a packet received listener for the packet to be sent.
 			IPacketReceiveListener packetReceiveListener = createPacketReceivedListener(packet, responseList);
 			
 			// Add the packet listener to the data reader.
 			addPacketListener(packetReceiveListener);
 			
-			// Write the packet data.
-			writePacket(packet);
+			// Round-trip times are only measured for unicast remote requests.
+			int timeout = receiveTimeout;
+			if (destination != null && isAdaptiveReceiveTimeout())
+				timeout = getRoundTripTimeEstimator().getTimeout(destination, receiveTimeout);
+			
+			IMetricsRecorder metrics = getMetricsRecorder();
+			long start = metrics == null && destination == null ? 0 : System.nanoTime();
+			
+			IPacketTracer tracer = getPacketTracer();
+			Object trace = tracer == null ? null : tracer.beginResponseWait(packet);
+			XBeePacket response = null;
+			boolean written = false;
+			
 			try {
+				// Write the packet data.
+				writePacket(packet);
+				written = true;
 				// Wait for response or timeout.
 				synchronized (responseList) {
 					try {
-						responseList.wait(receiveTimeout);
+						// The response may have arrived while writing the packet.
+						if (responseList.isEmpty())
+							responseList.wait(timeout);
 					} catch (InterruptedException e) {}
 				}
 				// After the wait check if we received any response, if not throw timeout exception.
-				if (responseList.size() < 1)
+				if (responseList.size() < 1) {
+					if (metrics != null)
+						metrics.increment(MetricsCounter.RESPONSE_TIMEOUTS, 1);
+					if (destination != null)
+						getRoundTripTimeEstimator().addTimeout(destination);
 					throw new TimeoutException();
+				}
+				response = responseList.get(0);
+				if (destination != null) {
+					getRoundTripTimeEstimator().addSample(destination, System.nanoTime() - start);
+					updateLinkStatistics(destination, response);
+				}
+				if (metrics != null)
+					metrics.record(response instanceof TransmitStatusPacket || response instanceof TXStatusPacket ? 
+							MetricsTimer.TRANSMIT_STATUS : MetricsTimer.PACKET_RESPONSE, System.nanoTime() - start);
 				// Return the received packet.
-				return responseList.get(0);
+				return response;
 			} finally {
 				// Always remove the packet listener from the list.
 				removePacketListener(packetReceiveListener);
+				if (controller != null) {
+					if (written)
+						controller.release(getTransmitStatus(response));
+					else
+						controller.cancel();
+				}
+				if (tracer != null)
+					tracer.endResponseWait(trace, response);
 			}
 		}
 	}
 	
+	/**
+	 * Returns the remote device whose round-trip time is measured with the 
+	 * given packet.
+	 * 
+	 * <p>Only transmit requests and remote AT commands sent to a single 
+	 * remote device by its 64-bit address are measured.</p>
+	 * 
+	 * @param packet The packet to send.
+	 * 
+	 * @return The 64-bit address of the destination, {@code null} if the 
+	 *         round-trip time of the packet is not measured.
+	 */
+	private static XBee64BitAddress getRoundTripTimeDestination(XBeePacket packet) {
+		XBee64BitAddress address = null;
+		if (packet instanceof TransmitPacket)
+			address = ((TransmitPacket)packet).get64bitDestinationAddress();
+		else if (packet instanceof ExplicitAddressingPacket)
+			address = ((ExplicitAddressingPacket)packet).get64BitDestinationAddress();
+		else if (packet instanceof RemoteATCommandPacket)
+			address = ((RemoteATCommandPacket)packet).get64bitDestinationAddress();
+		else if (packet instanceof TX64Packet)
+			address = ((TX64Packet)packet).get64bitDestinationAddress();
+		
+		if (address == null || address.equals(XBee64BitAddress.BROADCAST_ADDRESS) 
+				|| address.equals(XBee64BitAddress.UNKNOWN_ADDRESS))
+			return null;
+		return address;
+	}
+	
+	/**
+	 * Returns whether the given packet is a transmit request answered with 
+	 * a transmit status.
+	 * 
+	 * @param packet The packet to send.
+	 * 
+	 * @return {@code true} if the packet is a transmit request, 
+	 *         {@code false} otherwise.
+	 */
+	private static boolean isTransmitRequest(XBeePacket packet) {
+		return packet instanceof TransmitPacket || packet instanceof ExplicitAddressingPacket 
+				|| packet instanceof TX64Packet || packet instanceof TX16Packet;
+	}
+	
+	/**
+	 * Returns the transmit status of the given response.
+	 * 
+	 * @param response The response received for a transmit request, 
+	 *                 {@code null} if it was not received.
+	 * 
+	 * @return The transmit status, {@code null} if the response is not a 
+	 *         transmit status.
+	 */
+	private static XBeeTransmitStatus getTransmitStatus(XBeePacket response) {
+		if (response instanceof TransmitStatusPacket)
+			return ((TransmitStatusPacket)response).getTransmitStatus();
+		if (response instanceof TXStatusPacket)
+			return ((TXStatusPacket)response).getTransmitStatus();
+		return null;
+	}
+	
+	/**
+	 * Updates the link statistics of the given remote device with the 
+	 * transmit status received for a transmission to it.
+	 * 
+	 * @param destination 64-bit address of the remote device.
+	 * @param response The response received for the transmission.
+	 * 
+	 * @see XBeeNetwork#getLinkStatistics(RemoteXBeeDevice)
+	 */
+	private void updateLinkStatistics(XBee64BitAddress destination, XBeePacket response) {
+		if (!(response instanceof TransmitStatusPacket || response instanceof TXStatusPacket))
+			return;
+		
+		XBeeNetwork network = getNetwork();
+		LinkStatisticsTable table = network == null ? null : network.getLinkStatisticsTable();
+		if (table == null)
+			return;
+		
+		if (response instanceof TransmitStatusPacket) {
+			TransmitStatusPacket status = (TransmitStatusPacket)response;
+			table.addTransmitStatus(destination, status.getTransmitStatus(), 
+					status.getTransmitRetryCount(), status.getDiscoveryStatus());
+		} else {
+			table.addTransmitStatus(destination, ((TXStatusPacket)response).getTransmitStatus(), 0, null);
+		}
+	}
+	
 	/**
 	 * Insert (if possible) the next frame ID stored in the device to the 
 	 * provided packet.
@@ -1588,13 +2601,18 @@ public abstract class AbstractXBeeDevice {
 							if (!((RemoteATCommandPacket)sentAPIPacket).getCommand().equalsIgnoreCase(((RemoteATCommandResponsePacket)receivedPacket).getCommand()))
 								return;
 						}
+						// If the packet sent is a CoAP request, verify that the received one is its transmit status
+						// (the CoAP response has the same frame ID and may arrive first).
+						if (sentAPIPacket.getFrameType() == APIFrameType.COAP_TX_REQUEST
+								&& receivedAPIPacket.getFrameType() != APIFrameType.TX_STATUS)
+							return;
 					}
 					
 					// Verify that the sent packet is not the received one! This can happen when the echo mode is enabled in the 
 					// serial port.
 					if (!sentPacket.equals(receivedPacket)) {
-						responseList.add(receivedPacket);
 						synchronized (responseList) {
+							responseList.add(receivedPacket);
 							responseList.notify();
 						}
 					}
@@ -1618,15 +2636,33 @@ public abstract class AbstractXBeeDevice {
 	private void writePacket(XBeePacket packet) throws IOException {
 		logger.debug(toString() + "Sending XBee packet: \n{}", packet.toPrettyString());
 		// Write bytes with the required escaping mode.
+		byte[] data;
 		switch (getOperatingMode()) {
 		case API:
 		default:
-			connectionInterface.writeData(packet.generateByteArray());
+			data = packet.generateByteArray();
 			break;
 		case API_ESCAPE:
-			connectionInterface.writeData(packet.generateByteArrayEscaped());
+			data = packet.generateByteArrayEscaped();
 			break;
 		}
+		IPacketTracer tracer = getPacketTracer();
+		if (tracer == null) {
+			connectionInterface.writeData(data);
+		} else {
+			Object trace = tracer.beginSend(packet, data.length);
+			try {
+				connectionInterface.writeData(data);
+			} finally {
+				tracer.endSend(trace);
+			}
+		}
+		
+		IMetricsRecorder metrics = getMetricsRecorder();
+		if (metrics != null) {
+			metrics.increment(MetricsCounter.FRAMES_SENT, 1);
+			metrics.increment(MetricsCounter.BYTES_SENT, data.length);
+		}
 	}
 	
 	/**
@@ -1733,116 +2769,155 @@ public abstract class AbstractXBeeDevice {
 	 */
 	protected byte[] sendAndCheckCoAPPacket(CoAPTxRequestPacket packet,
 			boolean asyncTransmission) throws TransmitException, XBeeException {
-		// Add listener to read CoAP response (when sending a CoAP transmission, 
-		// a transmit status and a CoAP response are received by the sender)
-		ArrayList<CoAPRxResponsePacket> coapResponsePackets = new ArrayList<CoAPRxResponsePacket>();
-		IPacketReceiveListener listener = createCoAPResponseListener(coapResponsePackets);
-		addPacketListener(listener);
+		if (packet == null)
+			throw new NullPointerException("CoAP packet cannot be null.");
 		
-		// Send the CoAP Tx Request packet.
-		XBeePacket receivedPacket = null;
-		try {
-			if (asyncTransmission)
+		// If the transmission is async. we are done after sending the packet.
+		if (asyncTransmission) {
+			try {
 				sendXBeePacketAsync(packet);
-			else
-				receivedPacket = sendXBeePacket(packet);
-		} catch (IOException e) {
-			throw new XBeeException("Error writing in the communication interface.", e);
-		}
-		
-		// If the transmission is async. we are done.
-		if (asyncTransmission)
+			} catch (IOException e) {
+				throw new XBeeException("Error writing in the communication interface.", e);
+			}
 			return null;
+		}
 		
-		if (receivedPacket == null)
-			throw new TransmitException(null);
-		
-		// Verify Transmit status.
-		XBeeTransmitStatus status = null;
-		if (receivedPacket instanceof TXStatusPacket)
-			status = ((TXStatusPacket)receivedPacket).getTransmitStatus();
-		
-		if (status == null || 
-				(status != XBeeTransmitStatus.SUCCESS && status != XBeeTransmitStatus.SELF_ADDRESSED)) 
-			throw new TransmitException(status);
-		
-		// Verify CoAP response (only expect one CoAP RX Response packet).
-		CoAPRxResponsePacket coapRxPacket = null;
+		// Register the request before sending it (when sending a CoAP 
+		// transmission, a transmit status and a CoAP response are received 
+		// by the sender and the response may arrive first).
+		XBeeFuture<byte[]> response = getCoAPRequestTable(true).register(packet, receiveTimeout);
 		try {
-			coapRxPacket = waitForCoAPRxResponsePacket(coapResponsePackets);
+			// Send the CoAP Tx Request packet.
+			XBeePacket receivedPacket = null;
+			try {
+				receivedPacket = sendXBeePacket(packet);
+			} catch (IOException e) {
+				throw new XBeeException("Error writing in the communication interface.", e);
+			}
+			
+			if (receivedPacket == null)
+				throw new TransmitException(null);
+			
+			// Verify Transmit status.
+			XBeeTransmitStatus status = null;
+			if (receivedPacket instanceof TXStatusPacket)
+				status = ((TXStatusPacket)receivedPacket).getTransmitStatus();
+			
+			if (status == null || 
+					(status != XBeeTransmitStatus.SUCCESS && status != XBeeTransmitStatus.SELF_ADDRESSED)) 
+				throw new TransmitException(status);
+			
+			// Verify CoAP response.
+			return waitForCoAPResponse(response);
 		} finally {
-			// Always remove the packet listener from the list.
-			removePacketListener(listener);
+			// Forget the request if it failed before its response arrived.
+			response.cancel(false);
 		}
-		if (coapRxPacket == null)
-			throw new XBeeException("CoAP response was null.");
-		return coapRxPacket.getData();
 	}
 	
 	/**
-	 * Returns the CoAP packet listener corresponding to the provided sent CoAP 
-	 * packet. 
+	 * Sends the provided {@code CoAPTxRequestPacket} without blocking and 
+	 * returns the future of its CoAP RX Response.
+	 * 
+	 * <p>The request is correlated with its transmit status and response by 
+	 * its frame ID and the address of the remote node, so any number of 
+	 * requests can be outstanding at the same time. The frame ID of the 
+	 * packet is changed if another pending request uses it.</p>
 	 * 
-	 * <p>The listener will filter CoAP Rx Response packets (0x9C) and storing 
-	 * them in the provided responseList array.</p>
+	 * @param packet The {@code CoAPTxRequestPacket} to be sent.
 	 * 
-	 * @param coapResponsePackets List of CoAP Rx Response packets received.
+	 * @return The future of the RfData of the CoAP RX Response, which may be 
+	 *         {@code null}. It completes with a {@code TimeoutException} if 
+	 *         the transmit status is not received within the receive 
+	 *         timeout, with a {@code TransmitException} if the transmission 
+	 *         fails or with an {@code XBeeException} if the response is not 
+	 *         received within the receive timeout or is not successful. 
+	 *         Cancelling it discards the response.
 	 * 
-	 * @return A CoAP packet receive listener.
+	 * @throws InterfaceNotOpenException if this device connection is not open.
+	 * @throws NullPointerException if {@code packet == null}.
+	 * @throws XBeeException if there are too many pending CoAP requests or 
+	 *                       if there is any error sending the packet.
 	 * 
-	 * @see com.digi.xbee.api.listeners.IPacketReceiveListener
-	 * @see com.digi.xbee.api.packet.thread.CoAPRxResponsePacket
+	 * @see #getReceiveTimeout()
+	 * @see com.digi.xbee.api.packet.thread.CoAPTxRequestPacket
 	 * 
-	 * @since 1.2.1
+	 * @since 1.4.0
 	 */
-	private IPacketReceiveListener createCoAPResponseListener(final ArrayList<CoAPRxResponsePacket> coapResponsePackets) {
-		IPacketReceiveListener listener = new IPacketReceiveListener() {
-			
-			@Override
-			public void packetReceived(XBeePacket receivedPacket) {
-				if (receivedPacket instanceof CoAPRxResponsePacket) {
-					coapResponsePackets.add((CoAPRxResponsePacket)receivedPacket);
-					coapResponsePackets.notifyAll();
+	protected XBeeFuture<byte[]> sendCoAPPacketAsync(CoAPTxRequestPacket packet) throws XBeeException {
+		if (packet == null)
+			throw new NullPointerException("CoAP packet cannot be null.");
+		
+		XBeeFuture<byte[]> response = getCoAPRequestTable(true).register(packet, receiveTimeout);
+		try {
+			sendXBeePacketAsync(packet);
+		} catch (IOException e) {
+			response.cancel(false);
+			throw new XBeeException("Error writing in the communication interface.", e);
+		} catch (XBeeException | RuntimeException e) {
+			response.cancel(false);
+			throw e;
+		}
+		return response;
+	}
+	
+	/**
+	 * Returns the table of the CoAP requests waiting for their response.
+	 * 
+	 * <p>Remote devices return the table of their local device.</p>
+	 * 
+	 * @param create {@code true} to create the table if it does not exist, 
+	 *               {@code false} otherwise.
+	 * 
+	 * @return The table of pending CoAP requests, {@code null} if it does 
+	 *         not exist and {@code create} is {@code false}.
+	 * 
+	 * @since 1.4.0
+	 */
+	CoAPRequestTable getCoAPRequestTable(boolean create) {
+		if (isRemote())
+			return localXBeeDevice.getCoAPRequestTable(create);
+		CoAPRequestTable table = coapRequestTable;
+		if (table == null && create) {
+			synchronized (this) {
+				table = coapRequestTable;
+				if (table == null) {
+					table = new CoAPRequestTable(this);
+					coapRequestTable = table;
 				}
 			}
-		};
-		return listener;
+		}
+		return table;
 	}
 	
 	/**
-	 * Returns the CoAP Rx Response packet that comes in through the serial 
-	 * port in the given timeout.
+	 * Returns the RfData of the CoAP RX Response of a request once it is 
+	 * received.
 	 * 
-	 * @param coapResponsePackets List of packets where the received packet will be stored.
+	 * @param response The future of the response.
 	 * 
-	 * @return CoAP Rx Response packet received.
+	 * @return The RfData of the CoAP RX Response, {@code null} if it is 
+	 *         empty.
 	 * 
 	 * @throws XBeeException if CoAP response packet is not received or it is 
 	 *                       not successful or if there is any other XBee 
 	 *                       related error.
 	 * 
-	 * @since 1.2.1
+	 * @since 1.4.0
 	 */
-	private CoAPRxResponsePacket waitForCoAPRxResponsePacket(ArrayList<CoAPRxResponsePacket> coapResponsePackets) throws XBeeException {
-		synchronized (coapResponsePackets) {
-			try {
-				coapResponsePackets.wait(receiveTimeout);
-			} catch (InterruptedException e) {}
-		}
-		
-		if (!coapResponsePackets.isEmpty()) {
-			RestFulStatusEnum responseStatus = coapResponsePackets.get(0).getStatus();
-			if (responseStatus != RestFulStatusEnum.SUCCESS
-					&& responseStatus != RestFulStatusEnum.CREATED
-					&& responseStatus != RestFulStatusEnum.ACCEPTED
-					&& responseStatus != RestFulStatusEnum.NON_AUTHORITATIVE
-					&& responseStatus != RestFulStatusEnum.NO_CONTENT
-					&& responseStatus != RestFulStatusEnum.RESET_CONTENT)
-				throw new XBeeException("CoAP response had an unexpected status: " + responseStatus.toString());
-		} else {
-			throw new XBeeException("CoAP response was not received.");
+	private byte[] waitForCoAPResponse(XBeeFuture<byte[]> response) throws XBeeException {
+		try {
+			return response.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new XBeeException("CoAP response was not received.", e);
+		} catch (CancellationException e) {
+			throw new XBeeException("CoAP response was not received.", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof XBeeException)
+				throw (XBeeException)e.getCause();
+			throw new XBeeException(e.getCause());
 		}
-		return coapResponsePackets.get(0);
 	}
 	
 	/**
@@ -3087,6 +4162,11 @@ public abstract class AbstractXBeeDevice {
 	 * <li>XBee device protocol.</li>
 	 * <li>16-bit address (not for DigiMesh modules).</li>
 	 * </ul>
+	 * 
+	 * <p>If a device profile is configured with 
+	 * {@link #setDeviceProfile(DeviceProfile)}, it is verified in a single 
+	 * round trip instead, and the complete process is only performed if the 
+	 * device does not match it.</p>
 	 *
 	 * @throws BluetoothAuthenticationException if there is any problem in the
 	 *                                          Bluetooth authentication.
@@ -3097,6 +4177,7 @@ public abstract class AbstractXBeeDevice {
 	 * 
 	 * @see #close()
 	 * @see #isOpen()
+	 * @see #setDeviceProfile(DeviceProfile)
 	 */
 	protected void open() throws XBeeException {
 		logger.info(toString() + "Opening the connection interface...");
@@ -3115,16 +4196,21 @@ public abstract class AbstractXBeeDevice {
 		
 		// Initialize the data reader.
 		dataReader = new DataReader(connectionInterface, operatingMode, this);
+		dataReader.setIOSampleHistory(ioSampleHistory);
+		dataReader.setIOSampleDeliveryOptions(ioSampleDeliveryOptions);
+		dataReader.setReceivePipelineOptions(receivePipelineOptions);
 		dataReader.start();
 		
-		// Wait 10 milliseconds until the dataReader thread is started.
-		// This is because when the connection is opened immediately after 
-		// closing it, there is sometimes a concurrency problem and the 
+		// Wait until the dataReader thread is started and waiting for data, 
+		// otherwise the answer to the first request could be notified before 
+		// and stay unread. This also avoids a concurrency problem when the 
+		// connection is opened immediately after closing it, in which the 
 		// dataReader thread never dies.
 		try {
-			Thread.sleep(10);
+			dataReader.waitForStart(DATA_READER_START_TIMEOUT);
 		} catch (InterruptedException e) {}
 
+		boolean profileVerified = false;
 		if (connectionInterface.getConnectionType() == ConnectionType.BLUETOOTH) {
 			// The communication in Bluetooth is always done through API frames
 			// regardless of the AP setting.
@@ -3142,6 +4228,10 @@ public abstract class AbstractXBeeDevice {
 				close();
 				throw e;
 			}
+		} else if (deviceProfile != null && verifyDeviceProfile(deviceProfile)) {
+			// The device matches the profile, there is no need to read its info.
+			logger.info(toString() + "Device profile verified.");
+			profileVerified = true;
 		} else {
 			// Determine the operating mode of the XBee device if it is unknown.
 			if (operatingMode == OperatingMode.UNKNOWN)
@@ -3157,12 +4247,375 @@ public abstract class AbstractXBeeDevice {
 			}
 		}
 		
-		// Read the device info (obtain its parameters and protocol).
+		// Read the device info (obtain its parameters and protocol). If the 
+		// profile was verified, only the device specific info is missing.
 		try {
-			readDeviceInfo();
+			if (profileVerified)
+				readDeviceSpecificInfo();
+			else
+				readDeviceInfo();
 		} catch (ATCommandException e) {
 			throw new XBeeException("Error reading device information.", e);
 		}
+		
+		// Keep the profile up to date for the next opening.
+		if (deviceProfile != null)
+			deviceProfile = getDeviceProfile();
+		
+		// Speed up the serial connection if configured.
+		if (maxNegotiatedBaudRate > 0 && connectionInterface instanceof AbstractSerialPort)
+			negotiateBaudRate(maxNegotiatedBaudRate, persistNegotiatedBaudRate);
+	}
+	
+	/**
+	 * Configures the serial baud rate negotiation performed every time this 
+	 * XBee device is opened.
+	 * 
+	 * <p>When enabled, the {@link #open()} method calls 
+	 * {@link #negotiateBaudRate(int, boolean)} after reading the device 
+	 * information if the device is connected through a serial port.</p>
+	 * 
+	 * @param maxBaudRate The maximum baud rate supported by the host serial 
+	 *                    port, 0 to disable the negotiation.
+	 * @param persist {@code true} to save the negotiated baud rate in the 
+	 *                module, {@code false} otherwise.
+	 * 
+	 * @throws IllegalArgumentException if {@code maxBaudRate < 0}.
+	 * 
+	 * @see #negotiateBaudRate(int, boolean)
+	 * @see #open()
+	 * 
+	 * @since 1.4.0
+	 */
+	protected void setBaudRateNegotiation(int maxBaudRate, boolean persist) {
+		if (maxBaudRate < 0)
+			throw new IllegalArgumentException("Maximum baud rate cannot be less than 0.");
+		
+		this.maxNegotiatedBaudRate = maxBaudRate;
+		this.persistNegotiatedBaudRate = persist;
+	}
+	
+	/**
+	 * Sets the serial baud rate of this XBee device and the host serial port 
+	 * to the highest value supported by both of them.
+	 * 
+	 * <p>The standard baud rates not greater than {@code maxBaudRate} are 
+	 * tried from the highest one. For every rate supported by the host 
+	 * serial port, the {@code BD} parameter is configured and applied, the 
+	 * host port is switched to the new rate and the connection is verified 
+	 * reading the {@code BD} parameter. If the module rejects the rate or the 
+	 * verification fails, both sides are rolled back to the original baud 
+	 * rate and the next lower rate is tried. The {@code BD} parameter is 
+	 * restored with the exact value read before, so modules configured with 
+	 * a non-standard rate are restored too.</p>
+	 * 
+	 * <p>If no higher rate is supported by both sides, the original rate is 
+	 * kept. The new rate is not saved in the module unless {@code persist} 
+	 * is {@code true}, so the module returns to its original rate after a 
+	 * reset.</p>
+	 * 
+	 * @param maxBaudRate The maximum baud rate supported by the host serial 
+	 *                    port.
+	 * @param persist {@code true} to save the negotiated baud rate in the 
+	 *                module ({@code WR}), {@code false} otherwise.
+	 * 
+	 * @return The negotiated baud rate.
+	 * 
+	 * @throws IllegalArgumentException if {@code maxBaudRate <= 0}.
+	 * @throws InterfaceNotOpenException if this device connection is not open.
+	 * @throws OperationNotSupportedException if this is a remote device or 
+	 *                                        if the device is not connected 
+	 *                                        through a serial port.
+	 * @throws TimeoutException if there is a timeout configuring the baud 
+	 *                          rate.
+	 * @throws XBeeException if the original baud rate could not be restored 
+	 *                       after a failed attempt or if there is any other 
+	 *                       XBee related exception.
+	 * 
+	 * @see #setBaudRateNegotiation(int, boolean)
+	 * 
+	 * @since 1.4.0
+	 */
+	protected int negotiateBaudRate(int maxBaudRate, boolean persist) throws TimeoutException, XBeeException {
+		if (maxBaudRate <= 0)
+			throw new IllegalArgumentException("Maximum baud rate must be greater than 0.");
+		if (isRemote())
+			throw new OperationNotSupportedException("Cannot negotiate the baud rate of a remote device.");
+		if (!(connectionInterface instanceof AbstractSerialPort))
+			throw new OperationNotSupportedException("The baud rate can only be negotiated in serial connections.");
+		if (!connectionInterface.isOpen())
+			throw new InterfaceNotOpenException();
+		
+		AbstractSerialPort port = (AbstractSerialPort)connectionInterface;
+		SerialPortParameters original = port.getPortParameters();
+		// Keep the raw value, the module may be configured with a 
+		// non-standard rate instead of an index of the table.
+		byte[] originalBD = getParameter("BD");
+		int originalValue = ByteUtils.byteArrayToInt(originalBD);
+		
+		for (int bd = BAUD_RATES.length - 1; bd >= 0; bd--) {
+			// Only the rates faster than the current one (that may not be a 
+			// standard rate) are tried.
+			if (BAUD_RATES[bd] <= original.baudrate)
+				break;
+			if (BAUD_RATES[bd] > maxBaudRate)
+				continue;
+			
+			// Check that the host port supports the rate before changing the module.
+			if (!setPortBaudRate(port, original, BAUD_RATES[bd])
+					|| !setPortBaudRate(port, original, original.baudrate))
+				continue;
+			
+			// Configure the module, it switches after sending the response.
+			try {
+				setBaudRateSetting(new byte[] {(byte)bd});
+			} catch (ATCommandException e) {
+				logger.debug(toString() + "Baud rate {} not supported by the module.", BAUD_RATES[bd]);
+				continue;
+			}
+			
+			// Switch the host port and verify the connection.
+			if (setPortBaudRate(port, original, BAUD_RATES[bd]) && readBaudRateSetting() == bd) {
+				logger.info(toString() + "Baud rate changed to {}.", BAUD_RATES[bd]);
+				if (persist)
+					writeChanges();
+				return BAUD_RATES[bd];
+			}
+			
+			// Roll back: try to restore the module while still at the new 
+			// rate and go back to the original rate in the host.
+			logger.debug(toString() + "Baud rate {} could not be verified, restoring {}.", 
+					BAUD_RATES[bd], original.baudrate);
+			try {
+				setBaudRateSetting(originalBD);
+			} catch (XBeeException e) { }
+			setPortBaudRate(port, original, original.baudrate);
+			
+			int currentBD = readBaudRateSetting();
+			if (currentBD < 0)
+				throw new XBeeException("Could not restore the original baud rate (" 
+						+ original.baudrate + "), reset the module to recover it.");
+			// The module did not switch, restore its setting.
+			if (currentBD != originalValue)
+				setBaudRateSetting(originalBD);
+		}
+		
+		return original.baudrate;
+	}
+	
+	/**
+	 * Changes the baud rate of the given host serial port keeping the rest 
+	 * of the original parameters.
+	 * 
+	 * @param port The host serial port.
+	 * @param parameters The original serial port parameters.
+	 * @param baudRate The new baud rate.
+	 * 
+	 * @return {@code true} if the baud rate was changed, {@code false} if the 
+	 *         port does not support it.
+	 */
+	private boolean setPortBaudRate(AbstractSerialPort port, SerialPortParameters parameters, int baudRate) {
+		try {
+			port.setPortParameters(baudRate, parameters.dataBits, parameters.stopBits, 
+					parameters.parity, parameters.flowControl);
+			return true;
+		} catch (ConnectionException e) {
+			logger.debug(toString() + "Baud rate {} not supported by the host: {}", baudRate, e.getMessage());
+			return false;
+		}
+	}
+	
+	/**
+	 * Configures the {@code BD} parameter of the module and applies it if 
+	 * the changes are not applied automatically.
+	 * 
+	 * @param value The value of the {@code BD} parameter.
+	 * 
+	 * @throws TimeoutException if there is a timeout configuring the 
+	 *                          parameter.
+	 * @throws XBeeException if the module rejects the value or if there is 
+	 *                       any other XBee related exception.
+	 */
+	private void setBaudRateSetting(byte[] value) throws TimeoutException, XBeeException {
+		setParameter("BD", value);
+		if (!isApplyConfigurationChangesEnabled())
+			applyChanges();
+	}
+	
+	/**
+	 * Reads the {@code BD} parameter to check the communication with the 
+	 * module.
+	 * 
+	 * @return The value of the {@code BD} parameter, -1 if it could not be 
+	 *         read.
+	 */
+	private int readBaudRateSetting() {
+		try {
+			return ByteUtils.byteArrayToInt(getParameter("BD"));
+		} catch (XBeeException e) {
+			return -1;
+		}
+	}
+	
+	/**
+	 * Verifies that the connected device matches the given profile and, if 
+	 * so, initializes the device information from it.
+	 * 
+	 * <p>All the verification commands are sent at once, so the check only 
+	 * takes a single round trip. If the device does not answer or does not 
+	 * match the profile, the operating mode is restored and {@code false} is 
+	 * returned to perform the complete detection.</p>
+	 * 
+	 * @param profile The profile to verify.
+	 * 
+	 * @return {@code true} if the device matches the profile, {@code false} 
+	 *         otherwise.
+	 */
+	private boolean verifyDeviceProfile(DeviceProfile profile) {
+		OperatingMode previousMode = operatingMode;
+		XBeeProtocol protocol = profile.getProtocol();
+		
+		// The profile must belong to a device of this class.
+		XBeeProtocol origProtocol = getXBeeProtocol();
+		if (origProtocol == XBeeProtocol.UNKNOWN || origProtocol == protocol) {
+			operatingMode = profile.getOperatingMode();
+			dataReader.setXBeeReaderMode(operatingMode);
+			
+			String[] commands = has16BitAddress(protocol) ? 
+					new String[] {"AP", "SH", "SL", "VR", "NI", "MY"} : 
+					new String[] {"AP", "SH", "SL", "VR", "NI"};
+			Map<String, byte[]> values = null;
+			try {
+				values = readParametersPipelined(commands);
+			} catch (XBeeException e) {
+				logger.debug(toString() + "Error verifying the device profile: " + e.getMessage());
+			}
+			
+			if (values != null && values.get("AP").length > 0) {
+				// Any mode other than API or API escaped does not match.
+				OperatingMode mode = OperatingMode.get(values.get("AP")[0]);
+				XBee64BitAddress addr64 = toXBee64BitAddress(values.get("SH"), values.get("SL"));
+				String firmware = HexUtils.byteArrayToHexString(values.get("VR"));
+				
+				if (mode == profile.getOperatingMode()
+						&& addr64.equals(profile.get64BitAddress())
+						&& firmware.equals(profile.getFirmwareVersion())) {
+					xbee64BitAddress = addr64;
+					hardwareVersion = profile.getHardwareVersion();
+					firmwareVersion = firmware;
+					xbeeProtocol = protocol;
+					nodeID = new String(values.get("NI"));
+					if (has16BitAddress(protocol))
+						xbee16BitAddress = new XBee16BitAddress(values.get("MY"));
+					return true;
+				}
+			}
+		}
+		
+		logger.info(toString() + "Device does not match the profile {}.", profile);
+		operatingMode = previousMode;
+		dataReader.setXBeeReaderMode(operatingMode);
+		return false;
+	}
+	
+	/**
+	 * Reads the given parameters of this local XBee device sending all the 
+	 * AT commands at once and waiting for their responses.
+	 * 
+	 * @param commands The AT commands of the parameters to read.
+	 * 
+	 * @return A map with the value of every parameter, {@code null} if any 
+	 *         of them could not be read within the receive timeout.
+	 * 
+	 * @throws XBeeException if there is any error sending the commands.
+	 */
+	private Map<String, byte[]> readParametersPipelined(String[] commands) throws XBeeException {
+		final Map<Integer, String> pending = new HashMap<Integer, String>();
+		final Map<String, byte[]> values = new HashMap<String, byte[]>();
+		final CountDownLatch latch = new CountDownLatch(commands.length);
+		
+		IPacketReceiveListener listener = new IPacketReceiveListener() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.listeners.IPacketReceiveListener#packetReceived(com.digi.xbee.api.packet.XBeePacket)
+			 */
+			@Override
+			public void packetReceived(XBeePacket receivedPacket) {
+				if (!(receivedPacket instanceof ATCommandResponsePacket))
+					return;
+				ATCommandResponsePacket response = (ATCommandResponsePacket)receivedPacket;
+				synchronized (values) {
+					String command = pending.remove(response.getFrameID());
+					if (command == null || !command.equalsIgnoreCase(response.getCommand()))
+						return;
+					if (response.getStatus() == ATCommandStatus.OK)
+						values.put(command, response.getCommandValue() == null ? 
+								new byte[0] : response.getCommandValue());
+				}
+				latch.countDown();
+			}
+		};
+		
+		ArrayList<XBeePacket> packets = new ArrayList<XBeePacket>(commands.length);
+		synchronized (values) {
+			for (String command : commands) {
+				ATCommandPacket packet = new ATCommandPacket(getNextFrameID(), command, new byte[0]);
+				pending.put(packet.getFrameID(), command);
+				packets.add(packet);
+			}
+		}
+		
+		addPacketListener(listener);
+		try {
+			for (XBeePacket packet : packets)
+				sendPacketAsync(packet);
+			if (!latch.await(receiveTimeout, TimeUnit.MILLISECONDS))
+				return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} finally {
+			removePacketListener(listener);
+		}
+		
+		synchronized (values) {
+			return values.size() == commands.length ? values : null;
+		}
+	}
+	
+	/**
+	 * Returns whether the given protocol uses 16-bit addresses.
+	 * 
+	 * @param protocol The protocol to check.
+	 * 
+	 * @return {@code true} if the protocol uses 16-bit addresses, 
+	 *         {@code false} otherwise.
+	 */
+	private static boolean has16BitAddress(XBeeProtocol protocol) {
+		return protocol == XBeeProtocol.ZIGBEE
+				|| protocol == XBeeProtocol.RAW_802_15_4
+				|| protocol == XBeeProtocol.XTEND
+				|| protocol == XBeeProtocol.SMART_ENERGY
+				|| protocol == XBeeProtocol.ZNET;
+	}
+	
+	/**
+	 * Returns the 64-bit address composed of the given {@code SH} and 
+	 * {@code SL} values.
+	 * 
+	 * @param high The value of the {@code SH} parameter.
+	 * @param low The value of the {@code SL} parameter.
+	 * 
+	 * @return The 64-bit address.
+	 */
+	private static XBee64BitAddress toXBee64BitAddress(byte[] high, byte[] low) {
+		String addressHigh = HexUtils.byteArrayToHexString(high);
+		String addressLow = HexUtils.byteArrayToHexString(low);
+		
+		while(addressLow.length() < 8)
+			addressLow = "0" + addressLow;
+		
+		return new XBee64BitAddress(addressHigh + addressLow);
 	}
 	
 	/**
@@ -3175,6 +4628,10 @@ public abstract class AbstractXBeeDevice {
 		// Stop XBee reader.
 		if (dataReader != null && dataReader.isRunning())
 			dataReader.stopReader();
+		// Cancel the CoAP requests waiting for their response.
+		CoAPRequestTable table = coapRequestTable;
+		if (table != null)
+			table.close();
 		// Close interface.
 		connectionInterface.close();
 		logger.info(toString() + "Connection interface closed.");
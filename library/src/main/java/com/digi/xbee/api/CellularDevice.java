@@ -163,11 +163,11 @@ public class CellularDevice extends IPDevice {
 	
 	/*
 	 * (non-Javadoc)
-	 * @see com.digi.xbee.api.AbstractXBeeDevice#readDeviceInfo()
+	 * @see com.digi.xbee.api.IPDevice#readDeviceSpecificInfo()
 	 */
 	@Override
-	public void readDeviceInfo() throws TimeoutException, XBeeException {
-		super.readDeviceInfo();
+	protected void readDeviceSpecificInfo() throws TimeoutException, XBeeException {
+		super.readDeviceSpecificInfo();
 		
 		// Generate the IMEI address.
 		imeiAddress = new XBeeIMEIAddress(xbee64BitAddress.getValue());
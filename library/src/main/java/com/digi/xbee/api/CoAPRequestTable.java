@@ -0,0 +1,279 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api;
+
+import java.net.Inet6Address;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.digi.xbee.api.exceptions.TimeoutException;
+import com.digi.xbee.api.exceptions.TransmitException;
+import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.listeners.IFutureListener;
+import com.digi.xbee.api.models.RestFulStatusEnum;
+import com.digi.xbee.api.models.XBeeTransmitStatus;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.raw.TXStatusPacket;
+import com.digi.xbee.api.packet.thread.CoAPRxResponsePacket;
+import com.digi.xbee.api.packet.thread.CoAPTxRequestPacket;
+import com.digi.xbee.api.utils.HashedWheelTimer;
+import com.digi.xbee.api.utils.XBeeFuture;
+
+/**
+ * This class keeps the CoAP requests of a local device that are waiting for 
+ * their response.
+ * 
+ * <p>Requests are indexed by their frame ID, which the device copies into 
+ * the transmit status and the CoAP RX Response of the request. Responses 
+ * must also come from the destination of the request, unless it was sent 
+ * to a multicast address. This way, any number of requests to the same or 
+ * to different nodes can be outstanding at the same time.</p>
+ * 
+ * <p>Requests are registered before being sent, so a response received 
+ * before the transmit status completes its request too. The timeout of a 
+ * request starts again when its transmit status is received.</p>
+ * 
+ * @see com.digi.xbee.api.ThreadDevice#sendCoAPRequestAsync(Inet6Address, String, com.digi.xbee.api.models.HTTPMethodEnum, byte[])
+ */
+class CoAPRequestTable {
+	
+	// Constants.
+	private static final int MAX_FRAME_IDS = 0xFF;
+	
+	// Variables.
+	private final AbstractXBeeDevice device;
+	
+	private final ConcurrentHashMap<Integer, PendingRequest> pendingRequests = new ConcurrentHashMap<>();
+	
+	/**
+	 * Class constructor. Instantiates a new {@code CoAPRequestTable} for the 
+	 * given local device.
+	 * 
+	 * @param device The local device that sends the requests.
+	 */
+	CoAPRequestTable(AbstractXBeeDevice device) {
+		this.device = device;
+	}
+	
+	/**
+	 * Registers the given request before sending it.
+	 * 
+	 * <p>If another pending request uses the frame ID of the packet, a new 
+	 * frame ID is assigned to it.</p>
+	 * 
+	 * @param packet The CoAP request to register.
+	 * @param timeout The time to wait for the transmit status and, then, 
+	 *                for the response in milliseconds.
+	 * 
+	 * @return The future of the response data. It completes with a 
+	 *         {@code TimeoutException} if the transmit status is not 
+	 *         received, with a {@code TransmitException} if the transmission 
+	 *         fails, or with an {@code XBeeException} if the response is not 
+	 *         received or is not successful. Cancelling it discards the 
+	 *         response.
+	 * 
+	 * @throws XBeeException if all the frame IDs are in use.
+	 */
+	XBeeFuture<byte[]> register(CoAPTxRequestPacket packet, long timeout) throws XBeeException {
+		final PendingRequest request = new PendingRequest(packet.getDestAddress(), timeout);
+		int frameID = packet.getFrameID();
+		int attempts = 1;
+		while (pendingRequests.putIfAbsent(frameID, request) != null) {
+			if (attempts++ >= MAX_FRAME_IDS)
+				throw new XBeeException("Too many pending CoAP requests.");
+			frameID = device.getNextFrameID();
+		}
+		packet.setFrameID(frameID);
+		
+		final int id = frameID;
+		schedule(id, request);
+		// Forget the request once it is done.
+		request.future.addListener(new IFutureListener<byte[]>() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.listeners.IFutureListener#operationComplete(com.digi.xbee.api.utils.XBeeFuture)
+			 */
+			@Override
+			public void operationComplete(XBeeFuture<byte[]> future) {
+				pendingRequests.remove(id, request);
+				request.timeoutTask.cancel();
+			}
+		});
+		return request.future;
+	}
+	
+	/**
+	 * Processes the given received packet.
+	 * 
+	 * <p>Transmit status and CoAP RX Response packets update their pending 
+	 * request, if any. Other packets are ignored.</p>
+	 * 
+	 * @param packet The received packet.
+	 */
+	void packetReceived(XBeePacket packet) {
+		if (packet instanceof CoAPRxResponsePacket)
+			responseReceived((CoAPRxResponsePacket)packet);
+		else if (packet instanceof TXStatusPacket)
+			transmitStatusReceived((TXStatusPacket)packet);
+	}
+	
+	/**
+	 * Returns the number of requests waiting for their response.
+	 * 
+	 * @return The number of pending requests.
+	 */
+	int getPendingRequests() {
+		return pendingRequests.size();
+	}
+	
+	/**
+	 * Cancels all the pending requests.
+	 */
+	void close() {
+		for (PendingRequest request : pendingRequests.values())
+			request.future.cancel(false);
+		pendingRequests.clear();
+	}
+	
+	/**
+	 * Completes the request of the given response.
+	 * 
+	 * @param response The received CoAP RX Response.
+	 */
+	private void responseReceived(CoAPRxResponsePacket response) {
+		int id = response.getFrameID();
+		PendingRequest request = pendingRequests.get(id);
+		if (request == null || !request.isAnsweredBy(response.getSourceAddress())
+				|| !pendingRequests.remove(id, request))
+			return;
+		
+		RestFulStatusEnum status = response.getStatus();
+		if (isSuccess(status))
+			request.future.complete(response.getData());
+		else
+			request.future.completeExceptionally(new XBeeException("CoAP response had an unexpected status: " + status));
+	}
+	
+	/**
+	 * Updates the request of the given transmit status.
+	 * 
+	 * <p>A failed transmission completes the request. Otherwise, the 
+	 * request waits for its response.</p>
+	 * 
+	 * @param txStatus The received transmit status.
+	 */
+	private void transmitStatusReceived(TXStatusPacket txStatus) {
+		int id = txStatus.getFrameID();
+		PendingRequest request = pendingRequests.get(id);
+		if (request == null)
+			return;
+		
+		XBeeTransmitStatus status = txStatus.getTransmitStatus();
+		if (status == XBeeTransmitStatus.SUCCESS || status == XBeeTransmitStatus.SELF_ADDRESSED) {
+			if (!request.statusReceived) {
+				request.statusReceived = true;
+				request.timeoutTask.cancel();
+				schedule(id, request);
+			}
+		} else if (pendingRequests.remove(id, request)) {
+			request.future.completeExceptionally(new TransmitException(status));
+		}
+	}
+	
+	/**
+	 * Schedules the timeout of the given request.
+	 * 
+	 * @param id The frame ID of the request.
+	 * @param request The pending request.
+	 */
+	private void schedule(final int id, final PendingRequest request) {
+		HashedWheelTimer timer = device.getTimer();
+		request.timeoutTask = timer.schedule(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				if (!pendingRequests.remove(id, request))
+					return;
+				if (request.statusReceived)
+					request.future.completeExceptionally(new XBeeException("CoAP response was not received."));
+				else
+					request.future.completeExceptionally(new TimeoutException("Transmit status was not received."));
+			}
+		}, request.timeout);
+	}
+	
+	/**
+	 * Returns whether the given RESTful status is a successful one.
+	 * 
+	 * @param status The status of a CoAP response.
+	 * 
+	 * @return {@code true} if the status is successful, {@code false} 
+	 *         otherwise.
+	 */
+	static boolean isSuccess(RestFulStatusEnum status) {
+		return status == RestFulStatusEnum.SUCCESS
+				|| status == RestFulStatusEnum.CREATED
+				|| status == RestFulStatusEnum.ACCEPTED
+				|| status == RestFulStatusEnum.NON_AUTHORITATIVE
+				|| status == RestFulStatusEnum.NO_CONTENT
+				|| status == RestFulStatusEnum.RESET_CONTENT;
+	}
+	
+	/**
+	 * A request waiting for its response.
+	 */
+	private static class PendingRequest {
+		
+		// Variables.
+		private final Inet6Address destAddress;
+		
+		private final long timeout;
+		
+		private final XBeeFuture<byte[]> future = new XBeeFuture<>();
+		
+		private volatile boolean statusReceived = false;
+		
+		private volatile HashedWheelTimer.Timeout timeoutTask;
+		
+		/**
+		 * Class constructor. Instantiates a new {@code PendingRequest} 
+		 * object.
+		 * 
+		 * @param destAddress IPv6 address the request is sent to.
+		 * @param timeout The time to wait for each answer in milliseconds.
+		 */
+		PendingRequest(Inet6Address destAddress, long timeout) {
+			this.destAddress = destAddress;
+			this.timeout = timeout;
+		}
+		
+		/**
+		 * Returns whether a response from the given address answers this 
+		 * request.
+		 * 
+		 * @param sourceAddress IPv6 address of the response.
+		 * 
+		 * @return {@code true} if the response answers this request, 
+		 *         {@code false} otherwise.
+		 */
+		boolean isAnsweredBy(Inet6Address sourceAddress) {
+			return destAddress == null || destAddress.isMulticastAddress()
+					|| destAddress.equals(sourceAddress);
+		}
+	}
+}
@@ -16,18 +16,36 @@
 package com.digi.xbee.api;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.Inet6Address;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.digi.xbee.api.connection.IConnectionInterface;
+import com.digi.xbee.api.connection.serial.AbstractSerialPort;
+import com.digi.xbee.api.connection.serial.ReceiveBackpressure;
+import com.digi.xbee.api.exceptions.InvalidChecksumException;
+import com.digi.xbee.api.exceptions.InvalidPacketException;
 import com.digi.xbee.api.exceptions.XBeeException;
 import com.digi.xbee.api.io.IOSample;
+import com.digi.xbee.api.io.IOSampleDeliveryOptions;
+import com.digi.xbee.api.io.IOSampleHistory;
 import com.digi.xbee.api.listeners.IExplicitDataReceiveListener;
 import com.digi.xbee.api.listeners.IIOSampleReceiveListener;
 import com.digi.xbee.api.listeners.IModemStatusReceiveListener;
@@ -39,16 +57,27 @@ import com.digi.xbee.api.listeners.IUserDataRelayReceiveListener;
 import com.digi.xbee.api.listeners.relay.IBluetoothDataReceiveListener;
 import com.digi.xbee.api.listeners.relay.IMicroPythonDataReceiveListener;
 import com.digi.xbee.api.listeners.relay.ISerialDataReceiveListener;
+import com.digi.xbee.api.metrics.IMetricsRecorder;
+import com.digi.xbee.api.metrics.IPacketTracer;
+import com.digi.xbee.api.metrics.MetricsCounter;
+import com.digi.xbee.api.metrics.MetricsGauge;
+import com.digi.xbee.api.metrics.MetricsTimer;
 import com.digi.xbee.api.models.ExplicitXBeeMessage;
+import com.digi.xbee.api.models.LinkStatistics;
+import com.digi.xbee.api.models.LinkStatisticsTable;
 import com.digi.xbee.api.models.ModemStatusEvent;
 import com.digi.xbee.api.models.IPMessage;
 import com.digi.xbee.api.models.SMSMessage;
 import com.digi.xbee.api.models.SpecialByte;
+import com.digi.xbee.api.models.TransmitRateController;
 import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.ReceivePipelineOptions;
+import com.digi.xbee.api.models.ReceiveTimestamps;
 import com.digi.xbee.api.models.UserDataRelayMessage;
 import com.digi.xbee.api.models.XBee16BitAddress;
 import com.digi.xbee.api.models.XBee64BitAddress;
 import com.digi.xbee.api.models.XBeeMessage;
+import com.digi.xbee.api.models.XBeePacketFilter;
 import com.digi.xbee.api.models.XBeePacketsQueue;
 import com.digi.xbee.api.models.XBeeProtocol;
 import com.digi.xbee.api.packet.XBeeAPIPacket;
@@ -68,7 +97,11 @@ import com.digi.xbee.api.packet.raw.RX64Packet;
 import com.digi.xbee.api.packet.relay.UserDataRelayOutputPacket;
 import com.digi.xbee.api.packet.thread.IPv6IODataSampleRxIndicator;
 import com.digi.xbee.api.packet.thread.RXIPv6Packet;
+import com.digi.xbee.api.transport.FragmentationTransport;
+import com.digi.xbee.api.transport.MessageAggregator;
+import com.digi.xbee.api.transport.RPCTransport;
 import com.digi.xbee.api.utils.HexUtils;
+import com.digi.xbee.api.utils.SPSCRingBuffer;
 
 /**
  * Thread that constantly reads data from an input stream.
@@ -83,9 +116,18 @@ public class DataReader extends Thread {
 	private final static int ALL_FRAME_IDS = 99999;
 	private final static int MAXIMUM_PARALLEL_LISTENER_THREADS = 20;
 	
+	// Maximum time the pipeline stages wait before checking if they must stop.
+	private final static int STAGE_POLL_TIME = 100;
+	// Maximum time the decoder waits for the next byte of a frame.
+	private final static int DECODER_READ_TIME = 10;
+	
+	private final static int READ_BUFFER_SIZE = 1024;
+	
 	// Variables.
 	private boolean running = false;
 	
+	private final CountDownLatch waitingForData = new CountDownLatch(1);
+	
 	private IConnectionInterface connectionInterface;
 	
 	private volatile OperatingMode mode;
@@ -103,6 +145,8 @@ public class DataReader extends Thread {
 	private ArrayList<IBluetoothDataReceiveListener> bluetoothDataReceiveListeners = new ArrayList<>();
 	private ArrayList<IMicroPythonDataReceiveListener> microPythonDataReceiveListeners = new ArrayList<>();
 	private ArrayList<ISerialDataReceiveListener> serialDataReceiveListeners = new ArrayList<>();
+	
+	private PacketSubscriptionTable packetSubscriptions = new PacketSubscriptionTable();
 
 	private Logger logger;
 	
@@ -112,6 +156,44 @@ public class DataReader extends Thread {
 	
 	private AbstractXBeeDevice xbeeDevice;
 	
+	private volatile IOSampleHistory ioSampleHistory;
+	
+	private volatile IOSampleDeliveryOptions ioSampleDeliveryOptions;
+	
+	// Timestamps of the frame being dispatched by the reader or dispatcher thread.
+	private ReceiveTimestamps frameTimestamps;
+	
+	private volatile ReceivePipelineOptions pipelineOptions;
+	
+	private volatile ReceivePipeline pipeline;
+	
+	// Conflation state of every IO sample listener, guarded by 'ioSampleReceiveListeners'.
+	private HashMap<IIOSampleReceiveListener, IOSampleConflator> ioSampleConflators = new HashMap<>();
+	// Last delivered IO sample and number of suppressed IO samples per remote device.
+	private ConcurrentHashMap<Object, IOSample> lastDeliveredIOSamples = new ConcurrentHashMap<>();
+	private ConcurrentHashMap<Object, AtomicLong> suppressedIOSamples = new ConcurrentHashMap<>();
+	
+	private final AtomicInteger pendingDispatches = new AtomicInteger();
+	// Copy of the size of the queue, so the backpressure does not need its lock.
+	private final AtomicInteger queuedPackets = new AtomicInteger();
+	
+	private final ReceiveBackpressure.IOccupancyProvider occupancyProvider = new ReceiveBackpressure.IOccupancyProvider() {
+		/*
+		 * (non-Javadoc)
+		 * @see com.digi.xbee.api.connection.serial.ReceiveBackpressure.IOccupancyProvider#getOccupancy(boolean)
+		 */
+		@Override
+		public int getOccupancy(boolean queueIncluded) {
+			int occupancy = pendingDispatches.get();
+			ReceivePipeline receivePipeline = pipeline;
+			if (receivePipeline != null)
+				occupancy += receivePipeline.frames.size();
+			if (queueIncluded)
+				occupancy += queuedPackets.get();
+			return occupancy;
+		}
+	};
+	
 	/**
 	 * Class constructor. Instantiates a new {@code DataReader} object for the 
 	 * given connection interface using the given XBee operating mode and XBee
@@ -144,6 +226,17 @@ public class DataReader extends Thread {
 		this.logger = LoggerFactory.getLogger(DataReader.class);
 		parser = new XBeePacketParser();
 		xbeePacketsQueue = new XBeePacketsQueue();
+		xbeePacketsQueue.setSizeListener(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				queuedPackets.set(xbeePacketsQueue.getCurrentSize());
+				updateBackpressure();
+			}
+		});
 	}
 	
 	/**
@@ -272,6 +365,51 @@ public class DataReader extends Thread {
 		}
 	}
 	
+	/**
+	 * Subscribes the given handler to the received packets matching the 
+	 * given filter.
+	 * 
+	 * <p>Unlike packet listeners, which receive all the packets, handlers 
+	 * are only notified of the packets matching their filters. Matching 
+	 * handlers are found with hash lookups, so the cost does not grow with 
+	 * the number of subscriptions.</p>
+	 * 
+	 * <p>A handler can be subscribed with several filters, but it is 
+	 * notified only once per packet. Subscribing the same handler with an 
+	 * equivalent filter twice does nothing.</p>
+	 * 
+	 * @param filter The filter the packets must match.
+	 * @param handler The handler to be notified of the matching packets.
+	 * 
+	 * @throws NullPointerException if {@code filter == null} or 
+	 *                              if {@code handler == null}.
+	 * 
+	 * @see #unsubscribe(IPacketReceiveListener)
+	 * @see com.digi.xbee.api.listeners.IPacketReceiveListener
+	 * @see com.digi.xbee.api.models.XBeePacketFilter
+	 * 
+	 * @since 1.4.0
+	 */
+	public void subscribe(XBeePacketFilter filter, IPacketReceiveListener handler) {
+		packetSubscriptions.subscribe(filter, handler);
+	}
+	
+	/**
+	 * Removes all the subscriptions of the given handler.
+	 * 
+	 * <p>If the handler was not subscribed this method does nothing.</p>
+	 * 
+	 * @param handler The handler to unsubscribe.
+	 * 
+	 * @see #subscribe(XBeePacketFilter, IPacketReceiveListener)
+	 * @see com.digi.xbee.api.listeners.IPacketReceiveListener
+	 * 
+	 * @since 1.4.0
+	 */
+	public void unsubscribe(IPacketReceiveListener handler) {
+		packetSubscriptions.unsubscribe(handler);
+	}
+	
 	/**
 	 * Adds the given IO sample receive listener to the list of listeners that 
 	 * will be notified when an IO sample packet is received.
@@ -312,6 +450,7 @@ public class DataReader extends Thread {
 		synchronized (ioSampleReceiveListeners) {
 			if (ioSampleReceiveListeners.contains(listener))
 				ioSampleReceiveListeners.remove(listener);
+			ioSampleConflators.remove(listener);
 		}
 	}
 	
@@ -695,8 +834,16 @@ public class DataReader extends Thread {
 		running = true;
 		// Clear the list of read packets.
 		xbeePacketsQueue.clearQueue();
+		ReceivePipelineOptions options = pipelineOptions;
+		if (options != null) {
+			pipeline = new ReceivePipeline(options);
+			pipeline.start();
+		}
 		try {
 			synchronized (connectionInterface) {
+				// Released holding the lock, so any notification sent after 
+				// waitForStart() returns reaches this wait.
+				waitingForData.countDown();
 				connectionInterface.wait();
 			}
 			while (running) {
@@ -709,25 +856,26 @@ public class DataReader extends Thread {
 						break;
 					case API:
 					case API_ESCAPE:
+						// In the staged pipeline this thread only reads bytes.
+						if (pipeline != null) {
+							pipeline.readBlock();
+							break;
+						}
 						int headerByte = connectionInterface.getInputStream().read();
 						// If it is packet header parse the packet, if not discard this byte and continue.
-						if (headerByte == SpecialByte.HEADER_BYTE.getValue()) {
-							try {
-								XBeePacket packet = parser.parsePacket(connectionInterface.getInputStream(), mode);
-								packetReceived(packet);
-							} catch (Exception e) {
-								logger.error("Error parsing the API packet.", e);
-							}
-						}
+						if (headerByte == SpecialByte.HEADER_BYTE.getValue())
+							decodePacket(connectionInterface.getInputStream(), System.nanoTime());
 						break;
 					}
 				} else if (connectionInterface.getInputStream() == null)
 					break;
-				if (connectionInterface.getInputStream() == null)
-					break;
-				else if (connectionInterface.getInputStream().available() > 0)
-					continue;
+				// Check the available bytes while holding the lock, so a 
+				// notification sent right after new data is not lost.
 				synchronized (connectionInterface) {
+					if (connectionInterface.getInputStream() == null)
+						break;
+					else if (connectionInterface.getInputStream().available() > 0)
+						continue;
 					connectionInterface.wait();
 				}
 			}
@@ -738,6 +886,9 @@ public class DataReader extends Thread {
 		} catch (IllegalStateException e) {
 			logger.error(e.getMessage(), e);
 		} finally {
+			if (pipeline != null)
+				pipeline.stop();
+			releaseBackpressure();
 			if (running) {
 				running = false;
 				if (connectionInterface.isOpen())
@@ -746,6 +897,86 @@ public class DataReader extends Thread {
 		}
 	}
 	
+	/**
+	 * Parses an API packet from the given input stream, whose header byte 
+	 * has already been read, and dispatches it.
+	 * 
+	 * @param inputStream The input stream to read the packet from.
+	 * @param firstByte The time the header byte was received.
+	 * 
+	 * @see #frameReceived(XBeePacket, ReceiveTimestamps)
+	 */
+	private void decodePacket(InputStream inputStream, long firstByte) {
+		IMetricsRecorder metrics = xbeeDevice.getMetricsRecorder();
+		try {
+			XBeePacket packet = parser.parsePacket(inputStream, mode);
+			frameReceived(packet, createTimestamps(firstByte));
+		} catch (InvalidPacketException e) {
+			parseError(metrics, e);
+		} catch (Exception e) {
+			logger.error("Error parsing the API packet.", e);
+		}
+	}
+	
+	/**
+	 * Creates the timestamps of the frame just parsed.
+	 * 
+	 * @param firstByte The time the header byte was received.
+	 * 
+	 * @return The timestamps of the frame.
+	 */
+	private ReceiveTimestamps createTimestamps(long firstByte) {
+		long decodeComplete = System.nanoTime();
+		long frameComplete = parser.getFrameCompleteTime();
+		if (frameComplete - firstByte < 0 || decodeComplete - frameComplete < 0)
+			frameComplete = decodeComplete;
+		return new ReceiveTimestamps(firstByte, frameComplete, decodeComplete);
+	}
+	
+	/**
+	 * Counts and logs an error parsing an API packet.
+	 * 
+	 * @param metrics The metrics recorder, {@code null} if disabled.
+	 * @param e The parsing error.
+	 */
+	private void parseError(IMetricsRecorder metrics, InvalidPacketException e) {
+		if (metrics != null)
+			metrics.increment(e instanceof InvalidChecksumException ? 
+					MetricsCounter.CHECKSUM_ERRORS : MetricsCounter.PARSE_ERRORS, 1);
+		logger.error("Error parsing the API packet.", e);
+	}
+	
+	/**
+	 * Records the metrics and traces of a decoded packet and dispatches it.
+	 * 
+	 * @param packet The decoded XBee packet.
+	 * @param timestamps The timestamps of the frame.
+	 * 
+	 * @see #packetReceived(XBeePacket)
+	 */
+	private void frameReceived(XBeePacket packet, ReceiveTimestamps timestamps) {
+		frameTimestamps = timestamps;
+		IMetricsRecorder metrics = xbeeDevice.getMetricsRecorder();
+		IPacketTracer tracer = xbeeDevice.getPacketTracer();
+		Object trace = tracer == null ? null : tracer.beginDispatch(packet, packet.getPacketLength() + 4);
+		try {
+			if (metrics == null) {
+				packetReceived(packet);
+			} else {
+				metrics.increment(MetricsCounter.FRAMES_RECEIVED, 1);
+				metrics.increment(MetricsCounter.BYTES_RECEIVED, packet.getPacketLength() + 4);
+				metrics.record(MetricsTimer.FRAME_READ, timestamps.getReadTime());
+				metrics.record(MetricsTimer.FRAME_DECODE, timestamps.getDecodeTime());
+				long start = System.nanoTime();
+				packetReceived(packet);
+				metrics.record(MetricsTimer.LISTENER_DISPATCH, System.nanoTime() - start);
+			}
+		} finally {
+			if (tracer != null)
+				tracer.endDispatch(trace);
+		}
+	}
+	
 	/**
 	 * Dispatches the received XBee packet to the corresponding listener(s).
 	 * 
@@ -757,9 +988,20 @@ public class DataReader extends Thread {
 	 */
 	private void packetReceived(XBeePacket packet) {
 		// Add the packet to the packets queue.
+		IMetricsRecorder metrics = xbeeDevice.getMetricsRecorder();
+		if (metrics != null && xbeePacketsQueue.getCurrentSize() == xbeePacketsQueue.getMaxSize())
+			metrics.increment(MetricsCounter.DISCARDED_PACKETS, 1);
 		xbeePacketsQueue.addPacket(packet);
+		if (metrics != null)
+			metrics.update(MetricsGauge.QUEUE_DEPTH, xbeePacketsQueue.getCurrentSize());
+		// Update the CoAP requests waiting for this packet.
+		CoAPRequestTable coapRequests = xbeeDevice.getCoAPRequestTable(false);
+		if (coapRequests != null)
+			coapRequests.packetReceived(packet);
 		// Notify that a packet has been received to the corresponding listeners.
 		notifyPacketReceived(packet);
+		// Notify the handlers subscribed to this packet.
+		notifySubscribedHandlers(packet);
 		
 		// Check if the packet is an API packet.
 		if (!(packet instanceof XBeeAPIPacket))
@@ -774,6 +1016,7 @@ public class DataReader extends Thread {
 		try {
 			// Obtain the remote device from the packet.
 			RemoteXBeeDevice remoteDevice = getRemoteXBeeDeviceFromPacket(apiPacket);
+			updateLinkStatistics(apiPacket, remoteDevice);
 			byte[] data = null;
 			
 			switch(apiType) {
@@ -816,6 +1059,9 @@ public class DataReader extends Thread {
 				break;
 			case MODEM_STATUS:
 				ModemStatusPacket modemStatusPacket = (ModemStatusPacket)apiPacket;
+				TransmitRateController controller = xbeeDevice.getTransmitRateController();
+				if (controller != null && modemStatusPacket.getStatus() != null)
+					controller.modemStatusReceived(modemStatusPacket.getStatus());
 				notifyModemStatusReceived(modemStatusPacket.getStatus());
 				break;
 			case EXPLICIT_RX_INDICATOR:
@@ -874,6 +1120,52 @@ public class DataReader extends Thread {
 		}
 	}
 	
+	/**
+	 * Updates the link statistics of the remote device that sent the given 
+	 * packet.
+	 * 
+	 * @param packet The received packet.
+	 * @param remoteDevice The remote device that sent the packet, 
+	 *                     {@code null} if unknown.
+	 * 
+	 * @see XBeeNetwork#getLinkStatistics(RemoteXBeeDevice)
+	 */
+	private void updateLinkStatistics(XBeeAPIPacket packet, RemoteXBeeDevice remoteDevice) {
+		if (remoteDevice == null)
+			return;
+		XBee64BitAddress address = remoteDevice.get64BitAddress();
+		if (address == null || address.equals(XBee64BitAddress.UNKNOWN_ADDRESS))
+			return;
+		
+		int rssi;
+		switch (packet.getFrameType()) {
+		case RECEIVE_PACKET:
+		case EXPLICIT_RX_INDICATOR:
+		case IO_DATA_SAMPLE_RX_INDICATOR:
+			rssi = LinkStatistics.UNKNOWN_RSSI;
+			break;
+		case RX_64:
+			rssi = ((RX64Packet)packet).getRSSI();
+			break;
+		case RX_16:
+			rssi = ((RX16Packet)packet).getRSSI();
+			break;
+		case RX_IO_64:
+			rssi = ((RX64IOPacket)packet).getRSSI();
+			break;
+		case RX_IO_16:
+			rssi = ((RX16IOPacket)packet).getRSSI();
+			break;
+		default:
+			return;
+		}
+		
+		XBeeNetwork network = xbeeDevice.getNetwork();
+		LinkStatisticsTable table = network == null ? null : network.getLinkStatisticsTable();
+		if (table != null)
+			table.addReceived(address, packet.isBroadcast(), rssi);
+	}
+	
 	/**
 	 * Returns the remote XBee device from where the given package was sent 
 	 * from.
@@ -1042,19 +1334,48 @@ public class DataReader extends Thread {
 	/**
 	 * Notifies subscribed data receive listeners that a new XBee data packet 
 	 * has been received in form of an {@code XBeeMessage}.
+	 * 
+	 * <p>Aggregated messages are split, fragments are reassembled and RPC 
+	 * requests and responses are consumed before notifying the 
+	 * listeners.</p>
 	 *
-	 * @param xbeeMessage The XBee message to be sent to subscribed XBee data
-	 *                    listeners.
+	 * @param message The XBee message to be sent to subscribed XBee data
+	 *                listeners.
 	 * 
 	 * @see com.digi.xbee.api.models.XBeeMessage
 	 */
-	private void notifyDataReceived(final XBeeMessage xbeeMessage) {
-		if (xbeeMessage.isBroadcast())
-			logger.info(connectionInterface.toString() + 
-					"Broadcast data received from {} >> {}.", xbeeMessage.getDevice().get64BitAddress(), HexUtils.prettyHexString(xbeeMessage.getData()));
-		else
-			logger.info(connectionInterface.toString() + 
-					"Data received from {} >> {}.", xbeeMessage.getDevice().get64BitAddress(), HexUtils.prettyHexString(xbeeMessage.getData()));
+	private void notifyDataReceived(XBeeMessage message) {
+		// Split the aggregated messages.
+		MessageAggregator aggregator = xbeeDevice.getMessageAggregator();
+		List<XBeeMessage> messages = aggregator == null ? null : aggregator.split(message);
+		if (messages == null)
+			messages = Collections.singletonList(message);
+		
+		// Let the fragmentation transport process its fragments.
+		// Then pass the requests and responses to the RPC transport.
+		FragmentationTransport transport = xbeeDevice.getFragmentationTransport();
+		RPCTransport rpcTransport = xbeeDevice.getRPCTransport();
+		final List<XBeeMessage> xbeeMessages = new ArrayList<XBeeMessage>(messages.size());
+		for (XBeeMessage m : messages) {
+			XBeeMessage xbeeMessage = transport == null ? m : transport.dataReceived(m);
+			if (xbeeMessage != null && rpcTransport != null)
+				xbeeMessage = rpcTransport.dataReceived(xbeeMessage);
+			if (xbeeMessage == null)
+				continue;
+			
+			if (xbeeMessage.isBroadcast())
+				logger.info(connectionInterface.toString() + 
+						"Broadcast data received from {} >> {}.", xbeeMessage.getDevice().get64BitAddress(), HexUtils.prettyHexString(xbeeMessage.getData()));
+			else
+				logger.info(connectionInterface.toString() + 
+						"Data received from {} >> {}.", xbeeMessage.getDevice().get64BitAddress(), HexUtils.prettyHexString(xbeeMessage.getData()));
+			
+			if (xbeeMessage.getReceiveTimestamps() == null)
+				xbeeMessage.setReceiveTimestamps(copyTimestamps(frameTimestamps));
+			xbeeMessages.add(xbeeMessage);
+		}
+		if (xbeeMessages.isEmpty())
+			return;
 		
 		try {
 			synchronized (dataReceiveListeners) {
@@ -1064,7 +1385,7 @@ public class DataReader extends Thread {
 					// Ensure that the reader is running to avoid a RejectedExecutionException.
 					if (!running)
 						break;
-					executor.execute(new Runnable() {
+					dispatch(executor, new Runnable() {
 						/*
 						 * (non-Javadoc)
 						 * @see java.lang.Runnable#run()
@@ -1072,9 +1393,18 @@ public class DataReader extends Thread {
 						@Override
 						public void run() {
 							/* Synchronize the listener so it is not called 
-							 twice. That is, let the listener to finish its job. */
+							 twice. That is, let the listener to finish its job. 
+							 The messages of the same frame are delivered in order. */
 							synchronized (listener) {
-								listener.dataReceived(xbeeMessage);
+								for (XBeeMessage xbeeMessage : xbeeMessages) {
+									ReceiveTimestamps timestamps = xbeeMessage.getReceiveTimestamps();
+									long start = listenerStarted(timestamps);
+									try {
+										listener.dataReceived(xbeeMessage);
+									} finally {
+										listenerReturned(timestamps, start);
+									}
+								}
 							}
 						}
 					});
@@ -1107,7 +1437,7 @@ public class DataReader extends Thread {
 					// Ensure that the reader is running to avoid a RejectedExecutionException.
 					if (!running)
 						break;
-					executor.execute(new Runnable() {
+					dispatch(executor, new Runnable() {
 						/*
 						 * (non-Javadoc)
 						 * @see java.lang.Runnable#run()
@@ -1140,6 +1470,49 @@ public class DataReader extends Thread {
 		}
 	}
 	
+	/**
+	 * Notifies the handlers subscribed with a filter matching the received 
+	 * XBee packet.
+	 * 
+	 * @param packet The received XBee packet.
+	 * 
+	 * @see #subscribe(XBeePacketFilter, IPacketReceiveListener)
+	 */
+	private void notifySubscribedHandlers(final XBeePacket packet) {
+		if (packetSubscriptions.isEmpty())
+			return;
+		
+		try {
+			List<IPacketReceiveListener> handlers = packetSubscriptions.getHandlers(packet);
+			if (handlers.isEmpty())
+				return;
+			ScheduledExecutorService executor = Executors.newScheduledThreadPool(Math.min(MAXIMUM_PARALLEL_LISTENER_THREADS, 
+					handlers.size()));
+			for (final IPacketReceiveListener handler:handlers) {
+				// Ensure that the reader is running to avoid a RejectedExecutionException.
+				if (!running)
+					break;
+				dispatch(executor, new Runnable() {
+					/*
+					 * (non-Javadoc)
+					 * @see java.lang.Runnable#run()
+					 */
+					@Override
+					public void run() {
+						// Synchronize the handler so it is not called 
+						// twice. That is, let the handler to finish its job.
+						synchronized (handler) {
+							handler.packetReceived(packet);
+						}
+					}
+				});
+			}
+			executor.shutdown();
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+		}
+	}
+	
 	/**
 	 * Notifies subscribed IO sample listeners that a new IO sample packet has
 	 * been received.
@@ -1153,6 +1526,16 @@ public class DataReader extends Thread {
 	private void notifyIOSampleReceived(final RemoteXBeeDevice remoteDevice, final IOSample ioSample) {
 		logger.debug(connectionInterface.toString() + "IO sample received.");
 		
+		storeIOSample(remoteDevice, ioSample);
+		
+		IOSampleDeliveryOptions options = ioSampleDeliveryOptions;
+		if (options != null && options.isChangesOnly() && !isIOSampleChange(options, remoteDevice, ioSample)) {
+			logger.debug(connectionInterface.toString() + "IO sample without changes suppressed.");
+			countSuppressedIOSample(remoteDevice);
+			return;
+		}
+		boolean conflate = options != null && options.isConflate();
+		
 		try {
 			synchronized (ioSampleReceiveListeners) {
 				ScheduledExecutorService executor = Executors.newScheduledThreadPool(Math.min(MAXIMUM_PARALLEL_LISTENER_THREADS, 
@@ -1161,7 +1544,19 @@ public class DataReader extends Thread {
 					// Ensure that the reader is running to avoid a RejectedExecutionException.
 					if (!running)
 						break;
-					executor.execute(new Runnable() {
+					if (conflate) {
+						// Only start delivering if the listener is not already busy 
+						// with previous samples, otherwise the sample is queued.
+						IOSampleConflator conflator = ioSampleConflators.get(listener);
+						if (conflator == null) {
+							conflator = new IOSampleConflator(listener);
+							ioSampleConflators.put(listener, conflator);
+						}
+						if (conflator.offer(remoteDevice, ioSample))
+							dispatch(executor, conflator);
+						continue;
+					}
+					dispatch(executor, new Runnable() {
 						/*
 						 * (non-Javadoc)
 						 * @see java.lang.Runnable#run()
@@ -1183,6 +1578,91 @@ public class DataReader extends Thread {
 		}
 	}
 	
+	/**
+	 * Returns whether the given IO sample has changes with respect to the 
+	 * last delivered sample of the same remote device. If so, it is saved as 
+	 * the last delivered sample.
+	 * 
+	 * @param options The IO sample delivery options.
+	 * @param remoteDevice The remote XBee device that sent the sample.
+	 * @param ioSample The received IO sample.
+	 * 
+	 * @return {@code true} if the IO sample has changes, {@code false} 
+	 *         otherwise.
+	 */
+	private boolean isIOSampleChange(IOSampleDeliveryOptions options, RemoteXBeeDevice remoteDevice, IOSample ioSample) {
+		Object key = getRemoteDeviceKey(remoteDevice);
+		if (!options.isChange(lastDeliveredIOSamples.get(key), ioSample))
+			return false;
+		lastDeliveredIOSamples.put(key, ioSample);
+		return true;
+	}
+	
+	/**
+	 * Increments the number of suppressed IO samples of the given remote 
+	 * device.
+	 * 
+	 * @param remoteDevice The remote XBee device that sent the sample.
+	 */
+	private void countSuppressedIOSample(RemoteXBeeDevice remoteDevice) {
+		Object key = getRemoteDeviceKey(remoteDevice);
+		AtomicLong counter = suppressedIOSamples.get(key);
+		if (counter == null) {
+			AtomicLong newCounter = new AtomicLong();
+			counter = suppressedIOSamples.putIfAbsent(key, newCounter);
+			if (counter == null)
+				counter = newCounter;
+		}
+		counter.incrementAndGet();
+	}
+	
+	/**
+	 * Returns the key that identifies the given remote device: its 64-bit 
+	 * address, or its 16-bit or IPv6 address if the 64-bit one is unknown.
+	 * 
+	 * @param remoteDevice The remote XBee device.
+	 * 
+	 * @return The key that identifies the remote device.
+	 */
+	private static Object getRemoteDeviceKey(RemoteXBeeDevice remoteDevice) {
+		if (remoteDevice == null)
+			return XBee64BitAddress.UNKNOWN_ADDRESS;
+		XBee64BitAddress addr64 = remoteDevice.get64BitAddress();
+		if (addr64 != null && !addr64.equals(XBee64BitAddress.UNKNOWN_ADDRESS))
+			return addr64;
+		XBee16BitAddress addr16 = remoteDevice.get16BitAddress();
+		if (addr16 != null && !addr16.equals(XBee16BitAddress.UNKNOWN_ADDRESS))
+			return addr16;
+		if (remoteDevice.getIPv6Address() != null)
+			return remoteDevice.getIPv6Address();
+		return XBee64BitAddress.UNKNOWN_ADDRESS;
+	}
+	
+	/**
+	 * Stores the given IO sample in the IO sample history, if any.
+	 * 
+	 * <p>Samples from remote devices without a known 64-bit address are 
+	 * not stored.</p>
+	 * 
+	 * @param remoteDevice The remote XBee device that sent the sample.
+	 * @param ioSample The received IO sample.
+	 */
+	private void storeIOSample(RemoteXBeeDevice remoteDevice, IOSample ioSample) {
+		IOSampleHistory history = ioSampleHistory;
+		if (history == null || remoteDevice == null || ioSample == null)
+			return;
+		
+		XBee64BitAddress address = remoteDevice.get64BitAddress();
+		if (address == null || address.equals(XBee64BitAddress.UNKNOWN_ADDRESS))
+			return;
+		
+		try {
+			history.addSample(address, ioSample);
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+		}
+	}
+	
 	/**
 	 * Notifies subscribed Modem Status listeners that a Modem Status event 
 	 * packet has been received.
@@ -1202,7 +1682,7 @@ public class DataReader extends Thread {
 					// Ensure that the reader is running to avoid a RejectedExecutionException.
 					if (!running)
 						break;
-					executor.execute(new Runnable() {
+					dispatch(executor, new Runnable() {
 						/*
 						 * (non-Javadoc)
 						 * @see java.lang.Runnable#run()
@@ -1242,6 +1722,10 @@ public class DataReader extends Thread {
 			logger.info(connectionInterface.toString() + 
 					"Explicit data received from {} >> {}.", explicitXBeeMessage.getDevice().get64BitAddress(), HexUtils.prettyHexString(explicitXBeeMessage.getData()));
 		
+		if (explicitXBeeMessage.getReceiveTimestamps() == null)
+			explicitXBeeMessage.setReceiveTimestamps(copyTimestamps(frameTimestamps));
+		final ReceiveTimestamps timestamps = explicitXBeeMessage.getReceiveTimestamps();
+		
 		try {
 			synchronized (explicitDataReceiveListeners) {
 				ScheduledExecutorService executor = Executors.newScheduledThreadPool(Math.min(MAXIMUM_PARALLEL_LISTENER_THREADS, 
@@ -1250,7 +1734,7 @@ public class DataReader extends Thread {
 					// Ensure that the reader is running to avoid a RejectedExecutionException.
 					if (!running)
 						break;
-					executor.execute(new Runnable() {
+					dispatch(executor, new Runnable() {
 						/*
 						 * (non-Javadoc)
 						 * @see java.lang.Runnable#run()
@@ -1260,7 +1744,12 @@ public class DataReader extends Thread {
 							/* Synchronize the listener so it is not called 
 							 twice. That is, let the listener to finish its job. */
 							synchronized (listener) {
-								listener.explicitDataReceived(explicitXBeeMessage);
+								long start = listenerStarted(timestamps);
+								try {
+									listener.explicitDataReceived(explicitXBeeMessage);
+								} finally {
+									listenerReturned(timestamps, start);
+								}
 							}
 						}
 					});
@@ -1287,6 +1776,10 @@ public class DataReader extends Thread {
 		logger.info(connectionInterface.toString() + 
 				"IP data received from {} >> {}.", ipMessage.getHostAddress(), HexUtils.prettyHexString(ipMessage.getData()));
 		
+		if (ipMessage.getReceiveTimestamps() == null)
+			ipMessage.setReceiveTimestamps(copyTimestamps(frameTimestamps));
+		final ReceiveTimestamps timestamps = ipMessage.getReceiveTimestamps();
+		
 		try {
 			synchronized (ipDataReceiveListeners) {
 				ScheduledExecutorService executor = Executors.newScheduledThreadPool(Math.min(MAXIMUM_PARALLEL_LISTENER_THREADS, 
@@ -1295,7 +1788,7 @@ public class DataReader extends Thread {
 					// Ensure that the reader is running to avoid a RejectedExecutionException.
 					if (!running)
 						break;
-					executor.execute(new Runnable() {
+					dispatch(executor, new Runnable() {
 						/*
 						 * (non-Javadoc)
 						 * @see java.lang.Runnable#run()
@@ -1305,7 +1798,12 @@ public class DataReader extends Thread {
 							/* Synchronize the listener so it is not called 
 							 twice. That is, let the listener to finish its job. */
 							synchronized (listener) {
-								listener.ipDataReceived(ipMessage);
+								long start = listenerStarted(timestamps);
+								try {
+									listener.ipDataReceived(ipMessage);
+								} finally {
+									listenerReturned(timestamps, start);
+								}
 							}
 						}
 					});
@@ -1317,6 +1815,135 @@ public class DataReader extends Thread {
 		}
 	}
 	
+	/**
+	 * Returns a copy of the given frame timestamps for a message.
+	 * 
+	 * <p>Each message keeps its own copy because the dispatch and listener 
+	 * times are different for each message of a frame.</p>
+	 * 
+	 * @param timestamps The timestamps of the received frame.
+	 * 
+	 * @return The timestamps for the message, {@code null} if 
+	 *         {@code timestamps == null}.
+	 * 
+	 * @see com.digi.xbee.api.models.ReceiveTimestamps
+	 */
+	private static ReceiveTimestamps copyTimestamps(ReceiveTimestamps timestamps) {
+		if (timestamps == null)
+			return null;
+		return new ReceiveTimestamps(timestamps.getFirstByte(), 
+				timestamps.getFrameComplete(), timestamps.getDecodeComplete());
+	}
+	
+	/**
+	 * Stores the time a listener starts processing a message.
+	 * 
+	 * @param timestamps The timestamps of the message, may be {@code null}.
+	 * 
+	 * @return The start time.
+	 * 
+	 * @see #listenerReturned(ReceiveTimestamps, long)
+	 */
+	private static long listenerStarted(ReceiveTimestamps timestamps) {
+		long start = System.nanoTime();
+		if (timestamps != null)
+			timestamps.setDispatchStart(start);
+		return start;
+	}
+	
+	/**
+	 * Stores the time a listener returned and records the listener queue, 
+	 * execution and end-to-end latencies of the message.
+	 * 
+	 * @param timestamps The timestamps of the message, may be {@code null}.
+	 * @param start The time the listener started.
+	 * 
+	 * @see #listenerStarted(ReceiveTimestamps)
+	 */
+	private void listenerReturned(ReceiveTimestamps timestamps, long start) {
+		if (timestamps == null)
+			return;
+		long end = System.nanoTime();
+		timestamps.setListenerReturn(end);
+		
+		IMetricsRecorder metrics = xbeeDevice.getMetricsRecorder();
+		if (metrics != null) {
+			metrics.record(MetricsTimer.LISTENER_QUEUE, start - timestamps.getDecodeComplete());
+			metrics.record(MetricsTimer.LISTENER_EXECUTION, end - start);
+			metrics.record(MetricsTimer.END_TO_END, end - timestamps.getFirstByte());
+		}
+	}
+	
+	/**
+	 * Executes the given listener notification counting it as pending 
+	 * until it finishes.
+	 * 
+	 * @param executor The executor of the notification.
+	 * @param task The listener notification.
+	 * 
+	 * @see #updateBackpressure()
+	 */
+	private void dispatch(Executor executor, final Runnable task) {
+		pendingDispatches.incrementAndGet();
+		updateBackpressure();
+		try {
+			executor.execute(new Runnable() {
+				/*
+				 * (non-Javadoc)
+				 * @see java.lang.Runnable#run()
+				 */
+				@Override
+				public void run() {
+					try {
+						task.run();
+					} finally {
+						pendingDispatches.decrementAndGet();
+						updateBackpressure();
+					}
+				}
+			});
+		} catch (RuntimeException e) {
+			pendingDispatches.decrementAndGet();
+			updateBackpressure();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Updates the RTS line of the serial port with the number of pending 
+	 * listener notifications and, if configured, the number of packets in 
+	 * the queue.
+	 * 
+	 * @see com.digi.xbee.api.connection.serial.ReceiveBackpressure
+	 */
+	private void updateBackpressure() {
+		ReceiveBackpressure backpressure = xbeeDevice.getReceiveBackpressure();
+		if (backpressure == null || !(connectionInterface instanceof AbstractSerialPort))
+			return;
+		
+		// The occupancy is read inside the lock of the backpressure, so a 
+		// stale value is never applied after a newer one.
+		backpressure.update((AbstractSerialPort)connectionInterface, occupancyProvider);
+	}
+	
+	/**
+	 * Asserts the RTS line of the serial port if it was deasserted to stop 
+	 * the reception.
+	 * 
+	 * @see com.digi.xbee.api.connection.serial.ReceiveBackpressure
+	 */
+	private void releaseBackpressure() {
+		ReceiveBackpressure backpressure = xbeeDevice.getReceiveBackpressure();
+		if (backpressure == null || !(connectionInterface instanceof AbstractSerialPort))
+			return;
+		
+		try {
+			backpressure.release((AbstractSerialPort)connectionInterface);
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+		}
+	}
+	
 	/**
 	 * Notifies subscribed SMS receive listeners that a new SMS packet has 
 	 * been received in form of an {@code SMSMessage}.
@@ -1339,7 +1966,7 @@ public class DataReader extends Thread {
 					// Ensure that the reader is running to avoid a RejectedExecutionException.
 					if (!running)
 						break;
-					executor.execute(new Runnable() {
+					dispatch(executor, new Runnable() {
 						/*
 						 * (non-Javadoc)
 						 * @see java.lang.Runnable#run()
@@ -1430,7 +2057,7 @@ public class DataReader extends Thread {
 					// Ensure that the reader is running to avoid a RejectedExecutionException.
 					if (!running)
 						break;
-					executor.execute(new Runnable() {
+					dispatch(executor, new Runnable() {
 						@Override
 						public void run() {
 							/* Synchronize the listener so it is not called
@@ -1476,6 +2103,31 @@ public class DataReader extends Thread {
 		return running;
 	}
 	
+	/**
+	 * Waits until this Data reader is started and waiting for the data of 
+	 * the connection interface.
+	 * 
+	 * <p>The connection interface notifies the reader when new data is 
+	 * available. Data notified before the reader waits for it is not read 
+	 * until the next notification, so requests should not be sent before 
+	 * this method returns.</p>
+	 * 
+	 * @param timeout The maximum time to wait in milliseconds.
+	 * 
+	 * @return {@code true} if the reader is waiting for data, {@code false} 
+	 *         if the timeout elapsed before.
+	 * 
+	 * @throws InterruptedException if the current thread is interrupted 
+	 *                              while waiting.
+	 * 
+	 * @see #isRunning()
+	 * 
+	 * @since 1.4.0
+	 */
+	public boolean waitForStart(long timeout) throws InterruptedException {
+		return waitingForData.await(timeout, TimeUnit.MILLISECONDS);
+	}
+	
 	/**
 	 * Stops the Data reader thread.
 	 * 
@@ -1489,6 +2141,171 @@ public class DataReader extends Thread {
 		logger.debug(connectionInterface.toString() + "Data reader stopped.");
 	}
 	
+	/**
+	 * Sets the history where the received IO samples are stored.
+	 * 
+	 * @param ioSampleHistory The IO samples history, {@code null} to stop 
+	 *                        storing the received IO samples.
+	 * 
+	 * @see #getIOSampleHistory()
+	 * @see com.digi.xbee.api.io.IOSampleHistory
+	 * 
+	 * @since 1.4.0
+	 */
+	public void setIOSampleHistory(IOSampleHistory ioSampleHistory) {
+		this.ioSampleHistory = ioSampleHistory;
+	}
+	
+	/**
+	 * Returns the history where the received IO samples are stored.
+	 * 
+	 * @return The IO samples history, {@code null} if it is not configured.
+	 * 
+	 * @see #setIOSampleHistory(IOSampleHistory)
+	 * @see com.digi.xbee.api.io.IOSampleHistory
+	 * 
+	 * @since 1.4.0
+	 */
+	public IOSampleHistory getIOSampleHistory() {
+		return ioSampleHistory;
+	}
+	
+	/**
+	 * Sets the options used to deliver the received IO samples to the IO 
+	 * sample listeners.
+	 * 
+	 * <p>Setting new options restarts the change detection of all remote 
+	 * devices.</p>
+	 * 
+	 * @param options The IO sample delivery options, {@code null} to deliver 
+	 *                all the samples to every listener.
+	 * 
+	 * @see #getIOSampleDeliveryOptions()
+	 * @see com.digi.xbee.api.io.IOSampleDeliveryOptions
+	 * 
+	 * @since 1.4.0
+	 */
+	public void setIOSampleDeliveryOptions(IOSampleDeliveryOptions options) {
+		this.ioSampleDeliveryOptions = options;
+		lastDeliveredIOSamples.clear();
+	}
+	
+	/**
+	 * Returns the options used to deliver the received IO samples to the IO 
+	 * sample listeners.
+	 * 
+	 * @return The IO sample delivery options, {@code null} if all the 
+	 *         samples are delivered.
+	 * 
+	 * @see #setIOSampleDeliveryOptions(IOSampleDeliveryOptions)
+	 * @see com.digi.xbee.api.io.IOSampleDeliveryOptions
+	 * 
+	 * @since 1.4.0
+	 */
+	public IOSampleDeliveryOptions getIOSampleDeliveryOptions() {
+		return ioSampleDeliveryOptions;
+	}
+	
+	/**
+	 * Returns the number of IO samples of the given remote device that were 
+	 * not delivered to a listener, either because they had no changes or 
+	 * because they were replaced by a newer sample while the listener was 
+	 * busy.
+	 * 
+	 * @param remoteDevice The remote XBee device.
+	 * 
+	 * @return The number of suppressed IO samples.
+	 * 
+	 * @throws NullPointerException if {@code remoteDevice == null}.
+	 * 
+	 * @see #resetSuppressedIOSamples()
+	 * @see #setIOSampleDeliveryOptions(IOSampleDeliveryOptions)
+	 * 
+	 * @since 1.4.0
+	 */
+	public long getSuppressedIOSamples(RemoteXBeeDevice remoteDevice) {
+		if (remoteDevice == null)
+			throw new NullPointerException("Remote device cannot be null.");
+		
+		AtomicLong counter = suppressedIOSamples.get(getRemoteDeviceKey(remoteDevice));
+		return counter == null ? 0 : counter.get();
+	}
+	
+	/**
+	 * Resets the number of suppressed IO samples of all the remote devices.
+	 * 
+	 * @see #getSuppressedIOSamples(RemoteXBeeDevice)
+	 * 
+	 * @since 1.4.0
+	 */
+	public void resetSuppressedIOSamples() {
+		suppressedIOSamples.clear();
+	}
+	
+	/**
+	 * Sets the options of the staged receive pipeline.
+	 * 
+	 * <p>The options are applied when the reader starts. If they are 
+	 * {@code null}, this thread reads, decodes and dispatches the received 
+	 * frames.</p>
+	 * 
+	 * @param options The receive pipeline options, {@code null} to read, 
+	 *                decode and dispatch in this thread.
+	 * 
+	 * @see #getReceivePipelineOptions()
+	 * @see com.digi.xbee.api.models.ReceivePipelineOptions
+	 * 
+	 * @since 1.4.0
+	 */
+	public void setReceivePipelineOptions(ReceivePipelineOptions options) {
+		this.pipelineOptions = options;
+	}
+	
+	/**
+	 * Returns the options of the staged receive pipeline.
+	 * 
+	 * @return The receive pipeline options, {@code null} if the pipeline is 
+	 *         not staged.
+	 * 
+	 * @see #setReceivePipelineOptions(ReceivePipelineOptions)
+	 * @see com.digi.xbee.api.models.ReceivePipelineOptions
+	 * 
+	 * @since 1.4.0
+	 */
+	public ReceivePipelineOptions getReceivePipelineOptions() {
+		return pipelineOptions;
+	}
+	
+	/**
+	 * Returns the number of read blocks of bytes waiting to be decoded in 
+	 * the staged receive pipeline.
+	 * 
+	 * @return The decode backlog, 0 if the pipeline is not staged.
+	 * 
+	 * @see #setReceivePipelineOptions(ReceivePipelineOptions)
+	 * 
+	 * @since 1.4.0
+	 */
+	public int getDecodeBacklog() {
+		ReceivePipeline receivePipeline = pipeline;
+		return receivePipeline == null ? 0 : receivePipeline.blocks.size();
+	}
+	
+	/**
+	 * Returns the number of decoded frames waiting to be dispatched in the 
+	 * staged receive pipeline.
+	 * 
+	 * @return The dispatch backlog, 0 if the pipeline is not staged.
+	 * 
+	 * @see #setReceivePipelineOptions(ReceivePipelineOptions)
+	 * 
+	 * @since 1.4.0
+	 */
+	public int getDispatchBacklog() {
+		ReceivePipeline receivePipeline = pipeline;
+		return receivePipeline == null ? 0 : receivePipeline.frames.size();
+	}
+	
 	/**
 	 * Returns the queue of read XBee packets.
 	 * 
@@ -1499,4 +2316,346 @@ public class DataReader extends Thread {
 	public XBeePacketsQueue getXBeePacketsQueue() {
 		return xbeePacketsQueue;
 	}
+	
+	/**
+	 * Delivers IO samples to a listener keeping only the latest sample of 
+	 * every remote device while the listener is busy.
+	 */
+	private class IOSampleConflator implements Runnable {
+		
+		// Variables.
+		private final IIOSampleReceiveListener listener;
+		
+		private final LinkedHashMap<Object, PendingIOSample> pending = new LinkedHashMap<>();
+		
+		private boolean busy = false;
+		
+		/**
+		 * Class constructor. Instantiates a new {@code IOSampleConflator} for 
+		 * the given listener.
+		 * 
+		 * @param listener The IO sample listener to deliver samples to.
+		 */
+		IOSampleConflator(IIOSampleReceiveListener listener) {
+			this.listener = listener;
+		}
+		
+		/**
+		 * Queues the given sample, replacing the pending sample of the same 
+		 * remote device, if any.
+		 * 
+		 * @param remoteDevice The remote XBee device that sent the sample.
+		 * @param ioSample The received IO sample.
+		 * 
+		 * @return {@code true} if the listener was idle and this conflator 
+		 *         must be executed to deliver the sample, {@code false} if 
+		 *         it is already delivering samples.
+		 */
+		synchronized boolean offer(RemoteXBeeDevice remoteDevice, IOSample ioSample) {
+			PendingIOSample replaced = pending.put(getRemoteDeviceKey(remoteDevice), 
+					new PendingIOSample(remoteDevice, ioSample));
+			if (replaced != null)
+				countSuppressedIOSample(remoteDevice);
+			if (busy)
+				return false;
+			busy = true;
+			return true;
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.Runnable#run()
+		 */
+		@Override
+		public void run() {
+			while (true) {
+				PendingIOSample next;
+				synchronized (this) {
+					Iterator<PendingIOSample> it = pending.values().iterator();
+					if (!it.hasNext()) {
+						busy = false;
+						return;
+					}
+					next = it.next();
+					it.remove();
+				}
+				try {
+					synchronized (listener) {
+						listener.ioSampleReceived(next.remoteDevice, next.ioSample);
+					}
+				} catch (Exception e) {
+					logger.error(e.getMessage(), e);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * IO sample waiting to be delivered by an {@code IOSampleConflator}.
+	 */
+	private static class PendingIOSample {
+		
+		// Variables.
+		private final RemoteXBeeDevice remoteDevice;
+		private final IOSample ioSample;
+		
+		PendingIOSample(RemoteXBeeDevice remoteDevice, IOSample ioSample) {
+			this.remoteDevice = remoteDevice;
+			this.ioSample = ioSample;
+		}
+	}
+	
+	/**
+	 * Reads, decodes and dispatches the received frames in three threads 
+	 * connected by ring buffers.
+	 * 
+	 * <p>The data reader thread reads blocks of bytes, the decoder thread 
+	 * parses them into packets and the dispatcher thread processes the 
+	 * packets and notifies the listeners.</p>
+	 */
+	private class ReceivePipeline {
+		
+		// Variables.
+		private final SPSCRingBuffer<ReceivedBlock> blocks;
+		private final SPSCRingBuffer<ReceivedFrame> frames;
+		
+		private final byte[] readBuffer = new byte[READ_BUFFER_SIZE];
+		
+		private final Thread decoder;
+		private final Thread dispatcher;
+		
+		private volatile boolean active = true;
+		
+		/**
+		 * Class constructor. Instantiates a new {@code ReceivePipeline} with 
+		 * the given options.
+		 * 
+		 * @param options The receive pipeline options.
+		 */
+		ReceivePipeline(ReceivePipelineOptions options) {
+			blocks = new SPSCRingBuffer<ReceivedBlock>(options.getDecodeBufferSize(), options.getWaitStrategy());
+			frames = new SPSCRingBuffer<ReceivedFrame>(options.getDispatchBufferSize(), options.getWaitStrategy());
+			
+			decoder = new Thread(new Runnable() {
+				/*
+				 * (non-Javadoc)
+				 * @see java.lang.Runnable#run()
+				 */
+				@Override
+				public void run() {
+					decode();
+				}
+			}, "XBee frame decoder");
+			dispatcher = new Thread(new Runnable() {
+				/*
+				 * (non-Javadoc)
+				 * @see java.lang.Runnable#run()
+				 */
+				@Override
+				public void run() {
+					dispatch();
+				}
+			}, "XBee frame dispatcher");
+			decoder.setDaemon(true);
+			dispatcher.setDaemon(true);
+		}
+		
+		/**
+		 * Starts the decoder and dispatcher threads.
+		 */
+		void start() {
+			decoder.start();
+			dispatcher.start();
+		}
+		
+		/**
+		 * Stops the decoder and dispatcher threads. The data not dispatched 
+		 * yet is discarded.
+		 */
+		void stop() {
+			active = false;
+		}
+		
+		/**
+		 * Reads the available bytes of the connection interface, or waits 
+		 * for one if there is none, and passes them to the decoder.
+		 * 
+		 * <p>This method is called from the data reader thread.</p>
+		 * 
+		 * @throws IOException if there is an error reading the input stream.
+		 * @throws InterruptedException if the thread is interrupted while 
+		 *                              waiting for room in the buffer.
+		 */
+		void readBlock() throws IOException, InterruptedException {
+			InputStream inputStream = connectionInterface.getInputStream();
+			int available = Math.min(inputStream.available(), readBuffer.length);
+			int read = inputStream.read(readBuffer, 0, Math.max(1, available));
+			if (read <= 0)
+				return;
+			
+			ReceivedBlock block = new ReceivedBlock(Arrays.copyOf(readBuffer, read), System.nanoTime());
+			while (!blocks.put(block, STAGE_POLL_TIME)) {
+				if (!active || !running)
+					return;
+			}
+			IMetricsRecorder metrics = xbeeDevice.getMetricsRecorder();
+			if (metrics != null)
+				metrics.update(MetricsGauge.DECODE_BACKLOG, blocks.size());
+		}
+		
+		/**
+		 * Parses the blocks of bytes into packets and passes them to the 
+		 * dispatcher.
+		 */
+		private void decode() {
+			BlockInputStream inputStream = new BlockInputStream();
+			try {
+				while (active) {
+					int headerByte = inputStream.read(STAGE_POLL_TIME);
+					// If it is packet header parse the packet, if not discard this byte and continue.
+					if (headerByte != SpecialByte.HEADER_BYTE.getValue())
+						continue;
+					
+					long firstByte = inputStream.getBlockTime();
+					IMetricsRecorder metrics = xbeeDevice.getMetricsRecorder();
+					ReceivedFrame frame;
+					try {
+						XBeePacket packet = parser.parsePacket(inputStream, mode);
+						frame = new ReceivedFrame(packet, createTimestamps(firstByte));
+					} catch (InvalidPacketException e) {
+						parseError(metrics, e);
+						continue;
+					} catch (Exception e) {
+						logger.error("Error parsing the API packet.", e);
+						continue;
+					}
+					while (!frames.put(frame, STAGE_POLL_TIME)) {
+						if (!active)
+							return;
+					}
+					if (metrics != null)
+						metrics.update(MetricsGauge.DISPATCH_BACKLOG, frames.size());
+					updateBackpressure();
+				}
+			} catch (InterruptedException e) {
+				logger.error(e.getMessage(), e);
+			}
+		}
+		
+		/**
+		 * Dispatches the decoded packets.
+		 */
+		private void dispatch() {
+			try {
+				while (active) {
+					ReceivedFrame frame = frames.take(STAGE_POLL_TIME);
+					if (frame == null)
+						continue;
+					updateBackpressure();
+					try {
+						frameReceived(frame.packet, frame.timestamps);
+					} catch (Exception e) {
+						logger.error("Error dispatching the API packet.", e);
+					}
+				}
+			} catch (InterruptedException e) {
+				logger.error(e.getMessage(), e);
+			}
+		}
+		
+		/**
+		 * Input stream of the decoder that reads the blocks of bytes passed 
+		 * by the data reader thread.
+		 */
+		private class BlockInputStream extends InputStream {
+			
+			// Variables.
+			private ReceivedBlock block;
+			
+			private int position;
+			
+			/**
+			 * Reads the next byte waiting up to the given time for it.
+			 * 
+			 * @param timeout Maximum time to wait in milliseconds.
+			 * 
+			 * @return The next byte, -1 if the timeout expired.
+			 * 
+			 * @throws InterruptedException if the thread is interrupted 
+			 *                              while waiting.
+			 */
+			int read(int timeout) throws InterruptedException {
+				if (block == null || position == block.data.length) {
+					block = blocks.take(timeout);
+					position = 0;
+					if (block == null)
+						return -1;
+				}
+				return block.data[position++] & 0xFF;
+			}
+			
+			/*
+			 * (non-Javadoc)
+			 * @see java.io.InputStream#read()
+			 */
+			@Override
+			public int read() throws IOException {
+				try {
+					return read(DECODER_READ_TIME);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException("Interrupted while reading.", e);
+				}
+			}
+			
+			/*
+			 * (non-Javadoc)
+			 * @see java.io.InputStream#available()
+			 */
+			@Override
+			public int available() {
+				return block == null ? 0 : block.data.length - position;
+			}
+			
+			/**
+			 * Returns the time the block containing the last read byte was 
+			 * read.
+			 * 
+			 * @return The read time of the current block.
+			 */
+			long getBlockTime() {
+				return block == null ? System.nanoTime() : block.time;
+			}
+		}
+	}
+	
+	/**
+	 * Block of bytes read from the connection interface.
+	 */
+	private static class ReceivedBlock {
+		
+		// Variables.
+		private final byte[] data;
+		private final long time;
+		
+		ReceivedBlock(byte[] data, long time) {
+			this.data = data;
+			this.time = time;
+		}
+	}
+	
+	/**
+	 * Decoded packet waiting to be dispatched.
+	 */
+	private static class ReceivedFrame {
+		
+		// Variables.
+		private final XBeePacket packet;
+		private final ReceiveTimestamps timestamps;
+		
+		ReceivedFrame(XBeePacket packet, ReceiveTimestamps timestamps) {
+			this.packet = packet;
+			this.timestamps = timestamps;
+		}
+	}
 }
@@ -0,0 +1,350 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.digi.xbee.api.listeners.IExplicitDataReceiveListener;
+import com.digi.xbee.api.models.ExplicitXBeeMessage;
+
+/**
+ * This class routes the received explicit data to handlers registered for a 
+ * destination endpoint, cluster ID and profile ID.
+ * 
+ * <p>The router is an {@code IExplicitDataReceiveListener}, so it only needs 
+ * to be registered once in the local device (see 
+ * {@link ZigBeeDevice#getExplicitDataRouter()}). Every received message is 
+ * delivered to a single handler, chosen with hash lookups:</p>
+ * 
+ * <ol>
+ * <li>The handler registered for the exact destination endpoint, cluster 
+ * ID and profile ID.</li>
+ * <li>Otherwise, the most specific handler registered with wildcards 
+ * ({@link #ANY}). Endpoint is more specific than cluster, and cluster more 
+ * than profile.</li>
+ * <li>Otherwise, the default handler, if any.</li>
+ * </ol>
+ * 
+ * <p>Every handler runs on its own single thread, so the messages it 
+ * receives are processed one at a time in the order they arrived, and a 
+ * slow handler does not delay the others.</p>
+ * 
+ * @see ExplicitXBeeMessage
+ * @see IExplicitDataReceiveListener
+ * 
+ * @since 1.4.0
+ */
+public class ExplicitDataRouter implements IExplicitDataReceiveListener {
+	
+	// Constants.
+	/**
+	 * Wildcard value that matches any endpoint, cluster ID or profile ID.
+	 */
+	public static final int ANY = -1;
+	
+	// Bits of the wildcard patterns: a set bit means the field is a wildcard.
+	private static final int ANY_PROFILE = 1;
+	private static final int ANY_CLUSTER = 1 << 1;
+	private static final int ANY_ENDPOINT = 1 << 2;
+	
+	// Patterns from the most to the least specific.
+	private static final int[] LOOKUP_ORDER = new int[] {
+		0,
+		ANY_PROFILE,
+		ANY_CLUSTER,
+		ANY_CLUSTER | ANY_PROFILE,
+		ANY_ENDPOINT,
+		ANY_ENDPOINT | ANY_PROFILE,
+		ANY_ENDPOINT | ANY_CLUSTER,
+		ANY_ENDPOINT | ANY_CLUSTER | ANY_PROFILE
+	};
+	
+	private static final AtomicInteger routerCount = new AtomicInteger();
+	
+	// Variables.
+	private final Object lock = new Object();
+	
+	// Route key -> handler, and bit set of the wildcard patterns in use.
+	private volatile Map<Long, IExplicitDataReceiveListener> routes = Collections.emptyMap();
+	private volatile int patternsInUse = 0;
+	
+	private volatile IExplicitDataReceiveListener defaultHandler = null;
+	
+	private final IdentityHashMap<IExplicitDataReceiveListener, ExecutorService> executors = new IdentityHashMap<>();
+	
+	private final String name = "ExplicitDataRouter-" + routerCount.incrementAndGet();
+	
+	private Logger logger = LoggerFactory.getLogger(ExplicitDataRouter.class);
+	
+	/**
+	 * Registers the given handler for the explicit data received in the 
+	 * given destination endpoint, cluster ID and profile ID. If there was 
+	 * another handler for the same values, it is replaced.
+	 * 
+	 * @param destEndpoint Destination endpoint (0x00 - 0xFF), or {@link #ANY}.
+	 * @param clusterID Cluster ID (0x0000 - 0xFFFF), or {@link #ANY}.
+	 * @param profileID Profile ID (0x0000 - 0xFFFF), or {@link #ANY}.
+	 * @param handler The handler to notify.
+	 * 
+	 * @throws IllegalArgumentException if {@code destEndpoint < -1} or 
+	 *                                  if {@code destEndpoint > 0xFF} or 
+	 *                                  if {@code clusterID < -1} or 
+	 *                                  if {@code clusterID > 0xFFFF} or 
+	 *                                  if {@code profileID < -1} or 
+	 *                                  if {@code profileID > 0xFFFF}.
+	 * @throws NullPointerException if {@code handler == null}.
+	 * 
+	 * @see #removeHandler(IExplicitDataReceiveListener)
+	 * @see #setDefaultHandler(IExplicitDataReceiveListener)
+	 */
+	public void addHandler(int destEndpoint, int clusterID, int profileID, IExplicitDataReceiveListener handler) {
+		if (destEndpoint < ANY || destEndpoint > 0xFF)
+			throw new IllegalArgumentException("Destination endpoint must be between 0 and 0xFF, or " + ANY + " for any.");
+		if (clusterID < ANY || clusterID > 0xFFFF)
+			throw new IllegalArgumentException("Cluster ID must be between 0 and 0xFFFF, or " + ANY + " for any.");
+		if (profileID < ANY || profileID > 0xFFFF)
+			throw new IllegalArgumentException("Profile ID must be between 0 and 0xFFFF, or " + ANY + " for any.");
+		if (handler == null)
+			throw new NullPointerException("Handler cannot be null.");
+		
+		synchronized (lock) {
+			HashMap<Long, IExplicitDataReceiveListener> newRoutes = new HashMap<>(routes);
+			IExplicitDataReceiveListener replaced = newRoutes.put(createKey(destEndpoint, clusterID, profileID), handler);
+			updateRoutes(newRoutes);
+			if (replaced != null)
+				releaseExecutor(replaced);
+		}
+	}
+	
+	/**
+	 * Removes all the routes of the given handler. If it is the default 
+	 * handler, it is also removed.
+	 * 
+	 * @param handler The handler to remove.
+	 * 
+	 * @see #addHandler(int, int, int, IExplicitDataReceiveListener)
+	 */
+	public void removeHandler(IExplicitDataReceiveListener handler) {
+		synchronized (lock) {
+			HashMap<Long, IExplicitDataReceiveListener> newRoutes = new HashMap<>(routes);
+			newRoutes.values().removeAll(Collections.singleton(handler));
+			updateRoutes(newRoutes);
+			if (defaultHandler == handler)
+				defaultHandler = null;
+			releaseExecutor(handler);
+		}
+	}
+	
+	/**
+	 * Sets the handler for the explicit data that does not match any route.
+	 * 
+	 * @param handler The default handler, {@code null} to discard the data 
+	 *                that does not match any route.
+	 * 
+	 * @see #getDefaultHandler()
+	 */
+	public void setDefaultHandler(IExplicitDataReceiveListener handler) {
+		synchronized (lock) {
+			IExplicitDataReceiveListener previous = defaultHandler;
+			defaultHandler = handler;
+			if (previous != null)
+				releaseExecutor(previous);
+		}
+	}
+	
+	/**
+	 * Returns the handler for the explicit data that does not match any 
+	 * route.
+	 * 
+	 * @return The default handler, {@code null} if there is none.
+	 * 
+	 * @see #setDefaultHandler(IExplicitDataReceiveListener)
+	 */
+	public IExplicitDataReceiveListener getDefaultHandler() {
+		return defaultHandler;
+	}
+	
+	/**
+	 * Returns the handler that would receive the explicit data for the given 
+	 * destination endpoint, cluster ID and profile ID.
+	 * 
+	 * @param destEndpoint Destination endpoint.
+	 * @param clusterID Cluster ID.
+	 * @param profileID Profile ID.
+	 * 
+	 * @return The matching handler, the default handler if there is no 
+	 *         route for the given values or {@code null} if there is no 
+	 *         default handler.
+	 */
+	public IExplicitDataReceiveListener getHandler(int destEndpoint, int clusterID, int profileID) {
+		Map<Long, IExplicitDataReceiveListener> current = routes;
+		int patterns = patternsInUse;
+		for (int pattern : LOOKUP_ORDER) {
+			if ((patterns & (1 << pattern)) == 0)
+				continue;
+			IExplicitDataReceiveListener handler = current.get(createKey(
+					(pattern & ANY_ENDPOINT) != 0 ? ANY : destEndpoint, 
+					(pattern & ANY_CLUSTER) != 0 ? ANY : clusterID, 
+					(pattern & ANY_PROFILE) != 0 ? ANY : profileID));
+			if (handler != null)
+				return handler;
+		}
+		return defaultHandler;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.listeners.IExplicitDataReceiveListener#explicitDataReceived(com.digi.xbee.api.models.ExplicitXBeeMessage)
+	 */
+	@Override
+	public void explicitDataReceived(final ExplicitXBeeMessage explicitXBeeMessage) {
+		final IExplicitDataReceiveListener handler = getHandler(explicitXBeeMessage.getDestinationEndpoint(), 
+				explicitXBeeMessage.getClusterID(), explicitXBeeMessage.getProfileID());
+		if (handler == null) {
+			logger.debug("No handler for explicit data (endpoint {}, cluster {}, profile {}).", 
+					explicitXBeeMessage.getDestinationEndpoint(), explicitXBeeMessage.getClusterID(), 
+					explicitXBeeMessage.getProfileID());
+			return;
+		}
+		
+		ExecutorService executor;
+		synchronized (lock) {
+			executor = executors.get(handler);
+			if (executor == null) {
+				// The handler may have been removed after the lookup, do not 
+				// start a thread that nobody would stop.
+				if (!isInUse(handler))
+					return;
+				executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+					/*
+					 * (non-Javadoc)
+					 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+					 */
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread thread = new Thread(r, name + "-" + handler.getClass().getSimpleName());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+				executors.put(handler, executor);
+			}
+			executor.execute(new Runnable() {
+				/*
+				 * (non-Javadoc)
+				 * @see java.lang.Runnable#run()
+				 */
+				@Override
+				public void run() {
+					try {
+						handler.explicitDataReceived(explicitXBeeMessage);
+					} catch (Exception e) {
+						logger.error(e.getMessage(), e);
+					}
+				}
+			});
+		}
+	}
+	
+	/**
+	 * Stops the threads of all the handlers. The messages already received 
+	 * are still delivered.
+	 * 
+	 * <p>The routes are kept, so the router can be used again after closing 
+	 * it: the threads start again with the next received messages. 
+	 * {@link ZigBeeDevice#close()} closes the router of the device.</p>
+	 */
+	public void close() {
+		synchronized (lock) {
+			for (ExecutorService executor : executors.values())
+				executor.shutdown();
+			executors.clear();
+		}
+	}
+	
+	/**
+	 * Replaces the routes table and updates the wildcard patterns in use.
+	 * 
+	 * @param newRoutes The new routes table.
+	 */
+	private void updateRoutes(Map<Long, IExplicitDataReceiveListener> newRoutes) {
+		int patterns = 0;
+		for (Long key : newRoutes.keySet())
+			patterns |= 1 << getPattern(key);
+		routes = newRoutes;
+		patternsInUse = patterns;
+	}
+	
+	/**
+	 * Stops the thread of the given handler if it is no longer used.
+	 * 
+	 * @param handler The handler.
+	 */
+	private void releaseExecutor(IExplicitDataReceiveListener handler) {
+		if (isInUse(handler))
+			return;
+		ExecutorService executor = executors.remove(handler);
+		if (executor != null)
+			executor.shutdown();
+	}
+	
+	/**
+	 * Returns whether the given handler has any route or is the default 
+	 * handler.
+	 * 
+	 * @param handler The handler.
+	 * 
+	 * @return {@code true} if the handler is in use, {@code false} otherwise.
+	 */
+	private boolean isInUse(IExplicitDataReceiveListener handler) {
+		return defaultHandler == handler || routes.containsValue(handler);
+	}
+	
+	/**
+	 * Packs the given values in a route key. Wildcards are stored as a value 
+	 * out of the valid range of each field.
+	 */
+	private static long createKey(int destEndpoint, int clusterID, int profileID) {
+		long endpoint = destEndpoint == ANY ? 0x100 : destEndpoint;
+		long cluster = clusterID == ANY ? 0x10000 : clusterID;
+		long profile = profileID == ANY ? 0x10000 : profileID;
+		return endpoint << 34 | cluster << 17 | profile;
+	}
+	
+	/**
+	 * Returns the wildcard pattern of the given route key.
+	 */
+	private static int getPattern(long key) {
+		int pattern = 0;
+		if ((key >>> 34) == 0x100)
+			pattern |= ANY_ENDPOINT;
+		if (((key >>> 17) & 0x1FFFF) == 0x10000)
+			pattern |= ANY_CLUSTER;
+		if ((key & 0x1FFFF) == 0x10000)
+			pattern |= ANY_PROFILE;
+		return pattern;
+	}
+}
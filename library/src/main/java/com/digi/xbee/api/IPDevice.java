@@ -159,11 +159,11 @@ public class IPDevice extends XBeeDevice {
 	
 	/*
 	 * (non-Javadoc)
-	 * @see com.digi.xbee.api.AbstractXBeeDevice#readDeviceInfo()
+	 * @see com.digi.xbee.api.AbstractXBeeDevice#readDeviceSpecificInfo()
 	 */
 	@Override
-	public void readDeviceInfo() throws TimeoutException, XBeeException {
-		super.readDeviceInfo();
+	protected void readDeviceSpecificInfo() throws TimeoutException, XBeeException {
+		super.readDeviceSpecificInfo();
 		
 		// Read the module's IP address.
 		byte[] response = getParameter("MY");
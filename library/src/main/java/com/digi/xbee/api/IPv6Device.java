@@ -153,11 +153,11 @@ public class IPv6Device extends XBeeDevice {
 	
 	/*
 	 * (non-Javadoc)
-	 * @see com.digi.xbee.api.AbstractXBeeDevice#readDeviceInfo()
+	 * @see com.digi.xbee.api.AbstractXBeeDevice#readDeviceSpecificInfo()
 	 */
 	@Override
-	public void readDeviceInfo() throws TimeoutException, XBeeException {
-		super.readDeviceInfo();
+	protected void readDeviceSpecificInfo() throws TimeoutException, XBeeException {
+		super.readDeviceSpecificInfo();
 		// Generate the Mesh-Local IPv6 address.
 		byte[] response = getParameter("MY");
 		try {
@@ -17,7 +17,13 @@ package com.digi.xbee.api;
 
 import java.io.ByteArrayInputStream;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +32,9 @@ import com.digi.xbee.api.exceptions.InterfaceNotOpenException;
 import com.digi.xbee.api.exceptions.XBeeException;
 import com.digi.xbee.api.listeners.IDiscoveryListener;
 import com.digi.xbee.api.listeners.IPacketReceiveListener;
+import com.digi.xbee.api.metrics.IMetricsRecorder;
+import com.digi.xbee.api.metrics.MetricsCounter;
+import com.digi.xbee.api.metrics.MetricsTimer;
 import com.digi.xbee.api.models.ATCommandStatus;
 import com.digi.xbee.api.models.XBee16BitAddress;
 import com.digi.xbee.api.models.XBee64BitAddress;
@@ -66,8 +75,18 @@ class NodeDiscovery {
 	private boolean discovering = false;
 	private boolean running = false;
 	
+	private final Object discoveringLock = new Object();
+	
 	private int frameID;
 	
+	// Identifiers of a targeted discovery, null when discovering all the nodes.
+	private Set<String> targetIds;
+	private Set<String> missingIds;
+	private boolean targetQueries = false;
+	
+	// Frame IDs of the directed queries of a targeted discovery still running.
+	private final Set<Integer> pendingQueries = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+	
 	protected Logger logger;
 	
 	/**
@@ -121,7 +140,7 @@ class NodeDiscovery {
 		logger.debug("{}ND for {} device.", xbeeDevice.toString(), id);
 		
 		running = true;
-		discovering = true;
+		setDiscovering(true);
 		
 		performNodeDiscovery(null, id);
 		
@@ -154,6 +173,7 @@ class NodeDiscovery {
 	 * @throws XBeeException if there is an error discovering the devices.
 	 * 
 	 * @see #discoverDevice(String)
+	 * @see #discoverDevices(List, boolean, IDiscoveryListener)
 	 */
 	public List<RemoteXBeeDevice> discoverDevices(List<String> ids) throws XBeeException {
 		// Check if the connection is open.
@@ -163,7 +183,7 @@ class NodeDiscovery {
 		logger.debug("{}ND for all {} devices.", xbeeDevice.toString(), ids.toString());
 		
 		running = true;
-		discovering = true;
+		setDiscovering(true);
 		
 		performNodeDiscovery(null, null);
 		
@@ -172,18 +192,106 @@ class NodeDiscovery {
 			return foundDevices;
 		
 		XBeeNetwork network = xbeeDevice.getNetwork();
+		Set<String> idSet = new HashSet<String>(ids);
 		
 		for (RemoteXBeeDevice d: deviceList) {
 			String nID = d.getNodeID();
-			if (nID == null)
+			if (nID == null || !idSet.contains(nID))
 				continue;
-			for (String id : ids) {
-				if (nID.equals(id)) {
-					RemoteXBeeDevice rDevice = network.addRemoteDevice(d);
-					if (rDevice != null && !foundDevices.contains(rDevice))
-						foundDevices.add(rDevice);
-				}
-			}
+			RemoteXBeeDevice rDevice = network.addRemoteDevice(d);
+			if (rDevice != null && !foundDevices.contains(rDevice))
+				foundDevices.add(rDevice);
+		}
+		
+		return foundDevices;
+	}
+	
+	/**
+	 * Discovers and reports all remote XBee devices that match the supplied 
+	 * identifiers.
+	 * 
+	 * <p>Unlike {@link #discoverDevices(List)}, this method does not wait 
+	 * for the whole discovery timeout: it blocks until a device has been 
+	 * found for every given identifier or the configured timeout in the 
+	 * device (NT) expires, so it only takes as long as the slowest requested 
+	 * node takes to answer. Only the first device that answers for each 
+	 * identifier is reported.</p>
+	 * 
+	 * <p>By default a single network discovery is performed and its answers 
+	 * are filtered by identifier. If {@code perIdQueries} is {@code true}, 
+	 * a directed {@code ND <id>} query is sent for every identifier instead, 
+	 * so only the requested nodes answer. This reduces the traffic when 
+	 * looking for a few nodes of a big network. A query answered with an 
+	 * error counts as finished.</p>
+	 * 
+	 * <p>If no identifier is given, this method returns an empty list 
+	 * without performing any discovery.</p>
+	 * 
+	 * @param ids List which contains the identifiers of the devices to be 
+	 *            discovered.
+	 * @param perIdQueries {@code true} to send a directed query for every 
+	 *                     identifier, {@code false} to perform a single 
+	 *                     network discovery.
+	 * @param listener Discovery listener notified as soon as every device 
+	 *                 is found and when the process finishes, {@code null} 
+	 *                 to only get the returned list.
+	 * 
+	 * @return A list of the discovered remote XBee devices with the given 
+	 *         identifiers.
+	 * 
+	 * @throws InterfaceNotOpenException if the device is not open.
+	 * @throws NullPointerException if {@code ids == null}.
+	 * @throws XBeeException if there is an error discovering the devices.
+	 * 
+	 * @see #discoverDevice(String)
+	 * @see #discoverDevices(List)
+	 * 
+	 * @since 1.4.0
+	 */
+	public List<RemoteXBeeDevice> discoverDevices(List<String> ids, boolean perIdQueries, 
+			IDiscoveryListener listener) throws XBeeException {
+		if (ids == null)
+			throw new NullPointerException("List of device identifiers cannot be null.");
+		// Check if the connection is open.
+		if (!xbeeDevice.isOpen())
+			throw new InterfaceNotOpenException();
+		
+		logger.debug("{}ND for all {} devices.", xbeeDevice.toString(), ids.toString());
+		
+		Set<String> idSet = new HashSet<String>(ids);
+		idSet.remove(null);
+		// Nothing to discover.
+		if (idSet.isEmpty()) {
+			if (listener != null)
+				listener.discoveryFinished(null);
+			return new ArrayList<RemoteXBeeDevice>(0);
+		}
+		
+		targetIds = idSet;
+		missingIds = new HashSet<String>(targetIds);
+		targetQueries = perIdQueries;
+		
+		List<IDiscoveryListener> listeners = null;
+		if (listener != null)
+			listeners = Collections.singletonList(listener);
+		
+		running = true;
+		setDiscovering(true);
+		
+		try {
+			performNodeDiscovery(listeners, null);
+		} finally {
+			targetIds = null;
+			missingIds = null;
+			targetQueries = false;
+		}
+		
+		List<RemoteXBeeDevice> foundDevices = new ArrayList<RemoteXBeeDevice>(0);
+		if (deviceList == null)
+			return foundDevices;
+		
+		synchronized (deviceList) {
+			foundDevices.addAll(deviceList);
 		}
 		
 		return foundDevices;
@@ -208,7 +316,7 @@ class NodeDiscovery {
 			throw new NullPointerException("Listeners list cannot be null.");
 		
 		running = true;
-		discovering = true;
+		setDiscovering(true);
 		
 		Thread discoveryThread = new Thread() {
 			@Override
@@ -231,7 +339,7 @@ class NodeDiscovery {
 	 * @see #startDiscoveryProcess(List)
 	 */
 	public void stopDiscoveryProcess() {
-		discovering = false;
+		setDiscovering(false);
 	}
 	
 	/**
@@ -266,7 +374,7 @@ class NodeDiscovery {
 			notifyDiscoveryFinished(listeners, null);
 		} finally {
 			running = false;
-			discovering = false;
+			setDiscovering(false);
 		}
 	}
 	
@@ -284,6 +392,16 @@ class NodeDiscovery {
 			deviceList = new ArrayList<RemoteXBeeDevice>();
 		deviceList.clear();
 		
+		final IMetricsRecorder metrics = xbeeDevice.getMetricsRecorder();
+		long start = 0;
+		if (metrics != null) {
+			metrics.increment(MetricsCounter.NODE_DISCOVERIES, 1);
+			start = System.nanoTime();
+		}
+		
+		final Set<String> targets = targetIds;
+		final Set<String> missing = missingIds;
+		
 		IPacketReceiveListener packetReceiveListener = new IPacketReceiveListener() {
 			/*
 			 * (non-Javadoc)
@@ -301,17 +419,23 @@ class NodeDiscovery {
 				
 				// If a device with a specific id is being search and it is 
 				// already found, return it.
-				if (id != null) {
+				if (targets != null) {
+					if (rdevice != null && targets.contains(rdevice.getNodeID()))
+						targetDeviceDiscovered(listeners, rdevice, missing);
+				} else if (id != null) {
 					if (rdevice != null && id.equals(rdevice.getNodeID())) {
 						synchronized (deviceList) {
 							deviceList.add(rdevice);
 						}
 						// If the local device is 802.15.4 wait until the 'end' command is received.
 						if (xbeeDevice.getXBeeProtocol() != XBeeProtocol.RAW_802_15_4)
-							discovering = false;
+							setDiscovering(false);
 					}
 				} else if (rdevice != null)
 					notifyDeviceDiscovered(listeners, rdevice);
+				
+				if (rdevice != null && metrics != null)
+					metrics.increment(MetricsCounter.DISCOVERED_DEVICES, 1);
 			}
 		};
 		
@@ -328,29 +452,44 @@ class NodeDiscovery {
 			if (!is802Compatible)
 				deadLine += calculateTimeout(listeners);
 			
-			sendNodeDiscoverCommand(id);
-			
-			if (!is802Compatible) {
-				// Wait for scan timeout.
-				while (discovering) {
-					if (System.currentTimeMillis() < deadLine)
-						try {
-							Thread.sleep(100);
-						} catch (InterruptedException e) { }
-					else
-						discovering = false;
+			if (targets != null && targetQueries) {
+				// Send a directed query for every identifier, each one with 
+				// its own frame ID so their end responses can be told apart. 
+				// All of them are registered before the first one is sent.
+				Map<String, Integer> queries = new LinkedHashMap<String, Integer>();
+				for (String targetId : targets) {
+					int queryID = nextQueryFrameID();
+					queries.put(targetId, queryID);
+					pendingQueries.add(queryID);
 				}
+				for (Map.Entry<String, Integer> query : queries.entrySet())
+					sendNodeDiscoverCommand(query.getValue(), query.getKey());
 			} else {
-				// Wait until the 'end' command is received.
+				sendNodeDiscoverCommand(id);
+			}
+			
+			// Wait for scan timeout or, in 802.15.4, until the 'end' command 
+			// is received. The wait finishes as soon as the discovery stops.
+			synchronized (discoveringLock) {
 				while (discovering) {
+					long remaining = deadLine - System.currentTimeMillis();
+					if (is802Compatible)
+						remaining = 0;
+					else if (remaining <= 0) {
+						discovering = false;
+						break;
+					}
 					try {
-						Thread.sleep(100);
+						discoveringLock.wait(remaining);
 					} catch (InterruptedException e) { }
 				}
 			}
 		} finally {
 			xbeeDevice.removePacketListener(packetReceiveListener);
+			pendingQueries.clear();
 			logger.debug("{}Stop listening.", xbeeDevice.toString());
+			if (metrics != null)
+				metrics.record(MetricsTimer.NODE_DISCOVERY, System.nanoTime() - start);
 		}
 	}
 	
@@ -408,6 +547,20 @@ class NodeDiscovery {
 		return timeout;
 	}
 	
+	/**
+	 * Sets whether the discovery is in progress and wakes up the thread 
+	 * waiting for it to finish.
+	 * 
+	 * @param discovering {@code true} if the discovery is in progress, 
+	 *                    {@code false} otherwise.
+	 */
+	private void setDiscovering(boolean discovering) {
+		synchronized (discoveringLock) {
+			this.discovering = discovering;
+			discoveringLock.notifyAll();
+		}
+	}
+	
 	/**
 	 * Returns a byte array with the remote device data to be parsed.
 	 * 
@@ -425,14 +578,22 @@ class NodeDiscovery {
 		case AT_COMMAND_RESPONSE:
 			ATCommandResponsePacket atResponse = (ATCommandResponsePacket)packet;
 			// Check the frame ID.
-			if (atResponse.getFrameID() != frameID)
+			boolean directedQuery = pendingQueries.contains(atResponse.getFrameID());
+			if (atResponse.getFrameID() != frameID && !directedQuery)
 				return null;
 			// Check the command.
 			if (!atResponse.getCommand().equals(ND_COMMAND))
 				return null;
 			// Check if the 'end' command is received (empty response with OK status).
 			if (atResponse.getCommandValue() == null || atResponse.getCommandValue().length == 0) {
-				discovering = atResponse.getStatus() != ATCommandStatus.OK;
+				if (directedQuery) {
+					// A directed query finishes with an empty response, 
+					// whatever its status. Wait for the end of all of them.
+					if (pendingQueries.remove(atResponse.getFrameID()) && pendingQueries.isEmpty())
+						setDiscovering(false);
+					return null;
+				}
+				setDiscovering(atResponse.getStatus() != ATCommandStatus.OK);
 				return null;
 			}
 			
@@ -557,12 +718,38 @@ class NodeDiscovery {
 	 * @throws XBeeException if there is an error writing in the communication interface.
 	 */
 	private void sendNodeDiscoverCommand(String id) throws XBeeException {
+		sendNodeDiscoverCommand(frameID, id);
+	}
+	
+	/**
+	 * Sends the node discover ({@code ND}) command with the given frame ID.
+	 * 
+	 * @param frameID The frame ID of the command.
+	 * @param id The identifier of the device to be discovered, or {@code null}
+	 *           to discover all devices in the network.
+	 * 
+	 * @throws XBeeException if there is an error writing in the communication interface.
+	 */
+	private void sendNodeDiscoverCommand(int frameID, String id) throws XBeeException {
 		if (id == null)
 			xbeeDevice.sendPacketAsync(new ATCommandPacket(frameID, ND_COMMAND, ""));
 		else
 			xbeeDevice.sendPacketAsync(new ATCommandPacket(frameID, ND_COMMAND, id));
 	}
 	
+	/**
+	 * Returns a frame ID for a directed query that is not used by this 
+	 * discovery or by its other queries.
+	 * 
+	 * @return The frame ID of the query.
+	 */
+	private int nextQueryFrameID() {
+		int queryID = xbeeDevice.getNextFrameID();
+		for (int i = 0; i < 0xFF && (queryID == frameID || pendingQueries.contains(queryID)); i++)
+			queryID = xbeeDevice.getNextFrameID();
+		return queryID;
+	}
+	
 	/**
 	 * Notifies the given discovery listeners that a device was discovered.
 	 * 
@@ -589,6 +776,44 @@ class NodeDiscovery {
 		}
 	}
 	
+	/**
+	 * Adds the given device of a targeted discovery to the network and the 
+	 * list of discovered devices if it is the first one found with its 
+	 * identifier, notifies the given discovery listeners and stops the 
+	 * discovery once all the requested identifiers are found.
+	 * 
+	 * @param listeners The discovery listeners to be notified.
+	 * @param device The remote device discovered.
+	 * @param missing The identifiers that have not been found yet.
+	 */
+	private void targetDeviceDiscovered(List<IDiscoveryListener> listeners, 
+			RemoteXBeeDevice device, Set<String> missing) {
+		boolean allFound;
+		synchronized (missing) {
+			// Only the first device answering for every identifier is reported.
+			if (!missing.remove(device.getNodeID()))
+				return;
+			allFound = missing.isEmpty();
+		}
+		
+		RemoteXBeeDevice addedDev = xbeeDevice.getNetwork().addRemoteDevice(device);
+		if (addedDev != null) {
+			synchronized (deviceList) {
+				deviceList.add(addedDev);
+			}
+			if (listeners != null) {
+				for (IDiscoveryListener listener : listeners)
+					listener.deviceDiscovered(addedDev);
+			}
+		} else {
+			notifyDiscoveryError(listeners, "Error adding device '" + device + "' to the network.");
+		}
+		
+		// If the local device is 802.15.4 wait until the 'end' command is received.
+		if (allFound && xbeeDevice.getXBeeProtocol() != XBeeProtocol.RAW_802_15_4)
+			setDiscovering(false);
+	}
+	
 	/**
 	 * Notifies the given discovery listeners about the provided error.
 	 * 
@@ -0,0 +1,382 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.digi.xbee.api.listeners.IPacketReceiveListener;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeePacketFilter;
+import com.digi.xbee.api.packet.APIFrameType;
+import com.digi.xbee.api.packet.XBeeAPIPacket;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.common.ExplicitRxIndicatorPacket;
+import com.digi.xbee.api.packet.common.IODataSampleRxIndicatorPacket;
+import com.digi.xbee.api.packet.common.ReceivePacket;
+import com.digi.xbee.api.packet.ip.RXIPv4Packet;
+import com.digi.xbee.api.packet.raw.RX64IOPacket;
+import com.digi.xbee.api.packet.raw.RX64Packet;
+import com.digi.xbee.api.packet.thread.CoAPRxResponsePacket;
+import com.digi.xbee.api.packet.thread.RXIPv6Packet;
+
+/**
+ * This class keeps the packet handlers subscribed with an 
+ * {@code XBeePacketFilter} and finds the ones matching a received packet.
+ * 
+ * <p>Subscriptions are grouped by the set of criteria their filters 
+ * configure. Every group is a hash table indexed by the values of those 
+ * criteria, so finding the handlers of a packet takes one lookup per group 
+ * instead of evaluating every filter.</p>
+ * 
+ * <p>The tables are rebuilt on every subscription change and replaced 
+ * atomically, so looking up handlers does not require any lock.</p>
+ * 
+ * @see com.digi.xbee.api.models.XBeePacketFilter
+ */
+class PacketSubscriptionTable {
+	
+	// Constants.
+	private static final int SOURCE_ADDRESS = 1;
+	private static final int FRAME_TYPE = 1 << 1;
+	private static final int SOURCE_ENDPOINT = 1 << 2;
+	private static final int DEST_ENDPOINT = 1 << 3;
+	private static final int CLUSTER_ID = 1 << 4;
+	private static final int PROFILE_ID = 1 << 5;
+	private static final int IP_PORT = 1 << 6;
+	
+	private static final int ANY = XBeePacketFilter.ANY;
+	
+	// Variables.
+	private final ArrayList<Subscription> subscriptions = new ArrayList<>();
+	
+	// Criteria mask -> (filter key -> handlers).
+	private volatile Map<Integer, Map<Key, List<IPacketReceiveListener>>> tables = 
+			Collections.emptyMap();
+	
+	/**
+	 * Subscribes the given handler to the packets matching the given filter.
+	 * 
+	 * @param filter The filter the packets must match.
+	 * @param handler The handler to notify.
+	 * 
+	 * @throws NullPointerException if {@code filter == null} or 
+	 *                              if {@code handler == null}.
+	 */
+	void subscribe(XBeePacketFilter filter, IPacketReceiveListener handler) {
+		if (filter == null)
+			throw new NullPointerException("Filter cannot be null.");
+		if (handler == null)
+			throw new NullPointerException("Handler cannot be null.");
+		
+		Key key = new Key(filter.get64BitSourceAddress(), filter.getFrameType(), 
+				filter.getSourceEndpoint(), filter.getDestinationEndpoint(), 
+				filter.getClusterID(), filter.getProfileID(), filter.getIPPort());
+		synchronized (subscriptions) {
+			Subscription subscription = new Subscription(key, handler);
+			if (subscriptions.contains(subscription))
+				return;
+			subscriptions.add(subscription);
+			rebuild();
+		}
+	}
+	
+	/**
+	 * Removes all the subscriptions of the given handler.
+	 * 
+	 * @param handler The handler to unsubscribe.
+	 */
+	void unsubscribe(IPacketReceiveListener handler) {
+		synchronized (subscriptions) {
+			boolean removed = false;
+			Iterator<Subscription> it = subscriptions.iterator();
+			while (it.hasNext()) {
+				if (it.next().handler.equals(handler)) {
+					it.remove();
+					removed = true;
+				}
+			}
+			if (removed)
+				rebuild();
+		}
+	}
+	
+	/**
+	 * Returns whether there are no subscriptions.
+	 * 
+	 * @return {@code true} if there are no subscriptions, {@code false} 
+	 *         otherwise.
+	 */
+	boolean isEmpty() {
+		return tables.isEmpty();
+	}
+	
+	/**
+	 * Returns the handlers subscribed to the given packet.
+	 * 
+	 * @param packet The received packet.
+	 * 
+	 * @return List with the matching handlers, empty if there are none.
+	 */
+	List<IPacketReceiveListener> getHandlers(XBeePacket packet) {
+		Map<Integer, Map<Key, List<IPacketReceiveListener>>> current = tables;
+		if (current.isEmpty())
+			return Collections.emptyList();
+		
+		Key packetKey = createPacketKey(packet);
+		List<IPacketReceiveListener> handlers = null;
+		for (Entry<Integer, Map<Key, List<IPacketReceiveListener>>> table : current.entrySet()) {
+			List<IPacketReceiveListener> matching = table.getValue().get(packetKey.mask(table.getKey()));
+			if (matching == null)
+				continue;
+			if (handlers == null)
+				handlers = new ArrayList<>(matching);
+			else {
+				for (IPacketReceiveListener handler : matching) {
+					if (!handlers.contains(handler))
+						handlers.add(handler);
+				}
+			}
+		}
+		if (handlers == null)
+			return Collections.emptyList();
+		return handlers;
+	}
+	
+	/**
+	 * Rebuilds the lookup tables from the list of subscriptions.
+	 */
+	private void rebuild() {
+		Map<Integer, Map<Key, List<IPacketReceiveListener>>> newTables = new HashMap<>();
+		for (Subscription subscription : subscriptions) {
+			int mask = subscription.key.getMask();
+			Map<Key, List<IPacketReceiveListener>> table = newTables.get(mask);
+			if (table == null) {
+				table = new HashMap<>();
+				newTables.put(mask, table);
+			}
+			List<IPacketReceiveListener> handlers = table.get(subscription.key);
+			if (handlers == null) {
+				handlers = new ArrayList<>();
+				table.put(subscription.key, handlers);
+			}
+			handlers.add(subscription.handler);
+		}
+		tables = newTables;
+	}
+	
+	/**
+	 * Creates the key with the values of the given packet for all the 
+	 * criteria. Criteria not present in the packet are left as 'any'.
+	 * 
+	 * @param packet The received packet.
+	 * 
+	 * @return The key of the packet.
+	 */
+	private static Key createPacketKey(XBeePacket packet) {
+		if (!(packet instanceof XBeeAPIPacket))
+			return new Key(null, null, ANY, ANY, ANY, ANY, ANY);
+		
+		XBeeAPIPacket apiPacket = (XBeeAPIPacket)packet;
+		APIFrameType frameType = apiPacket.getFrameType();
+		XBee64BitAddress sourceAddress = null;
+		int sourceEndpoint = ANY;
+		int destEndpoint = ANY;
+		int clusterID = ANY;
+		int profileID = ANY;
+		int ipPort = ANY;
+		
+		if (frameType != null) {
+			switch (frameType) {
+			case RECEIVE_PACKET:
+				sourceAddress = ((ReceivePacket)apiPacket).get64bitSourceAddress();
+				break;
+			case RX_64:
+				sourceAddress = ((RX64Packet)apiPacket).get64bitSourceAddress();
+				break;
+			case RX_IO_64:
+				sourceAddress = ((RX64IOPacket)apiPacket).get64bitSourceAddress();
+				break;
+			case IO_DATA_SAMPLE_RX_INDICATOR:
+				sourceAddress = ((IODataSampleRxIndicatorPacket)apiPacket).get64bitSourceAddress();
+				break;
+			case EXPLICIT_RX_INDICATOR:
+				ExplicitRxIndicatorPacket explicitPacket = (ExplicitRxIndicatorPacket)apiPacket;
+				sourceAddress = explicitPacket.get64BitSourceAddress();
+				sourceEndpoint = explicitPacket.getSourceEndpoint();
+				destEndpoint = explicitPacket.getDestinationEndpoint();
+				clusterID = explicitPacket.getClusterID();
+				profileID = explicitPacket.getProfileID();
+				break;
+			case RX_IPV4:
+				ipPort = ((RXIPv4Packet)apiPacket).getDestPort();
+				break;
+			case RX_IPV6:
+				ipPort = ((RXIPv6Packet)apiPacket).getDestPort();
+				break;
+			case COAP_RX_RESPONSE:
+				ipPort = ((CoAPRxResponsePacket)apiPacket).getDestPort();
+				break;
+			default:
+				break;
+			}
+		}
+		return new Key(sourceAddress, frameType, sourceEndpoint, destEndpoint, clusterID, profileID, ipPort);
+	}
+	
+	/**
+	 * Values of the filter criteria, used both for the filters and for the 
+	 * received packets.
+	 */
+	private static final class Key {
+		
+		// Variables.
+		private final XBee64BitAddress sourceAddress;
+		private final APIFrameType frameType;
+		private final int sourceEndpoint;
+		private final int destEndpoint;
+		private final int clusterID;
+		private final int profileID;
+		private final int ipPort;
+		private final int hash;
+		
+		Key(XBee64BitAddress sourceAddress, APIFrameType frameType, int sourceEndpoint, 
+				int destEndpoint, int clusterID, int profileID, int ipPort) {
+			this.sourceAddress = sourceAddress;
+			this.frameType = frameType;
+			this.sourceEndpoint = sourceEndpoint;
+			this.destEndpoint = destEndpoint;
+			this.clusterID = clusterID;
+			this.profileID = profileID;
+			this.ipPort = ipPort;
+			
+			int h = sourceAddress == null ? 0 : sourceAddress.hashCode();
+			h = 31 * h + (frameType == null ? 0 : frameType.hashCode());
+			h = 31 * h + sourceEndpoint;
+			h = 31 * h + destEndpoint;
+			h = 31 * h + clusterID;
+			h = 31 * h + profileID;
+			h = 31 * h + ipPort;
+			this.hash = h;
+		}
+		
+		/**
+		 * Returns the mask of the criteria with a value in this key.
+		 */
+		int getMask() {
+			int mask = 0;
+			if (sourceAddress != null)
+				mask |= SOURCE_ADDRESS;
+			if (frameType != null)
+				mask |= FRAME_TYPE;
+			if (sourceEndpoint != ANY)
+				mask |= SOURCE_ENDPOINT;
+			if (destEndpoint != ANY)
+				mask |= DEST_ENDPOINT;
+			if (clusterID != ANY)
+				mask |= CLUSTER_ID;
+			if (profileID != ANY)
+				mask |= PROFILE_ID;
+			if (ipPort != ANY)
+				mask |= IP_PORT;
+			return mask;
+		}
+		
+		/**
+		 * Returns a copy of this key keeping only the criteria of the given 
+		 * mask.
+		 */
+		Key mask(int mask) {
+			return new Key(
+					(mask & SOURCE_ADDRESS) != 0 ? sourceAddress : null,
+					(mask & FRAME_TYPE) != 0 ? frameType : null,
+					(mask & SOURCE_ENDPOINT) != 0 ? sourceEndpoint : ANY,
+					(mask & DEST_ENDPOINT) != 0 ? destEndpoint : ANY,
+					(mask & CLUSTER_ID) != 0 ? clusterID : ANY,
+					(mask & PROFILE_ID) != 0 ? profileID : ANY,
+					(mask & IP_PORT) != 0 ? ipPort : ANY);
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key key = (Key)obj;
+			return hash == key.hash
+					&& (sourceAddress == null ? key.sourceAddress == null : sourceAddress.equals(key.sourceAddress))
+					&& frameType == key.frameType
+					&& sourceEndpoint == key.sourceEndpoint
+					&& destEndpoint == key.destEndpoint
+					&& clusterID == key.clusterID
+					&& profileID == key.profileID
+					&& ipPort == key.ipPort;
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+	
+	/**
+	 * Handler subscribed with a filter.
+	 */
+	private static final class Subscription {
+		
+		// Variables.
+		private final Key key;
+		private final IPacketReceiveListener handler;
+		
+		Subscription(Key key, IPacketReceiveListener handler) {
+			this.key = key;
+			this.handler = handler;
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Subscription))
+				return false;
+			Subscription subscription = (Subscription)obj;
+			return key.equals(subscription.key) && handler.equals(subscription.handler);
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode() {
+			return 31 * key.hashCode() + handler.hashCode();
+		}
+	}
+}
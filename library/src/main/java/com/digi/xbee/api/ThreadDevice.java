@@ -34,6 +34,7 @@ import com.digi.xbee.api.models.XBeeProtocol;
 import com.digi.xbee.api.packet.thread.CoAPTxRequestPacket;
 import com.digi.xbee.api.utils.ByteUtils;
 import com.digi.xbee.api.utils.HexUtils;
+import com.digi.xbee.api.utils.XBeeFuture;
 
 /**
  * This class represents a local Thread device.
@@ -260,7 +261,7 @@ public class ThreadDevice extends IPv6Device {
 	public byte[] sendCoAPData(Inet6Address ipv6Address, String uri,
 			HTTPMethodEnum method, byte[] data) throws TimeoutException, IllegalArgumentException, XBeeException {
 		boolean applyChanges = uri.startsWith(CoAPURI.URI_AT_COMMAND);
-		return sendCoAPData(ipv6Address, uri, method, applyChanges, data, false);
+		return sendAndCheckCoAPPacket(createCoAPPacket(ipv6Address, uri, method, applyChanges, data, false), false);
 	}
 	
 	/**
@@ -317,7 +318,7 @@ public class ThreadDevice extends IPv6Device {
 	 */
 	public byte[] sendCoAPData(Inet6Address ipv6Address, String uri, HTTPMethodEnum method,
 			boolean applyChanges, byte[] data) throws TimeoutException, IllegalArgumentException, XBeeException {
-		return sendCoAPData(ipv6Address, uri, method, applyChanges, data, false);
+		return sendAndCheckCoAPPacket(createCoAPPacket(ipv6Address, uri, method, applyChanges, data, false), false);
 	}
 	
 	/**
@@ -325,7 +326,8 @@ public class ThreadDevice extends IPv6Device {
 	 * asynchronously using the specified IPv6 protocol.
 	 * 
 	 * <p>Asynchronous transmissions do not wait for answer from the remote 
-	 * device or for transmit status packet.</p>
+	 * device or for transmit status packet. To get the answer, use 
+	 * {@link #sendCoAPRequestAsync(Inet6Address, String, HTTPMethodEnum, byte[])}.</p>
 	 * 
 	 * <p>For blocking operations use the method 
 	 * {@link #sendCoAPData(Inet6Address, String, HTTPMethodEnum, byte[])}.</p>
@@ -360,14 +362,14 @@ public class ThreadDevice extends IPv6Device {
 	 * @see #sendCoAPData(Inet6Address, String, HTTPMethodEnum, byte[])
 	 * @see #sendCoAPData(Inet6Address, String, HTTPMethodEnum, boolean, byte[])
 	 * @see #sendCoAPDataAsync(Inet6Address, String, HTTPMethodEnum, boolean, byte[])
+	 * @see #sendCoAPRequestAsync(Inet6Address, String, HTTPMethodEnum, byte[])
 	 * @see #setReceiveTimeout(int)
 	 * @see com.digi.xbee.api.models.HTTPMethodEnum
 	 * @see java.net.Inet6Address
 	 */
 	public void sendCoAPDataAsync(Inet6Address ipv6Address, String uri,
 			HTTPMethodEnum method, byte[] data) throws TimeoutException, IllegalArgumentException, XBeeException {
-		boolean applyChanges = uri.startsWith(CoAPURI.URI_AT_COMMAND);
-		sendCoAPData(ipv6Address, uri, method, applyChanges, data, true);
+		sendCoAPRequestAsync(ipv6Address, uri, method, data);
 	}
 	
 	/**
@@ -375,7 +377,8 @@ public class ThreadDevice extends IPv6Device {
 	 * asynchronously using the specified IPv6 protocol.
 	 * 
 	 * <p>Asynchronous transmissions do not wait for answer from the remote 
-	 * device or for transmit status packet.</p>
+	 * device or for transmit status packet. To get the answer, use 
+	 * {@link #sendCoAPRequestAsync(Inet6Address, String, HTTPMethodEnum, boolean, byte[])}.</p>
 	 * 
 	 * <p>For blocking operations use the method 
 	 * {@link #sendCoAPData(Inet6Address, String, HTTPMethodEnum, boolean, byte[])}.</p>
@@ -412,38 +415,93 @@ public class ThreadDevice extends IPv6Device {
 	 * @see #sendCoAPData(Inet6Address, String, HTTPMethodEnum, byte[])
 	 * @see #sendCoAPData(Inet6Address, String, HTTPMethodEnum, boolean, byte[])
 	 * @see #sendCoAPDataAsync(Inet6Address, String, HTTPMethodEnum, byte[])
+	 * @see #sendCoAPRequestAsync(Inet6Address, String, HTTPMethodEnum, boolean, byte[])
 	 * @see #setReceiveTimeout(int)
 	 * @see com.digi.xbee.api.models.HTTPMethodEnum
 	 * @see java.net.Inet6Address
 	 */
 	public void sendCoAPDataAsync(Inet6Address ipv6Address, String uri, HTTPMethodEnum method,
 			boolean applyChanges, byte[] data) throws TimeoutException, IllegalArgumentException, XBeeException {
-		sendCoAPData(ipv6Address, uri, method, applyChanges, data, true);
+		sendCoAPRequestAsync(ipv6Address, uri, method, applyChanges, data);
 	}
 	
 	/**
 	 * Sends the provided CoAP IPv6 data to the given IPv6 address and port 
-	 * using the specified IPv6 protocol.
+	 * asynchronously using the specified IPv6 protocol.
 	 * 
-	 * <p>CoAP transmissions can be performed synchronously or asynchronously. 
-	 * Synchronous operations block till a success or error response arrives 
-	 * or the configured receive timeout expires. Asynchronous transmissions
-	 * do not wait for answer from the remote device or for transmit status 
-	 * packet.</p>
+	 * <p>This method does not wait for the transmit status or the answer of 
+	 * the remote device. The returned future completes with the response, 
+	 * with a {@code TimeoutException} if the transmit status is not received 
+	 * within the configured receive timeout, with a {@code TransmitException} 
+	 * if the transmission fails, or with an {@code XBeeException} if the 
+	 * response is not received within the receive timeout or is not 
+	 * successful. Requests are correlated with their responses, so many 
+	 * requests to the same or to different nodes can be outstanding at the 
+	 * same time.</p>
 	 * 
-	 * <p>The receive timeout is configured using the {@code setReceiveTimeout}
-	 * method and can be consulted with {@code getReceiveTimeout} method.</p>
+	 * <p>For blocking operations use the method 
+	 * {@link #sendCoAPData(Inet6Address, String, HTTPMethodEnum, byte[])}.</p>
+	 * 
+	 * @param ipv6Address The IPv6 address to send CoAP IPv6 data to.
+	 * @param uri Uniform Resource Identifier. Every CoAP message must have a 
+	 *            valid URI string and must meet the following criteria. There 
+	 *            are built-in CoAP URIs:
+	 *            <ul>
+	 *              <li><b>CoAPURI.URI_DATA_TRANSMISSION:</b> "XB/TX" 
+	 *              for data transmissions (PUT)</li>
+	 *              <li><b>CoAPURI.URI_AT_COMMAND:</b> "XB/AT" for 
+	 *              AT Command operation (PUT or GET). After the URI, an AT command 
+	 *              needs to be specified, for example: 
+	 *              CoAPURI.URI_AT_COMMAND + "/NI"</li>
+	 *              <li><b>CoAPURI.URI_IO_SAMPLING:</b> "XB/IO" for 
+	 *              IO operation (POST)</li>
+	 *            </ul>
+	 * @param method HTTP method used for the transmission.
+	 * @param data Byte array containing the CoAP IPv6 data to be sent.
 	 * 
-	 * <p>For synchronous operations use these methods:</p>
-	 * <ul>
-	 *   <li>{@link #sendCoAPData(Inet6Address, String, HTTPMethodEnum, byte[])}.</li>
-	 *   <li>{@link #sendCoAPData(Inet6Address, String, HTTPMethodEnum, boolean, byte[])}.</li>
-	 * </ul>
-	 * <p>For asynchronous operations use these ones:</p>
-	 * <ul>
-	 *   <li>{@link #sendCoAPDataAsync(Inet6Address, String, HTTPMethodEnum, byte[])}.</li>
-	 *   <li>{@link #sendCoAPDataAsync(Inet6Address, String, HTTPMethodEnum, boolean, byte[])}.</li>
-	 * </ul>
+	 * @return The future of the response data, which may be {@code null}.
+	 * 
+	 * @throws IllegalArgumentException if {@code uri} starts with "XB/AT" and 
+	 *                                  its length is lesser than 8 (XB/AT/XX).
+	 * @throws InterfaceNotOpenException if this device connection is not open.
+	 * @throws NullPointerException if {@code ipv6Address == null} or 
+	 *                              if {@code uri == null} or 
+	 *                              if {@code method == null}.
+	 * @throws TimeoutException if there is a timeout sending the data.
+	 * @throws XBeeException if there is any other XBee related exception.
+	 * 
+	 * @see #getReceiveTimeout()
+	 * @see #sendCoAPData(Inet6Address, String, HTTPMethodEnum, byte[])
+	 * @see #sendCoAPData(Inet6Address, String, HTTPMethodEnum, boolean, byte[])
+	 * @see #sendCoAPRequestAsync(Inet6Address, String, HTTPMethodEnum, boolean, byte[])
+	 * @see #setReceiveTimeout(int)
+	 * @see com.digi.xbee.api.models.HTTPMethodEnum
+	 * @see java.net.Inet6Address
+	 * 
+	 * @since 1.4.0
+	 */
+	public XBeeFuture<byte[]> sendCoAPRequestAsync(Inet6Address ipv6Address, String uri,
+			HTTPMethodEnum method, byte[] data) throws TimeoutException, IllegalArgumentException, XBeeException {
+		boolean applyChanges = uri.startsWith(CoAPURI.URI_AT_COMMAND);
+		return sendCoAPPacketAsync(createCoAPPacket(ipv6Address, uri, method, applyChanges, data, true));
+	}
+	
+	/**
+	 * Sends the provided CoAP IPv6 data to the given IPv6 address and port 
+	 * asynchronously using the specified IPv6 protocol.
+	 * 
+	 * <p>This method does not wait for the transmit status or the answer of 
+	 * the remote device. The returned future completes with the response, 
+	 * with a {@code TimeoutException} if the transmit status is not received 
+	 * within the configured receive timeout, with a {@code TransmitException} 
+	 * if the transmission fails, or with an {@code XBeeException} if the 
+	 * response is not received within the receive timeout or is not 
+	 * successful. Requests are correlated with their responses, so many 
+	 * requests to the same or to different nodes can be outstanding at the 
+	 * same time.</p>
+	 * 
+	 * <p>For blocking operations use the method 
+	 * {@link #sendCoAPData(Inet6Address, String, HTTPMethodEnum, boolean, byte[])}.</p>
 	 * 
 	 * @param ipv6Address The IPv6 address to send CoAP IPv6 data to.
 	 * @param uri Uniform Resource Identifier. Every CoAP message must have a 
@@ -463,11 +521,8 @@ public class ThreadDevice extends IPv6Device {
 	 * @param applyChanges {@code true} to apply the changes after sending the 
 	 *                     packet, {@code false} otherwise.
 	 * @param data Byte array containing the CoAP IPv6 data to be sent.
-	 * @param async {@code true} to make an asynchronous transmission, {@code false} 
-	 *              to block till a success or error response arrives or the 
-	 *              configured receive timeout expires .
 	 * 
-	 * @return A byte array containing the response, if any. Otherwise, {@code null}.
+	 * @return The future of the response data, which may be {@code null}.
 	 * 
 	 * @throws IllegalArgumentException if {@code uri} starts with "XB/AT" and 
 	 *                                  its length is lesser than 8 (XB/AT/XX).
@@ -481,14 +536,58 @@ public class ThreadDevice extends IPv6Device {
 	 * @see #getReceiveTimeout()
 	 * @see #sendCoAPData(Inet6Address, String, HTTPMethodEnum, byte[])
 	 * @see #sendCoAPData(Inet6Address, String, HTTPMethodEnum, boolean, byte[])
-	 * @see #sendCoAPDataAsync(Inet6Address, String, HTTPMethodEnum, byte[])
-	 * @see #sendCoAPDataAsync(Inet6Address, String, HTTPMethodEnum, boolean, byte[])
+	 * @see #sendCoAPRequestAsync(Inet6Address, String, HTTPMethodEnum, byte[])
 	 * @see #setReceiveTimeout(int)
 	 * @see com.digi.xbee.api.models.HTTPMethodEnum
 	 * @see java.net.Inet6Address
+	 * 
+	 * @since 1.4.0
 	 */
-	private byte[] sendCoAPData(Inet6Address ipv6Address, String uri, HTTPMethodEnum method,
-			boolean applyChanges, byte[] data, boolean async) throws TimeoutException, IllegalArgumentException, XBeeException {
+	public XBeeFuture<byte[]> sendCoAPRequestAsync(Inet6Address ipv6Address, String uri, HTTPMethodEnum method,
+			boolean applyChanges, byte[] data) throws TimeoutException, IllegalArgumentException, XBeeException {
+		return sendCoAPPacketAsync(createCoAPPacket(ipv6Address, uri, method, applyChanges, data, true));
+	}
+	
+	/**
+	 * Creates the CoAP Tx Request packet to send the provided CoAP IPv6 data 
+	 * to the given IPv6 address.
+	 * 
+	 * @param ipv6Address The IPv6 address to send CoAP IPv6 data to.
+	 * @param uri Uniform Resource Identifier. Every CoAP message must have a 
+	 *            valid URI string and must meet the following criteria. There 
+	 *            are built-in CoAP URIs:
+	 *            <ul>
+	 *              <li><b>CoAPURI.URI_DATA_TRANSMISSION:</b> "XB/TX" 
+	 *              for data transmissions (PUT)</li>
+	 *              <li><b>CoAPURI.URI_AT_COMMAND:</b> "XB/AT" for 
+	 *              AT Command operation (PUT or GET). After the URI, an AT command 
+	 *              needs to be specified, for example: 
+	 *              CoAPURI.URI_AT_COMMAND + "/NI"</li>
+	 *              <li><b>CoAPURI.URI_IO_SAMPLING:</b> "XB/IO" for 
+	 *              IO operation (POST)</li>
+	 *            </ul>
+	 * @param method HTTP method used for the transmission.
+	 * @param applyChanges {@code true} to apply the changes after sending the 
+	 *                     packet, {@code false} otherwise.
+	 * @param data Byte array containing the CoAP IPv6 data to be sent.
+	 * @param async {@code true} if the packet is sent asynchronously, 
+	 *              {@code false} otherwise.
+	 * 
+	 * @return The CoAP Tx Request packet to send.
+	 * 
+	 * @throws IllegalArgumentException if {@code uri} starts with "XB/AT" and 
+	 *                                  its length is lesser than 8 (XB/AT/XX).
+	 * @throws NullPointerException if {@code ipv6Address == null} or 
+	 *                              if {@code uri == null} or 
+	 *                              if {@code method == null}.
+	 * @throws OperationNotSupportedException if this device is remote.
+	 * 
+	 * @see com.digi.xbee.api.models.HTTPMethodEnum
+	 * @see com.digi.xbee.api.packet.thread.CoAPTxRequestPacket
+	 * @see java.net.Inet6Address
+	 */
+	private CoAPTxRequestPacket createCoAPPacket(Inet6Address ipv6Address, String uri, HTTPMethodEnum method,
+			boolean applyChanges, byte[] data, boolean async) throws IllegalArgumentException, OperationNotSupportedException {
 		if (ipv6Address == null)
 			throw new NullPointerException("IPv6 address cannot be null");
 		if (uri == null)
@@ -512,12 +611,9 @@ public class ThreadDevice extends IPv6Device {
 			logger.debug(toString() + "Sending CoAP IPv6 data to {} >> {}.", ipv6Address,
 					HexUtils.prettyHexString(data));
 		
-		CoAPTxRequestPacket coAPPacket = new CoAPTxRequestPacket(getNextFrameID(),
+		return new CoAPTxRequestPacket(getNextFrameID(),
 				applyChanges ? RemoteATCommandOptions.OPTION_APPLY_CHANGES: RemoteATCommandOptions.OPTION_NONE,
 				method, ipv6Address, uri, data);
-		
-		// Check for a transmit status and CoAP RX Response.
-		return sendAndCheckCoAPPacket(coAPPacket, async);
 	}
 	
 	/*
@@ -20,6 +20,7 @@ import java.net.Inet4Address;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 import com.digi.xbee.api.connection.IConnectionInterface;
 import com.digi.xbee.api.connection.serial.SerialPortParameters;
@@ -28,10 +29,13 @@ import com.digi.xbee.api.exceptions.InvalidOperatingModeException;
 import com.digi.xbee.api.exceptions.TimeoutException;
 import com.digi.xbee.api.exceptions.XBeeDeviceException;
 import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.listeners.IFutureListener;
+import com.digi.xbee.api.listeners.IModemStatusReceiveListener;
 import com.digi.xbee.api.listeners.IPacketReceiveListener;
 import com.digi.xbee.api.models.ATCommandStatus;
 import com.digi.xbee.api.models.AccessPoint;
 import com.digi.xbee.api.models.IPAddressingMode;
+import com.digi.xbee.api.models.ModemStatusEvent;
 import com.digi.xbee.api.models.WiFiAssociationIndicationStatus;
 import com.digi.xbee.api.models.WiFiEncryptionType;
 import com.digi.xbee.api.models.XBeeProtocol;
@@ -41,6 +45,8 @@ import com.digi.xbee.api.packet.XBeePacket;
 import com.digi.xbee.api.packet.common.ATCommandPacket;
 import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
 import com.digi.xbee.api.utils.ByteUtils;
+import com.digi.xbee.api.utils.HashedWheelTimer;
+import com.digi.xbee.api.utils.XBeeFuture;
 
 /**
  * This class represents a local Wi-Fi device.
@@ -65,10 +71,16 @@ public class WiFiDevice extends IPDevice {
 	
 	private static final int DISCOVER_TIMEOUT = 30000;
 	
+	private static final int AI_SUCCESSFULLY_JOINED = 0x00;
+	private static final int AI_SSID_NOT_CONFIGURED = 0x23;
+	
 	// Variables.
+	// State of the access point scan, accessed holding the event lock.
 	private boolean scanningAccessPoints = false;
 	private boolean scanningAccessPointsError = false;
 	
+	private final Object eventLock = new Object();
+	
 	protected int accessPointTimeout = DEFAULT_ACCESS_POINT_TIMETOUT;
 	
 	/**
@@ -277,9 +289,6 @@ public class WiFiDevice extends IPDevice {
 				 */
 				@Override
 				public void packetReceived(XBeePacket receivedPacket) {
-					if (!scanningAccessPoints)
-						return;
-					
 					try {
 						if (((XBeeAPIPacket)receivedPacket).getFrameType() != APIFrameType.AT_COMMAND_RESPONSE)
 							return;
@@ -287,18 +296,25 @@ public class WiFiDevice extends IPDevice {
 						if (!response.getCommand().equals(AS_COMMAND))
 							return;
 						
-						// Check for error.
-						if (response.getStatus() == ATCommandStatus.ERROR) {
-							scanningAccessPointsError = true;
-							scanningAccessPoints = false;
-						// Check for end of discovery.
-						} else if (response.getCommandValue() == null 
-								|| response.getCommandValue().length == 0)
-							scanningAccessPoints = false;
-						else {
-							AccessPoint accessPoint = parseDiscoveredAccessPoint(response.getCommandValue());
-							if (accessPoint != null)
-								accessPointsList.add(accessPoint);
+						// The list and the scan state are shared with the 
+						// thread waiting for the scan.
+						synchronized (eventLock) {
+							if (!scanningAccessPoints)
+								return;
+							
+							// Check for error.
+							if (response.getStatus() == ATCommandStatus.ERROR) {
+								scanningAccessPointsError = true;
+								stopScanning();
+							// Check for end of discovery.
+							} else if (response.getCommandValue() == null 
+									|| response.getCommandValue().length == 0)
+								stopScanning();
+							else {
+								AccessPoint accessPoint = parseDiscoveredAccessPoint(response.getCommandValue());
+								if (accessPoint != null)
+									accessPointsList.add(accessPoint);
+							}
 						}
 					} catch (ClassCastException e) {
 						// Do nothing here.
@@ -310,30 +326,43 @@ public class WiFiDevice extends IPDevice {
 			addPacketListener(packetReceiveListener);
 			
 			try {
-				scanningAccessPoints = true;
+				synchronized (eventLock) {
+					scanningAccessPoints = true;
+				}
 				// Send the active scan command.
 				sendPacketAsync(new ATCommandPacket(getNextFrameID(), AS_COMMAND, ""));
 				
-				// Wait until the discovery process finishes or timeouts.
-				long deadLine = System.currentTimeMillis() + DISCOVER_TIMEOUT;
-				while (scanningAccessPoints && System.currentTimeMillis() < deadLine)
-					sleep(100);
-				
-				// Check if we exited because of a timeout.
-				if (scanningAccessPoints)
-					throw new TimeoutException();
-				// Check if there was an error in the active scan command (device is already connected).
-				if (scanningAccessPointsError)
-					throw new XBeeException(ERROR_ALREADY_CONNECTED);
+				// Wait until the discovery process finishes or timeouts. The 
+				// state is checked while holding the lock, so the end of the 
+				// scan cannot be notified between the check and the wait.
+				synchronized (eventLock) {
+					long deadLine = System.currentTimeMillis() + DISCOVER_TIMEOUT;
+					long remaining;
+					while (scanningAccessPoints 
+							&& (remaining = deadLine - System.currentTimeMillis()) > 0) {
+						try {
+							eventLock.wait(remaining);
+						} catch (InterruptedException e) { }
+					}
+					
+					// Check if we exited because of a timeout.
+					if (scanningAccessPoints)
+						throw new TimeoutException();
+					// Check if there was an error in the active scan command (device is already connected).
+					if (scanningAccessPointsError)
+						throw new XBeeException(ERROR_ALREADY_CONNECTED);
+					
+					return new ArrayList<AccessPoint>(accessPointsList);
+				}
 			} finally {
-				scanningAccessPoints = false;
-				scanningAccessPointsError = false;
+				synchronized (eventLock) {
+					scanningAccessPoints = false;
+					scanningAccessPointsError = false;
+				}
 				removePacketListener(packetReceiveListener);
 				logger.debug("{}Stop scanning access points.", toString());
 			}
 		}
-		
-		return accessPointsList;
 	}
 	
 	/**
@@ -422,28 +451,61 @@ public class WiFiDevice extends IPDevice {
 	 */
 	public boolean connect(AccessPoint accessPoint, String password) 
 			throws TimeoutException, XBeeException {
+		return waitForAssociation(connectAsync(accessPoint, password), AI_SUCCESSFULLY_JOINED);
+	}
+	
+	/**
+	 * Connects to the provided access point without waiting for the 
+	 * connection to be established.
+	 * 
+	 * <p>This method configures the connection parameters and returns a 
+	 * future that completes with {@code true} as soon as the module reports 
+	 * that it joined the access point (modem status 
+	 * {@link ModemStatusEvent#STATUS_JOINED_NETWORK}), or with 
+	 * {@code false} if it does not within the configured access point 
+	 * timeout. This way many devices can be connected at the same time.</p>
+	 * 
+	 * @param accessPoint The access point to connect to.
+	 * @param password The password for the access point, {@code null} if it 
+	 *                 does not have any encryption enabled.
+	 * 
+	 * @return The future of the connection.
+	 * 
+	 * @throws InterfaceNotOpenException if this device connection is not open.
+	 * @throws NullPointerException if {@code accessPoint == null}.
+	 * @throws TimeoutException if there is a timeout sending the connect 
+	 *                          commands.
+	 * @throws XBeeException if there is any other XBee related exception.
+	 * 
+	 * @see #connect(AccessPoint, String)
+	 * @see #disconnectAsync()
+	 * @see #getAccessPointTimeout()
+	 * @see com.digi.xbee.api.models.AccessPoint
+	 * 
+	 * @since 1.4.0
+	 */
+	public XBeeFuture<Boolean> connectAsync(AccessPoint accessPoint, String password) 
+			throws TimeoutException, XBeeException {
 		if (accessPoint == null)
 			throw new NullPointerException("Access point cannot be null.");
 		
-		// Set connection parameters.
-		setParameter("ID", accessPoint.getSSID().getBytes());
-		setParameter("EE", new byte[]{(byte)accessPoint.getEncryptionType().getID()});
-		if (password != null && accessPoint.getEncryptionType() != WiFiEncryptionType.NONE)
-			setParameter("PK", password.getBytes());
-		
-		// Wait for the module to connect to the access point.
-		long deadLine = System.currentTimeMillis() + accessPointTimeout;
-		while (System.currentTimeMillis() < deadLine) {
-			sleep(100);
-			// Get the association indication value of the module.
-			byte[] status = getParameter("AI");
-			if (status == null || status.length < 1)
-				continue;
-			if (status[0] == 0)
-				return true;
+		// Listen to the association events before changing the settings.
+		XBeeFuture<Boolean> future = waitForModemStatus(ModemStatusEvent.STATUS_JOINED_NETWORK);
+		try {
+			// Set connection parameters.
+			setParameter("ID", accessPoint.getSSID().getBytes());
+			setParameter("EE", new byte[]{(byte)accessPoint.getEncryptionType().getID()});
+			if (password != null && accessPoint.getEncryptionType() != WiFiEncryptionType.NONE)
+				setParameter("PK", password.getBytes());
+			
+			// The module may be already connected to the access point.
+			if (readAssociationStatus() == AI_SUCCESSFULLY_JOINED)
+				future.complete(true);
+		} catch (XBeeException e) {
+			future.cancel(false);
+			throw e;
 		}
-		
-		return false;
+		return future;
 	}
 	
 	/**
@@ -470,21 +532,46 @@ public class WiFiDevice extends IPDevice {
 	 * @see #setAccessPointTimeout(int)
 	 */
 	public boolean disconnect() throws TimeoutException, XBeeException {
-		executeParameter("NR");
-		// Wait for the module to connect to the access point.
-		long deadLine = System.currentTimeMillis() + accessPointTimeout;
-		while (System.currentTimeMillis() < deadLine) {
-			sleep(100);
-			// Get the association indication value of the module.
-			byte[] status = getParameter("AI");
-			if (status == null || status.length < 1)
-				continue;
+		// Status 0x23 (35) means the SSID is not configured.
+		return waitForAssociation(disconnectAsync(), AI_SSID_NOT_CONFIGURED);
+	}
+	
+	/**
+	 * Disconnects from the access point the device is connected to without 
+	 * waiting for the device to disconnect.
+	 * 
+	 * <p>The returned future completes with {@code true} as soon as the 
+	 * module reports that it disassociated (modem status 
+	 * {@link ModemStatusEvent#STATUS_DISASSOCIATED}), or with {@code false} 
+	 * if it does not within the configured access point timeout.</p>
+	 * 
+	 * @return The future of the disconnection.
+	 * 
+	 * @throws InterfaceNotOpenException if this device connection is not open.
+	 * @throws TimeoutException if there is a timeout sending the disconnect 
+	 *                          command.
+	 * @throws XBeeException if there is any other XBee related exception.
+	 * 
+	 * @see #connectAsync(AccessPoint, String)
+	 * @see #disconnect()
+	 * @see #getAccessPointTimeout()
+	 * 
+	 * @since 1.4.0
+	 */
+	public XBeeFuture<Boolean> disconnectAsync() throws TimeoutException, XBeeException {
+		// Listen to the association events before disconnecting.
+		XBeeFuture<Boolean> future = waitForModemStatus(ModemStatusEvent.STATUS_DISASSOCIATED);
+		try {
+			executeParameter("NR");
+			
 			// Status 0x23 (35) means the SSID is not configured.
-			if (status[0] == 0x23)
-				return true;
+			if (readAssociationStatus() == AI_SSID_NOT_CONFIGURED)
+				future.complete(true);
+		} catch (XBeeException e) {
+			future.cancel(false);
+			throw e;
 		}
-		
-		return false;
+		return future;
 	}
 	
 	/**
@@ -593,15 +680,109 @@ public class WiFiDevice extends IPDevice {
 	}
 	
 	/**
-	 * Sleeps the thread for the given number of milliseconds.
+	 * Stops the access point scan and wakes up the thread waiting for it.
+	 */
+	private void stopScanning() {
+		synchronized (eventLock) {
+			scanningAccessPoints = false;
+			eventLock.notifyAll();
+		}
+	}
+	
+	/**
+	 * Returns a future that completes with {@code true} when the given 
+	 * modem status event is received, or with {@code false} when the access 
+	 * point timeout expires.
+	 * 
+	 * @param event The modem status event to wait for.
 	 * 
-	 * @param milliseconds The number of milliseconds that the thread should 
-	 *        be sleeping.
+	 * @return The future of the event.
 	 */
-	private void sleep(int milliseconds) {
+	private XBeeFuture<Boolean> waitForModemStatus(final ModemStatusEvent event) {
+		final XBeeFuture<Boolean> future = new XBeeFuture<Boolean>();
+		final IModemStatusReceiveListener listener = new IModemStatusReceiveListener() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.listeners.IModemStatusReceiveListener#modemStatusEventReceived(com.digi.xbee.api.models.ModemStatusEvent)
+			 */
+			@Override
+			public void modemStatusEventReceived(ModemStatusEvent modemStatusEvent) {
+				if (modemStatusEvent == event)
+					future.complete(true);
+			}
+		};
+		addModemStatusListener(listener);
+		
+		final HashedWheelTimer.Timeout timeout = getTimer().schedule(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				future.complete(false);
+			}
+		}, accessPointTimeout);
+		
+		future.addListener(new IFutureListener<Boolean>() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.listeners.IFutureListener#operationComplete(com.digi.xbee.api.utils.XBeeFuture)
+			 */
+			@Override
+			public void operationComplete(XBeeFuture<Boolean> f) {
+				removeModemStatusListener(listener);
+				timeout.cancel();
+			}
+		});
+		return future;
+	}
+	
+	/**
+	 * Waits for the given association future and, if it completes with 
+	 * {@code false}, reads the association indication of the module once 
+	 * more in case the modem status was missed.
+	 * 
+	 * @param future The future of the association change.
+	 * @param status The association indication expected after the change.
+	 * 
+	 * @return {@code true} if the association changed, {@code false} 
+	 *         otherwise.
+	 * 
+	 * @throws TimeoutException if there is a timeout reading the association 
+	 *                          indication.
+	 * @throws XBeeException if there is any other XBee related exception.
+	 */
+	private boolean waitForAssociation(XBeeFuture<Boolean> future, int status) 
+			throws TimeoutException, XBeeException {
 		try {
-			Thread.sleep(milliseconds);
-		} catch (InterruptedException e) { }
+			if (future.get())
+				return true;
+		} catch (InterruptedException e) {
+			future.cancel(false);
+			Thread.currentThread().interrupt();
+			return false;
+		} catch (ExecutionException e) {
+			// The future never fails, it completes with false on timeout.
+		}
+		
+		return readAssociationStatus() == status;
+	}
+	
+	/**
+	 * Reads the association indication ({@code AI}) of the module.
+	 * 
+	 * @return The association indication, -1 if the module returned no 
+	 *         value.
+	 * 
+	 * @throws TimeoutException if there is a timeout reading the parameter.
+	 * @throws XBeeException if there is any other XBee related exception.
+	 */
+	private int readAssociationStatus() throws TimeoutException, XBeeException {
+		byte[] status = getParameter("AI");
+		if (status == null || status.length < 1)
+			return -1;
+		return status[0] & 0xFF;
 	}
 	
 	/**
@@ -16,9 +16,12 @@
 package com.digi.xbee.api;
 
 import com.digi.xbee.api.connection.IConnectionInterface;
+import com.digi.xbee.api.connection.serial.ReceiveBackpressure;
 import com.digi.xbee.api.connection.serial.SerialPortParameters;
 import com.digi.xbee.api.exceptions.TimeoutException;
 import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.io.IOSampleDeliveryOptions;
+import com.digi.xbee.api.io.IOSampleHistory;
 import com.digi.xbee.api.listeners.IIOSampleReceiveListener;
 import com.digi.xbee.api.listeners.IModemStatusReceiveListener;
 import com.digi.xbee.api.listeners.IPacketReceiveListener;
@@ -26,10 +29,23 @@ import com.digi.xbee.api.listeners.IDataReceiveListener;
 import com.digi.xbee.api.listeners.IUserDataRelayReceiveListener;
 import com.digi.xbee.api.listeners.relay.IBluetoothDataReceiveListener;
 import com.digi.xbee.api.listeners.relay.IMicroPythonDataReceiveListener;
+import com.digi.xbee.api.metrics.IMetricsRecorder;
+import com.digi.xbee.api.metrics.IPacketTracer;
+import com.digi.xbee.api.metrics.XBeeMetrics;
+import com.digi.xbee.api.models.DeviceProfile;
 import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.ReceivePipelineOptions;
+import com.digi.xbee.api.models.RoundTripTimeEstimate;
+import com.digi.xbee.api.models.RoundTripTimeEstimator;
+import com.digi.xbee.api.models.TransmitRateController;
 import com.digi.xbee.api.models.XBeeLocalInterface;
 import com.digi.xbee.api.models.XBeeMessage;
+import com.digi.xbee.api.models.XBeePacketFilter;
 import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.transport.FragmentationTransport;
+import com.digi.xbee.api.transport.MessageAggregator;
+import com.digi.xbee.api.transport.RPCTransport;
+import com.digi.xbee.api.utils.HashedWheelTimer;
 
 /**
  * This class represents a local XBee device.
@@ -195,6 +211,16 @@ public class XBeeDevice extends AbstractXBeeDevice {
 		super.removeDataListener(listener);
 	}
 	
+	@Override
+	public void subscribe(XBeePacketFilter filter, IPacketReceiveListener handler) {
+		super.subscribe(filter, handler);
+	}
+	
+	@Override
+	public void unsubscribe(IPacketReceiveListener handler) {
+		super.unsubscribe(handler);
+	}
+	
 	@Override
 	public void addIOSampleListener(IIOSampleReceiveListener listener) {
 		super.addIOSampleListener(listener);
@@ -205,6 +231,186 @@ public class XBeeDevice extends AbstractXBeeDevice {
 		super.removeIOSampleListener(listener);
 	}
 	
+	@Override
+	public void setIOSampleHistory(IOSampleHistory ioSampleHistory) {
+		super.setIOSampleHistory(ioSampleHistory);
+	}
+	
+	@Override
+	public IOSampleHistory getIOSampleHistory() {
+		return super.getIOSampleHistory();
+	}
+	
+	@Override
+	public void setIOSampleDeliveryOptions(IOSampleDeliveryOptions options) {
+		super.setIOSampleDeliveryOptions(options);
+	}
+	
+	@Override
+	public IOSampleDeliveryOptions getIOSampleDeliveryOptions() {
+		return super.getIOSampleDeliveryOptions();
+	}
+	
+	@Override
+	public void setReceivePipelineOptions(ReceivePipelineOptions options) {
+		super.setReceivePipelineOptions(options);
+	}
+	
+	@Override
+	public ReceivePipelineOptions getReceivePipelineOptions() {
+		return super.getReceivePipelineOptions();
+	}
+	
+	@Override
+	public long getSuppressedIOSamples(RemoteXBeeDevice remoteDevice) {
+		return super.getSuppressedIOSamples(remoteDevice);
+	}
+	
+	@Override
+	public void setMetricsRecorder(IMetricsRecorder recorder) {
+		super.setMetricsRecorder(recorder);
+	}
+	
+	@Override
+	public IMetricsRecorder getMetricsRecorder() {
+		return super.getMetricsRecorder();
+	}
+	
+	@Override
+	public XBeeMetrics enableMetrics() {
+		return super.enableMetrics();
+	}
+	
+	@Override
+	public void disableMetrics() {
+		super.disableMetrics();
+	}
+	
+	@Override
+	public void setPacketTracer(IPacketTracer tracer) {
+		super.setPacketTracer(tracer);
+	}
+	
+	@Override
+	public IPacketTracer getPacketTracer() {
+		return super.getPacketTracer();
+	}
+	
+	@Override
+	public void enableAdaptiveReceiveTimeout(int minTimeout, int maxTimeout) {
+		super.enableAdaptiveReceiveTimeout(minTimeout, maxTimeout);
+	}
+	
+	@Override
+	public void disableAdaptiveReceiveTimeout() {
+		super.disableAdaptiveReceiveTimeout();
+	}
+	
+	@Override
+	public boolean isAdaptiveReceiveTimeout() {
+		return super.isAdaptiveReceiveTimeout();
+	}
+	
+	@Override
+	public RoundTripTimeEstimator getRoundTripTimeEstimator() {
+		return super.getRoundTripTimeEstimator();
+	}
+	
+	@Override
+	public RoundTripTimeEstimate getRoundTripTimeEstimate(RemoteXBeeDevice remoteDevice) {
+		return super.getRoundTripTimeEstimate(remoteDevice);
+	}
+	
+	@Override
+	public void setTransmitRateController(TransmitRateController controller) {
+		super.setTransmitRateController(controller);
+	}
+	
+	@Override
+	public TransmitRateController getTransmitRateController() {
+		return super.getTransmitRateController();
+	}
+	
+	@Override
+	public void setReceiveBackpressure(ReceiveBackpressure backpressure) {
+		super.setReceiveBackpressure(backpressure);
+	}
+	
+	@Override
+	public ReceiveBackpressure getReceiveBackpressure() {
+		return super.getReceiveBackpressure();
+	}
+	
+	@Override
+	public HashedWheelTimer getTimer() {
+		return super.getTimer();
+	}
+	
+	@Override
+	public FragmentationTransport enableFragmentation() {
+		return super.enableFragmentation();
+	}
+	
+	@Override
+	public void disableFragmentation() {
+		super.disableFragmentation();
+	}
+	
+	@Override
+	public FragmentationTransport getFragmentationTransport() {
+		return super.getFragmentationTransport();
+	}
+	
+	@Override
+	public MessageAggregator enableAggregation() {
+		return super.enableAggregation();
+	}
+	
+	@Override
+	public void disableAggregation() throws XBeeException {
+		super.disableAggregation();
+	}
+	
+	@Override
+	public MessageAggregator getMessageAggregator() {
+		return super.getMessageAggregator();
+	}
+	
+	@Override
+	public RPCTransport enableRPC() {
+		return super.enableRPC();
+	}
+	
+	@Override
+	public void disableRPC() {
+		super.disableRPC();
+	}
+	
+	@Override
+	public RPCTransport getRPCTransport() {
+		return super.getRPCTransport();
+	}
+	
+	@Override
+	public DeviceProfile getDeviceProfile() {
+		return super.getDeviceProfile();
+	}
+	
+	@Override
+	public void setDeviceProfile(DeviceProfile profile) {
+		super.setDeviceProfile(profile);
+	}
+	
+	@Override
+	public void setBaudRateNegotiation(int maxBaudRate, boolean persist) {
+		super.setBaudRateNegotiation(maxBaudRate, persist);
+	}
+	
+	@Override
+	public int negotiateBaudRate(int maxBaudRate, boolean persist) throws TimeoutException, XBeeException {
+		return super.negotiateBaudRate(maxBaudRate, persist);
+	}
+	
 	@Override
 	public void addModemStatusListener(IModemStatusReceiveListener listener) {
 		super.addModemStatusListener(listener);
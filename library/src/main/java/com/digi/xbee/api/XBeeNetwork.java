@@ -31,6 +31,8 @@ import com.digi.xbee.api.exceptions.TimeoutException;
 import com.digi.xbee.api.exceptions.XBeeException;
 import com.digi.xbee.api.listeners.IDiscoveryListener;
 import com.digi.xbee.api.models.DiscoveryOptions;
+import com.digi.xbee.api.models.LinkStatistics;
+import com.digi.xbee.api.models.LinkStatisticsTable;
 import com.digi.xbee.api.models.XBee16BitAddress;
 import com.digi.xbee.api.models.XBee64BitAddress;
 import com.digi.xbee.api.models.XBeeProtocol;
@@ -55,6 +57,8 @@ public class XBeeNetwork {
 	
 	private NodeDiscovery nodeDiscovery;
 	
+	private final LinkStatisticsTable linkStatistics = new LinkStatisticsTable();
+	
 	protected Logger logger;
 	
 	/**
@@ -153,6 +157,55 @@ public class XBeeNetwork {
 		return nodeDiscovery.discoverDevices(ids);
 	}
 	
+	/**
+	 * Discovers and reports all remote XBee devices that match the supplied 
+	 * identifiers, notifying every device as soon as it is found.
+	 * 
+	 * <p>This method blocks until a device has been found for every given 
+	 * identifier or the configured timeout expires. To configure the 
+	 * discovery timeout, use the method {@link #setDiscoveryTimeout(long)}.
+	 * </p>
+	 * 
+	 * <p>If {@code perIdQueries} is {@code true}, a directed 
+	 * {@code ND <id>} query is sent for every identifier instead of a 
+	 * single network discovery, so only the requested nodes answer.</p>
+	 * 
+	 * @param ids List which contains the identifiers of the devices to be 
+	 *            discovered.
+	 * @param perIdQueries {@code true} to send a directed query for every 
+	 *                     identifier, {@code false} to perform a single 
+	 *                     network discovery.
+	 * @param listener Discovery listener notified about every discovered 
+	 *                 device and when the process finishes, {@code null} to 
+	 *                 only get the returned list.
+	 * 
+	 * @return A list of the discovered remote XBee devices with the given 
+	 *         identifiers.
+	 * 
+	 * @throws IllegalArgumentException if {@code ids.size() == 0}.
+	 * @throws InterfaceNotOpenException if the device is not open.
+	 * @throws NullPointerException if {@code ids == null}.
+	 * @throws XBeeException if there is an error discovering the devices.
+	 * 
+	 * @see #discoverDevice(String)
+	 * @see #discoverDevices(List)
+	 * @see IDiscoveryListener
+	 * @see RemoteXBeeDevice
+	 * 
+	 * @since 1.4.0
+	 */
+	public List<RemoteXBeeDevice> discoverDevices(List<String> ids, boolean perIdQueries, 
+			IDiscoveryListener listener) throws XBeeException {
+		if (ids == null)
+			throw new NullPointerException("List of device identifiers cannot be null.");
+		if (ids.size() == 0)
+			throw new IllegalArgumentException("List of device identifiers cannot be empty.");
+		
+		logger.debug("{}Discovering all '{}' devices.", localDevice.toString(), ids.toString());
+		
+		return nodeDiscovery.discoverDevices(ids, perIdQueries, listener);
+	}
+	
 	/**
 	 * Adds the given discovery listener to the list of listeners to be notified 
 	 * when the discovery process is running.
@@ -739,6 +792,109 @@ public class XBeeNetwork {
 		return remotesBy64BitAddr.size() + remotesBy16BitAddr.size();
 	}
 	
+	/**
+	 * Returns the link-quality and delivery statistics of the given remote 
+	 * device.
+	 * 
+	 * <p>The statistics are collected without any extra transmission from 
+	 * the transmit status of the synchronous transmissions to the remote 
+	 * device and from the frames received from it. Only remote devices with 
+	 * a known 64-bit address are tracked.</p>
+	 * 
+	 * @param remoteDevice The remote device to get its statistics.
+	 * 
+	 * @return The statistics of the remote device, {@code null} if there are 
+	 *         no statistics of it.
+	 * 
+	 * @throws NullPointerException if {@code remoteDevice == null}.
+	 * 
+	 * @see #getLinkStatistics()
+	 * @see #refreshLinkQuality(RemoteXBeeDevice)
+	 * @see LinkStatistics
+	 * 
+	 * @since 1.4.0
+	 */
+	public LinkStatistics getLinkStatistics(RemoteXBeeDevice remoteDevice) {
+		if (remoteDevice == null)
+			throw new NullPointerException("Remote device cannot be null.");
+		
+		XBee64BitAddress address = remoteDevice.get64BitAddress();
+		if (address == null || address.equals(XBee64BitAddress.UNKNOWN_ADDRESS))
+			return null;
+		return linkStatistics.getStatistics(address);
+	}
+	
+	/**
+	 * Returns the link-quality and delivery statistics of all the remote 
+	 * devices.
+	 * 
+	 * @return A map with the statistics of each remote device by 64-bit 
+	 *         address.
+	 * 
+	 * @see #getLinkStatistics(RemoteXBeeDevice)
+	 * 
+	 * @since 1.4.0
+	 */
+	public Map<XBee64BitAddress, LinkStatistics> getLinkStatistics() {
+		return linkStatistics.getAllStatistics();
+	}
+	
+	/**
+	 * Reads the RSSI of the last packet received by the given remote device 
+	 * ({@code DB} parameter) and updates its statistics with it.
+	 * 
+	 * <p>This method sends a remote AT command, use it only when the RSSI 
+	 * of the received frames is not enough.</p>
+	 * 
+	 * @param remoteDevice The remote device to refresh its RSSI.
+	 * 
+	 * @return The updated statistics of the remote device.
+	 * 
+	 * @throws IllegalArgumentException if the 64-bit address of the remote 
+	 *                                  device is unknown.
+	 * @throws NullPointerException if {@code remoteDevice == null}.
+	 * @throws TimeoutException if there is a timeout reading the RSSI.
+	 * @throws XBeeException if there is any other XBee related exception.
+	 * 
+	 * @see #getLinkStatistics(RemoteXBeeDevice)
+	 * 
+	 * @since 1.4.0
+	 */
+	public LinkStatistics refreshLinkQuality(RemoteXBeeDevice remoteDevice) throws TimeoutException, XBeeException {
+		if (remoteDevice == null)
+			throw new NullPointerException("Remote device cannot be null.");
+		
+		XBee64BitAddress address = remoteDevice.get64BitAddress();
+		if (address == null || address.equals(XBee64BitAddress.UNKNOWN_ADDRESS))
+			throw new IllegalArgumentException("64-bit address of the remote device cannot be unknown.");
+		
+		byte[] value = remoteDevice.getParameter("DB");
+		linkStatistics.setRSSI(address, ByteUtils.byteArrayToInt(value) & 0xFF);
+		return linkStatistics.getStatistics(address);
+	}
+	
+	/**
+	 * Removes the link-quality and delivery statistics of all the remote 
+	 * devices.
+	 * 
+	 * @see #getLinkStatistics()
+	 * 
+	 * @since 1.4.0
+	 */
+	public void clearLinkStatistics() {
+		linkStatistics.clear();
+	}
+	
+	/**
+	 * Returns the table where the link-quality and delivery statistics of 
+	 * the remote devices are updated.
+	 * 
+	 * @return The link statistics table.
+	 */
+	LinkStatisticsTable getLinkStatisticsTable() {
+		return linkStatistics;
+	}
+	
 	/**
 	 * Retrieves the 16-bit address of the given remote device.
 	 * 
@@ -52,6 +52,9 @@ public class ZigBeeDevice extends XBeeDevice {
 	// Constants
 	private static final String OPERATION_EXCEPTION = "Operation not supported in ZigBee protocol.";
 	
+	// Variables.
+	private ExplicitDataRouter explicitDataRouter = null;
+	
 	/**
 	 * Class constructor. Instantiates a new {@code ZigBeeDevice} object in the 
 	 * given port name and baud rate.
@@ -145,6 +148,27 @@ public class ZigBeeDevice extends XBeeDevice {
 		super.open();
 		if (xbeeProtocol != XBeeProtocol.ZIGBEE)
 			throw new XBeeDeviceException("XBee device is not a " + getXBeeProtocol().getDescription() + " device, it is a " + xbeeProtocol.getDescription() + " device.");
+		
+		// The data reader is new, register the router again.
+		if (explicitDataRouter != null)
+			addExplicitDataListener(explicitDataRouter);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.XBeeDevice#close()
+	 */
+	@Override
+	public void close() {
+		super.close();
+		
+		// Stop the threads of the router handlers.
+		ExplicitDataRouter router;
+		synchronized (this) {
+			router = explicitDataRouter;
+		}
+		if (router != null)
+			router.close();
 	}
 	
 	/*
@@ -259,6 +283,31 @@ public class ZigBeeDevice extends XBeeDevice {
 		super.removeExplicitDataListener(listener);
 	}
 	
+	/**
+	 * Returns the router of the explicit data received by this device.
+	 * 
+	 * <p>The router is created and registered as explicit data listener the 
+	 * first time this method is called, and it is registered again every 
+	 * time the device is opened. Use it to register handlers for specific 
+	 * destination endpoints, cluster IDs and profile IDs instead of adding 
+	 * several explicit data listeners that check those values.</p>
+	 * 
+	 * @return The explicit data router of this device.
+	 * 
+	 * @see ExplicitDataRouter
+	 * 
+	 * @since 1.4.0
+	 */
+	public ExplicitDataRouter getExplicitDataRouter() {
+		synchronized (this) {
+			if (explicitDataRouter == null) {
+				explicitDataRouter = new ExplicitDataRouter();
+				addExplicitDataListener(explicitDataRouter);
+			}
+		}
+		return explicitDataRouter;
+	}
+	
 	/*
 	 * (non-Javadoc)
 	 * @see com.digi.xbee.api.XBeeDevice#getAPIOutputMode()
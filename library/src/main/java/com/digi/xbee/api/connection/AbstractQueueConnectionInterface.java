@@ -0,0 +1,191 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * This class provides common functionality to connection interfaces whose 
+ * received data is produced by the library itself (recorded, replayed or 
+ * simulated traffic) instead of read from a physical port.
+ * 
+ * <p>Subclasses add the bytes to be read with {@link #deliver(byte[])} and 
+ * process the bytes written to the interface in 
+ * {@link #dataWritten(byte[], int, int)}.</p>
+ * 
+ * @see ByteQueueInputStream
+ * 
+ * @since 1.4.0
+ */
+public abstract class AbstractQueueConnectionInterface implements IConnectionInterface {
+	
+	// Variables.
+	protected final ByteQueueInputStream inputStream = new ByteQueueInputStream();
+	
+	protected volatile boolean connectionOpen = false;
+	
+	private final OutputStream outputStream = new OutputStream() {
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.OutputStream#write(int)
+		 */
+		@Override
+		public void write(int b) throws IOException {
+			writeData(new byte[] {(byte)b});
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.OutputStream#write(byte[], int, int)
+		 */
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (len > 0)
+				writeData(b, off, len);
+		}
+	};
+	
+	/**
+	 * Adds the given bytes to the data to be read from this interface and 
+	 * notifies the readers.
+	 * 
+	 * @param data The bytes to add.
+	 * 
+	 * @throws NullPointerException if {@code data == null}.
+	 */
+	protected void deliver(byte[] data) {
+		inputStream.write(data);
+		synchronized (this) {
+			notify();
+		}
+	}
+	
+	/**
+	 * Processes the bytes written to this interface.
+	 * 
+	 * @param data Byte array containing the written bytes.
+	 * @param offset The start offset of the written bytes.
+	 * @param length The number of written bytes.
+	 * 
+	 * @throws IOException if the data cannot be processed.
+	 */
+	protected abstract void dataWritten(byte[] data, int offset, int length) throws IOException;
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#isOpen()
+	 */
+	@Override
+	public boolean isOpen() {
+		return connectionOpen;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#getInputStream()
+	 */
+	@Override
+	public InputStream getInputStream() {
+		return connectionOpen ? inputStream : null;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#getOutputStream()
+	 */
+	@Override
+	public OutputStream getOutputStream() {
+		return connectionOpen ? outputStream : null;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#writeData(byte[])
+	 */
+	@Override
+	public void writeData(byte[] data) throws IOException {
+		if (data == null)
+			throw new NullPointerException("Data to be sent cannot be null.");
+		
+		if (data.length > 0)
+			writeData(data, 0, data.length);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#writeData(byte[], int, int)
+	 */
+	@Override
+	public void writeData(byte[] data, int offset, int length) throws IOException {
+		if (data == null)
+			throw new NullPointerException("Data to be sent cannot be null.");
+		if (offset < 0)
+			throw new IllegalArgumentException("Offset cannot be less than 0.");
+		if (length < 1)
+			throw new IllegalArgumentException("Length cannot be less than 1.");
+		if (offset >= data.length)
+			throw new IllegalArgumentException("Offset must be less than the data length.");
+		if (offset + length > data.length)
+			throw new IllegalArgumentException("Offset + length cannot be great than the data length.");
+		
+		if (!connectionOpen)
+			throw new IOException("The connection interface is closed.");
+		dataWritten(data, offset, length);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#readData(byte[])
+	 */
+	@Override
+	public int readData(byte[] data) throws IOException {
+		if (data == null)
+			throw new NullPointerException("Buffer cannot be null.");
+		
+		return inputStream.read(data);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#readData(byte[], int, int)
+	 */
+	@Override
+	public int readData(byte[] data, int offset, int length) throws IOException {
+		if (data == null)
+			throw new NullPointerException("Buffer cannot be null.");
+		if (offset < 0)
+			throw new IllegalArgumentException("Offset cannot be less than 0.");
+		if (length < 1)
+			throw new IllegalArgumentException("Length cannot be less than 1.");
+		if (offset >= data.length)
+			throw new IllegalArgumentException("Offset must be less than the data length.");
+		if (offset + length > data.length)
+			throw new IllegalArgumentException("Offset + length cannot be great than the data length.");
+		
+		return inputStream.read(data, offset, length);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#getConnectionType()
+	 */
+	@Override
+	public ConnectionType getConnectionType() {
+		return ConnectionType.UNKNOWN;
+	}
+}
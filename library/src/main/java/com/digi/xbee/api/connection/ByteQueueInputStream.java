@@ -0,0 +1,156 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection;
+
+import java.io.InputStream;
+
+/**
+ * This class is a non-blocking input stream backed by a growable byte queue.
+ * 
+ * <p>It is meant for connection interfaces that produce the data themselves 
+ * (recorded, replayed or simulated traffic). The producer adds bytes with 
+ * {@link #write(byte[], int, int)} and then notifies the connection 
+ * interface ({@code this.notify()}) as required by 
+ * {@link IConnectionInterface}.</p>
+ * 
+ * <p>As the serial port input stream, read operations do not block: they 
+ * return {@code -1} if there is no data available.</p>
+ * 
+ * @see IConnectionInterface
+ * 
+ * @since 1.4.0
+ */
+public class ByteQueueInputStream extends InputStream {
+	
+	// Constants.
+	private static final int DEFAULT_CAPACITY = 4096;
+	
+	// Variables.
+	private byte[] buffer = new byte[DEFAULT_CAPACITY];
+	
+	private int head = 0;
+	private int size = 0;
+	
+	/**
+	 * Adds the given bytes to the end of the queue.
+	 * 
+	 * @param data The bytes to add.
+	 * 
+	 * @throws NullPointerException if {@code data == null}.
+	 * 
+	 * @see #write(byte[], int, int)
+	 */
+	public void write(byte[] data) {
+		if (data == null)
+			throw new NullPointerException("Data cannot be null.");
+		
+		write(data, 0, data.length);
+	}
+	
+	/**
+	 * Adds the given bytes to the end of the queue.
+	 * 
+	 * @param data The byte array containing the bytes to add.
+	 * @param offset The start offset in the data.
+	 * @param length The number of bytes to add.
+	 * 
+	 * @throws IndexOutOfBoundsException if {@code offset < 0} or 
+	 *                                   if {@code length < 0} or 
+	 *                                   if {@code offset + length > data.length}.
+	 * @throws NullPointerException if {@code data == null}.
+	 */
+	public synchronized void write(byte[] data, int offset, int length) {
+		if (data == null)
+			throw new NullPointerException("Data cannot be null.");
+		if (offset < 0 || length < 0 || offset + length > data.length)
+			throw new IndexOutOfBoundsException();
+		
+		if (size + length > buffer.length) {
+			byte[] newBuffer = new byte[Math.max(buffer.length * 2, size + length)];
+			copyTo(newBuffer, 0, size);
+			buffer = newBuffer;
+			head = 0;
+		}
+		int tail = (head + size) % buffer.length;
+		int first = Math.min(length, buffer.length - tail);
+		System.arraycopy(data, offset, buffer, tail, first);
+		System.arraycopy(data, offset + first, buffer, 0, length - first);
+		size += length;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.io.InputStream#read()
+	 */
+	@Override
+	public synchronized int read() {
+		if (size == 0)
+			return -1;
+		int b = buffer[head] & 0xFF;
+		head = (head + 1) % buffer.length;
+		size--;
+		return b;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.io.InputStream#read(byte[], int, int)
+	 */
+	@Override
+	public synchronized int read(byte[] b, int off, int len) {
+		if (b == null)
+			throw new NullPointerException();
+		if (off < 0 || len < 0 || off + len > b.length)
+			throw new IndexOutOfBoundsException();
+		if (len == 0)
+			return 0;
+		if (size == 0)
+			return -1;
+		
+		int count = Math.min(len, size);
+		copyTo(b, off, count);
+		head = (head + count) % buffer.length;
+		size -= count;
+		return count;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.io.InputStream#available()
+	 */
+	@Override
+	public synchronized int available() {
+		return size;
+	}
+	
+	/**
+	 * Discards all the bytes in the queue.
+	 */
+	public synchronized void clear() {
+		head = 0;
+		size = 0;
+	}
+	
+	/**
+	 * Copies the given number of bytes from the head of the queue without 
+	 * removing them.
+	 */
+	private void copyTo(byte[] dest, int offset, int count) {
+		int first = Math.min(count, buffer.length - head);
+		System.arraycopy(buffer, head, dest, offset, first);
+		System.arraycopy(buffer, 0, dest, offset + first, count - first);
+	}
+}
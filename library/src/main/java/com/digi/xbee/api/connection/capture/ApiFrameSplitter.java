@@ -0,0 +1,111 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection.capture;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.digi.xbee.api.models.SpecialByte;
+
+/**
+ * This class splits a stream of bytes into raw API frames, keeping the bytes 
+ * as they were received (including escape characters).
+ * 
+ * <p>Bytes before a header byte are discarded. In API escaped mode a header 
+ * byte in the middle of a frame starts a new frame, and the incomplete one 
+ * is returned as is.</p>
+ */
+class ApiFrameSplitter {
+	
+	// Variables.
+	private final boolean escaped;
+	
+	private final ByteArrayOutputStream frame = new ByteArrayOutputStream();
+	
+	private boolean inFrame = false;
+	private boolean escapeNext = false;
+	
+	private int decoded = 0;
+	private int length = 0;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code ApiFrameSplitter}.
+	 * 
+	 * @param escaped {@code true} if the frames use API escaped mode, 
+	 *                {@code false} otherwise.
+	 */
+	ApiFrameSplitter(boolean escaped) {
+		this.escaped = escaped;
+	}
+	
+	/**
+	 * Processes the given bytes and returns the frames completed with them.
+	 * 
+	 * @param data Byte array with the bytes to process.
+	 * @param offset The start offset in the array.
+	 * @param count Number of bytes to process.
+	 * 
+	 * @return List with the completed frames, empty if there are none.
+	 */
+	List<byte[]> feed(byte[] data, int offset, int count) {
+		List<byte[]> frames = new ArrayList<>();
+		for (int i = offset; i < offset + count; i++) {
+			int b = data[i] & 0xFF;
+			if (b == SpecialByte.HEADER_BYTE.getValue() && (!inFrame || escaped)) {
+				if (inFrame)
+					frames.add(frame.toByteArray());
+				startFrame();
+				continue;
+			}
+			if (!inFrame)
+				continue;
+			
+			frame.write(b);
+			if (escaped) {
+				if (escapeNext) {
+					b ^= 0x20;
+					escapeNext = false;
+				} else if (b == SpecialByte.ESCAPE_BYTE.getValue()) {
+					escapeNext = true;
+					continue;
+				}
+			}
+			decoded++;
+			if (decoded == 1)
+				length = b << 8;
+			else if (decoded == 2)
+				length |= b;
+			else if (decoded == length + 3) {
+				frames.add(frame.toByteArray());
+				inFrame = false;
+			}
+		}
+		return frames;
+	}
+	
+	/**
+	 * Starts a new frame.
+	 */
+	private void startFrame() {
+		frame.reset();
+		frame.write(SpecialByte.HEADER_BYTE.getValue());
+		inFrame = true;
+		escapeNext = false;
+		decoded = 0;
+		length = 0;
+	}
+}
@@ -0,0 +1,441 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection.capture;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.digi.xbee.api.models.XBeeTransmitStatus;
+import com.digi.xbee.api.packet.APIFrameType;
+import com.digi.xbee.api.packet.XBeeAPIPacket;
+import com.digi.xbee.api.packet.common.ExplicitRxIndicatorPacket;
+import com.digi.xbee.api.packet.common.IODataSampleRxIndicatorPacket;
+import com.digi.xbee.api.packet.common.ReceivePacket;
+import com.digi.xbee.api.packet.common.RemoteATCommandResponsePacket;
+import com.digi.xbee.api.packet.common.TransmitStatusPacket;
+import com.digi.xbee.api.packet.raw.RX16IOPacket;
+import com.digi.xbee.api.packet.raw.RX16Packet;
+import com.digi.xbee.api.packet.raw.RX64IOPacket;
+import com.digi.xbee.api.packet.raw.RX64Packet;
+import com.digi.xbee.api.packet.raw.TXStatusPacket;
+
+/**
+ * This class contains the results of the analysis of a capture performed 
+ * by a {@link CaptureAnalyzer}.
+ * 
+ * <p>The latencies and rates are only available for captures with 
+ * timestamps (see {@link CaptureFileWriter}); raw serial captures only 
+ * provide counts.</p>
+ * 
+ * @since 1.4.0
+ */
+public class CaptureAnalysis {
+	
+	// Constants.
+	/**
+	 * Maximum number of checksum error positions kept by the analysis.
+	 */
+	public static final int MAX_ERROR_POSITIONS = 10000;
+	
+	// Request kinds used to match requests and responses.
+	private static final int KIND_NONE = -1;
+	private static final int KIND_TRANSMIT = 0;
+	private static final int KIND_AT_COMMAND = 1;
+	private static final int KIND_REMOTE_AT_COMMAND = 2;
+	private static final int KINDS = 3;
+	
+	private static final int[] REQUEST_KINDS = new int[256];
+	private static final int[] RESPONSE_KINDS = new int[256];
+	
+	static {
+		Arrays.fill(REQUEST_KINDS, KIND_NONE);
+		Arrays.fill(RESPONSE_KINDS, KIND_NONE);
+		REQUEST_KINDS[APIFrameType.TX_64.getValue()] = KIND_TRANSMIT;
+		REQUEST_KINDS[APIFrameType.TX_16.getValue()] = KIND_TRANSMIT;
+		REQUEST_KINDS[APIFrameType.TRANSMIT_REQUEST.getValue()] = KIND_TRANSMIT;
+		REQUEST_KINDS[APIFrameType.EXPLICIT_ADDRESSING_COMMAND_FRAME.getValue()] = KIND_TRANSMIT;
+		REQUEST_KINDS[APIFrameType.AT_COMMAND.getValue()] = KIND_AT_COMMAND;
+		REQUEST_KINDS[APIFrameType.AT_COMMAND_QUEUE.getValue()] = KIND_AT_COMMAND;
+		REQUEST_KINDS[APIFrameType.REMOTE_AT_COMMAND_REQUEST.getValue()] = KIND_REMOTE_AT_COMMAND;
+		RESPONSE_KINDS[APIFrameType.TX_STATUS.getValue()] = KIND_TRANSMIT;
+		RESPONSE_KINDS[APIFrameType.TRANSMIT_STATUS.getValue()] = KIND_TRANSMIT;
+		RESPONSE_KINDS[APIFrameType.AT_COMMAND_RESPONSE.getValue()] = KIND_AT_COMMAND;
+		RESPONSE_KINDS[APIFrameType.REMOTE_AT_COMMAND_RESPONSE.getValue()] = KIND_REMOTE_AT_COMMAND;
+	}
+	
+	// Variables.
+	private long bytes = 0;
+	private long frameCount = 0;
+	private long invalidFrames = 0;
+	private long checksumErrors = 0;
+	
+	private long firstTimestamp = -1;
+	private long lastTimestamp = -1;
+	
+	private final long[] frameTypeCounts = new long[256];
+	
+	private final List<Long> checksumErrorPositions = new ArrayList<>();
+	
+	private final Map<String, CaptureSourceStatistics> sources = new HashMap<>();
+	
+	private final Map<XBeeTransmitStatus, Long> transmitStatuses = new EnumMap<>(XBeeTransmitStatus.class);
+	
+	private final LatencyHistogram transmitLatency = new LatencyHistogram();
+	private final LatencyHistogram atCommandLatency = new LatencyHistogram();
+	
+	// Requests without response, by kind and frame ID (timestamp or -1).
+	private final long[] pendingRequests = new long[KINDS * 256];
+	// Kinds and frame IDs of the requests of this part of the capture.
+	private final BitSet requested = new BitSet(KINDS * 256);
+	// Responses whose request is in a previous part of the capture.
+	private final List<long[]> unmatchedResponses = new ArrayList<>();
+	
+	/**
+	 * Class constructor. Instantiates a new empty {@code CaptureAnalysis}.
+	 */
+	CaptureAnalysis() {
+		Arrays.fill(pendingRequests, -1);
+	}
+	
+	/**
+	 * Adds a valid frame to the analysis.
+	 * 
+	 * @param packet The parsed frame.
+	 * @param timestamp The timestamp of the frame in nanoseconds, {@code -1} 
+	 *                  if unknown.
+	 * @param direction The direction of the frame.
+	 * @param length The length of the frame in bytes.
+	 */
+	void recordFrame(XBeeAPIPacket packet, long timestamp, FrameDirection direction, int length) {
+		int frameType = packet.getFrameType() == APIFrameType.UNKNOWN ? 
+				packet.getFrameTypeValue() : packet.getFrameType().getValue();
+		frameCount++;
+		bytes += length;
+		frameTypeCounts[frameType & 0xFF]++;
+		if (timestamp >= 0) {
+			if (firstTimestamp < 0)
+				firstTimestamp = timestamp;
+			lastTimestamp = Math.max(lastTimestamp, timestamp);
+		}
+		
+		if (direction == FrameDirection.TO_DEVICE) {
+			int kind = REQUEST_KINDS[frameType & 0xFF];
+			if (kind != KIND_NONE && packet.needsAPIFrameID() && packet.getFrameID() != 0) {
+				int key = kind * 256 + packet.getFrameID();
+				pendingRequests[key] = timestamp;
+				requested.set(key);
+			}
+			return;
+		}
+		
+		// Transmit status breakdown.
+		XBeeTransmitStatus status = null;
+		if (packet instanceof TransmitStatusPacket)
+			status = ((TransmitStatusPacket)packet).getTransmitStatus();
+		else if (packet instanceof TXStatusPacket)
+			status = ((TXStatusPacket)packet).getTransmitStatus();
+		if (status != null) {
+			Long count = transmitStatuses.get(status);
+			transmitStatuses.put(status, count == null ? 1 : count + 1);
+		}
+		
+		// Latency of the responses.
+		int kind = RESPONSE_KINDS[frameType & 0xFF];
+		if (kind != KIND_NONE && timestamp >= 0 && packet.getFrameID() != 0) {
+			int key = kind * 256 + packet.getFrameID();
+			if (requested.get(key))
+				recordLatency(key, timestamp, pendingRequests);
+			else
+				unmatchedResponses.add(new long[] {key, timestamp});
+		}
+		
+		// Source statistics.
+		String source = getSource(packet);
+		if (source != null) {
+			CaptureSourceStatistics statistics = sources.get(source);
+			if (statistics == null) {
+				statistics = new CaptureSourceStatistics(source);
+				sources.put(source, statistics);
+			}
+			statistics.record(timestamp);
+		}
+	}
+	
+	/**
+	 * Adds a frame with an invalid checksum to the analysis.
+	 * 
+	 * @param position The position of the frame in the capture.
+	 */
+	void recordChecksumError(long position) {
+		checksumErrors++;
+		if (checksumErrorPositions.size() < MAX_ERROR_POSITIONS)
+			checksumErrorPositions.add(position);
+	}
+	
+	/**
+	 * Adds a frame that could not be parsed to the analysis.
+	 */
+	void recordInvalidFrame() {
+		invalidFrames++;
+	}
+	
+	/**
+	 * Adds the results of the next part of the capture to this analysis.
+	 * 
+	 * @param next The analysis of the part of the capture that follows this 
+	 *             one.
+	 */
+	void merge(CaptureAnalysis next) {
+		bytes += next.bytes;
+		frameCount += next.frameCount;
+		invalidFrames += next.invalidFrames;
+		checksumErrors += next.checksumErrors;
+		if (firstTimestamp < 0)
+			firstTimestamp = next.firstTimestamp;
+		lastTimestamp = Math.max(lastTimestamp, next.lastTimestamp);
+		for (int i = 0; i < frameTypeCounts.length; i++)
+			frameTypeCounts[i] += next.frameTypeCounts[i];
+		for (Long position : next.checksumErrorPositions) {
+			if (checksumErrorPositions.size() >= MAX_ERROR_POSITIONS)
+				break;
+			checksumErrorPositions.add(position);
+		}
+		for (CaptureSourceStatistics statistics : next.sources.values()) {
+			CaptureSourceStatistics current = sources.get(statistics.getSource());
+			if (current == null)
+				sources.put(statistics.getSource(), statistics);
+			else
+				current.merge(statistics);
+		}
+		for (Map.Entry<XBeeTransmitStatus, Long> entry : next.transmitStatuses.entrySet()) {
+			Long count = transmitStatuses.get(entry.getKey());
+			transmitStatuses.put(entry.getKey(), count == null ? entry.getValue() : count + entry.getValue());
+		}
+		transmitLatency.merge(next.transmitLatency);
+		atCommandLatency.merge(next.atCommandLatency);
+		
+		// Match the responses of the next part with the pending requests of this one.
+		for (long[] response : next.unmatchedResponses) {
+			int key = (int)response[0];
+			if (requested.get(key))
+				recordLatency(key, response[1], pendingRequests);
+			else
+				unmatchedResponses.add(response);
+		}
+		for (int key = next.requested.nextSetBit(0); key >= 0; key = next.requested.nextSetBit(key + 1)) {
+			pendingRequests[key] = next.pendingRequests[key];
+			requested.set(key);
+		}
+	}
+	
+	/**
+	 * Returns the number of bytes of the valid frames.
+	 * 
+	 * @return The number of bytes.
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+	
+	/**
+	 * Returns the number of valid frames.
+	 * 
+	 * @return The number of valid frames.
+	 */
+	public long getFrameCount() {
+		return frameCount;
+	}
+	
+	/**
+	 * Returns the number of valid frames of the given type.
+	 * 
+	 * @param frameType The frame type.
+	 * 
+	 * @return The number of frames of the given type.
+	 * 
+	 * @throws NullPointerException if {@code frameType == null}.
+	 */
+	public long getFrameCount(APIFrameType frameType) {
+		if (frameType == null)
+			throw new NullPointerException("Frame type cannot be null.");
+		if (frameType == APIFrameType.UNKNOWN) {
+			long count = 0;
+			for (int i = 0; i < frameTypeCounts.length; i++) {
+				if (APIFrameType.get(i) == APIFrameType.UNKNOWN)
+					count += frameTypeCounts[i];
+			}
+			return count;
+		}
+		return frameTypeCounts[frameType.getValue()];
+	}
+	
+	/**
+	 * Returns the number of valid frames of every type found in the 
+	 * capture.
+	 * 
+	 * @return Map with the number of frames by frame type value.
+	 */
+	public Map<Integer, Long> getFrameTypeCounts() {
+		Map<Integer, Long> counts = new HashMap<>();
+		for (int i = 0; i < frameTypeCounts.length; i++) {
+			if (frameTypeCounts[i] > 0)
+				counts.put(i, frameTypeCounts[i]);
+		}
+		return counts;
+	}
+	
+	/**
+	 * Returns the number of frames with a valid checksum that could not be 
+	 * parsed, including the incomplete frames at the end of the capture.
+	 * 
+	 * @return The number of invalid frames.
+	 */
+	public long getInvalidFrames() {
+		return invalidFrames;
+	}
+	
+	/**
+	 * Returns the number of frames with an invalid checksum.
+	 * 
+	 * @return The number of checksum errors.
+	 */
+	public long getChecksumErrors() {
+		return checksumErrors;
+	}
+	
+	/**
+	 * Returns the positions of the frames with an invalid checksum.
+	 * 
+	 * <p>Only the first {@link #MAX_ERROR_POSITIONS} positions are kept.</p>
+	 * 
+	 * @return The positions of the frames in the raw capture, or their 
+	 *         index in timestamped captures.
+	 */
+	public List<Long> getChecksumErrorPositions() {
+		return Collections.unmodifiableList(checksumErrorPositions);
+	}
+	
+	/**
+	 * Returns the statistics of the frames received from every remote 
+	 * node.
+	 * 
+	 * @return Map with the statistics by source address.
+	 */
+	public Map<String, CaptureSourceStatistics> getSourceStatistics() {
+		return Collections.unmodifiableMap(sources);
+	}
+	
+	/**
+	 * Returns the number of transmit status frames of every status.
+	 * 
+	 * @return Map with the number of frames by transmit status.
+	 */
+	public Map<XBeeTransmitStatus, Long> getTransmitStatusCounts() {
+		return Collections.unmodifiableMap(transmitStatuses);
+	}
+	
+	/**
+	 * Returns the histogram of latencies between transmit requests and 
+	 * their transmit status.
+	 * 
+	 * @return The transmit latency histogram.
+	 */
+	public LatencyHistogram getTransmitLatency() {
+		return transmitLatency;
+	}
+	
+	/**
+	 * Returns the histogram of latencies between local and remote AT command 
+	 * requests and their response.
+	 * 
+	 * @return The AT command latency histogram.
+	 */
+	public LatencyHistogram getATCommandLatency() {
+		return atCommandLatency;
+	}
+	
+	/**
+	 * Returns the time between the first and the last frame.
+	 * 
+	 * @return The duration in nanoseconds, {@code -1} if the capture does 
+	 *         not have timestamps.
+	 */
+	public long getDuration() {
+		return firstTimestamp < 0 ? -1 : lastTimestamp - firstTimestamp;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return String.format("frames: %d, bytes: %d, checksum errors: %d, invalid frames: %d, sources: %d", 
+				frameCount, bytes, checksumErrors, invalidFrames, sources.size());
+	}
+	
+	/**
+	 * Records the latency of the response with the given key.
+	 * 
+	 * @param key The kind and frame ID of the response.
+	 * @param timestamp The timestamp of the response.
+	 * @param requests The timestamps of the pending requests.
+	 */
+	private void recordLatency(int key, long timestamp, long[] requests) {
+		long requestTimestamp = requests[key];
+		requests[key] = -1;
+		if (requestTimestamp < 0 || timestamp < 0)
+			return;
+		if (key / 256 == KIND_TRANSMIT)
+			transmitLatency.record(timestamp - requestTimestamp);
+		else
+			atCommandLatency.record(timestamp - requestTimestamp);
+	}
+	
+	/**
+	 * Returns the source address of the given received packet.
+	 * 
+	 * @param packet The packet.
+	 * 
+	 * @return The source address, {@code null} if the packet does not have 
+	 *         a source address.
+	 */
+	private static String getSource(XBeeAPIPacket packet) {
+		if (packet instanceof ReceivePacket)
+			return ((ReceivePacket)packet).get64bitSourceAddress().toString();
+		if (packet instanceof ExplicitRxIndicatorPacket)
+			return ((ExplicitRxIndicatorPacket)packet).get64BitSourceAddress().toString();
+		if (packet instanceof IODataSampleRxIndicatorPacket)
+			return ((IODataSampleRxIndicatorPacket)packet).get64bitSourceAddress().toString();
+		if (packet instanceof RemoteATCommandResponsePacket)
+			return ((RemoteATCommandResponsePacket)packet).get64bitSourceAddress().toString();
+		if (packet instanceof RX64Packet)
+			return ((RX64Packet)packet).get64bitSourceAddress().toString();
+		if (packet instanceof RX64IOPacket)
+			return ((RX64IOPacket)packet).get64bitSourceAddress().toString();
+		if (packet instanceof RX16Packet)
+			return ((RX16Packet)packet).get16bitSourceAddress().toString();
+		if (packet instanceof RX16IOPacket)
+			return ((RX16IOPacket)packet).get16bitSourceAddress().toString();
+		return null;
+	}
+}
@@ -0,0 +1,606 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection.capture;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.digi.xbee.api.exceptions.InvalidPacketException;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.SpecialByte;
+import com.digi.xbee.api.packet.XBeeAPIPacket;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.XBeePacketParser;
+
+/**
+ * This class analyzes captures of API frames in parallel.
+ * 
+ * <p>Two kinds of captures are supported:</p>
+ * <ul>
+ * <li>Timestamped captures written by a {@link CaptureFileWriter} (see 
+ * {@link #analyze(File)}). Frames are split in chunks using the index of 
+ * the capture.</li>
+ * <li>Raw serial captures containing the bytes read from the device (see 
+ * {@link #analyzeRaw(File, OperatingMode)}). The file is split in chunks 
+ * of {@link #getChunkSize()} bytes, and every chunk is synchronized to 
+ * the first frame boundary (the first start delimiter followed by valid 
+ * frames in API mode).</li>
+ * </ul>
+ * 
+ * <p>The files are memory-mapped and the chunks are parsed with an 
+ * {@link XBeePacketParser} in a fork/join pool, so the analysis scales 
+ * with the number of processors.</p>
+ * 
+ * @see CaptureAnalysis
+ * 
+ * @since 1.4.0
+ */
+public class CaptureAnalyzer {
+	
+	// Constants.
+	/**
+	 * Default size of the chunks analyzed in parallel (16 MB).
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+	
+	// Maximum size of a frame (escaped) to read beyond the end of a chunk.
+	private static final int MAX_FRAME_SIZE = 2 * (0xFFFF + 4) + 1;
+	
+	// Number of consecutive valid frames required to synchronize a chunk.
+	private static final int SYNC_FRAMES = 3;
+	
+	// Results of decoding a frame.
+	private static final int VALID = 0;
+	private static final int CHECKSUM_ERROR = 1;
+	private static final int INVALID = 2;
+	private static final int INCOMPLETE = 3;
+	
+	// Variables.
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+	
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+	
+	/**
+	 * Sets the number of threads used to analyze the captures.
+	 * 
+	 * @param parallelism The number of threads.
+	 * 
+	 * @throws IllegalArgumentException if {@code parallelism < 1}.
+	 * 
+	 * @see #getParallelism()
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("Parallelism must be at least 1.");
+		
+		this.parallelism = parallelism;
+	}
+	
+	/**
+	 * Returns the number of threads used to analyze the captures.
+	 * 
+	 * @return The number of threads.
+	 * 
+	 * @see #setParallelism(int)
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+	
+	/**
+	 * Sets the size of the chunks analyzed in parallel.
+	 * 
+	 * @param chunkSize The size of the chunks in bytes.
+	 * 
+	 * @throws IllegalArgumentException if {@code chunkSize < 1024}.
+	 * 
+	 * @see #getChunkSize()
+	 */
+	public void setChunkSize(int chunkSize) {
+		if (chunkSize < 1024)
+			throw new IllegalArgumentException("Chunk size must be at least 1024 bytes.");
+		
+		this.chunkSize = chunkSize;
+	}
+	
+	/**
+	 * Returns the size of the chunks analyzed in parallel.
+	 * 
+	 * @return The size of the chunks in bytes.
+	 * 
+	 * @see #setChunkSize(int)
+	 */
+	public int getChunkSize() {
+		return chunkSize;
+	}
+	
+	/**
+	 * Analyzes the given timestamped capture file.
+	 * 
+	 * <p>The positions of the checksum errors are the indexes of the frames 
+	 * in the capture.</p>
+	 * 
+	 * @param captureFile The capture data file.
+	 * 
+	 * @return The results of the analysis.
+	 * 
+	 * @throws IOException if the file cannot be read or it is not a valid 
+	 *                     capture file.
+	 * @throws NullPointerException if {@code captureFile == null}.
+	 * 
+	 * @see CaptureFileReader
+	 */
+	public CaptureAnalysis analyze(File captureFile) throws IOException {
+		if (captureFile == null)
+			throw new NullPointerException("Capture file cannot be null.");
+		
+		CaptureFileReader reader = new CaptureFileReader(captureFile);
+		try {
+			return analyze(reader);
+		} finally {
+			reader.close();
+		}
+	}
+	
+	/**
+	 * Analyzes the capture of the given reader.
+	 * 
+	 * <p>Every chunk maps its own region of the data file, so the size of 
+	 * the capture is not limited by the size of a mapping.</p>
+	 * 
+	 * @param reader The capture reader.
+	 * 
+	 * @return The results of the analysis.
+	 * 
+	 * @throws IOException if the capture cannot be mapped.
+	 */
+	CaptureAnalysis analyze(final CaptureFileReader reader) throws IOException {
+		final boolean escaped = reader.getOperatingMode() == OperatingMode.API_ESCAPE;
+		final int frameCount = reader.getFrameCount();
+		
+		// Split the frames in chunks of approximately the chunk size.
+		List<Integer> bounds = new ArrayList<>();
+		bounds.add(0);
+		while (bounds.get(bounds.size() - 1) < frameCount) {
+			int first = bounds.get(bounds.size() - 1);
+			bounds.add(findFrame(reader, first + 1, reader.getFrameOffset(first) + chunkSize));
+		}
+		final int[] chunks = toArray(bounds);
+		
+		// Map the records of every chunk.
+		final List<ByteBuffer> buffers = new ArrayList<>();
+		for (int chunk = 0; chunk < chunks.length - 1; chunk++) {
+			long start = reader.getFrameOffset(chunks[chunk]);
+			buffers.add(reader.map(start, reader.getFrameEnd(chunks[chunk + 1] - 1) - start));
+		}
+		
+		return run(buffers.size(), new ChunkProcessor() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.connection.capture.CaptureAnalyzer.ChunkProcessor#process(int)
+			 */
+			@Override
+			public CaptureAnalysis process(int chunk) {
+				CaptureAnalysis analysis = new CaptureAnalysis();
+				FrameDecoder decoder = new FrameDecoder(buffers.get(chunk), escaped);
+				long chunkStart = reader.getFrameOffset(chunks[chunk]);
+				for (int i = chunks[chunk]; i < chunks[chunk + 1]; i++) {
+					int offset = (int)(reader.getFrameOffset(i) - chunkStart);
+					int start = offset + CaptureFileWriter.RECORD_HEADER_SIZE;
+					int result = decoder.decode(start, start + decoder.data.getInt(offset + 9));
+					if (result == VALID)
+						decoder.record(analysis, decoder.data.getLong(offset), 
+								FrameDirection.get(decoder.data.get(offset + 8)));
+					else if (result == CHECKSUM_ERROR)
+						analysis.recordChecksumError(i);
+					else
+						analysis.recordInvalidFrame();
+				}
+				return analysis;
+			}
+		});
+	}
+	
+	/**
+	 * Analyzes the given raw capture of the bytes read from a device.
+	 * 
+	 * <p>All the frames are considered received from the device and the 
+	 * capture does not have timestamps, so the latencies and rates are not 
+	 * available. The positions of the checksum errors are the offsets of the 
+	 * frames in the file.</p>
+	 * 
+	 * @param file The raw capture file.
+	 * @param mode The operating mode of the captured bytes, 
+	 *             {@link OperatingMode#API} or 
+	 *             {@link OperatingMode#API_ESCAPE}.
+	 * 
+	 * @return The results of the analysis.
+	 * 
+	 * @throws IllegalArgumentException if {@code mode} is not 
+	 *                                  {@code OperatingMode.API} or 
+	 *                                  {@code OperatingMode.API_ESCAPE}.
+	 * @throws IOException if the file cannot be read.
+	 * @throws NullPointerException if {@code file == null} or 
+	 *                              if {@code mode == null}.
+	 */
+	public CaptureAnalysis analyzeRaw(File file, OperatingMode mode) throws IOException {
+		if (file == null)
+			throw new NullPointerException("File cannot be null.");
+		if (mode == null)
+			throw new NullPointerException("Operating mode cannot be null.");
+		if (mode != OperatingMode.API && mode != OperatingMode.API_ESCAPE)
+			throw new IllegalArgumentException("Operating mode must be API or API escaped.");
+		
+		final boolean escaped = mode == OperatingMode.API_ESCAPE;
+		final List<ByteBuffer> buffers = new ArrayList<>();
+		final long size;
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			// Map every chunk with room to finish its last frame.
+			FileChannel channel = raf.getChannel();
+			size = channel.size();
+			for (long start = 0; start < size; start += chunkSize)
+				buffers.add(channel.map(FileChannel.MapMode.READ_ONLY, start, 
+						Math.min(size - start, (long)chunkSize + MAX_FRAME_SIZE)));
+		} finally {
+			raf.close();
+		}
+		
+		return run(buffers.size(), new ChunkProcessor() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.connection.capture.CaptureAnalyzer.ChunkProcessor#process(int)
+			 */
+			@Override
+			public CaptureAnalysis process(int chunk) {
+				CaptureAnalysis analysis = new CaptureAnalysis();
+				FrameDecoder decoder = new FrameDecoder(buffers.get(chunk), escaped);
+				long start = (long)chunk * chunkSize;
+				int end = (int)Math.min(chunkSize, size - start);
+				int limit = decoder.data.limit();
+				
+				int position = chunk == 0 ? decoder.nextHeader(0, end) : decoder.synchronize(end);
+				while (position < limit) {
+					// Stop at the frame where the next chunk starts.
+					if (position >= end && (escaped || decoder.isSynchronized(position)))
+						break;
+					
+					int result = decoder.decode(position, limit);
+					if (result == VALID) {
+						decoder.record(analysis, -1, FrameDirection.FROM_DEVICE);
+						position = decoder.end;
+						continue;
+					}
+					if (result == INCOMPLETE) {
+						if (position < end || start + limit == size)
+							analysis.recordInvalidFrame();
+						break;
+					}
+					if (result == CHECKSUM_ERROR) {
+						analysis.recordChecksumError(start + position);
+						// Trust the length if a valid frame starts just after.
+						int next = decoder.end;
+						if (decoder.isFrameEnd(next) && (next >= limit || decoder.decode(next, limit) == VALID)) {
+							position = next;
+							continue;
+						}
+					} else {
+						analysis.recordInvalidFrame();
+					}
+					position = decoder.nextHeader(position + 1, limit);
+				}
+				return analysis;
+			}
+		});
+	}
+	
+	/**
+	 * Processes the given number of chunks in a fork/join pool.
+	 * 
+	 * @param chunks The number of chunks.
+	 * @param processor The processor of every chunk.
+	 * 
+	 * @return The analysis of all the chunks.
+	 */
+	private CaptureAnalysis run(int chunks, ChunkProcessor processor) {
+		if (chunks == 0)
+			return new CaptureAnalysis();
+		
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			return pool.invoke(new AnalysisTask(processor, 0, chunks));
+		} finally {
+			pool.shutdown();
+		}
+	}
+	
+	/**
+	 * Returns the first frame, from the given one, whose record starts at 
+	 * the given offset or later.
+	 * 
+	 * @param reader The capture reader.
+	 * @param from The first frame to consider.
+	 * @param offset The offset in the data file.
+	 * 
+	 * @return The index of the frame, or the number of frames if all the 
+	 *         records start before the offset.
+	 */
+	private static int findFrame(CaptureFileReader reader, int from, long offset) {
+		int low = from;
+		int high = reader.getFrameCount();
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (reader.getFrameOffset(middle) < offset)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	}
+	
+	/**
+	 * Converts the given list into an array.
+	 * 
+	 * @param list The list of integers.
+	 * 
+	 * @return The array of integers.
+	 */
+	private static int[] toArray(List<Integer> list) {
+		int[] array = new int[list.size()];
+		for (int i = 0; i < array.length; i++)
+			array[i] = list.get(i);
+		return array;
+	}
+	
+	/**
+	 * Interface to analyze a chunk of a capture.
+	 */
+	private interface ChunkProcessor {
+		
+		/**
+		 * Analyzes the given chunk.
+		 * 
+		 * @param chunk The index of the chunk.
+		 * 
+		 * @return The analysis of the chunk.
+		 */
+		CaptureAnalysis process(int chunk);
+	}
+	
+	/**
+	 * Fork/join task that analyzes a range of chunks and merges their 
+	 * results in order.
+	 */
+	private static class AnalysisTask extends RecursiveTask<CaptureAnalysis> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final transient ChunkProcessor processor;
+		
+		private final int from;
+		private final int to;
+		
+		AnalysisTask(ChunkProcessor processor, int from, int to) {
+			this.processor = processor;
+			this.from = from;
+			this.to = to;
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.concurrent.RecursiveTask#compute()
+		 */
+		@Override
+		protected CaptureAnalysis compute() {
+			if (to - from == 1)
+				return processor.process(from);
+			
+			int middle = (from + to) >>> 1;
+			AnalysisTask left = new AnalysisTask(processor, from, middle);
+			left.fork();
+			CaptureAnalysis right = new AnalysisTask(processor, middle, to).compute();
+			CaptureAnalysis result = left.join();
+			result.merge(right);
+			return result;
+		}
+	}
+	
+	/**
+	 * Helper class that decodes the frames of a buffer.
+	 */
+	private static class FrameDecoder {
+		
+		private final ByteBuffer data;
+		
+		private final boolean escaped;
+		
+		private final XBeePacketParser parser = new XBeePacketParser();
+		
+		// Unescaped frame (delimiter, length, data and checksum).
+		private final byte[] frame = new byte[0xFFFF + 4];
+		
+		private int length;
+		
+		// Position after the last decoded frame.
+		private int end;
+		
+		// Position of the next byte to read.
+		private int position;
+		
+		FrameDecoder(ByteBuffer data, boolean escaped) {
+			this.data = data;
+			this.escaped = escaped;
+		}
+		
+		/**
+		 * Decodes the frame that starts at the given position.
+		 * 
+		 * @param start The position of the start delimiter.
+		 * @param limit The position after the last byte that can be read.
+		 * 
+		 * @return The result of the decoding.
+		 */
+		int decode(int start, int limit) {
+			end = start + 1;
+			if (start >= limit)
+				return INCOMPLETE;
+			if (data.get(start) != (byte)SpecialByte.HEADER_BYTE.getValue())
+				return INVALID;
+			
+			position = start + 1;
+			int msb = read(limit);
+			int lsb = msb < 0 ? msb : read(limit);
+			if (lsb < 0)
+				return lsb == -1 ? INCOMPLETE : INVALID;
+			length = (msb << 8) | lsb;
+			frame[0] = (byte)SpecialByte.HEADER_BYTE.getValue();
+			frame[1] = (byte)msb;
+			frame[2] = (byte)lsb;
+			
+			int checksum = 0;
+			for (int i = 0; i <= length; i++) {
+				int value = read(limit);
+				if (value < 0) {
+					end = position;
+					return value == -1 ? INCOMPLETE : INVALID;
+				}
+				frame[3 + i] = (byte)value;
+				checksum += value;
+			}
+			end = position;
+			return length > 0 && (checksum & 0xFF) == 0xFF ? VALID : CHECKSUM_ERROR;
+		}
+		
+		/**
+		 * Parses the last decoded frame and adds it to the given analysis.
+		 * 
+		 * @param analysis The analysis.
+		 * @param timestamp The timestamp of the frame, {@code -1} if unknown.
+		 * @param direction The direction of the frame.
+		 */
+		void record(CaptureAnalysis analysis, long timestamp, FrameDirection direction) {
+			try {
+				XBeePacket packet = parser.parsePacket(Arrays.copyOf(frame, length + 4), OperatingMode.API);
+				if (packet instanceof XBeeAPIPacket)
+					analysis.recordFrame((XBeeAPIPacket)packet, timestamp, direction, length + 4);
+				else
+					analysis.recordInvalidFrame();
+			} catch (InvalidPacketException e) {
+				analysis.recordInvalidFrame();
+			}
+		}
+		
+		/**
+		 * Returns the position of the first frame of a chunk that is not 
+		 * the first one of the capture.
+		 * 
+		 * @param end The end of the chunk.
+		 * 
+		 * @return The position of the first frame, {@code end} if there is 
+		 *         not any frame starting in the chunk.
+		 */
+		int synchronize(int end) {
+			int candidate = nextHeader(0, end);
+			// In API mode the delimiter can be part of the data.
+			while (!escaped && candidate < end && !isSynchronized(candidate))
+				candidate = nextHeader(candidate + 1, end);
+			return candidate;
+		}
+		
+		/**
+		 * Returns whether several valid frames start at the given position.
+		 * 
+		 * @param position The position of the start delimiter.
+		 * 
+		 * @return {@code true} if the position is a frame boundary, 
+		 *         {@code false} otherwise.
+		 */
+		boolean isSynchronized(int position) {
+			int limit = data.limit();
+			int valid = 0;
+			int next = position;
+			while (valid < SYNC_FRAMES && next < limit && decode(next, limit) == VALID) {
+				valid++;
+				next = end;
+			}
+			return valid == SYNC_FRAMES || (valid > 0 && next == limit);
+		}
+		
+		/**
+		 * Returns whether the given position is the end of the buffer or 
+		 * the start of a new frame.
+		 * 
+		 * @param position The position in the buffer.
+		 * 
+		 * @return {@code true} if a frame can end at the position, 
+		 *         {@code false} otherwise.
+		 */
+		boolean isFrameEnd(int position) {
+			return position >= data.limit() 
+					|| data.get(position) == (byte)SpecialByte.HEADER_BYTE.getValue();
+		}
+		
+		/**
+		 * Returns the position of the next start delimiter.
+		 * 
+		 * @param from The position to start searching.
+		 * @param end The position to stop searching.
+		 * 
+		 * @return The position of the delimiter, {@code end} if not found.
+		 */
+		int nextHeader(int from, int end) {
+			for (int i = from; i < end; i++) {
+				if (data.get(i) == (byte)SpecialByte.HEADER_BYTE.getValue())
+					return i;
+			}
+			return end;
+		}
+		
+		/**
+		 * Reads the next (unescaped) byte of the frame.
+		 * 
+		 * @param limit The position after the last byte that can be read.
+		 * 
+		 * @return The byte, {@code -1} if the limit was reached, {@code -2} 
+		 *         if a new frame starts before the end of the current one.
+		 */
+		private int read(int limit) {
+			if (position >= limit)
+				return -1;
+			int value = data.get(position++) & 0xFF;
+			if (!escaped)
+				return value;
+			if (value == SpecialByte.HEADER_BYTE.getValue()) {
+				position--;
+				return -2;
+			}
+			if (value == SpecialByte.ESCAPE_BYTE.getValue()) {
+				if (position >= limit)
+					return -1;
+				value = (data.get(position++) & 0xFF) ^ 0x20;
+			}
+			return value;
+		}
+	}
+}
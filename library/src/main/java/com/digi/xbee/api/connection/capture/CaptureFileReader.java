@@ -0,0 +1,378 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection.capture;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import com.digi.xbee.api.models.OperatingMode;
+
+/**
+ * This class reads the frames of a capture file created by 
+ * {@link CaptureFileWriter}.
+ * 
+ * <p>The data and index files are memory-mapped, so any frame can be read 
+ * without loading the whole capture in memory. If the index file does not 
+ * exist, the offsets of the frames are calculated by scanning the data 
+ * file.</p>
+ * 
+ * <p>Files are mapped in windows of up to 1 GB, so captures of any size 
+ * are supported.</p>
+ * 
+ * @see CaptureFileWriter
+ * @see CapturedFrame
+ * 
+ * @since 1.4.0
+ */
+public class CaptureFileReader implements Closeable {
+	
+	// Constants.
+	private static final int DEFAULT_WINDOW_SIZE = 1024 * 1024 * 1024;
+	
+	private static final int INDEX_ENTRY_SIZE = 8;
+	
+	// Variables.
+	private final MappedFile data;
+	
+	private final MappedFile index;
+	
+	private final long[] offsets;
+	
+	private final int frameCount;
+	
+	private final OperatingMode mode;
+	
+	private final long startTime;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code CaptureFileReader} for the 
+	 * given capture file.
+	 * 
+	 * @param file The capture data file.
+	 * 
+	 * @throws IOException if the file cannot be read or it is not a valid 
+	 *                     capture file.
+	 * @throws NullPointerException if {@code file == null}.
+	 */
+	public CaptureFileReader(File file) throws IOException {
+		this(file, DEFAULT_WINDOW_SIZE);
+	}
+	
+	/**
+	 * Class constructor. Instantiates a new {@code CaptureFileReader} for the 
+	 * given capture file that maps it in windows of the given size.
+	 * 
+	 * @param file The capture data file.
+	 * @param windowSize The size of the mapped windows in bytes.
+	 * 
+	 * @throws IllegalArgumentException if {@code windowSize < 1}.
+	 * @throws IOException if the file cannot be read or it is not a valid 
+	 *                     capture file.
+	 * @throws NullPointerException if {@code file == null}.
+	 */
+	CaptureFileReader(File file, int windowSize) throws IOException {
+		if (file == null)
+			throw new NullPointerException("File cannot be null.");
+		if (windowSize < 1)
+			throw new IllegalArgumentException("Window size must be at least 1.");
+		
+		data = new MappedFile(file, windowSize);
+		MappedFile indexData = null;
+		try {
+			if (data.size < CaptureFileWriter.HEADER_SIZE 
+					|| data.getInt(0) != CaptureFileWriter.MAGIC)
+				throw new IOException("Invalid capture file: " + file);
+			if (data.getShort(4) != CaptureFileWriter.VERSION)
+				throw new IOException("Unsupported capture file version: " + data.getShort(4));
+			mode = OperatingMode.get(data.get(6));
+			startTime = data.getLong(8);
+			
+			int count;
+			File indexFile = new File(file.getPath() + CaptureFileWriter.INDEX_EXTENSION);
+			if (indexFile.exists()) {
+				indexData = new MappedFile(indexFile, windowSize);
+				if (indexData.size / INDEX_ENTRY_SIZE > Integer.MAX_VALUE)
+					throw new IOException("Too many frames in capture file: " + file);
+				offsets = null;
+				count = (int)(indexData.size / INDEX_ENTRY_SIZE);
+			} else {
+				offsets = scan(data);
+				count = offsets.length;
+			}
+			index = indexData;
+			
+			// Ignore the last frames if the data file was not completely written.
+			while (count > 0 && !isComplete(readOffset(count - 1)))
+				count--;
+			frameCount = count;
+		} catch (IOException | RuntimeException e) {
+			data.close();
+			if (indexData != null)
+				indexData.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Returns the operating mode of the captured frames.
+	 * 
+	 * @return The operating mode of the captured frames.
+	 * 
+	 * @see com.digi.xbee.api.models.OperatingMode
+	 */
+	public OperatingMode getOperatingMode() {
+		return mode;
+	}
+	
+	/**
+	 * Returns the time the capture started.
+	 * 
+	 * @return The time the capture started, in milliseconds since epoch.
+	 */
+	public long getStartTime() {
+		return startTime;
+	}
+	
+	/**
+	 * Returns the number of frames in the capture.
+	 * 
+	 * @return The number of frames in the capture.
+	 */
+	public int getFrameCount() {
+		return frameCount;
+	}
+	
+	/**
+	 * Returns the frame at the given position of the capture.
+	 * 
+	 * @param position Position of the frame, from 0 to 
+	 *                 {@code getFrameCount() - 1}.
+	 * 
+	 * @return The frame at the given position.
+	 * 
+	 * @throws IndexOutOfBoundsException if {@code position < 0} or 
+	 *                                   if {@code position >= getFrameCount()}.
+	 */
+	public CapturedFrame getFrame(int position) {
+		long offset = getFrameOffset(position);
+		byte[] frame = new byte[data.getInt(offset + 9)];
+		data.get(offset + CaptureFileWriter.RECORD_HEADER_SIZE, frame);
+		return new CapturedFrame(data.getLong(offset), FrameDirection.get(data.get(offset + 8)), frame);
+	}
+	
+	/**
+	 * Returns the timestamp of the frame at the given position.
+	 * 
+	 * @param position Position of the frame.
+	 * 
+	 * @return The timestamp of the frame in nanoseconds since the start of 
+	 *         the capture.
+	 * 
+	 * @throws IndexOutOfBoundsException if {@code position < 0} or 
+	 *                                   if {@code position >= getFrameCount()}.
+	 */
+	public long getTimestamp(int position) {
+		return data.getLong(getFrameOffset(position));
+	}
+	
+	/**
+	 * Returns the offset of the record of the given frame in the data file.
+	 */
+	long getFrameOffset(int position) {
+		if (position < 0 || position >= frameCount)
+			throw new IndexOutOfBoundsException("Frame " + position + " out of " + frameCount + ".");
+		return readOffset(position);
+	}
+	
+	/**
+	 * Returns the offset in the data file where the record of the given 
+	 * frame ends.
+	 */
+	long getFrameEnd(int position) {
+		long offset = getFrameOffset(position);
+		return offset + CaptureFileWriter.RECORD_HEADER_SIZE + data.getInt(offset + 9);
+	}
+	
+	/**
+	 * Maps the given region of the data file in read-only mode.
+	 */
+	ByteBuffer map(long offset, long length) throws IOException {
+		return data.channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() {
+		// Mapped windows are released by the garbage collector.
+		data.close();
+		if (index != null)
+			index.close();
+	}
+	
+	/**
+	 * Returns the offset of the given frame from the index.
+	 */
+	private long readOffset(int position) {
+		if (offsets != null)
+			return offsets[position];
+		return index.getLong((long)position * INDEX_ENTRY_SIZE);
+	}
+	
+	/**
+	 * Returns whether the record at the given offset is complete.
+	 */
+	private boolean isComplete(long offset) {
+		if (offset < CaptureFileWriter.HEADER_SIZE 
+				|| offset + CaptureFileWriter.RECORD_HEADER_SIZE > data.size)
+			return false;
+		int length = data.getInt(offset + 9);
+		return length >= 0 && offset + CaptureFileWriter.RECORD_HEADER_SIZE + length <= data.size;
+	}
+	
+	/**
+	 * Calculates the offsets of the records of the given data file.
+	 */
+	private static long[] scan(MappedFile data) {
+		long[] offsets = new long[1024];
+		int count = 0;
+		long offset = CaptureFileWriter.HEADER_SIZE;
+		while (offset + CaptureFileWriter.RECORD_HEADER_SIZE <= data.size) {
+			int length = data.getInt(offset + 9);
+			if (length < 0)
+				break;
+			if (count == offsets.length)
+				offsets = Arrays.copyOf(offsets, 2 * count);
+			offsets[count++] = offset;
+			offset += CaptureFileWriter.RECORD_HEADER_SIZE + length;
+		}
+		return Arrays.copyOf(offsets, count);
+	}
+	
+	/**
+	 * A file mapped in read-only windows.
+	 * 
+	 * <p>Every window extends a few bytes into the next one, so any number 
+	 * can be read from a single window. Byte ranges are copied across 
+	 * windows.</p>
+	 */
+	private static class MappedFile {
+		
+		// Constants.
+		private static final int WINDOW_MARGIN = 8;
+		
+		// Variables.
+		private final RandomAccessFile file;
+		
+		private final FileChannel channel;
+		
+		private final long size;
+		
+		private final int windowSize;
+		
+		private final ByteBuffer[] windows;
+		
+		/**
+		 * Class constructor. Instantiates a new {@code MappedFile} that maps 
+		 * the given file in windows of the given size.
+		 * 
+		 * @param file The file to map.
+		 * @param windowSize The size of the windows in bytes.
+		 * 
+		 * @throws IOException if the file cannot be mapped.
+		 */
+		MappedFile(File file, int windowSize) throws IOException {
+			this.file = new RandomAccessFile(file, "r");
+			try {
+				channel = this.file.getChannel();
+				size = channel.size();
+				this.windowSize = windowSize;
+				long count = (size + windowSize - 1) / windowSize;
+				if (count > Integer.MAX_VALUE)
+					throw new IOException("Capture file too big for the window size: " + file);
+				windows = new ByteBuffer[(int)count];
+				for (int i = 0; i < windows.length; i++) {
+					long start = (long)i * windowSize;
+					windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, 
+							Math.min(size - start, (long)windowSize + WINDOW_MARGIN));
+				}
+			} catch (IOException | RuntimeException e) {
+				this.file.close();
+				throw e;
+			}
+		}
+		
+		byte get(long offset) {
+			return window(offset).get(position(offset));
+		}
+		
+		short getShort(long offset) {
+			return window(offset).getShort(position(offset));
+		}
+		
+		int getInt(long offset) {
+			return window(offset).getInt(position(offset));
+		}
+		
+		long getLong(long offset) {
+			return window(offset).getLong(position(offset));
+		}
+		
+		/**
+		 * Copies the bytes starting at the given offset into the given 
+		 * array.
+		 */
+		void get(long offset, byte[] dst) {
+			int copied = 0;
+			while (copied < dst.length) {
+				ByteBuffer view = window(offset + copied).duplicate();
+				int position = position(offset + copied);
+				int length = Math.min(dst.length - copied, windowSize - position);
+				view.position(position);
+				view.get(dst, copied, length);
+				copied += length;
+			}
+		}
+		
+		/**
+		 * Closes the file. Mapped windows stay readable.
+		 */
+		void close() {
+			try {
+				file.close();
+			} catch (IOException e) {
+				// Nothing to do, the file was opened for reading.
+			}
+		}
+		
+		private ByteBuffer window(long offset) {
+			if (offset < 0 || offset >= size)
+				throw new IndexOutOfBoundsException("Offset " + offset + " out of " + size + ".");
+			return windows[(int)(offset / windowSize)];
+		}
+		
+		private int position(long offset) {
+			return (int)(offset % windowSize);
+		}
+	}
+}
@@ -0,0 +1,262 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection.capture;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import com.digi.xbee.api.models.OperatingMode;
+
+/**
+ * This class appends timestamped raw API frames to a capture file.
+ * 
+ * <p>A capture is made of two files, both written through memory-mapped 
+ * buffers so appending a frame does not require any system call:</p>
+ * 
+ * <ul>
+ * <li>The data file: a header (magic number, version, operating mode and 
+ * start time) followed by one record per frame: timestamp in nanoseconds 
+ * since the start of the capture (8 bytes), direction (1 byte), length 
+ * (4 bytes) and the raw frame bytes.</li>
+ * <li>The index file (data file name plus {@value #INDEX_EXTENSION}): the 
+ * offset of every record in the data file (8 bytes each), so frames can 
+ * be accessed randomly.</li>
+ * </ul>
+ * 
+ * <p>The files grow in chunks of {@value #CHUNK_SIZE} bytes and are 
+ * truncated to their real size when the writer is closed.</p>
+ * 
+ * @see CaptureFileReader
+ * @see RecordingConnectionInterface
+ * 
+ * @since 1.4.0
+ */
+public class CaptureFileWriter implements Closeable {
+	
+	// Constants.
+	/**
+	 * Extension added to the data file name to get the index file name.
+	 */
+	public static final String INDEX_EXTENSION = ".idx";
+	
+	/**
+	 * Size of the regions of the files mapped at once.
+	 */
+	public static final int CHUNK_SIZE = 8 * 1024 * 1024;
+	
+	static final int MAGIC = 0x58424346; // "XBCF"
+	static final int VERSION = 1;
+	
+	static final int HEADER_SIZE = 20;
+	static final int RECORD_HEADER_SIZE = 13;
+	static final int INDEX_ENTRY_SIZE = 8;
+	
+	// Variables.
+	private final MappedAppender data;
+	private final MappedAppender index;
+	
+	private final long startNanos;
+	
+	private long frameCount = 0;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code CaptureFileWriter} that 
+	 * creates (or overwrites) the given capture file.
+	 * 
+	 * @param file The capture data file.
+	 * @param mode Operating mode of the captured frames.
+	 * 
+	 * @throws IllegalArgumentException if {@code mode != OperatingMode.API} and
+	 *                                  if {@code mode != OperatingMode.API_ESCAPE}.
+	 * @throws IOException if the files cannot be created.
+	 * @throws NullPointerException if {@code file == null} or 
+	 *                              if {@code mode == null}.
+	 * 
+	 * @see com.digi.xbee.api.models.OperatingMode
+	 */
+	public CaptureFileWriter(File file, OperatingMode mode) throws IOException {
+		if (file == null)
+			throw new NullPointerException("File cannot be null.");
+		if (mode == null)
+			throw new NullPointerException("Operating mode cannot be null.");
+		if (mode != OperatingMode.API && mode != OperatingMode.API_ESCAPE)
+			throw new IllegalArgumentException("Operating mode must be API or API Escaped.");
+		
+		data = new MappedAppender(file);
+		try {
+			index = new MappedAppender(new File(file.getPath() + INDEX_EXTENSION));
+		} catch (IOException e) {
+			data.close();
+			throw e;
+		}
+		
+		startNanos = System.nanoTime();
+		data.ensure(HEADER_SIZE);
+		data.buffer.putInt(MAGIC);
+		data.buffer.putShort((short)VERSION);
+		data.buffer.put((byte)mode.getID());
+		data.buffer.put((byte)0);
+		data.buffer.putLong(System.currentTimeMillis());
+		data.buffer.putInt(0); // Reserved.
+		data.position += HEADER_SIZE;
+	}
+	
+	/**
+	 * Appends the given frame with the current time as timestamp.
+	 * 
+	 * @param direction Direction of the frame.
+	 * @param frame Byte array containing the raw frame.
+	 * @param offset The start offset of the frame in the array.
+	 * @param length The length of the frame.
+	 * 
+	 * @throws IndexOutOfBoundsException if {@code offset < 0} or 
+	 *                                   if {@code length < 0} or 
+	 *                                   if {@code offset + length > frame.length}.
+	 * @throws IOException if the frame cannot be written.
+	 * @throws NullPointerException if {@code direction == null} or 
+	 *                              if {@code frame == null}.
+	 */
+	public void append(FrameDirection direction, byte[] frame, int offset, int length) throws IOException {
+		append(System.nanoTime() - startNanos, direction, frame, offset, length);
+	}
+	
+	/**
+	 * Appends the given frame with the given timestamp.
+	 * 
+	 * @param timestamp Timestamp of the frame in nanoseconds since the start 
+	 *                  of the capture.
+	 * @param direction Direction of the frame.
+	 * @param frame Byte array containing the raw frame.
+	 * @param offset The start offset of the frame in the array.
+	 * @param length The length of the frame.
+	 * 
+	 * @throws IndexOutOfBoundsException if {@code offset < 0} or 
+	 *                                   if {@code length < 0} or 
+	 *                                   if {@code offset + length > frame.length}.
+	 * @throws IOException if the frame cannot be written.
+	 * @throws NullPointerException if {@code direction == null} or 
+	 *                              if {@code frame == null}.
+	 */
+	public synchronized void append(long timestamp, FrameDirection direction, byte[] frame, 
+			int offset, int length) throws IOException {
+		if (direction == null)
+			throw new NullPointerException("Direction cannot be null.");
+		if (frame == null)
+			throw new NullPointerException("Frame cannot be null.");
+		if (offset < 0 || length < 0 || offset + length > frame.length)
+			throw new IndexOutOfBoundsException();
+		if (data.buffer == null)
+			throw new IOException("Capture file is closed.");
+		
+		index.ensure(INDEX_ENTRY_SIZE);
+		index.buffer.putLong(data.position);
+		index.position += INDEX_ENTRY_SIZE;
+		
+		data.ensure(RECORD_HEADER_SIZE + length);
+		data.buffer.putLong(timestamp);
+		data.buffer.put((byte)direction.getID());
+		data.buffer.putInt(length);
+		data.buffer.put(frame, offset, length);
+		data.position += RECORD_HEADER_SIZE + length;
+		
+		frameCount++;
+	}
+	
+	/**
+	 * Returns the number of frames written.
+	 * 
+	 * @return The number of frames written.
+	 */
+	public synchronized long getFrameCount() {
+		return frameCount;
+	}
+	
+	/**
+	 * Flushes the written frames to the storage device.
+	 */
+	public synchronized void flush() {
+		if (data.buffer == null)
+			return;
+		data.buffer.force();
+		index.buffer.force();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		try {
+			data.close();
+		} finally {
+			index.close();
+		}
+	}
+	
+	/**
+	 * Appends data to a file through memory-mapped regions.
+	 */
+	private static class MappedAppender {
+		
+		// Variables.
+		private final RandomAccessFile file;
+		private final FileChannel channel;
+		
+		private MappedByteBuffer buffer;
+		
+		private long position = 0;
+		
+		MappedAppender(File file) throws IOException {
+			this.file = new RandomAccessFile(file, "rw");
+			this.file.setLength(0);
+			this.channel = this.file.getChannel();
+		}
+		
+		/**
+		 * Maps a new region if the current one has not enough room for the 
+		 * given number of bytes.
+		 */
+		void ensure(int bytes) throws IOException {
+			if (buffer != null && buffer.remaining() >= bytes)
+				return;
+			if (buffer != null)
+				buffer.force();
+			buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.max(CHUNK_SIZE, bytes));
+		}
+		
+		/**
+		 * Flushes the data and truncates the file to the written size.
+		 */
+		void close() throws IOException {
+			if (!channel.isOpen())
+				return;
+			try {
+				if (buffer != null)
+					buffer.force();
+				buffer = null;
+				channel.truncate(position);
+			} finally {
+				channel.close();
+				file.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection.capture;
+
+/**
+ * This class contains the statistics of the frames received from a remote 
+ * node in a capture.
+ * 
+ * @see CaptureAnalysis#getSourceStatistics()
+ * 
+ * @since 1.4.0
+ */
+public class CaptureSourceStatistics {
+	
+	// Variables.
+	private final String source;
+	
+	private long frameCount = 0;
+	
+	private long firstTimestamp = -1;
+	private long lastTimestamp = -1;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code CaptureSourceStatistics} 
+	 * for the given source.
+	 * 
+	 * @param source The address of the source node.
+	 */
+	CaptureSourceStatistics(String source) {
+		this.source = source;
+	}
+	
+	/**
+	 * Adds a frame received at the given time.
+	 * 
+	 * @param timestamp The timestamp of the frame in nanoseconds, 
+	 *                  {@code -1} if unknown.
+	 */
+	void record(long timestamp) {
+		frameCount++;
+		if (timestamp < 0)
+			return;
+		if (firstTimestamp < 0 || timestamp < firstTimestamp)
+			firstTimestamp = timestamp;
+		lastTimestamp = Math.max(lastTimestamp, timestamp);
+	}
+	
+	/**
+	 * Adds the frames of the given statistics to these ones.
+	 * 
+	 * @param other The statistics of the same source to add.
+	 */
+	void merge(CaptureSourceStatistics other) {
+		frameCount += other.frameCount;
+		if (other.firstTimestamp >= 0 && (firstTimestamp < 0 || other.firstTimestamp < firstTimestamp))
+			firstTimestamp = other.firstTimestamp;
+		lastTimestamp = Math.max(lastTimestamp, other.lastTimestamp);
+	}
+	
+	/**
+	 * Returns the address of the source node.
+	 * 
+	 * @return The 64-bit address of the node, or its 16-bit address if the 
+	 *         frames do not contain the 64-bit one.
+	 */
+	public String getSource() {
+		return source;
+	}
+	
+	/**
+	 * Returns the number of frames received from the node.
+	 * 
+	 * @return The number of frames.
+	 */
+	public long getFrameCount() {
+		return frameCount;
+	}
+	
+	/**
+	 * Returns the timestamp of the first frame received from the node.
+	 * 
+	 * @return The timestamp in nanoseconds since the start of the capture, 
+	 *         {@code -1} if the capture does not have timestamps.
+	 */
+	public long getFirstTimestamp() {
+		return firstTimestamp;
+	}
+	
+	/**
+	 * Returns the timestamp of the last frame received from the node.
+	 * 
+	 * @return The timestamp in nanoseconds since the start of the capture, 
+	 *         {@code -1} if the capture does not have timestamps.
+	 */
+	public long getLastTimestamp() {
+		return lastTimestamp;
+	}
+	
+	/**
+	 * Returns the rate of frames received from the node between its first 
+	 * and last frame.
+	 * 
+	 * @return The number of frames per second, {@code 0} if it cannot be 
+	 *         calculated.
+	 */
+	public double getRate() {
+		long span = lastTimestamp - firstTimestamp;
+		return firstTimestamp < 0 || span <= 0 ? 0 : (frameCount - 1) * 1e9 / span;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return String.format("%s: %d frames, %.2f frames/s", source, frameCount, getRate());
+	}
+}
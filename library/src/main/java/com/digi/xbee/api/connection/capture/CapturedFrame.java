@@ -0,0 +1,91 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection.capture;
+
+/**
+ * This class represents a raw API frame stored in a capture file.
+ * 
+ * <p>The frame data is stored as it was transmitted, starting with the 
+ * header byte and including the checksum (escaped if the capture was taken 
+ * in API escaped mode).</p>
+ * 
+ * @see CaptureFileReader
+ * @see FrameDirection
+ * 
+ * @since 1.4.0
+ */
+public class CapturedFrame {
+	
+	// Variables.
+	private final long timestamp;
+	
+	private final FrameDirection direction;
+	
+	private final byte[] data;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code CapturedFrame} with the 
+	 * given parameters.
+	 * 
+	 * @param timestamp Time the frame was captured, in nanoseconds since the 
+	 *                  start of the capture.
+	 * @param direction Direction of the frame.
+	 * @param data Raw frame bytes.
+	 * 
+	 * @throws NullPointerException if {@code direction == null} or 
+	 *                              if {@code data == null}.
+	 */
+	public CapturedFrame(long timestamp, FrameDirection direction, byte[] data) {
+		if (direction == null)
+			throw new NullPointerException("Direction cannot be null.");
+		if (data == null)
+			throw new NullPointerException("Data cannot be null.");
+		
+		this.timestamp = timestamp;
+		this.direction = direction;
+		this.data = data;
+	}
+	
+	/**
+	 * Returns the time the frame was captured.
+	 * 
+	 * @return The time the frame was captured, in nanoseconds since the start 
+	 *         of the capture.
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+	
+	/**
+	 * Returns the direction of the frame.
+	 * 
+	 * @return The direction of the frame.
+	 * 
+	 * @see FrameDirection
+	 */
+	public FrameDirection getDirection() {
+		return direction;
+	}
+	
+	/**
+	 * Returns the raw frame bytes.
+	 * 
+	 * @return The raw frame bytes.
+	 */
+	public byte[] getData() {
+		return data;
+	}
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection.capture;
+
+/**
+ * Enumerates the directions of the frames stored in a capture file.
+ * 
+ * @see CapturedFrame
+ * 
+ * @since 1.4.0
+ */
+public enum FrameDirection {
+	
+	// Enumeration types.
+	FROM_DEVICE(0, "From device"),
+	TO_DEVICE(1, "To device");
+	
+	// Variables.
+	private final int id;
+	
+	private final String description;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code FrameDirection} 
+	 * enumeration entry with the given parameters.
+	 * 
+	 * @param id Direction ID, as stored in the capture file.
+	 * @param description Direction description.
+	 */
+	private FrameDirection(int id, String description) {
+		this.id = id;
+		this.description = description;
+	}
+	
+	/**
+	 * Returns the direction ID, as stored in the capture file.
+	 * 
+	 * @return The direction ID.
+	 */
+	public int getID() {
+		return id;
+	}
+	
+	/**
+	 * Returns the direction description.
+	 * 
+	 * @return The direction description.
+	 */
+	public String getDescription() {
+		return description;
+	}
+	
+	/**
+	 * Returns the {@code FrameDirection} associated to the given ID.
+	 * 
+	 * @param id The ID of the direction to retrieve.
+	 * 
+	 * @return The {@code FrameDirection} associated to the given ID, 
+	 *         {@code null} if there is not any.
+	 */
+	public static FrameDirection get(int id) {
+		for (FrameDirection direction : values()) {
+			if (direction.getID() == id)
+				return direction;
+		}
+		return null;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Enum#toString()
+	 */
+	@Override
+	public String toString() {
+		return description;
+	}
+}
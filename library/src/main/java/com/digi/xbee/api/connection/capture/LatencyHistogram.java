@@ -0,0 +1,174 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection.capture;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a histogram of latencies with fixed buckets, from 
+ * 100 microseconds to 10 seconds.
+ * 
+ * @see CaptureAnalysis
+ * 
+ * @since 1.4.0
+ */
+public class LatencyHistogram {
+	
+	// Constants.
+	private static final long[] UPPER_BOUNDS = {100, 250, 500, 1000, 2500, 5000, 10000, 25000, 50000, 
+			100000, 250000, 500000, 1000000, 2500000, 5000000, 10000000, Long.MAX_VALUE};
+	
+	// Variables.
+	private final long[] counts = new long[UPPER_BOUNDS.length];
+	
+	private long totalCount = 0;
+	private long sum = 0;
+	private long max = 0;
+	
+	/**
+	 * Adds the given latency to the histogram.
+	 * 
+	 * @param nanos The latency in nanoseconds.
+	 */
+	void record(long nanos) {
+		long micros = Math.max(0, nanos / 1000);
+		int bucket = Arrays.binarySearch(UPPER_BOUNDS, micros);
+		if (bucket < 0)
+			bucket = -bucket - 1;
+		counts[bucket]++;
+		totalCount++;
+		sum += micros;
+		max = Math.max(max, micros);
+	}
+	
+	/**
+	 * Adds the latencies of the given histogram to this one.
+	 * 
+	 * @param other The histogram to add.
+	 */
+	void merge(LatencyHistogram other) {
+		for (int i = 0; i < counts.length; i++)
+			counts[i] += other.counts[i];
+		totalCount += other.totalCount;
+		sum += other.sum;
+		max = Math.max(max, other.max);
+	}
+	
+	/**
+	 * Returns the number of buckets of the histogram.
+	 * 
+	 * @return The number of buckets.
+	 */
+	public int getBucketCount() {
+		return UPPER_BOUNDS.length;
+	}
+	
+	/**
+	 * Returns the upper bound (inclusive) of the given bucket.
+	 * 
+	 * @param bucket The bucket index.
+	 * 
+	 * @return The upper bound in microseconds, {@code Long.MAX_VALUE} for the 
+	 *         last bucket.
+	 * 
+	 * @throws IndexOutOfBoundsException if {@code bucket < 0} or 
+	 *                                   if {@code bucket >= getBucketCount()}.
+	 */
+	public long getBucketUpperBound(int bucket) {
+		return UPPER_BOUNDS[bucket];
+	}
+	
+	/**
+	 * Returns the number of latencies of the given bucket.
+	 * 
+	 * @param bucket The bucket index.
+	 * 
+	 * @return The number of latencies in the bucket.
+	 * 
+	 * @throws IndexOutOfBoundsException if {@code bucket < 0} or 
+	 *                                   if {@code bucket >= getBucketCount()}.
+	 */
+	public long getCount(int bucket) {
+		return counts[bucket];
+	}
+	
+	/**
+	 * Returns the total number of latencies of the histogram.
+	 * 
+	 * @return The number of latencies.
+	 */
+	public long getTotalCount() {
+		return totalCount;
+	}
+	
+	/**
+	 * Returns the mean latency.
+	 * 
+	 * @return The mean latency in microseconds, {@code 0} if the histogram 
+	 *         is empty.
+	 */
+	public double getMean() {
+		return totalCount == 0 ? 0 : (double)sum / totalCount;
+	}
+	
+	/**
+	 * Returns the maximum latency.
+	 * 
+	 * @return The maximum latency in microseconds.
+	 */
+	public long getMax() {
+		return max;
+	}
+	
+	/**
+	 * Returns the upper bound of the bucket containing the given 
+	 * percentile.
+	 * 
+	 * @param percentile The percentile, between 0 and 100.
+	 * 
+	 * @return The upper bound of the bucket in microseconds (the maximum 
+	 *         latency for the last bucket), {@code 0} if the histogram is 
+	 *         empty.
+	 * 
+	 * @throws IllegalArgumentException if {@code percentile < 0} or 
+	 *                                  if {@code percentile > 100}.
+	 */
+	public long getPercentile(double percentile) {
+		if (percentile < 0 || percentile > 100)
+			throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+		if (totalCount == 0)
+			return 0;
+		
+		long target = Math.max(1, (long)Math.ceil(totalCount * percentile / 100));
+		long accumulated = 0;
+		for (int i = 0; i < counts.length; i++) {
+			accumulated += counts[i];
+			if (accumulated >= target)
+				return Math.min(UPPER_BOUNDS[i], max);
+		}
+		return max;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return String.format("count: %d, mean: %.1f us, p50: %d us, p99: %d us, max: %d us", 
+				totalCount, getMean(), getPercentile(50), getPercentile(99), max);
+	}
+}
@@ -0,0 +1,258 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection.capture;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.digi.xbee.api.connection.AbstractQueueConnectionInterface;
+import com.digi.xbee.api.connection.ConnectionType;
+import com.digi.xbee.api.connection.IConnectionInterface;
+import com.digi.xbee.api.exceptions.InterfaceInUseException;
+import com.digi.xbee.api.exceptions.InvalidConfigurationException;
+import com.digi.xbee.api.exceptions.InvalidInterfaceException;
+import com.digi.xbee.api.exceptions.PermissionDeniedException;
+import com.digi.xbee.api.models.OperatingMode;
+
+/**
+ * This class is a connection interface that records all the API frames 
+ * exchanged through another connection interface in a capture file.
+ * 
+ * <p>Use it to wrap the interface of a local XBee device:</p>
+ * 
+ * <pre>
+ * {@code
+ * IConnectionInterface serial = XBee.createConnectiontionInterface("/dev/ttyUSB0", 9600);
+ * XBeeDevice device = new XBeeDevice(new RecordingConnectionInterface(serial, new File("traffic.xbc"), OperatingMode.API));
+ * device.open();
+ * }
+ * </pre>
+ * 
+ * <p>A capture is created every time the interface is opened, so it 
+ * includes the frames exchanged while opening the device. This allows 
+ * {@link ReplayConnectionInterface} to answer those requests when the 
+ * capture is replayed.</p>
+ * 
+ * @see CaptureFileWriter
+ * @see ReplayConnectionInterface
+ * 
+ * @since 1.4.0
+ */
+public class RecordingConnectionInterface extends AbstractQueueConnectionInterface {
+	
+	// Constants.
+	private static final int POLL_TIMEOUT = 100;
+	private static final int BUFFER_SIZE = 4096;
+	
+	// Variables.
+	private final IConnectionInterface connectionInterface;
+	
+	private final File captureFile;
+	
+	private final OperatingMode mode;
+	
+	private CaptureFileWriter writer;
+	
+	private ApiFrameSplitter rxSplitter;
+	private ApiFrameSplitter txSplitter;
+	
+	private Thread pumpThread;
+	
+	private Logger logger = LoggerFactory.getLogger(RecordingConnectionInterface.class);
+	
+	/**
+	 * Class constructor. Instantiates a new 
+	 * {@code RecordingConnectionInterface} with the given parameters.
+	 * 
+	 * @param connectionInterface The connection interface to record.
+	 * @param captureFile The capture data file to create.
+	 * @param mode Operating mode of the XBee device, used to split the 
+	 *             frames.
+	 * 
+	 * @throws IllegalArgumentException if {@code mode != OperatingMode.API} and
+	 *                                  if {@code mode != OperatingMode.API_ESCAPE}.
+	 * @throws NullPointerException if {@code connectionInterface == null} or 
+	 *                              if {@code captureFile == null} or 
+	 *                              if {@code mode == null}.
+	 */
+	public RecordingConnectionInterface(IConnectionInterface connectionInterface, File captureFile, OperatingMode mode) {
+		if (connectionInterface == null)
+			throw new NullPointerException("Connection interface cannot be null.");
+		if (captureFile == null)
+			throw new NullPointerException("Capture file cannot be null.");
+		if (mode == null)
+			throw new NullPointerException("Operating mode cannot be null.");
+		if (mode != OperatingMode.API && mode != OperatingMode.API_ESCAPE)
+			throw new IllegalArgumentException("Operating mode must be API or API Escaped.");
+		
+		this.connectionInterface = connectionInterface;
+		this.captureFile = captureFile;
+		this.mode = mode;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#open()
+	 */
+	@Override
+	public void open() throws InterfaceInUseException, InvalidInterfaceException, InvalidConfigurationException, PermissionDeniedException {
+		connectionInterface.open();
+		try {
+			writer = new CaptureFileWriter(captureFile, mode);
+		} catch (IOException e) {
+			connectionInterface.close();
+			throw new InvalidInterfaceException("Could not create the capture file " + captureFile + ".", e);
+		}
+		rxSplitter = new ApiFrameSplitter(mode == OperatingMode.API_ESCAPE);
+		txSplitter = new ApiFrameSplitter(mode == OperatingMode.API_ESCAPE);
+		inputStream.clear();
+		connectionOpen = true;
+		
+		pumpThread = new Thread(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				pump();
+			}
+		}, "RecordingConnectionInterface-" + captureFile.getName());
+		pumpThread.setDaemon(true);
+		pumpThread.start();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#close()
+	 */
+	@Override
+	public void close() {
+		if (!connectionOpen)
+			return;
+		connectionOpen = false;
+		
+		synchronized (connectionInterface) {
+			connectionInterface.notify();
+		}
+		try {
+			pumpThread.join(POLL_TIMEOUT * 2);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		connectionInterface.close();
+		
+		try {
+			writer.close();
+		} catch (IOException e) {
+			logger.error("Error closing the capture file.", e);
+		}
+		synchronized (this) {
+			notify();
+		}
+	}
+	
+	/**
+	 * Returns the number of frames recorded in the current capture.
+	 * 
+	 * @return The number of recorded frames.
+	 */
+	public long getRecordedFrames() {
+		CaptureFileWriter currentWriter = writer;
+		return currentWriter == null ? 0 : currentWriter.getFrameCount();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.AbstractQueueConnectionInterface#dataWritten(byte[], int, int)
+	 */
+	@Override
+	protected void dataWritten(byte[] data, int offset, int length) throws IOException {
+		connectionInterface.writeData(data, offset, length);
+		synchronized (txSplitter) {
+			record(FrameDirection.TO_DEVICE, txSplitter.feed(data, offset, length));
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.AbstractQueueConnectionInterface#getConnectionType()
+	 */
+	@Override
+	public ConnectionType getConnectionType() {
+		return connectionInterface.getConnectionType();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return connectionInterface.toString();
+	}
+	
+	/**
+	 * Moves the data read from the recorded interface to this one, recording 
+	 * the completed frames.
+	 */
+	private void pump() {
+		byte[] buffer = new byte[BUFFER_SIZE];
+		try {
+			while (connectionOpen) {
+				InputStream in = connectionInterface.getInputStream();
+				if (in == null)
+					break;
+				// The recorded interface notifies itself when data is available.
+				synchronized (connectionInterface) {
+					if (in.available() == 0)
+						connectionInterface.wait(POLL_TIMEOUT);
+				}
+				int available = in.available();
+				if (available <= 0)
+					continue;
+				int read = in.read(buffer, 0, Math.min(buffer.length, available));
+				if (read <= 0)
+					continue;
+				record(FrameDirection.FROM_DEVICE, rxSplitter.feed(buffer, 0, read));
+				deliver(Arrays.copyOf(buffer, read));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (IOException e) {
+			logger.error("Error reading from the recorded connection interface.", e);
+		}
+	}
+	
+	/**
+	 * Appends the given frames to the capture file.
+	 */
+	private void record(FrameDirection direction, List<byte[]> frames) {
+		for (byte[] frame : frames) {
+			try {
+				writer.append(direction, frame, 0, frame.length);
+			} catch (IOException e) {
+				logger.error("Error recording frame.", e);
+			}
+		}
+	}
+}
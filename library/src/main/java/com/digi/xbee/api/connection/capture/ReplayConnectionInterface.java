@@ -0,0 +1,410 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection.capture;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.digi.xbee.api.connection.AbstractQueueConnectionInterface;
+import com.digi.xbee.api.exceptions.InvalidInterfaceException;
+import com.digi.xbee.api.exceptions.InvalidPacketException;
+import com.digi.xbee.api.models.ATCommandStatus;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.packet.APIFrameType;
+import com.digi.xbee.api.packet.XBeeAPIPacket;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.XBeePacketParser;
+import com.digi.xbee.api.packet.common.ATCommandPacket;
+import com.digi.xbee.api.packet.common.ATCommandQueuePacket;
+import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
+
+/**
+ * This class is a connection interface that feeds the frames of a capture 
+ * file to a local XBee device, so traffic can be reproduced without any 
+ * radio attached.
+ * 
+ * <p>While the device is opened, local AT command requests written to the 
+ * interface are answered with the first response to the same command found 
+ * in the capture (with the frame ID of the request), or with an error 
+ * status if the capture does not contain it. Record the capture from the 
+ * moment the device is opened to have all the required responses.</p>
+ * 
+ * <p>Once the device is open, {@link #startReplay()} streams all the frames 
+ * received from the device in the capture, except the AT command 
+ * responses. The frames are delivered with their original timing, scaled 
+ * by the speed factor (see {@link #setSpeedFactor(double)}), or as fast as 
+ * the device reads them with {@link #MAXIMUM_SPEED}.</p>
+ * 
+ * <pre>
+ * {@code
+ * ReplayConnectionInterface replay = new ReplayConnectionInterface(new File("traffic.xbc"));
+ * replay.setSpeedFactor(ReplayConnectionInterface.MAXIMUM_SPEED);
+ * XBeeDevice device = new XBeeDevice(replay);
+ * device.open();
+ * device.addDataListener(listener);
+ * replay.startReplay();
+ * replay.waitForReplay(60000);
+ * }
+ * </pre>
+ * 
+ * @see CaptureFileReader
+ * @see RecordingConnectionInterface
+ * 
+ * @since 1.4.0
+ */
+public class ReplayConnectionInterface extends AbstractQueueConnectionInterface {
+	
+	// Constants.
+	/**
+	 * Speed factor to replay the frames as fast as possible.
+	 */
+	public static final double MAXIMUM_SPEED = Double.POSITIVE_INFINITY;
+	
+	// Maximum pending bytes in maximum speed before waiting for the reader.
+	private static final int MAX_PENDING_BYTES = 64 * 1024;
+	
+	// Variables.
+	private final File captureFile;
+	
+	private volatile double speedFactor = 1.0;
+	
+	private CaptureFileReader reader;
+	
+	private OperatingMode mode;
+	
+	private XBeePacketParser parser = new XBeePacketParser();
+	
+	private HashMap<String, ATCommandResponsePacket> atResponses = new HashMap<>();
+	
+	private Thread replayThread;
+	
+	private volatile CountDownLatch replayFinished = new CountDownLatch(0);
+	
+	private volatile boolean replaying = false;
+	
+	private final AtomicLong replayedFrames = new AtomicLong();
+	
+	private Logger logger = LoggerFactory.getLogger(ReplayConnectionInterface.class);
+	
+	/**
+	 * Class constructor. Instantiates a new 
+	 * {@code ReplayConnectionInterface} for the given capture file.
+	 * 
+	 * @param captureFile The capture data file to replay.
+	 * 
+	 * @throws NullPointerException if {@code captureFile == null}.
+	 */
+	public ReplayConnectionInterface(File captureFile) {
+		if (captureFile == null)
+			throw new NullPointerException("Capture file cannot be null.");
+		
+		this.captureFile = captureFile;
+	}
+	
+	/**
+	 * Sets the speed factor of the replay.
+	 * 
+	 * @param speedFactor {@code 1} to replay the frames with their original 
+	 *                    timing, greater values to replay them faster, 
+	 *                    lower values to replay them slower, and 
+	 *                    {@link #MAXIMUM_SPEED} to replay them as fast as 
+	 *                    possible.
+	 * 
+	 * @throws IllegalArgumentException if {@code speedFactor <= 0}.
+	 * 
+	 * @see #getSpeedFactor()
+	 */
+	public void setSpeedFactor(double speedFactor) {
+		if (!(speedFactor > 0))
+			throw new IllegalArgumentException("Speed factor must be greater than 0.");
+		
+		this.speedFactor = speedFactor;
+	}
+	
+	/**
+	 * Returns the speed factor of the replay.
+	 * 
+	 * @return The speed factor of the replay.
+	 * 
+	 * @see #setSpeedFactor(double)
+	 */
+	public double getSpeedFactor() {
+		return speedFactor;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#open()
+	 */
+	@Override
+	public void open() throws InvalidInterfaceException {
+		if (reader != null)
+			reader.close();
+		try {
+			reader = new CaptureFileReader(captureFile);
+		} catch (IOException e) {
+			throw new InvalidInterfaceException("Could not read the capture file " + captureFile + ".", e);
+		}
+		mode = reader.getOperatingMode();
+		
+		// Keep the first response of every AT command to answer the requests.
+		atResponses.clear();
+		for (int i = 0; i < reader.getFrameCount(); i++) {
+			CapturedFrame frame = reader.getFrame(i);
+			if (frame.getDirection() != FrameDirection.FROM_DEVICE 
+					|| getFrameType(frame.getData()) != APIFrameType.AT_COMMAND_RESPONSE.getValue())
+				continue;
+			try {
+				ATCommandResponsePacket response = (ATCommandResponsePacket)parser.parsePacket(frame.getData(), mode);
+				if (!atResponses.containsKey(response.getCommand()))
+					atResponses.put(response.getCommand(), response);
+			} catch (InvalidPacketException | ClassCastException e) {
+				logger.debug("Invalid AT command response in frame {}.", i);
+			}
+		}
+		
+		inputStream.clear();
+		replayedFrames.set(0);
+		connectionOpen = true;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#close()
+	 */
+	@Override
+	public void close() {
+		stopReplay();
+		// Do not release the capture while it is being replayed.
+		Thread thread = replayThread;
+		if (thread != null) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		connectionOpen = false;
+		synchronized (this) {
+			if (reader != null) {
+				reader.close();
+				reader = null;
+			}
+			notify();
+		}
+	}
+	
+	/**
+	 * Starts streaming the frames of the capture in a new thread.
+	 * 
+	 * @throws IllegalStateException if the interface is not open or 
+	 *                               if the replay is already running.
+	 * 
+	 * @see #stopReplay()
+	 * @see #waitForReplay(long)
+	 */
+	public synchronized void startReplay() {
+		if (!connectionOpen)
+			throw new IllegalStateException("The connection interface is closed.");
+		if (replaying)
+			throw new IllegalStateException("The replay is already running.");
+		
+		replaying = true;
+		replayFinished = new CountDownLatch(1);
+		replayThread = new Thread(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				try {
+					replay();
+				} finally {
+					replaying = false;
+					replayFinished.countDown();
+				}
+			}
+		}, "ReplayConnectionInterface-" + captureFile.getName());
+		replayThread.setDaemon(true);
+		replayThread.start();
+	}
+	
+	/**
+	 * Stops streaming the frames of the capture.
+	 * 
+	 * @see #startReplay()
+	 */
+	public void stopReplay() {
+		replaying = false;
+		Thread thread = replayThread;
+		if (thread != null)
+			thread.interrupt();
+	}
+	
+	/**
+	 * Waits until all the frames of the capture have been delivered and 
+	 * read.
+	 * 
+	 * @param timeout Maximum time to wait in milliseconds.
+	 * 
+	 * @return {@code true} if the replay finished, {@code false} if the 
+	 *         timeout expired.
+	 * 
+	 * @throws InterruptedException if the thread is interrupted while 
+	 *                              waiting.
+	 */
+	public boolean waitForReplay(long timeout) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + timeout;
+		if (!replayFinished.await(timeout, TimeUnit.MILLISECONDS))
+			return false;
+		while (inputStream.available() > 0) {
+			if (System.currentTimeMillis() >= deadline)
+				return false;
+			Thread.sleep(1);
+		}
+		return true;
+	}
+	
+	/**
+	 * Returns whether the frames of the capture are being streamed.
+	 * 
+	 * @return {@code true} if the replay is running, {@code false} otherwise.
+	 */
+	public boolean isReplaying() {
+		return replaying;
+	}
+	
+	/**
+	 * Returns the number of frames delivered by the current replay.
+	 * 
+	 * @return The number of replayed frames.
+	 */
+	public long getReplayedFrames() {
+		return replayedFrames.get();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.AbstractQueueConnectionInterface#dataWritten(byte[], int, int)
+	 */
+	@Override
+	protected void dataWritten(byte[] data, int offset, int length) throws IOException {
+		byte[] frame = new byte[length];
+		System.arraycopy(data, offset, frame, 0, length);
+		
+		XBeePacket packet;
+		try {
+			packet = parser.parsePacket(frame, mode);
+		} catch (InvalidPacketException e) {
+			logger.debug("Ignoring invalid frame written to the replay interface.");
+			return;
+		}
+		
+		String command;
+		if (packet instanceof ATCommandPacket)
+			command = ((ATCommandPacket)packet).getCommand();
+		else if (packet instanceof ATCommandQueuePacket)
+			command = ((ATCommandQueuePacket)packet).getCommand();
+		else
+			return;
+		
+		int frameID = ((XBeeAPIPacket)packet).getFrameID();
+		ATCommandResponsePacket recorded = atResponses.get(command);
+		ATCommandResponsePacket response;
+		if (recorded != null)
+			response = new ATCommandResponsePacket(frameID, recorded.getStatus(), command, recorded.getCommandValue());
+		else
+			response = new ATCommandResponsePacket(frameID, ATCommandStatus.ERROR, command, null);
+		deliver(mode == OperatingMode.API_ESCAPE ? response.generateByteArrayEscaped() : response.generateByteArray());
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "[Replay " + captureFile.getName() + "] ";
+	}
+	
+	/**
+	 * Delivers the frames received from the device in the capture.
+	 */
+	private void replay() {
+		CaptureFileReader capture = reader;
+		long startNanos = System.nanoTime();
+		long firstTimestamp = -1;
+		
+		for (int i = 0; i < capture.getFrameCount() && replaying; i++) {
+			CapturedFrame frame = capture.getFrame(i);
+			if (frame.getDirection() != FrameDirection.FROM_DEVICE 
+					|| getFrameType(frame.getData()) == APIFrameType.AT_COMMAND_RESPONSE.getValue())
+				continue;
+			
+			try {
+				double speed = speedFactor;
+				if (firstTimestamp < 0)
+					firstTimestamp = frame.getTimestamp();
+				if (speed == MAXIMUM_SPEED) {
+					// Do not let the pending data grow without limit.
+					while (inputStream.available() > MAX_PENDING_BYTES && replaying)
+						Thread.sleep(1);
+				} else {
+					long due = startNanos + (long)((frame.getTimestamp() - firstTimestamp) / speed);
+					long wait = due - System.nanoTime();
+					if (wait > 0)
+						TimeUnit.NANOSECONDS.sleep(wait);
+				}
+			} catch (InterruptedException e) {
+				break;
+			}
+			deliver(frame.getData());
+			replayedFrames.incrementAndGet();
+		}
+	}
+	
+	/**
+	 * Returns the frame type of the given raw frame.
+	 * 
+	 * @param frame The raw frame.
+	 * 
+	 * @return The frame type, {@code -1} if the frame is too short.
+	 */
+	private int getFrameType(byte[] frame) {
+		// Skip header and length (which may contain escaped bytes).
+		int position = 1;
+		for (int decoded = 0; position < frame.length; position++) {
+			if (mode == OperatingMode.API_ESCAPE && (frame[position] & 0xFF) == 0x7D) {
+				position++;
+				if (position >= frame.length)
+					return -1;
+				if (decoded == 2)
+					return (frame[position] & 0xFF) ^ 0x20;
+			} else if (decoded == 2)
+				return frame[position] & 0xFF;
+			decoded++;
+		}
+		return -1;
+	}
+}
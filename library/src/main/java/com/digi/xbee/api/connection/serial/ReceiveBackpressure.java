@@ -0,0 +1,217 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection.serial;
+
+/**
+ * This class stops the reception of a serial port using the RTS line when 
+ * the received frames are not processed fast enough.
+ * 
+ * <p>The occupancy of the receive pipeline is the number of listener 
+ * notifications of received frames not finished yet and, optionally, the 
+ * number of packets in the queue of read packets. When the occupancy 
+ * reaches the high watermark, the RTS line is deasserted so the module 
+ * keeps the new data in its own buffer. RTS is asserted again when the 
+ * occupancy drops to the low watermark.</p>
+ * 
+ * <p>The XBee module must be configured to honor RTS ({@code D6} set to 
+ * RTS flow control) and the serial port must use hardware flow control.</p>
+ * 
+ * @see com.digi.xbee.api.XBeeDevice#setReceiveBackpressure(ReceiveBackpressure)
+ * 
+ * @since 1.4.0
+ */
+public class ReceiveBackpressure {
+	
+	// Constants.
+	/**
+	 * Default occupancy to deassert RTS (value: {@value}).
+	 */
+	public static final int DEFAULT_HIGH_WATERMARK = 40;
+	
+	/**
+	 * Default occupancy to assert RTS again (value: {@value}).
+	 */
+	public static final int DEFAULT_LOW_WATERMARK = 20;
+	
+	// Variables.
+	private final int highWatermark;
+	private final int lowWatermark;
+	
+	private final boolean queueIncluded;
+	
+	private boolean paused = false;
+	
+	private long pauses = 0;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code ReceiveBackpressure} with 
+	 * the default watermarks that only takes into account the pending 
+	 * listener notifications.
+	 * 
+	 * @see #DEFAULT_HIGH_WATERMARK
+	 * @see #DEFAULT_LOW_WATERMARK
+	 */
+	public ReceiveBackpressure() {
+		this(DEFAULT_HIGH_WATERMARK, DEFAULT_LOW_WATERMARK, false);
+	}
+	
+	/**
+	 * Class constructor. Instantiates a new {@code ReceiveBackpressure} with 
+	 * the given watermarks.
+	 * 
+	 * <p>Only include the queue of read packets if the application reads 
+	 * them (for example, with {@code readData()}). Otherwise, the queue is 
+	 * never emptied and the reception would stay stopped.</p>
+	 * 
+	 * @param highWatermark Occupancy to deassert RTS.
+	 * @param lowWatermark Occupancy to assert RTS again.
+	 * @param queueIncluded {@code true} to add the packets in the queue of 
+	 *                      read packets to the occupancy, {@code false} 
+	 *                      otherwise.
+	 * 
+	 * @throws IllegalArgumentException if {@code lowWatermark < 0} or 
+	 *                                  if {@code highWatermark <= lowWatermark}.
+	 */
+	public ReceiveBackpressure(int highWatermark, int lowWatermark, boolean queueIncluded) {
+		if (lowWatermark < 0)
+			throw new IllegalArgumentException("Low watermark cannot be less than 0.");
+		if (highWatermark <= lowWatermark)
+			throw new IllegalArgumentException("High watermark must be greater than the low watermark.");
+		
+		this.highWatermark = highWatermark;
+		this.lowWatermark = lowWatermark;
+		this.queueIncluded = queueIncluded;
+	}
+	
+	/**
+	 * Updates the state of the RTS line of the given port for the current 
+	 * occupancy of the receive pipeline.
+	 * 
+	 * <p>The occupancy is read while holding the lock of this object, so 
+	 * concurrent updates always apply the latest occupancy.</p>
+	 * 
+	 * <p>Nothing is done if the port does not use hardware flow control.</p>
+	 * 
+	 * @param port The serial port.
+	 * @param provider The provider of the occupancy.
+	 * 
+	 * @throws NullPointerException if {@code port == null} or 
+	 *                              if {@code provider == null}.
+	 */
+	public synchronized void update(AbstractSerialPort port, IOccupancyProvider provider) {
+		if (port == null)
+			throw new NullPointerException("Serial port cannot be null.");
+		if (provider == null)
+			throw new NullPointerException("Occupancy provider cannot be null.");
+		
+		int occupancy = provider.getOccupancy(queueIncluded);
+		if (!paused && occupancy >= highWatermark && port.isHardwareFlowControl()) {
+			port.setRTS(false);
+			paused = true;
+			pauses++;
+		} else if (paused && occupancy <= lowWatermark) {
+			port.setRTS(true);
+			paused = false;
+		}
+	}
+	
+	/**
+	 * Asserts the RTS line of the given port if it was deasserted by this 
+	 * object.
+	 * 
+	 * @param port The serial port.
+	 * 
+	 * @throws NullPointerException if {@code port == null}.
+	 */
+	public synchronized void release(AbstractSerialPort port) {
+		if (port == null)
+			throw new NullPointerException("Serial port cannot be null.");
+		
+		if (paused) {
+			port.setRTS(true);
+			paused = false;
+		}
+	}
+	
+	/**
+	 * Returns the occupancy to deassert RTS.
+	 * 
+	 * @return The high watermark.
+	 */
+	public int getHighWatermark() {
+		return highWatermark;
+	}
+	
+	/**
+	 * Returns the occupancy to assert RTS again.
+	 * 
+	 * @return The low watermark.
+	 */
+	public int getLowWatermark() {
+		return lowWatermark;
+	}
+	
+	/**
+	 * Returns whether the packets in the queue of read packets are part of 
+	 * the occupancy.
+	 * 
+	 * @return {@code true} if the queue of read packets is included, 
+	 *         {@code false} otherwise.
+	 */
+	public boolean isQueueIncluded() {
+		return queueIncluded;
+	}
+	
+	/**
+	 * Returns whether the reception is stopped.
+	 * 
+	 * @return {@code true} if RTS is deasserted, {@code false} otherwise.
+	 */
+	public synchronized boolean isPaused() {
+		return paused;
+	}
+	
+	/**
+	 * Returns the number of times the reception has been stopped.
+	 * 
+	 * @return The number of times RTS has been deasserted.
+	 */
+	public synchronized long getPauseCount() {
+		return pauses;
+	}
+	
+	/**
+	 * Interface used to read the occupancy of the receive pipeline.
+	 * 
+	 * @see ReceiveBackpressure#update(AbstractSerialPort, IOccupancyProvider)
+	 */
+	public interface IOccupancyProvider {
+		
+		/**
+		 * Returns the number of received frames not processed yet.
+		 * 
+		 * <p>This method is called while holding the lock of the 
+		 * backpressure, so it must return quickly and must not wait for 
+		 * other threads.</p>
+		 * 
+		 * @param queueIncluded {@code true} to add the packets in the queue 
+		 *                      of read packets, {@code false} otherwise.
+		 * 
+		 * @return The occupancy of the receive pipeline.
+		 */
+		int getOccupancy(boolean queueIncluded);
+	}
+}
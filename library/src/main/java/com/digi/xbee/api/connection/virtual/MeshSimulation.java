@@ -0,0 +1,252 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection.virtual;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.XBeeDevice;
+import com.digi.xbee.api.XBeeNetwork;
+import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.listeners.IDiscoveryListener;
+
+/**
+ * This class drives an {@code XBeeDevice} connected to a 
+ * {@link VirtualMeshNetwork} to measure how the library scales with the 
+ * number of remote nodes.
+ * 
+ * <p>Every run opens the device, discovers the whole network measuring the 
+ * discovery time and the memory used by the discovered remote devices, 
+ * and then sends data to the discovered nodes (round robin) during the 
+ * configured time to measure the sustained send throughput.</p>
+ * 
+ * <pre>
+ * {@code
+ * MeshSimulation simulation = new MeshSimulation();
+ * simulation.setSenderThreads(4);
+ * for (int nodes : new int[] {5000, 10000, 20000})
+ *     System.out.println(simulation.run(new VirtualMeshNetwork(nodes)));
+ * }
+ * </pre>
+ * 
+ * @see MeshSimulationReport
+ * 
+ * @since 1.4.0
+ */
+public class MeshSimulation {
+	
+	// Constants.
+	private static final long DEFAULT_DISCOVERY_TIMEOUT = 6000;
+	private static final long DEFAULT_SEND_DURATION = 10000;
+	
+	// Extra time to wait for the end of the discovery.
+	private static final long DISCOVERY_MARGIN = 30000;
+	
+	// Variables.
+	private long discoveryTimeout = DEFAULT_DISCOVERY_TIMEOUT;
+	private long sendDuration = DEFAULT_SEND_DURATION;
+	
+	private int senderThreads = 1;
+	private int payloadSize = 16;
+	
+	/**
+	 * Sets the discovery timeout configured in the network.
+	 * 
+	 * @param discoveryTimeout The discovery timeout in milliseconds.
+	 * 
+	 * @throws IllegalArgumentException if {@code discoveryTimeout < 100}.
+	 */
+	public void setDiscoveryTimeout(long discoveryTimeout) {
+		if (discoveryTimeout < 100)
+			throw new IllegalArgumentException("Discovery timeout must be at least 100 ms.");
+		
+		this.discoveryTimeout = discoveryTimeout;
+	}
+	
+	/**
+	 * Sets the duration of the send test.
+	 * 
+	 * @param sendDuration The duration in milliseconds, {@code 0} to skip 
+	 *                     the send test.
+	 * 
+	 * @throws IllegalArgumentException if {@code sendDuration < 0}.
+	 */
+	public void setSendDuration(long sendDuration) {
+		if (sendDuration < 0)
+			throw new IllegalArgumentException("Send duration cannot be less than 0.");
+		
+		this.sendDuration = sendDuration;
+	}
+	
+	/**
+	 * Sets the number of threads sending data concurrently.
+	 * 
+	 * @param senderThreads The number of sender threads.
+	 * 
+	 * @throws IllegalArgumentException if {@code senderThreads < 1}.
+	 */
+	public void setSenderThreads(int senderThreads) {
+		if (senderThreads < 1)
+			throw new IllegalArgumentException("Sender threads must be at least 1.");
+		
+		this.senderThreads = senderThreads;
+	}
+	
+	/**
+	 * Sets the size of the data sent to every node.
+	 * 
+	 * @param payloadSize The payload size in bytes.
+	 * 
+	 * @throws IllegalArgumentException if {@code payloadSize < 1}.
+	 */
+	public void setPayloadSize(int payloadSize) {
+		if (payloadSize < 1)
+			throw new IllegalArgumentException("Payload size must be at least 1.");
+		
+		this.payloadSize = payloadSize;
+	}
+	
+	/**
+	 * Runs the simulation against the given virtual network.
+	 * 
+	 * <p>The device is closed at the end of the run.</p>
+	 * 
+	 * @param network The virtual network to use.
+	 * 
+	 * @return The results of the simulation.
+	 * 
+	 * @throws InterruptedException if the thread is interrupted.
+	 * @throws NullPointerException if {@code network == null}.
+	 * @throws XBeeException if the device cannot be opened or configured.
+	 */
+	public MeshSimulationReport run(VirtualMeshNetwork network) throws XBeeException, InterruptedException {
+		if (network == null)
+			throw new NullPointerException("Network cannot be null.");
+		
+		XBeeDevice device = new XBeeDevice(network);
+		try {
+			device.open();
+			XBeeNetwork xbeeNetwork = device.getNetwork();
+			xbeeNetwork.clearDeviceList();
+			xbeeNetwork.setDiscoveryTimeout(discoveryTimeout);
+			
+			// Discovery.
+			final CountDownLatch finished = new CountDownLatch(1);
+			IDiscoveryListener listener = new IDiscoveryListener() {
+				@Override
+				public void deviceDiscovered(RemoteXBeeDevice discoveredDevice) {}
+				
+				@Override
+				public void discoveryError(String error) {}
+				
+				@Override
+				public void discoveryFinished(String error) {
+					finished.countDown();
+				}
+			};
+			xbeeNetwork.addDiscoveryListener(listener);
+			long memoryBefore = getUsedMemory();
+			long start = System.nanoTime();
+			xbeeNetwork.startDiscoveryProcess();
+			finished.await(discoveryTimeout + DISCOVERY_MARGIN, TimeUnit.MILLISECONDS);
+			long discoveryTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			xbeeNetwork.removeDiscoveryListener(listener);
+			
+			List<RemoteXBeeDevice> remotes = xbeeNetwork.getDevices();
+			long memoryPerRemote = remotes.isEmpty() ? 0 : 
+				Math.max(0, getUsedMemory() - memoryBefore) / remotes.size();
+			
+			// Send throughput.
+			long[] results = remotes.isEmpty() || sendDuration == 0 ? 
+					new long[] {0, 0, 0} : send(device, remotes);
+			
+			return new MeshSimulationReport(network.getNodeCount(), remotes.size(), discoveryTime, 
+					memoryPerRemote, results[0], results[1], results[2]);
+		} finally {
+			if (device.isOpen())
+				device.close();
+		}
+	}
+	
+	/**
+	 * Sends data to the given remote devices during the send duration.
+	 * 
+	 * @param device The local device.
+	 * @param remotes The remote devices.
+	 * 
+	 * @return The number of sent frames, failed frames and the elapsed time 
+	 *         in milliseconds.
+	 * 
+	 * @throws InterruptedException if the thread is interrupted.
+	 */
+	private long[] send(final XBeeDevice device, final List<RemoteXBeeDevice> remotes) throws InterruptedException {
+		final AtomicLong sent = new AtomicLong();
+		final AtomicLong failed = new AtomicLong();
+		final AtomicLong next = new AtomicLong();
+		final byte[] payload = new byte[payloadSize];
+		final long start = System.nanoTime();
+		final long end = start + TimeUnit.MILLISECONDS.toNanos(sendDuration);
+		
+		Thread[] threads = new Thread[senderThreads];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(new Runnable() {
+				/*
+				 * (non-Javadoc)
+				 * @see java.lang.Runnable#run()
+				 */
+				@Override
+				public void run() {
+					while (System.nanoTime() < end) {
+						RemoteXBeeDevice remote = remotes.get((int)(next.getAndIncrement() % remotes.size()));
+						try {
+							device.sendData(remote, payload);
+							sent.incrementAndGet();
+						} catch (XBeeException e) {
+							failed.incrementAndGet();
+						}
+					}
+				}
+			}, "MeshSimulation-sender-" + i);
+			threads[i].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		
+		return new long[] {sent.get(), failed.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)};
+	}
+	
+	/**
+	 * Returns the used heap after a garbage collection.
+	 * 
+	 * @return The used heap in bytes.
+	 */
+	private static long getUsedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection.virtual;
+
+/**
+ * This class contains the results of a {@link MeshSimulation} run.
+ * 
+ * @since 1.4.0
+ */
+public class MeshSimulationReport {
+	
+	// Variables.
+	private final int nodeCount;
+	private final int discoveredNodes;
+	
+	private final long discoveryTime;
+	private final long memoryPerRemote;
+	
+	private final long sentFrames;
+	private final long failedFrames;
+	private final long sendTime;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code MeshSimulationReport} with 
+	 * the given results.
+	 * 
+	 * @param nodeCount Number of nodes of the simulated network.
+	 * @param discoveredNodes Number of discovered nodes.
+	 * @param discoveryTime Duration of the discovery in milliseconds.
+	 * @param memoryPerRemote Heap used by every discovered remote device in 
+	 *                        bytes.
+	 * @param sentFrames Number of frames sent successfully.
+	 * @param failedFrames Number of frames whose transmission failed.
+	 * @param sendTime Duration of the send test in milliseconds.
+	 */
+	public MeshSimulationReport(int nodeCount, int discoveredNodes, long discoveryTime, 
+			long memoryPerRemote, long sentFrames, long failedFrames, long sendTime) {
+		this.nodeCount = nodeCount;
+		this.discoveredNodes = discoveredNodes;
+		this.discoveryTime = discoveryTime;
+		this.memoryPerRemote = memoryPerRemote;
+		this.sentFrames = sentFrames;
+		this.failedFrames = failedFrames;
+		this.sendTime = sendTime;
+	}
+	
+	/**
+	 * Returns the number of nodes of the simulated network.
+	 * 
+	 * @return The number of nodes.
+	 */
+	public int getNodeCount() {
+		return nodeCount;
+	}
+	
+	/**
+	 * Returns the number of nodes found by the discovery.
+	 * 
+	 * @return The number of discovered nodes.
+	 */
+	public int getDiscoveredNodes() {
+		return discoveredNodes;
+	}
+	
+	/**
+	 * Returns the duration of the discovery.
+	 * 
+	 * @return The discovery time in milliseconds.
+	 */
+	public long getDiscoveryTime() {
+		return discoveryTime;
+	}
+	
+	/**
+	 * Returns the heap used by every discovered remote device.
+	 * 
+	 * <p>This is an estimation based on the used heap before and after the 
+	 * discovery.</p>
+	 * 
+	 * @return The memory per remote device in bytes.
+	 */
+	public long getMemoryPerRemote() {
+		return memoryPerRemote;
+	}
+	
+	/**
+	 * Returns the number of frames sent successfully.
+	 * 
+	 * @return The number of sent frames.
+	 */
+	public long getSentFrames() {
+		return sentFrames;
+	}
+	
+	/**
+	 * Returns the number of frames whose transmission failed.
+	 * 
+	 * @return The number of failed frames.
+	 */
+	public long getFailedFrames() {
+		return failedFrames;
+	}
+	
+	/**
+	 * Returns the sustained send throughput.
+	 * 
+	 * @return The number of frames sent successfully per second.
+	 */
+	public double getSendThroughput() {
+		return sendTime > 0 ? sentFrames * 1000.0 / sendTime : 0;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return String.format("nodes: %d, discovered: %d, discovery: %d ms, memory/remote: %d bytes, "
+				+ "sent: %d, failed: %d, throughput: %.1f frames/s", nodeCount, discoveredNodes, 
+				discoveryTime, memoryPerRemote, sentFrames, failedFrames, getSendThroughput());
+	}
+}
@@ -0,0 +1,774 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection.virtual;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.digi.xbee.api.models.ATCommandStatus;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeeTransmitStatus;
+import com.digi.xbee.api.packet.XBeeAPIPacket;
+import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
+import com.digi.xbee.api.packet.common.ExplicitAddressingPacket;
+import com.digi.xbee.api.packet.common.IODataSampleRxIndicatorPacket;
+import com.digi.xbee.api.packet.common.RemoteATCommandPacket;
+import com.digi.xbee.api.packet.common.RemoteATCommandResponsePacket;
+import com.digi.xbee.api.packet.common.TransmitPacket;
+import com.digi.xbee.api.packet.raw.TX16Packet;
+import com.digi.xbee.api.packet.raw.TX64Packet;
+import com.digi.xbee.api.utils.ByteUtils;
+
+/**
+ * This class represents a virtual XBee mesh network: a 
+ * {@link VirtualXBeeRadio} with a number of virtual remote nodes behind it.
+ * 
+ * <p>The remote nodes do not have any per-node object, their addresses and 
+ * node identifiers are derived from their index, so networks of tens of 
+ * thousands of nodes can be simulated with a small memory footprint:</p>
+ * <ul>
+ * <li>64-bit address: {@code 0013A20041000000} plus the index.</li>
+ * <li>16-bit address: the index plus one.</li>
+ * <li>Node identifier: {@code NODE-<index>}.</li>
+ * <li>Hops from the local radio: {@code 1 + index % maxHops}.</li>
+ * </ul>
+ * 
+ * <p>The network answers:</p>
+ * <ul>
+ * <li>Node discovery ({@code ND}) with the responses of the nodes spread 
+ * randomly along the discovery time ({@code NT}), followed by the end of 
+ * discovery response. Nodes that cannot answer within {@code NT} are 
+ * not reported. The maximum discovery time ({@code N?}) is {@code NT} 
+ * plus one second for the responses to reach the host.</li>
+ * <li>Remote AT commands with the values of the node (see 
+ * {@link #setRemoteParameter(String, byte[])}).</li>
+ * <li>Transmit requests with a status that depends on the route to the 
+ * node.</li>
+ * </ul>
+ * 
+ * <p>Every hop adds {@link #setHopLatency(long)} milliseconds to the 
+ * response time and may lose the frame with {@link #setHopLossRate(double)} 
+ * probability. Routes to single nodes can be broken with 
+ * {@link #setRouteFailed(int, boolean)}.</p>
+ * 
+ * <p>The node discovery responses use the Zigbee and DigiMesh format.</p>
+ * 
+ * @see MeshSimulation
+ * 
+ * @since 1.4.0
+ */
+public class VirtualMeshNetwork extends VirtualXBeeRadio {
+	
+	// Constants.
+	/**
+	 * Maximum number of remote nodes of the network.
+	 */
+	public static final int MAX_NODES = 0xFFFD;
+	
+	private static final long BASE_64BIT_ADDRESS = 0x0013A20041000000L;
+	
+	private static final String NODE_ID_PREFIX = "NODE-";
+	
+	private static final String ND_COMMAND = "ND";
+	private static final String NT_COMMAND = "NT";
+	private static final String MAX_DISCOVERY_TIME_COMMAND = "N?";
+	
+	// Time added to NT in N? for the last responses to reach the host (ms).
+	private static final long PROPAGATION_TIME = 1000;
+	
+	// Minimum time between the last discovery response and the end of the 
+	// discovery, so the host processes the responses first (ms).
+	private static final long END_OF_DISCOVERY_GAP = 200;
+	
+	// Node index of broadcast and unknown destinations.
+	private static final int BROADCAST_NODE = -1;
+	private static final int UNKNOWN_NODE = -2;
+	
+	// Maximum number of IO samples generated in a single run.
+	private static final int MAX_SAMPLES_PER_RUN = 4096;
+	
+	// Variables.
+	private final int nodeCount;
+	
+	private final BitSet failedRoutes = new BitSet();
+	
+	private final Map<String, byte[]> remoteParameters = new ConcurrentHashMap<>();
+	
+	private volatile int maxHops = 1;
+	
+	private volatile long hopLatency = 0;
+	
+	private volatile double hopLossRate = 0;
+	
+	private final AtomicInteger discoveryGeneration = new AtomicInteger();
+	
+	private final AtomicLong discoveryResponses = new AtomicLong();
+	private final AtomicLong ioSamples = new AtomicLong();
+	
+	/**
+	 * Class constructor. Instantiates a new {@code VirtualMeshNetwork} 
+	 * working in API mode with the given number of remote nodes.
+	 * 
+	 * @param nodeCount Number of remote nodes of the network.
+	 * 
+	 * @throws IllegalArgumentException if {@code nodeCount < 0} or 
+	 *                                  if {@code nodeCount > MAX_NODES}.
+	 */
+	public VirtualMeshNetwork(int nodeCount) {
+		this(OperatingMode.API, nodeCount);
+	}
+	
+	/**
+	 * Class constructor. Instantiates a new {@code VirtualMeshNetwork} 
+	 * working in the given operating mode with the given number of remote 
+	 * nodes.
+	 * 
+	 * @param mode The operating mode of the local radio, 
+	 *             {@link OperatingMode#API} or 
+	 *             {@link OperatingMode#API_ESCAPE}.
+	 * @param nodeCount Number of remote nodes of the network.
+	 * 
+	 * @throws IllegalArgumentException if {@code mode} is not 
+	 *                                  {@code OperatingMode.API} or 
+	 *                                  {@code OperatingMode.API_ESCAPE} or 
+	 *                                  if {@code nodeCount < 0} or 
+	 *                                  if {@code nodeCount > MAX_NODES}.
+	 * @throws NullPointerException if {@code mode == null}.
+	 */
+	public VirtualMeshNetwork(OperatingMode mode, int nodeCount) {
+		super(mode);
+		
+		if (nodeCount < 0 || nodeCount > MAX_NODES)
+			throw new IllegalArgumentException("Node count must be between 0 and " + MAX_NODES + ".");
+		
+		this.nodeCount = nodeCount;
+		
+		remoteParameters.put("HV", getParameter("HV"));
+		remoteParameters.put("VR", getParameter("VR"));
+		remoteParameters.put("AP", new byte[] {(byte)OperatingMode.API.getID()});
+		remoteParameters.put("AI", new byte[] {0x00});
+		remoteParameters.put("PL", new byte[] {0x04});
+		remoteParameters.put("IR", new byte[] {0x00});
+		remoteParameters.put("IC", new byte[] {0x00});
+		remoteParameters.put("DH", new byte[] {0x00});
+		remoteParameters.put("DL", new byte[] {0x00});
+		remoteParameters.put("%V", new byte[] {0x0C, (byte)0xE4});
+		remoteParameters.put("DB", new byte[] {0x28});
+		
+		updateMaxDiscoveryTime(ByteUtils.byteArrayToLong(getParameter(NT_COMMAND)));
+	}
+	
+	/**
+	 * Returns the number of remote nodes of the network.
+	 * 
+	 * @return The number of remote nodes.
+	 */
+	public int getNodeCount() {
+		return nodeCount;
+	}
+	
+	/**
+	 * Returns the 64-bit address of the given remote node.
+	 * 
+	 * @param index The index of the node.
+	 * 
+	 * @return The 64-bit address of the node.
+	 * 
+	 * @throws IndexOutOfBoundsException if {@code index < 0} or 
+	 *                                   if {@code index >= getNodeCount()}.
+	 */
+	public XBee64BitAddress getNode64BitAddress(int index) {
+		checkIndex(index);
+		return new XBee64BitAddress(ByteUtils.longToByteArray(BASE_64BIT_ADDRESS + index));
+	}
+	
+	/**
+	 * Returns the 16-bit address of the given remote node.
+	 * 
+	 * @param index The index of the node.
+	 * 
+	 * @return The 16-bit address of the node.
+	 * 
+	 * @throws IndexOutOfBoundsException if {@code index < 0} or 
+	 *                                   if {@code index >= getNodeCount()}.
+	 */
+	public XBee16BitAddress getNode16BitAddress(int index) {
+		checkIndex(index);
+		return new XBee16BitAddress((index + 1) >> 8, (index + 1) & 0xFF);
+	}
+	
+	/**
+	 * Returns the node identifier of the given remote node.
+	 * 
+	 * @param index The index of the node.
+	 * 
+	 * @return The node identifier of the node.
+	 * 
+	 * @throws IndexOutOfBoundsException if {@code index < 0} or 
+	 *                                   if {@code index >= getNodeCount()}.
+	 */
+	public String getNodeID(int index) {
+		checkIndex(index);
+		return NODE_ID_PREFIX + index;
+	}
+	
+	/**
+	 * Returns the number of hops between the local radio and the given 
+	 * remote node.
+	 * 
+	 * @param index The index of the node.
+	 * 
+	 * @return The number of hops to the node.
+	 * 
+	 * @throws IndexOutOfBoundsException if {@code index < 0} or 
+	 *                                   if {@code index >= getNodeCount()}.
+	 * 
+	 * @see #setMaxHops(int)
+	 */
+	public int getHops(int index) {
+		checkIndex(index);
+		return 1 + index % maxHops;
+	}
+	
+	/**
+	 * Sets the maximum number of hops between the local radio and the remote 
+	 * nodes.
+	 * 
+	 * @param maxHops The maximum number of hops.
+	 * 
+	 * @throws IllegalArgumentException if {@code maxHops < 1} or 
+	 *                                  if {@code maxHops > 32}.
+	 * 
+	 * @see #getHops(int)
+	 */
+	public void setMaxHops(int maxHops) {
+		if (maxHops < 1 || maxHops > 32)
+			throw new IllegalArgumentException("Maximum hops must be between 1 and 32.");
+		
+		this.maxHops = maxHops;
+	}
+	
+	/**
+	 * Returns the maximum number of hops between the local radio and the 
+	 * remote nodes.
+	 * 
+	 * @return The maximum number of hops.
+	 * 
+	 * @see #setMaxHops(int)
+	 */
+	public int getMaxHops() {
+		return maxHops;
+	}
+	
+	/**
+	 * Sets the latency added by every hop.
+	 * 
+	 * @param hopLatency The latency of every hop in milliseconds.
+	 * 
+	 * @throws IllegalArgumentException if {@code hopLatency < 0}.
+	 * 
+	 * @see #getHopLatency()
+	 */
+	public void setHopLatency(long hopLatency) {
+		if (hopLatency < 0)
+			throw new IllegalArgumentException("Hop latency cannot be less than 0.");
+		
+		this.hopLatency = hopLatency;
+	}
+	
+	/**
+	 * Returns the latency added by every hop.
+	 * 
+	 * @return The latency of every hop in milliseconds.
+	 * 
+	 * @see #setHopLatency(long)
+	 */
+	public long getHopLatency() {
+		return hopLatency;
+	}
+	
+	/**
+	 * Sets the probability of losing a frame in every hop.
+	 * 
+	 * @param hopLossRate The loss rate of every hop, between 0 and 1.
+	 * 
+	 * @throws IllegalArgumentException if {@code hopLossRate < 0} or 
+	 *                                  if {@code hopLossRate > 1}.
+	 * 
+	 * @see #getHopLossRate()
+	 */
+	public void setHopLossRate(double hopLossRate) {
+		if (hopLossRate < 0 || hopLossRate > 1)
+			throw new IllegalArgumentException("Hop loss rate must be between 0 and 1.");
+		
+		this.hopLossRate = hopLossRate;
+	}
+	
+	/**
+	 * Returns the probability of losing a frame in every hop.
+	 * 
+	 * @return The loss rate of every hop, between 0 and 1.
+	 * 
+	 * @see #setHopLossRate(double)
+	 */
+	public double getHopLossRate() {
+		return hopLossRate;
+	}
+	
+	/**
+	 * Breaks or restores the route to the given remote node.
+	 * 
+	 * <p>Nodes with a broken route do not answer the node discovery, and 
+	 * the transmissions and remote AT commands to them fail.</p>
+	 * 
+	 * @param index The index of the node.
+	 * @param failed {@code true} to break the route, {@code false} to 
+	 *               restore it.
+	 * 
+	 * @throws IndexOutOfBoundsException if {@code index < 0} or 
+	 *                                   if {@code index >= getNodeCount()}.
+	 * 
+	 * @see #isRouteFailed(int)
+	 */
+	public void setRouteFailed(int index, boolean failed) {
+		checkIndex(index);
+		synchronized (failedRoutes) {
+			failedRoutes.set(index, failed);
+		}
+	}
+	
+	/**
+	 * Returns whether the route to the given remote node is broken.
+	 * 
+	 * @param index The index of the node.
+	 * 
+	 * @return {@code true} if the route is broken, {@code false} otherwise.
+	 * 
+	 * @throws IndexOutOfBoundsException if {@code index < 0} or 
+	 *                                   if {@code index >= getNodeCount()}.
+	 * 
+	 * @see #setRouteFailed(int, boolean)
+	 */
+	public boolean isRouteFailed(int index) {
+		checkIndex(index);
+		synchronized (failedRoutes) {
+			return failedRoutes.get(index);
+		}
+	}
+	
+	/**
+	 * Sets the value returned by all the remote nodes when the given AT 
+	 * command is read.
+	 * 
+	 * <p>The {@code SH}, {@code SL}, {@code MY} and {@code NI} values are 
+	 * always the ones of the node.</p>
+	 * 
+	 * @param command The AT command.
+	 * @param value The value of the command.
+	 * 
+	 * @throws NullPointerException if {@code command == null} or 
+	 *                              if {@code value == null}.
+	 */
+	public void setRemoteParameter(String command, byte[] value) {
+		if (command == null)
+			throw new NullPointerException("Command cannot be null.");
+		if (value == null)
+			throw new NullPointerException("Value cannot be null.");
+		
+		remoteParameters.put(command.toUpperCase(), value.clone());
+	}
+	
+	/**
+	 * Starts sending periodic IO samples from all the remote nodes.
+	 * 
+	 * <p>Every node sends a sample with the digital line {@code DIO0} and the 
+	 * analog line {@code AD1} every period. The samples of the different 
+	 * nodes are spread along the period. Nodes with a broken route do not 
+	 * send samples. Stop them with {@link #stopTraffic()}.</p>
+	 * 
+	 * @param period The sampling period of every node in milliseconds.
+	 * 
+	 * @throws IllegalArgumentException if {@code period <= 0}.
+	 * @throws IllegalStateException if the interface is not open.
+	 * 
+	 * @see #getIOSamples()
+	 */
+	public void startIOSamples(final long period) {
+		if (period <= 0)
+			throw new IllegalArgumentException("Period must be greater than 0.");
+		if (!isOpen())
+			throw new IllegalStateException("The connection interface is closed.");
+		if (nodeCount == 0)
+			return;
+		
+		final long start = System.nanoTime();
+		scheduleTraffic(new Runnable() {
+			private long generated = 0;
+			
+			/*
+			 * (non-Javadoc)
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				long due = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) * nodeCount / (period * 1000);
+				int count = (int)Math.min(due - generated, MAX_SAMPLES_PER_RUN);
+				if (count <= 0)
+					return;
+				
+				List<byte[]> frames = new ArrayList<>(count);
+				for (int i = 0; i < count; i++) {
+					long sequence = generated + i;
+					int index = (int)(sequence % nodeCount);
+					if (isRouteFailed(index) || isLost(getHops(index)))
+						continue;
+					int analog = (int)(sequence / nodeCount) & 0x3FF;
+					byte[] payload = new byte[] {0x01, 0x00, 0x01, 0x02, 0x00, (byte)(sequence & 0x01), 
+							(byte)(analog >> 8), (byte)analog};
+					frames.add(serialize(new IODataSampleRxIndicatorPacket(getNode64BitAddress(index), 
+							getNode16BitAddress(index), 0x01, payload)));
+				}
+				generated += count;
+				ioSamples.addAndGet(deliverFrames(frames));
+			}
+		});
+	}
+	
+	/**
+	 * Returns the number of IO samples delivered to the device.
+	 * 
+	 * @return The number of delivered IO samples.
+	 */
+	public long getIOSamples() {
+		return ioSamples.get();
+	}
+	
+	/**
+	 * Returns the number of node discovery responses delivered to the 
+	 * device.
+	 * 
+	 * @return The number of delivered node discovery responses.
+	 */
+	public long getDiscoveryResponses() {
+		return discoveryResponses.get();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.virtual.VirtualXBeeRadio#handleATCommand(int, java.lang.String, byte[])
+	 */
+	@Override
+	protected void handleATCommand(int frameID, String command, byte[] parameter) {
+		if (ND_COMMAND.equalsIgnoreCase(command)) {
+			startDiscovery(frameID, parameter != null && parameter.length > 0 ? new String(parameter) : null);
+			return;
+		}
+		// Keep the maximum discovery time consistent with the discovery time.
+		if (NT_COMMAND.equalsIgnoreCase(command) && parameter != null && parameter.length > 0)
+			updateMaxDiscoveryTime(ByteUtils.byteArrayToLong(parameter));
+		
+		super.handleATCommand(frameID, command, parameter);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.virtual.VirtualXBeeRadio#handleRemoteATCommand(com.digi.xbee.api.packet.common.RemoteATCommandPacket)
+	 */
+	@Override
+	protected void handleRemoteATCommand(RemoteATCommandPacket packet) {
+		int index = getNodeIndex(packet.get64bitDestinationAddress(), packet.get16bitDestinationAddress());
+		if (packet.getFrameID() == 0 || index == BROADCAST_NODE)
+			return;
+		if (index == UNKNOWN_NODE) {
+			super.handleRemoteATCommand(packet);
+			return;
+		}
+		
+		String command = packet.getCommand().toUpperCase();
+		ATCommandStatus status = ATCommandStatus.OK;
+		byte[] value = null;
+		int hops = getHops(index);
+		if (isRouteFailed(index) || isLost(2 * hops)) {
+			status = ATCommandStatus.TX_FAILURE;
+		} else if (packet.getParameter() == null || packet.getParameter().length == 0) {
+			value = getRemoteParameter(index, command);
+			if (value == null && !isExecutionCommand(command))
+				status = ATCommandStatus.INVALID_COMMAND;
+		} else if (getRemoteParameter(index, command) == null) {
+			status = ATCommandStatus.INVALID_COMMAND;
+		}
+		
+		deliverPacket(new RemoteATCommandResponsePacket(packet.getFrameID(), getNode64BitAddress(index), 
+				getNode16BitAddress(index), packet.getCommand(), status, value), 2 * hops * hopLatency);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.virtual.VirtualXBeeRadio#getTransmitLatency(com.digi.xbee.api.packet.XBeeAPIPacket)
+	 */
+	@Override
+	protected long getTransmitLatency(XBeeAPIPacket packet) {
+		int index = getDestinationIndex(packet);
+		long latency = super.getTransmitLatency(packet);
+		if (index >= 0)
+			return latency + 2 * getHops(index) * hopLatency;
+		return latency + maxHops * hopLatency;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.virtual.VirtualXBeeRadio#getTransmitStatus(com.digi.xbee.api.packet.XBeeAPIPacket)
+	 */
+	@Override
+	protected XBeeTransmitStatus getTransmitStatus(XBeeAPIPacket packet) {
+		XBeeTransmitStatus status = super.getTransmitStatus(packet);
+		if (status != XBeeTransmitStatus.SUCCESS)
+			return status;
+		
+		int index = getDestinationIndex(packet);
+		if (index == BROADCAST_NODE)
+			return XBeeTransmitStatus.SUCCESS;
+		if (index == UNKNOWN_NODE)
+			return XBeeTransmitStatus.ADDRESS_NOT_FOUND;
+		if (isRouteFailed(index))
+			return XBeeTransmitStatus.ROUTE_NOT_FOUND;
+		if (isLost(2 * getHops(index)))
+			return XBeeTransmitStatus.NETWORK_ACK_FAILURE;
+		return XBeeTransmitStatus.SUCCESS;
+	}
+	
+	/**
+	 * Updates the maximum discovery time ({@code N?}) for the given 
+	 * discovery time.
+	 * 
+	 * @param discoveryTime The discovery time ({@code NT}) in tenths of 
+	 *                      a second.
+	 */
+	private void updateMaxDiscoveryTime(long discoveryTime) {
+		setParameter(MAX_DISCOVERY_TIME_COMMAND, ByteUtils.longToByteArray(discoveryTime * 100 + PROPAGATION_TIME));
+	}
+	
+	/**
+	 * Delivers the node discovery responses of the nodes that can answer 
+	 * within the discovery time, and then the end of discovery response.
+	 * 
+	 * @param frameID The frame ID of the discovery request.
+	 * @param id The node identifier to discover, {@code null} to discover 
+	 *           all the nodes.
+	 */
+	private void startDiscovery(final int frameID, String id) {
+		final int generation = discoveryGeneration.incrementAndGet();
+		final long window = ByteUtils.byteArrayToLong(getParameter(NT_COMMAND)) * 100;
+		
+		// Every response is packed as the delay (high bits) and the node index (low 16 bits).
+		long[] responses = new long[nodeCount];
+		int responseCount = 0;
+		for (int i = 0; i < nodeCount; i++) {
+			if (id != null && !id.equals(NODE_ID_PREFIX + i))
+				continue;
+			int hops = getHops(i);
+			if (isRouteFailed(i) || isLost(2 * hops))
+				continue;
+			long delay = (window > 0 ? ThreadLocalRandom.current().nextLong(window) : 0) + 2 * hops * hopLatency;
+			if (delay >= window)
+				continue;
+			responses[responseCount++] = (delay << 16) | i;
+		}
+		Arrays.sort(responses, 0, responseCount);
+		
+		final long[] schedule = responses;
+		final int total = responseCount;
+		final long start = System.nanoTime();
+		scheduler.execute(new Runnable() {
+			private int position = 0;
+			private long lastDelivery = 0;
+			
+			/*
+			 * (non-Javadoc)
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				if (!isOpen() || generation != discoveryGeneration.get())
+					return;
+				
+				long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+				List<byte[]> frames = new ArrayList<>();
+				while (position < total && (schedule[position] >>> 16) <= elapsed) {
+					int index = (int)(schedule[position++] & 0xFFFF);
+					frames.add(serialize(new ATCommandResponsePacket(frameID, ATCommandStatus.OK, 
+							ND_COMMAND, getDiscoveryData(index))));
+				}
+				if (!frames.isEmpty()) {
+					discoveryResponses.addAndGet(deliverFrames(frames));
+					lastDelivery = elapsed;
+				}
+				
+				long next;
+				if (position < total) {
+					next = schedule[position] >>> 16;
+				} else if (elapsed >= window && elapsed - lastDelivery >= END_OF_DISCOVERY_GAP) {
+					// Notify the end of the discovery.
+					deliverPacket(new ATCommandResponsePacket(frameID, ATCommandStatus.OK, ND_COMMAND, null));
+					return;
+				} else {
+					next = Math.max(window, lastDelivery + END_OF_DISCOVERY_GAP);
+				}
+				scheduler.schedule(this, Math.max(1, next - elapsed), TimeUnit.MILLISECONDS);
+			}
+		});
+	}
+	
+	/**
+	 * Returns the node discovery data of the given node.
+	 * 
+	 * @param index The index of the node.
+	 * 
+	 * @return The node discovery data.
+	 */
+	private byte[] getDiscoveryData(int index) {
+		byte[] nodeID = (NODE_ID_PREFIX + index).getBytes();
+		byte[] data = new byte[2 + 8 + nodeID.length + 1 + 2 + 1 + 1 + 2 + 2];
+		int position = 0;
+		// 16-bit and 64-bit addresses.
+		System.arraycopy(getNode16BitAddress(index).getValue(), 0, data, position, 2);
+		position += 2;
+		System.arraycopy(getNode64BitAddress(index).getValue(), 0, data, position, 8);
+		position += 8;
+		// Node identifier (null terminated).
+		System.arraycopy(nodeID, 0, data, position, nodeID.length);
+		position += nodeID.length + 1;
+		// Parent address (none), device type (router) and status.
+		data[position++] = (byte)0xFF;
+		data[position++] = (byte)0xFE;
+		data[position++] = 0x01;
+		data[position++] = 0x00;
+		// Profile and manufacturer IDs.
+		data[position++] = (byte)0xC1;
+		data[position++] = 0x05;
+		data[position++] = 0x10;
+		data[position] = 0x1E;
+		return data;
+	}
+	
+	/**
+	 * Returns the value of the given AT command in the given remote node.
+	 * 
+	 * @param index The index of the node.
+	 * @param command The AT command in upper case.
+	 * 
+	 * @return The value of the command, {@code null} if it is not defined.
+	 */
+	private byte[] getRemoteParameter(int index, String command) {
+		switch (command) {
+		case "SH":
+			return Arrays.copyOfRange(getNode64BitAddress(index).getValue(), 0, 4);
+		case "SL":
+			return Arrays.copyOfRange(getNode64BitAddress(index).getValue(), 4, 8);
+		case "MY":
+			return getNode16BitAddress(index).getValue();
+		case "NI":
+			return getNodeID(index).getBytes();
+		default:
+			return remoteParameters.get(command);
+		}
+	}
+	
+	/**
+	 * Returns the index of the destination node of the given transmit 
+	 * request.
+	 * 
+	 * @param packet The transmit request.
+	 * 
+	 * @return The index of the node, {@code BROADCAST_NODE} or 
+	 *         {@code UNKNOWN_NODE}.
+	 */
+	private int getDestinationIndex(XBeeAPIPacket packet) {
+		if (packet instanceof TransmitPacket)
+			return getNodeIndex(((TransmitPacket)packet).get64bitDestinationAddress(), 
+					((TransmitPacket)packet).get16bitDestinationAddress());
+		if (packet instanceof ExplicitAddressingPacket)
+			return getNodeIndex(((ExplicitAddressingPacket)packet).get64BitDestinationAddress(), 
+					((ExplicitAddressingPacket)packet).get16BitDestinationAddress());
+		if (packet instanceof TX64Packet)
+			return getNodeIndex(((TX64Packet)packet).get64bitDestinationAddress(), null);
+		if (packet instanceof TX16Packet)
+			return getNodeIndex(null, ((TX16Packet)packet).get16bitDestinationAddress());
+		return UNKNOWN_NODE;
+	}
+	
+	/**
+	 * Returns the index of the node with the given addresses.
+	 * 
+	 * @param address64 The 64-bit address, {@code null} if unknown.
+	 * @param address16 The 16-bit address, {@code null} if unknown.
+	 * 
+	 * @return The index of the node, {@code BROADCAST_NODE} or 
+	 *         {@code UNKNOWN_NODE}.
+	 */
+	private int getNodeIndex(XBee64BitAddress address64, XBee16BitAddress address16) {
+		if (address64 != null && !address64.equals(XBee64BitAddress.UNKNOWN_ADDRESS)) {
+			if (address64.equals(XBee64BitAddress.BROADCAST_ADDRESS))
+				return BROADCAST_NODE;
+			long index = ByteUtils.byteArrayToLong(address64.getValue()) - BASE_64BIT_ADDRESS;
+			return index >= 0 && index < nodeCount ? (int)index : UNKNOWN_NODE;
+		}
+		if (address16 != null && !address16.equals(XBee16BitAddress.UNKNOWN_ADDRESS)) {
+			if (address16.equals(XBee16BitAddress.BROADCAST_ADDRESS))
+				return BROADCAST_NODE;
+			int index = ByteUtils.byteArrayToInt(address16.getValue()) - 1;
+			return index >= 0 && index < nodeCount ? index : UNKNOWN_NODE;
+		}
+		return UNKNOWN_NODE;
+	}
+	
+	/**
+	 * Returns whether a frame traveling the given number of hops is lost.
+	 * 
+	 * @param hops The number of hops.
+	 * 
+	 * @return {@code true} if the frame is lost, {@code false} otherwise.
+	 */
+	private boolean isLost(int hops) {
+		double lossRate = hopLossRate;
+		if (lossRate <= 0)
+			return false;
+		return ThreadLocalRandom.current().nextDouble() >= Math.pow(1 - lossRate, hops);
+	}
+	
+	/**
+	 * Checks that the given node index is valid.
+	 * 
+	 * @param index The index of the node.
+	 * 
+	 * @throws IndexOutOfBoundsException if {@code index < 0} or 
+	 *                                   if {@code index >= getNodeCount()}.
+	 */
+	private void checkIndex(int index) {
+		if (index < 0 || index >= nodeCount)
+			throw new IndexOutOfBoundsException("Node index must be between 0 and " + (nodeCount - 1) + ".");
+	}
+}
@@ -0,0 +1,787 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection.virtual;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.digi.xbee.api.connection.AbstractQueueConnectionInterface;
+import com.digi.xbee.api.exceptions.InvalidPacketException;
+import com.digi.xbee.api.models.ATCommandStatus;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeeDiscoveryStatus;
+import com.digi.xbee.api.models.XBeeTransmitStatus;
+import com.digi.xbee.api.packet.XBeeAPIPacket;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.XBeePacketParser;
+import com.digi.xbee.api.packet.common.ATCommandPacket;
+import com.digi.xbee.api.packet.common.ATCommandQueuePacket;
+import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
+import com.digi.xbee.api.packet.common.ExplicitAddressingPacket;
+import com.digi.xbee.api.packet.common.RemoteATCommandPacket;
+import com.digi.xbee.api.packet.common.RemoteATCommandResponsePacket;
+import com.digi.xbee.api.packet.common.TransmitPacket;
+import com.digi.xbee.api.packet.common.TransmitStatusPacket;
+import com.digi.xbee.api.packet.raw.TX16Packet;
+import com.digi.xbee.api.packet.raw.TX64Packet;
+import com.digi.xbee.api.packet.raw.TXStatusPacket;
+
+/**
+ * This class represents an in-process virtual XBee radio that can be used as 
+ * the connection interface of an {@code XBeeDevice} when no hardware is 
+ * attached.
+ * 
+ * <p>The frames written by the device are parsed and answered as a local 
+ * radio would do:</p>
+ * <ul>
+ * <li>Local AT commands are answered with the values configured with 
+ * {@link #setParameter(String, byte[])}. By default the radio identifies 
+ * itself as a Zigbee S2C module, so {@code open()} and 
+ * {@code readDeviceInfo()} succeed out of the box.</li>
+ * <li>Transmit requests are answered with a transmit status after the 
+ * configured latency. The status is a failure with the configured 
+ * failure rate.</li>
+ * <li>Remote AT commands fail with a {@link ATCommandStatus#TX_FAILURE} 
+ * status, as the radio has no neighbors.</li>
+ * </ul>
+ * 
+ * <p>Additionally, any received frame (RX, IO sample, modem status...) can 
+ * be delivered once with {@link #deliverPacket(XBeePacket)} or periodically 
+ * at a given rate with {@link #startTraffic(XBeePacket, int)}.</p>
+ * 
+ * <pre>
+ * {@code
+ * VirtualXBeeRadio radio = new VirtualXBeeRadio(OperatingMode.API);
+ * radio.setTransmitLatency(5);
+ * radio.setTransmitFailureRate(0.01);
+ * XBeeDevice device = new XBeeDevice(radio);
+ * device.open();
+ * radio.startTraffic(new ReceivePacket(source64, source16, 0, payload), 2000);
+ * }
+ * </pre>
+ * 
+ * @since 1.4.0
+ */
+public class VirtualXBeeRadio extends AbstractQueueConnectionInterface {
+	
+	// Constants.
+	/**
+	 * Default 64-bit address of the virtual radio.
+	 */
+	public static final XBee64BitAddress DEFAULT_64BIT_ADDRESS = new XBee64BitAddress("0013A20040000001");
+	
+	// Commands that do not read or write a value and are always answered OK.
+	private static final String[] EXECUTION_COMMANDS = {"AC", "WR", "RE", "FR", "ND", "DN", "NR", "CB", "SI"};
+	
+	// Maximum pending bytes before generated traffic is discarded.
+	private static final int MAX_PENDING_BYTES = 1024 * 1024;
+	
+	// Period of the traffic generators in microseconds.
+	private static final long TRAFFIC_PERIOD = 1000;
+	
+	// Variables.
+	private final OperatingMode mode;
+	
+	private final Map<String, byte[]> parameters = new ConcurrentHashMap<>();
+	
+	private final List<ScheduledFuture<?>> trafficGenerators = new ArrayList<>();
+	
+	/**
+	 * Scheduler used to deliver delayed and periodic frames while the 
+	 * interface is open.
+	 */
+	protected ScheduledExecutorService scheduler;
+	
+	private volatile long transmitLatency = 0;
+	
+	private volatile double transmitFailureRate = 0;
+	
+	private volatile XBeeTransmitStatus transmitFailureStatus = XBeeTransmitStatus.NETWORK_ACK_FAILURE;
+	
+	private final AtomicLong writtenFrames = new AtomicLong();
+	private final AtomicLong deliveredFrames = new AtomicLong();
+	private final AtomicLong discardedFrames = new AtomicLong();
+	
+	private Logger logger = LoggerFactory.getLogger(VirtualXBeeRadio.class);
+	
+	/**
+	 * Class constructor. Instantiates a new {@code VirtualXBeeRadio} working 
+	 * in API mode.
+	 */
+	public VirtualXBeeRadio() {
+		this(OperatingMode.API);
+	}
+	
+	/**
+	 * Class constructor. Instantiates a new {@code VirtualXBeeRadio} working 
+	 * in the given operating mode.
+	 * 
+	 * @param mode The operating mode of the radio, {@link OperatingMode#API} 
+	 *             or {@link OperatingMode#API_ESCAPE}.
+	 * 
+	 * @throws IllegalArgumentException if {@code mode} is not 
+	 *                                  {@code OperatingMode.API} or 
+	 *                                  {@code OperatingMode.API_ESCAPE}.
+	 * @throws NullPointerException if {@code mode == null}.
+	 */
+	public VirtualXBeeRadio(OperatingMode mode) {
+		if (mode == null)
+			throw new NullPointerException("Operating mode cannot be null.");
+		if (mode != OperatingMode.API && mode != OperatingMode.API_ESCAPE)
+			throw new IllegalArgumentException("Operating mode must be API or API escaped.");
+		
+		this.mode = mode;
+		
+		parameters.put("AP", new byte[] {(byte)mode.getID()});
+		parameters.put("SH", Arrays.copyOfRange(DEFAULT_64BIT_ADDRESS.getValue(), 0, 4));
+		parameters.put("SL", Arrays.copyOfRange(DEFAULT_64BIT_ADDRESS.getValue(), 4, 8));
+		parameters.put("MY", new byte[] {0x00, 0x00});
+		parameters.put("NI", "VIRTUAL".getBytes());
+		parameters.put("HV", new byte[] {0x22});
+		parameters.put("VR", new byte[] {0x40, 0x60});
+		parameters.put("ID", new byte[8]);
+		parameters.put("OP", new byte[8]);
+		parameters.put("CE", new byte[] {0x01});
+		parameters.put("AI", new byte[] {0x00});
+		parameters.put("AO", new byte[] {0x00});
+		parameters.put("DH", new byte[] {0x00});
+		parameters.put("DL", new byte[] {0x00});
+		parameters.put("PL", new byte[] {0x04});
+		parameters.put("NT", new byte[] {0x3C});
+		parameters.put("NO", new byte[] {0x00});
+		parameters.put("N?", new byte[] {0x17, 0x70});
+		parameters.put("NP", new byte[] {0x00, (byte)0xFF});
+		parameters.put("IR", new byte[] {0x00});
+		parameters.put("IC", new byte[] {0x00});
+	}
+	
+	/**
+	 * Returns the operating mode of this virtual radio.
+	 * 
+	 * @return The operating mode of the radio.
+	 */
+	public OperatingMode getOperatingMode() {
+		return mode;
+	}
+	
+	/**
+	 * Sets the value returned when the given AT command is read.
+	 * 
+	 * <p>Only the commands with a value are answered with {@code OK}, the 
+	 * rest of commands (except the execution ones, such as {@code WR} or 
+	 * {@code AC}) are answered with {@code INVALID_COMMAND}.</p>
+	 * 
+	 * @param command The AT command.
+	 * @param value The value of the command.
+	 * 
+	 * @throws NullPointerException if {@code command == null} or 
+	 *                              if {@code value == null}.
+	 * 
+	 * @see #getParameter(String)
+	 * @see #removeParameter(String)
+	 */
+	public void setParameter(String command, byte[] value) {
+		if (command == null)
+			throw new NullPointerException("Command cannot be null.");
+		if (value == null)
+			throw new NullPointerException("Value cannot be null.");
+		
+		parameters.put(command.toUpperCase(), value.clone());
+	}
+	
+	/**
+	 * Returns the value of the given AT command.
+	 * 
+	 * @param command The AT command.
+	 * 
+	 * @return The value of the command, {@code null} if it is not defined.
+	 * 
+	 * @throws NullPointerException if {@code command == null}.
+	 * 
+	 * @see #setParameter(String, byte[])
+	 */
+	public byte[] getParameter(String command) {
+		if (command == null)
+			throw new NullPointerException("Command cannot be null.");
+		
+		byte[] value = parameters.get(command.toUpperCase());
+		return value == null ? null : value.clone();
+	}
+	
+	/**
+	 * Removes the value of the given AT command so it is answered with 
+	 * {@code INVALID_COMMAND}.
+	 * 
+	 * @param command The AT command.
+	 * 
+	 * @throws NullPointerException if {@code command == null}.
+	 * 
+	 * @see #setParameter(String, byte[])
+	 */
+	public void removeParameter(String command) {
+		if (command == null)
+			throw new NullPointerException("Command cannot be null.");
+		
+		parameters.remove(command.toUpperCase());
+	}
+	
+	/**
+	 * Returns the 64-bit address of this virtual radio.
+	 * 
+	 * @return The 64-bit address of the radio (from its {@code SH} and 
+	 *         {@code SL} values).
+	 */
+	public XBee64BitAddress get64BitAddress() {
+		byte[] address = new byte[8];
+		byte[] sh = parameters.get("SH");
+		byte[] sl = parameters.get("SL");
+		System.arraycopy(sh, 0, address, 4 - sh.length, sh.length);
+		System.arraycopy(sl, 0, address, 8 - sl.length, sl.length);
+		return new XBee64BitAddress(address);
+	}
+	
+	/**
+	 * Sets the time the radio takes to report the status of a transmission.
+	 * 
+	 * @param latency The transmission latency in milliseconds.
+	 * 
+	 * @throws IllegalArgumentException if {@code latency < 0}.
+	 * 
+	 * @see #getTransmitLatency()
+	 */
+	public void setTransmitLatency(long latency) {
+		if (latency < 0)
+			throw new IllegalArgumentException("Latency cannot be less than 0.");
+		
+		this.transmitLatency = latency;
+	}
+	
+	/**
+	 * Returns the time the radio takes to report the status of a 
+	 * transmission.
+	 * 
+	 * @return The transmission latency in milliseconds.
+	 * 
+	 * @see #setTransmitLatency(long)
+	 */
+	public long getTransmitLatency() {
+		return transmitLatency;
+	}
+	
+	/**
+	 * Sets the ratio of transmissions reported as failed.
+	 * 
+	 * @param failureRate The failure rate, between 0 (all the 
+	 *                    transmissions succeed) and 1 (all of them fail).
+	 * 
+	 * @throws IllegalArgumentException if {@code failureRate < 0} or 
+	 *                                  if {@code failureRate > 1}.
+	 * 
+	 * @see #getTransmitFailureRate()
+	 * @see #setTransmitFailureStatus(XBeeTransmitStatus)
+	 */
+	public void setTransmitFailureRate(double failureRate) {
+		if (failureRate < 0 || failureRate > 1)
+			throw new IllegalArgumentException("Failure rate must be between 0 and 1.");
+		
+		this.transmitFailureRate = failureRate;
+	}
+	
+	/**
+	 * Returns the ratio of transmissions reported as failed.
+	 * 
+	 * @return The failure rate, between 0 and 1.
+	 * 
+	 * @see #setTransmitFailureRate(double)
+	 */
+	public double getTransmitFailureRate() {
+		return transmitFailureRate;
+	}
+	
+	/**
+	 * Sets the status reported for the failed transmissions.
+	 * 
+	 * @param status The status of the failed transmissions.
+	 * 
+	 * @throws NullPointerException if {@code status == null}.
+	 * 
+	 * @see #setTransmitFailureRate(double)
+	 */
+	public void setTransmitFailureStatus(XBeeTransmitStatus status) {
+		if (status == null)
+			throw new NullPointerException("Transmit status cannot be null.");
+		
+		this.transmitFailureStatus = status;
+	}
+	
+	/**
+	 * Returns the status reported for the failed transmissions.
+	 * 
+	 * @return The status of the failed transmissions.
+	 * 
+	 * @see #setTransmitFailureStatus(XBeeTransmitStatus)
+	 */
+	public XBeeTransmitStatus getTransmitFailureStatus() {
+		return transmitFailureStatus;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#open()
+	 */
+	@Override
+	public void open() {
+		if (connectionOpen)
+			return;
+		
+		inputStream.clear();
+		scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+			 */
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "VirtualXBeeRadio-" + get64BitAddress());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		connectionOpen = true;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#close()
+	 */
+	@Override
+	public void close() {
+		if (!connectionOpen)
+			return;
+		
+		connectionOpen = false;
+		stopTraffic();
+		scheduler.shutdownNow();
+		synchronized (this) {
+			notify();
+		}
+	}
+	
+	/**
+	 * Delivers the given packet to the device as if it was received by the 
+	 * radio.
+	 * 
+	 * @param packet The packet to deliver.
+	 * 
+	 * @throws IllegalStateException if the interface is not open.
+	 * @throws NullPointerException if {@code packet == null}.
+	 * 
+	 * @see #deliverPacket(XBeePacket, long)
+	 */
+	public void deliverPacket(XBeePacket packet) {
+		if (packet == null)
+			throw new NullPointerException("Packet cannot be null.");
+		if (!connectionOpen)
+			throw new IllegalStateException("The connection interface is closed.");
+		
+		deliver(serialize(packet));
+		deliveredFrames.incrementAndGet();
+	}
+	
+	/**
+	 * Delivers the given packet to the device after the given delay.
+	 * 
+	 * @param packet The packet to deliver.
+	 * @param delay The delay in milliseconds.
+	 * 
+	 * @throws IllegalStateException if the interface is not open.
+	 * @throws NullPointerException if {@code packet == null}.
+	 * 
+	 * @see #deliverPacket(XBeePacket)
+	 */
+	public void deliverPacket(final XBeePacket packet, long delay) {
+		if (delay <= 0) {
+			deliverPacket(packet);
+			return;
+		}
+		if (packet == null)
+			throw new NullPointerException("Packet cannot be null.");
+		if (!connectionOpen)
+			throw new IllegalStateException("The connection interface is closed.");
+		
+		final byte[] data = serialize(packet);
+		scheduler.schedule(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				if (!connectionOpen)
+					return;
+				deliver(data);
+				deliveredFrames.incrementAndGet();
+			}
+		}, delay, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Starts delivering the given packet to the device periodically.
+	 * 
+	 * <p>If the device does not read the frames as fast as they are 
+	 * generated, the frames that exceed the pending buffer are discarded 
+	 * (see {@link #getDiscardedFrames()}).</p>
+	 * 
+	 * @param packet The packet to deliver.
+	 * @param framesPerSecond The number of frames to deliver per second.
+	 * 
+	 * @throws IllegalArgumentException if {@code framesPerSecond <= 0}.
+	 * @throws IllegalStateException if the interface is not open.
+	 * @throws NullPointerException if {@code packet == null}.
+	 * 
+	 * @see #stopTraffic()
+	 */
+	public void startTraffic(XBeePacket packet, final int framesPerSecond) {
+		if (packet == null)
+			throw new NullPointerException("Packet cannot be null.");
+		if (framesPerSecond <= 0)
+			throw new IllegalArgumentException("Frames per second must be greater than 0.");
+		if (!connectionOpen)
+			throw new IllegalStateException("The connection interface is closed.");
+		
+		final byte[] frame = serialize(packet);
+		final long start = System.nanoTime();
+		scheduleTraffic(new Runnable() {
+			private long generated = 0;
+			
+			/*
+			 * (non-Javadoc)
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				long due = (System.nanoTime() - start) * framesPerSecond / 1000000000L;
+				long pending = due - generated;
+				generated = due;
+				if (pending <= 0)
+					return;
+				// Never build more frames than the pending buffer can hold.
+				int count = (int)Math.min(pending, MAX_PENDING_BYTES / frame.length + 1);
+				if (pending > count)
+					discardedFrames.addAndGet(pending - count);
+				
+				List<byte[]> frames = new ArrayList<>(count);
+				for (int i = 0; i < count; i++)
+					frames.add(frame);
+				deliverFrames(frames);
+			}
+		});
+	}
+	
+	/**
+	 * Runs the given traffic generator periodically until the traffic is 
+	 * stopped or the interface is closed.
+	 * 
+	 * <p>The generator runs every millisecond and is expected to deliver 
+	 * the frames due since its previous run with 
+	 * {@link #deliverFrames(List)}.</p>
+	 * 
+	 * @param generator The traffic generator.
+	 * 
+	 * @see #stopTraffic()
+	 */
+	protected void scheduleTraffic(Runnable generator) {
+		synchronized (trafficGenerators) {
+			trafficGenerators.add(scheduler.scheduleAtFixedRate(generator, 
+					TRAFFIC_PERIOD, TRAFFIC_PERIOD, TimeUnit.MICROSECONDS));
+		}
+	}
+	
+	/**
+	 * Delivers the given raw frames to the device at once, discarding the 
+	 * ones that exceed the pending buffer.
+	 * 
+	 * @param frames The raw frames, already serialized in the operating mode 
+	 *               of this radio.
+	 * 
+	 * @return The number of delivered frames.
+	 * 
+	 * @see #getDiscardedFrames()
+	 */
+	protected int deliverFrames(List<byte[]> frames) {
+		int room = MAX_PENDING_BYTES - inputStream.available();
+		int size = 0;
+		int send = 0;
+		for (byte[] frame : frames) {
+			if (size + frame.length > room)
+				break;
+			size += frame.length;
+			send++;
+		}
+		if (send < frames.size())
+			discardedFrames.addAndGet(frames.size() - send);
+		if (send == 0)
+			return 0;
+		
+		byte[] burst = new byte[size];
+		int position = 0;
+		for (int i = 0; i < send; i++) {
+			byte[] frame = frames.get(i);
+			System.arraycopy(frame, 0, burst, position, frame.length);
+			position += frame.length;
+		}
+		deliver(burst);
+		deliveredFrames.addAndGet(send);
+		return send;
+	}
+	
+	/**
+	 * Returns the byte array of the given packet in the operating mode of 
+	 * this radio.
+	 * 
+	 * @param packet The packet.
+	 * 
+	 * @return The byte array of the packet.
+	 */
+	protected byte[] serialize(XBeePacket packet) {
+		return mode == OperatingMode.API_ESCAPE ? packet.generateByteArrayEscaped() : packet.generateByteArray();
+	}
+	
+	/**
+	 * Stops all the periodic traffic started with 
+	 * {@link #startTraffic(XBeePacket, int)}.
+	 */
+	public void stopTraffic() {
+		synchronized (trafficGenerators) {
+			for (ScheduledFuture<?> generator : trafficGenerators)
+				generator.cancel(false);
+			trafficGenerators.clear();
+		}
+	}
+	
+	/**
+	 * Returns the number of frames written by the device to this radio.
+	 * 
+	 * @return The number of written frames.
+	 */
+	public long getWrittenFrames() {
+		return writtenFrames.get();
+	}
+	
+	/**
+	 * Returns the number of frames delivered by this radio to the device.
+	 * 
+	 * @return The number of delivered frames.
+	 */
+	public long getDeliveredFrames() {
+		return deliveredFrames.get();
+	}
+	
+	/**
+	 * Returns the number of generated frames discarded because the device 
+	 * was not reading them fast enough.
+	 * 
+	 * @return The number of discarded frames.
+	 */
+	public long getDiscardedFrames() {
+		return discardedFrames.get();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.AbstractQueueConnectionInterface#dataWritten(byte[], int, int)
+	 */
+	@Override
+	protected void dataWritten(byte[] data, int offset, int length) throws IOException {
+		byte[] frame = new byte[length];
+		System.arraycopy(data, offset, frame, 0, length);
+		
+		XBeePacket packet;
+		try {
+			packet = new XBeePacketParser().parsePacket(frame, mode);
+		} catch (InvalidPacketException e) {
+			logger.debug("Ignoring invalid frame written to the virtual radio.");
+			return;
+		}
+		writtenFrames.incrementAndGet();
+		if (packet instanceof XBeeAPIPacket)
+			handlePacket((XBeeAPIPacket)packet);
+	}
+	
+	/**
+	 * Processes a packet written by the device to this radio.
+	 * 
+	 * <p>Subclasses can override this method to handle more packet types.</p>
+	 * 
+	 * @param packet The written packet.
+	 */
+	protected void handlePacket(XBeeAPIPacket packet) {
+		if (packet instanceof ATCommandPacket) {
+			ATCommandPacket atPacket = (ATCommandPacket)packet;
+			handleATCommand(atPacket.getFrameID(), atPacket.getCommand(), atPacket.getParameter());
+		} else if (packet instanceof ATCommandQueuePacket) {
+			ATCommandQueuePacket atPacket = (ATCommandQueuePacket)packet;
+			handleATCommand(atPacket.getFrameID(), atPacket.getCommand(), atPacket.getParameter());
+		} else if (packet instanceof RemoteATCommandPacket) {
+			handleRemoteATCommand((RemoteATCommandPacket)packet);
+		} else if (packet instanceof TransmitPacket 
+				|| packet instanceof ExplicitAddressingPacket 
+				|| packet instanceof TX64Packet 
+				|| packet instanceof TX16Packet) {
+			handleTransmit(packet);
+		}
+	}
+	
+	/**
+	 * Answers a local AT command.
+	 * 
+	 * @param frameID The frame ID of the request.
+	 * @param command The AT command.
+	 * @param parameter The parameter of the command, {@code null} or empty 
+	 *                  to read its value.
+	 */
+	protected void handleATCommand(int frameID, String command, byte[] parameter) {
+		ATCommandStatus status = ATCommandStatus.OK;
+		byte[] value = null;
+		
+		String key = command.toUpperCase();
+		if (parameters.containsKey(key)) {
+			if (parameter != null && parameter.length > 0)
+				parameters.put(key, parameter.clone());
+			else
+				value = parameters.get(key);
+		} else if (!isExecutionCommand(key)) {
+			status = ATCommandStatus.INVALID_COMMAND;
+		}
+		
+		if (frameID != 0)
+			deliverPacket(new ATCommandResponsePacket(frameID, status, command, value));
+	}
+	
+	/**
+	 * Answers a remote AT command.
+	 * 
+	 * <p>This implementation reports a transmission failure, as the radio 
+	 * has no neighbors.</p>
+	 * 
+	 * @param packet The remote AT command request.
+	 */
+	protected void handleRemoteATCommand(RemoteATCommandPacket packet) {
+		if (packet.getFrameID() == 0)
+			return;
+		deliverPacket(new RemoteATCommandResponsePacket(packet.getFrameID(), packet.get64bitDestinationAddress(), 
+				packet.get16bitDestinationAddress(), packet.getCommand(), ATCommandStatus.TX_FAILURE, null), 
+				getTransmitLatency(packet));
+	}
+	
+	/**
+	 * Answers a transmit request with its transmit status.
+	 * 
+	 * @param packet The transmit request.
+	 * 
+	 * @see #getTransmitLatency(XBeeAPIPacket)
+	 * @see #getTransmitStatus(XBeeAPIPacket)
+	 */
+	protected void handleTransmit(XBeeAPIPacket packet) {
+		XBeeTransmitStatus status = getTransmitStatus(packet);
+		if (packet.getFrameID() == 0)
+			return;
+		
+		XBeePacket response;
+		if (packet instanceof TX64Packet || packet instanceof TX16Packet) {
+			response = new TXStatusPacket(packet.getFrameID(), 
+					status == XBeeTransmitStatus.SUCCESS ? status : XBeeTransmitStatus.NO_ACK);
+		} else {
+			XBee16BitAddress address16 = packet instanceof TransmitPacket ? 
+					((TransmitPacket)packet).get16bitDestinationAddress() : 
+					((ExplicitAddressingPacket)packet).get16BitDestinationAddress();
+			response = new TransmitStatusPacket(packet.getFrameID(), address16, 0, status, 
+					XBeeDiscoveryStatus.DISCOVERY_STATUS_NO_DISCOVERY_OVERHEAD);
+		}
+		deliverPacket(response, getTransmitLatency(packet));
+	}
+	
+	/**
+	 * Returns the time to report the status of the given transmission.
+	 * 
+	 * @param packet The transmit request.
+	 * 
+	 * @return The latency in milliseconds.
+	 * 
+	 * @see #setTransmitLatency(long)
+	 */
+	protected long getTransmitLatency(XBeeAPIPacket packet) {
+		return transmitLatency;
+	}
+	
+	/**
+	 * Returns the status of the given transmission.
+	 * 
+	 * @param packet The transmit request.
+	 * 
+	 * @return The transmit status.
+	 * 
+	 * @see #setTransmitFailureRate(double)
+	 * @see #setTransmitFailureStatus(XBeeTransmitStatus)
+	 */
+	protected XBeeTransmitStatus getTransmitStatus(XBeeAPIPacket packet) {
+		double failureRate = transmitFailureRate;
+		if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate)
+			return transmitFailureStatus;
+		return XBeeTransmitStatus.SUCCESS;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "[Virtual " + get64BitAddress() + "] ";
+	}
+	
+	/**
+	 * Returns whether the given command is an execution command.
+	 * 
+	 * @param command The AT command.
+	 * 
+	 * @return {@code true} if the command is an execution command, 
+	 *         {@code false} otherwise.
+	 */
+	static boolean isExecutionCommand(String command) {
+		for (String execution : EXECUTION_COMMANDS) {
+			if (execution.equals(command))
+				return true;
+		}
+		return false;
+	}
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.exceptions;
+
+/**
+ * This exception will be thrown when the checksum of an API packet read 
+ * from the input stream does not match its contents.
+ * 
+ * @see InvalidPacketException
+ * 
+ * @since 1.4.0
+ */
+public class InvalidChecksumException extends InvalidPacketException {
+
+	// Constants
+	private static final long serialVersionUID = 1L;
+	private static final String DEFAULT_MESSAGE = "The checksum of the XBee API packet is not valid.";
+
+	/**
+	 * Creates a {@code InvalidChecksumException} with 
+	 * {@value #DEFAULT_MESSAGE} as its error detail message.
+	 */
+	public InvalidChecksumException() {
+		super(DEFAULT_MESSAGE);
+	}
+	
+	/**
+	 * Creates a {@code InvalidChecksumException} with the specified message.
+	 * 
+	 * @param message The associated message.
+	 */
+	public InvalidChecksumException(String message) {
+		super(message);
+	}
+}
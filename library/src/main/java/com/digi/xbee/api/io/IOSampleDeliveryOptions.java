@@ -0,0 +1,148 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.io;
+
+import java.util.HashMap;
+import java.util.Map.Entry;
+
+/**
+ * This class contains the options used to deliver the received IO samples 
+ * to the {@code IIOSampleReceiveListener}s.
+ * 
+ * <ul>
+ * <li><b>Conflation</b>: if a listener is still processing a sample when new 
+ * ones arrive, only the latest sample of every remote device is kept and 
+ * delivered once the listener is free. The discarded samples are counted 
+ * as suppressed.</li>
+ * <li><b>Changes only</b>: a sample is only delivered if the value of a 
+ * digital line changed or an analog value moved more than the configured 
+ * deadband since the last delivered sample of the same remote device. The 
+ * discarded samples are counted as suppressed.</li>
+ * </ul>
+ * 
+ * @see IOSample
+ * @see com.digi.xbee.api.listeners.IIOSampleReceiveListener
+ * 
+ * @since 1.4.0
+ */
+public class IOSampleDeliveryOptions {
+	
+	// Variables.
+	private final boolean conflate;
+	private final boolean changesOnly;
+	
+	private final int analogDeadband;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code IOSampleDeliveryOptions} 
+	 * with the given parameters.
+	 * 
+	 * @param conflate {@code true} to keep only the latest sample of every 
+	 *                 remote device while the listener is busy, 
+	 *                 {@code false} to deliver all of them.
+	 * @param changesOnly {@code true} to deliver only samples with changes, 
+	 *                    {@code false} to deliver all of them.
+	 * @param analogDeadband Maximum difference between analog values that is 
+	 *                       not considered a change. Only used if 
+	 *                       {@code changesOnly} is {@code true}.
+	 * 
+	 * @throws IllegalArgumentException if {@code analogDeadband < 0}.
+	 */
+	public IOSampleDeliveryOptions(boolean conflate, boolean changesOnly, int analogDeadband) {
+		if (analogDeadband < 0)
+			throw new IllegalArgumentException("Analog deadband cannot be negative.");
+		
+		this.conflate = conflate;
+		this.changesOnly = changesOnly;
+		this.analogDeadband = analogDeadband;
+	}
+	
+	/**
+	 * Returns whether the samples are conflated while the listener is busy.
+	 * 
+	 * @return {@code true} if the samples are conflated, {@code false} 
+	 *         otherwise.
+	 */
+	public boolean isConflate() {
+		return conflate;
+	}
+	
+	/**
+	 * Returns whether only the samples with changes are delivered.
+	 * 
+	 * @return {@code true} if only the samples with changes are delivered, 
+	 *         {@code false} otherwise.
+	 */
+	public boolean isChangesOnly() {
+		return changesOnly;
+	}
+	
+	/**
+	 * Returns the maximum difference between analog values that is not 
+	 * considered a change.
+	 * 
+	 * @return The analog deadband.
+	 */
+	public int getAnalogDeadband() {
+		return analogDeadband;
+	}
+	
+	/**
+	 * Returns whether the given sample has changes with respect to the 
+	 * previous one.
+	 * 
+	 * <p>A sample has changes if its set of digital or analog lines is 
+	 * different, if the value of any digital line is different or if any 
+	 * analog value differs more than the analog deadband.</p>
+	 * 
+	 * @param previous The previous sample, {@code null} if there is none.
+	 * @param sample The sample to check.
+	 * 
+	 * @return {@code true} if the sample has changes, {@code false} 
+	 *         otherwise.
+	 * 
+	 * @throws NullPointerException if {@code sample == null}.
+	 */
+	public boolean isChange(IOSample previous, IOSample sample) {
+		if (sample == null)
+			throw new NullPointerException("IO sample cannot be null.");
+		if (previous == null)
+			return true;
+		
+		if (!previous.getDigitalValues().equals(sample.getDigitalValues()))
+			return true;
+		
+		HashMap<IOLine, Integer> previousAnalog = previous.getAnalogValues();
+		HashMap<IOLine, Integer> analog = sample.getAnalogValues();
+		if (!previousAnalog.keySet().equals(analog.keySet()))
+			return true;
+		for (Entry<IOLine, Integer> entry : analog.entrySet()) {
+			if (Math.abs(entry.getValue() - previousAnalog.get(entry.getKey())) > analogDeadband)
+				return true;
+		}
+		return false;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "conflate: " + conflate + ", changes only: " + changesOnly 
+				+ ", analog deadband: " + analogDeadband;
+	}
+}
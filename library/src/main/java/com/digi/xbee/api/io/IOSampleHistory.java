@@ -0,0 +1,519 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.io;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import com.digi.xbee.api.models.XBee64BitAddress;
+
+/**
+ * This class stores the history of the IO lines received from remote XBee 
+ * devices.
+ * 
+ * <p>Every pair of 64-bit address and {@link IOLine} has its own ring of 
+ * fixed size that keeps the last received values together with the time 
+ * they were received. When a ring is full, the oldest value is overwritten.
+ * </p>
+ * 
+ * <p>All the rings are allocated at once in a single direct (off-heap) 
+ * buffer when the history is created, so the memory used is bounded and 
+ * known in advance: {@code maxLines * samplesPerLine * 12} bytes (see 
+ * {@link #getMemorySize()}). Values of new lines are discarded once 
+ * {@code maxLines} lines are being tracked, until some of them are 
+ * released with {@link #remove(XBee64BitAddress)}.</p>
+ * 
+ * <p>The history is filled automatically by the local XBee device when it 
+ * is registered with {@code setIOSampleHistory(IOSampleHistory)}, but it can 
+ * also be filled manually with {@link #addSample(XBee64BitAddress, IOSample)}.
+ * </p>
+ * 
+ * <p>This class is thread-safe.</p>
+ * 
+ * @see IOSample
+ * @see IOSampleHistoryEntry
+ * @see IOSampleHistoryStatistics
+ * 
+ * @since 1.4.0
+ */
+public class IOSampleHistory {
+	
+	// Constants.
+	/**
+	 * Size of every stored entry in bytes: timestamp (8) + value (4).
+	 */
+	public static final int ENTRY_SIZE = 12;
+	
+	private static final int NO_RING = -1;
+	
+	// Variables.
+	private final int maxLines;
+	private final int samplesPerLine;
+	
+	private final ByteBuffer buffer;
+	
+	private final int[] heads;
+	private final int[] counts;
+	
+	private final HashMap<XBee64BitAddress, int[]> ringIndex = new HashMap<>();
+	
+	private final ArrayDeque<Integer> freeRings = new ArrayDeque<>();
+	
+	private int nextRing = 0;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code IOSampleHistory} with the 
+	 * given parameters.
+	 * 
+	 * @param maxLines Maximum number of IO lines (pairs of remote device 
+	 *                 and IO line) to keep history for.
+	 * @param samplesPerLine Number of values to keep for every IO line.
+	 * 
+	 * @throws IllegalArgumentException if {@code maxLines < 1} or 
+	 *                                  if {@code samplesPerLine < 1} or 
+	 *                                  if the required memory is greater 
+	 *                                  than {@code Integer.MAX_VALUE} bytes.
+	 */
+	public IOSampleHistory(int maxLines, int samplesPerLine) {
+		if (maxLines < 1)
+			throw new IllegalArgumentException("Maximum number of lines must be greater than 0.");
+		if (samplesPerLine < 1)
+			throw new IllegalArgumentException("Number of samples per line must be greater than 0.");
+		if ((long)maxLines * samplesPerLine * ENTRY_SIZE > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("The required memory cannot exceed " + Integer.MAX_VALUE + " bytes.");
+		
+		this.maxLines = maxLines;
+		this.samplesPerLine = samplesPerLine;
+		this.buffer = ByteBuffer.allocateDirect(maxLines * samplesPerLine * ENTRY_SIZE);
+		this.heads = new int[maxLines];
+		this.counts = new int[maxLines];
+	}
+	
+	/**
+	 * Stores the values of the given IO sample using the current time as 
+	 * timestamp.
+	 * 
+	 * @param address 64-bit address of the remote device that sent the 
+	 *                sample.
+	 * @param ioSample IO sample to store.
+	 * 
+	 * @throws NullPointerException if {@code address == null} or 
+	 *                              if {@code ioSample == null}.
+	 * 
+	 * @see #addSample(XBee64BitAddress, IOSample, long)
+	 */
+	public void addSample(XBee64BitAddress address, IOSample ioSample) {
+		addSample(address, ioSample, System.currentTimeMillis());
+	}
+	
+	/**
+	 * Stores the values of the given IO sample.
+	 * 
+	 * <p>The analog value of a line is stored if the sample contains it, 
+	 * otherwise its digital value is stored ({@code 1} for 
+	 * {@link IOValue#HIGH}, {@code 0} for {@link IOValue#LOW}).</p>
+	 * 
+	 * @param address 64-bit address of the remote device that sent the 
+	 *                sample.
+	 * @param ioSample IO sample to store.
+	 * @param timestamp Time the sample was received, in milliseconds since 
+	 *                  epoch.
+	 * 
+	 * @throws NullPointerException if {@code address == null} or 
+	 *                              if {@code ioSample == null}.
+	 * 
+	 * @see #addSample(XBee64BitAddress, IOSample)
+	 * @see #addValue(XBee64BitAddress, IOLine, long, int)
+	 */
+	public void addSample(XBee64BitAddress address, IOSample ioSample, long timestamp) {
+		if (address == null)
+			throw new NullPointerException("Address cannot be null.");
+		if (ioSample == null)
+			throw new NullPointerException("IO sample cannot be null.");
+		
+		synchronized (this) {
+			for (IOLine line : IOLine.values()) {
+				if (ioSample.hasAnalogValue(line))
+					addValue(address, line, timestamp, ioSample.getAnalogValue(line));
+				else if (ioSample.hasDigitalValue(line))
+					addValue(address, line, timestamp, 
+							ioSample.getDigitalValue(line) == IOValue.HIGH ? 1 : 0);
+			}
+		}
+	}
+	
+	/**
+	 * Stores the given value of an IO line.
+	 * 
+	 * @param address 64-bit address of the remote device.
+	 * @param line IO line the value belongs to.
+	 * @param timestamp Time the value was received, in milliseconds since 
+	 *                  epoch.
+	 * @param value Value to store.
+	 * 
+	 * @return {@code true} if the value was stored, {@code false} if the 
+	 *         line is not tracked and there is no room for new lines.
+	 * 
+	 * @throws NullPointerException if {@code address == null} or 
+	 *                              if {@code line == null}.
+	 */
+	public synchronized boolean addValue(XBee64BitAddress address, IOLine line, long timestamp, int value) {
+		if (address == null)
+			throw new NullPointerException("Address cannot be null.");
+		if (line == null)
+			throw new NullPointerException("IO line cannot be null.");
+		
+		int ring = getRing(address, line, true);
+		if (ring == NO_RING)
+			return false;
+		
+		int position = ring * samplesPerLine * ENTRY_SIZE + heads[ring] * ENTRY_SIZE;
+		buffer.putLong(position, timestamp);
+		buffer.putInt(position + 8, value);
+		
+		heads[ring] = (heads[ring] + 1) % samplesPerLine;
+		if (counts[ring] < samplesPerLine)
+			counts[ring]++;
+		return true;
+	}
+	
+	/**
+	 * Returns all the stored values of the given IO line, from the oldest to 
+	 * the newest.
+	 * 
+	 * @param address 64-bit address of the remote device.
+	 * @param line IO line to get its values.
+	 * 
+	 * @return List with the stored values, empty if there is no history for 
+	 *         the line.
+	 * 
+	 * @throws NullPointerException if {@code address == null} or 
+	 *                              if {@code line == null}.
+	 * 
+	 * @see #getEntries(XBee64BitAddress, IOLine, long, long)
+	 */
+	public List<IOSampleHistoryEntry> getEntries(XBee64BitAddress address, IOLine line) {
+		return getEntries(address, line, Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+	
+	/**
+	 * Returns the stored values of the given IO line received within the 
+	 * given time range, from the oldest to the newest.
+	 * 
+	 * @param address 64-bit address of the remote device.
+	 * @param line IO line to get its values.
+	 * @param from Start of the range (inclusive), in milliseconds since 
+	 *             epoch.
+	 * @param to End of the range (exclusive), in milliseconds since epoch.
+	 * 
+	 * @return List with the values within the range, empty if there are 
+	 *         none.
+	 * 
+	 * @throws NullPointerException if {@code address == null} or 
+	 *                              if {@code line == null}.
+	 * 
+	 * @see #getEntries(XBee64BitAddress, IOLine)
+	 */
+	public synchronized List<IOSampleHistoryEntry> getEntries(XBee64BitAddress address, IOLine line, 
+			long from, long to) {
+		checkParameters(address, line);
+		
+		List<IOSampleHistoryEntry> entries = new ArrayList<>();
+		int ring = getRing(address, line, false);
+		if (ring == NO_RING)
+			return entries;
+		
+		int base = ring * samplesPerLine * ENTRY_SIZE;
+		int first = (heads[ring] - counts[ring] + samplesPerLine) % samplesPerLine;
+		for (int i = 0; i < counts[ring]; i++) {
+			int position = base + ((first + i) % samplesPerLine) * ENTRY_SIZE;
+			long timestamp = buffer.getLong(position);
+			if (timestamp >= from && timestamp < to)
+				entries.add(new IOSampleHistoryEntry(timestamp, buffer.getInt(position + 8)));
+		}
+		return entries;
+	}
+	
+	/**
+	 * Returns the last stored value of the given IO line.
+	 * 
+	 * @param address 64-bit address of the remote device.
+	 * @param line IO line to get its last value.
+	 * 
+	 * @return The last stored value, {@code null} if there is no history 
+	 *         for the line.
+	 * 
+	 * @throws NullPointerException if {@code address == null} or 
+	 *                              if {@code line == null}.
+	 */
+	public synchronized IOSampleHistoryEntry getLatestEntry(XBee64BitAddress address, IOLine line) {
+		checkParameters(address, line);
+		
+		int ring = getRing(address, line, false);
+		if (ring == NO_RING || counts[ring] == 0)
+			return null;
+		
+		int last = (heads[ring] - 1 + samplesPerLine) % samplesPerLine;
+		int position = ring * samplesPerLine * ENTRY_SIZE + last * ENTRY_SIZE;
+		return new IOSampleHistoryEntry(buffer.getLong(position), buffer.getInt(position + 8));
+	}
+	
+	/**
+	 * Returns the minimum, maximum and average of the values of the given IO 
+	 * line received during the last {@code window} milliseconds.
+	 * 
+	 * @param address 64-bit address of the remote device.
+	 * @param line IO line to get its statistics.
+	 * @param window Length of the window in milliseconds.
+	 * 
+	 * @return The statistics of the line within the window.
+	 * 
+	 * @throws IllegalArgumentException if {@code window < 0}.
+	 * @throws NullPointerException if {@code address == null} or 
+	 *                              if {@code line == null}.
+	 * 
+	 * @see #getStatistics(XBee64BitAddress, IOLine, long, long)
+	 */
+	public IOSampleHistoryStatistics getStatistics(XBee64BitAddress address, IOLine line, long window) {
+		if (window < 0)
+			throw new IllegalArgumentException("Window cannot be negative.");
+		
+		long now = System.currentTimeMillis();
+		return getStatistics(address, line, now - window, now + 1);
+	}
+	
+	/**
+	 * Returns the minimum, maximum and average of the values of the given IO 
+	 * line received within the given time range.
+	 * 
+	 * @param address 64-bit address of the remote device.
+	 * @param line IO line to get its statistics.
+	 * @param from Start of the range (inclusive), in milliseconds since 
+	 *             epoch.
+	 * @param to End of the range (exclusive), in milliseconds since epoch.
+	 * 
+	 * @return The statistics of the line within the range.
+	 * 
+	 * @throws NullPointerException if {@code address == null} or 
+	 *                              if {@code line == null}.
+	 * 
+	 * @see #getStatistics(XBee64BitAddress, IOLine, long)
+	 */
+	public IOSampleHistoryStatistics getStatistics(XBee64BitAddress address, IOLine line, 
+			long from, long to) {
+		List<IOSampleHistoryEntry> entries = getEntries(address, line, from, to);
+		if (entries.isEmpty())
+			return new IOSampleHistoryStatistics(from, to, 0, 0, 0, 0);
+		
+		int min = Integer.MAX_VALUE;
+		int max = Integer.MIN_VALUE;
+		long sum = 0;
+		for (IOSampleHistoryEntry entry : entries) {
+			min = Math.min(min, entry.getValue());
+			max = Math.max(max, entry.getValue());
+			sum += entry.getValue();
+		}
+		return new IOSampleHistoryStatistics(from, to, entries.size(), min, max, 
+				(double)sum / entries.size());
+	}
+	
+	/**
+	 * Downsamples the values of the given IO line received within the given 
+	 * time range in buckets of {@code bucketLength} milliseconds.
+	 * 
+	 * <p>Buckets are aligned to {@code from} and only the ones containing 
+	 * values are returned.</p>
+	 * 
+	 * @param address 64-bit address of the remote device.
+	 * @param line IO line to downsample.
+	 * @param from Start of the range (inclusive), in milliseconds since 
+	 *             epoch.
+	 * @param to End of the range (exclusive), in milliseconds since epoch.
+	 * @param bucketLength Length of every bucket in milliseconds.
+	 * 
+	 * @return List with the statistics of every non-empty bucket, from the 
+	 *         oldest to the newest.
+	 * 
+	 * @throws IllegalArgumentException if {@code bucketLength < 1}.
+	 * @throws NullPointerException if {@code address == null} or 
+	 *                              if {@code line == null}.
+	 */
+	public List<IOSampleHistoryStatistics> downsample(XBee64BitAddress address, IOLine line, 
+			long from, long to, long bucketLength) {
+		if (bucketLength < 1)
+			throw new IllegalArgumentException("Bucket length must be greater than 0.");
+		
+		List<IOSampleHistoryStatistics> buckets = new ArrayList<>();
+		
+		long bucketStart = 0;
+		int count = 0;
+		int min = 0;
+		int max = 0;
+		long sum = 0;
+		for (IOSampleHistoryEntry entry : getEntries(address, line, from, to)) {
+			if (count > 0 && entry.getTimestamp() - bucketStart >= bucketLength) {
+				buckets.add(createBucket(bucketStart, bucketLength, to, count, min, max, sum));
+				count = 0;
+			}
+			if (count == 0) {
+				bucketStart = from + (entry.getTimestamp() - from) / bucketLength * bucketLength;
+				min = entry.getValue();
+				max = entry.getValue();
+				sum = 0;
+			}
+			count++;
+			min = Math.min(min, entry.getValue());
+			max = Math.max(max, entry.getValue());
+			sum += entry.getValue();
+		}
+		if (count > 0)
+			buckets.add(createBucket(bucketStart, bucketLength, to, count, min, max, sum));
+		return buckets;
+	}
+	
+	/**
+	 * Removes the history of all the IO lines of the given remote device, 
+	 * releasing its rings for other lines.
+	 * 
+	 * @param address 64-bit address of the remote device.
+	 * 
+	 * @throws NullPointerException if {@code address == null}.
+	 */
+	public synchronized void remove(XBee64BitAddress address) {
+		if (address == null)
+			throw new NullPointerException("Address cannot be null.");
+		
+		int[] rings = ringIndex.remove(address);
+		if (rings == null)
+			return;
+		for (int ring : rings) {
+			if (ring == NO_RING)
+				continue;
+			heads[ring] = 0;
+			counts[ring] = 0;
+			freeRings.push(ring);
+		}
+	}
+	
+	/**
+	 * Removes the history of all the IO lines.
+	 */
+	public synchronized void clear() {
+		ringIndex.clear();
+		freeRings.clear();
+		Arrays.fill(heads, 0);
+		Arrays.fill(counts, 0);
+		nextRing = 0;
+	}
+	
+	/**
+	 * Returns the number of IO lines with history.
+	 * 
+	 * @return The number of IO lines with history.
+	 */
+	public synchronized int getLineCount() {
+		return nextRing - freeRings.size();
+	}
+	
+	/**
+	 * Returns the maximum number of IO lines this history can keep.
+	 * 
+	 * @return The maximum number of IO lines.
+	 */
+	public int getMaxLines() {
+		return maxLines;
+	}
+	
+	/**
+	 * Returns the number of values kept for every IO line.
+	 * 
+	 * @return The number of values kept for every IO line.
+	 */
+	public int getSamplesPerLine() {
+		return samplesPerLine;
+	}
+	
+	/**
+	 * Returns the size of the off-heap memory used to store the values.
+	 * 
+	 * @return The size of the off-heap memory in bytes.
+	 */
+	public int getMemorySize() {
+		return buffer.capacity();
+	}
+	
+	/**
+	 * Returns the ring assigned to the given address and IO line.
+	 * 
+	 * @param address 64-bit address of the remote device.
+	 * @param line IO line.
+	 * @param create {@code true} to assign a new ring if there is not one.
+	 * 
+	 * @return The index of the ring, {@code NO_RING} if there is not one.
+	 */
+	private int getRing(XBee64BitAddress address, IOLine line, boolean create) {
+		int[] rings = ringIndex.get(address);
+		if (rings != null && rings[line.getIndex()] != NO_RING)
+			return rings[line.getIndex()];
+		if (!create)
+			return NO_RING;
+		
+		int ring;
+		if (!freeRings.isEmpty())
+			ring = freeRings.pop();
+		else if (nextRing < maxLines)
+			ring = nextRing++;
+		else
+			return NO_RING;
+		
+		if (rings == null) {
+			rings = new int[IOLine.values().length];
+			Arrays.fill(rings, NO_RING);
+			ringIndex.put(address, rings);
+		}
+		rings[line.getIndex()] = ring;
+		return ring;
+	}
+	
+	/**
+	 * Checks the given query parameters.
+	 * 
+	 * @param address 64-bit address of the remote device.
+	 * @param line IO line.
+	 * 
+	 * @throws NullPointerException if {@code address == null} or 
+	 *                              if {@code line == null}.
+	 */
+	private void checkParameters(XBee64BitAddress address, IOLine line) {
+		if (address == null)
+			throw new NullPointerException("Address cannot be null.");
+		if (line == null)
+			throw new NullPointerException("IO line cannot be null.");
+	}
+	
+	/**
+	 * Creates the statistics of a downsampling bucket.
+	 */
+	private static IOSampleHistoryStatistics createBucket(long start, long length, long to, 
+			int count, int min, int max, long sum) {
+		long end = length > to - start ? to : start + length;
+		return new IOSampleHistoryStatistics(start, end, count, min, max, (double)sum / count);
+	}
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.io;
+
+/**
+ * This class represents a single entry of an {@link IOSampleHistory}. It 
+ * contains the value of an IO line and the time it was received.
+ * 
+ * <p>For IO lines configured as digital, the value is {@code 1} when the 
+ * line was {@link IOValue#HIGH} and {@code 0} when it was 
+ * {@link IOValue#LOW}. For IO lines configured as ADC, the value is the raw 
+ * analog value contained in the sample.</p>
+ * 
+ * @see IOSampleHistory
+ * 
+ * @since 1.4.0
+ */
+public class IOSampleHistoryEntry {
+	
+	// Variables.
+	private final long timestamp;
+	
+	private final int value;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code IOSampleHistoryEntry} with 
+	 * the given parameters.
+	 * 
+	 * @param timestamp Time the value was received, in milliseconds since 
+	 *                  epoch.
+	 * @param value Value of the IO line.
+	 */
+	public IOSampleHistoryEntry(long timestamp, int value) {
+		this.timestamp = timestamp;
+		this.value = value;
+	}
+	
+	/**
+	 * Returns the time this value was received.
+	 * 
+	 * @return The time this value was received, in milliseconds since epoch.
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+	
+	/**
+	 * Returns the value of the IO line.
+	 * 
+	 * @return The value of the IO line.
+	 */
+	public int getValue() {
+		return value;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof IOSampleHistoryEntry))
+			return false;
+		IOSampleHistoryEntry entry = (IOSampleHistoryEntry)obj;
+		return entry.getTimestamp() == timestamp && entry.getValue() == value;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		int hash = 23;
+		hash = 31 * hash + (int)(timestamp ^ (timestamp >>> 32));
+		hash = 31 * hash + value;
+		return hash;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "[" + timestamp + "] " + value;
+	}
+}
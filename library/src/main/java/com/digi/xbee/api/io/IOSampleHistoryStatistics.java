@@ -0,0 +1,127 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.io;
+
+/**
+ * This class contains the aggregated values of an IO line within a time 
+ * window of an {@link IOSampleHistory}: number of values, minimum, maximum 
+ * and average.
+ * 
+ * @see IOSampleHistory
+ * 
+ * @since 1.4.0
+ */
+public class IOSampleHistoryStatistics {
+	
+	// Variables.
+	private final long startTime;
+	private final long endTime;
+	
+	private final int count;
+	private final int minimum;
+	private final int maximum;
+	
+	private final double average;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code IOSampleHistoryStatistics} 
+	 * with the given parameters.
+	 * 
+	 * @param startTime Start of the time window (inclusive), in milliseconds 
+	 *                  since epoch.
+	 * @param endTime End of the time window (exclusive), in milliseconds 
+	 *                since epoch.
+	 * @param count Number of values within the time window.
+	 * @param minimum Minimum value within the time window.
+	 * @param maximum Maximum value within the time window.
+	 * @param average Average of the values within the time window.
+	 */
+	public IOSampleHistoryStatistics(long startTime, long endTime, int count, 
+			int minimum, int maximum, double average) {
+		this.startTime = startTime;
+		this.endTime = endTime;
+		this.count = count;
+		this.minimum = minimum;
+		this.maximum = maximum;
+		this.average = average;
+	}
+	
+	/**
+	 * Returns the start of the time window.
+	 * 
+	 * @return The start of the time window (inclusive), in milliseconds 
+	 *         since epoch.
+	 */
+	public long getStartTime() {
+		return startTime;
+	}
+	
+	/**
+	 * Returns the end of the time window.
+	 * 
+	 * @return The end of the time window (exclusive), in milliseconds since 
+	 *         epoch.
+	 */
+	public long getEndTime() {
+		return endTime;
+	}
+	
+	/**
+	 * Returns the number of values within the time window.
+	 * 
+	 * @return The number of values within the time window.
+	 */
+	public int getCount() {
+		return count;
+	}
+	
+	/**
+	 * Returns the minimum value within the time window.
+	 * 
+	 * @return The minimum value, {@code 0} if there are no values.
+	 */
+	public int getMinimum() {
+		return minimum;
+	}
+	
+	/**
+	 * Returns the maximum value within the time window.
+	 * 
+	 * @return The maximum value, {@code 0} if there are no values.
+	 */
+	public int getMaximum() {
+		return maximum;
+	}
+	
+	/**
+	 * Returns the average of the values within the time window.
+	 * 
+	 * @return The average value, {@code 0} if there are no values.
+	 */
+	public double getAverage() {
+		return average;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "[" + startTime + " - " + endTime + "] count: " + count 
+				+ ", min: " + minimum + ", max: " + maximum + ", avg: " + average;
+	}
+}
@@ -0,0 +1,40 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.listeners;
+
+import com.digi.xbee.api.utils.XBeeFuture;
+
+/**
+ * This interface defines the required methods that should be implemented to 
+ * behave as a future listener and be notified when an asynchronous operation 
+ * is done.
+ * 
+ * @param <V> The type of the result of the operation.
+ * 
+ * @since 1.4.0
+ */
+public interface IFutureListener<V> {
+	
+	/**
+	 * Called when the asynchronous operation completes, fails or is 
+	 * cancelled.
+	 * 
+	 * @param future The future of the operation.
+	 * 
+	 * @see com.digi.xbee.api.utils.XBeeFuture
+	 */
+	public void operationComplete(XBeeFuture<V> future);
+}
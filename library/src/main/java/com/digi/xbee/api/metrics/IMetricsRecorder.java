@@ -0,0 +1,66 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.metrics;
+
+/**
+ * Interface to receive the metrics of a local XBee device.
+ * 
+ * <p>The methods are called from the threads that read and send the API 
+ * frames, so implementations must be thread-safe and must return as soon 
+ * as possible. No metrics are collected (and no timestamps are taken) while 
+ * the device does not have a recorder.</p>
+ * 
+ * <p>Implement this interface to forward the metrics to another metrics 
+ * system, or use {@link XBeeMetrics}, which keeps the values in memory and 
+ * exposes them through JMX.</p>
+ * 
+ * @see XBeeMetrics
+ * @see com.digi.xbee.api.XBeeDevice#setMetricsRecorder(IMetricsRecorder)
+ * 
+ * @since 1.4.0
+ */
+public interface IMetricsRecorder {
+	
+	/**
+	 * Increments the given counter.
+	 * 
+	 * @param counter The counter to increment.
+	 * @param delta The value to add to the counter.
+	 * 
+	 * @see MetricsCounter
+	 */
+	public void increment(MetricsCounter counter, long delta);
+	
+	/**
+	 * Records a latency of the given timer.
+	 * 
+	 * @param timer The timer.
+	 * @param nanos The latency in nanoseconds.
+	 * 
+	 * @see MetricsTimer
+	 */
+	public void record(MetricsTimer timer, long nanos);
+	
+	/**
+	 * Updates the current value of the given gauge.
+	 * 
+	 * @param gauge The gauge.
+	 * @param value The current value.
+	 * 
+	 * @see MetricsGauge
+	 */
+	public void update(MetricsGauge gauge, long value);
+}
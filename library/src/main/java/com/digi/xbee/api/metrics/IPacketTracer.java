@@ -0,0 +1,107 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.metrics;
+
+import com.digi.xbee.api.packet.XBeePacket;
+
+/**
+ * Interface to trace the API frames of a local XBee device: the frames 
+ * written to the connection, the frames received and dispatched to the 
+ * listeners, and the synchronous waits for a response.
+ * 
+ * <p>Each traced operation is reported with a {@code begin} method, called 
+ * from the thread that performs the operation, and its {@code end} method, 
+ * which receives the object returned by {@code begin}. Implementations can 
+ * use this object to keep the start time or any other state of the 
+ * operation. The {@code end} method is always called, even if the 
+ * operation fails.</p>
+ * 
+ * <p>Methods are called from the threads that read and send the API 
+ * frames, so implementations must be thread-safe and must return as soon 
+ * as possible. Nothing is traced while the device does not have a 
+ * tracer.</p>
+ * 
+ * @see com.digi.xbee.api.XBeeDevice#setPacketTracer(IPacketTracer)
+ * 
+ * @since 1.4.0
+ */
+public interface IPacketTracer {
+	
+	/**
+	 * Notifies that the given packet is going to be written to the 
+	 * connection interface.
+	 * 
+	 * @param packet The packet to write.
+	 * @param size Number of bytes to write, including the frame header, the 
+	 *             checksum and the escaped bytes.
+	 * 
+	 * @return The trace of the write operation, passed to 
+	 *         {@link #endSend(Object)}. It may be {@code null}.
+	 */
+	public Object beginSend(XBeePacket packet, int size);
+	
+	/**
+	 * Notifies that a packet has been written to the connection interface, 
+	 * or that the write failed.
+	 * 
+	 * @param trace The object returned by 
+	 *              {@link #beginSend(XBeePacket, int)}.
+	 */
+	public void endSend(Object trace);
+	
+	/**
+	 * Notifies that the given packet has been received and is going to be 
+	 * queued and dispatched to the listeners.
+	 * 
+	 * @param packet The received packet.
+	 * @param size Number of bytes of the frame, including the frame header 
+	 *             and the checksum.
+	 * 
+	 * @return The trace of the dispatch, passed to 
+	 *         {@link #endDispatch(Object)}. It may be {@code null}.
+	 */
+	public Object beginDispatch(XBeePacket packet, int size);
+	
+	/**
+	 * Notifies that a received packet has been dispatched to the listeners.
+	 * 
+	 * @param trace The object returned by 
+	 *              {@link #beginDispatch(XBeePacket, int)}.
+	 */
+	public void endDispatch(Object trace);
+	
+	/**
+	 * Notifies that the current thread is going to send the given packet 
+	 * and wait for its response.
+	 * 
+	 * @param request The packet to send.
+	 * 
+	 * @return The trace of the wait, passed to 
+	 *         {@link #endResponseWait(Object, XBeePacket)}. It may be 
+	 *         {@code null}.
+	 */
+	public Object beginResponseWait(XBeePacket request);
+	
+	/**
+	 * Notifies that the wait for the response of a packet has finished.
+	 * 
+	 * @param trace The object returned by 
+	 *              {@link #beginResponseWait(XBeePacket)}.
+	 * @param response The received response, {@code null} if the wait timed 
+	 *                 out or failed.
+	 */
+	public void endResponseWait(Object trace, XBeePacket response);
+}
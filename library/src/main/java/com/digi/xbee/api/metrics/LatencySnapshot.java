@@ -0,0 +1,122 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * This class represents the values of a {@link MetricsHistogram} at a 
+ * given moment. All the latencies are in microseconds.
+ * 
+ * @see MetricsHistogram#getSnapshot()
+ * 
+ * @since 1.4.0
+ */
+public class LatencySnapshot {
+	
+	// Variables.
+	private final long count;
+	private final double mean;
+	private final long max;
+	private final long p50;
+	private final long p90;
+	private final long p99;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code LatencySnapshot} with the 
+	 * given values.
+	 * 
+	 * @param count Number of recorded latencies.
+	 * @param mean Mean latency in microseconds.
+	 * @param max Maximum latency in microseconds.
+	 * @param p50 50th percentile in microseconds.
+	 * @param p90 90th percentile in microseconds.
+	 * @param p99 99th percentile in microseconds.
+	 */
+	@ConstructorProperties({"count", "mean", "max", "p50", "p90", "p99"})
+	public LatencySnapshot(long count, double mean, long max, long p50, long p90, long p99) {
+		this.count = count;
+		this.mean = mean;
+		this.max = max;
+		this.p50 = p50;
+		this.p90 = p90;
+		this.p99 = p99;
+	}
+	
+	/**
+	 * Returns the number of recorded latencies.
+	 * 
+	 * @return The number of latencies.
+	 */
+	public long getCount() {
+		return count;
+	}
+	
+	/**
+	 * Returns the mean latency.
+	 * 
+	 * @return The mean latency in microseconds.
+	 */
+	public double getMean() {
+		return mean;
+	}
+	
+	/**
+	 * Returns the maximum latency.
+	 * 
+	 * @return The maximum latency in microseconds.
+	 */
+	public long getMax() {
+		return max;
+	}
+	
+	/**
+	 * Returns the 50th percentile (median) of the latencies.
+	 * 
+	 * @return The 50th percentile in microseconds.
+	 */
+	public long getP50() {
+		return p50;
+	}
+	
+	/**
+	 * Returns the 90th percentile of the latencies.
+	 * 
+	 * @return The 90th percentile in microseconds.
+	 */
+	public long getP90() {
+		return p90;
+	}
+	
+	/**
+	 * Returns the 99th percentile of the latencies.
+	 * 
+	 * @return The 99th percentile in microseconds.
+	 */
+	public long getP99() {
+		return p99;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return String.format("count=%d, mean=%.1fus, p50=%dus, p90=%dus, p99=%dus, max=%dus", 
+				count, mean, p50, p90, p99, max);
+	}
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.metrics;
+
+/**
+ * Enumerates the counters reported to an {@code IMetricsRecorder}.
+ * 
+ * @see IMetricsRecorder
+ * 
+ * @since 1.4.0
+ */
+public enum MetricsCounter {
+	
+	// Enumeration types
+	FRAMES_RECEIVED("API frames received"),
+	BYTES_RECEIVED("Bytes of the API frames received"),
+	FRAMES_SENT("API frames sent"),
+	BYTES_SENT("Bytes of the API frames sent"),
+	CHECKSUM_ERRORS("API frames received with invalid checksum"),
+	PARSE_ERRORS("API frames that could not be parsed"),
+	DISCARDED_PACKETS("Packets discarded because the packets queue was full"),
+	RESPONSE_TIMEOUTS("Packets sent without response before the receive timeout"),
+	AT_COMMANDS("AT commands sent"),
+	AT_COMMAND_ERRORS("AT commands answered with an error status"),
+	NODE_DISCOVERIES("Node discovery processes"),
+	DISCOVERED_DEVICES("Remote devices discovered");
+	
+	// Variables.
+	private final String description;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code MetricsCounter} enumeration 
+	 * entry with the given description.
+	 * 
+	 * @param description Description of the metric.
+	 */
+	MetricsCounter(String description) {
+		this.description = description;
+	}
+	
+	/**
+	 * Returns the description of the metric.
+	 * 
+	 * @return The description of the metric.
+	 */
+	public String getDescription() {
+		return description;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Enum#toString()
+	 */
+	@Override
+	public String toString() {
+		return description;
+	}
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class represents a thread-safe latency histogram with fixed 
+ * buckets, from 100 microseconds to 10 seconds.
+ * 
+ * <p>Recording a value only increments a few atomic counters, so it can be 
+ * used in the read and send paths of the device.</p>
+ * 
+ * @see LatencySnapshot
+ * 
+ * @since 1.4.0
+ */
+public class MetricsHistogram {
+	
+	// Constants.
+	private static final long[] UPPER_BOUNDS = {100, 250, 500, 1000, 2500, 5000, 10000, 25000, 50000, 
+			100000, 250000, 500000, 1000000, 2500000, 5000000, 10000000, Long.MAX_VALUE};
+	
+	// Variables.
+	private final AtomicLongArray counts = new AtomicLongArray(UPPER_BOUNDS.length);
+	
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+	
+	/**
+	 * Records the given latency.
+	 * 
+	 * @param nanos The latency in nanoseconds.
+	 */
+	public void record(long nanos) {
+		long micros = Math.max(0, nanos / 1000);
+		int bucket = Arrays.binarySearch(UPPER_BOUNDS, micros);
+		if (bucket < 0)
+			bucket = -bucket - 1;
+		counts.incrementAndGet(bucket);
+		sum.addAndGet(micros);
+		long current = max.get();
+		while (micros > current && !max.compareAndSet(current, micros))
+			current = max.get();
+	}
+	
+	/**
+	 * Returns the number of buckets of the histogram.
+	 * 
+	 * @return The number of buckets.
+	 */
+	public int getBucketCount() {
+		return UPPER_BOUNDS.length;
+	}
+	
+	/**
+	 * Returns the upper bound of the given bucket.
+	 * 
+	 * @param bucket The bucket index, from 0 to 
+	 *               {@code getBucketCount() - 1}.
+	 * 
+	 * @return The upper bound of the bucket in microseconds (inclusive).
+	 */
+	public long getBucketUpperBound(int bucket) {
+		return UPPER_BOUNDS[bucket];
+	}
+	
+	/**
+	 * Returns the number of latencies recorded in the given bucket.
+	 * 
+	 * @param bucket The bucket index, from 0 to 
+	 *               {@code getBucketCount() - 1}.
+	 * 
+	 * @return The number of latencies in the bucket.
+	 */
+	public long getCount(int bucket) {
+		return counts.get(bucket);
+	}
+	
+	/**
+	 * Returns a snapshot of the current values of the histogram.
+	 * 
+	 * <p>Percentiles are the upper bound of the bucket that contains them, 
+	 * limited by the maximum recorded latency.</p>
+	 * 
+	 * @return The snapshot of the histogram.
+	 */
+	public LatencySnapshot getSnapshot() {
+		long[] values = new long[UPPER_BOUNDS.length];
+		long count = 0;
+		for (int i = 0; i < values.length; i++) {
+			values[i] = counts.get(i);
+			count += values[i];
+		}
+		long maximum = max.get();
+		double mean = count == 0 ? 0 : (double)sum.get() / count;
+		return new LatencySnapshot(count, mean, maximum, percentile(values, count, maximum, 50), 
+				percentile(values, count, maximum, 90), percentile(values, count, maximum, 99));
+	}
+	
+	/**
+	 * Clears all the recorded latencies.
+	 */
+	public void reset() {
+		for (int i = 0; i < counts.length(); i++)
+			counts.set(i, 0);
+		sum.set(0);
+		max.set(0);
+	}
+	
+	/**
+	 * Returns the given percentile of the bucket counts.
+	 * 
+	 * @param values The bucket counts.
+	 * @param count The total count.
+	 * @param maximum The maximum latency.
+	 * @param percentile The percentile, from 0 to 100.
+	 * 
+	 * @return The percentile in microseconds.
+	 */
+	private static long percentile(long[] values, long count, long maximum, double percentile) {
+		if (count == 0)
+			return 0;
+		
+		long target = Math.max(1, (long)Math.ceil(count * percentile / 100));
+		long accumulated = 0;
+		for (int i = 0; i < values.length; i++) {
+			accumulated += values[i];
+			if (accumulated >= target)
+				return Math.min(UPPER_BOUNDS[i], maximum);
+		}
+		return maximum;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return getSnapshot().toString();
+	}
+}
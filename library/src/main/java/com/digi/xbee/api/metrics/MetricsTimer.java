@@ -0,0 +1,69 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.metrics;
+
+/**
+ * Enumerates the latencies reported to an {@code IMetricsRecorder}.
+ * 
+ * @see IMetricsRecorder
+ * 
+ * @since 1.4.0
+ */
+public enum MetricsTimer {
+	
+	// Enumeration types
+	LISTENER_DISPATCH("Dispatch of a received packet to the listeners"),
+	FRAME_READ("Read of a received frame from its first byte"),
+	FRAME_DECODE("Decode of a received frame"),
+	LISTENER_QUEUE("Wait of a received message until its listener starts"),
+	LISTENER_EXECUTION("Execution of a message listener"),
+	END_TO_END("Received message from its first byte until its listener returns"),
+	PACKET_RESPONSE("Response to a packet sent synchronously"),
+	TRANSMIT_STATUS("Transmit status of a transmit request"),
+	AT_COMMAND("Response to an AT command"),
+	NODE_DISCOVERY("Node discovery process");
+	
+	// Variables.
+	private final String description;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code MetricsTimer} enumeration 
+	 * entry with the given description.
+	 * 
+	 * @param description Description of the metric.
+	 */
+	MetricsTimer(String description) {
+		this.description = description;
+	}
+	
+	/**
+	 * Returns the description of the metric.
+	 * 
+	 * @return The description of the metric.
+	 */
+	public String getDescription() {
+		return description;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Enum#toString()
+	 */
+	@Override
+	public String toString() {
+		return description;
+	}
+}
@@ -0,0 +1,448 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * This class is the default {@code IMetricsRecorder}. It keeps the metrics 
+ * of a local XBee device in memory and exposes them through JMX.
+ * 
+ * <p>Counters and histograms only use atomic operations, so recording is 
+ * lock-free.</p>
+ * 
+ * @see com.digi.xbee.api.XBeeDevice#enableMetrics()
+ * 
+ * @since 1.4.0
+ */
+public class XBeeMetrics implements IMetricsRecorder, XBeeMetricsMXBean {
+	
+	// Constants.
+	/**
+	 * Domain of the names of the registered beans (value: {@value}).
+	 */
+	public static final String DOMAIN = "com.digi.xbee.api";
+	
+	// Variables.
+	private final AtomicLongArray counters = new AtomicLongArray(MetricsCounter.values().length);
+	
+	private final MetricsHistogram[] histograms = new MetricsHistogram[MetricsTimer.values().length];
+	
+	private final AtomicLongArray gauges = new AtomicLongArray(MetricsGauge.values().length);
+	private final AtomicLongArray maxGauges = new AtomicLongArray(MetricsGauge.values().length);
+	
+	private final AtomicLong registrations = new AtomicLong();
+	
+	private ObjectName objectName;
+	
+	/**
+	 * Class constructor. Instantiates a new empty {@code XBeeMetrics}.
+	 */
+	public XBeeMetrics() {
+		for (int i = 0; i < histograms.length; i++)
+			histograms[i] = new MetricsHistogram();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.IMetricsRecorder#increment(com.digi.xbee.api.metrics.MetricsCounter, long)
+	 */
+	@Override
+	public void increment(MetricsCounter counter, long delta) {
+		counters.addAndGet(counter.ordinal(), delta);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.IMetricsRecorder#record(com.digi.xbee.api.metrics.MetricsTimer, long)
+	 */
+	@Override
+	public void record(MetricsTimer timer, long nanos) {
+		histograms[timer.ordinal()].record(nanos);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.IMetricsRecorder#update(com.digi.xbee.api.metrics.MetricsGauge, long)
+	 */
+	@Override
+	public void update(MetricsGauge gauge, long value) {
+		int index = gauge.ordinal();
+		gauges.set(index, value);
+		long current = maxGauges.get(index);
+		while (value > current && !maxGauges.compareAndSet(index, current, value))
+			current = maxGauges.get(index);
+	}
+	
+	/**
+	 * Returns the value of the given counter.
+	 * 
+	 * @param counter The counter.
+	 * 
+	 * @return The value of the counter.
+	 * 
+	 * @throws NullPointerException if {@code counter == null}.
+	 */
+	public long getCounter(MetricsCounter counter) {
+		if (counter == null)
+			throw new NullPointerException("Counter cannot be null.");
+		
+		return counters.get(counter.ordinal());
+	}
+	
+	/**
+	 * Returns the histogram of the given timer.
+	 * 
+	 * @param timer The timer.
+	 * 
+	 * @return The histogram of the timer.
+	 * 
+	 * @throws NullPointerException if {@code timer == null}.
+	 */
+	public MetricsHistogram getHistogram(MetricsTimer timer) {
+		if (timer == null)
+			throw new NullPointerException("Timer cannot be null.");
+		
+		return histograms[timer.ordinal()];
+	}
+	
+	/**
+	 * Returns the last value of the given gauge.
+	 * 
+	 * @param gauge The gauge.
+	 * 
+	 * @return The last value of the gauge.
+	 * 
+	 * @throws NullPointerException if {@code gauge == null}.
+	 */
+	public long getGauge(MetricsGauge gauge) {
+		if (gauge == null)
+			throw new NullPointerException("Gauge cannot be null.");
+		
+		return gauges.get(gauge.ordinal());
+	}
+	
+	/**
+	 * Registers this bean in the platform MBean server.
+	 * 
+	 * @param name The name of the device.
+	 * 
+	 * @return The name of the registered bean.
+	 * 
+	 * @throws JMException if the bean cannot be registered.
+	 * @throws NullPointerException if {@code name == null}.
+	 * 
+	 * @see #unregister()
+	 */
+	public synchronized ObjectName register(String name) throws JMException {
+		if (name == null)
+			throw new NullPointerException("Name cannot be null.");
+		
+		unregister();
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName candidate = new ObjectName(DOMAIN + ":type=XBeeDevice,name=" + ObjectName.quote(name));
+		// Several devices may share the same name.
+		while (server.isRegistered(candidate))
+			candidate = new ObjectName(DOMAIN + ":type=XBeeDevice,name=" + ObjectName.quote(name) 
+					+ ",instance=" + registrations.incrementAndGet());
+		server.registerMBean(this, candidate);
+		objectName = candidate;
+		return objectName;
+	}
+	
+	/**
+	 * Unregisters this bean from the platform MBean server.
+	 * 
+	 * <p>This method does nothing if the bean is not registered.</p>
+	 * 
+	 * @throws JMException if the bean cannot be unregistered.
+	 * 
+	 * @see #register(String)
+	 */
+	public synchronized void unregister() throws JMException {
+		if (objectName == null)
+			return;
+		
+		ObjectName name = objectName;
+		objectName = null;
+		ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+	}
+	
+	/**
+	 * Returns the name of the registered bean.
+	 * 
+	 * @return The name of the bean, {@code null} if it is not registered.
+	 */
+	public synchronized ObjectName getObjectName() {
+		return objectName;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getFramesReceived()
+	 */
+	@Override
+	public long getFramesReceived() {
+		return getCounter(MetricsCounter.FRAMES_RECEIVED);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getBytesReceived()
+	 */
+	@Override
+	public long getBytesReceived() {
+		return getCounter(MetricsCounter.BYTES_RECEIVED);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getFramesSent()
+	 */
+	@Override
+	public long getFramesSent() {
+		return getCounter(MetricsCounter.FRAMES_SENT);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getBytesSent()
+	 */
+	@Override
+	public long getBytesSent() {
+		return getCounter(MetricsCounter.BYTES_SENT);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getChecksumErrors()
+	 */
+	@Override
+	public long getChecksumErrors() {
+		return getCounter(MetricsCounter.CHECKSUM_ERRORS);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getParseErrors()
+	 */
+	@Override
+	public long getParseErrors() {
+		return getCounter(MetricsCounter.PARSE_ERRORS);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getDiscardedPackets()
+	 */
+	@Override
+	public long getDiscardedPackets() {
+		return getCounter(MetricsCounter.DISCARDED_PACKETS);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getQueueDepth()
+	 */
+	@Override
+	public long getQueueDepth() {
+		return getGauge(MetricsGauge.QUEUE_DEPTH);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getMaxQueueDepth()
+	 */
+	@Override
+	public long getMaxQueueDepth() {
+		return maxGauges.get(MetricsGauge.QUEUE_DEPTH.ordinal());
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getDecodeBacklog()
+	 */
+	@Override
+	public long getDecodeBacklog() {
+		return getGauge(MetricsGauge.DECODE_BACKLOG);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getDispatchBacklog()
+	 */
+	@Override
+	public long getDispatchBacklog() {
+		return getGauge(MetricsGauge.DISPATCH_BACKLOG);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getResponseTimeouts()
+	 */
+	@Override
+	public long getResponseTimeouts() {
+		return getCounter(MetricsCounter.RESPONSE_TIMEOUTS);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getATCommands()
+	 */
+	@Override
+	public long getATCommands() {
+		return getCounter(MetricsCounter.AT_COMMANDS);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getATCommandErrors()
+	 */
+	@Override
+	public long getATCommandErrors() {
+		return getCounter(MetricsCounter.AT_COMMAND_ERRORS);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getNodeDiscoveries()
+	 */
+	@Override
+	public long getNodeDiscoveries() {
+		return getCounter(MetricsCounter.NODE_DISCOVERIES);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getDiscoveredDevices()
+	 */
+	@Override
+	public long getDiscoveredDevices() {
+		return getCounter(MetricsCounter.DISCOVERED_DEVICES);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getListenerDispatchLatency()
+	 */
+	@Override
+	public LatencySnapshot getListenerDispatchLatency() {
+		return getHistogram(MetricsTimer.LISTENER_DISPATCH).getSnapshot();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getFrameReadLatency()
+	 */
+	@Override
+	public LatencySnapshot getFrameReadLatency() {
+		return getHistogram(MetricsTimer.FRAME_READ).getSnapshot();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getFrameDecodeLatency()
+	 */
+	@Override
+	public LatencySnapshot getFrameDecodeLatency() {
+		return getHistogram(MetricsTimer.FRAME_DECODE).getSnapshot();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getListenerQueueLatency()
+	 */
+	@Override
+	public LatencySnapshot getListenerQueueLatency() {
+		return getHistogram(MetricsTimer.LISTENER_QUEUE).getSnapshot();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getListenerExecutionLatency()
+	 */
+	@Override
+	public LatencySnapshot getListenerExecutionLatency() {
+		return getHistogram(MetricsTimer.LISTENER_EXECUTION).getSnapshot();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getEndToEndLatency()
+	 */
+	@Override
+	public LatencySnapshot getEndToEndLatency() {
+		return getHistogram(MetricsTimer.END_TO_END).getSnapshot();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getPacketResponseLatency()
+	 */
+	@Override
+	public LatencySnapshot getPacketResponseLatency() {
+		return getHistogram(MetricsTimer.PACKET_RESPONSE).getSnapshot();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getTransmitStatusLatency()
+	 */
+	@Override
+	public LatencySnapshot getTransmitStatusLatency() {
+		return getHistogram(MetricsTimer.TRANSMIT_STATUS).getSnapshot();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getATCommandLatency()
+	 */
+	@Override
+	public LatencySnapshot getATCommandLatency() {
+		return getHistogram(MetricsTimer.AT_COMMAND).getSnapshot();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#getNodeDiscoveryDuration()
+	 */
+	@Override
+	public LatencySnapshot getNodeDiscoveryDuration() {
+		return getHistogram(MetricsTimer.NODE_DISCOVERY).getSnapshot();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.metrics.XBeeMetricsMXBean#reset()
+	 */
+	@Override
+	public void reset() {
+		for (int i = 0; i < counters.length(); i++)
+			counters.set(i, 0);
+		for (int i = 0; i < gauges.length(); i++) {
+			gauges.set(i, 0);
+			maxGauges.set(i, 0);
+		}
+		for (MetricsHistogram histogram : histograms)
+			histogram.reset();
+	}
+}
@@ -0,0 +1,227 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.metrics;
+
+/**
+ * Management interface of the metrics of a local XBee device.
+ * 
+ * <p>One bean is registered in the platform MBean server for every local 
+ * device with metrics enabled, with the name 
+ * {@code com.digi.xbee.api:type=XBeeDevice,name=<device>}. Latencies are 
+ * exposed as composite values in microseconds.</p>
+ * 
+ * @see XBeeMetrics
+ * 
+ * @since 1.4.0
+ */
+public interface XBeeMetricsMXBean {
+	
+	/**
+	 * Returns the number of API frames received.
+	 * 
+	 * @return The number of frames received.
+	 */
+	public long getFramesReceived();
+	
+	/**
+	 * Returns the number of bytes of the API frames received.
+	 * 
+	 * @return The number of bytes received.
+	 */
+	public long getBytesReceived();
+	
+	/**
+	 * Returns the number of API frames sent.
+	 * 
+	 * @return The number of frames sent.
+	 */
+	public long getFramesSent();
+	
+	/**
+	 * Returns the number of bytes of the API frames sent.
+	 * 
+	 * @return The number of bytes sent.
+	 */
+	public long getBytesSent();
+	
+	/**
+	 * Returns the number of API frames received with an invalid checksum.
+	 * 
+	 * @return The number of checksum errors.
+	 */
+	public long getChecksumErrors();
+	
+	/**
+	 * Returns the number of API frames received that could not be parsed.
+	 * 
+	 * @return The number of parse errors.
+	 */
+	public long getParseErrors();
+	
+	/**
+	 * Returns the number of packets discarded because the received packets 
+	 * queue was full.
+	 * 
+	 * @return The number of discarded packets.
+	 */
+	public long getDiscardedPackets();
+	
+	/**
+	 * Returns the number of packets in the received packets queue when the 
+	 * last packet was received.
+	 * 
+	 * @return The depth of the queue.
+	 */
+	public long getQueueDepth();
+	
+	/**
+	 * Returns the maximum number of packets in the received packets queue.
+	 * 
+	 * @return The maximum depth of the queue.
+	 */
+	public long getMaxQueueDepth();
+	
+	/**
+	 * Returns the number of read blocks of bytes waiting to be decoded in 
+	 * the staged receive pipeline when the last block was read.
+	 * 
+	 * @return The decode backlog.
+	 */
+	public long getDecodeBacklog();
+	
+	/**
+	 * Returns the number of decoded frames waiting to be dispatched in the 
+	 * staged receive pipeline when the last frame was decoded.
+	 * 
+	 * @return The dispatch backlog.
+	 */
+	public long getDispatchBacklog();
+	
+	/**
+	 * Returns the number of packets sent that were not answered before the 
+	 * receive timeout.
+	 * 
+	 * @return The number of response timeouts.
+	 */
+	public long getResponseTimeouts();
+	
+	/**
+	 * Returns the number of AT commands sent.
+	 * 
+	 * @return The number of AT commands.
+	 */
+	public long getATCommands();
+	
+	/**
+	 * Returns the number of AT commands answered with an error status.
+	 * 
+	 * @return The number of AT command errors.
+	 */
+	public long getATCommandErrors();
+	
+	/**
+	 * Returns the number of node discovery processes.
+	 * 
+	 * @return The number of node discoveries.
+	 */
+	public long getNodeDiscoveries();
+	
+	/**
+	 * Returns the number of remote devices discovered.
+	 * 
+	 * @return The number of discovered devices.
+	 */
+	public long getDiscoveredDevices();
+	
+	/**
+	 * Returns the latency of dispatching a received packet to the listeners.
+	 * 
+	 * @return The listener dispatch latency.
+	 */
+	public LatencySnapshot getListenerDispatchLatency();
+	
+	/**
+	 * Returns the time spent reading the received frames, from their start 
+	 * delimiter until their checksum.
+	 * 
+	 * @return The frame read latency.
+	 */
+	public LatencySnapshot getFrameReadLatency();
+	
+	/**
+	 * Returns the time spent decoding the received frames.
+	 * 
+	 * @return The frame decode latency.
+	 */
+	public LatencySnapshot getFrameDecodeLatency();
+	
+	/**
+	 * Returns the time the received messages wait since they are decoded 
+	 * until a listener starts processing them.
+	 * 
+	 * @return The listener queue latency.
+	 */
+	public LatencySnapshot getListenerQueueLatency();
+	
+	/**
+	 * Returns the execution time of the message listeners.
+	 * 
+	 * @return The listener execution latency.
+	 */
+	public LatencySnapshot getListenerExecutionLatency();
+	
+	/**
+	 * Returns the end-to-end latency of the received messages, from the 
+	 * first byte of their frame until their listener returns.
+	 * 
+	 * @return The end-to-end latency.
+	 */
+	public LatencySnapshot getEndToEndLatency();
+	
+	/**
+	 * Returns the latency of the responses to the packets sent 
+	 * synchronously, except transmit requests.
+	 * 
+	 * @return The packet response latency.
+	 */
+	public LatencySnapshot getPacketResponseLatency();
+	
+	/**
+	 * Returns the latency of the transmit status of the transmit requests.
+	 * 
+	 * @return The transmit status latency.
+	 */
+	public LatencySnapshot getTransmitStatusLatency();
+	
+	/**
+	 * Returns the round-trip time of the AT commands.
+	 * 
+	 * @return The AT command latency.
+	 */
+	public LatencySnapshot getATCommandLatency();
+	
+	/**
+	 * Returns the duration of the node discovery processes.
+	 * 
+	 * @return The node discovery duration.
+	 */
+	public LatencySnapshot getNodeDiscoveryDuration();
+	
+	/**
+	 * Clears all the metrics.
+	 */
+	public void reset();
+}
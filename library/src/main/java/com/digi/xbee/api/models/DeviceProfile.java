@@ -0,0 +1,184 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.models;
+
+import java.io.Serializable;
+
+/**
+ * This class represents the identity of a local XBee device as read when 
+ * opening its connection: operating mode, 64-bit address, hardware and 
+ * firmware versions, protocol, 16-bit address and node identifier.
+ * 
+ * <p>A profile can be obtained from an open device and stored (it is 
+ * {@code Serializable}) to be provided again the next time the device is 
+ * opened, so the opening process only has to verify it instead of 
+ * detecting the operating mode and reading every parameter.</p>
+ * 
+ * @see com.digi.xbee.api.XBeeDevice#getDeviceProfile()
+ * @see com.digi.xbee.api.XBeeDevice#setDeviceProfile(DeviceProfile)
+ * 
+ * @since 1.4.0
+ */
+public class DeviceProfile implements Serializable {
+	
+	// Constants.
+	private static final long serialVersionUID = 1L;
+	
+	// Variables.
+	private final OperatingMode operatingMode;
+	
+	private final byte[] address64;
+	private final byte[] address16;
+	
+	private final int hardwareVersion;
+	
+	private final String firmwareVersion;
+	private final String nodeID;
+	
+	private final XBeeProtocol protocol;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code DeviceProfile} with the 
+	 * given values.
+	 * 
+	 * @param operatingMode Operating mode of the device.
+	 * @param address64 64-bit address of the device.
+	 * @param hardwareVersion Hardware version of the device.
+	 * @param firmwareVersion Firmware version of the device.
+	 * @param protocol Protocol of the device.
+	 * @param address16 16-bit address of the device, {@code null} if the 
+	 *                  protocol does not use it.
+	 * @param nodeID Node identifier of the device, {@code null} if unknown.
+	 * 
+	 * @throws IllegalArgumentException if {@code operatingMode} is not 
+	 *                                  {@code OperatingMode.API} or 
+	 *                                  {@code OperatingMode.API_ESCAPE}.
+	 * @throws NullPointerException if {@code operatingMode == null} or 
+	 *                              if {@code address64 == null} or 
+	 *                              if {@code hardwareVersion == null} or 
+	 *                              if {@code firmwareVersion == null} or 
+	 *                              if {@code protocol == null}.
+	 */
+	public DeviceProfile(OperatingMode operatingMode, XBee64BitAddress address64, 
+			HardwareVersion hardwareVersion, String firmwareVersion, XBeeProtocol protocol, 
+			XBee16BitAddress address16, String nodeID) {
+		if (operatingMode == null)
+			throw new NullPointerException("Operating mode cannot be null.");
+		if (address64 == null)
+			throw new NullPointerException("64-bit address cannot be null.");
+		if (hardwareVersion == null)
+			throw new NullPointerException("Hardware version cannot be null.");
+		if (firmwareVersion == null)
+			throw new NullPointerException("Firmware version cannot be null.");
+		if (protocol == null)
+			throw new NullPointerException("Protocol cannot be null.");
+		if (operatingMode != OperatingMode.API && operatingMode != OperatingMode.API_ESCAPE)
+			throw new IllegalArgumentException("Operating mode must be API or API escaped.");
+		
+		this.operatingMode = operatingMode;
+		this.address64 = address64.getValue();
+		this.hardwareVersion = hardwareVersion.getValue();
+		this.firmwareVersion = firmwareVersion;
+		this.protocol = protocol;
+		this.address16 = address16 == null ? null : address16.getValue();
+		this.nodeID = nodeID;
+	}
+	
+	/**
+	 * Returns the operating mode of the device.
+	 * 
+	 * @return The operating mode of the device.
+	 * 
+	 * @see OperatingMode
+	 */
+	public OperatingMode getOperatingMode() {
+		return operatingMode;
+	}
+	
+	/**
+	 * Returns the 64-bit address of the device.
+	 * 
+	 * @return The 64-bit address of the device.
+	 * 
+	 * @see XBee64BitAddress
+	 */
+	public XBee64BitAddress get64BitAddress() {
+		return new XBee64BitAddress(address64);
+	}
+	
+	/**
+	 * Returns the hardware version of the device.
+	 * 
+	 * @return The hardware version of the device.
+	 * 
+	 * @see HardwareVersion
+	 */
+	public HardwareVersion getHardwareVersion() {
+		return HardwareVersion.get(hardwareVersion);
+	}
+	
+	/**
+	 * Returns the firmware version of the device.
+	 * 
+	 * @return The firmware version of the device.
+	 */
+	public String getFirmwareVersion() {
+		return firmwareVersion;
+	}
+	
+	/**
+	 * Returns the protocol of the device.
+	 * 
+	 * @return The protocol of the device.
+	 * 
+	 * @see XBeeProtocol
+	 */
+	public XBeeProtocol getProtocol() {
+		return protocol;
+	}
+	
+	/**
+	 * Returns the 16-bit address of the device.
+	 * 
+	 * @return The 16-bit address of the device, {@code null} if the 
+	 *         protocol does not use it.
+	 * 
+	 * @see XBee16BitAddress
+	 */
+	public XBee16BitAddress get16BitAddress() {
+		return address16 == null ? null : new XBee16BitAddress(address16);
+	}
+	
+	/**
+	 * Returns the node identifier of the device.
+	 * 
+	 * @return The node identifier of the device, {@code null} if unknown.
+	 */
+	public String getNodeID() {
+		return nodeID;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return get64BitAddress() + " [" + protocol.getDescription() + ", " 
+				+ operatingMode.getName() + ", HV " + hardwareVersion 
+				+ ", VR " + firmwareVersion + "]";
+	}
+}
@@ -0,0 +1,261 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.models;
+
+/**
+ * This class represents the link-quality and delivery statistics of a 
+ * remote XBee device at a given moment.
+ * 
+ * <p>Delivery statistics are taken from the transmit status of the 
+ * transmissions sent to the remote device, and reception statistics from 
+ * the frames received from it.</p>
+ * 
+ * @see LinkStatisticsTable
+ * 
+ * @since 1.4.0
+ */
+public class LinkStatistics {
+	
+	// Constants.
+	/**
+	 * Value of the RSSI when it is unknown.
+	 */
+	public static final int UNKNOWN_RSSI = -1;
+	
+	// Variables.
+	private final XBee64BitAddress address;
+	
+	private final long transmissions;
+	private final long deliveries;
+	private final long retries;
+	private final long routeDiscoveries;
+	private final long receivedMessages;
+	private final long receivedBroadcasts;
+	
+	private final int lastRSSI;
+	
+	private final long lastRSSITime;
+	private final long lastActivityTime;
+	private final long period;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code LinkStatistics} with the 
+	 * given values.
+	 * 
+	 * @param address 64-bit address of the remote device.
+	 * @param transmissions Number of transmit status received.
+	 * @param deliveries Number of successful transmit status received.
+	 * @param retries Total number of transmission retries.
+	 * @param routeDiscoveries Number of transmissions that needed a route 
+	 *                         discovery.
+	 * @param receivedMessages Number of frames received.
+	 * @param receivedBroadcasts Number of broadcast frames received.
+	 * @param lastRSSI Last RSSI value in -dBm, {@link #UNKNOWN_RSSI} if 
+	 *                 unknown.
+	 * @param lastRSSITime Time of the last RSSI value in milliseconds since 
+	 *                     the epoch, 0 if unknown.
+	 * @param lastActivityTime Time of the last transmit status or received 
+	 *                         frame in milliseconds since the epoch.
+	 * @param period Time the statistics have been collected in milliseconds.
+	 */
+	LinkStatistics(XBee64BitAddress address, long transmissions, long deliveries, 
+			long retries, long routeDiscoveries, long receivedMessages, 
+			long receivedBroadcasts, int lastRSSI, long lastRSSITime, 
+			long lastActivityTime, long period) {
+		this.address = address;
+		this.transmissions = transmissions;
+		this.deliveries = deliveries;
+		this.retries = retries;
+		this.routeDiscoveries = routeDiscoveries;
+		this.receivedMessages = receivedMessages;
+		this.receivedBroadcasts = receivedBroadcasts;
+		this.lastRSSI = lastRSSI;
+		this.lastRSSITime = lastRSSITime;
+		this.lastActivityTime = lastActivityTime;
+		this.period = period;
+	}
+	
+	/**
+	 * Returns the 64-bit address of the remote device.
+	 * 
+	 * @return The 64-bit address of the remote device.
+	 */
+	public XBee64BitAddress get64BitAddress() {
+		return address;
+	}
+	
+	/**
+	 * Returns the number of transmissions to the remote device whose 
+	 * transmit status was received.
+	 * 
+	 * @return The number of transmissions.
+	 */
+	public long getTransmissions() {
+		return transmissions;
+	}
+	
+	/**
+	 * Returns the number of transmissions successfully delivered to the 
+	 * remote device.
+	 * 
+	 * @return The number of delivered transmissions.
+	 */
+	public long getDeliveries() {
+		return deliveries;
+	}
+	
+	/**
+	 * Returns the ratio of transmissions successfully delivered to the 
+	 * remote device.
+	 * 
+	 * @return The delivery success ratio between 0 and 1, 0 if there are 
+	 *         no transmissions.
+	 * 
+	 * @see #getTransmissions()
+	 */
+	public double getDeliveryRatio() {
+		return transmissions == 0 ? 0 : (double)deliveries / transmissions;
+	}
+	
+	/**
+	 * Returns the total number of retries of the transmissions to the remote 
+	 * device.
+	 * 
+	 * @return The total number of retries.
+	 */
+	public long getRetries() {
+		return retries;
+	}
+	
+	/**
+	 * Returns the average number of retries per transmission to the remote 
+	 * device.
+	 * 
+	 * @return The average number of retries, 0 if there are no 
+	 *         transmissions.
+	 */
+	public double getAverageRetries() {
+		return transmissions == 0 ? 0 : (double)retries / transmissions;
+	}
+	
+	/**
+	 * Returns the number of transmissions to the remote device that needed 
+	 * a route discovery.
+	 * 
+	 * @return The number of route discoveries.
+	 */
+	public long getRouteDiscoveries() {
+		return routeDiscoveries;
+	}
+	
+	/**
+	 * Returns the number of frames received from the remote device.
+	 * 
+	 * @return The number of received frames.
+	 */
+	public long getReceivedMessages() {
+		return receivedMessages;
+	}
+	
+	/**
+	 * Returns the number of broadcast frames received from the remote 
+	 * device.
+	 * 
+	 * @return The number of received broadcast frames.
+	 */
+	public long getReceivedBroadcasts() {
+		return receivedBroadcasts;
+	}
+	
+	/**
+	 * Returns the last known Received Signal Strength Indicator (RSSI) of 
+	 * the remote device.
+	 * 
+	 * @return The last RSSI value in -dBm, {@link #UNKNOWN_RSSI} if it is 
+	 *         unknown.
+	 * 
+	 * @see #getLastRSSITime()
+	 */
+	public int getLastRSSI() {
+		return lastRSSI;
+	}
+	
+	/**
+	 * Returns the time the last RSSI value was obtained.
+	 * 
+	 * @return The time of the last RSSI value in milliseconds since the 
+	 *         epoch, 0 if it is unknown.
+	 * 
+	 * @see #getLastRSSI()
+	 */
+	public long getLastRSSITime() {
+		return lastRSSITime;
+	}
+	
+	/**
+	 * Returns the time of the last transmit status or frame received from 
+	 * the remote device.
+	 * 
+	 * @return The time of the last activity in milliseconds since the 
+	 *         epoch.
+	 */
+	public long getLastActivityTime() {
+		return lastActivityTime;
+	}
+	
+	/**
+	 * Returns the number of transmissions per second to the remote device 
+	 * since the statistics started to be collected.
+	 * 
+	 * @return The transmission rate in messages per second.
+	 */
+	public double getTransmitRate() {
+		return rate(transmissions);
+	}
+	
+	/**
+	 * Returns the number of frames per second received from the remote 
+	 * device since the statistics started to be collected.
+	 * 
+	 * @return The reception rate in messages per second.
+	 */
+	public double getReceiveRate() {
+		return rate(receivedMessages);
+	}
+	
+	/**
+	 * Returns the rate of the given number of messages in the collection 
+	 * period. Periods shorter than a second count as one second.
+	 * 
+	 * @param messages Number of messages.
+	 * 
+	 * @return The rate in messages per second.
+	 */
+	private double rate(long messages) {
+		return messages * 1000.0 / Math.max(period, 1000);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return String.format("%s: delivery %.2f (%d/%d), retries %.2f, route discoveries %d, received %d, RSSI %d", 
+				address, getDeliveryRatio(), deliveries, transmissions, getAverageRetries(), 
+				routeDiscoveries, receivedMessages, lastRSSI);
+	}
+}
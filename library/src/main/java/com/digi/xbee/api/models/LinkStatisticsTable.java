@@ -0,0 +1,239 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.models;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class keeps the link-quality and delivery statistics of each remote 
+ * XBee device.
+ * 
+ * <p>The statistics are updated from the transmit status of the 
+ * transmissions to a remote device (delivery result, retries and discovery 
+ * status) and from the frames received from it (receive options and RSSI, 
+ * when the frame includes it).</p>
+ * 
+ * <p>Updates do not take any lock, so they can be done from the receive 
+ * path. Every counter of a {@link LinkStatistics} snapshot is consistent, 
+ * but counters updated at the same time may be read one update apart.</p>
+ * 
+ * @see LinkStatistics
+ * @see com.digi.xbee.api.XBeeNetwork#getLinkStatistics(com.digi.xbee.api.RemoteXBeeDevice)
+ * 
+ * @since 1.4.0
+ */
+public class LinkStatisticsTable {
+	
+	// Variables.
+	private final ConcurrentHashMap<XBee64BitAddress, Entry> entries = new ConcurrentHashMap<>();
+	
+	/**
+	 * Adds the transmit status of a transmission to the given remote device.
+	 * 
+	 * @param address 64-bit address of the remote device.
+	 * @param status The transmit status.
+	 * @param retries Number of transmission retries.
+	 * @param discoveryStatus The discovery status, {@code null} if unknown.
+	 * 
+	 * @throws IllegalArgumentException if {@code retries < 0}.
+	 * @throws NullPointerException if {@code address == null} or 
+	 *                              if {@code status == null}.
+	 */
+	public void addTransmitStatus(XBee64BitAddress address, XBeeTransmitStatus status, 
+			int retries, XBeeDiscoveryStatus discoveryStatus) {
+		if (address == null)
+			throw new NullPointerException("Address cannot be null.");
+		if (status == null)
+			throw new NullPointerException("Transmit status cannot be null.");
+		if (retries < 0)
+			throw new IllegalArgumentException("Retries cannot be negative.");
+		
+		Entry entry = getEntry(address);
+		entry.transmissions.incrementAndGet();
+		if (status == XBeeTransmitStatus.SUCCESS)
+			entry.deliveries.incrementAndGet();
+		if (retries > 0)
+			entry.retries.addAndGet(retries);
+		if (discoveryStatus == XBeeDiscoveryStatus.DISCOVERY_STATUS_ROUTE_DISCOVERY 
+				|| discoveryStatus == XBeeDiscoveryStatus.DISCOVERY_STATUS_ADDRESS_AND_ROUTE)
+			entry.routeDiscoveries.incrementAndGet();
+		entry.lastActivityTime = System.currentTimeMillis();
+	}
+	
+	/**
+	 * Adds a frame received from the given remote device.
+	 * 
+	 * @param address 64-bit address of the remote device.
+	 * @param broadcast {@code true} if the frame was sent as broadcast, 
+	 *                  {@code false} otherwise.
+	 * @param rssi RSSI of the frame in -dBm, 
+	 *             {@link LinkStatistics#UNKNOWN_RSSI} if the frame does not 
+	 *             include it.
+	 * 
+	 * @throws NullPointerException if {@code address == null}.
+	 */
+	public void addReceived(XBee64BitAddress address, boolean broadcast, int rssi) {
+		if (address == null)
+			throw new NullPointerException("Address cannot be null.");
+		
+		Entry entry = getEntry(address);
+		entry.received.incrementAndGet();
+		if (broadcast)
+			entry.broadcasts.incrementAndGet();
+		long now = System.currentTimeMillis();
+		if (rssi != LinkStatistics.UNKNOWN_RSSI)
+			entry.setRSSI(rssi, now);
+		entry.lastActivityTime = now;
+	}
+	
+	/**
+	 * Sets the RSSI of the given remote device.
+	 * 
+	 * @param address 64-bit address of the remote device.
+	 * @param rssi RSSI in -dBm.
+	 * 
+	 * @throws IllegalArgumentException if {@code rssi < 0} or 
+	 *                                  if {@code rssi > 255}.
+	 * @throws NullPointerException if {@code address == null}.
+	 */
+	public void setRSSI(XBee64BitAddress address, int rssi) {
+		if (address == null)
+			throw new NullPointerException("Address cannot be null.");
+		if (rssi < 0 || rssi > 255)
+			throw new IllegalArgumentException("RSSI value must be between 0 and 255.");
+		
+		getEntry(address).setRSSI(rssi, System.currentTimeMillis());
+	}
+	
+	/**
+	 * Returns the statistics of the given remote device.
+	 * 
+	 * @param address 64-bit address of the remote device.
+	 * 
+	 * @return The statistics, {@code null} if there are no statistics of 
+	 *         the remote device.
+	 * 
+	 * @throws NullPointerException if {@code address == null}.
+	 */
+	public LinkStatistics getStatistics(XBee64BitAddress address) {
+		if (address == null)
+			throw new NullPointerException("Address cannot be null.");
+		
+		Entry entry = entries.get(address);
+		return entry == null ? null : entry.getStatistics(address);
+	}
+	
+	/**
+	 * Returns the statistics of all the remote devices.
+	 * 
+	 * @return A map with the statistics of each remote device by 64-bit 
+	 *         address.
+	 */
+	public Map<XBee64BitAddress, LinkStatistics> getAllStatistics() {
+		Map<XBee64BitAddress, LinkStatistics> statistics = new HashMap<>();
+		for (Map.Entry<XBee64BitAddress, Entry> entry : entries.entrySet())
+			statistics.put(entry.getKey(), entry.getValue().getStatistics(entry.getKey()));
+		return statistics;
+	}
+	
+	/**
+	 * Removes the statistics of the given remote device.
+	 * 
+	 * @param address 64-bit address of the remote device.
+	 * 
+	 * @throws NullPointerException if {@code address == null}.
+	 */
+	public void remove(XBee64BitAddress address) {
+		if (address == null)
+			throw new NullPointerException("Address cannot be null.");
+		
+		entries.remove(address);
+	}
+	
+	/**
+	 * Removes the statistics of all the remote devices.
+	 */
+	public void clear() {
+		entries.clear();
+	}
+	
+	/**
+	 * Returns the entry of the given remote device, creating it if needed.
+	 * 
+	 * @param address 64-bit address of the remote device.
+	 * 
+	 * @return The entry of the remote device.
+	 */
+	private Entry getEntry(XBee64BitAddress address) {
+		Entry entry = entries.get(address);
+		if (entry == null) {
+			entry = new Entry();
+			Entry previous = entries.putIfAbsent(address, entry);
+			if (previous != null)
+				entry = previous;
+		}
+		return entry;
+	}
+	
+	/**
+	 * Statistics counters of a remote device.
+	 */
+	private static class Entry {
+		
+		// Variables.
+		private final AtomicLong transmissions = new AtomicLong();
+		private final AtomicLong deliveries = new AtomicLong();
+		private final AtomicLong retries = new AtomicLong();
+		private final AtomicLong routeDiscoveries = new AtomicLong();
+		private final AtomicLong received = new AtomicLong();
+		private final AtomicLong broadcasts = new AtomicLong();
+		
+		private volatile int lastRSSI = LinkStatistics.UNKNOWN_RSSI;
+		
+		private volatile long lastRSSITime;
+		private volatile long lastActivityTime;
+		
+		private final long startTime = System.currentTimeMillis();
+		
+		/**
+		 * Sets the last RSSI value.
+		 * 
+		 * @param rssi RSSI in -dBm.
+		 * @param time Time of the value in milliseconds since the epoch.
+		 */
+		void setRSSI(int rssi, long time) {
+			lastRSSI = rssi;
+			lastRSSITime = time;
+		}
+		
+		/**
+		 * Returns a snapshot of the counters.
+		 * 
+		 * @param address 64-bit address of the remote device.
+		 * 
+		 * @return The statistics.
+		 */
+		LinkStatistics getStatistics(XBee64BitAddress address) {
+			return new LinkStatistics(address, transmissions.get(), deliveries.get(), 
+					retries.get(), routeDiscoveries.get(), received.get(), broadcasts.get(), 
+					lastRSSI, lastRSSITime, lastActivityTime, 
+					System.currentTimeMillis() - startTime);
+		}
+	}
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.models;
+
+import com.digi.xbee.api.utils.WaitStrategy;
+
+/**
+ * This class contains the options of the staged receive pipeline of a local 
+ * XBee device.
+ * 
+ * <p>In the staged pipeline, the data reader thread only reads the bytes of 
+ * the connection interface. A decoder thread parses the API frames and a 
+ * dispatcher thread resolves the remote devices and notifies the 
+ * listeners. The stages are connected by bounded lock-free ring buffers, so 
+ * a slow decoding or device lookup does not stop the reading of the 
+ * connection.</p>
+ * 
+ * @see com.digi.xbee.api.XBeeDevice#setReceivePipelineOptions(ReceivePipelineOptions)
+ * @see com.digi.xbee.api.utils.WaitStrategy
+ * 
+ * @since 1.4.0
+ */
+public class ReceivePipelineOptions {
+	
+	// Constants.
+	/**
+	 * Default number of read blocks of bytes waiting to be decoded 
+	 * (value: {@value}).
+	 */
+	public static final int DEFAULT_DECODE_BUFFER_SIZE = 256;
+	
+	/**
+	 * Default number of decoded frames waiting to be dispatched 
+	 * (value: {@value}).
+	 */
+	public static final int DEFAULT_DISPATCH_BUFFER_SIZE = 128;
+	
+	// Variables.
+	private final int decodeBufferSize;
+	private final int dispatchBufferSize;
+	
+	private final WaitStrategy waitStrategy;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code ReceivePipelineOptions} 
+	 * with the default buffer sizes and the given wait strategy.
+	 * 
+	 * @param waitStrategy How the stages wait for data or free room.
+	 * 
+	 * @throws NullPointerException if {@code waitStrategy == null}.
+	 * 
+	 * @see #DEFAULT_DECODE_BUFFER_SIZE
+	 * @see #DEFAULT_DISPATCH_BUFFER_SIZE
+	 */
+	public ReceivePipelineOptions(WaitStrategy waitStrategy) {
+		this(DEFAULT_DECODE_BUFFER_SIZE, DEFAULT_DISPATCH_BUFFER_SIZE, waitStrategy);
+	}
+	
+	/**
+	 * Class constructor. Instantiates a new {@code ReceivePipelineOptions} 
+	 * with the given parameters.
+	 * 
+	 * <p>The sizes are rounded up to the next power of 2.</p>
+	 * 
+	 * @param decodeBufferSize Number of read blocks of bytes that can wait 
+	 *                         to be decoded.
+	 * @param dispatchBufferSize Number of decoded frames that can wait to be 
+	 *                           dispatched.
+	 * @param waitStrategy How the stages wait for data or free room.
+	 * 
+	 * @throws IllegalArgumentException if {@code decodeBufferSize < 1} or 
+	 *                                  if {@code dispatchBufferSize < 1}.
+	 * @throws NullPointerException if {@code waitStrategy == null}.
+	 */
+	public ReceivePipelineOptions(int decodeBufferSize, int dispatchBufferSize, WaitStrategy waitStrategy) {
+		if (decodeBufferSize < 1)
+			throw new IllegalArgumentException("Decode buffer size must be greater than 0.");
+		if (dispatchBufferSize < 1)
+			throw new IllegalArgumentException("Dispatch buffer size must be greater than 0.");
+		if (waitStrategy == null)
+			throw new NullPointerException("Wait strategy cannot be null.");
+		
+		this.decodeBufferSize = decodeBufferSize;
+		this.dispatchBufferSize = dispatchBufferSize;
+		this.waitStrategy = waitStrategy;
+	}
+	
+	/**
+	 * Returns the number of read blocks of bytes that can wait to be 
+	 * decoded.
+	 * 
+	 * @return The size of the decode buffer.
+	 */
+	public int getDecodeBufferSize() {
+		return decodeBufferSize;
+	}
+	
+	/**
+	 * Returns the number of decoded frames that can wait to be dispatched.
+	 * 
+	 * @return The size of the dispatch buffer.
+	 */
+	public int getDispatchBufferSize() {
+		return dispatchBufferSize;
+	}
+	
+	/**
+	 * Returns how the stages wait for data or free room.
+	 * 
+	 * @return The wait strategy.
+	 */
+	public WaitStrategy getWaitStrategy() {
+		return waitStrategy;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "decode buffer: " + decodeBufferSize + ", dispatch buffer: "
+				+ dispatchBufferSize + ", wait strategy: " + waitStrategy.name();
+	}
+}
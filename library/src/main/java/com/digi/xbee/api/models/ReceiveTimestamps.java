@@ -0,0 +1,211 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.models;
+
+/**
+ * This class contains the monotonic timestamps of a received message 
+ * through the receive pipeline of the XBee Java Library:
+ * 
+ * <ol>
+ * <li>First byte: the start delimiter of the frame was read from the 
+ * connection interface.</li>
+ * <li>Frame complete: the last byte of the frame (its checksum) was read.
+ * </li>
+ * <li>Decode complete: the frame was decoded into a packet.</li>
+ * <li>Dispatch start: a listener thread started notifying the message.</li>
+ * <li>Listener return: the listener returned.</li>
+ * </ol>
+ * 
+ * <p>Timestamps are values of {@link System#nanoTime()}, so they are only 
+ * meaningful to compute elapsed times within the same JVM. A timestamp 
+ * that has not been reached yet is {@code 0}.</p>
+ * 
+ * <p>If a message is notified to several listeners, the dispatch start is 
+ * the time the first listener started and the listener return is the time 
+ * the last listener returned.</p>
+ * 
+ * @see XBeeMessage#getReceiveTimestamps()
+ * @see IPMessage#getReceiveTimestamps()
+ * 
+ * @since 1.4.0
+ */
+public class ReceiveTimestamps {
+	
+	// Variables.
+	private final long firstByte;
+	private final long frameComplete;
+	private final long decodeComplete;
+	
+	private long dispatchStart;
+	private long listenerReturn;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code ReceiveTimestamps} object 
+	 * with the given timestamps.
+	 * 
+	 * @param firstByte Time the first byte of the frame was read.
+	 * @param frameComplete Time the last byte of the frame was read.
+	 * @param decodeComplete Time the frame was decoded.
+	 * 
+	 * @throws IllegalArgumentException if {@code frameComplete < firstByte} 
+	 *                                  or if 
+	 *                                  {@code decodeComplete < frameComplete}.
+	 */
+	public ReceiveTimestamps(long firstByte, long frameComplete, long decodeComplete) {
+		if (frameComplete - firstByte < 0)
+			throw new IllegalArgumentException("Frame complete time cannot be before the first byte time.");
+		if (decodeComplete - frameComplete < 0)
+			throw new IllegalArgumentException("Decode complete time cannot be before the frame complete time.");
+		
+		this.firstByte = firstByte;
+		this.frameComplete = frameComplete;
+		this.decodeComplete = decodeComplete;
+	}
+	
+	/**
+	 * Returns the time the first byte of the frame was read.
+	 * 
+	 * @return The first byte timestamp in nanoseconds.
+	 */
+	public long getFirstByte() {
+		return firstByte;
+	}
+	
+	/**
+	 * Returns the time the last byte of the frame was read.
+	 * 
+	 * @return The frame complete timestamp in nanoseconds.
+	 */
+	public long getFrameComplete() {
+		return frameComplete;
+	}
+	
+	/**
+	 * Returns the time the frame was decoded.
+	 * 
+	 * @return The decode complete timestamp in nanoseconds.
+	 */
+	public long getDecodeComplete() {
+		return decodeComplete;
+	}
+	
+	/**
+	 * Returns the time the first listener started notifying the message.
+	 * 
+	 * @return The dispatch start timestamp in nanoseconds, {@code 0} if no 
+	 *         listener has started yet.
+	 */
+	public synchronized long getDispatchStart() {
+		return dispatchStart;
+	}
+	
+	/**
+	 * Sets the time a listener started notifying the message. Only the 
+	 * first call has effect.
+	 * 
+	 * <p>This method is called by the XBee Java Library.</p>
+	 * 
+	 * @param time The dispatch start timestamp in nanoseconds.
+	 */
+	public synchronized void setDispatchStart(long time) {
+		if (dispatchStart == 0)
+			dispatchStart = time;
+	}
+	
+	/**
+	 * Returns the time the last listener returned.
+	 * 
+	 * @return The listener return timestamp in nanoseconds, {@code 0} if no 
+	 *         listener has returned yet.
+	 */
+	public synchronized long getListenerReturn() {
+		return listenerReturn;
+	}
+	
+	/**
+	 * Sets the time a listener returned.
+	 * 
+	 * <p>This method is called by the XBee Java Library.</p>
+	 * 
+	 * @param time The listener return timestamp in nanoseconds.
+	 */
+	public synchronized void setListenerReturn(long time) {
+		if (listenerReturn == 0 || time - listenerReturn > 0)
+			listenerReturn = time;
+	}
+	
+	/**
+	 * Returns the time spent reading the frame from the connection 
+	 * interface.
+	 * 
+	 * @return The read time in nanoseconds.
+	 */
+	public long getReadTime() {
+		return frameComplete - firstByte;
+	}
+	
+	/**
+	 * Returns the time spent decoding the frame.
+	 * 
+	 * @return The decode time in nanoseconds.
+	 */
+	public long getDecodeTime() {
+		return decodeComplete - frameComplete;
+	}
+	
+	/**
+	 * Returns the time the message waited until the first listener started.
+	 * 
+	 * @return The queue time in nanoseconds, {@code -1} if no listener has 
+	 *         started yet.
+	 */
+	public synchronized long getQueueTime() {
+		return dispatchStart == 0 ? -1 : dispatchStart - decodeComplete;
+	}
+	
+	/**
+	 * Returns the time since the first listener started until the last one 
+	 * returned.
+	 * 
+	 * @return The listener time in nanoseconds, {@code -1} if no listener 
+	 *         has returned yet.
+	 */
+	public synchronized long getListenerTime() {
+		return listenerReturn == 0 ? -1 : listenerReturn - dispatchStart;
+	}
+	
+	/**
+	 * Returns the end-to-end latency of the message: the time since the 
+	 * first byte of the frame was read until the last listener returned.
+	 * 
+	 * @return The total time in nanoseconds, {@code -1} if no listener has 
+	 *         returned yet.
+	 */
+	public synchronized long getTotalTime() {
+		return listenerReturn == 0 ? -1 : listenerReturn - firstByte;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "read: " + getReadTime() + " ns, decode: " + getDecodeTime() 
+				+ " ns, queue: " + getQueueTime() + " ns, listener: " 
+				+ getListenerTime() + " ns";
+	}
+}
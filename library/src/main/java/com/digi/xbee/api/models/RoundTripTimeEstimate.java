@@ -0,0 +1,114 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.models;
+
+/**
+ * This class represents the round-trip time estimate of a remote XBee 
+ * device at a given moment.
+ * 
+ * <p>All the times are in milliseconds.</p>
+ * 
+ * @see RoundTripTimeEstimator
+ * 
+ * @since 1.4.0
+ */
+public class RoundTripTimeEstimate {
+	
+	// Variables.
+	private final double smoothedRTT;
+	private final double rttVariance;
+	
+	private final int timeout;
+	
+	private final long samples;
+	private final long timeouts;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code RoundTripTimeEstimate} 
+	 * with the given values.
+	 * 
+	 * @param smoothedRTT Smoothed round-trip time in milliseconds.
+	 * @param rttVariance Round-trip time variation in milliseconds.
+	 * @param timeout Receive timeout for the remote device in milliseconds.
+	 * @param samples Number of measured round-trip times.
+	 * @param timeouts Number of responses that were not received.
+	 */
+	public RoundTripTimeEstimate(double smoothedRTT, double rttVariance, 
+			int timeout, long samples, long timeouts) {
+		this.smoothedRTT = smoothedRTT;
+		this.rttVariance = rttVariance;
+		this.timeout = timeout;
+		this.samples = samples;
+		this.timeouts = timeouts;
+	}
+	
+	/**
+	 * Returns the smoothed round-trip time (SRTT).
+	 * 
+	 * @return The smoothed round-trip time in milliseconds.
+	 */
+	public double getSmoothedRTT() {
+		return smoothedRTT;
+	}
+	
+	/**
+	 * Returns the round-trip time variation (RTTVAR).
+	 * 
+	 * @return The round-trip time variation in milliseconds.
+	 */
+	public double getRTTVariance() {
+		return rttVariance;
+	}
+	
+	/**
+	 * Returns the receive timeout for the remote device, including the 
+	 * back-off applied after a timeout.
+	 * 
+	 * @return The receive timeout in milliseconds.
+	 */
+	public int getTimeout() {
+		return timeout;
+	}
+	
+	/**
+	 * Returns the number of measured round-trip times.
+	 * 
+	 * @return The number of samples.
+	 */
+	public long getSamples() {
+		return samples;
+	}
+	
+	/**
+	 * Returns the number of responses of the remote device that were not 
+	 * received before the timeout expired.
+	 * 
+	 * @return The number of timeouts.
+	 */
+	public long getTimeouts() {
+		return timeouts;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return String.format("SRTT: %.1f ms, RTTVAR: %.1f ms, timeout: %d ms, samples: %d, timeouts: %d", 
+				smoothedRTT, rttVariance, timeout, samples, timeouts);
+	}
+}
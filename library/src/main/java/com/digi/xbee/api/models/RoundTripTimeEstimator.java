@@ -0,0 +1,318 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.models;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class keeps a round-trip time estimate for each remote XBee device 
+ * and computes their receive timeouts.
+ * 
+ * <p>The estimates follow the retransmission timer of TCP (RFC 6298): for 
+ * every measured round-trip time {@code R}, the smoothed round-trip time 
+ * and its variation are updated as</p>
+ * 
+ * <pre>
+ * RTTVAR = 3/4 * RTTVAR + 1/4 * |SRTT - R|
+ * SRTT   = 7/8 * SRTT   + 1/8 * R
+ * </pre>
+ * 
+ * <p>and the timeout is {@code SRTT + 4 * RTTVAR}, limited to the 
+ * configured bounds. Every time a response is not received, the timeout of 
+ * the remote device is doubled (up to the maximum) until a new round-trip 
+ * time is measured.</p>
+ * 
+ * <p>The local XBee device measures the time between sending a transmit 
+ * request or a remote AT command and receiving its transmit status or 
+ * response.</p>
+ * 
+ * @see RoundTripTimeEstimate
+ * @see com.digi.xbee.api.XBeeDevice#enableAdaptiveReceiveTimeout(int, int)
+ * 
+ * @since 1.4.0
+ */
+public class RoundTripTimeEstimator {
+	
+	// Constants.
+	/**
+	 * Default minimum receive timeout in milliseconds (value: {@value}).
+	 */
+	public static final int DEFAULT_MIN_TIMEOUT = 500;
+	
+	/**
+	 * Default maximum receive timeout in milliseconds (value: {@value}).
+	 */
+	public static final int DEFAULT_MAX_TIMEOUT = 10000;
+	
+	private static final double ALPHA = 1.0 / 8;
+	private static final double BETA = 1.0 / 4;
+	private static final int K = 4;
+	
+	// Variables.
+	private final ConcurrentHashMap<XBee64BitAddress, Entry> entries = new ConcurrentHashMap<>();
+	
+	private volatile int minTimeout = DEFAULT_MIN_TIMEOUT;
+	private volatile int maxTimeout = DEFAULT_MAX_TIMEOUT;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code RoundTripTimeEstimator} 
+	 * with the default timeout bounds.
+	 * 
+	 * @see #DEFAULT_MIN_TIMEOUT
+	 * @see #DEFAULT_MAX_TIMEOUT
+	 */
+	public RoundTripTimeEstimator() {
+		this(DEFAULT_MIN_TIMEOUT, DEFAULT_MAX_TIMEOUT);
+	}
+	
+	/**
+	 * Class constructor. Instantiates a new {@code RoundTripTimeEstimator} 
+	 * with the given timeout bounds.
+	 * 
+	 * @param minTimeout Minimum receive timeout in milliseconds.
+	 * @param maxTimeout Maximum receive timeout in milliseconds.
+	 * 
+	 * @throws IllegalArgumentException if {@code minTimeout < 1} or 
+	 *                                  if {@code maxTimeout < minTimeout}.
+	 */
+	public RoundTripTimeEstimator(int minTimeout, int maxTimeout) {
+		setTimeoutBounds(minTimeout, maxTimeout);
+	}
+	
+	/**
+	 * Sets the bounds of the computed receive timeouts.
+	 * 
+	 * @param minTimeout Minimum receive timeout in milliseconds.
+	 * @param maxTimeout Maximum receive timeout in milliseconds.
+	 * 
+	 * @throws IllegalArgumentException if {@code minTimeout < 1} or 
+	 *                                  if {@code maxTimeout < minTimeout}.
+	 * 
+	 * @see #getMinTimeout()
+	 * @see #getMaxTimeout()
+	 */
+	public synchronized void setTimeoutBounds(int minTimeout, int maxTimeout) {
+		if (minTimeout < 1)
+			throw new IllegalArgumentException("Minimum timeout must be greater than 0.");
+		if (maxTimeout < minTimeout)
+			throw new IllegalArgumentException("Maximum timeout cannot be less than the minimum timeout.");
+		
+		this.minTimeout = minTimeout;
+		this.maxTimeout = maxTimeout;
+	}
+	
+	/**
+	 * Returns the minimum receive timeout.
+	 * 
+	 * @return The minimum receive timeout in milliseconds.
+	 * 
+	 * @see #setTimeoutBounds(int, int)
+	 */
+	public int getMinTimeout() {
+		return minTimeout;
+	}
+	
+	/**
+	 * Returns the maximum receive timeout.
+	 * 
+	 * @return The maximum receive timeout in milliseconds.
+	 * 
+	 * @see #setTimeoutBounds(int, int)
+	 */
+	public int getMaxTimeout() {
+		return maxTimeout;
+	}
+	
+	/**
+	 * Adds a measured round-trip time of the given remote device.
+	 * 
+	 * @param address 64-bit address of the remote device.
+	 * @param nanos The round-trip time in nanoseconds.
+	 * 
+	 * @throws IllegalArgumentException if {@code nanos < 0}.
+	 * @throws NullPointerException if {@code address == null}.
+	 */
+	public void addSample(XBee64BitAddress address, long nanos) {
+		if (address == null)
+			throw new NullPointerException("Address cannot be null.");
+		if (nanos < 0)
+			throw new IllegalArgumentException("Round-trip time cannot be negative.");
+		
+		getEntry(address).addSample(nanos / 1000000.0);
+	}
+	
+	/**
+	 * Notifies that a response of the given remote device was not received 
+	 * before its timeout expired.
+	 * 
+	 * @param address 64-bit address of the remote device.
+	 * 
+	 * @throws NullPointerException if {@code address == null}.
+	 */
+	public void addTimeout(XBee64BitAddress address) {
+		if (address == null)
+			throw new NullPointerException("Address cannot be null.");
+		
+		getEntry(address).addTimeout();
+	}
+	
+	/**
+	 * Returns the receive timeout for the given remote device.
+	 * 
+	 * @param address 64-bit address of the remote device.
+	 * @param defaultTimeout Timeout to use if there are no round-trip times 
+	 *                       of the remote device.
+	 * 
+	 * @return The receive timeout in milliseconds.
+	 * 
+	 * @throws NullPointerException if {@code address == null}.
+	 */
+	public int getTimeout(XBee64BitAddress address, int defaultTimeout) {
+		if (address == null)
+			throw new NullPointerException("Address cannot be null.");
+		
+		Entry entry = entries.get(address);
+		if (entry == null)
+			return defaultTimeout;
+		return entry.getTimeout(defaultTimeout);
+	}
+	
+	/**
+	 * Returns the round-trip time estimate of the given remote device.
+	 * 
+	 * @param address 64-bit address of the remote device.
+	 * 
+	 * @return The estimate, {@code null} if no round-trip time of the remote 
+	 *         device has been measured.
+	 * 
+	 * @throws NullPointerException if {@code address == null}.
+	 */
+	public RoundTripTimeEstimate getEstimate(XBee64BitAddress address) {
+		if (address == null)
+			throw new NullPointerException("Address cannot be null.");
+		
+		Entry entry = entries.get(address);
+		return entry == null ? null : entry.getEstimate();
+	}
+	
+	/**
+	 * Returns the round-trip time estimates of all the remote devices.
+	 * 
+	 * @return A map with the estimate of each remote device by 64-bit 
+	 *         address.
+	 */
+	public Map<XBee64BitAddress, RoundTripTimeEstimate> getEstimates() {
+		Map<XBee64BitAddress, RoundTripTimeEstimate> estimates = new HashMap<>();
+		for (Map.Entry<XBee64BitAddress, Entry> entry : entries.entrySet()) {
+			RoundTripTimeEstimate estimate = entry.getValue().getEstimate();
+			if (estimate != null)
+				estimates.put(entry.getKey(), estimate);
+		}
+		return estimates;
+	}
+	
+	/**
+	 * Removes all the estimates.
+	 */
+	public void reset() {
+		entries.clear();
+	}
+	
+	/**
+	 * Returns the entry of the given remote device, creating it if needed.
+	 * 
+	 * @param address 64-bit address of the remote device.
+	 * 
+	 * @return The entry of the remote device.
+	 */
+	private Entry getEntry(XBee64BitAddress address) {
+		Entry entry = entries.get(address);
+		if (entry == null) {
+			entry = new Entry();
+			Entry previous = entries.putIfAbsent(address, entry);
+			if (previous != null)
+				entry = previous;
+		}
+		return entry;
+	}
+	
+	/**
+	 * Round-trip time state of a remote device.
+	 */
+	private class Entry {
+		
+		// Variables.
+		private double srtt;
+		private double rttvar;
+		
+		private int backoff = 1;
+		
+		private long samples;
+		private long timeouts;
+		
+		/**
+		 * Adds a measured round-trip time.
+		 * 
+		 * @param rtt The round-trip time in milliseconds.
+		 */
+		synchronized void addSample(double rtt) {
+			if (samples == 0) {
+				srtt = rtt;
+				rttvar = rtt / 2;
+			} else {
+				rttvar = (1 - BETA) * rttvar + BETA * Math.abs(srtt - rtt);
+				srtt = (1 - ALPHA) * srtt + ALPHA * rtt;
+			}
+			samples++;
+			backoff = 1;
+		}
+		
+		/**
+		 * Doubles the timeout after a response was not received.
+		 */
+		synchronized void addTimeout() {
+			timeouts++;
+			if (backoff < maxTimeout)
+				backoff *= 2;
+		}
+		
+		/**
+		 * Returns the receive timeout.
+		 * 
+		 * @param defaultTimeout Timeout to use if there are no samples.
+		 * 
+		 * @return The receive timeout in milliseconds.
+		 */
+		synchronized int getTimeout(int defaultTimeout) {
+			double timeout = samples == 0 ? defaultTimeout : srtt + Math.max(1, K * rttvar);
+			timeout = Math.max(minTimeout, timeout) * backoff;
+			return (int)Math.min(maxTimeout, Math.ceil(timeout));
+		}
+		
+		/**
+		 * Returns the estimate.
+		 * 
+		 * @return The estimate, {@code null} if there are no samples.
+		 */
+		synchronized RoundTripTimeEstimate getEstimate() {
+			if (samples == 0)
+				return null;
+			return new RoundTripTimeEstimate(srtt, rttvar, getTimeout(0), samples, timeouts);
+		}
+	}
+}
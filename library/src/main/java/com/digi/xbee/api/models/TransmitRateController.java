@@ -0,0 +1,496 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.models;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class limits the transmissions of a local XBee device to keep them 
+ * near the capacity of the network.
+ * 
+ * <p>The controller keeps a window of transmissions waiting for their 
+ * transmit status and a transmission rate, and adjusts both with the 
+ * additive-increase, multiplicative-decrease (AIMD) rule:</p>
+ * 
+ * <ul>
+ *   <li>Every delivered transmission increases the window by 
+ *   {@code 1/window} and the rate by {@code 1/window} messages per second, 
+ *   that is, one unit for every window of delivered transmissions.</li>
+ *   <li>Every transmission that fails because of congestion (no MAC or 
+ *   network acknowledgement, CCA failure, route not found, no buffers, 
+ *   resource error or no transmit status received) halves the window and 
+ *   the rate.</li>
+ *   <li>Other failures, such as an invalid destination, do not change 
+ *   them.</li>
+ * </ul>
+ * 
+ * <p>Modem status events also adjust the controller: a reset of the radio 
+ * or joining a network restores the initial values, and losing the 
+ * association or synchronization halves the window and the rate.</p>
+ * 
+ * <p>Optionally, every destination can be limited with its own token 
+ * bucket, see {@link #setDestinationRate(double, int)}.</p>
+ * 
+ * @see com.digi.xbee.api.XBeeDevice#setTransmitRateController(TransmitRateController)
+ * 
+ * @since 1.4.0
+ */
+public class TransmitRateController {
+	
+	// Constants.
+	/**
+	 * Default initial number of transmissions waiting for their transmit 
+	 * status (value: {@value}).
+	 */
+	public static final int DEFAULT_INITIAL_WINDOW = 4;
+	
+	/**
+	 * Default maximum number of transmissions waiting for their transmit 
+	 * status (value: {@value}).
+	 */
+	public static final int DEFAULT_MAX_WINDOW = 16;
+	
+	/**
+	 * Default initial transmission rate in messages per second 
+	 * (value: {@value}).
+	 */
+	public static final double DEFAULT_INITIAL_RATE = 10;
+	
+	/**
+	 * Default minimum transmission rate in messages per second 
+	 * (value: {@value}).
+	 */
+	public static final double DEFAULT_MIN_RATE = 1;
+	
+	/**
+	 * Default maximum transmission rate in messages per second 
+	 * (value: {@value}).
+	 */
+	public static final double DEFAULT_MAX_RATE = 100;
+	
+	private static final double DECREASE_FACTOR = 0.5;
+	
+	// Variables.
+	private final int initialWindow;
+	private final int maxWindow;
+	
+	private final double initialRate;
+	private final double minRate;
+	private final double maxRate;
+	
+	private double window;
+	private double rate;
+	private double tokens;
+	
+	private long lastRefill = System.nanoTime();
+	
+	private int inFlight;
+	
+	private long delivered;
+	private long congested;
+	
+	private double destinationRate;
+	private int destinationBurst;
+	
+	private final Map<XBee64BitAddress, TokenBucket> destinations = new HashMap<>();
+	
+	/**
+	 * Class constructor. Instantiates a new {@code TransmitRateController} 
+	 * with the default values.
+	 * 
+	 * @see #DEFAULT_INITIAL_WINDOW
+	 * @see #DEFAULT_MAX_WINDOW
+	 * @see #DEFAULT_INITIAL_RATE
+	 * @see #DEFAULT_MIN_RATE
+	 * @see #DEFAULT_MAX_RATE
+	 */
+	public TransmitRateController() {
+		this(DEFAULT_INITIAL_WINDOW, DEFAULT_MAX_WINDOW, DEFAULT_INITIAL_RATE, 
+				DEFAULT_MIN_RATE, DEFAULT_MAX_RATE);
+	}
+	
+	/**
+	 * Class constructor. Instantiates a new {@code TransmitRateController} 
+	 * with the given values.
+	 * 
+	 * @param initialWindow Initial number of transmissions waiting for their 
+	 *                      transmit status.
+	 * @param maxWindow Maximum number of transmissions waiting for their 
+	 *                  transmit status.
+	 * @param initialRate Initial transmission rate in messages per second.
+	 * @param minRate Minimum transmission rate in messages per second.
+	 * @param maxRate Maximum transmission rate in messages per second.
+	 * 
+	 * @throws IllegalArgumentException if {@code initialWindow < 1} or 
+	 *                                  if {@code maxWindow < initialWindow} or 
+	 *                                  if {@code minRate <= 0} or 
+	 *                                  if {@code initialRate < minRate} or 
+	 *                                  if {@code maxRate < initialRate}.
+	 */
+	public TransmitRateController(int initialWindow, int maxWindow, double initialRate, 
+			double minRate, double maxRate) {
+		if (initialWindow < 1)
+			throw new IllegalArgumentException("Initial window must be greater than 0.");
+		if (maxWindow < initialWindow)
+			throw new IllegalArgumentException("Maximum window cannot be less than the initial window.");
+		if (minRate <= 0)
+			throw new IllegalArgumentException("Minimum rate must be greater than 0.");
+		if (initialRate < minRate)
+			throw new IllegalArgumentException("Initial rate cannot be less than the minimum rate.");
+		if (maxRate < initialRate)
+			throw new IllegalArgumentException("Maximum rate cannot be less than the initial rate.");
+		
+		this.initialWindow = initialWindow;
+		this.maxWindow = maxWindow;
+		this.initialRate = initialRate;
+		this.minRate = minRate;
+		this.maxRate = maxRate;
+		
+		window = initialWindow;
+		rate = initialRate;
+		tokens = initialWindow;
+	}
+	
+	/**
+	 * Limits the transmissions to every destination with a token bucket.
+	 * 
+	 * <p>The bucket of each destination holds up to {@code burst} 
+	 * transmissions and is refilled at the given rate. These limits are 
+	 * fixed; they are applied in addition to the adaptive window and rate 
+	 * of the controller.</p>
+	 * 
+	 * @param rate Transmission rate of every destination in messages per 
+	 *             second, 0 to disable the per-destination limits.
+	 * @param burst Maximum number of consecutive transmissions to a 
+	 *              destination.
+	 * 
+	 * @throws IllegalArgumentException if {@code rate < 0} or 
+	 *                                  if {@code burst < 1}.
+	 * 
+	 * @see #getDestinationRate()
+	 */
+	public synchronized void setDestinationRate(double rate, int burst) {
+		if (rate < 0)
+			throw new IllegalArgumentException("Rate cannot be negative.");
+		if (burst < 1)
+			throw new IllegalArgumentException("Burst must be greater than 0.");
+		
+		destinationRate = rate;
+		destinationBurst = burst;
+		destinations.clear();
+	}
+	
+	/**
+	 * Returns the transmission rate of every destination.
+	 * 
+	 * @return The transmission rate of every destination in messages per 
+	 *         second, 0 if the per-destination limits are disabled.
+	 * 
+	 * @see #setDestinationRate(double, int)
+	 */
+	public synchronized double getDestinationRate() {
+		return destinationRate;
+	}
+	
+	/**
+	 * Waits until a transmission to the given destination is allowed.
+	 * 
+	 * <p>Every allowed transmission must be finished with 
+	 * {@link #release(XBeeTransmitStatus)} or 
+	 * {@link #cancel()}.</p>
+	 * 
+	 * @param destination 64-bit address of the destination, {@code null} if 
+	 *                    it is unknown or the transmission is a broadcast.
+	 * @param timeout Maximum time to wait in milliseconds.
+	 * 
+	 * @return {@code true} if the transmission is allowed, {@code false} if 
+	 *         the timeout expired or the thread was interrupted.
+	 * 
+	 * @throws IllegalArgumentException if {@code timeout < 0}.
+	 */
+	public synchronized boolean acquire(XBee64BitAddress destination, long timeout) {
+		if (timeout < 0)
+			throw new IllegalArgumentException("Timeout cannot be negative.");
+		
+		TokenBucket bucket = getBucket(destination);
+		long deadline = System.nanoTime() + timeout * 1000000;
+		while (true) {
+			long now = System.nanoTime();
+			refill(now);
+			if (bucket != null)
+				bucket.refill(now);
+			
+			// Time to wait until the transmission is allowed, 0 if it is.
+			long wait = 0;
+			if (inFlight >= (int)window)
+				wait = Long.MAX_VALUE;
+			if (tokens < 1)
+				wait = Math.max(wait, (long)Math.ceil((1 - tokens) * 1000 / rate));
+			if (bucket != null && bucket.tokens < 1)
+				wait = Math.max(wait, (long)Math.ceil((1 - bucket.tokens) * 1000 / bucket.rate));
+			
+			if (wait == 0) {
+				tokens--;
+				if (bucket != null)
+					bucket.tokens--;
+				inFlight++;
+				return true;
+			}
+			
+			long remaining = (deadline - now) / 1000000;
+			if (remaining <= 0)
+				return false;
+			try {
+				wait(Math.max(1, Math.min(wait, remaining)));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+	}
+	
+	/**
+	 * Finishes an allowed transmission and adjusts the window and the rate 
+	 * with its result.
+	 * 
+	 * @param status The transmit status of the transmission, {@code null} if 
+	 *               it was not received.
+	 * 
+	 * @see #acquire(XBee64BitAddress, long)
+	 */
+	public synchronized void release(XBeeTransmitStatus status) {
+		finish();
+		if (status == XBeeTransmitStatus.SUCCESS) {
+			delivered++;
+			double increase = 1 / window;
+			window = Math.min(maxWindow, window + increase);
+			rate = Math.min(maxRate, rate + increase);
+		} else if (status == null || isCongestion(status)) {
+			congested++;
+			decrease();
+		}
+	}
+	
+	/**
+	 * Finishes an allowed transmission that was not sent, without adjusting 
+	 * the window and the rate.
+	 * 
+	 * @see #acquire(XBee64BitAddress, long)
+	 */
+	public synchronized void cancel() {
+		finish();
+	}
+	
+	/**
+	 * Adjusts the window and the rate with the given modem status event.
+	 * 
+	 * @param event The modem status event received.
+	 * 
+	 * @throws NullPointerException if {@code event == null}.
+	 */
+	public synchronized void modemStatusReceived(ModemStatusEvent event) {
+		if (event == null)
+			throw new NullPointerException("Modem status event cannot be null.");
+		
+		switch (event) {
+		case STATUS_HARDWARE_RESET:
+		case STATUS_WATCHDOG_TIMER_RESET:
+		case STATUS_ERROR_STACK:
+		case STATUS_JOINED_NETWORK:
+			window = initialWindow;
+			rate = initialRate;
+			notifyAll();
+			break;
+		case STATUS_DISASSOCIATED:
+		case STATUS_ERROR_SYNCHRONIZATION_LOST:
+		case STATUS_COORDINATOR_REALIGNMENT:
+			decrease();
+			break;
+		default:
+			break;
+		}
+	}
+	
+	/**
+	 * Returns the current number of transmissions allowed to wait for their 
+	 * transmit status.
+	 * 
+	 * @return The current window.
+	 */
+	public synchronized double getWindow() {
+		return window;
+	}
+	
+	/**
+	 * Returns the current transmission rate.
+	 * 
+	 * @return The current rate in messages per second.
+	 */
+	public synchronized double getRate() {
+		return rate;
+	}
+	
+	/**
+	 * Returns the number of allowed transmissions that have not finished.
+	 * 
+	 * @return The number of transmissions in flight.
+	 */
+	public synchronized int getInFlight() {
+		return inFlight;
+	}
+	
+	/**
+	 * Returns the number of delivered transmissions.
+	 * 
+	 * @return The number of delivered transmissions.
+	 */
+	public synchronized long getDelivered() {
+		return delivered;
+	}
+	
+	/**
+	 * Returns the number of transmissions that failed because of 
+	 * congestion.
+	 * 
+	 * @return The number of congested transmissions.
+	 */
+	public synchronized long getCongested() {
+		return congested;
+	}
+	
+	/**
+	 * Returns whether the given transmit status indicates that the network 
+	 * is congested.
+	 * 
+	 * @param status The transmit status.
+	 * 
+	 * @return {@code true} if the status indicates congestion, 
+	 *         {@code false} otherwise.
+	 */
+	public static boolean isCongestion(XBeeTransmitStatus status) {
+		if (status == null)
+			return false;
+		
+		switch (status) {
+		case NO_ACK:
+		case CCA_FAILURE:
+		case NO_BUFFERS:
+		case NETWORK_ACK_FAILURE:
+		case ROUTE_NOT_FOUND:
+		case RESOURCE_ERROR:
+			return true;
+		default:
+			return false;
+		}
+	}
+	
+	/**
+	 * Frees the slot of a finished transmission.
+	 */
+	private void finish() {
+		if (inFlight > 0)
+			inFlight--;
+		notifyAll();
+	}
+	
+	/**
+	 * Halves the window and the rate.
+	 */
+	private void decrease() {
+		window = Math.max(1, window * DECREASE_FACTOR);
+		rate = Math.max(minRate, rate * DECREASE_FACTOR);
+		tokens = Math.min(tokens, window);
+	}
+	
+	/**
+	 * Adds the tokens generated since the last refill. The bucket holds up 
+	 * to one window of tokens.
+	 * 
+	 * @param now Current time in nanoseconds.
+	 */
+	private void refill(long now) {
+		tokens = Math.min(Math.max(1, window), tokens + (now - lastRefill) * rate / 1e9);
+		lastRefill = now;
+	}
+	
+	/**
+	 * Returns the token bucket of the given destination, creating it if 
+	 * needed.
+	 * 
+	 * @param destination 64-bit address of the destination.
+	 * 
+	 * @return The token bucket, {@code null} if the destination is unknown 
+	 *         or the per-destination limits are disabled.
+	 */
+	private TokenBucket getBucket(XBee64BitAddress destination) {
+		if (destination == null || destinationRate == 0)
+			return null;
+		
+		TokenBucket bucket = destinations.get(destination);
+		if (bucket == null) {
+			bucket = new TokenBucket(destinationRate, destinationBurst);
+			destinations.put(destination, bucket);
+		}
+		return bucket;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public synchronized String toString() {
+		return String.format("window %.2f, rate %.2f msg/s, in flight %d, delivered %d, congested %d", 
+				window, rate, inFlight, delivered, congested);
+	}
+	
+	/**
+	 * Token bucket of a destination.
+	 */
+	private static class TokenBucket {
+		
+		// Variables.
+		private final double rate;
+		private final int burst;
+		
+		private double tokens;
+		
+		private long lastRefill = System.nanoTime();
+		
+		/**
+		 * Class constructor. Instantiates a new full {@code TokenBucket}.
+		 * 
+		 * @param rate Refill rate in tokens per second.
+		 * @param burst Capacity of the bucket.
+		 */
+		TokenBucket(double rate, int burst) {
+			this.rate = rate;
+			this.burst = burst;
+			tokens = burst;
+		}
+		
+		/**
+		 * Adds the tokens generated since the last refill.
+		 * 
+		 * @param now Current time in nanoseconds.
+		 */
+		void refill(long now) {
+			tokens = Math.min(burst, tokens + (now - lastRefill) * rate / 1e9);
+			lastRefill = now;
+		}
+	}
+}
@@ -33,6 +33,8 @@ public class XBeeMessage {
 	private final byte[] data;
 	private boolean isBroadcast;
 	
+	private volatile ReceiveTimestamps receiveTimestamps;
+	
 	/**
 	 * Class constructor. Instantiates a new object of type 
 	 * {@code XBeeMessage} with the given parameters.
@@ -111,4 +113,37 @@ public class XBeeMessage {
 	public boolean isBroadcast() {
 		return isBroadcast;
 	}
+	
+	/**
+	 * Returns the timestamps of this message through the receive pipeline.
+	 * 
+	 * <p>Only the messages notified to the listeners have timestamps.</p>
+	 * 
+	 * @return The receive timestamps of this message, {@code null} if it 
+	 *         does not have them.
+	 * 
+	 * @see #setReceiveTimestamps(ReceiveTimestamps)
+	 * @see ReceiveTimestamps
+	 * 
+	 * @since 1.4.0
+	 */
+	public ReceiveTimestamps getReceiveTimestamps() {
+		return receiveTimestamps;
+	}
+	
+	/**
+	 * Sets the timestamps of this message through the receive pipeline.
+	 * 
+	 * <p>This method is called by the XBee Java Library.</p>
+	 * 
+	 * @param receiveTimestamps The receive timestamps of this message.
+	 * 
+	 * @see #getReceiveTimestamps()
+	 * @see ReceiveTimestamps
+	 * 
+	 * @since 1.4.0
+	 */
+	public void setReceiveTimestamps(ReceiveTimestamps receiveTimestamps) {
+		this.receiveTimestamps = receiveTimestamps;
+	}
 }
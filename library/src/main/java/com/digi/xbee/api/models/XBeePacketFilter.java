@@ -0,0 +1,290 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.models;
+
+import com.digi.xbee.api.packet.APIFrameType;
+
+/**
+ * This class represents a filter of received XBee packets used to subscribe 
+ * packet handlers to a subset of the received packets.
+ * 
+ * <p>A packet matches the filter if it matches all the configured criteria: 
+ * 64-bit source address, API frame type, source and destination endpoints, 
+ * cluster ID, profile ID and destination IP port. Criteria that are not 
+ * configured match any packet, so a new filter matches all the packets. 
+ * A packet without a value for a configured criterion (for example, a 
+ * packet without endpoints) does not match.</p>
+ * 
+ * <p>The filter values are read when the handler is subscribed, later 
+ * changes do not affect existing subscriptions.</p>
+ * 
+ * @see com.digi.xbee.api.listeners.IPacketReceiveListener
+ * 
+ * @since 1.4.0
+ */
+public class XBeePacketFilter {
+	
+	// Constants.
+	/**
+	 * Value of the numeric criteria that match any packet.
+	 */
+	public static final int ANY = -1;
+	
+	// Variables.
+	private XBee64BitAddress sourceAddress64 = null;
+	
+	private APIFrameType frameType = null;
+	
+	private int sourceEndpoint = ANY;
+	private int destEndpoint = ANY;
+	private int clusterID = ANY;
+	private int profileID = ANY;
+	private int ipPort = ANY;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code XBeePacketFilter} that 
+	 * matches all the packets.
+	 */
+	public XBeePacketFilter() {
+	}
+	
+	/**
+	 * Class constructor. Instantiates a new {@code XBeePacketFilter} that 
+	 * matches the packets of the given type sent by the given device.
+	 * 
+	 * @param sourceAddress64 The 64-bit source address, {@code null} to 
+	 *                        match any source.
+	 * @param frameType The API frame type, {@code null} to match any type.
+	 * 
+	 * @see APIFrameType
+	 * @see XBee64BitAddress
+	 */
+	public XBeePacketFilter(XBee64BitAddress sourceAddress64, APIFrameType frameType) {
+		this.sourceAddress64 = sourceAddress64;
+		this.frameType = frameType;
+	}
+	
+	/**
+	 * Returns the 64-bit source address of the packets to match.
+	 * 
+	 * @return The 64-bit source address, {@code null} if any source matches.
+	 * 
+	 * @see #set64BitSourceAddress(XBee64BitAddress)
+	 * @see XBee64BitAddress
+	 */
+	public XBee64BitAddress get64BitSourceAddress() {
+		return sourceAddress64;
+	}
+	
+	/**
+	 * Sets the 64-bit source address of the packets to match.
+	 * 
+	 * @param sourceAddress64 The 64-bit source address, {@code null} to 
+	 *                        match any source.
+	 * 
+	 * @see #get64BitSourceAddress()
+	 * @see XBee64BitAddress
+	 */
+	public void set64BitSourceAddress(XBee64BitAddress sourceAddress64) {
+		this.sourceAddress64 = sourceAddress64;
+	}
+	
+	/**
+	 * Returns the API frame type of the packets to match.
+	 * 
+	 * @return The API frame type, {@code null} if any type matches.
+	 * 
+	 * @see #setFrameType(APIFrameType)
+	 * @see APIFrameType
+	 */
+	public APIFrameType getFrameType() {
+		return frameType;
+	}
+	
+	/**
+	 * Sets the API frame type of the packets to match.
+	 * 
+	 * @param frameType The API frame type, {@code null} to match any type.
+	 * 
+	 * @see #getFrameType()
+	 * @see APIFrameType
+	 */
+	public void setFrameType(APIFrameType frameType) {
+		this.frameType = frameType;
+	}
+	
+	/**
+	 * Returns the source endpoint of the packets to match.
+	 * 
+	 * @return The source endpoint, {@link #ANY} if any endpoint matches.
+	 * 
+	 * @see #setSourceEndpoint(int)
+	 */
+	public int getSourceEndpoint() {
+		return sourceEndpoint;
+	}
+	
+	/**
+	 * Sets the source endpoint of the packets to match.
+	 * 
+	 * @param sourceEndpoint The source endpoint (0x00 - 0xFF), {@link #ANY} 
+	 *                       to match any endpoint.
+	 * 
+	 * @throws IllegalArgumentException if {@code sourceEndpoint < -1} or 
+	 *                                  if {@code sourceEndpoint > 0xFF}.
+	 * 
+	 * @see #getSourceEndpoint()
+	 */
+	public void setSourceEndpoint(int sourceEndpoint) {
+		checkRange(sourceEndpoint, 0xFF, "Source endpoint");
+		this.sourceEndpoint = sourceEndpoint;
+	}
+	
+	/**
+	 * Returns the destination endpoint of the packets to match.
+	 * 
+	 * @return The destination endpoint, {@link #ANY} if any endpoint matches.
+	 * 
+	 * @see #setDestinationEndpoint(int)
+	 */
+	public int getDestinationEndpoint() {
+		return destEndpoint;
+	}
+	
+	/**
+	 * Sets the destination endpoint of the packets to match.
+	 * 
+	 * @param destEndpoint The destination endpoint (0x00 - 0xFF), 
+	 *                     {@link #ANY} to match any endpoint.
+	 * 
+	 * @throws IllegalArgumentException if {@code destEndpoint < -1} or 
+	 *                                  if {@code destEndpoint > 0xFF}.
+	 * 
+	 * @see #getDestinationEndpoint()
+	 */
+	public void setDestinationEndpoint(int destEndpoint) {
+		checkRange(destEndpoint, 0xFF, "Destination endpoint");
+		this.destEndpoint = destEndpoint;
+	}
+	
+	/**
+	 * Returns the cluster ID of the packets to match.
+	 * 
+	 * @return The cluster ID, {@link #ANY} if any cluster matches.
+	 * 
+	 * @see #setClusterID(int)
+	 */
+	public int getClusterID() {
+		return clusterID;
+	}
+	
+	/**
+	 * Sets the cluster ID of the packets to match.
+	 * 
+	 * @param clusterID The cluster ID (0x0000 - 0xFFFF), {@link #ANY} to 
+	 *                  match any cluster.
+	 * 
+	 * @throws IllegalArgumentException if {@code clusterID < -1} or 
+	 *                                  if {@code clusterID > 0xFFFF}.
+	 * 
+	 * @see #getClusterID()
+	 */
+	public void setClusterID(int clusterID) {
+		checkRange(clusterID, 0xFFFF, "Cluster ID");
+		this.clusterID = clusterID;
+	}
+	
+	/**
+	 * Returns the profile ID of the packets to match.
+	 * 
+	 * @return The profile ID, {@link #ANY} if any profile matches.
+	 * 
+	 * @see #setProfileID(int)
+	 */
+	public int getProfileID() {
+		return profileID;
+	}
+	
+	/**
+	 * Sets the profile ID of the packets to match.
+	 * 
+	 * @param profileID The profile ID (0x0000 - 0xFFFF), {@link #ANY} to 
+	 *                  match any profile.
+	 * 
+	 * @throws IllegalArgumentException if {@code profileID < -1} or 
+	 *                                  if {@code profileID > 0xFFFF}.
+	 * 
+	 * @see #getProfileID()
+	 */
+	public void setProfileID(int profileID) {
+		checkRange(profileID, 0xFFFF, "Profile ID");
+		this.profileID = profileID;
+	}
+	
+	/**
+	 * Returns the destination IP port of the packets to match.
+	 * 
+	 * @return The destination IP port, {@link #ANY} if any port matches.
+	 * 
+	 * @see #setIPPort(int)
+	 */
+	public int getIPPort() {
+		return ipPort;
+	}
+	
+	/**
+	 * Sets the destination IP port of the packets to match.
+	 * 
+	 * @param ipPort The destination IP port (0 - 65535), {@link #ANY} to 
+	 *               match any port.
+	 * 
+	 * @throws IllegalArgumentException if {@code ipPort < -1} or 
+	 *                                  if {@code ipPort > 65535}.
+	 * 
+	 * @see #getIPPort()
+	 */
+	public void setIPPort(int ipPort) {
+		checkRange(ipPort, 0xFFFF, "IP port");
+		this.ipPort = ipPort;
+	}
+	
+	/**
+	 * Checks that the given value is {@link #ANY} or between 0 and the given 
+	 * maximum.
+	 * 
+	 * @param value Value to check.
+	 * @param max Maximum allowed value.
+	 * @param name Name of the value for the error message.
+	 * 
+	 * @throws IllegalArgumentException if the value is not valid.
+	 */
+	private static void checkRange(int value, int max, String name) {
+		if (value < ANY || value > max)
+			throw new IllegalArgumentException(name + " must be between 0 and " + max + ", or " + ANY + " for any.");
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "source: " + sourceAddress64 + ", frame type: " + frameType 
+				+ ", endpoints: " + sourceEndpoint + " -> " + destEndpoint 
+				+ ", cluster: " + clusterID + ", profile: " + profileID 
+				+ ", IP port: " + ipPort;
+	}
+}
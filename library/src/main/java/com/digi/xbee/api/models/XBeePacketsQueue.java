@@ -58,6 +58,8 @@ public class XBeePacketsQueue {
 	
 	private Object lock = new Object();
 	
+	private volatile Runnable sizeListener;
+	
 	/**
 	 * Class constructor. Instantiates a new object of type 
 	 * {@code XBeePacketsQueue}.
@@ -95,6 +97,9 @@ public class XBeePacketsQueue {
 			if (packetsList.size() == maxLength)
 				packetsList.removeFirst();
 			packetsList.add(xbeePacket);
+			sizeChanged();
+			// Wake up the threads waiting for a packet.
+			lock.notifyAll();
 		}
 	}
 	
@@ -104,6 +109,7 @@ public class XBeePacketsQueue {
 	public void clearQueue() {
 		synchronized (lock) {
 			packetsList.clear();
+			sizeChanged();
 		}
 	}
 	
@@ -131,7 +137,7 @@ public class XBeePacketsQueue {
 		} 
 		synchronized (lock) {
 			if (!packetsList.isEmpty())
-				return packetsList.pop();
+				return removePacket(0);
 		}
 		return null;
 	}
@@ -172,7 +178,7 @@ public class XBeePacketsQueue {
 				for (int i = 0; i < packetsList.size(); i++) {
 					XBeePacket xbeePacket = packetsList.get(i);
 					if (addressesMatch(xbeePacket, remoteXBeeDevice))
-						return packetsList.remove(i);
+						return removePacket(i);
 				}
 			}
 		}
@@ -208,7 +214,7 @@ public class XBeePacketsQueue {
 				for (int i = 0; i < packetsList.size(); i++) {
 					XBeePacket xbeePacket = packetsList.get(i);
 					if (isDataPacket(xbeePacket))
-						return packetsList.remove(i);
+						return removePacket(i);
 				}
 			}
 		}
@@ -253,7 +259,7 @@ public class XBeePacketsQueue {
 				for (int i = 0; i < packetsList.size(); i++) {
 					XBeePacket xbeePacket = packetsList.get(i);
 					if (isDataPacket(xbeePacket) && addressesMatch(xbeePacket, remoteXBeeDevice))
-						return packetsList.remove(i);
+						return removePacket(i);
 				}
 			}
 		}
@@ -290,7 +296,7 @@ public class XBeePacketsQueue {
 				for (int i = 0; i < packetsList.size(); i++) {
 					XBeePacket xbeePacket = packetsList.get(i);
 					if (isExplicitDataPacket(xbeePacket))
-						return packetsList.remove(i);
+						return removePacket(i);
 				}
 			}
 		}
@@ -336,7 +342,7 @@ public class XBeePacketsQueue {
 				for (int i = 0; i < packetsList.size(); i++) {
 					XBeePacket xbeePacket = packetsList.get(i);
 					if (isExplicitDataPacket(xbeePacket) && addressesMatch(xbeePacket, remoteXBeeDevice))
-						return packetsList.remove(i);
+						return removePacket(i);
 				}
 			}
 		}
@@ -375,7 +381,7 @@ public class XBeePacketsQueue {
 				for (int i = 0; i < packetsList.size(); i++) {
 					XBeePacket xbeePacket = packetsList.get(i);
 					if (isIPDataPacket(xbeePacket))
-						return packetsList.remove(i);
+						return removePacket(i);
 				}
 			}
 		}
@@ -414,7 +420,7 @@ public class XBeePacketsQueue {
 				for (int i = 0; i < packetsList.size(); i++) {
 					XBeePacket xbeePacket = packetsList.get(i);
 					if (isIPv6DataPacket(xbeePacket))
-						return packetsList.remove(i);
+						return removePacket(i);
 				}
 			}
 		}
@@ -460,7 +466,7 @@ public class XBeePacketsQueue {
 				for (int i = 0; i < packetsList.size(); i++) {
 					XBeePacket xbeePacket = packetsList.get(i);
 					if (isIPDataPacket(xbeePacket) && ipAddressesMatch(xbeePacket, ipAddress))
-						return packetsList.remove(i);
+						return removePacket(i);
 				}
 			}
 		}
@@ -506,7 +512,7 @@ public class XBeePacketsQueue {
 				for (int i = 0; i < packetsList.size(); i++) {
 					XBeePacket xbeePacket = packetsList.get(i);
 					if (isIPv6DataPacket(xbeePacket) && ipv6AddressesMatch(xbeePacket, ipv6Address))
-						return packetsList.remove(i);
+						return removePacket(i);
 				}
 			}
 		}
@@ -725,14 +731,57 @@ public class XBeePacketsQueue {
 	}
 	
 	/**
-	 * Sleeps the thread for the given number of milliseconds.
+	 * Removes the packet at the given position of the queue.
+	 * 
+	 * <p>This method must be called while holding the lock of the queue.</p>
+	 * 
+	 * @param index The position of the packet to remove.
+	 * 
+	 * @return The removed packet.
+	 */
+	private XBeePacket removePacket(int index) {
+		XBeePacket xbeePacket = packetsList.remove(index);
+		sizeChanged();
+		return xbeePacket;
+	}
+	
+	/**
+	 * Sets the task to run every time a packet is added to or removed from 
+	 * the queue.
+	 * 
+	 * <p>The task runs while holding the lock of the queue, so it must 
+	 * return quickly and must not wait for other threads. It can read the 
+	 * new size of the queue with {@link #getCurrentSize()}.</p>
+	 * 
+	 * @param sizeListener The task to run, {@code null} to remove it.
+	 * 
+	 * @since 1.4.0
+	 */
+	public void setSizeListener(Runnable sizeListener) {
+		this.sizeListener = sizeListener;
+	}
+	
+	/**
+	 * Runs the size listener, if any.
+	 */
+	private void sizeChanged() {
+		Runnable listener = sizeListener;
+		if (listener != null)
+			listener.run();
+	}
+	
+	/**
+	 * Sleeps the thread for the given number of milliseconds, or until a 
+	 * new packet is added to the queue.
 	 * 
 	 * @param milliseconds The number of milliseconds that the thread should 
 	 *        be sleeping.
 	 */
 	private void sleep(int milliseconds) {
 		try {
-			Thread.sleep(milliseconds);
+			synchronized (lock) {
+				lock.wait(milliseconds);
+			}
 		} catch (InterruptedException e) { }
 	}
 	
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Date;
 
+import com.digi.xbee.api.exceptions.InvalidChecksumException;
 import com.digi.xbee.api.exceptions.InvalidPacketException;
 import com.digi.xbee.api.models.SpecialByte;
 import com.digi.xbee.api.models.OperatingMode;
@@ -164,6 +165,9 @@ import com.digi.xbee.api.utils.HexUtils;
  */
 public class XBeePacketParser {
 	
+	// Variables.
+	private volatile long frameCompleteTime;
+	
 	/**
 	 * Parses the bytes from the given input stream depending on the provided 
 	 * operating mode and returns the API packet.
@@ -179,7 +183,8 @@ public class XBeePacketParser {
 	 * @throws IllegalArgumentException if {@code mode != OperatingMode.API } and
 	 *                              if {@code mode != OperatingMode.API_ESCAPE}.
 	 * @throws InvalidPacketException if there is not enough data in the stream or 
-	 *                                if there is an error verifying the checksum or
+	 *                                if there is an error verifying the checksum 
+	 *                                ({@code InvalidChecksumException}) or
 	 *                                if the payload is invalid for the specified frame type.
 	 * @throws NullPointerException if {@code inputStream == null} or 
 	 *                              if {@code mode == null}.
@@ -214,10 +219,11 @@ public class XBeePacketParser {
 			
 			// Read checksum from the input stream.
 			byte readChecksum = (byte)(readByte(inputStream, mode) & 0xFF);
+			frameCompleteTime = System.nanoTime();
 			
 			// Verify the checksum of the read bytes.
 			if (readChecksum != expectedChecksum)
-				throw new InvalidPacketException("Invalid checksum (expected 0x" 
+				throw new InvalidChecksumException("Invalid checksum (expected 0x" 
 							+ HexUtils.byteToHexString(expectedChecksum) + ").");
 			
 			return parsePayload(payload);
@@ -227,6 +233,21 @@ public class XBeePacketParser {
 		}
 	}
 	
+	/**
+	 * Returns the time the last frame parsed from an input stream was 
+	 * completely read, that is, when its checksum byte was read.
+	 * 
+	 * @return The frame complete time as a {@link System#nanoTime()} value, 
+	 *         {@code 0} if no frame has been read.
+	 * 
+	 * @see #parsePacket(InputStream, OperatingMode)
+	 * 
+	 * @since 1.4.0
+	 */
+	public long getFrameCompleteTime() {
+		return frameCompleteTime;
+	}
+	
 	/**
 	 * Parses the bytes from the given array depending on the provided operating
 	 * mode and returns the API packet.
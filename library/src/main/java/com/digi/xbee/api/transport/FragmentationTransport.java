@@ -0,0 +1,727 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.transport;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.XBeeDevice;
+import com.digi.xbee.api.exceptions.TimeoutException;
+import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeeMessage;
+import com.digi.xbee.api.transport.ReassemblyBuffer.PartialMessage;
+
+/**
+ * This class sends messages larger than the maximum RF payload of the 
+ * radio ({@code NP}) by splitting them into fragments, and reassembles the 
+ * fragments received from other devices using it.
+ * 
+ * <p>Fragments are sent with the asynchronous data transmissions of the 
+ * local device. The sender transmits up to a window of fragments and 
+ * requests an acknowledgement with the last one. The receiver answers with 
+ * the index of its first missing fragment and a bitmap of the fragments 
+ * received after it, so the sender retransmits only the missing ones and 
+ * advances the window.</p>
+ * 
+ * <p>Every fragment starts with an 8-byte header:</p>
+ * 
+ * <pre>
+ * 0xFB | type | message ID (2) | fragment index (2) | fragment count (2)
+ * </pre>
+ * 
+ * <p>and acknowledgements with a 6-byte header followed by the bitmap:</p>
+ * 
+ * <pre>
+ * 0xFB | 0x03 | message ID (2) | first missing fragment (2) | bitmap
+ * </pre>
+ * 
+ * <p>While the transport is enabled, received data starting with 
+ * {@code 0xFB} is considered part of the transport and is not delivered 
+ * to the data listeners as is. Both ends must use the transport. Complete 
+ * messages are delivered to the data listeners of the local device; they 
+ * are not available through the {@code readData} methods.</p>
+ * 
+ * <p>Incomplete messages are kept per remote device, up to 
+ * {@link #getMaxPendingMessages()} messages of 
+ * {@link #getMaxMessageSize()} bytes each, and are discarded if no 
+ * fragment is received within {@link #getReassemblyTimeout()}. The 
+ * identifiers of completed messages are remembered for the same time to 
+ * acknowledge retransmitted fragments without delivering them again.</p>
+ * 
+ * @see com.digi.xbee.api.XBeeDevice#enableFragmentation()
+ * 
+ * @since 1.4.0
+ */
+public class FragmentationTransport {
+	
+	// Constants.
+	/**
+	 * Default maximum number of fragments sent before waiting for an 
+	 * acknowledgement (value: {@value}).
+	 */
+	public static final int DEFAULT_WINDOW_SIZE = 16;
+	
+	/**
+	 * Default time to wait for an acknowledgement in milliseconds 
+	 * (value: {@value}).
+	 */
+	public static final int DEFAULT_ACK_TIMEOUT = 2000;
+	
+	/**
+	 * Default number of consecutive acknowledgements without progress 
+	 * before a transmission fails (value: {@value}).
+	 */
+	public static final int DEFAULT_MAX_RETRIES = 5;
+	
+	/**
+	 * Maximum RF payload used when the radio does not report it with the 
+	 * {@code NP} parameter (value: {@value}).
+	 */
+	public static final int DEFAULT_MAX_PAYLOAD = 84;
+	
+	/**
+	 * Default time to keep an incomplete message without receiving any of 
+	 * its fragments in milliseconds (value: {@value}).
+	 */
+	public static final long DEFAULT_REASSEMBLY_TIMEOUT = 30000;
+	
+	/**
+	 * Default maximum size of a reassembled message in bytes 
+	 * (value: {@value}).
+	 */
+	public static final int DEFAULT_MAX_MESSAGE_SIZE = 1024 * 1024;
+	
+	/**
+	 * Default maximum number of incomplete messages per remote device 
+	 * (value: {@value}).
+	 */
+	public static final int DEFAULT_MAX_PENDING_MESSAGES = 4;
+	
+	/**
+	 * Maximum number of fragments of the window (value: {@value}).
+	 */
+	public static final int MAX_WINDOW_SIZE = 256;
+	
+	static final int TYPE_DATA = 0x01;
+	static final int TYPE_DATA_ACK_REQUEST = 0x02;
+	static final int TYPE_ACK = 0x03;
+	
+	static final int DATA_HEADER_LENGTH = 8;
+	static final int ACK_HEADER_LENGTH = 6;
+	
+	private static final int MAX_FRAGMENTS = 0xFFFF;
+	
+	// Variables.
+	private final XBeeDevice device;
+	
+	private volatile int maxPayload = -1;
+	private volatile int windowSize = DEFAULT_WINDOW_SIZE;
+	private volatile int ackTimeout = DEFAULT_ACK_TIMEOUT;
+	private volatile int maxRetries = DEFAULT_MAX_RETRIES;
+	
+	private volatile long reassemblyTimeout = DEFAULT_REASSEMBLY_TIMEOUT;
+	
+	private volatile int maxMessageSize = DEFAULT_MAX_MESSAGE_SIZE;
+	private volatile int maxPendingMessages = DEFAULT_MAX_PENDING_MESSAGES;
+	
+	// Start at a random identifier so a restarted sender does not reuse the 
+	// identifiers the receiver remembers as completed.
+	private final AtomicInteger nextMessageID = new AtomicInteger(new Random().nextInt(0x10000));
+	
+	private final ConcurrentHashMap<String, Acknowledgement> pendingAcks = new ConcurrentHashMap<>();
+	
+	private final Map<XBee64BitAddress, ReassemblyBuffer> buffers = new HashMap<>();
+	
+	private Logger logger;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code FragmentationTransport} 
+	 * for the given local device.
+	 * 
+	 * @param device The local XBee device.
+	 * 
+	 * @throws NullPointerException if {@code device == null}.
+	 */
+	public FragmentationTransport(XBeeDevice device) {
+		if (device == null)
+			throw new NullPointerException("XBee device cannot be null.");
+		
+		this.device = device;
+		this.logger = LoggerFactory.getLogger(FragmentationTransport.class);
+	}
+	
+	/**
+	 * Returns the maximum RF payload of the radio.
+	 * 
+	 * <p>The value is read from the {@code NP} parameter the first time 
+	 * and cached. If the radio does not support it, 
+	 * {@link #DEFAULT_MAX_PAYLOAD} is used.</p>
+	 * 
+	 * @return The maximum RF payload in bytes.
+	 * 
+	 * @throws TimeoutException if there is a timeout reading the parameter.
+	 * @throws XBeeException if there is any other XBee related exception.
+	 * 
+	 * @see #setMaxPayload(int)
+	 * @see #refreshMaxPayload()
+	 */
+	public int getMaxPayload() throws TimeoutException, XBeeException {
+		int payload = maxPayload;
+		if (payload > 0)
+			return payload;
+		
+		payload = TransportUtils.readMaxPayload(device, DEFAULT_MAX_PAYLOAD);
+		maxPayload = payload;
+		return payload;
+	}
+	
+	/**
+	 * Sets the maximum RF payload of the radio instead of reading it.
+	 * 
+	 * <p>Use it when the payload of unicast transmissions is lower than the 
+	 * one reported by the radio, for example with encryption or source 
+	 * routing.</p>
+	 * 
+	 * @param maxPayload The maximum RF payload in bytes.
+	 * 
+	 * @throws IllegalArgumentException if {@code maxPayload < 16}.
+	 * 
+	 * @see #getMaxPayload()
+	 */
+	public void setMaxPayload(int maxPayload) {
+		if (maxPayload < TransportUtils.MIN_PAYLOAD)
+			throw new IllegalArgumentException("Maximum payload must be at least " + TransportUtils.MIN_PAYLOAD + ".");
+		
+		this.maxPayload = maxPayload;
+	}
+	
+	/**
+	 * Discards the cached maximum RF payload, so it is read again from the 
+	 * radio in the next transmission.
+	 * 
+	 * @see #getMaxPayload()
+	 */
+	public void refreshMaxPayload() {
+		maxPayload = -1;
+	}
+	
+	/**
+	 * Sets the maximum number of fragments sent before waiting for an 
+	 * acknowledgement.
+	 * 
+	 * @param windowSize The window size in fragments.
+	 * 
+	 * @throws IllegalArgumentException if {@code windowSize < 1} or 
+	 *                                  if {@code windowSize > 256}.
+	 * 
+	 * @see #getWindowSize()
+	 * @see #MAX_WINDOW_SIZE
+	 */
+	public void setWindowSize(int windowSize) {
+		if (windowSize < 1 || windowSize > MAX_WINDOW_SIZE)
+			throw new IllegalArgumentException("Window size must be between 1 and " + MAX_WINDOW_SIZE + ".");
+		
+		this.windowSize = windowSize;
+	}
+	
+	/**
+	 * Returns the maximum number of fragments sent before waiting for an 
+	 * acknowledgement.
+	 * 
+	 * @return The window size in fragments.
+	 * 
+	 * @see #setWindowSize(int)
+	 */
+	public int getWindowSize() {
+		return windowSize;
+	}
+	
+	/**
+	 * Sets the time to wait for an acknowledgement.
+	 * 
+	 * @param ackTimeout The acknowledgement timeout in milliseconds.
+	 * 
+	 * @throws IllegalArgumentException if {@code ackTimeout < 1}.
+	 * 
+	 * @see #getAckTimeout()
+	 */
+	public void setAckTimeout(int ackTimeout) {
+		if (ackTimeout < 1)
+			throw new IllegalArgumentException("Acknowledgement timeout must be greater than 0.");
+		
+		this.ackTimeout = ackTimeout;
+	}
+	
+	/**
+	 * Returns the time to wait for an acknowledgement.
+	 * 
+	 * @return The acknowledgement timeout in milliseconds.
+	 * 
+	 * @see #setAckTimeout(int)
+	 */
+	public int getAckTimeout() {
+		return ackTimeout;
+	}
+	
+	/**
+	 * Sets the number of consecutive acknowledgements without progress 
+	 * (or not received) before a transmission fails.
+	 * 
+	 * @param maxRetries The maximum number of retries.
+	 * 
+	 * @throws IllegalArgumentException if {@code maxRetries < 0}.
+	 * 
+	 * @see #getMaxRetries()
+	 */
+	public void setMaxRetries(int maxRetries) {
+		if (maxRetries < 0)
+			throw new IllegalArgumentException("Maximum retries cannot be negative.");
+		
+		this.maxRetries = maxRetries;
+	}
+	
+	/**
+	 * Returns the number of consecutive acknowledgements without progress 
+	 * (or not received) before a transmission fails.
+	 * 
+	 * @return The maximum number of retries.
+	 * 
+	 * @see #setMaxRetries(int)
+	 */
+	public int getMaxRetries() {
+		return maxRetries;
+	}
+	
+	/**
+	 * Sets the time to keep an incomplete message without receiving any of 
+	 * its fragments.
+	 * 
+	 * @param reassemblyTimeout The reassembly timeout in milliseconds.
+	 * 
+	 * @throws IllegalArgumentException if {@code reassemblyTimeout < 1}.
+	 * 
+	 * @see #getReassemblyTimeout()
+	 */
+	public void setReassemblyTimeout(long reassemblyTimeout) {
+		if (reassemblyTimeout < 1)
+			throw new IllegalArgumentException("Reassembly timeout must be greater than 0.");
+		
+		this.reassemblyTimeout = reassemblyTimeout;
+	}
+	
+	/**
+	 * Returns the time to keep an incomplete message without receiving any 
+	 * of its fragments.
+	 * 
+	 * @return The reassembly timeout in milliseconds.
+	 * 
+	 * @see #setReassemblyTimeout(long)
+	 */
+	public long getReassemblyTimeout() {
+		return reassemblyTimeout;
+	}
+	
+	/**
+	 * Sets the maximum size of a reassembled message. Larger messages are 
+	 * discarded.
+	 * 
+	 * @param maxMessageSize The maximum message size in bytes.
+	 * 
+	 * @throws IllegalArgumentException if {@code maxMessageSize < 1}.
+	 * 
+	 * @see #getMaxMessageSize()
+	 */
+	public void setMaxMessageSize(int maxMessageSize) {
+		if (maxMessageSize < 1)
+			throw new IllegalArgumentException("Maximum message size must be greater than 0.");
+		
+		this.maxMessageSize = maxMessageSize;
+	}
+	
+	/**
+	 * Returns the maximum size of a reassembled message.
+	 * 
+	 * @return The maximum message size in bytes.
+	 * 
+	 * @see #setMaxMessageSize(int)
+	 */
+	public int getMaxMessageSize() {
+		return maxMessageSize;
+	}
+	
+	/**
+	 * Sets the maximum number of incomplete messages kept per remote device.
+	 * 
+	 * @param maxPendingMessages The maximum number of incomplete messages.
+	 * 
+	 * @throws IllegalArgumentException if {@code maxPendingMessages < 1}.
+	 * 
+	 * @see #getMaxPendingMessages()
+	 */
+	public void setMaxPendingMessages(int maxPendingMessages) {
+		if (maxPendingMessages < 1)
+			throw new IllegalArgumentException("Maximum pending messages must be greater than 0.");
+		
+		this.maxPendingMessages = maxPendingMessages;
+	}
+	
+	/**
+	 * Returns the maximum number of incomplete messages kept per remote 
+	 * device.
+	 * 
+	 * @return The maximum number of incomplete messages.
+	 * 
+	 * @see #setMaxPendingMessages(int)
+	 */
+	public int getMaxPendingMessages() {
+		return maxPendingMessages;
+	}
+	
+	/**
+	 * Sends the given data to the given remote device, splitting it into 
+	 * fragments if it does not fit in one transmission.
+	 * 
+	 * <p>This method blocks until the remote device acknowledges all the 
+	 * fragments.</p>
+	 * 
+	 * @param remoteDevice The remote device to send the data to.
+	 * @param data The data to send.
+	 * 
+	 * @throws IllegalArgumentException if the 64-bit address of the remote 
+	 *                                  device is unknown or 
+	 *                                  if the data needs more than 65535 
+	 *                                  fragments.
+	 * @throws NullPointerException if {@code remoteDevice == null} or 
+	 *                              if {@code data == null}.
+	 * @throws TimeoutException if the remote device does not acknowledge the 
+	 *                          fragments.
+	 * @throws XBeeException if there is any other XBee related exception.
+	 */
+	public void sendData(RemoteXBeeDevice remoteDevice, byte[] data) throws TimeoutException, XBeeException {
+		if (remoteDevice == null)
+			throw new NullPointerException("Remote XBee device cannot be null.");
+		if (data == null)
+			throw new NullPointerException("Data cannot be null.");
+		XBee64BitAddress address = remoteDevice.get64BitAddress();
+		if (address == null || address.equals(XBee64BitAddress.UNKNOWN_ADDRESS) 
+				|| address.equals(XBee64BitAddress.BROADCAST_ADDRESS))
+			throw new IllegalArgumentException("64-bit address of the remote device must be a unicast address.");
+		
+		int fragmentSize = getMaxPayload() - DATA_HEADER_LENGTH;
+		int count = Math.max(1, (data.length + fragmentSize - 1) / fragmentSize);
+		if (count > MAX_FRAGMENTS)
+			throw new IllegalArgumentException("Data is too large, it needs more than " + MAX_FRAGMENTS + " fragments.");
+		
+		int id = nextMessageID.getAndIncrement() & 0xFFFF;
+		String key = getKey(address, id);
+		Acknowledgement ack = new Acknowledgement();
+		pendingAcks.put(key, ack);
+		
+		logger.debug("{}Sending {} bytes to {} in {} fragments (message {}).", 
+				device.toString(), data.length, address, count, id);
+		
+		try {
+			boolean[] acked = new boolean[count];
+			int base = 0;
+			int retries = 0;
+			while (base < count) {
+				int window = windowSize;
+				int last = -1;
+				int sent = 0;
+				for (int i = base; i < count && i < base + MAX_WINDOW_SIZE && sent < window; i++) {
+					if (acked[i])
+						continue;
+					if (last >= 0)
+						sendFragment(remoteDevice, id, last, count, data, fragmentSize, false);
+					last = i;
+					sent++;
+				}
+				sendFragment(remoteDevice, id, last, count, data, fragmentSize, true);
+				
+				byte[] response = ack.waitFor(ackTimeout);
+				if (response == null) {
+					if (++retries > maxRetries)
+						throw new TimeoutException("Fragments of message " + id + " were not acknowledged.");
+					continue;
+				}
+				
+				// The acknowledgement carries the state of the receiver.
+				int newBase = Math.min(count, ((response[4] & 0xFF) << 8) | (response[5] & 0xFF));
+				Arrays.fill(acked, false);
+				Arrays.fill(acked, 0, newBase, true);
+				for (int i = 0; i < (response.length - ACK_HEADER_LENGTH) * 8 && newBase + i < count; i++) {
+					if ((response[ACK_HEADER_LENGTH + i / 8] & (1 << (i % 8))) != 0)
+						acked[newBase + i] = true;
+				}
+				if (newBase > base)
+					retries = 0;
+				else if (++retries > maxRetries)
+					throw new TimeoutException("Fragments of message " + id + " were not acknowledged.");
+				base = newBase;
+			}
+		} finally {
+			pendingAcks.remove(key);
+		}
+	}
+	
+	/**
+	 * Processes the given received message.
+	 * 
+	 * <p><b>This is for internal use only.</b></p>
+	 * 
+	 * <p>Acknowledgements are passed to the pending transmissions and 
+	 * fragments are stored until their message is complete.</p>
+	 * 
+	 * @param message The received message.
+	 * 
+	 * @return The message to deliver to the data listeners: the same 
+	 *         message if it is not part of the transport, the reassembled 
+	 *         message if it is complete, or {@code null} if there is nothing 
+	 *         to deliver.
+	 * 
+	 * @throws NullPointerException if {@code message == null}.
+	 */
+	public XBeeMessage dataReceived(XBeeMessage message) {
+		if (message == null)
+			throw new NullPointerException("Message cannot be null.");
+		
+		byte[] data = message.getData();
+		RemoteXBeeDevice remoteDevice = message.getDevice();
+		if (data.length < ACK_HEADER_LENGTH || (data[0] & 0xFF) != TransportUtils.MAGIC || message.isBroadcast())
+			return message;
+		XBee64BitAddress address = remoteDevice.get64BitAddress();
+		if (address == null || address.equals(XBee64BitAddress.UNKNOWN_ADDRESS))
+			return message;
+		
+		int type = data[1] & 0xFF;
+		int id = ((data[2] & 0xFF) << 8) | (data[3] & 0xFF);
+		switch (type) {
+		case TYPE_ACK:
+			Acknowledgement ack = pendingAcks.get(getKey(address, id));
+			if (ack != null)
+				ack.received(data);
+			return null;
+		case TYPE_DATA:
+		case TYPE_DATA_ACK_REQUEST:
+			if (data.length < DATA_HEADER_LENGTH)
+				return null;
+			return fragmentReceived(remoteDevice, address, id, data, type == TYPE_DATA_ACK_REQUEST);
+		default:
+			return message;
+		}
+	}
+	
+	/**
+	 * Stores the given fragment and returns its message if it is complete.
+	 * 
+	 * @param remoteDevice The remote device that sent the fragment.
+	 * @param address 64-bit address of the remote device.
+	 * @param id The message identifier.
+	 * @param data The received fragment, including the header.
+	 * @param ackRequested {@code true} if the sender requested an 
+	 *                     acknowledgement, {@code false} otherwise.
+	 * 
+	 * @return The reassembled message, {@code null} if it is not complete.
+	 */
+	private XBeeMessage fragmentReceived(RemoteXBeeDevice remoteDevice, XBee64BitAddress address, 
+			int id, byte[] data, boolean ackRequested) {
+		int index = ((data[4] & 0xFF) << 8) | (data[5] & 0xFF);
+		int count = ((data[6] & 0xFF) << 8) | (data[7] & 0xFF);
+		if (count == 0 || index >= count)
+			return null;
+		
+		byte[] ack;
+		byte[] assembled = null;
+		synchronized (buffers) {
+			purge();
+			ReassemblyBuffer buffer = buffers.get(address);
+			if (buffer == null) {
+				buffer = new ReassemblyBuffer();
+				buffers.put(address, buffer);
+			}
+			
+			if (buffer.isCompleted(id)) {
+				// The last acknowledgement was lost, acknowledge again.
+				ack = createAck(id, count, null);
+			} else {
+				PartialMessage partial = buffer.getPartial(id, count, maxPendingMessages);
+				partial.add(index, Arrays.copyOfRange(data, DATA_HEADER_LENGTH, data.length));
+				if (partial.getSize() > maxMessageSize) {
+					logger.warn("{}Message {} from {} exceeds the maximum size, discarding it.", 
+							device.toString(), id, address);
+					buffer.discard(id);
+					return null;
+				}
+				if (partial.isComplete()) {
+					assembled = partial.assemble();
+					buffer.complete(id);
+					ack = createAck(id, count, null);
+				} else {
+					ack = createAck(id, partial.getBase(), partial);
+				}
+			}
+		}
+		
+		if (ackRequested || assembled != null) {
+			try {
+				device.sendDataAsync(remoteDevice, ack);
+			} catch (XBeeException e) {
+				logger.error(device.toString() + "Error acknowledging message " + id + " to " + address + ".", e);
+			}
+		}
+		
+		if (assembled == null)
+			return null;
+		logger.debug("{}Message {} from {} reassembled ({} bytes).", device.toString(), id, address, assembled.length);
+		return new XBeeMessage(remoteDevice, assembled, false);
+	}
+	
+	/**
+	 * Discards the incomplete messages that expired and the buffers of the 
+	 * remote devices that are idle. Must be called holding the lock of the 
+	 * buffers.
+	 */
+	private void purge() {
+		long now = System.currentTimeMillis();
+		Iterator<ReassemblyBuffer> it = buffers.values().iterator();
+		while (it.hasNext()) {
+			ReassemblyBuffer buffer = it.next();
+			buffer.purge(now, reassemblyTimeout);
+			if (buffer.isIdle(now, reassemblyTimeout))
+				it.remove();
+		}
+	}
+	
+	/**
+	 * Sends the given fragment of a message.
+	 * 
+	 * @param remoteDevice The remote device to send the fragment to.
+	 * @param id The message identifier.
+	 * @param index Index of the fragment.
+	 * @param count Number of fragments of the message.
+	 * @param data Data of the message.
+	 * @param fragmentSize Maximum data of a fragment.
+	 * @param ackRequest {@code true} to request an acknowledgement, 
+	 *                   {@code false} otherwise.
+	 * 
+	 * @throws XBeeException if there is any error sending the fragment.
+	 */
+	private void sendFragment(RemoteXBeeDevice remoteDevice, int id, int index, int count, 
+			byte[] data, int fragmentSize, boolean ackRequest) throws XBeeException {
+		int offset = index * fragmentSize;
+		int length = Math.min(fragmentSize, data.length - offset);
+		byte[] fragment = new byte[DATA_HEADER_LENGTH + length];
+		fragment[0] = (byte)TransportUtils.MAGIC;
+		fragment[1] = (byte)(ackRequest ? TYPE_DATA_ACK_REQUEST : TYPE_DATA);
+		fragment[2] = (byte)(id >> 8);
+		fragment[3] = (byte)id;
+		fragment[4] = (byte)(index >> 8);
+		fragment[5] = (byte)index;
+		fragment[6] = (byte)(count >> 8);
+		fragment[7] = (byte)count;
+		System.arraycopy(data, offset, fragment, DATA_HEADER_LENGTH, length);
+		device.sendDataAsync(remoteDevice, fragment);
+	}
+	
+	/**
+	 * Creates an acknowledgement.
+	 * 
+	 * @param id The message identifier.
+	 * @param base Index of the first missing fragment, or the number of 
+	 *             fragments if the message is complete.
+	 * @param partial The incomplete message, {@code null} if it is 
+	 *                complete.
+	 * 
+	 * @return The acknowledgement.
+	 */
+	private static byte[] createAck(int id, int base, PartialMessage partial) {
+		byte[] bitmap = partial == null ? new byte[0] : partial.getBitmap(MAX_WINDOW_SIZE);
+		byte[] ack = new byte[ACK_HEADER_LENGTH + bitmap.length];
+		ack[0] = (byte)TransportUtils.MAGIC;
+		ack[1] = (byte)TYPE_ACK;
+		ack[2] = (byte)(id >> 8);
+		ack[3] = (byte)id;
+		ack[4] = (byte)(base >> 8);
+		ack[5] = (byte)base;
+		System.arraycopy(bitmap, 0, ack, ACK_HEADER_LENGTH, bitmap.length);
+		return ack;
+	}
+	
+	/**
+	 * Returns the key of the pending acknowledgement of a message.
+	 * 
+	 * @param address 64-bit address of the remote device.
+	 * @param id The message identifier.
+	 * 
+	 * @return The key of the acknowledgement.
+	 */
+	private static String getKey(XBee64BitAddress address, int id) {
+		return address.toString() + "/" + id;
+	}
+	
+	/**
+	 * Last acknowledgement received for a message being sent.
+	 */
+	private static class Acknowledgement {
+		
+		// Variables.
+		private byte[] ack;
+		
+		/**
+		 * Stores a received acknowledgement and wakes up the sender.
+		 * 
+		 * @param ack The acknowledgement.
+		 */
+		synchronized void received(byte[] ack) {
+			this.ack = ack;
+			notifyAll();
+		}
+		
+		/**
+		 * Waits for an acknowledgement.
+		 * 
+		 * @param timeout Maximum time to wait in milliseconds.
+		 * 
+		 * @return The acknowledgement, {@code null} if the timeout expired.
+		 */
+		synchronized byte[] waitFor(long timeout) {
+			long deadline = System.currentTimeMillis() + timeout;
+			long remaining = timeout;
+			while (ack == null && remaining > 0) {
+				try {
+					wait(remaining);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return null;
+				}
+				remaining = deadline - System.currentTimeMillis();
+			}
+			byte[] received = ack;
+			ack = null;
+			return received;
+		}
+	}
+}
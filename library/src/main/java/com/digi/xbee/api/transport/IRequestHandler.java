@@ -0,0 +1,44 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.transport;
+
+import com.digi.xbee.api.models.XBeeMessage;
+
+/**
+ * This interface defines the required methods that should be implemented to 
+ * answer the requests received by an {@link RPCTransport}.
+ * 
+ * @since 1.4.0
+ */
+public interface IRequestHandler {
+	
+	/**
+	 * Called when a request is received from a remote node of the network.
+	 * 
+	 * <p>The returned data is sent back to the remote node as the response 
+	 * to the request.</p>
+	 * 
+	 * @param request An {@code XBeeMessage} object containing the data of 
+	 *                the request and the {@code RemoteXBeeDevice} that sent 
+	 *                it.
+	 * 
+	 * @return The data of the response, {@code null} to not answer the 
+	 *         request.
+	 * 
+	 * @see com.digi.xbee.api.models.XBeeMessage
+	 */
+	public byte[] requestReceived(XBeeMessage request);
+}
@@ -0,0 +1,437 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.transport;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.XBeeDevice;
+import com.digi.xbee.api.exceptions.TimeoutException;
+import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeeMessage;
+
+/**
+ * This class packs small messages sent to the same remote device into one 
+ * transmission, and splits the packed messages received from other devices 
+ * using it.
+ * 
+ * <p>Messages sent with {@link #sendData(RemoteXBeeDevice, byte[])} are 
+ * buffered per destination. The buffer is transmitted when the next 
+ * message does not fit in the maximum RF payload of the radio 
+ * ({@code NP}), or when the first buffered message has waited for the 
+ * maximum linger time, whatever happens first (as Nagle's algorithm 
+ * does).</p>
+ * 
+ * <p>Every transmission starts with a 2-byte header followed by the 
+ * messages, each one preceded by its length:</p>
+ * 
+ * <pre>
+ * 0xFB | 0x04 | length | message | length | message ...
+ * </pre>
+ * 
+ * <p>While the aggregation is enabled, received data with this header is 
+ * split and every message is delivered to the data listeners of the local 
+ * device. Both ends must enable it.</p>
+ * 
+ * <p>Transmissions are asynchronous: their transmit status is not 
+ * checked. The linger time is driven by the timer of the local 
+ * device.</p>
+ * 
+ * @see com.digi.xbee.api.XBeeDevice#enableAggregation()
+ * 
+ * @since 1.4.0
+ */
+public class MessageAggregator {
+	
+	// Constants.
+	/**
+	 * Default maximum time a message waits for other messages to the same 
+	 * destination in milliseconds (value: {@value}).
+	 */
+	public static final long DEFAULT_MAX_LINGER = 20;
+	
+	/**
+	 * Maximum length of a message that can be aggregated (value: 
+	 * {@value}).
+	 */
+	public static final int MAX_MESSAGE_LENGTH = 255;
+	
+	static final int TYPE_AGGREGATE = 0x04;
+	
+	static final int HEADER_LENGTH = 2;
+	
+	// Variables.
+	private final XBeeDevice device;
+	
+	private volatile int maxPayload = -1;
+	
+	private volatile long maxLinger = DEFAULT_MAX_LINGER;
+	
+	private final ConcurrentHashMap<XBee64BitAddress, Batch> batches = new ConcurrentHashMap<>();
+	
+	private Logger logger;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code MessageAggregator} for 
+	 * the given local device.
+	 * 
+	 * @param device The local XBee device.
+	 * 
+	 * @throws NullPointerException if {@code device == null}.
+	 */
+	public MessageAggregator(XBeeDevice device) {
+		if (device == null)
+			throw new NullPointerException("XBee device cannot be null.");
+		
+		this.device = device;
+		this.logger = LoggerFactory.getLogger(MessageAggregator.class);
+	}
+	
+	/**
+	 * Returns the maximum RF payload of the radio.
+	 * 
+	 * <p>The value is read from the {@code NP} parameter the first time 
+	 * and cached. If the radio does not support it, 
+	 * {@link FragmentationTransport#DEFAULT_MAX_PAYLOAD} is used.</p>
+	 * 
+	 * @return The maximum RF payload in bytes.
+	 * 
+	 * @throws TimeoutException if there is a timeout reading the parameter.
+	 * @throws XBeeException if there is any other XBee related exception.
+	 * 
+	 * @see #setMaxPayload(int)
+	 */
+	public int getMaxPayload() throws TimeoutException, XBeeException {
+		int payload = maxPayload;
+		if (payload <= 0) {
+			payload = TransportUtils.readMaxPayload(device, FragmentationTransport.DEFAULT_MAX_PAYLOAD);
+			maxPayload = payload;
+		}
+		return payload;
+	}
+	
+	/**
+	 * Sets the maximum RF payload of the radio instead of reading it.
+	 * 
+	 * @param maxPayload The maximum RF payload in bytes.
+	 * 
+	 * @throws IllegalArgumentException if {@code maxPayload < 16}.
+	 * 
+	 * @see #getMaxPayload()
+	 */
+	public void setMaxPayload(int maxPayload) {
+		if (maxPayload < TransportUtils.MIN_PAYLOAD)
+			throw new IllegalArgumentException("Maximum payload must be at least " + TransportUtils.MIN_PAYLOAD + ".");
+		
+		this.maxPayload = maxPayload;
+	}
+	
+	/**
+	 * Sets the maximum time a message waits for other messages to the same 
+	 * destination before it is transmitted.
+	 * 
+	 * @param maxLinger The maximum linger time in milliseconds, 0 to 
+	 *                  transmit every message immediately.
+	 * 
+	 * @throws IllegalArgumentException if {@code maxLinger < 0}.
+	 * 
+	 * @see #getMaxLinger()
+	 */
+	public void setMaxLinger(long maxLinger) {
+		if (maxLinger < 0)
+			throw new IllegalArgumentException("Maximum linger time cannot be negative.");
+		
+		this.maxLinger = maxLinger;
+	}
+	
+	/**
+	 * Returns the maximum time a message waits for other messages to the 
+	 * same destination before it is transmitted.
+	 * 
+	 * @return The maximum linger time in milliseconds.
+	 * 
+	 * @see #setMaxLinger(long)
+	 */
+	public long getMaxLinger() {
+		return maxLinger;
+	}
+	
+	/**
+	 * Queues the given data to be sent to the given remote device with other 
+	 * messages to the same device.
+	 * 
+	 * <p>This method does not wait for the transmission, except when the 
+	 * buffer of the remote device is full and has to be transmitted.</p>
+	 * 
+	 * @param remoteDevice The remote device to send the data to.
+	 * @param data The data to send.
+	 * 
+	 * @throws IllegalArgumentException if the 64-bit address of the remote 
+	 *                                  device is unknown or 
+	 *                                  if the data is longer than 
+	 *                                  {@link #MAX_MESSAGE_LENGTH} or the 
+	 *                                  maximum RF payload.
+	 * @throws NullPointerException if {@code remoteDevice == null} or 
+	 *                              if {@code data == null}.
+	 * @throws TimeoutException if there is a timeout reading the maximum 
+	 *                          RF payload.
+	 * @throws XBeeException if there is any other XBee related exception.
+	 * 
+	 * @see #flush()
+	 */
+	public void sendData(RemoteXBeeDevice remoteDevice, byte[] data) throws TimeoutException, XBeeException {
+		if (remoteDevice == null)
+			throw new NullPointerException("Remote XBee device cannot be null.");
+		if (data == null)
+			throw new NullPointerException("Data cannot be null.");
+		XBee64BitAddress address = remoteDevice.get64BitAddress();
+		if (address == null || address.equals(XBee64BitAddress.UNKNOWN_ADDRESS))
+			throw new IllegalArgumentException("64-bit address of the remote device cannot be unknown.");
+		
+		int payload = getMaxPayload();
+		if (data.length > MAX_MESSAGE_LENGTH || HEADER_LENGTH + 1 + data.length > payload)
+			throw new IllegalArgumentException("Data is too long to be aggregated.");
+		
+		Batch batch = batches.get(address);
+		if (batch == null) {
+			batch = new Batch(remoteDevice);
+			Batch previous = batches.putIfAbsent(address, batch);
+			if (previous != null)
+				batch = previous;
+		}
+		
+		byte[] previous = null;
+		byte[] current = null;
+		boolean schedule;
+		synchronized (batch) {
+			if (batch.size() + 1 + data.length > payload)
+				previous = batch.take();
+			schedule = batch.isEmpty() && maxLinger > 0;
+			batch.add(data);
+			// Transmit it now if no other message fits.
+			if (maxLinger == 0 || batch.size() + 2 > payload) {
+				current = batch.take();
+				schedule = false;
+			}
+		}
+		if (previous != null)
+			transmit(batch.remoteDevice, previous);
+		if (current != null)
+			transmit(batch.remoteDevice, current);
+		if (schedule)
+			scheduleFlush(batch);
+	}
+	
+	/**
+	 * Transmits the buffered messages to all the remote devices.
+	 * 
+	 * @throws XBeeException if there is any error transmitting the messages.
+	 */
+	public void flush() throws XBeeException {
+		XBeeException error = null;
+		for (Batch batch : batches.values()) {
+			try {
+				flush(batch);
+			} catch (XBeeException e) {
+				error = e;
+			}
+		}
+		if (error != null)
+			throw error;
+	}
+	
+	/**
+	 * Transmits the buffered messages before disabling the aggregation.
+	 * 
+	 * @throws XBeeException if there is any error transmitting the messages.
+	 */
+	public void close() throws XBeeException {
+		flush();
+	}
+	
+	/**
+	 * Splits the given received message if it contains aggregated 
+	 * messages.
+	 * 
+	 * <p><b>This is for internal use only.</b></p>
+	 * 
+	 * @param message The received message.
+	 * 
+	 * @return The list of messages contained in the received one, 
+	 *         {@code null} if the message is not aggregated.
+	 * 
+	 * @throws NullPointerException if {@code message == null}.
+	 */
+	public List<XBeeMessage> split(XBeeMessage message) {
+		if (message == null)
+			throw new NullPointerException("Message cannot be null.");
+		
+		byte[] data = message.getData();
+		if (data.length < HEADER_LENGTH || (data[0] & 0xFF) != TransportUtils.MAGIC 
+				|| (data[1] & 0xFF) != TYPE_AGGREGATE)
+			return null;
+		
+		List<XBeeMessage> messages = new ArrayList<>();
+		int offset = HEADER_LENGTH;
+		while (offset < data.length) {
+			int length = data[offset++] & 0xFF;
+			if (offset + length > data.length) {
+				logger.warn("{}Truncated aggregated message from {}.", device.toString(), 
+						message.getDevice().get64BitAddress());
+				break;
+			}
+			XBeeMessage part = new XBeeMessage(message.getDevice(), 
+					Arrays.copyOfRange(data, offset, offset + length), message.isBroadcast());
+			part.setReceiveTimestamps(message.getReceiveTimestamps());
+			messages.add(part);
+			offset += length;
+		}
+		return messages;
+	}
+	
+	/**
+	 * Transmits the buffered messages of the given batch.
+	 * 
+	 * @param batch The batch to transmit.
+	 * 
+	 * @throws XBeeException if there is any error transmitting the messages.
+	 */
+	private void flush(Batch batch) throws XBeeException {
+		byte[] frame;
+		synchronized (batch) {
+			frame = batch.take();
+		}
+		if (frame != null)
+			transmit(batch.remoteDevice, frame);
+	}
+	
+	/**
+	 * Transmits the given aggregated frame.
+	 * 
+	 * @param remoteDevice The remote device to send the frame to.
+	 * @param frame The aggregated frame.
+	 * 
+	 * @throws XBeeException if there is any error transmitting the frame.
+	 */
+	private void transmit(RemoteXBeeDevice remoteDevice, byte[] frame) throws XBeeException {
+		device.sendDataAsync(remoteDevice, frame);
+	}
+	
+	/**
+	 * Schedules the transmission of the given batch after the maximum 
+	 * linger time.
+	 * 
+	 * @param batch The batch to transmit.
+	 */
+	private void scheduleFlush(final Batch batch) {
+		device.getTimer().schedule(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				try {
+					flush(batch);
+				} catch (XBeeException e) {
+					logger.error(device.toString() + "Error sending aggregated messages.", e);
+				}
+			}
+		}, maxLinger);
+	}
+	
+	/**
+	 * Messages buffered for a remote device.
+	 */
+	private static class Batch {
+		
+		// Variables.
+		private final RemoteXBeeDevice remoteDevice;
+		
+		private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		
+		/**
+		 * Class constructor. Instantiates a new empty {@code Batch}.
+		 * 
+		 * @param remoteDevice The remote device of the messages.
+		 */
+		Batch(RemoteXBeeDevice remoteDevice) {
+			this.remoteDevice = remoteDevice;
+			reset();
+		}
+		
+		/**
+		 * Adds a message.
+		 * 
+		 * @param data The message.
+		 */
+		void add(byte[] data) {
+			buffer.write(data.length);
+			buffer.write(data, 0, data.length);
+		}
+		
+		/**
+		 * Returns the length of the frame, including the header.
+		 * 
+		 * @return The length of the frame in bytes.
+		 */
+		int size() {
+			return buffer.size();
+		}
+		
+		/**
+		 * Returns whether the batch has no messages.
+		 * 
+		 * @return {@code true} if there are no messages, {@code false} 
+		 *         otherwise.
+		 */
+		boolean isEmpty() {
+			return buffer.size() == HEADER_LENGTH;
+		}
+		
+		/**
+		 * Returns the frame with the buffered messages and empties the 
+		 * batch.
+		 * 
+		 * @return The aggregated frame, {@code null} if there are no 
+		 *         messages.
+		 */
+		byte[] take() {
+			if (isEmpty())
+				return null;
+			byte[] frame = buffer.toByteArray();
+			reset();
+			return frame;
+		}
+		
+		/**
+		 * Empties the batch, leaving only the header.
+		 */
+		private void reset() {
+			buffer.reset();
+			buffer.write(TransportUtils.MAGIC);
+			buffer.write(TYPE_AGGREGATE);
+		}
+	}
+}
@@ -0,0 +1,428 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.transport;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.XBeeDevice;
+import com.digi.xbee.api.exceptions.TimeoutException;
+import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.listeners.IFutureListener;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeeMessage;
+import com.digi.xbee.api.utils.HashedWheelTimer;
+import com.digi.xbee.api.utils.XBeeFuture;
+
+/**
+ * This class implements a request/response protocol over the data 
+ * transmissions of the local device.
+ * 
+ * <p>Every request carries a correlation identifier that the remote device 
+ * copies into its response, so any number of requests can be outstanding 
+ * at the same time, to the same or to different remote devices. Each 
+ * request returns an {@link XBeeFuture} that completes with the response, 
+ * or with a {@link TimeoutException} if it does not arrive in time. The 
+ * timeouts are driven by the timer of the local device.</p>
+ * 
+ * <p>Requests and responses start with a 4-byte header:</p>
+ * 
+ * <pre>
+ * 0xFB | 0x05 (request) or 0x06 (response) | correlation ID (2)
+ * </pre>
+ * 
+ * <p>Received requests are answered by the {@link IRequestHandler} of the 
+ * transport in a separate thread; they are discarded if there is no 
+ * handler. Both ends must enable the transport. Requests and responses 
+ * must fit in the maximum RF payload of the radio.</p>
+ * 
+ * @see com.digi.xbee.api.XBeeDevice#enableRPC()
+ * 
+ * @since 1.4.0
+ */
+public class RPCTransport {
+	
+	// Constants.
+	static final int TYPE_REQUEST = 0x05;
+	static final int TYPE_RESPONSE = 0x06;
+	
+	static final int HEADER_LENGTH = 4;
+	
+	private static final int MAX_ID = 0xFFFF;
+	
+	// Variables.
+	private final XBeeDevice device;
+	
+	private final ConcurrentHashMap<Integer, PendingRequest> pendingRequests = new ConcurrentHashMap<>();
+	
+	private final AtomicInteger nextID = new AtomicInteger();
+	
+	private volatile IRequestHandler requestHandler;
+	
+	private ExecutorService handlerExecutor;
+	
+	private boolean closed = false;
+	
+	private Logger logger;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code RPCTransport} for the 
+	 * given local device.
+	 * 
+	 * @param device The local XBee device.
+	 * 
+	 * @throws NullPointerException if {@code device == null}.
+	 */
+	public RPCTransport(XBeeDevice device) {
+		if (device == null)
+			throw new NullPointerException("XBee device cannot be null.");
+		
+		this.device = device;
+		this.logger = LoggerFactory.getLogger(RPCTransport.class);
+	}
+	
+	/**
+	 * Sets the handler that answers the requests received from other 
+	 * devices.
+	 * 
+	 * @param requestHandler The request handler, {@code null} to discard 
+	 *                       the received requests.
+	 * 
+	 * @see #getRequestHandler()
+	 */
+	public void setRequestHandler(IRequestHandler requestHandler) {
+		this.requestHandler = requestHandler;
+	}
+	
+	/**
+	 * Returns the handler that answers the requests received from other 
+	 * devices.
+	 * 
+	 * @return The request handler, {@code null} if there is no handler.
+	 * 
+	 * @see #setRequestHandler(IRequestHandler)
+	 */
+	public IRequestHandler getRequestHandler() {
+		return requestHandler;
+	}
+	
+	/**
+	 * Returns the number of requests waiting for their response.
+	 * 
+	 * @return The number of pending requests.
+	 */
+	public int getPendingRequests() {
+		return pendingRequests.size();
+	}
+	
+	/**
+	 * Sends the given request to the given remote device, using the receive 
+	 * timeout of the local device.
+	 * 
+	 * @param remoteDevice The remote device to send the request to.
+	 * @param data The data of the request.
+	 * 
+	 * @return The future of the response.
+	 * 
+	 * @throws IllegalArgumentException if the 64-bit address of the remote 
+	 *                                  device is unknown.
+	 * @throws NullPointerException if {@code remoteDevice == null} or 
+	 *                              if {@code data == null}.
+	 * @throws XBeeException if there is any error sending the request.
+	 * 
+	 * @see #sendRequest(RemoteXBeeDevice, byte[], long)
+	 * @see com.digi.xbee.api.XBeeDevice#getReceiveTimeout()
+	 */
+	public XBeeFuture<XBeeMessage> sendRequest(RemoteXBeeDevice remoteDevice, byte[] data) throws XBeeException {
+		return sendRequest(remoteDevice, data, device.getReceiveTimeout());
+	}
+	
+	/**
+	 * Sends the given request to the given remote device.
+	 * 
+	 * <p>This method does not wait for the response. The returned future 
+	 * completes with the response, with a {@code TimeoutException} if it 
+	 * is not received within the given timeout, or is cancelled if the 
+	 * transport is disabled. Cancelling the future discards the 
+	 * response.</p>
+	 * 
+	 * @param remoteDevice The remote device to send the request to.
+	 * @param data The data of the request.
+	 * @param timeout The time to wait for the response in milliseconds.
+	 * 
+	 * @return The future of the response.
+	 * 
+	 * @throws IllegalArgumentException if the 64-bit address of the remote 
+	 *                                  device is unknown or 
+	 *                                  if {@code timeout <= 0}.
+	 * @throws NullPointerException if {@code remoteDevice == null} or 
+	 *                              if {@code data == null}.
+	 * @throws XBeeException if there are too many pending requests or there 
+	 *                       is any error sending the request.
+	 */
+	public XBeeFuture<XBeeMessage> sendRequest(RemoteXBeeDevice remoteDevice, byte[] data, 
+			long timeout) throws XBeeException {
+		if (remoteDevice == null)
+			throw new NullPointerException("Remote XBee device cannot be null.");
+		if (data == null)
+			throw new NullPointerException("Data cannot be null.");
+		if (timeout <= 0)
+			throw new IllegalArgumentException("Timeout must be greater than 0.");
+		XBee64BitAddress address = remoteDevice.get64BitAddress();
+		if (address == null || address.equals(XBee64BitAddress.UNKNOWN_ADDRESS))
+			throw new IllegalArgumentException("64-bit address of the remote device cannot be unknown.");
+		
+		synchronized (this) {
+			if (closed)
+				throw new XBeeException("The RPC transport is closed.");
+		}
+		
+		final PendingRequest request = new PendingRequest(address);
+		final int id = register(request);
+		request.timeoutTask = device.getTimer().schedule(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				if (pendingRequests.remove(id, request))
+					request.future.completeExceptionally(new TimeoutException("No response received for request " + id + "."));
+			}
+		}, timeout);
+		// Forget the request if it is cancelled.
+		request.future.addListener(new IFutureListener<XBeeMessage>() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.listeners.IFutureListener#operationComplete(com.digi.xbee.api.utils.XBeeFuture)
+			 */
+			@Override
+			public void operationComplete(XBeeFuture<XBeeMessage> future) {
+				pendingRequests.remove(id, request);
+				request.timeoutTask.cancel();
+			}
+		});
+		
+		try {
+			device.sendDataAsync(remoteDevice, createFrame(TYPE_REQUEST, id, data));
+		} catch (XBeeException e) {
+			request.future.completeExceptionally(e);
+			throw e;
+		}
+		return request.future;
+	}
+	
+	/**
+	 * Processes the given received message.
+	 * 
+	 * <p><b>This is for internal use only.</b></p>
+	 * 
+	 * <p>Responses complete their pending requests and requests are passed 
+	 * to the request handler.</p>
+	 * 
+	 * @param message The received message.
+	 * 
+	 * @return The same message if it is not part of the transport, 
+	 *         {@code null} otherwise.
+	 * 
+	 * @throws NullPointerException if {@code message == null}.
+	 */
+	public XBeeMessage dataReceived(XBeeMessage message) {
+		if (message == null)
+			throw new NullPointerException("Message cannot be null.");
+		
+		byte[] data = message.getData();
+		if (data.length < HEADER_LENGTH || (data[0] & 0xFF) != TransportUtils.MAGIC)
+			return message;
+		
+		int type = data[1] & 0xFF;
+		int id = ((data[2] & 0xFF) << 8) | (data[3] & 0xFF);
+		switch (type) {
+		case TYPE_RESPONSE:
+			responseReceived(message, id);
+			return null;
+		case TYPE_REQUEST:
+			requestReceived(message, id);
+			return null;
+		default:
+			return message;
+		}
+	}
+	
+	/**
+	 * Cancels the pending requests and stops the request handler threads.
+	 */
+	public void close() {
+		synchronized (this) {
+			closed = true;
+			if (handlerExecutor != null)
+				handlerExecutor.shutdownNow();
+			handlerExecutor = null;
+		}
+		for (PendingRequest request : pendingRequests.values())
+			request.future.cancel(false);
+		pendingRequests.clear();
+	}
+	
+	/**
+	 * Registers the given request with a free correlation identifier.
+	 * 
+	 * @param request The request to register.
+	 * 
+	 * @return The correlation identifier of the request.
+	 * 
+	 * @throws XBeeException if all the identifiers are in use.
+	 */
+	private int register(PendingRequest request) throws XBeeException {
+		for (int i = 0; i <= MAX_ID; i++) {
+			int id = nextID.getAndIncrement() & MAX_ID;
+			if (pendingRequests.putIfAbsent(id, request) == null)
+				return id;
+		}
+		throw new XBeeException("Too many pending requests.");
+	}
+	
+	/**
+	 * Completes the request of the given response.
+	 * 
+	 * @param message The received response.
+	 * @param id The correlation identifier of the response.
+	 */
+	private void responseReceived(XBeeMessage message, int id) {
+		PendingRequest request = pendingRequests.get(id);
+		if (request == null || !request.address.equals(message.getDevice().get64BitAddress())
+				|| !pendingRequests.remove(id, request)) {
+			logger.debug("{}Discarding unexpected response {} from {}.", device.toString(), 
+					id, message.getDevice().get64BitAddress());
+			return;
+		}
+		request.future.complete(stripHeader(message));
+	}
+	
+	/**
+	 * Passes the given request to the request handler and sends its 
+	 * response.
+	 * 
+	 * @param message The received request.
+	 * @param id The correlation identifier of the request.
+	 */
+	private void requestReceived(XBeeMessage message, final int id) {
+		final IRequestHandler handler = requestHandler;
+		ExecutorService executor = getHandlerExecutor();
+		if (handler == null || executor == null) {
+			logger.debug("{}Discarding request {} from {}, there is no request handler.", 
+					device.toString(), id, message.getDevice().get64BitAddress());
+			return;
+		}
+		
+		final XBeeMessage request = stripHeader(message);
+		executor.execute(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				try {
+					byte[] response = handler.requestReceived(request);
+					if (response != null)
+						device.sendDataAsync(request.getDevice(), createFrame(TYPE_RESPONSE, id, response));
+				} catch (Exception e) {
+					logger.error(device.toString() + "Error answering request " + id + ".", e);
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Returns the executor of the request handler, creating it if needed.
+	 * 
+	 * @return The executor, {@code null} if the transport is closed.
+	 */
+	private synchronized ExecutorService getHandlerExecutor() {
+		if (closed)
+			return null;
+		if (handlerExecutor == null)
+			handlerExecutor = Executors.newCachedThreadPool(
+					TransportUtils.daemonThreadFactory("XBee RPC request handler"));
+		return handlerExecutor;
+	}
+	
+	/**
+	 * Returns a copy of the given message without the header of the 
+	 * transport.
+	 * 
+	 * @param message The received message.
+	 * 
+	 * @return The message without the header.
+	 */
+	private static XBeeMessage stripHeader(XBeeMessage message) {
+		byte[] data = message.getData();
+		XBeeMessage stripped = new XBeeMessage(message.getDevice(), 
+				Arrays.copyOfRange(data, HEADER_LENGTH, data.length), message.isBroadcast());
+		stripped.setReceiveTimestamps(message.getReceiveTimestamps());
+		return stripped;
+	}
+	
+	/**
+	 * Creates a request or response frame.
+	 * 
+	 * @param type The type of the frame.
+	 * @param id The correlation identifier.
+	 * @param data The data of the request or response.
+	 * 
+	 * @return The frame.
+	 */
+	private static byte[] createFrame(int type, int id, byte[] data) {
+		byte[] frame = new byte[HEADER_LENGTH + data.length];
+		frame[0] = (byte)TransportUtils.MAGIC;
+		frame[1] = (byte)type;
+		frame[2] = (byte)(id >> 8);
+		frame[3] = (byte)id;
+		System.arraycopy(data, 0, frame, HEADER_LENGTH, data.length);
+		return frame;
+	}
+	
+	/**
+	 * A request waiting for its response.
+	 */
+	private static class PendingRequest {
+		
+		// Variables.
+		private final XBee64BitAddress address;
+		
+		private final XBeeFuture<XBeeMessage> future = new XBeeFuture<>();
+		
+		private volatile HashedWheelTimer.Timeout timeoutTask;
+		
+		/**
+		 * Class constructor. Instantiates a new {@code PendingRequest} 
+		 * object.
+		 * 
+		 * @param address 64-bit address of the remote device.
+		 */
+		PendingRequest(XBee64BitAddress address) {
+			this.address = address;
+		}
+	}
+}
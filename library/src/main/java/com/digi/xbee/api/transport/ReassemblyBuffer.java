@@ -0,0 +1,258 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.transport;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class keeps the fragments received from a remote XBee device until 
+ * their messages are complete.
+ * 
+ * <p>The number of incomplete messages is bounded: when a new message 
+ * starts and the buffer is full, the least recently updated message is 
+ * discarded. The identifiers of the last completed messages are kept, up 
+ * to the reassembly timeout, to acknowledge retransmitted fragments 
+ * without delivering them again.</p>
+ * 
+ * <p>This class is not thread-safe.</p>
+ * 
+ * @see FragmentationTransport
+ */
+class ReassemblyBuffer {
+	
+	// Constants.
+	private static final int MAX_COMPLETED = 16;
+	
+	// Variables.
+	private final LinkedHashMap<Integer, PartialMessage> partials = new LinkedHashMap<>(16, 0.75f, true);
+	
+	// Completion time of the last completed messages, oldest first.
+	private final LinkedHashMap<Integer, Long> completed = new LinkedHashMap<>();
+	
+	private long lastUpdate = System.currentTimeMillis();
+	
+	/**
+	 * Returns whether the message with the given identifier was already 
+	 * completed.
+	 * 
+	 * @param id The message identifier.
+	 * 
+	 * @return {@code true} if the message was completed, {@code false} 
+	 *         otherwise.
+	 */
+	boolean isCompleted(int id) {
+		return completed.containsKey(id);
+	}
+	
+	/**
+	 * Returns the incomplete message with the given identifier, creating it 
+	 * if needed.
+	 * 
+	 * @param id The message identifier.
+	 * @param count Number of fragments of the message.
+	 * @param maxPending Maximum number of incomplete messages.
+	 * 
+	 * @return The incomplete message.
+	 */
+	PartialMessage getPartial(int id, int count, int maxPending) {
+		lastUpdate = System.currentTimeMillis();
+		PartialMessage partial = partials.get(id);
+		if (partial != null && partial.count == count)
+			return partial;
+		
+		partials.remove(id);
+		while (partials.size() >= maxPending) {
+			Iterator<Integer> eldest = partials.keySet().iterator();
+			eldest.next();
+			eldest.remove();
+		}
+		partial = new PartialMessage(count);
+		partials.put(id, partial);
+		return partial;
+	}
+	
+	/**
+	 * Removes the incomplete message with the given identifier.
+	 * 
+	 * @param id The message identifier.
+	 */
+	void discard(int id) {
+		partials.remove(id);
+	}
+	
+	/**
+	 * Marks the message with the given identifier as completed.
+	 * 
+	 * @param id The message identifier.
+	 */
+	void complete(int id) {
+		partials.remove(id);
+		completed.remove(id);
+		completed.put(id, System.currentTimeMillis());
+		if (completed.size() > MAX_COMPLETED) {
+			Iterator<Integer> eldest = completed.keySet().iterator();
+			eldest.next();
+			eldest.remove();
+		}
+	}
+	
+	/**
+	 * Discards the incomplete messages that have not been updated within 
+	 * the given timeout and forgets the messages completed before it.
+	 * 
+	 * @param now Current time in milliseconds.
+	 * @param timeout The reassembly timeout in milliseconds.
+	 */
+	void purge(long now, long timeout) {
+		Iterator<Map.Entry<Integer, PartialMessage>> it = partials.entrySet().iterator();
+		while (it.hasNext()) {
+			if (now - it.next().getValue().lastUpdate > timeout)
+				it.remove();
+		}
+		
+		Iterator<Long> times = completed.values().iterator();
+		while (times.hasNext() && now - times.next() > timeout)
+			times.remove();
+	}
+	
+	/**
+	 * Returns whether this buffer has no incomplete messages and has not 
+	 * been updated within the given timeout.
+	 * 
+	 * @param now Current time in milliseconds.
+	 * @param timeout The reassembly timeout in milliseconds.
+	 * 
+	 * @return {@code true} if the buffer can be discarded, {@code false} 
+	 *         otherwise.
+	 */
+	boolean isIdle(long now, long timeout) {
+		return partials.isEmpty() && now - lastUpdate > timeout;
+	}
+	
+	/**
+	 * Fragments received of a message.
+	 */
+	static class PartialMessage {
+		
+		// Variables.
+		private final int count;
+		
+		private final byte[][] fragments;
+		
+		private int received;
+		private int size;
+		private int base;
+		
+		private long lastUpdate = System.currentTimeMillis();
+		
+		/**
+		 * Class constructor. Instantiates a new empty 
+		 * {@code PartialMessage}.
+		 * 
+		 * @param count Number of fragments of the message.
+		 */
+		PartialMessage(int count) {
+			this.count = count;
+			fragments = new byte[count][];
+		}
+		
+		/**
+		 * Adds a fragment of the message.
+		 * 
+		 * @param index Index of the fragment.
+		 * @param data Data of the fragment.
+		 * 
+		 * @return {@code true} if the fragment is new, {@code false} if it 
+		 *         was already received.
+		 */
+		boolean add(int index, byte[] data) {
+			lastUpdate = System.currentTimeMillis();
+			if (fragments[index] != null)
+				return false;
+			
+			fragments[index] = data;
+			received++;
+			size += data.length;
+			while (base < count && fragments[base] != null)
+				base++;
+			return true;
+		}
+		
+		/**
+		 * Returns the number of bytes received.
+		 * 
+		 * @return The number of bytes received.
+		 */
+		int getSize() {
+			return size;
+		}
+		
+		/**
+		 * Returns the index of the first fragment not received.
+		 * 
+		 * @return The index of the first missing fragment, the number of 
+		 *         fragments if the message is complete.
+		 */
+		int getBase() {
+			return base;
+		}
+		
+		/**
+		 * Returns whether all the fragments have been received.
+		 * 
+		 * @return {@code true} if the message is complete, {@code false} 
+		 *         otherwise.
+		 */
+		boolean isComplete() {
+			return received == count;
+		}
+		
+		/**
+		 * Returns the fragments received after the first missing one.
+		 * 
+		 * @param maxFragments Maximum number of fragments to report.
+		 * 
+		 * @return A bitmap where bit {@code i} (least significant bit first) 
+		 *         is set if fragment {@code base + i} was received.
+		 */
+		byte[] getBitmap(int maxFragments) {
+			int length = Math.min(count - base, maxFragments);
+			byte[] bitmap = new byte[(length + 7) / 8];
+			for (int i = 0; i < length; i++) {
+				if (fragments[base + i] != null)
+					bitmap[i / 8] |= 1 << (i % 8);
+			}
+			return bitmap;
+		}
+		
+		/**
+		 * Returns the data of the complete message.
+		 * 
+		 * @return The data of the message.
+		 */
+		byte[] assemble() {
+			byte[] data = new byte[size];
+			int offset = 0;
+			for (byte[] fragment : fragments) {
+				System.arraycopy(fragment, 0, data, offset, fragment.length);
+				offset += fragment.length;
+			}
+			return data;
+		}
+	}
+}
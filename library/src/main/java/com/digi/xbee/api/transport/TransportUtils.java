@@ -0,0 +1,92 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.transport;
+
+import java.util.concurrent.ThreadFactory;
+
+import com.digi.xbee.api.XBeeDevice;
+import com.digi.xbee.api.exceptions.ATCommandException;
+import com.digi.xbee.api.exceptions.TimeoutException;
+import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.utils.ByteUtils;
+
+/**
+ * Helper class used by the transports of this package.
+ */
+final class TransportUtils {
+	
+	// Constants.
+	/**
+	 * Marker of the first byte of every frame of the transports.
+	 */
+	static final int MAGIC = 0xFB;
+	
+	/**
+	 * Minimum RF payload supported by the transports.
+	 */
+	static final int MIN_PAYLOAD = 16;
+	
+	/**
+	 * Private constructor, this class cannot be instantiated.
+	 */
+	private TransportUtils() {
+	}
+	
+	/**
+	 * Reads the maximum RF payload ({@code NP}) of the given device.
+	 * 
+	 * @param device The local XBee device.
+	 * @param defaultPayload Payload to use if the radio does not support 
+	 *                       {@code NP} or reports less than 
+	 *                       {@link #MIN_PAYLOAD} bytes.
+	 * 
+	 * @return The maximum RF payload in bytes.
+	 * 
+	 * @throws TimeoutException if there is a timeout reading the parameter.
+	 * @throws XBeeException if there is any other XBee related exception.
+	 */
+	static int readMaxPayload(XBeeDevice device, int defaultPayload) throws TimeoutException, XBeeException {
+		int payload;
+		try {
+			payload = ByteUtils.byteArrayToInt(device.getParameter("NP"));
+		} catch (ATCommandException e) {
+			return defaultPayload;
+		}
+		return payload < MIN_PAYLOAD ? defaultPayload : payload;
+	}
+	
+	/**
+	 * Returns a factory of daemon threads with the given name.
+	 * 
+	 * @param name The name of the threads.
+	 * 
+	 * @return The thread factory.
+	 */
+	static ThreadFactory daemonThreadFactory(final String name) {
+		return new ThreadFactory() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+			 */
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, name);
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+	}
+}
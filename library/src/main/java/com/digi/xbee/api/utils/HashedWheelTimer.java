@@ -0,0 +1,318 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.utils;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class runs tasks after a delay using a single thread and a hashed 
+ * wheel of time slots, so any number of pending timeouts cost neither 
+ * threads nor per-timeout wake-ups.
+ * 
+ * <p>The thread advances one slot every tick and runs the tasks whose 
+ * deadline has passed, so tasks run up to one tick late. They must be 
+ * short, for example completing a future or waking up a waiting thread. 
+ * The thread is started when a task is scheduled and finishes once there 
+ * are no pending timeouts.</p>
+ * 
+ * @since 1.4.0
+ */
+public class HashedWheelTimer {
+	
+	// Constants.
+	/**
+	 * Default duration of a tick in milliseconds (value: {@value}).
+	 */
+	public static final long DEFAULT_TICK_DURATION = 10;
+	
+	/**
+	 * Default number of slots of the wheel (value: {@value}).
+	 */
+	public static final int DEFAULT_WHEEL_SIZE = 512;
+	
+	private static final int STATE_PENDING = 0;
+	private static final int STATE_CANCELLED = 1;
+	private static final int STATE_EXPIRED = 2;
+	
+	// Variables.
+	private final String name;
+	
+	private final long tickDuration;
+	
+	private final Bucket[] wheel;
+	
+	private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+	
+	private final AtomicInteger pendingTimeouts = new AtomicInteger();
+	
+	private final Object lock = new Object();
+	
+	private Thread worker;
+	
+	private static final Logger logger = LoggerFactory.getLogger(HashedWheelTimer.class);
+	
+	/**
+	 * Class constructor. Instantiates a new {@code HashedWheelTimer} with 
+	 * the default tick duration and wheel size.
+	 * 
+	 * @param name Name of the thread of the timer.
+	 * 
+	 * @throws NullPointerException if {@code name == null}.
+	 * 
+	 * @see #DEFAULT_TICK_DURATION
+	 * @see #DEFAULT_WHEEL_SIZE
+	 */
+	public HashedWheelTimer(String name) {
+		this(name, DEFAULT_TICK_DURATION, DEFAULT_WHEEL_SIZE);
+	}
+	
+	/**
+	 * Class constructor. Instantiates a new {@code HashedWheelTimer} with 
+	 * the given parameters.
+	 * 
+	 * @param name Name of the thread of the timer.
+	 * @param tickDuration Duration of a tick in milliseconds.
+	 * @param wheelSize Number of slots of the wheel.
+	 * 
+	 * @throws IllegalArgumentException if {@code tickDuration <= 0} or 
+	 *                                  if {@code wheelSize <= 0}.
+	 * @throws NullPointerException if {@code name == null}.
+	 */
+	public HashedWheelTimer(String name, long tickDuration, int wheelSize) {
+		if (name == null)
+			throw new NullPointerException("Name cannot be null.");
+		if (tickDuration <= 0)
+			throw new IllegalArgumentException("Tick duration must be greater than 0.");
+		if (wheelSize <= 0)
+			throw new IllegalArgumentException("Wheel size must be greater than 0.");
+		
+		this.name = name;
+		this.tickDuration = TimeUnit.MILLISECONDS.toNanos(tickDuration);
+		this.wheel = new Bucket[wheelSize];
+		for (int i = 0; i < wheelSize; i++)
+			wheel[i] = new Bucket();
+	}
+	
+	/**
+	 * Schedules the given task to run after the given delay.
+	 * 
+	 * @param task The task to run.
+	 * @param delay The delay in milliseconds.
+	 * 
+	 * @return The timeout of the task, to cancel it.
+	 * 
+	 * @throws NullPointerException if {@code task == null}.
+	 */
+	public Timeout schedule(Runnable task, long delay) {
+		if (task == null)
+			throw new NullPointerException("Task cannot be null.");
+		
+		Timeout timeout = new Timeout(task, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delay)));
+		pendingTimeouts.incrementAndGet();
+		newTimeouts.add(timeout);
+		synchronized (lock) {
+			if (worker == null) {
+				worker = new Thread(new Worker(), name);
+				worker.setDaemon(true);
+				worker.start();
+			}
+		}
+		return timeout;
+	}
+	
+	/**
+	 * Returns the number of timeouts that have not expired nor been 
+	 * cancelled.
+	 * 
+	 * @return The number of pending timeouts.
+	 */
+	public int getPendingTimeouts() {
+		return pendingTimeouts.get();
+	}
+	
+	/**
+	 * Loop of the thread of the timer.
+	 */
+	private class Worker implements Runnable {
+		
+		// Variables.
+		private final long startTime = System.nanoTime();
+		
+		private long tick = 0;
+		
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.Runnable#run()
+		 */
+		@Override
+		public void run() {
+			while (true) {
+				waitForNextTick();
+				transferTimeouts();
+				expireTimeouts(wheel[(int)(tick % wheel.length)]);
+				tick++;
+				synchronized (lock) {
+					if (pendingTimeouts.get() == 0 && newTimeouts.isEmpty()) {
+						// Forget the cancelled timeouts, they will not be visited.
+						for (Bucket slot : wheel)
+							slot.timeouts.clear();
+						worker = null;
+						return;
+					}
+				}
+			}
+		}
+		
+		/**
+		 * Sleeps until the end of the current tick.
+		 */
+		private void waitForNextTick() {
+			long deadline = startTime + (tick + 1) * tickDuration;
+			long remaining;
+			while ((remaining = deadline - System.nanoTime()) > 0) {
+				try {
+					TimeUnit.NANOSECONDS.sleep(remaining);
+				} catch (InterruptedException e) { }
+			}
+		}
+		
+		/**
+		 * Moves the newly scheduled timeouts to their slots.
+		 */
+		private void transferTimeouts() {
+			Timeout timeout;
+			while ((timeout = newTimeouts.poll()) != null) {
+				if (timeout.state.get() != STATE_PENDING)
+					continue;
+				long ticks = (timeout.deadline - startTime + tickDuration - 1) / tickDuration - 1;
+				// Expire it in the current tick if the deadline has passed.
+				ticks = Math.max(ticks, tick);
+				timeout.remainingRounds = (ticks - tick) / wheel.length;
+				wheel[(int)(ticks % wheel.length)].timeouts.add(timeout);
+			}
+		}
+		
+		/**
+		 * Runs the expired timeouts of the given slot.
+		 * 
+		 * @param slot The slot of the current tick.
+		 */
+		private void expireTimeouts(Bucket slot) {
+			Iterator<Timeout> iterator = slot.timeouts.iterator();
+			while (iterator.hasNext()) {
+				Timeout timeout = iterator.next();
+				if (timeout.state.get() != STATE_PENDING) {
+					iterator.remove();
+				} else if (timeout.remainingRounds > 0) {
+					timeout.remainingRounds--;
+				} else {
+					iterator.remove();
+					timeout.expire();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * The timeouts of a slot of the wheel.
+	 */
+	private static class Bucket {
+		
+		// Variables.
+		private final LinkedList<Timeout> timeouts = new LinkedList<>();
+	}
+	
+	/**
+	 * A task scheduled in a {@code HashedWheelTimer}.
+	 */
+	public class Timeout {
+		
+		// Variables.
+		private final Runnable task;
+		
+		private final long deadline;
+		
+		private final AtomicInteger state = new AtomicInteger(STATE_PENDING);
+		
+		private long remainingRounds;
+		
+		/**
+		 * Class constructor. Instantiates a new {@code Timeout} object.
+		 * 
+		 * @param task The task to run.
+		 * @param deadline The deadline as returned by 
+		 *                 {@link System#nanoTime()}.
+		 */
+		private Timeout(Runnable task, long deadline) {
+			this.task = task;
+			this.deadline = deadline;
+		}
+		
+		/**
+		 * Cancels this timeout so its task does not run.
+		 * 
+		 * @return {@code true} if the timeout has been cancelled, 
+		 *         {@code false} if it had already expired or been cancelled.
+		 */
+		public boolean cancel() {
+			if (!state.compareAndSet(STATE_PENDING, STATE_CANCELLED))
+				return false;
+			pendingTimeouts.decrementAndGet();
+			return true;
+		}
+		
+		/**
+		 * Returns whether this timeout has been cancelled.
+		 * 
+		 * @return {@code true} if it has been cancelled, {@code false} 
+		 *         otherwise.
+		 */
+		public boolean isCancelled() {
+			return state.get() == STATE_CANCELLED;
+		}
+		
+		/**
+		 * Returns whether this timeout has expired and its task has run.
+		 * 
+		 * @return {@code true} if it has expired, {@code false} otherwise.
+		 */
+		public boolean isExpired() {
+			return state.get() == STATE_EXPIRED;
+		}
+		
+		/**
+		 * Runs the task of this timeout unless it has been cancelled.
+		 */
+		private void expire() {
+			if (!state.compareAndSet(STATE_PENDING, STATE_EXPIRED))
+				return;
+			pendingTimeouts.decrementAndGet();
+			try {
+				task.run();
+			} catch (RuntimeException e) {
+				logger.error(e.getMessage(), e);
+			}
+		}
+	}
+}
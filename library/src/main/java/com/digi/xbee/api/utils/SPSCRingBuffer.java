@@ -0,0 +1,270 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class is a bounded queue for exactly one producer thread and one 
+ * consumer thread that does not use locks.
+ * 
+ * <p>The producer only writes the tail sequence and the consumer only 
+ * writes the head sequence, so both sides progress without contention. 
+ * When the buffer is full or empty, the waiting side uses the configured 
+ * {@link WaitStrategy}.</p>
+ * 
+ * <p>Using more than one producer or more than one consumer at the same 
+ * time corrupts the buffer.</p>
+ * 
+ * @param <E> Type of the elements.
+ * 
+ * @see WaitStrategy
+ * 
+ * @since 1.4.0
+ */
+public class SPSCRingBuffer<E> {
+	
+	// Variables.
+	private final AtomicReferenceArray<E> buffer;
+	
+	private final int mask;
+	
+	private final WaitStrategy waitStrategy;
+	
+	// Next sequence to read, only written by the consumer.
+	private final AtomicLong head = new AtomicLong();
+	// Next sequence to write, only written by the producer.
+	private final AtomicLong tail = new AtomicLong();
+	
+	private volatile Thread waitingConsumer;
+	private volatile Thread waitingProducer;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code SPSCRingBuffer} with the 
+	 * given capacity and wait strategy.
+	 * 
+	 * <p>The capacity is rounded up to the next power of 2.</p>
+	 * 
+	 * @param capacity Minimum number of elements the buffer can hold.
+	 * @param waitStrategy How threads wait for elements or free room.
+	 * 
+	 * @throws IllegalArgumentException if {@code capacity < 1} or 
+	 *                                  if {@code capacity > 2^30}.
+	 * @throws NullPointerException if {@code waitStrategy == null}.
+	 */
+	public SPSCRingBuffer(int capacity, WaitStrategy waitStrategy) {
+		if (capacity < 1 || capacity > 1 << 30)
+			throw new IllegalArgumentException("Capacity must be between 1 and 2^30.");
+		if (waitStrategy == null)
+			throw new NullPointerException("Wait strategy cannot be null.");
+		
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity)
+			size <<= 1;
+		this.buffer = new AtomicReferenceArray<E>(size);
+		this.mask = size - 1;
+		this.waitStrategy = waitStrategy;
+	}
+	
+	/**
+	 * Adds the given element to the buffer if there is room for it.
+	 * 
+	 * <p>Must only be called from the producer thread.</p>
+	 * 
+	 * @param element The element to add.
+	 * 
+	 * @return {@code true} if the element was added, {@code false} if the 
+	 *         buffer is full.
+	 * 
+	 * @throws NullPointerException if {@code element == null}.
+	 */
+	public boolean offer(E element) {
+		if (element == null)
+			throw new NullPointerException("Element cannot be null.");
+		
+		long t = tail.get();
+		if (t - head.get() > mask)
+			return false;
+		buffer.lazySet((int)t & mask, element);
+		publish(tail, t + 1);
+		signal(waitingConsumer);
+		return true;
+	}
+	
+	/**
+	 * Removes the oldest element of the buffer, if any.
+	 * 
+	 * <p>Must only be called from the consumer thread.</p>
+	 * 
+	 * @return The oldest element, {@code null} if the buffer is empty.
+	 */
+	public E poll() {
+		long h = head.get();
+		if (h == tail.get())
+			return null;
+		int index = (int)h & mask;
+		E element = buffer.get(index);
+		buffer.lazySet(index, null);
+		publish(head, h + 1);
+		signal(waitingProducer);
+		return element;
+	}
+	
+	/**
+	 * Adds the given element to the buffer waiting up to the given time for 
+	 * room.
+	 * 
+	 * <p>Must only be called from the producer thread.</p>
+	 * 
+	 * @param element The element to add.
+	 * @param timeout Maximum time to wait in milliseconds.
+	 * 
+	 * @return {@code true} if the element was added, {@code false} if the 
+	 *         timeout expired.
+	 * 
+	 * @throws InterruptedException if the thread is interrupted while 
+	 *                              waiting.
+	 * @throws NullPointerException if {@code element == null}.
+	 */
+	public boolean put(E element, long timeout) throws InterruptedException {
+		if (offer(element))
+			return true;
+		
+		long deadline = System.nanoTime() + timeout * 1000000;
+		waitingProducer = Thread.currentThread();
+		try {
+			while (true) {
+				if (offer(element))
+					return true;
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0)
+					return false;
+				waitStrategy.idle(remaining);
+				if (Thread.interrupted())
+					throw new InterruptedException();
+			}
+		} finally {
+			waitingProducer = null;
+		}
+	}
+	
+	/**
+	 * Removes the oldest element of the buffer waiting up to the given time 
+	 * for one to be available.
+	 * 
+	 * <p>Must only be called from the consumer thread.</p>
+	 * 
+	 * @param timeout Maximum time to wait in milliseconds.
+	 * 
+	 * @return The oldest element, {@code null} if the timeout expired.
+	 * 
+	 * @throws InterruptedException if the thread is interrupted while 
+	 *                              waiting.
+	 */
+	public E take(long timeout) throws InterruptedException {
+		E element = poll();
+		if (element != null)
+			return element;
+		
+		long deadline = System.nanoTime() + timeout * 1000000;
+		waitingConsumer = Thread.currentThread();
+		try {
+			while (true) {
+				element = poll();
+				if (element != null)
+					return element;
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0)
+					return null;
+				waitStrategy.idle(remaining);
+				if (Thread.interrupted())
+					throw new InterruptedException();
+			}
+		} finally {
+			waitingConsumer = null;
+		}
+	}
+	
+	/**
+	 * Returns the number of elements in the buffer.
+	 * 
+	 * <p>The value may be outdated as soon as it is returned if the other 
+	 * side is working.</p>
+	 * 
+	 * @return The number of elements in the buffer.
+	 */
+	public int size() {
+		// Read the head first, so the size is never negative.
+		long h = head.get();
+		return (int)(tail.get() - h);
+	}
+	
+	/**
+	 * Returns whether the buffer is empty.
+	 * 
+	 * @return {@code true} if the buffer is empty, {@code false} otherwise.
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+	
+	/**
+	 * Returns the maximum number of elements the buffer can hold.
+	 * 
+	 * @return The capacity of the buffer.
+	 */
+	public int capacity() {
+		return mask + 1;
+	}
+	
+	/**
+	 * Returns the wait strategy of this buffer.
+	 * 
+	 * @return The wait strategy.
+	 */
+	public WaitStrategy getWaitStrategy() {
+		return waitStrategy;
+	}
+	
+	/**
+	 * Advances the given sequence.
+	 * 
+	 * <p>Blocking waits need a full barrier so the other side either sees 
+	 * the new sequence or is seen waiting and signaled. Otherwise, an 
+	 * ordered write is enough.</p>
+	 * 
+	 * @param sequence The sequence to advance.
+	 * @param value The new value.
+	 */
+	private void publish(AtomicLong sequence, long value) {
+		if (waitStrategy == WaitStrategy.BLOCKING)
+			sequence.set(value);
+		else
+			sequence.lazySet(value);
+	}
+	
+	/**
+	 * Wakes up the given thread if it is parked waiting for this buffer.
+	 * 
+	 * @param waiter The waiting thread, may be {@code null}.
+	 */
+	private void signal(Thread waiter) {
+		if (waiter != null && waitStrategy == WaitStrategy.BLOCKING)
+			LockSupport.unpark(waiter);
+	}
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.utils;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Enumerates the ways a thread waits for an {@code SPSCRingBuffer} to have 
+ * elements to read or room to write.
+ * 
+ * <p>{@link #BLOCKING} uses the least processor time. {@link #YIELDING} and 
+ * {@link #SPINNING} reduce the hand-off latency, but only when each stage 
+ * has a free processor core; otherwise they are much slower.</p>
+ * 
+ * @see SPSCRingBuffer
+ * 
+ * @since 1.4.0
+ */
+public enum WaitStrategy {
+	
+	// Enumeration types
+	BLOCKING("Park the thread until the other side signals it"),
+	YIELDING("Yield the processor between checks"),
+	SPINNING("Check continuously without releasing the processor");
+	
+	// Constants.
+	private static final long MAX_PARK_TIME = 1000000;
+	
+	// Variables.
+	private final String description;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code WaitStrategy} enumeration 
+	 * entry with the given description.
+	 * 
+	 * @param description Description of the wait strategy.
+	 */
+	WaitStrategy(String description) {
+		this.description = description;
+	}
+	
+	/**
+	 * Returns the description of the wait strategy.
+	 * 
+	 * @return The description of the wait strategy.
+	 */
+	public String getDescription() {
+		return description;
+	}
+	
+	/**
+	 * Waits once before checking the condition again.
+	 * 
+	 * <p>Blocking waits park the thread up to the given time (and never 
+	 * more than 1 millisecond, so a missed signal only delays the thread).</p>
+	 * 
+	 * @param remainingNanos Maximum time to wait in nanoseconds.
+	 */
+	void idle(long remainingNanos) {
+		switch (this) {
+		case BLOCKING:
+			LockSupport.parkNanos(this, Math.min(remainingNanos, MAX_PARK_TIME));
+			break;
+		case YIELDING:
+			Thread.yield();
+			break;
+		case SPINNING:
+		default:
+			break;
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Enum#toString()
+	 */
+	@Override
+	public String toString() {
+		return description;
+	}
+}
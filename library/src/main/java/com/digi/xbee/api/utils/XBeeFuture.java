@@ -0,0 +1,251 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.digi.xbee.api.listeners.IFutureListener;
+
+/**
+ * This class represents the result of an asynchronous operation of the 
+ * library.
+ * 
+ * <p>The operation completes the future with its result or with the 
+ * exception that made it fail. Listeners added with 
+ * {@link #addListener(IFutureListener)} are notified in the thread that 
+ * completes the future, or immediately if it is already done.</p>
+ * 
+ * @param <V> The type of the result.
+ * 
+ * @since 1.4.0
+ */
+public class XBeeFuture<V> implements Future<V> {
+	
+	// Variables.
+	private V result;
+	
+	private Exception exception;
+	
+	private boolean done = false;
+	private boolean cancelled = false;
+	
+	private List<IFutureListener<V>> listeners = new ArrayList<>();
+	
+	private static final Logger logger = LoggerFactory.getLogger(XBeeFuture.class);
+	
+	/**
+	 * Completes this future with the given result.
+	 * 
+	 * @param result The result of the operation.
+	 * 
+	 * @return {@code true} if the future has been completed, {@code false} 
+	 *         if it was already done.
+	 */
+	public boolean complete(V result) {
+		synchronized (this) {
+			if (done)
+				return false;
+			this.result = result;
+			done = true;
+			notifyAll();
+		}
+		notifyListeners();
+		return true;
+	}
+	
+	/**
+	 * Completes this future with the given exception.
+	 * 
+	 * @param exception The exception that made the operation fail.
+	 * 
+	 * @return {@code true} if the future has been completed, {@code false} 
+	 *         if it was already done.
+	 * 
+	 * @throws NullPointerException if {@code exception == null}.
+	 */
+	public boolean completeExceptionally(Exception exception) {
+		if (exception == null)
+			throw new NullPointerException("Exception cannot be null.");
+		
+		synchronized (this) {
+			if (done)
+				return false;
+			this.exception = exception;
+			done = true;
+			notifyAll();
+		}
+		notifyListeners();
+		return true;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.util.concurrent.Future#cancel(boolean)
+	 */
+	@Override
+	public boolean cancel(boolean mayInterruptIfRunning) {
+		synchronized (this) {
+			if (done)
+				return false;
+			cancelled = true;
+			done = true;
+			notifyAll();
+		}
+		notifyListeners();
+		return true;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.util.concurrent.Future#isCancelled()
+	 */
+	@Override
+	public synchronized boolean isCancelled() {
+		return cancelled;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.util.concurrent.Future#isDone()
+	 */
+	@Override
+	public synchronized boolean isDone() {
+		return done;
+	}
+	
+	/**
+	 * Returns whether this future completed with an exception.
+	 * 
+	 * @return {@code true} if the operation failed, {@code false} otherwise.
+	 * 
+	 * @see #getException()
+	 */
+	public synchronized boolean isCompletedExceptionally() {
+		return exception != null;
+	}
+	
+	/**
+	 * Returns the exception that made the operation fail.
+	 * 
+	 * @return The exception, {@code null} if the operation did not fail or 
+	 *         is not done.
+	 */
+	public synchronized Exception getException() {
+		return exception;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.util.concurrent.Future#get()
+	 */
+	@Override
+	public synchronized V get() throws InterruptedException, ExecutionException {
+		while (!done)
+			wait();
+		return getResult();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.util.concurrent.Future#get(long, java.util.concurrent.TimeUnit)
+	 */
+	@Override
+	public synchronized V get(long timeout, TimeUnit unit) throws InterruptedException, 
+			ExecutionException, TimeoutException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		while (!done) {
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0)
+				throw new TimeoutException();
+			TimeUnit.NANOSECONDS.timedWait(this, remaining);
+		}
+		return getResult();
+	}
+	
+	/**
+	 * Adds the given listener to be notified when this future is done.
+	 * 
+	 * <p>If the future is already done, the listener is notified 
+	 * immediately.</p>
+	 * 
+	 * @param listener The listener to add.
+	 * 
+	 * @throws NullPointerException if {@code listener == null}.
+	 */
+	public void addListener(IFutureListener<V> listener) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		
+		synchronized (this) {
+			if (!done) {
+				listeners.add(listener);
+				return;
+			}
+		}
+		notifyListener(listener);
+	}
+	
+	/**
+	 * Returns the result of the completed operation.
+	 * 
+	 * @return The result of the operation.
+	 * 
+	 * @throws CancellationException if the future was cancelled.
+	 * @throws ExecutionException if the operation failed.
+	 */
+	private V getResult() throws ExecutionException {
+		if (cancelled)
+			throw new CancellationException();
+		if (exception != null)
+			throw new ExecutionException(exception);
+		return result;
+	}
+	
+	/**
+	 * Notifies the listeners that this future is done.
+	 */
+	private void notifyListeners() {
+		List<IFutureListener<V>> toNotify;
+		synchronized (this) {
+			toNotify = listeners;
+			listeners = new ArrayList<>();
+		}
+		for (IFutureListener<V> listener : toNotify)
+			notifyListener(listener);
+	}
+	
+	/**
+	 * Notifies the given listener that this future is done.
+	 * 
+	 * @param listener The listener to notify.
+	 */
+	private void notifyListener(IFutureListener<V> listener) {
+		try {
+			listener.operationComplete(this);
+		} catch (RuntimeException e) {
+			logger.error(e.getMessage(), e);
+		}
+	}
+}
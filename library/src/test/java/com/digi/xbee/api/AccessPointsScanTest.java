@@ -61,7 +61,6 @@ public class AccessPointsScanTest {
 	private static final String METHOD_PARSE_DISCOVERED_ACCESS_POINT = "parseDiscoveredAccessPoint";
 	private static final String METHOD_GET_SIGNAL_QUALITY = "getSignalQuality";
 	private static final String METHOD_PARSE_DISCOVERED_AP = "parseDiscoveredAccessPoint";
-	private static final String METHOD_SLEEP = "sleep";
 		
 	// Variables.
 	private WiFiDevice wifiDevice;
@@ -72,8 +71,6 @@ public class AccessPointsScanTest {
 	
 	private List<XBeeAPIPacket> asAnswers = new ArrayList<XBeeAPIPacket>();
 	
-	private long currentMillis = 0;
-	
 	@Before
 	public void setUp() throws Exception {
 		asAnswers.clear();
@@ -245,23 +242,6 @@ public class AccessPointsScanTest {
 		// Setup the resources for the test.
 		asAnswers.clear();
 		asAnswers.add(new ATCommandResponsePacket(1, ATCommandStatus.ERROR, "AS", null));
-		// Get the current time.
-		currentMillis = System.currentTimeMillis();
-		
-		// Prepare the System class to return our fixed currentMillis variable when requested.
-		PowerMockito.mockStatic(System.class);
-		PowerMockito.when(System.currentTimeMillis()).thenReturn(currentMillis);
-		
-		// When the sleep method is called, add 100ms to the currentMillis variable.
-		PowerMockito.doAnswer(new Answer<Object>() {
-			public Object answer(InvocationOnMock invocation) throws Exception {
-				Object[] args = invocation.getArguments();
-				int sleepTime = (Integer)args[0];
-				changeMillisToReturn(sleepTime);
-				return null;
-			}
-		}).when(wifiDevice, METHOD_SLEEP, Mockito.anyInt());
-		
 		// Call the method under test.
 		wifiDevice.scanAccessPoints();
 	}
@@ -280,21 +260,12 @@ public class AccessPointsScanTest {
 		asAnswers.clear();
 		
 		// Get the current time.
-		currentMillis = System.currentTimeMillis();
+		long currentMillis = System.currentTimeMillis();
 		
-		// Prepare the System class to return our fixed currentMillis variable when requested.
+		// Prepare the System class to return the scan deadline the second 
+		// time the time is requested.
 		PowerMockito.mockStatic(System.class);
-		PowerMockito.when(System.currentTimeMillis()).thenReturn(currentMillis);
-		
-		// When the sleep method is called, add 100ms to the currentMillis variable.
-		PowerMockito.doAnswer(new Answer<Object>() {
-			public Object answer(InvocationOnMock invocation) throws Exception {
-				Object[] args = invocation.getArguments();
-				int sleepTime = (Integer)args[0];
-				changeMillisToReturn(sleepTime);
-				return null;
-			}
-		}).when(wifiDevice, METHOD_SLEEP, Mockito.anyInt());
+		PowerMockito.when(System.currentTimeMillis()).thenReturn(currentMillis, currentMillis + 30000);
 		
 		// Call the method under test.
 		wifiDevice.scanAccessPoints();
@@ -316,23 +287,6 @@ public class AccessPointsScanTest {
 		// Add the end of AS command response.
 		asAnswers.add(new ATCommandResponsePacket(1, ATCommandStatus.OK, "AS", null));
 		
-		// Get the current time.
-		currentMillis = System.currentTimeMillis();
-		
-		// Prepare the System class to return our fixed currentMillis variable when requested.
-		PowerMockito.mockStatic(System.class);
-		PowerMockito.when(System.currentTimeMillis()).thenReturn(currentMillis);
-		
-		// When the sleep method is called, add 100ms to the currentMillis variable.
-		PowerMockito.doAnswer(new Answer<Object>() {
-			public Object answer(InvocationOnMock invocation) throws Exception {
-				Object[] args = invocation.getArguments();
-				int sleepTime = (Integer)args[0];
-				changeMillisToReturn(sleepTime);
-				return null;
-			}
-		}).when(wifiDevice, METHOD_SLEEP, Mockito.anyInt());
-		
 		// Call the method under test.
 		List<AccessPoint> accessPointsList = wifiDevice.scanAccessPoints();
 		
@@ -357,23 +311,6 @@ public class AccessPointsScanTest {
 		// Add the end of AS command response (this time the parameter is an empty byte array).
 		asAnswers.add(new ATCommandResponsePacket(1, ATCommandStatus.OK, "AS", new byte[0]));
 		
-		// Get the current time.
-		currentMillis = System.currentTimeMillis();
-		
-		// Prepare the System class to return our fixed currentMillis variable when requested.
-		PowerMockito.mockStatic(System.class);
-		PowerMockito.when(System.currentTimeMillis()).thenReturn(currentMillis);
-		
-		// When the sleep method is called, add 100ms to the currentMillis variable.
-		PowerMockito.doAnswer(new Answer<Object>() {
-			public Object answer(InvocationOnMock invocation) throws Exception {
-				Object[] args = invocation.getArguments();
-				int sleepTime = (Integer)args[0];
-				changeMillisToReturn(sleepTime);
-				return null;
-			}
-		}).when(wifiDevice, METHOD_SLEEP, Mockito.anyInt());
-		
 		// Call the method under test.
 		List<AccessPoint> accessPointsList = wifiDevice.scanAccessPoints();
 		
@@ -413,23 +350,6 @@ public class AccessPointsScanTest {
 		// Add the end of AS command response to the list of AS answers.
 		asAnswers.add(new ATCommandResponsePacket(1, ATCommandStatus.OK, "AS", null));
 		
-		// Get the current time.
-		currentMillis = System.currentTimeMillis();
-		
-		// Prepare the System class to return our fixed currentMillis variable when requested.
-		PowerMockito.mockStatic(System.class);
-		PowerMockito.when(System.currentTimeMillis()).thenReturn(currentMillis);
-		
-		// When the sleep method is called, add 100ms to the currentMillis variable.
-		PowerMockito.doAnswer(new Answer<Object>() {
-			public Object answer(InvocationOnMock invocation) throws Exception {
-				Object[] args = invocation.getArguments();
-				int sleepTime = (Integer)args[0];
-				changeMillisToReturn(sleepTime);
-				return null;
-			}
-		}).when(wifiDevice, METHOD_SLEEP, Mockito.anyInt());
-		
 		// Call the method under test.
 		List<AccessPoint> accessPointsList = wifiDevice.scanAccessPoints();
 		
@@ -667,17 +587,4 @@ public class AccessPointsScanTest {
 		
 		return new ATCommandResponsePacket(frameId, status, "AS", value);
 	}
-	
-	/**
-	 * Helper method that changes the milliseconds to return when the System.currentMillis() 
-	 * method is invoked.
-	 * 
-	 * @param time The time to all to the milliseconds to return.
-	 */
-	public void changeMillisToReturn(int time) {
-		currentMillis += time;
-		
-		// Prepare the System class to return our fixed currentMillis variable when requested.
-		PowerMockito.when(System.currentTimeMillis()).thenReturn(currentMillis);
-	}
 }
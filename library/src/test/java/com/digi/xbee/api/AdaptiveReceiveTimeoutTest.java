@@ -0,0 +1,116 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.digi.xbee.api.connection.virtual.VirtualMeshNetwork;
+import com.digi.xbee.api.exceptions.TimeoutException;
+import com.digi.xbee.api.models.RoundTripTimeEstimate;
+
+public class AdaptiveReceiveTimeoutTest {
+	
+	// Constants.
+	private static final int NODE = 5;
+	
+	// Variables.
+	private VirtualMeshNetwork network;
+	
+	private XBeeDevice device;
+	
+	private RemoteXBeeDevice remote;
+	
+	@Before
+	public void setUp() throws Exception {
+		network = new VirtualMeshNetwork(10);
+		network.setHopLatency(5);
+		device = new XBeeDevice(network);
+		device.open();
+		remote = new RemoteXBeeDevice(device, network.getNode64BitAddress(NODE));
+	}
+	
+	@After
+	public void tearDown() {
+		if (device.isOpen())
+			device.close();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#getRoundTripTimeEstimate(RemoteXBeeDevice)}.
+	 * 
+	 * <p>Verify that the round-trip times of the remote AT commands and 
+	 * transmit requests are measured.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testRoundTripTimesMeasured() throws Exception {
+		// Call the method under test.
+		remote.getParameter("NI");
+		device.sendData(remote, new byte[] {0x01});
+		
+		// Verify the result.
+		RoundTripTimeEstimate estimate = device.getRoundTripTimeEstimate(remote);
+		assertThat(estimate.getSamples(), is(equalTo(2L)));
+		assertTrue(estimate.getSmoothedRTT() > 0);
+		assertThat(device.isAdaptiveReceiveTimeout(), is(equalTo(false)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#enableAdaptiveReceiveTimeout(int, int)}.
+	 * 
+	 * <p>Verify that a remote device that answers too late times out after 
+	 * the adaptive timeout instead of the receive timeout.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testAdaptiveTimeout() throws Exception {
+		// Setup the resources for the test.
+		device.setReceiveTimeout(4000);
+		device.enableAdaptiveReceiveTimeout(200, 4000);
+		for (int i = 0; i < 5; i++)
+			remote.getParameter("NI");
+		int timeout = device.getRoundTripTimeEstimate(remote).getTimeout();
+		// The answer of the remote device arrives after the adaptive timeout.
+		network.setHopLatency(1000);
+		
+		// Call the method under test.
+		long start = System.currentTimeMillis();
+		try {
+			remote.getParameter("NI");
+			fail("The remote AT command should have timed out.");
+		} catch (TimeoutException e) {
+			// Expected.
+		}
+		long elapsed = System.currentTimeMillis() - start;
+		
+		// Verify the result.
+		assertTrue(timeout < 1000);
+		assertTrue(elapsed < 2000);
+		RoundTripTimeEstimate estimate = device.getRoundTripTimeEstimate(remote);
+		assertThat(estimate.getTimeouts(), is(equalTo(1L)));
+		assertThat(estimate.getTimeout(), is(equalTo(2 * timeout)));
+	}
+}
@@ -60,9 +60,9 @@ public class CellularDeviceTest {
 	
 	@Before
 	public void setup() throws Exception {
-		// Suppress the 'readDeviceInfo' method of the parent class so that it is not
+		// Suppress the 'readDeviceSpecificInfo' method of the parent class so that it is not
 		// called from the child (CellularDevice) class.
-		PowerMockito.suppress(PowerMockito.method(IPDevice.class, "readDeviceInfo"));
+		PowerMockito.suppress(PowerMockito.method(IPDevice.class, "readDeviceSpecificInfo"));
 		
 		// Spy the CellularDevice class.
 		SerialPortRxTx mockPort = Mockito.mock(SerialPortRxTx.class);
@@ -78,9 +78,9 @@ public class CellularDeviceTest {
 	
 	/**
 	 * Test method for {@link com.digi.xbee.api.CellularDevice#getIMEIAddress()} and
-	 * {@link com.digi.xbee.api.CellularDevice#readDeviceInfo()}.
+	 * {@link com.digi.xbee.api.CellularDevice#readDeviceSpecificInfo()}.
 	 * 
-	 * <p>Verify that the {@code readDeviceInfo()} method of the Cellular device generates 
+	 * <p>Verify that the {@code readDeviceSpecificInfo()} method of the Cellular device generates 
 	 * the IMEI address correctly.</p>
 	 * 
 	 * @throws Exception
@@ -93,9 +93,9 @@ public class CellularDeviceTest {
 		// Fist, check that the IMEI is null (it has not been created yet)
 		assertNull(cellularDevice.getIMEIAddress());
 		
-		// Call the readDeviceInfo method.
-		cellularDevice.readDeviceInfo();
-		Mockito.verify((IPDevice)cellularDevice, Mockito.times(1)).readDeviceInfo();
+		// Call the readDeviceSpecificInfo method.
+		cellularDevice.readDeviceSpecificInfo();
+		Mockito.verify((IPDevice)cellularDevice, Mockito.times(1)).readDeviceSpecificInfo();
 		
 		// Verify that the IMEI address was generated.
 		assertEquals(imeiAddress, cellularDevice.getIMEIAddress());
@@ -0,0 +1,198 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api;
+
+import static org.junit.Assert.*;
+
+import java.net.Inet6Address;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.digi.xbee.api.connection.serial.SerialPortRxTx;
+import com.digi.xbee.api.exceptions.TimeoutException;
+import com.digi.xbee.api.exceptions.TransmitException;
+import com.digi.xbee.api.models.HTTPMethodEnum;
+import com.digi.xbee.api.models.IPProtocol;
+import com.digi.xbee.api.models.RemoteATCommandOptions;
+import com.digi.xbee.api.models.RestFulStatusEnum;
+import com.digi.xbee.api.models.XBeeTransmitStatus;
+import com.digi.xbee.api.packet.raw.TXStatusPacket;
+import com.digi.xbee.api.packet.thread.CoAPRxResponsePacket;
+import com.digi.xbee.api.packet.thread.CoAPTxRequestPacket;
+import com.digi.xbee.api.utils.XBeeFuture;
+
+public class CoAPRequestTableTest {
+	
+	// Constants.
+	private static final String LOCAL_ADDRESS = "FDB3:0001:0002:0000:0004:0005:0006:0001";
+	private static final String NODE_A_ADDRESS = "FDB3:0001:0002:0000:0004:0005:0006:000A";
+	private static final String NODE_B_ADDRESS = "FDB3:0001:0002:0000:0004:0005:0006:000B";
+	
+	private static final String URI = "XB/TX";
+	
+	// Variables.
+	private Inet6Address localAddress;
+	private Inet6Address nodeA;
+	private Inet6Address nodeB;
+	
+	private CoAPRequestTable table;
+	
+	@Before
+	public void setUp() throws Exception {
+		localAddress = (Inet6Address) Inet6Address.getByName(LOCAL_ADDRESS);
+		nodeA = (Inet6Address) Inet6Address.getByName(NODE_A_ADDRESS);
+		nodeB = (Inet6Address) Inet6Address.getByName(NODE_B_ADDRESS);
+		
+		table = new CoAPRequestTable(new ThreadDevice(Mockito.mock(SerialPortRxTx.class)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.CoAPRequestTable#packetReceived(com.digi.xbee.api.packet.XBeePacket)}.
+	 * 
+	 * <p>Verify that concurrent requests to different nodes are completed with 
+	 * their own responses, whatever the order in which they arrive.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testConcurrentRequests() throws Exception {
+		CoAPTxRequestPacket requestA = createRequest(1, nodeA);
+		CoAPTxRequestPacket requestB = createRequest(2, nodeB);
+		XBeeFuture<byte[]> futureA = table.register(requestA, 5000);
+		XBeeFuture<byte[]> futureB = table.register(requestB, 5000);
+		
+		table.packetReceived(createResponse(2, nodeB, RestFulStatusEnum.SUCCESS, new byte[]{0x0B}));
+		table.packetReceived(new TXStatusPacket(1, XBeeTransmitStatus.SUCCESS));
+		assertFalse(futureA.isDone());
+		table.packetReceived(createResponse(1, nodeA, RestFulStatusEnum.SUCCESS, new byte[]{0x0A}));
+		
+		assertArrayEquals(new byte[]{0x0A}, futureA.get(1, TimeUnit.SECONDS));
+		assertArrayEquals(new byte[]{0x0B}, futureB.get(1, TimeUnit.SECONDS));
+		assertEquals(0, table.getPendingRequests());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.CoAPRequestTable#packetReceived(com.digi.xbee.api.packet.XBeePacket)}.
+	 * 
+	 * <p>Verify that a response with the frame ID of a request but from other 
+	 * node does not complete the request.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testResponseFromOtherNode() throws Exception {
+		XBeeFuture<byte[]> future = table.register(createRequest(1, nodeA), 5000);
+		
+		table.packetReceived(createResponse(1, nodeB, RestFulStatusEnum.SUCCESS, new byte[0]));
+		
+		assertFalse(future.isDone());
+		assertEquals(1, table.getPendingRequests());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.CoAPRequestTable#register(CoAPTxRequestPacket, long)}.
+	 * 
+	 * <p>Verify that a request gets a new frame ID if another pending request 
+	 * uses its frame ID.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testRegisterFrameIDInUse() throws Exception {
+		table.register(createRequest(1, nodeA), 5000);
+		CoAPTxRequestPacket request = createRequest(1, nodeB);
+		
+		table.register(request, 5000);
+		
+		assertNotEquals(1, request.getFrameID());
+		assertEquals(2, table.getPendingRequests());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.CoAPRequestTable#packetReceived(com.digi.xbee.api.packet.XBeePacket)}.
+	 * 
+	 * <p>Verify that a failed transmit status or an unsuccessful response 
+	 * complete the request with an exception.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testFailures() throws Exception {
+		XBeeFuture<byte[]> futureA = table.register(createRequest(1, nodeA), 5000);
+		XBeeFuture<byte[]> futureB = table.register(createRequest(2, nodeB), 5000);
+		
+		table.packetReceived(new TXStatusPacket(1, XBeeTransmitStatus.ADDRESS_NOT_FOUND));
+		table.packetReceived(createResponse(2, nodeB, RestFulStatusEnum.SERVER_ERROR_GATEWAY_TIMEOUT, null));
+		
+		assertTrue(futureA.getException() instanceof TransmitException);
+		assertTrue(futureB.isCompletedExceptionally());
+		assertEquals(0, table.getPendingRequests());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.CoAPRequestTable#register(CoAPTxRequestPacket, long)}.
+	 * 
+	 * <p>Verify that a request without transmit status completes with a 
+	 * {@code TimeoutException}.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testTimeout() throws Exception {
+		XBeeFuture<byte[]> future = table.register(createRequest(1, nodeA), 100);
+		
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			fail("The request should have timed out.");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof TimeoutException);
+		}
+		assertEquals(0, table.getPendingRequests());
+	}
+	
+	/**
+	 * Creates a CoAP request with the given frame ID and destination.
+	 * 
+	 * @param frameID The frame ID of the request.
+	 * @param destination The IPv6 address of the destination node.
+	 * 
+	 * @return The CoAP request.
+	 */
+	private CoAPTxRequestPacket createRequest(int frameID, Inet6Address destination) {
+		return new CoAPTxRequestPacket(frameID, RemoteATCommandOptions.OPTION_NONE,
+				HTTPMethodEnum.PUT, destination, URI, new byte[]{0x01});
+	}
+	
+	/**
+	 * Creates a CoAP response with the given parameters.
+	 * 
+	 * @param frameID The frame ID of the request.
+	 * @param source The IPv6 address of the node that answers.
+	 * @param status The status of the response.
+	 * @param data The data of the response.
+	 * 
+	 * @return The CoAP response.
+	 */
+	private CoAPRxResponsePacket createResponse(int frameID, Inet6Address source,
+			RestFulStatusEnum status, byte[] data) {
+		return new CoAPRxResponsePacket(frameID, localAddress, source, 5683, 5683,
+				IPProtocol.COAP, status, data);
+	}
+}
@@ -24,8 +24,6 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
-import org.mockito.invocation.InvocationOnMock;
-import org.mockito.stubbing.Answer;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
@@ -39,20 +37,15 @@ import com.digi.xbee.api.models.AccessPoint;
 import com.digi.xbee.api.models.OperatingMode;
 import com.digi.xbee.api.models.WiFiEncryptionType;
 
-@PrepareForTest({WiFiDevice.class, System.class})
+@PrepareForTest({WiFiDevice.class})
 @RunWith(PowerMockRunner.class)
 public class ConnectToAccessPointTest {
 	
-	// Constants.
-	private static final String METHOD_SLEEP = "sleep";
-		
 	// Variables.
 	private WiFiDevice wifiDevice;
 	
 	private IConnectionInterface cInterfaceMock;
 	
-	private long currentMillis = 0;
-	
 	private AccessPoint mockedAccessPoint;
 	
 	@Before
@@ -132,33 +125,16 @@ public class ConnectToAccessPointTest {
 		PowerMockito.doNothing().when(wifiDevice).executeParameter("NR");
 		PowerMockito.doReturn(null).when(wifiDevice).getParameter("AI");
 		
-		// Get the current time.
-		currentMillis = System.currentTimeMillis();
-		
-		// Configure the number of ticks (times) the sleep method should be called.
-		int ticks = wifiDevice.getAccessPointTimeout()/100;
-		
-		// Prepare the System class to return our fixed currentMillis variable when requested.
-		PowerMockito.mockStatic(System.class);
-		PowerMockito.when(System.currentTimeMillis()).thenReturn(currentMillis);
-		
-		// When the sleep method is called, add 100ms to the currentMillis variable.
-		PowerMockito.doAnswer(new Answer<Object>() {
-			public Object answer(InvocationOnMock invocation) throws Exception {
-				Object[] args = invocation.getArguments();
-				int sleepTime = (Integer)args[0];
-				changeMillisToReturn(sleepTime);
-				return null;
-			}
-		}).when(wifiDevice, METHOD_SLEEP, Mockito.anyInt());
+		// Do not wait the default access point timeout.
+		wifiDevice.setAccessPointTimeout(100);
 		
 		// Call the method under test.
 		boolean disconnected = wifiDevice.disconnect();
 		
 		// Verify the result.
 		assertThat("Module should not have disconnected", disconnected, is(equalTo(false)));
-		// Verify that the sleep method was called 'ticks' times.
-		PowerMockito.verifyPrivate(wifiDevice, Mockito.times(ticks)).invoke(METHOD_SLEEP, 100);
+		// Verify that the association indication was read before and after waiting.
+		Mockito.verify(wifiDevice, Mockito.times(2)).getParameter("AI");
 	}
 	
 	/**
@@ -175,33 +151,16 @@ public class ConnectToAccessPointTest {
 		PowerMockito.doNothing().when(wifiDevice).executeParameter("NR");
 		PowerMockito.doReturn(new byte[0]).when(wifiDevice).getParameter("AI");
 		
-		// Get the current time.
-		currentMillis = System.currentTimeMillis();
-		
-		// Configure the number of ticks (times) the sleep method should be called.
-		int ticks = wifiDevice.getAccessPointTimeout()/100;
-		
-		// Prepare the System class to return our fixed currentMillis variable when requested.
-		PowerMockito.mockStatic(System.class);
-		PowerMockito.when(System.currentTimeMillis()).thenReturn(currentMillis);
-		
-		// When the sleep method is called, add 100ms to the currentMillis variable.
-		PowerMockito.doAnswer(new Answer<Object>() {
-			public Object answer(InvocationOnMock invocation) throws Exception {
-				Object[] args = invocation.getArguments();
-				int sleepTime = (Integer)args[0];
-				changeMillisToReturn(sleepTime);
-				return null;
-			}
-		}).when(wifiDevice, METHOD_SLEEP, Mockito.anyInt());
+		// Do not wait the default access point timeout.
+		wifiDevice.setAccessPointTimeout(100);
 		
 		// Call the method under test.
 		boolean disconnected = wifiDevice.disconnect();
 		
 		// Verify the result.
 		assertThat("Module should not have disconnected", disconnected, is(equalTo(false)));
-		// Verify that the sleep method was called 'ticks' times.
-		PowerMockito.verifyPrivate(wifiDevice, Mockito.times(ticks)).invoke(METHOD_SLEEP, 100);
+		// Verify that the association indication was read before and after waiting.
+		Mockito.verify(wifiDevice, Mockito.times(2)).getParameter("AI");
 	}
 	
 	/**
@@ -219,33 +178,16 @@ public class ConnectToAccessPointTest {
 		PowerMockito.doNothing().when(wifiDevice).executeParameter("NR");
 		PowerMockito.doReturn(new byte[0x13]).when(wifiDevice).getParameter("AI");
 		
-		// Get the current time.
-		currentMillis = System.currentTimeMillis();
-		
-		// Configure the number of ticks (times) the sleep method should be called.
-		int ticks = wifiDevice.getAccessPointTimeout()/100;
-		
-		// Prepare the System class to return our fixed currentMillis variable when requested.
-		PowerMockito.mockStatic(System.class);
-		PowerMockito.when(System.currentTimeMillis()).thenReturn(currentMillis);
-		
-		// When the sleep method is called, add 100ms to the currentMillis variable.
-		PowerMockito.doAnswer(new Answer<Object>() {
-			public Object answer(InvocationOnMock invocation) throws Exception {
-				Object[] args = invocation.getArguments();
-				int sleepTime = (Integer)args[0];
-				changeMillisToReturn(sleepTime);
-				return null;
-			}
-		}).when(wifiDevice, METHOD_SLEEP, Mockito.anyInt());
+		// Do not wait the default access point timeout.
+		wifiDevice.setAccessPointTimeout(100);
 		
 		// Call the method under test.
 		boolean disconnected = wifiDevice.disconnect();
 		
 		// Verify the result.
 		assertThat("Module should have not disconnected", disconnected, is(equalTo(false)));
-		// Verify that the sleep method was called 'ticks' times.
-		PowerMockito.verifyPrivate(wifiDevice, Mockito.times(ticks)).invoke(METHOD_SLEEP, 100);
+		// Verify that the association indication was read before and after waiting.
+		Mockito.verify(wifiDevice, Mockito.times(2)).getParameter("AI");
 	}
 	
 	/**
@@ -262,33 +204,13 @@ public class ConnectToAccessPointTest {
 		PowerMockito.doNothing().when(wifiDevice).executeParameter("NR");
 		PowerMockito.doReturn(new byte[]{0x23}).when(wifiDevice).getParameter("AI");
 		
-		// Get the current time.
-		currentMillis = System.currentTimeMillis();
-		
-		// Configure the number of ticks (times) the sleep method should be called.
-		int ticks = 1;
-		
-		// Prepare the System class to return our fixed currentMillis variable when requested.
-		PowerMockito.mockStatic(System.class);
-		PowerMockito.when(System.currentTimeMillis()).thenReturn(currentMillis);
-		
-		// When the sleep method is called, add 100ms to the currentMillis variable.
-		PowerMockito.doAnswer(new Answer<Object>() {
-			public Object answer(InvocationOnMock invocation) throws Exception {
-				Object[] args = invocation.getArguments();
-				int sleepTime = (Integer)args[0];
-				changeMillisToReturn(sleepTime);
-				return null;
-			}
-		}).when(wifiDevice, METHOD_SLEEP, Mockito.anyInt());
-		
 		// Call the method under test.
 		boolean disconnected = wifiDevice.disconnect();
 		
 		// Verify the result.
 		assertThat("Module should have disconnected", disconnected, is(equalTo(true)));
-		// Verify that the sleep method was called 'ticks' times.
-		PowerMockito.verifyPrivate(wifiDevice, Mockito.times(ticks)).invoke(METHOD_SLEEP, 100);
+		// Verify that the association indication was read only once.
+		Mockito.verify(wifiDevice, Mockito.times(1)).getParameter("AI");
 	}
 	
 	/**
@@ -439,33 +361,16 @@ public class ConnectToAccessPointTest {
 		PowerMockito.doNothing().when(wifiDevice).setParameter(Mockito.anyString(), Mockito.any(byte[].class));
 		PowerMockito.doReturn(null).when(wifiDevice).getParameter("AI");
 		
-		// Get the current time.
-		currentMillis = System.currentTimeMillis();
-		
-		// Configure the number of ticks (times) the sleep method should be called.
-		int ticks = wifiDevice.getAccessPointTimeout()/100;
-		
-		// Prepare the System class to return our fixed currentMillis variable when requested.
-		PowerMockito.mockStatic(System.class);
-		PowerMockito.when(System.currentTimeMillis()).thenReturn(currentMillis);
-		
-		// When the sleep method is called, add 100ms to the currentMillis variable.
-		PowerMockito.doAnswer(new Answer<Object>() {
-			public Object answer(InvocationOnMock invocation) throws Exception {
-				Object[] args = invocation.getArguments();
-				int sleepTime = (Integer)args[0];
-				changeMillisToReturn(sleepTime);
-				return null;
-			}
-		}).when(wifiDevice, METHOD_SLEEP, Mockito.anyInt());
+		// Do not wait the default access point timeout.
+		wifiDevice.setAccessPointTimeout(100);
 		
 		// Call the method under test.
 		boolean connected = wifiDevice.connect(mockedAccessPoint, null);
 		
 		// Verify the result.
 		assertThat("Module should have not connected", connected, is(equalTo(false)));
-		// Verify that the sleep method was called 'ticks' times.
-		PowerMockito.verifyPrivate(wifiDevice, Mockito.times(ticks)).invoke(METHOD_SLEEP, 100);
+		// Verify that the association indication was read before and after waiting.
+		Mockito.verify(wifiDevice, Mockito.times(2)).getParameter("AI");
 	}
 	
 	/**
@@ -483,33 +388,16 @@ public class ConnectToAccessPointTest {
 		PowerMockito.doNothing().when(wifiDevice).setParameter(Mockito.anyString(), Mockito.any(byte[].class));
 		PowerMockito.doReturn(new byte[0]).when(wifiDevice).getParameter("AI");
 		
-		// Get the current time.
-		currentMillis = System.currentTimeMillis();
-		
-		// Configure the number of ticks (times) the sleep method should be called.
-		int ticks = wifiDevice.getAccessPointTimeout()/100;
-		
-		// Prepare the System class to return our fixed currentMillis variable when requested.
-		PowerMockito.mockStatic(System.class);
-		PowerMockito.when(System.currentTimeMillis()).thenReturn(currentMillis);
-		
-		// When the sleep method is called, add 100ms to the currentMillis variable.
-		PowerMockito.doAnswer(new Answer<Object>() {
-			public Object answer(InvocationOnMock invocation) throws Exception {
-				Object[] args = invocation.getArguments();
-				int sleepTime = (Integer)args[0];
-				changeMillisToReturn(sleepTime);
-				return null;
-			}
-		}).when(wifiDevice, METHOD_SLEEP, Mockito.anyInt());
+		// Do not wait the default access point timeout.
+		wifiDevice.setAccessPointTimeout(100);
 		
 		// Call the method under test.
 		boolean connected = wifiDevice.connect(mockedAccessPoint, null);
 		
 		// Verify the result.
 		assertThat("Module should have not connected", connected, is(equalTo(false)));
-		// Verify that the sleep method was called 'ticks' times.
-		PowerMockito.verifyPrivate(wifiDevice, Mockito.times(ticks)).invoke(METHOD_SLEEP, 100);
+		// Verify that the association indication was read before and after waiting.
+		Mockito.verify(wifiDevice, Mockito.times(2)).getParameter("AI");
 	}
 	
 	/**
@@ -529,33 +417,16 @@ public class ConnectToAccessPointTest {
 		
 		Mockito.doReturn(WiFiEncryptionType.NONE).when(mockedAccessPoint).getEncryptionType();
 		
-		// Get the current time.
-		currentMillis = System.currentTimeMillis();
-		
-		// Configure the number of ticks (times) the sleep method should be called.
-		int ticks = wifiDevice.getAccessPointTimeout()/100;
-		
-		// Prepare the System class to return our fixed currentMillis variable when requested.
-		PowerMockito.mockStatic(System.class);
-		PowerMockito.when(System.currentTimeMillis()).thenReturn(currentMillis);
-		
-		// When the sleep method is called, add 100ms to the currentMillis variable.
-		PowerMockito.doAnswer(new Answer<Object>() {
-			public Object answer(InvocationOnMock invocation) throws Exception {
-				Object[] args = invocation.getArguments();
-				int sleepTime = (Integer)args[0];
-				changeMillisToReturn(sleepTime);
-				return null;
-			}
-		}).when(wifiDevice, METHOD_SLEEP, Mockito.anyInt());
+		// Do not wait the default access point timeout.
+		wifiDevice.setAccessPointTimeout(100);
 		
 		// Call the method under test.
 		boolean connected = wifiDevice.connect(mockedAccessPoint, "password");
 		
 		// Verify the result.
 		assertThat("Module should have not connected", connected, is(equalTo(false)));
-		// Verify that the sleep method was called 'ticks' times.
-		PowerMockito.verifyPrivate(wifiDevice, Mockito.times(ticks)).invoke(METHOD_SLEEP, 100);
+		// Verify that the association indication was read before and after waiting.
+		Mockito.verify(wifiDevice, Mockito.times(2)).getParameter("AI");
 	}
 	
 	/**
@@ -573,30 +444,13 @@ public class ConnectToAccessPointTest {
 		PowerMockito.doNothing().when(wifiDevice).setParameter(Mockito.anyString(), Mockito.any(byte[].class));
 		PowerMockito.doReturn(new byte[]{0}).when(wifiDevice).getParameter("AI");
 		
-		// Get the current time.
-		currentMillis = System.currentTimeMillis();
-		
-		// Prepare the System class to return our fixed currentMillis variable when requested.
-		PowerMockito.mockStatic(System.class);
-		PowerMockito.when(System.currentTimeMillis()).thenReturn(currentMillis);
-		
-		// When the sleep method is called, add 100ms to the currentMillis variable.
-		PowerMockito.doAnswer(new Answer<Object>() {
-			public Object answer(InvocationOnMock invocation) throws Exception {
-				Object[] args = invocation.getArguments();
-				int sleepTime = (Integer)args[0];
-				changeMillisToReturn(sleepTime);
-				return null;
-			}
-		}).when(wifiDevice, METHOD_SLEEP, Mockito.anyInt());
-		
 		// Call the method under test.
 		boolean connected = wifiDevice.connect(mockedAccessPoint, null);
 		
 		// Verify the result.
 		assertThat("Module should have connected", connected, is(equalTo(true)));
-		// Verify that the sleep method was called one time.
-		PowerMockito.verifyPrivate(wifiDevice, Mockito.times(1)).invoke(METHOD_SLEEP, 100);
+		// Verify that the association indication was read only once.
+		Mockito.verify(wifiDevice, Mockito.times(1)).getParameter("AI");
 	}
 	
 	/**
@@ -616,42 +470,12 @@ public class ConnectToAccessPointTest {
 		
 		Mockito.doReturn(WiFiEncryptionType.WEP).when(mockedAccessPoint).getEncryptionType();
 		
-		// Get the current time.
-		currentMillis = System.currentTimeMillis();
-		
-		// Prepare the System class to return our fixed currentMillis variable when requested.
-		PowerMockito.mockStatic(System.class);
-		PowerMockito.when(System.currentTimeMillis()).thenReturn(currentMillis);
-		
-		// When the sleep method is called, add 100ms to the currentMillis variable.
-		PowerMockito.doAnswer(new Answer<Object>() {
-			public Object answer(InvocationOnMock invocation) throws Exception {
-				Object[] args = invocation.getArguments();
-				int sleepTime = (Integer)args[0];
-				changeMillisToReturn(sleepTime);
-				return null;
-			}
-		}).when(wifiDevice, METHOD_SLEEP, Mockito.anyInt());
-		
 		// Call the method under test.
 		boolean connected = wifiDevice.connect(mockedAccessPoint, "password");
 		
 		// Verify the result.
 		assertThat("Module should have connected", connected, is(equalTo(true)));
-		// Verify that the sleep method was called one time.
-		PowerMockito.verifyPrivate(wifiDevice, Mockito.times(1)).invoke(METHOD_SLEEP, 100);
-	}
-	
-	/**
-	 * Helper method that changes the milliseconds to return when the System.currentMillis() 
-	 * method is invoked.
-	 * 
-	 * @param time The time to all to the milliseconds to return.
-	 */
-	public void changeMillisToReturn(int time) {
-		currentMillis += time;
-		
-		// Prepare the System class to return our fixed currentMillis variable when requested.
-		PowerMockito.when(System.currentTimeMillis()).thenReturn(currentMillis);
+		// Verify that the association indication was read only once.
+		Mockito.verify(wifiDevice, Mockito.times(1)).getParameter("AI");
 	}
 }
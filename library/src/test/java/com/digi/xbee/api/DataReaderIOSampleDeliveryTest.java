@@ -0,0 +1,164 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.powermock.reflect.Whitebox;
+
+import com.digi.xbee.api.connection.IConnectionInterface;
+import com.digi.xbee.api.io.IOSample;
+import com.digi.xbee.api.io.IOSampleDeliveryOptions;
+import com.digi.xbee.api.listeners.IIOSampleReceiveListener;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.XBee64BitAddress;
+
+public class DataReaderIOSampleDeliveryTest {
+	
+	// Constants.
+	private static final String NOTIFY_IO_SAMPLE_RECEIVED_METHOD = "notifyIOSampleReceived";
+	
+	private static final IOSample SAMPLE_1 = new IOSample(new byte[]{0x01, 0x00, 0x11, 0x00, 0x00, 0x01});
+	private static final IOSample SAMPLE_2 = new IOSample(new byte[]{0x01, 0x00, 0x11, 0x00, 0x00, 0x10});
+	private static final IOSample SAMPLE_3 = new IOSample(new byte[]{0x01, 0x00, 0x11, 0x00, 0x00, 0x11});
+	
+	// Variables.
+	private DataReader dataReader;
+	
+	private RemoteXBeeDevice remoteDevice;
+	
+	@Before
+	public void setup() {
+		XBeeDevice xbeeDevice = Mockito.mock(XBeeDevice.class);
+		remoteDevice = Mockito.mock(RemoteXBeeDevice.class);
+		Mockito.when(remoteDevice.get64BitAddress()).thenReturn(new XBee64BitAddress("0013A20040A9E77E"));
+		
+		dataReader = new DataReader(Mockito.mock(IConnectionInterface.class), OperatingMode.API, xbeeDevice);
+		Whitebox.setInternalState(dataReader, "running", true);
+	}
+	
+	@After
+	public void tearDown() {
+		Whitebox.setInternalState(dataReader, "running", false);
+	}
+	
+	/**
+	 * Verify that samples without changes are suppressed and counted when 
+	 * the changes only option is enabled.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testChangesOnly() throws Exception {
+		RecordingListener listener = new RecordingListener(null, null);
+		dataReader.addIOSampleReceiveListener(listener);
+		dataReader.setIOSampleDeliveryOptions(new IOSampleDeliveryOptions(false, true, 0));
+		
+		Whitebox.invokeMethod(dataReader, NOTIFY_IO_SAMPLE_RECEIVED_METHOD, remoteDevice, SAMPLE_1);
+		Whitebox.invokeMethod(dataReader, NOTIFY_IO_SAMPLE_RECEIVED_METHOD, remoteDevice, SAMPLE_1);
+		Whitebox.invokeMethod(dataReader, NOTIFY_IO_SAMPLE_RECEIVED_METHOD, remoteDevice, SAMPLE_2);
+		
+		listener.awaitSamples(2);
+		assertEquals(1, dataReader.getSuppressedIOSamples(remoteDevice));
+	}
+	
+	/**
+	 * Verify that only the latest sample of a device is delivered after a 
+	 * busy listener finishes, and that the replaced samples are counted.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testConflation() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingListener listener = new RecordingListener(started, release);
+		dataReader.addIOSampleReceiveListener(listener);
+		dataReader.setIOSampleDeliveryOptions(new IOSampleDeliveryOptions(true, false, 0));
+		
+		Whitebox.invokeMethod(dataReader, NOTIFY_IO_SAMPLE_RECEIVED_METHOD, remoteDevice, SAMPLE_1);
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		
+		// The listener is busy, so these samples are conflated.
+		Whitebox.invokeMethod(dataReader, NOTIFY_IO_SAMPLE_RECEIVED_METHOD, remoteDevice, SAMPLE_2);
+		Whitebox.invokeMethod(dataReader, NOTIFY_IO_SAMPLE_RECEIVED_METHOD, remoteDevice, SAMPLE_3);
+		release.countDown();
+		
+		List<IOSample> samples = listener.awaitSamples(2);
+		assertEquals(SAMPLE_1, samples.get(0));
+		assertEquals(SAMPLE_3, samples.get(1));
+		assertEquals(1, dataReader.getSuppressedIOSamples(remoteDevice));
+	}
+	
+	/**
+	 * Listener that records the received samples and optionally blocks on 
+	 * the first one.
+	 */
+	private static class RecordingListener implements IIOSampleReceiveListener {
+		
+		// Variables.
+		private final List<IOSample> samples = Collections.synchronizedList(new ArrayList<IOSample>());
+		
+		private final CountDownLatch started;
+		private final CountDownLatch release;
+		
+		RecordingListener(CountDownLatch started, CountDownLatch release) {
+			this.started = started;
+			this.release = release;
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see com.digi.xbee.api.listeners.IIOSampleReceiveListener#ioSampleReceived(com.digi.xbee.api.RemoteXBeeDevice, com.digi.xbee.api.io.IOSample)
+		 */
+		@Override
+		public void ioSampleReceived(RemoteXBeeDevice remoteDevice, IOSample ioSample) {
+			samples.add(ioSample);
+			if (started != null && started.getCount() > 0) {
+				started.countDown();
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+		
+		/**
+		 * Waits until the given number of samples is received and returns 
+		 * them.
+		 */
+		List<IOSample> awaitSamples(int count) throws InterruptedException {
+			long deadline = System.currentTimeMillis() + 5000;
+			while (samples.size() < count && System.currentTimeMillis() < deadline)
+				Thread.sleep(10);
+			Thread.sleep(50);
+			assertEquals(count, samples.size());
+			return new ArrayList<IOSample>(samples);
+		}
+	}
+}
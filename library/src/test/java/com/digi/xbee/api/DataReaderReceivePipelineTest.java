@@ -0,0 +1,338 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.reflect.Whitebox;
+
+import com.digi.xbee.api.connection.IConnectionInterface;
+import com.digi.xbee.api.metrics.IMetricsRecorder;
+import com.digi.xbee.api.metrics.IPacketTracer;
+import com.digi.xbee.api.metrics.MetricsCounter;
+import com.digi.xbee.api.metrics.MetricsGauge;
+import com.digi.xbee.api.models.ATCommandStatus;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.ReceivePipelineOptions;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
+import com.digi.xbee.api.utils.WaitStrategy;
+
+public class DataReaderReceivePipelineTest {
+	
+	// Constants.
+	private static final int TIMEOUT = 5000;
+	
+	// Variables.
+	private DataReader dataReader;
+	
+	private XBeeDevice xbeeDevice;
+	
+	private IConnectionInterface connectionInterface;
+	
+	private ChunkedInputStream inputStream;
+	
+	@Before
+	public void setup() {
+		xbeeDevice = Mockito.mock(XBeeDevice.class);
+		inputStream = new ChunkedInputStream();
+		connectionInterface = Mockito.mock(IConnectionInterface.class);
+		Mockito.when(connectionInterface.getInputStream()).thenReturn(inputStream);
+		
+		dataReader = new DataReader(connectionInterface, OperatingMode.API, xbeeDevice);
+		dataReader.setReceivePipelineOptions(new ReceivePipelineOptions(4, 2, WaitStrategy.BLOCKING));
+	}
+	
+	@After
+	public void tearDown() throws Exception {
+		dataReader.stopReader();
+		dataReader.join(TIMEOUT);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.DataReader#run()}.
+	 * 
+	 * <p>Verify that frames split across several read blocks, and several
+	 * frames in the same block, are dispatched in the order they were
+	 * received.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testFramesSplitAcrossBlocks() throws Exception {
+		// Setup the resources for the test.
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		for (int i = 1; i <= 20; i++)
+			stream.write(createFrame(i));
+		byte[] data = stream.toByteArray();
+		startReader();
+		
+		// Call the method under test.
+		for (int i = 0; i < data.length; i += 7)
+			write(data, i, Math.min(7, data.length - i));
+		
+		// Verify the result.
+		for (int i = 1; i <= 20; i++)
+			assertFrame(i, dataReader.getXBeePacketsQueue().getFirstPacket(TIMEOUT));
+		assertNull(dataReader.getXBeePacketsQueue().getFirstPacket(0));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.DataReader#waitForStart(long)}.
+	 * 
+	 * <p>Verify that the data notified right after the reader is started is 
+	 * read.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testWaitForStart() throws Exception {
+		// Setup the resources for the test.
+		byte[] frame = createFrame(1);
+		dataReader.start();
+		
+		// Call the method under test.
+		assertTrue(dataReader.waitForStart(TIMEOUT));
+		
+		// Verify the result.
+		write(frame, 0, frame.length);
+		assertFrame(1, dataReader.getXBeePacketsQueue().getFirstPacket(TIMEOUT));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.DataReader#run()}.
+	 * 
+	 * <p>Verify that a truncated frame is discarded when the parser times out
+	 * and that the next frame is dispatched.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testTruncatedFrame() throws Exception {
+		// Setup the resources for the test.
+		IMetricsRecorder metrics = Mockito.mock(IMetricsRecorder.class);
+		Mockito.when(xbeeDevice.getMetricsRecorder()).thenReturn(metrics);
+		byte[] truncated = createFrame(1);
+		byte[] frame = createFrame(2);
+		startReader();
+		
+		// Call the method under test.
+		write(truncated, 0, truncated.length - 3);
+		Mockito.verify(metrics, Mockito.timeout(TIMEOUT)).increment(MetricsCounter.PARSE_ERRORS, 1);
+		write(frame, 0, frame.length);
+		
+		// Verify the result.
+		assertFrame(2, dataReader.getXBeePacketsQueue().getFirstPacket(TIMEOUT));
+		assertNull(dataReader.getXBeePacketsQueue().getFirstPacket(0));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.DataReader#getDispatchBacklog()}.
+	 * 
+	 * <p>Verify that the frames waiting for a busy dispatcher are counted in
+	 * the backlog and in the metrics gauges, and that they are dispatched
+	 * in order once the dispatcher is free.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testBacklog() throws Exception {
+		// Setup the resources for the test.
+		IMetricsRecorder metrics = Mockito.mock(IMetricsRecorder.class);
+		Mockito.when(xbeeDevice.getMetricsRecorder()).thenReturn(metrics);
+		final CountDownLatch dispatching = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		// Block the dispatcher in the first frame.
+		Mockito.when(xbeeDevice.getPacketTracer()).thenAnswer(new Answer<IPacketTracer>() {
+			/*
+			 * (non-Javadoc)
+			 * @see org.mockito.stubbing.Answer#answer(org.mockito.invocation.InvocationOnMock)
+			 */
+			@Override
+			public IPacketTracer answer(InvocationOnMock invocation) throws Throwable {
+				dispatching.countDown();
+				release.await(TIMEOUT, TimeUnit.MILLISECONDS);
+				return null;
+			}
+		});
+		startReader();
+		
+		// Call the method under test.
+		for (int i = 1; i <= 3; i++) {
+			byte[] frame = createFrame(i);
+			write(frame, 0, frame.length);
+			if (i == 1)
+				assertTrue(dispatching.await(TIMEOUT, TimeUnit.MILLISECONDS));
+		}
+		
+		// Verify the result.
+		Mockito.verify(metrics, Mockito.timeout(TIMEOUT)).update(MetricsGauge.DISPATCH_BACKLOG, 2);
+		Mockito.verify(metrics, Mockito.atLeastOnce()).update(Mockito.eq(MetricsGauge.DECODE_BACKLOG), Mockito.anyLong());
+		assertEquals(2, dataReader.getDispatchBacklog());
+		
+		release.countDown();
+		for (int i = 1; i <= 3; i++)
+			assertFrame(i, dataReader.getXBeePacketsQueue().getFirstPacket(TIMEOUT));
+		assertEquals(0, dataReader.getDispatchBacklog());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.DataReader#stopReader()}.
+	 * 
+	 * <p>Verify that the decoder and dispatcher threads end when the reader
+	 * is stopped.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testStopReader() throws Exception {
+		// Setup the resources for the test.
+		startReader();
+		byte[] frame = createFrame(1);
+		write(frame, 0, frame.length);
+		assertFrame(1, dataReader.getXBeePacketsQueue().getFirstPacket(TIMEOUT));
+		Object pipeline = Whitebox.getInternalState(dataReader, "pipeline");
+		Thread decoder = Whitebox.getInternalState(pipeline, "decoder");
+		Thread dispatcher = Whitebox.getInternalState(pipeline, "dispatcher");
+		assertTrue(decoder.isAlive());
+		assertTrue(dispatcher.isAlive());
+		
+		// Call the method under test.
+		dataReader.stopReader();
+		
+		// Verify the result.
+		dataReader.join(TIMEOUT);
+		decoder.join(TIMEOUT);
+		dispatcher.join(TIMEOUT);
+		assertFalse(dataReader.isAlive());
+		assertFalse(decoder.isAlive());
+		assertFalse(dispatcher.isAlive());
+	}
+	
+	/**
+	 * Starts the data reader and waits until it waits for data.
+	 */
+	private void startReader() throws InterruptedException {
+		dataReader.start();
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (dataReader.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+		assertEquals(Thread.State.WAITING, dataReader.getState());
+	}
+	
+	/**
+	 * Makes the given bytes available in a single read and notifies the
+	 * data reader, as the connection interfaces do.
+	 */
+	private void write(byte[] data, int offset, int length) {
+		inputStream.chunks.add(Arrays.copyOfRange(data, offset, offset + length));
+		synchronized (connectionInterface) {
+			connectionInterface.notify();
+		}
+	}
+	
+	/**
+	 * Creates the bytes of an AT command response with the given frame ID.
+	 */
+	private static byte[] createFrame(int frameID) {
+		return new ATCommandResponsePacket(frameID, ATCommandStatus.OK, "NI",
+				new byte[] {0x7E, (byte)frameID}).generateByteArray();
+	}
+	
+	/**
+	 * Asserts that the given packet is the frame with the given frame ID.
+	 */
+	private static void assertFrame(int frameID, XBeePacket packet) {
+		// Do not generate the bytes of the packet, the dispatcher may be 
+		// logging it.
+		ATCommandResponsePacket response = (ATCommandResponsePacket)packet;
+		assertEquals(frameID, response.getFrameID());
+		assertArrayEquals(new byte[] {0x7E, (byte)frameID}, response.getCommandValue());
+	}
+	
+	/**
+	 * Input stream that returns the written chunks of bytes one at a time.
+	 */
+	private static class ChunkedInputStream extends InputStream {
+		
+		// Variables.
+		private final LinkedBlockingQueue<byte[]> chunks = new LinkedBlockingQueue<>();
+		
+		private byte[] chunk = new byte[0];
+		
+		private int position;
+		
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.InputStream#read()
+		 */
+		@Override
+		public int read() {
+			byte[] b = new byte[1];
+			return read(b, 0, 1) == 1 ? b[0] & 0xFF : -1;
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.InputStream#read(byte[], int, int)
+		 */
+		@Override
+		public int read(byte[] b, int off, int len) {
+			try {
+				while (position == chunk.length) {
+					chunk = chunks.take();
+					position = 0;
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return -1;
+			}
+			int read = Math.min(len, chunk.length - position);
+			System.arraycopy(chunk, position, b, off, read);
+			position += read;
+			return read;
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.InputStream#available()
+		 */
+		@Override
+		public int available() {
+			if (position < chunk.length)
+				return chunk.length - position;
+			byte[] next = chunks.peek();
+			return next == null ? 0 : next.length;
+		}
+	}
+}
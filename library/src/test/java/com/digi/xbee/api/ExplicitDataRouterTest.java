@@ -0,0 +1,204 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.digi.xbee.api.listeners.IExplicitDataReceiveListener;
+import com.digi.xbee.api.models.ExplicitXBeeMessage;
+
+public class ExplicitDataRouterTest {
+	
+	// Constants.
+	private static final int ENDPOINT = 0xE8;
+	private static final int CLUSTER = 0x0011;
+	private static final int PROFILE = 0xC105;
+	
+	// Variables.
+	private ExplicitDataRouter router;
+	
+	private IExplicitDataReceiveListener exactHandler;
+	private IExplicitDataReceiveListener clusterHandler;
+	private IExplicitDataReceiveListener profileHandler;
+	private IExplicitDataReceiveListener defaultHandler;
+	
+	@Before
+	public void setup() {
+		router = new ExplicitDataRouter();
+		exactHandler = Mockito.mock(IExplicitDataReceiveListener.class);
+		clusterHandler = Mockito.mock(IExplicitDataReceiveListener.class);
+		profileHandler = Mockito.mock(IExplicitDataReceiveListener.class);
+		defaultHandler = Mockito.mock(IExplicitDataReceiveListener.class);
+	}
+	
+	@After
+	public void tearDown() {
+		router.close();
+	}
+	
+	/**
+	 * Verify that the exact route has precedence over wildcard routes, and 
+	 * wildcard routes over the default handler.
+	 */
+	@Test
+	public void testRoutePrecedence() {
+		router.addHandler(ENDPOINT, CLUSTER, PROFILE, exactHandler);
+		router.addHandler(ExplicitDataRouter.ANY, CLUSTER, ExplicitDataRouter.ANY, clusterHandler);
+		router.addHandler(ExplicitDataRouter.ANY, ExplicitDataRouter.ANY, PROFILE, profileHandler);
+		router.setDefaultHandler(defaultHandler);
+		
+		assertEquals(exactHandler, router.getHandler(ENDPOINT, CLUSTER, PROFILE));
+		assertEquals(clusterHandler, router.getHandler(0x01, CLUSTER, PROFILE));
+		assertEquals(profileHandler, router.getHandler(0x01, 0x0006, PROFILE));
+		assertEquals(defaultHandler, router.getHandler(0x01, 0x0006, 0x0104));
+	}
+	
+	/**
+	 * Verify that removing a handler removes all its routes.
+	 */
+	@Test
+	public void testRemoveHandler() {
+		router.addHandler(ENDPOINT, CLUSTER, PROFILE, exactHandler);
+		router.addHandler(ENDPOINT, ExplicitDataRouter.ANY, ExplicitDataRouter.ANY, exactHandler);
+		
+		router.removeHandler(exactHandler);
+		
+		assertNull(router.getHandler(ENDPOINT, CLUSTER, PROFILE));
+		assertNull(router.getHandler(ENDPOINT, 0x0006, 0x0104));
+	}
+	
+	/**
+	 * Verify that invalid route values are rejected.
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testInvalidCluster() {
+		router.addHandler(ENDPOINT, 0x10000, PROFILE, exactHandler);
+	}
+	
+	/**
+	 * Verify that messages are delivered to the matching handler in the 
+	 * order they were received.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testOrderedDelivery() throws Exception {
+		final List<Integer> received = Collections.synchronizedList(new ArrayList<Integer>());
+		final CountDownLatch done = new CountDownLatch(50);
+		router.addHandler(ENDPOINT, CLUSTER, PROFILE, new IExplicitDataReceiveListener() {
+			@Override
+			public void explicitDataReceived(ExplicitXBeeMessage explicitXBeeMessage) {
+				received.add((int)explicitXBeeMessage.getData()[0]);
+				done.countDown();
+			}
+		});
+		
+		RemoteXBeeDevice remote = Mockito.mock(RemoteXBeeDevice.class);
+		for (int i = 0; i < 50; i++)
+			router.explicitDataReceived(new ExplicitXBeeMessage(remote, ENDPOINT, ENDPOINT, 
+					CLUSTER, PROFILE, new byte[] {(byte)i}));
+		
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		for (int i = 0; i < 50; i++)
+			assertEquals(i, (int)received.get(i));
+	}
+	
+	/**
+	 * Verify that the thread of a handler ends when the handler is removed.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testRemoveHandlerStopsThread() throws Exception {
+		ThreadHandler handler = new ThreadHandler();
+		router.addHandler(ENDPOINT, CLUSTER, PROFILE, handler);
+		Thread thread = handler.receive();
+		
+		router.removeHandler(handler);
+		
+		thread.join(5000);
+		assertFalse(thread.isAlive());
+	}
+	
+	/**
+	 * Verify that closing the router ends the threads of its handlers, and 
+	 * that the routes work again after closing it.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testClose() throws Exception {
+		ThreadHandler handler = new ThreadHandler();
+		router.addHandler(ENDPOINT, CLUSTER, PROFILE, handler);
+		Thread thread = handler.receive();
+		
+		router.close();
+		
+		thread.join(5000);
+		assertFalse(thread.isAlive());
+		Thread newThread = handler.receive();
+		assertTrue(newThread.isAlive());
+		assertFalse(newThread == thread);
+	}
+	
+	/**
+	 * Handler that records the thread that delivers its messages.
+	 */
+	private class ThreadHandler implements IExplicitDataReceiveListener {
+		
+		// Variables.
+		private final AtomicReference<Thread> thread = new AtomicReference<>();
+		
+		private CountDownLatch received;
+		
+		/*
+		 * (non-Javadoc)
+		 * @see com.digi.xbee.api.listeners.IExplicitDataReceiveListener#explicitDataReceived(com.digi.xbee.api.models.ExplicitXBeeMessage)
+		 */
+		@Override
+		public void explicitDataReceived(ExplicitXBeeMessage explicitXBeeMessage) {
+			thread.set(Thread.currentThread());
+			received.countDown();
+		}
+		
+		/**
+		 * Routes a message to this handler and returns the thread that 
+		 * delivered it.
+		 */
+		Thread receive() throws InterruptedException {
+			received = new CountDownLatch(1);
+			router.explicitDataReceived(new ExplicitXBeeMessage(Mockito.mock(RemoteXBeeDevice.class), 
+					ENDPOINT, ENDPOINT, CLUSTER, PROFILE, new byte[] {0x01}));
+			assertTrue(received.await(5, TimeUnit.SECONDS));
+			return thread.get();
+		}
+	}
+}
@@ -60,9 +60,9 @@ public class IPDeviceTest {
 	
 	@Before
 	public void setup() throws Exception {
-		// Suppress the 'readDeviceInfo' method of the parent class so that it is not
+		// Suppress the 'readDeviceSpecificInfo' method of the parent class so that it is not
 		// called from the child (IPDevice) class.
-		PowerMockito.suppress(PowerMockito.method(AbstractXBeeDevice.class, "readDeviceInfo"));
+		PowerMockito.suppress(PowerMockito.method(AbstractXBeeDevice.class, "readDeviceSpecificInfo"));
 		
 		// Spy the IPDevice class.
 		SerialPortRxTx mockPort = Mockito.mock(SerialPortRxTx.class);
@@ -74,9 +74,9 @@ public class IPDeviceTest {
 	
 	/**
 	 * Test method for {@link com.digi.xbee.api.IPDevice#getIPAddress()} and
-	 * {@link com.digi.xbee.api.IPDevice#readDeviceInfo()}.
+	 * {@link com.digi.xbee.api.IPDevice#readDeviceSpecificInfo()}.
 	 * 
-	 * <p>Verify that the {@code readDeviceInfo()} method of the IP device generates 
+	 * <p>Verify that the {@code readDeviceSpecificInfo()} method of the IP device generates 
 	 * the IP address correctly.</p>
 	 * 
 	 * @throws Exception
@@ -93,9 +93,9 @@ public class IPDeviceTest {
 		// Check that the source port is the default one.
 		assertEquals(IPDevice.DEFAULT_SOURCE_PORT, ipDevice.sourcePort);
 		
-		// Call the readDeviceInfo method.
-		ipDevice.readDeviceInfo();
-		Mockito.verify((AbstractXBeeDevice)ipDevice, Mockito.times(1)).readDeviceInfo();
+		// Call the readDeviceSpecificInfo method.
+		ipDevice.readDeviceSpecificInfo();
+		Mockito.verify((AbstractXBeeDevice)ipDevice, Mockito.times(1)).readDeviceSpecificInfo();
 		
 		// Verify that the IP address was generated.
 		assertEquals(ipAddress, ipDevice.getIPAddress());
@@ -60,9 +60,9 @@ public class IPv6DeviceTest {
 	
 	@Before
 	public void setup() throws Exception {
-		// Suppress the 'readDeviceInfo' method of the parent class so that it is not
+		// Suppress the 'readDeviceSpecificInfo' method of the parent class so that it is not
 		// called from the child (IPv6Device) class.
-		PowerMockito.suppress(PowerMockito.method(AbstractXBeeDevice.class, "readDeviceInfo"));
+		PowerMockito.suppress(PowerMockito.method(AbstractXBeeDevice.class, "readDeviceSpecificInfo"));
 		
 		// Spy the IPv6Device class.
 		SerialPortRxTx mockPort = Mockito.mock(SerialPortRxTx.class);
@@ -74,9 +74,9 @@ public class IPv6DeviceTest {
 	
 	/**
 	 * Test method for {@link com.digi.xbee.api.IPv6Device#getIPv6Address()} and
-	 * {@link com.digi.xbee.api.IPv6Device#readDeviceInfo()}.
+	 * {@link com.digi.xbee.api.IPv6Device#readDeviceSpecificInfo()}.
 	 * 
-	 * <p>Verify that the {@code readDeviceInfo()} method of the IPv6 device generates 
+	 * <p>Verify that the {@code readDeviceSpecificInfo()} method of the IPv6 device generates 
 	 * the IPv6 address correctly.</p>
 	 * 
 	 * @throws Exception
@@ -93,9 +93,9 @@ public class IPv6DeviceTest {
 		// Check that the source port is the default one.
 		assertEquals(IPv6Device.DEFAULT_SOURCE_PORT, ipv6Device.sourcePort);
 		
-		// Call the readDeviceInfo method.
-		ipv6Device.readDeviceInfo();
-		Mockito.verify((AbstractXBeeDevice)ipv6Device, Mockito.times(1)).readDeviceInfo();
+		// Call the readDeviceSpecificInfo method.
+		ipv6Device.readDeviceSpecificInfo();
+		Mockito.verify((AbstractXBeeDevice)ipv6Device, Mockito.times(1)).readDeviceSpecificInfo();
 		
 		// Verify that the IPv6 address was generated.
 		assertEquals(ipv6Address, ipv6Device.getIPv6Address());
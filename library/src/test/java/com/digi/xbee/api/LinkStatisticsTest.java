@@ -0,0 +1,136 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.digi.xbee.api.connection.virtual.VirtualMeshNetwork;
+import com.digi.xbee.api.exceptions.TransmitException;
+import com.digi.xbee.api.models.LinkStatistics;
+
+public class LinkStatisticsTest {
+	
+	// Constants.
+	private static final int NODE = 3;
+	
+	// Variables.
+	private VirtualMeshNetwork network;
+	
+	private XBeeDevice device;
+	
+	private RemoteXBeeDevice remote;
+	
+	@Before
+	public void setUp() throws Exception {
+		network = new VirtualMeshNetwork(5);
+		device = new XBeeDevice(network);
+		device.open();
+		remote = new RemoteXBeeDevice(device, network.getNode64BitAddress(NODE));
+	}
+	
+	@After
+	public void tearDown() {
+		if (device.isOpen())
+			device.close();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#getLinkStatistics(RemoteXBeeDevice)}.
+	 * 
+	 * <p>Verify that the delivery statistics are updated with the transmit 
+	 * status of the transmissions.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testDeliveryStatistics() throws Exception {
+		assertNull(device.getNetwork().getLinkStatistics(remote));
+		
+		// Call the method under test.
+		device.sendData(remote, new byte[] {0x01});
+		network.setRouteFailed(NODE, true);
+		try {
+			device.sendData(remote, new byte[] {0x02});
+			fail("The transmission should have failed.");
+		} catch (TransmitException e) {
+			// Expected.
+		}
+		
+		// Verify the result.
+		LinkStatistics statistics = device.getNetwork().getLinkStatistics(remote);
+		assertThat(statistics.getTransmissions(), is(equalTo(2L)));
+		assertThat(statistics.getDeliveries(), is(equalTo(1L)));
+		assertThat(statistics.getDeliveryRatio(), is(equalTo(0.5)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#getLinkStatistics(RemoteXBeeDevice)}.
+	 * 
+	 * <p>Verify that the reception statistics are updated with the received 
+	 * frames.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testReceptionStatistics() throws Exception {
+		// Call the method under test.
+		network.startIOSamples(50);
+		long deadline = System.currentTimeMillis() + 5000;
+		LinkStatistics statistics = null;
+		while (System.currentTimeMillis() < deadline) {
+			statistics = device.getNetwork().getLinkStatistics(remote);
+			if (statistics != null && statistics.getReceivedMessages() > 0)
+				break;
+			Thread.sleep(10);
+		}
+		
+		// Verify the result.
+		assertTrue(statistics.getReceivedMessages() > 0);
+		assertThat(statistics.getLastRSSI(), is(equalTo(LinkStatistics.UNKNOWN_RSSI)));
+		assertThat(device.getNetwork().getLinkStatistics().containsKey(remote.get64BitAddress()), is(equalTo(true)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#refreshLinkQuality(RemoteXBeeDevice)}.
+	 * 
+	 * <p>Verify that the RSSI is read from the remote device.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testRefreshLinkQuality() throws Exception {
+		// Setup the resources for the test.
+		network.setRemoteParameter("DB", new byte[] {0x2A});
+		
+		// Call the method under test.
+		LinkStatistics statistics = device.getNetwork().refreshLinkQuality(remote);
+		
+		// Verify the result.
+		assertThat(statistics.getLastRSSI(), is(equalTo(0x2A)));
+		
+		device.getNetwork().clearLinkStatistics();
+		assertNull(device.getNetwork().getLinkStatistics(remote));
+	}
+}
@@ -20,13 +20,16 @@ import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.IsNot.not;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.Assert.assertThat;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
@@ -42,6 +45,7 @@ import com.digi.xbee.api.XBeeNetwork;
 import com.digi.xbee.api.connection.IConnectionInterface;
 import com.digi.xbee.api.exceptions.InterfaceNotOpenException;
 import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.listeners.IDiscoveryListener;
 import com.digi.xbee.api.listeners.IPacketReceiveListener;
 import com.digi.xbee.api.models.ATCommandStatus;
 import com.digi.xbee.api.models.XBee16BitAddress;
@@ -135,7 +139,7 @@ public class NodeDiscoveryDiscoverDevicesBlockTest {
 							return;
 						
 						for (int i = 0; i < ndAnswers.size(); i++) {
-							packetListener.packetReceived(ndAnswers.get(i));
+							packetListener.packetReceived(answerTo(packet, ndAnswers.get(i)));
 							try {
 								sleep(200);
 							} catch (InterruptedException e) {e.printStackTrace();}
@@ -148,6 +152,15 @@ public class NodeDiscoveryDiscoverDevicesBlockTest {
 			}
 		}).when(deviceMock).sendPacketAsync(Mockito.any(ATCommandPacket.class));
 		
+		PowerMockito.when(deviceMock.getNextFrameID()).thenAnswer(new Answer<Integer>() {
+			private int frameID = 1;
+			@Override
+			public Integer answer(InvocationOnMock invocation) throws Throwable {
+				frameID = frameID % 0xFF + 1;
+				return frameID;
+			}
+		});
+		
 		nd = PowerMockito.spy(new NodeDiscovery(deviceMock));
 		Whitebox.setInternalState(nd, "frameID", 1);
 	}
@@ -629,7 +642,231 @@ public class NodeDiscoveryDiscoverDevicesBlockTest {
 		PowerMockito.verifyPrivate(nd, Mockito.times(1)).invoke(DISCOVER_DEVICES_API_METHOD, null, null);
 		
 		Mockito.verify(networkMock, Mockito.never()).addRemoteDevices(Mockito.anyListOf(RemoteXBeeDevice.class));
-		Mockito.verify(networkMock, Mockito.times(list.size())).addRemoteDevice(Mockito.any(RemoteXBeeDevice.class));
+		// The discovered device is added only once even if its id is duplicated.
+		Mockito.verify(networkMock, Mockito.times(ndAnswers.size())).addRemoteDevice(Mockito.any(RemoteXBeeDevice.class));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.NodeDiscovery#discoverDevices(List, boolean, IDiscoveryListener)}.
+	 * 
+	 * <p>Verify that a targeted discovery finishes as soon as all the 
+	 * requested devices are found, notifying every device to the listener.</p>
+	 * 
+	 * @throws Exception 
+	 */
+	@Test
+	public final void testDiscoverDevicesTargetedEarlyCompletion() throws Exception {
+		// Setup the resources for the test.
+		List<String> list = new ArrayList<String>();
+		list.add("id");
+		list.add("id2");
+		
+		// 10 seconds of discovery timeout.
+		PowerMockito.when(deviceMock.getParameter("NT")).thenReturn(new byte[]{0x64});
+		PowerMockito.when(deviceMock.getXBeeProtocol()).thenReturn(XBeeProtocol.ZIGBEE);
+		
+		ndAnswers.add(createPacket(1, ATCommandStatus.OK, new XBee16BitAddress("0000"), 
+				new XBee64BitAddress("0013A20040A6A0DB"), "id", new XBee16BitAddress("FFFE"), 
+				(byte)0x00, (byte)0x49, false));
+		ndAnswers.add(createPacket(1, ATCommandStatus.OK, new XBee16BitAddress("7971"), 
+				new XBee64BitAddress("0013A20040AD1585"), "other", new XBee16BitAddress("0000"), 
+				(byte)0x01, (byte)0x67, false));
+		ndAnswers.add(createPacket(1, ATCommandStatus.OK, new XBee16BitAddress("7972"), 
+				new XBee64BitAddress("0013A20040AD1586"), "id2", new XBee16BitAddress("0000"), 
+				(byte)0x01, (byte)0x67, false));
+		
+		IDiscoveryListener listener = Mockito.mock(IDiscoveryListener.class);
+		
+		// Call the method under test.
+		long start = System.currentTimeMillis();
+		List<RemoteXBeeDevice> remotes = nd.discoverDevices(list, false, listener);
+		long elapsed = System.currentTimeMillis() - start;
+		
+		// Verify the result.
+		assertThat("The discovered devices list must have a size of 2", remotes.size(), is(equalTo(2)));
+		assertThat("The Node ID of the first device should be 'id'", remotes.get(0).getNodeID(), is(equalTo("id")));
+		assertThat("The Node ID of the second device should be 'id2'", remotes.get(1).getNodeID(), is(equalTo("id2")));
+		assertThat("The discovery should not wait for the timeout", elapsed < 5000, is(equalTo(true)));
+		
+		PowerMockito.verifyPrivate(nd, Mockito.times(1)).invoke(SEND_NODE_DISCOVERY_COMMAND_METHOD, (String)null);
+		Mockito.verify(listener, Mockito.times(2)).deviceDiscovered(Mockito.any(RemoteXBeeDevice.class));
+		Mockito.verify(listener, Mockito.times(1)).discoveryFinished(null);
+		Mockito.verify(networkMock, Mockito.times(2)).addRemoteDevice(Mockito.any(RemoteXBeeDevice.class));
+		Mockito.verify(deviceMock, Mockito.times(1)).removePacketListener(packetListener);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.NodeDiscovery#discoverDevices(List, boolean, IDiscoveryListener)}.
+	 * 
+	 * <p>Verify that a targeted discovery with per identifier queries sends 
+	 * a directed {@code ND} command for every identifier and reports only 
+	 * the first answer of each one.</p>
+	 * 
+	 * @throws Exception 
+	 */
+	@Test
+	public final void testDiscoverDevicesTargetedPerIdQueries() throws Exception {
+		// Setup the resources for the test.
+		List<String> list = new ArrayList<String>();
+		list.add("id");
+		list.add("id2");
+		
+		// 10 seconds of discovery timeout.
+		PowerMockito.when(deviceMock.getParameter("NT")).thenReturn(new byte[]{0x64});
+		PowerMockito.when(deviceMock.getXBeeProtocol()).thenReturn(XBeeProtocol.ZIGBEE);
+		
+		// Every query receives both answers, so each device is received twice.
+		ndAnswers.add(createPacket(1, ATCommandStatus.OK, new XBee16BitAddress("0000"), 
+				new XBee64BitAddress("0013A20040A6A0DB"), "id", new XBee16BitAddress("FFFE"), 
+				(byte)0x00, (byte)0x49, false));
+		ndAnswers.add(createPacket(1, ATCommandStatus.OK, new XBee16BitAddress("7971"), 
+				new XBee64BitAddress("0013A20040AD1585"), "id2", new XBee16BitAddress("0000"), 
+				(byte)0x01, (byte)0x67, false));
+		
+		// Call the method under test.
+		List<RemoteXBeeDevice> remotes = nd.discoverDevices(list, true, null);
+		
+		// Verify the result.
+		assertThat("The discovered devices list must have a size of 2", remotes.size(), is(equalTo(2)));
+		
+		ArgumentCaptor<ATCommandPacket> queries = ArgumentCaptor.forClass(ATCommandPacket.class);
+		Mockito.verify(deviceMock, Mockito.times(2)).sendPacketAsync(queries.capture());
+		Set<String> queriedIds = new HashSet<String>();
+		for (ATCommandPacket query : queries.getAllValues())
+			queriedIds.add(query.getParameterAsString());
+		assertThat(queriedIds, is(equalTo((Set<String>)new HashSet<String>(list))));
+		// Every query has its own frame ID.
+		assertThat(queries.getAllValues().get(0).getFrameID(), is(not(equalTo(queries.getAllValues().get(1).getFrameID()))));
+		Mockito.verify(networkMock, Mockito.times(2)).addRemoteDevice(Mockito.any(RemoteXBeeDevice.class));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.NodeDiscovery#discoverDevices(List, boolean, IDiscoveryListener)}.
+	 * 
+	 * <p>Verify that a directed query answered with an error counts as 
+	 * finished, so the discovery ends when all the queries have finished 
+	 * instead of waiting for the timeout.</p>
+	 * 
+	 * @throws Exception 
+	 */
+	@Test
+	public final void testDiscoverDevicesTargetedPerIdQueryError() throws Exception {
+		// Setup the resources for the test.
+		List<String> list = new ArrayList<String>();
+		list.add("id");
+		list.add("missing");
+		
+		// 10 seconds of discovery timeout.
+		PowerMockito.when(deviceMock.getParameter("NT")).thenReturn(new byte[]{0x64});
+		PowerMockito.when(deviceMock.getXBeeProtocol()).thenReturn(XBeeProtocol.ZIGBEE);
+		
+		final ATCommandResponsePacket device = createPacket(1, ATCommandStatus.OK, new XBee16BitAddress("0000"), 
+				new XBee64BitAddress("0013A20040A6A0DB"), "id", new XBee16BitAddress("FFFE"), 
+				(byte)0x00, (byte)0x49, false);
+		// The query of 'id' finishes with OK, the one of 'missing' with ERROR.
+		PowerMockito.doAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				ATCommandPacket query = (ATCommandPacket)invocation.getArguments()[0];
+				if (query.getParameterAsString().equals("id")) {
+					packetListener.packetReceived(answerTo(query, device));
+					packetListener.packetReceived(new ATCommandResponsePacket(query.getFrameID(), 
+							ATCommandStatus.OK, "ND", new byte[0]));
+				} else {
+					packetListener.packetReceived(new ATCommandResponsePacket(query.getFrameID(), 
+							ATCommandStatus.ERROR, "ND", new byte[0]));
+				}
+				return null;
+			}
+		}).when(deviceMock).sendPacketAsync(Mockito.any(ATCommandPacket.class));
+		
+		IDiscoveryListener listener = Mockito.mock(IDiscoveryListener.class);
+		
+		// Call the method under test.
+		long start = System.currentTimeMillis();
+		List<RemoteXBeeDevice> remotes = nd.discoverDevices(list, true, listener);
+		long elapsed = System.currentTimeMillis() - start;
+		
+		// Verify the result.
+		assertThat("The discovered devices list must have a size of 1", remotes.size(), is(equalTo(1)));
+		assertThat("The discovery should not wait for the timeout", elapsed < 5000, is(equalTo(true)));
+		Mockito.verify(listener, Mockito.times(1)).deviceDiscovered(Mockito.any(RemoteXBeeDevice.class));
+		Mockito.verify(listener, Mockito.times(1)).discoveryFinished(null);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.NodeDiscovery#discoverDevices(List, boolean, IDiscoveryListener)}.
+	 * 
+	 * <p>Verify that a targeted discovery without identifiers finishes 
+	 * immediately without sending any query.</p>
+	 * 
+	 * @throws Exception 
+	 */
+	@Test
+	public final void testDiscoverDevicesTargetedEmptyList() throws Exception {
+		// Setup the resources for the test.
+		PowerMockito.when(deviceMock.getParameter("NT")).thenReturn(new byte[]{0x64});
+		IDiscoveryListener listener = Mockito.mock(IDiscoveryListener.class);
+		
+		// Call the method under test.
+		List<RemoteXBeeDevice> remotes = nd.discoverDevices(new ArrayList<String>(), true, listener);
+		
+		// Verify the result.
+		assertThat("The discovered devices list must be empty", remotes.size(), is(equalTo(0)));
+		Mockito.verify(deviceMock, Mockito.never()).sendPacketAsync(Mockito.any(ATCommandPacket.class));
+		Mockito.verify(deviceMock, Mockito.never()).addPacketListener(Mockito.any(IPacketReceiveListener.class));
+		Mockito.verify(listener, Mockito.times(1)).discoveryFinished(null);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.NodeDiscovery#discoverDevices(List, boolean, IDiscoveryListener)}.
+	 * 
+	 * <p>Verify that a targeted discovery waits for the timeout if not all 
+	 * the requested devices are found.</p>
+	 * 
+	 * @throws Exception 
+	 */
+	@Test
+	public final void testDiscoverDevicesTargetedMissingDevice() throws Exception {
+		// Setup the resources for the test.
+		List<String> list = new ArrayList<String>();
+		list.add("id");
+		list.add("missing");
+		
+		PowerMockito.when(deviceMock.getParameter("NT")).thenReturn(new byte[]{0x05});
+		PowerMockito.when(deviceMock.getXBeeProtocol()).thenReturn(XBeeProtocol.ZIGBEE);
+		
+		ndAnswers.add(createPacket(1, ATCommandStatus.OK, new XBee16BitAddress("0000"), 
+				new XBee64BitAddress("0013A20040A6A0DB"), "id", new XBee16BitAddress("FFFE"), 
+				(byte)0x00, (byte)0x49, false));
+		
+		IDiscoveryListener listener = Mockito.mock(IDiscoveryListener.class);
+		
+		// Call the method under test.
+		long start = System.currentTimeMillis();
+		List<RemoteXBeeDevice> remotes = nd.discoverDevices(list, false, listener);
+		long elapsed = System.currentTimeMillis() - start;
+		
+		// Verify the result.
+		assertThat("The discovered devices list must have a size of 1", remotes.size(), is(equalTo(1)));
+		assertThat("The discovery should wait for the timeout", elapsed >= 500, is(equalTo(true)));
+		Mockito.verify(listener, Mockito.times(1)).deviceDiscovered(Mockito.any(RemoteXBeeDevice.class));
+		Mockito.verify(listener, Mockito.times(1)).discoveryFinished(null);
+	}
+	
+	/**
+	 * Returns the given ND answer with the frame ID of the given query.
+	 * 
+	 * @param query The ND query.
+	 * @param answer The answer.
+	 * 
+	 * @return The answer to the query.
+	 */
+	private static ATCommandResponsePacket answerTo(ATCommandPacket query, ATCommandResponsePacket answer) {
+		if (query.getFrameID() == answer.getFrameID())
+			return answer;
+		return new ATCommandResponsePacket(query.getFrameID(), answer.getStatus(), 
+				answer.getCommand(), answer.getCommandValue());
 	}
 	
 	/**
@@ -0,0 +1,157 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.digi.xbee.api.listeners.IPacketReceiveListener;
+import com.digi.xbee.api.models.IPProtocol;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeePacketFilter;
+import com.digi.xbee.api.packet.APIFrameType;
+import com.digi.xbee.api.packet.common.ExplicitRxIndicatorPacket;
+import com.digi.xbee.api.packet.common.ReceivePacket;
+import com.digi.xbee.api.packet.ip.RXIPv4Packet;
+
+public class PacketSubscriptionTableTest {
+	
+	// Constants.
+	private static final XBee64BitAddress ADDRESS_1 = new XBee64BitAddress("0013A20040A9E77E");
+	private static final XBee64BitAddress ADDRESS_2 = new XBee64BitAddress("0013A20040A9E780");
+	
+	private static final byte[] DATA = "Data".getBytes();
+	
+	// Variables.
+	private PacketSubscriptionTable table;
+	
+	private IPacketReceiveListener handler1;
+	private IPacketReceiveListener handler2;
+	
+	private ReceivePacket receivePacket;
+	private ExplicitRxIndicatorPacket explicitPacket;
+	
+	@Before
+	public void setup() {
+		table = new PacketSubscriptionTable();
+		handler1 = Mockito.mock(IPacketReceiveListener.class);
+		handler2 = Mockito.mock(IPacketReceiveListener.class);
+		
+		receivePacket = new ReceivePacket(ADDRESS_1, XBee16BitAddress.UNKNOWN_ADDRESS, 0, DATA);
+		explicitPacket = new ExplicitRxIndicatorPacket(ADDRESS_2, XBee16BitAddress.UNKNOWN_ADDRESS, 
+				0xE8, 0xE8, 0x0011, 0xC105, 0, DATA);
+	}
+	
+	/**
+	 * Verify that an empty filter matches all the packets.
+	 */
+	@Test
+	public void testEmptyFilterMatchesAll() {
+		table.subscribe(new XBeePacketFilter(), handler1);
+		
+		assertEquals(1, table.getHandlers(receivePacket).size());
+		assertEquals(1, table.getHandlers(explicitPacket).size());
+	}
+	
+	/**
+	 * Verify that packets are matched by source address and frame type.
+	 */
+	@Test
+	public void testSourceAndFrameType() {
+		table.subscribe(new XBeePacketFilter(ADDRESS_1, null), handler1);
+		table.subscribe(new XBeePacketFilter(null, APIFrameType.EXPLICIT_RX_INDICATOR), handler2);
+		
+		List<IPacketReceiveListener> handlers = table.getHandlers(receivePacket);
+		assertEquals(1, handlers.size());
+		assertEquals(handler1, handlers.get(0));
+		
+		handlers = table.getHandlers(explicitPacket);
+		assertEquals(1, handlers.size());
+		assertEquals(handler2, handlers.get(0));
+	}
+	
+	/**
+	 * Verify that packets are matched by cluster and profile, and that 
+	 * packets without those values do not match.
+	 */
+	@Test
+	public void testClusterAndProfile() {
+		XBeePacketFilter filter = new XBeePacketFilter();
+		filter.setClusterID(0x0011);
+		filter.setProfileID(0xC105);
+		table.subscribe(filter, handler1);
+		
+		XBeePacketFilter otherFilter = new XBeePacketFilter();
+		otherFilter.setClusterID(0x0012);
+		table.subscribe(otherFilter, handler2);
+		
+		List<IPacketReceiveListener> handlers = table.getHandlers(explicitPacket);
+		assertEquals(1, handlers.size());
+		assertEquals(handler1, handlers.get(0));
+		assertTrue(table.getHandlers(receivePacket).isEmpty());
+	}
+	
+	/**
+	 * Verify that IP packets are matched by destination port.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testIPPort() throws Exception {
+		XBeePacketFilter filter = new XBeePacketFilter();
+		filter.setIPPort(9750);
+		table.subscribe(filter, handler1);
+		
+		Inet4Address address = (Inet4Address)InetAddress.getByName("10.10.1.1");
+		
+		assertEquals(1, table.getHandlers(new RXIPv4Packet(address, 9750, 1234, IPProtocol.UDP, DATA)).size());
+		assertTrue(table.getHandlers(new RXIPv4Packet(address, 9751, 1234, IPProtocol.UDP, DATA)).isEmpty());
+	}
+	
+	/**
+	 * Verify that a handler matching several filters is returned once and 
+	 * that unsubscribing removes all its filters.
+	 */
+	@Test
+	public void testSeveralFiltersAndUnsubscribe() {
+		table.subscribe(new XBeePacketFilter(ADDRESS_2, null), handler1);
+		table.subscribe(new XBeePacketFilter(null, APIFrameType.EXPLICIT_RX_INDICATOR), handler1);
+		
+		assertEquals(1, table.getHandlers(explicitPacket).size());
+		
+		table.unsubscribe(handler1);
+		
+		assertTrue(table.isEmpty());
+		assertTrue(table.getHandlers(explicitPacket).isEmpty());
+	}
+	
+	/**
+	 * Verify that filter values out of range are rejected.
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testInvalidEndpoint() {
+		new XBeePacketFilter().setDestinationEndpoint(0x100);
+	}
+}
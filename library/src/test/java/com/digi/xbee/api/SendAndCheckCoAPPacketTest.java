@@ -15,14 +15,18 @@
  */
 package com.digi.xbee.api;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
 import java.io.IOException;
 import java.net.Inet6Address;
-import java.util.ArrayList;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
@@ -35,6 +39,7 @@ import com.digi.xbee.api.exceptions.TransmitException;
 import com.digi.xbee.api.exceptions.XBeeException;
 import com.digi.xbee.api.models.RestFulStatusEnum;
 import com.digi.xbee.api.models.XBeeTransmitStatus;
+import com.digi.xbee.api.packet.XBeePacket;
 import com.digi.xbee.api.packet.raw.TXStatusPacket;
 import com.digi.xbee.api.packet.thread.CoAPRxResponsePacket;
 import com.digi.xbee.api.packet.thread.CoAPTxRequestPacket;
@@ -46,6 +51,8 @@ public class SendAndCheckCoAPPacketTest {
 	// Constants.
 	private static final String IPV6_ADDRESS = "FDB3:0001:0002:0000:0004:0005:0006:0007";
 	
+	private static final byte[] RESPONSE_DATA = new byte[]{0x4F, 0x4B};
+	
 	// Variables.
 	private Inet6Address ipv6Address;
 	
@@ -60,12 +67,9 @@ public class SendAndCheckCoAPPacketTest {
 	private TXStatusPacket txStatusSuccess;
 	private TXStatusPacket txStatusError;
 	
-	private ArrayList<CoAPRxResponsePacket> coapResponsePackets;
-	
 	@Before
 	public void setup() throws Exception {
 		ipv6Address = (Inet6Address) Inet6Address.getByName(IPV6_ADDRESS);
-		coapResponsePackets = new ArrayList<CoAPRxResponsePacket>();
 		
 		// Instantiate an ThreadDevice object with the mocked interface.
 		threadDevice = PowerMockito.spy(new ThreadDevice(Mockito.mock(SerialPortRxTx.class)));
@@ -76,6 +80,7 @@ public class SendAndCheckCoAPPacketTest {
 		// Mock CoAP Rx Response packet SUCCESS.
 		coapRxPacketSuccess = Mockito.mock(CoAPRxResponsePacket.class);
 		Mockito.when(coapRxPacketSuccess.getStatus()).thenReturn(RestFulStatusEnum.SUCCESS);
+		Mockito.when(coapRxPacketSuccess.getData()).thenReturn(RESPONSE_DATA);
 		
 		// Mock CoAP Rx Response packet ERROR.
 		coapRxPacketError = Mockito.mock(CoAPRxResponsePacket.class);
@@ -293,7 +298,7 @@ public class SendAndCheckCoAPPacketTest {
 	 * 
 	 * <p>Verify that the send and check method fails when the transmission 
 	 * status of the received Tx Status packet is correct, the CoAP Rx Response 
-	 * is {@code null} and the transmission is synchronous.</p>
+	 * is not received and the transmission is synchronous.</p>
 	 * 
 	 * @throws XBeeException
 	 * @throws TransmitException
@@ -301,15 +306,9 @@ public class SendAndCheckCoAPPacketTest {
 	 */
 	@Test(expected=XBeeException.class)
 	public void testSendAndCheckSyncCoAPTxStatusOkAndRxNull() throws IOException, TransmitException, XBeeException {
-		// Return the mocked TxStatus success packet when sending any XBee packet synchronously.
-		Mockito.doReturn(txStatusSuccess).when(threadDevice).sendXBeePacket(Mockito.any(CoAPTxRequestPacket.class));
-		
-		// Return null when waiting for response packet.
-		try {
-			PowerMockito.doReturn(null).when(threadDevice, "waitForCoAPRxResponsePacket", coapResponsePackets);
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+		threadDevice.setReceiveTimeout(100);
+		// Receive only the mocked TxStatus success packet when sending any XBee packet synchronously.
+		Mockito.doAnswer(receive(txStatusSuccess)).when(threadDevice).sendXBeePacket(Mockito.any(CoAPTxRequestPacket.class));
 		
 		threadDevice.sendAndCheckCoAPPacket(coapTxPacket, false);
 	}
@@ -327,15 +326,9 @@ public class SendAndCheckCoAPPacketTest {
 	 */
 	@Test(expected=XBeeException.class)
 	public void testSendAndCheckSyncCoAPTxStatuOksAndRxError() throws IOException, TransmitException, XBeeException {
-		// Return the mocked TxStatus success packet  when sending any XBee packet synchronously.
-		Mockito.doReturn(txStatusSuccess).when(threadDevice).sendXBeePacket(Mockito.any(CoAPTxRequestPacket.class));
-		
-		// Return XBee exception when waiting for Error Packet.
-		try {
-			PowerMockito.doThrow(new XBeeException()).when(threadDevice, "waitForCoAPRxResponsePacket", coapResponsePackets);
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+		// Receive the mocked TxStatus success and CoAP Rx Response error packets 
+		// when sending any XBee packet synchronously.
+		Mockito.doAnswer(receive(txStatusSuccess, coapRxPacketError)).when(threadDevice).sendXBeePacket(Mockito.any(CoAPTxRequestPacket.class));
 		
 		threadDevice.sendAndCheckCoAPPacket(coapTxPacket, false);
 	}
@@ -380,7 +373,8 @@ public class SendAndCheckCoAPPacketTest {
 	 * Test method for {@link com.digi.xbee.api.ThreadDevice#sendAndCheckCoAPPacket(com.digi.xbee.api.thread.CoAPTxRequestPacket, boolean)}.
 	 * 
 	 * <p>Verify that packet is considered successfully sent and checked when 
-	 * the received TX Status packet contains a SUCCESS status.</p>
+	 * the received TX Status packet contains a SUCCESS status, even if the 
+	 * CoAP Rx Response arrives first.</p>
 	 * 
 	 * @throws XBeeException
 	 * @throws TransmitException
@@ -388,17 +382,14 @@ public class SendAndCheckCoAPPacketTest {
 	 */
 	@Test
 	public void testSendAndCheckSyncCoAPSuccess() throws IOException, TransmitException, XBeeException {
-		// Return the mocked TxStatus success packet when sending any XBee packet synchronously.
-		Mockito.doReturn(txStatusSuccess).when(threadDevice).sendXBeePacket(Mockito.any(CoAPTxRequestPacket.class));
+		// Receive the mocked CoAP Rx Response packet before the TxStatus success 
+		// packet when sending any XBee packet synchronously.
+		Mockito.doAnswer(receive(coapRxPacketSuccess, txStatusSuccess)).when(threadDevice).sendXBeePacket(Mockito.any(CoAPTxRequestPacket.class));
 		
-		// Return the mocked CoAP Rx Response packet when waiting for it.
-		try {
-			PowerMockito.doReturn(coapRxPacketSuccess).when(threadDevice, "waitForCoAPRxResponsePacket", coapResponsePackets);
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+		byte[] response = threadDevice.sendAndCheckCoAPPacket(coapTxPacket, false);
 		
-		threadDevice.sendAndCheckCoAPPacket(coapTxPacket, false);
+		assertArrayEquals(RESPONSE_DATA, response);
+		assertEquals(0, threadDevice.getCoAPRequestTable(false).getPendingRequests());
 	}
 	
 	/**
@@ -418,4 +409,23 @@ public class SendAndCheckCoAPPacketTest {
 		
 		threadDevice.sendAndCheckCoAPPacket(coapTxPacket, true);
 	}
+	
+	/**
+	 * Returns an answer for the synchronous send of a CoAP request that 
+	 * receives the given packets and returns the transmit status.
+	 * 
+	 * @param packets The packets received while sending the request.
+	 * 
+	 * @return The answer.
+	 */
+	private Answer<XBeePacket> receive(final XBeePacket... packets) {
+		return new Answer<XBeePacket>() {
+			@Override
+			public XBeePacket answer(InvocationOnMock invocation) throws Throwable {
+				for (XBeePacket packet : packets)
+					threadDevice.getCoAPRequestTable(false).packetReceived(packet);
+				return txStatusSuccess;
+			}
+		};
+	}
 }
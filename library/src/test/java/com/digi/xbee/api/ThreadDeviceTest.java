@@ -60,9 +60,9 @@ public class ThreadDeviceTest {
 	
 	@Before
 	public void setup() throws Exception {
-		// Suppress the 'readDeviceInfo' method of the parent class so that it is not
+		// Suppress the 'readDeviceSpecificInfo' method of the parent class so that it is not
 		// called from the child (ThreadDevice) class.
-		PowerMockito.suppress(PowerMockito.method(IPv6Device.class, "readDeviceInfo"));
+		PowerMockito.suppress(PowerMockito.method(IPv6Device.class, "readDeviceSpecificInfo"));
 		
 		// Spy the ThreadDevice class.
 		SerialPortRxTx mockPort = Mockito.mock(SerialPortRxTx.class);
@@ -0,0 +1,89 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.digi.xbee.api.connection.virtual.VirtualMeshNetwork;
+import com.digi.xbee.api.exceptions.TransmitException;
+import com.digi.xbee.api.models.TransmitRateController;
+
+public class TransmitRateControllerDeviceTest {
+	
+	// Constants.
+	private static final int NODE = 2;
+	
+	// Variables.
+	private VirtualMeshNetwork network;
+	
+	private XBeeDevice device;
+	
+	private RemoteXBeeDevice remote;
+	
+	private TransmitRateController controller;
+	
+	@Before
+	public void setUp() throws Exception {
+		network = new VirtualMeshNetwork(5);
+		device = new XBeeDevice(network);
+		device.open();
+		remote = new RemoteXBeeDevice(device, network.getNode64BitAddress(NODE));
+		controller = new TransmitRateController();
+		device.setTransmitRateController(controller);
+	}
+	
+	@After
+	public void tearDown() {
+		if (device.isOpen())
+			device.close();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#setTransmitRateController(TransmitRateController)}.
+	 * 
+	 * <p>Verify that the transmit status of the synchronous transmissions is 
+	 * reported to the controller.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testTransmitStatusReported() throws Exception {
+		// Call the method under test.
+		device.sendData(remote, new byte[] {0x01});
+		double window = controller.getWindow();
+		network.setRouteFailed(NODE, true);
+		try {
+			device.sendData(remote, new byte[] {0x02});
+			fail("The transmission should have failed.");
+		} catch (TransmitException e) {
+			// Expected.
+		}
+		
+		// Verify the result.
+		assertThat(controller.getDelivered(), is(equalTo(1L)));
+		assertThat(controller.getCongested(), is(equalTo(1L)));
+		assertThat(controller.getWindow(), is(equalTo(window / 2)));
+		assertThat(controller.getInFlight(), is(equalTo(0)));
+		assertThat(remote.getTransmitRateController(), is(equalTo(controller)));
+	}
+}
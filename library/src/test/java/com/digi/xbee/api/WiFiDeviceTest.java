@@ -22,6 +22,7 @@ import static org.junit.Assert.*;
 import java.io.IOException;
 import java.net.Inet4Address;
 import java.net.UnknownHostException;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -30,6 +31,8 @@ import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
@@ -40,8 +43,13 @@ import com.digi.xbee.api.exceptions.InterfaceNotOpenException;
 import com.digi.xbee.api.exceptions.InvalidOperatingModeException;
 import com.digi.xbee.api.exceptions.TimeoutException;
 import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.listeners.IModemStatusReceiveListener;
+import com.digi.xbee.api.models.AccessPoint;
 import com.digi.xbee.api.models.IPAddressingMode;
+import com.digi.xbee.api.models.ModemStatusEvent;
 import com.digi.xbee.api.models.WiFiAssociationIndicationStatus;
+import com.digi.xbee.api.models.WiFiEncryptionType;
+import com.digi.xbee.api.utils.XBeeFuture;
 
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({WiFiDevice.class, WiFiAssociationIndicationStatus.class})
@@ -59,6 +67,8 @@ public class WiFiDeviceTest {
 	private static final byte[] RESPONSE_MA = new byte[]{(byte)IPAddressingMode.STATIC.getID()};
 
 	private static final byte[] IP_ADDRESS = new byte[]{0x0A, 0x0B, 0x0C, 0x0D};
+	
+	private static final AccessPoint ACCESS_POINT = new AccessPoint("ssid", WiFiEncryptionType.WPA2, 1, 100);
 
 	@Rule
 	public ExpectedException exception = ExpectedException.none();
@@ -511,4 +521,88 @@ public class WiFiDeviceTest {
 		assertEquals(Inet4Address.getByAddress(IP_ADDRESS), wifiDevice.getDNSAddress());
 	}
 
+	/**
+	 * Test method for {@link com.digi.xbee.api.WiFiDevice#connectAsync(AccessPoint, String)}.
+	 * 
+	 * <p>Verify that the connection completes as soon as the module reports 
+	 * that it joined the access point.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testConnectAsyncModemStatus() throws Exception {
+		// Setup the resources for the test.
+		final IModemStatusReceiveListener[] listener = new IModemStatusReceiveListener[1];
+		Mockito.doAnswer(new Answer<Void>() {
+			@Override
+			public Void answer(InvocationOnMock invocation) throws Throwable {
+				listener[0] = (IModemStatusReceiveListener)invocation.getArguments()[0];
+				return null;
+			}
+		}).when(wifiDevice).addModemStatusListener(Mockito.any(IModemStatusReceiveListener.class));
+		Mockito.doNothing().when(wifiDevice).setParameter(Mockito.anyString(), Mockito.any(byte[].class));
+		Mockito.doReturn(new byte[]{0x22}).when(wifiDevice).getParameter(PARAMETER_AI);
+		
+		// Call the method under test.
+		XBeeFuture<Boolean> future = wifiDevice.connectAsync(ACCESS_POINT, "password");
+		
+		// Verify the result.
+		assertFalse(future.isDone());
+		listener[0].modemStatusEventReceived(ModemStatusEvent.STATUS_DISASSOCIATED);
+		assertFalse(future.isDone());
+		listener[0].modemStatusEventReceived(ModemStatusEvent.STATUS_JOINED_NETWORK);
+		assertTrue(future.get(1, TimeUnit.SECONDS));
+		Mockito.verify(wifiDevice).setParameter("PK", "password".getBytes());
+		Mockito.verify(wifiDevice).removeModemStatusListener(listener[0]);
+		// Only the initial check reads the association indication.
+		Mockito.verify(wifiDevice, Mockito.times(1)).getParameter(PARAMETER_AI);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.WiFiDevice#connectAsync(AccessPoint, String)}.
+	 * 
+	 * <p>Verify that the connection completes with {@code false} if the 
+	 * module does not join the access point within the access point 
+	 * timeout.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testConnectAsyncTimeout() throws Exception {
+		// Setup the resources for the test.
+		Mockito.doNothing().when(wifiDevice).setParameter(Mockito.anyString(), Mockito.any(byte[].class));
+		Mockito.doReturn(new byte[]{0x22}).when(wifiDevice).getParameter(PARAMETER_AI);
+		wifiDevice.setAccessPointTimeout(100);
+		
+		// Call the method under test.
+		XBeeFuture<Boolean> future = wifiDevice.connectAsync(ACCESS_POINT, null);
+		
+		// Verify the result.
+		assertFalse(future.get(5, TimeUnit.SECONDS));
+		Mockito.verify(wifiDevice, Mockito.timeout(1000)).removeModemStatusListener(Mockito.any(IModemStatusReceiveListener.class));
+		Mockito.verify(wifiDevice, Mockito.never()).setParameter(Mockito.eq("PK"), Mockito.any(byte[].class));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.WiFiDevice#disconnectAsync()}.
+	 * 
+	 * <p>Verify that the disconnection completes immediately if the module 
+	 * is already disconnected.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testDisconnectAsyncAlreadyDisconnected() throws Exception {
+		// Setup the resources for the test.
+		Mockito.doNothing().when(wifiDevice).executeParameter("NR");
+		Mockito.doReturn(new byte[]{0x23}).when(wifiDevice).getParameter(PARAMETER_AI);
+		
+		// Call the method under test.
+		XBeeFuture<Boolean> future = wifiDevice.disconnectAsync();
+		
+		// Verify the result.
+		assertTrue(future.isDone());
+		assertTrue(future.get());
+		assertTrue(wifiDevice.disconnect());
+	}
 }
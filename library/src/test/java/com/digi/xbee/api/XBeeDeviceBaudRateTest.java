@@ -0,0 +1,249 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import com.digi.xbee.api.connection.IConnectionInterface;
+import com.digi.xbee.api.connection.serial.SerialPortParameters;
+import com.digi.xbee.api.connection.serial.SerialPortRxTx;
+import com.digi.xbee.api.exceptions.ATCommandException;
+import com.digi.xbee.api.exceptions.InvalidConfigurationException;
+import com.digi.xbee.api.exceptions.OperationNotSupportedException;
+import com.digi.xbee.api.exceptions.TimeoutException;
+import com.digi.xbee.api.models.ATCommandStatus;
+import com.digi.xbee.api.utils.ByteUtils;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({XBeeDevice.class})
+public class XBeeDeviceBaudRateTest {
+	
+	// Constants.
+	private static final int[] BAUD_RATES = new int[] {1200, 2400, 4800, 9600, 19200, 
+			38400, 57600, 115200, 230400, 460800, 921600};
+	
+	private static final String PARAMETER_BD = "BD";
+	
+	// Variables.
+	private SerialPortRxTx port;
+	private XBeeDevice xbeeDevice;
+	
+	// Simulated state of the host port and the module.
+	private int hostRate = 9600;
+	private int hostMax = Integer.MAX_VALUE;
+	private int moduleBD = 3;
+	private int moduleMax = 921600;
+	private int readMax = Integer.MAX_VALUE;
+	
+	@Before
+	public void setup() throws Exception {
+		port = Mockito.mock(SerialPortRxTx.class);
+		Mockito.when(port.isOpen()).thenReturn(true);
+		Mockito.doAnswer(new Answer<SerialPortParameters>() {
+			public SerialPortParameters answer(InvocationOnMock invocation) throws Exception {
+				return new SerialPortParameters(hostRate, 8, 1, 0, 0);
+			}
+		}).when(port).getPortParameters();
+		Mockito.doAnswer(new Answer<Object>() {
+			public Object answer(InvocationOnMock invocation) throws Exception {
+				int rate = (Integer)invocation.getArguments()[0];
+				if (rate > hostMax)
+					throw new InvalidConfigurationException("Unsupported baud rate.");
+				hostRate = rate;
+				return null;
+			}
+		}).when(port).setPortParameters(Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt(), 
+				Mockito.anyInt(), Mockito.anyInt());
+		
+		xbeeDevice = PowerMockito.spy(new XBeeDevice(port));
+		
+		// The module only answers if both sides use the same rate and the 
+		// answers at that rate are not corrupted.
+		Mockito.doAnswer(new Answer<byte[]>() {
+			public byte[] answer(InvocationOnMock invocation) throws Exception {
+				if (hostRate != getModuleRate() || hostRate > readMax)
+					throw new TimeoutException();
+				return ByteUtils.intToByteArray(moduleBD);
+			}
+		}).when(xbeeDevice).getParameter(PARAMETER_BD);
+		Mockito.doAnswer(new Answer<Object>() {
+			public Object answer(InvocationOnMock invocation) throws Exception {
+				if (hostRate != getModuleRate())
+					throw new TimeoutException();
+				int bd = ByteUtils.byteArrayToInt((byte[])invocation.getArguments()[1]);
+				if (bd < BAUD_RATES.length && BAUD_RATES[bd] > moduleMax)
+					throw new ATCommandException(ATCommandStatus.ERROR);
+				moduleBD = bd;
+				return null;
+			}
+		}).when(xbeeDevice).setParameter(Mockito.eq(PARAMETER_BD), Mockito.any(byte[].class));
+		Mockito.doNothing().when(xbeeDevice).writeChanges();
+		Mockito.doNothing().when(xbeeDevice).applyChanges();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#negotiateBaudRate(int, boolean)}.
+	 * 
+	 * <p>Verify that the rates not supported by the host port are skipped 
+	 * without changing the module.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testNegotiateHostLimit() throws Exception {
+		// Setup the resources for the test.
+		hostMax = 230400;
+		
+		// Call the method under test.
+		int rate = xbeeDevice.negotiateBaudRate(921600, false);
+		
+		// Verify the result.
+		assertEquals(230400, rate);
+		assertEquals(230400, hostRate);
+		assertEquals(8, moduleBD);
+		Mockito.verify(xbeeDevice, Mockito.times(1)).setParameter(Mockito.eq(PARAMETER_BD), Mockito.any(byte[].class));
+		Mockito.verify(xbeeDevice, Mockito.never()).writeChanges();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#negotiateBaudRate(int, boolean)}.
+	 * 
+	 * <p>Verify that the rates rejected by the module are skipped and the 
+	 * negotiated rate is saved if requested.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testNegotiateModuleLimitPersist() throws Exception {
+		// Setup the resources for the test.
+		moduleMax = 115200;
+		
+		// Call the method under test.
+		int rate = xbeeDevice.negotiateBaudRate(921600, true);
+		
+		// Verify the result.
+		assertEquals(115200, rate);
+		assertEquals(115200, hostRate);
+		assertEquals(7, moduleBD);
+		Mockito.verify(xbeeDevice, Mockito.times(1)).writeChanges();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#negotiateBaudRate(int, boolean)}.
+	 * 
+	 * <p>Verify that a rate that cannot be verified is rolled back in both 
+	 * sides before trying the next one.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testNegotiateRollback() throws Exception {
+		// Setup the resources for the test.
+		readMax = 115200;
+		
+		// Call the method under test.
+		int rate = xbeeDevice.negotiateBaudRate(230400, false);
+		
+		// Verify the result.
+		assertEquals(115200, rate);
+		assertEquals(115200, hostRate);
+		assertEquals(7, moduleBD);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#negotiateBaudRate(int, boolean)}.
+	 * 
+	 * <p>Verify that a module configured with a non-standard rate is 
+	 * restored with its original {@code BD} value, and that the changes are 
+	 * applied in the roll back if they are not applied automatically.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testNegotiateRollbackNonStandardRate() throws Exception {
+		// Setup the resources for the test.
+		hostRate = 100000;
+		moduleBD = 100000;
+		readMax = 100000;
+		Mockito.doReturn(false).when(xbeeDevice).isApplyConfigurationChangesEnabled();
+		
+		// Call the method under test.
+		int rate = xbeeDevice.negotiateBaudRate(230400, false);
+		
+		// Verify the result.
+		assertEquals(100000, rate);
+		assertEquals(100000, hostRate);
+		assertEquals(100000, moduleBD);
+		Mockito.verify(xbeeDevice, Mockito.times(2)).setParameter(PARAMETER_BD, ByteUtils.intToByteArray(100000));
+		Mockito.verify(xbeeDevice, Mockito.times(4)).applyChanges();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#negotiateBaudRate(int, boolean)}.
+	 * 
+	 * <p>Verify that the original rate is kept if there is no higher rate 
+	 * to try.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testNegotiateNoHigherRate() throws Exception {
+		// Call the method under test.
+		int rate = xbeeDevice.negotiateBaudRate(9600, false);
+		
+		// Verify the result.
+		assertEquals(9600, rate);
+		assertEquals(9600, hostRate);
+		Mockito.verify(xbeeDevice, Mockito.never()).setParameter(Mockito.eq(PARAMETER_BD), Mockito.any(byte[].class));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#negotiateBaudRate(int, boolean)}.
+	 * 
+	 * <p>Verify that the baud rate cannot be negotiated if the device is not 
+	 * connected through a serial port.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test(expected=OperationNotSupportedException.class)
+	public void testNegotiateNotSerial() throws Exception {
+		// Setup the resources for the test.
+		IConnectionInterface connectionInterface = Mockito.mock(IConnectionInterface.class);
+		Mockito.when(connectionInterface.isOpen()).thenReturn(true);
+		XBeeDevice device = new XBeeDevice(connectionInterface);
+		
+		// Call the method under test.
+		device.negotiateBaudRate(115200, false);
+	}
+	
+	/**
+	 * Returns the baud rate of the simulated module, its {@code BD} value 
+	 * is an index of the standard rates or a non-standard rate.
+	 */
+	private int getModuleRate() {
+		return moduleBD < BAUD_RATES.length ? BAUD_RATES[moduleBD] : moduleBD;
+	}
+}
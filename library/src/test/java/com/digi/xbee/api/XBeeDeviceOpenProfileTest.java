@@ -0,0 +1,239 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import com.digi.xbee.api.connection.serial.SerialPortRxTx;
+import com.digi.xbee.api.listeners.IPacketReceiveListener;
+import com.digi.xbee.api.models.ATCommandStatus;
+import com.digi.xbee.api.models.DeviceProfile;
+import com.digi.xbee.api.models.HardwareVersion;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeeProtocol;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.common.ATCommandPacket;
+import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({XBeeDevice.class})
+public class XBeeDeviceOpenProfileTest {
+	
+	// Constants.
+	private static final XBee64BitAddress ADDRESS_64 = new XBee64BitAddress("0013A20040A6A0DB");
+	private static final XBee16BitAddress ADDRESS_16 = new XBee16BitAddress("1234");
+	
+	private static final String FIRMWARE_VERSION = "4060";
+	
+	// Variables.
+	private SerialPortRxTx connectionInterface;
+	private XBeeDevice xbeeDevice;
+	private DataReader dataReader;
+	
+	private IPacketReceiveListener packetListener;
+	
+	private Map<String, byte[]> answers = new HashMap<String, byte[]>();
+	
+	private DeviceProfile profile;
+	
+	@Before
+	public void setup() throws Exception {
+		connectionInterface = Mockito.mock(SerialPortRxTx.class);
+		Mockito.doAnswer(new Answer<Object>() {
+			public Object answer(InvocationOnMock invocation) throws Exception {
+				Mockito.when(connectionInterface.isOpen()).thenReturn(true);
+				return null;
+			}
+		}).when(connectionInterface).open();
+		
+		dataReader = Mockito.mock(DataReader.class);
+		// Keep the packet listener registered by the device.
+		Mockito.doAnswer(new Answer<Object>() {
+			public Object answer(InvocationOnMock invocation) throws Exception {
+				packetListener = (IPacketReceiveListener)invocation.getArguments()[0];
+				return null;
+			}
+		}).when(dataReader).addPacketReceiveListener(Mockito.any(IPacketReceiveListener.class));
+		PowerMockito.whenNew(DataReader.class).withAnyArguments().thenReturn(dataReader);
+		
+		xbeeDevice = PowerMockito.spy(new XBeeDevice(connectionInterface));
+		xbeeDevice.setReceiveTimeout(500);
+		Mockito.doNothing().when(xbeeDevice).readDeviceInfo();
+		Mockito.doReturn(OperatingMode.API).when(xbeeDevice).determineOperatingMode();
+		
+		// Answer every AT command sent with the configured values.
+		Mockito.doAnswer(new Answer<Object>() {
+			public Object answer(InvocationOnMock invocation) throws Exception {
+				ATCommandPacket packet = (ATCommandPacket)invocation.getArguments()[0];
+				byte[] value = answers.get(packet.getCommand());
+				if (value != null)
+					packetListener.packetReceived(new ATCommandResponsePacket(packet.getFrameID(), 
+							ATCommandStatus.OK, packet.getCommand(), value));
+				return null;
+			}
+		}).when(xbeeDevice).sendPacketAsync(Mockito.any(XBeePacket.class));
+		
+		answers.put("AP", new byte[]{0x01});
+		answers.put("SH", new byte[]{0x00, 0x13, (byte)0xA2, 0x00});
+		answers.put("SL", new byte[]{0x40, (byte)0xA6, (byte)0xA0, (byte)0xDB});
+		answers.put("VR", new byte[]{0x40, 0x60});
+		answers.put("NI", "NODE".getBytes());
+		answers.put("MY", new byte[]{0x56, 0x78});
+		
+		profile = new DeviceProfile(OperatingMode.API, ADDRESS_64, HardwareVersion.get(0x1E), 
+				FIRMWARE_VERSION, XBeeProtocol.ZIGBEE, ADDRESS_16, "OLD");
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#open()}.
+	 * 
+	 * <p>Verify that when the device matches the configured profile the 
+	 * operating mode is not determined and the device information is taken 
+	 * from the profile.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testOpenProfileMatches() throws Exception {
+		// Setup the resources for the test.
+		xbeeDevice.setDeviceProfile(profile);
+		
+		// Call the method under test.
+		xbeeDevice.open();
+		
+		// Verify the result.
+		Mockito.verify(xbeeDevice, Mockito.never()).determineOperatingMode();
+		Mockito.verify(xbeeDevice, Mockito.never()).readDeviceInfo();
+		Mockito.verify(xbeeDevice, Mockito.times(1)).readDeviceSpecificInfo();
+		Mockito.verify(xbeeDevice, Mockito.times(6)).sendPacketAsync(Mockito.any(XBeePacket.class));
+		Mockito.verify(dataReader).removePacketReceiveListener(packetListener);
+		
+		assertEquals(OperatingMode.API, xbeeDevice.getOperatingMode());
+		assertEquals(ADDRESS_64, xbeeDevice.get64BitAddress());
+		assertEquals(XBeeProtocol.ZIGBEE, xbeeDevice.getXBeeProtocol());
+		assertEquals(FIRMWARE_VERSION, xbeeDevice.getFirmwareVersion());
+		assertEquals(0x1E, xbeeDevice.getHardwareVersion().getValue());
+		// Node ID and 16-bit address are read again.
+		assertEquals("NODE", xbeeDevice.getNodeID());
+		assertEquals(new XBee16BitAddress("5678"), xbeeDevice.get16BitAddress());
+		
+		// The profile is updated with the new values.
+		DeviceProfile newProfile = xbeeDevice.getDeviceProfile();
+		assertEquals("NODE", newProfile.getNodeID());
+		assertEquals(new XBee16BitAddress("5678"), newProfile.get16BitAddress());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#open()}.
+	 * 
+	 * <p>Verify that when the device does not match the configured profile 
+	 * the complete detection is performed.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testOpenProfileMismatch() throws Exception {
+		// Setup the resources for the test.
+		answers.put("VR", new byte[]{0x40, 0x61});
+		xbeeDevice.setDeviceProfile(profile);
+		
+		// Call the method under test.
+		xbeeDevice.open();
+		
+		// Verify the result.
+		Mockito.verify(xbeeDevice, Mockito.times(1)).determineOperatingMode();
+		Mockito.verify(xbeeDevice, Mockito.times(1)).readDeviceInfo();
+		assertEquals(OperatingMode.API, xbeeDevice.getOperatingMode());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#open()}.
+	 * 
+	 * <p>Verify that a device in an operating mode other than API or API 
+	 * escaped does not match a profile in API escaped mode.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testOpenProfileOtherOperatingMode() throws Exception {
+		// Setup the resources for the test.
+		answers.put("AP", new byte[]{(byte)OperatingMode.AT.getID()});
+		xbeeDevice.setDeviceProfile(new DeviceProfile(OperatingMode.API_ESCAPE, ADDRESS_64, 
+				HardwareVersion.get(0x1E), FIRMWARE_VERSION, XBeeProtocol.ZIGBEE, ADDRESS_16, "OLD"));
+		
+		// Call the method under test.
+		xbeeDevice.open();
+		
+		// Verify the result.
+		Mockito.verify(xbeeDevice, Mockito.times(1)).determineOperatingMode();
+		Mockito.verify(xbeeDevice, Mockito.times(1)).readDeviceInfo();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#open()}.
+	 * 
+	 * <p>Verify that when the device does not answer to the verification 
+	 * the complete detection is performed.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testOpenProfileNoAnswer() throws Exception {
+		// Setup the resources for the test.
+		answers.remove("AP");
+		xbeeDevice.setDeviceProfile(profile);
+		
+		// Call the method under test.
+		xbeeDevice.open();
+		
+		// Verify the result.
+		Mockito.verify(xbeeDevice, Mockito.times(1)).determineOperatingMode();
+		Mockito.verify(xbeeDevice, Mockito.times(1)).readDeviceInfo();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#open()}.
+	 * 
+	 * <p>Verify that the profile is not verified if it is not configured.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testOpenNoProfile() throws Exception {
+		// Call the method under test.
+		xbeeDevice.open();
+		
+		// Verify the result.
+		Mockito.verify(xbeeDevice, Mockito.never()).sendPacketAsync(Mockito.any(XBeePacket.class));
+		Mockito.verify(xbeeDevice, Mockito.times(1)).readDeviceInfo();
+		assertNull(xbeeDevice.getDeviceProfile());
+	}
+}
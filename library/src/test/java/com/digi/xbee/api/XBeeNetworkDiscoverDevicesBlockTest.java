@@ -34,6 +34,7 @@ import org.powermock.modules.junit4.PowerMockRunner;
 
 import com.digi.xbee.api.connection.IConnectionInterface;
 import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.listeners.IDiscoveryListener;
 import com.digi.xbee.api.models.XBee16BitAddress;
 import com.digi.xbee.api.models.XBee64BitAddress;
 
@@ -178,4 +179,29 @@ public class XBeeNetworkDiscoverDevicesBlockTest {
 		assertThat("Not expected 16-bit address in found device", d.get16BitAddress(), is(equalTo(idFoundDevice.get16BitAddress())));
 		assertThat("Not expected id in found device", d.getNodeID(), is(equalTo(idFoundDevice.getNodeID())));
 	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#discoverDevices(List, boolean, IDiscoveryListener)}.
+	 * 
+	 * @throws XBeeException 
+	 */
+	@Test
+	public final void testDiscoverDevicesTargeted() throws XBeeException {
+		// Setup the resources for the test.
+		List<String> list = new ArrayList<String>();
+		list.add("id");
+		IDiscoveryListener listener = Mockito.mock(IDiscoveryListener.class);
+		List<RemoteXBeeDevice> idFoundDevices = new ArrayList<RemoteXBeeDevice>();
+		idFoundDevices.add(idFoundDevice);
+		PowerMockito.when(ndMock.discoverDevices(list, true, listener)).thenReturn(idFoundDevices);
+		
+		// Call the method under test.
+		List<RemoteXBeeDevice> found = network.discoverDevices(list, true, listener);
+		
+		// Verify the result.
+		Mockito.verify(ndMock, Mockito.times(1)).discoverDevices(list, true, listener);
+		Mockito.verify(ndMock, Mockito.never()).discoverDevices(list);
+		
+		assertThat("Found device list must have one device", found.size(), is(equalTo(1)));
+	}
 }
@@ -0,0 +1,246 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection.capture;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.digi.xbee.api.models.ATCommandStatus;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeeDiscoveryStatus;
+import com.digi.xbee.api.models.XBeeTransmitStatus;
+import com.digi.xbee.api.packet.APIFrameType;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.common.ATCommandPacket;
+import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
+import com.digi.xbee.api.packet.common.ReceivePacket;
+import com.digi.xbee.api.packet.common.TransmitPacket;
+import com.digi.xbee.api.packet.common.TransmitStatusPacket;
+
+public class CaptureAnalyzerTest {
+	
+	// Constants.
+	private static final int FRAMES = 2000;
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.capture.CaptureAnalyzer#analyzeRaw(File, OperatingMode)}.
+	 * 
+	 * <p>Verify that a raw capture in API mode split in several chunks is 
+	 * analyzed without losing or duplicating frames, even when the data 
+	 * contains start delimiters, and that checksum errors are located.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testAnalyzeRawAPI() throws Exception {
+		// Setup the resources for the test.
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		long errorPosition = -1;
+		for (int i = 0; i < FRAMES; i++) {
+			byte[] frame = createReceivePacket(i).generateByteArray();
+			if (i == 500) {
+				errorPosition = stream.size();
+				frame[frame.length - 1]++;
+			}
+			stream.write(frame);
+		}
+		File file = writeFile(stream.toByteArray());
+		CaptureAnalyzer analyzer = new CaptureAnalyzer();
+		analyzer.setChunkSize(1024);
+		analyzer.setParallelism(4);
+		
+		// Call the method under test.
+		CaptureAnalysis analysis = analyzer.analyzeRaw(file, OperatingMode.API);
+		
+		// Verify the result.
+		assertThat(analysis.getFrameCount(), is(equalTo((long)FRAMES - 1)));
+		assertThat(analysis.getFrameCount(APIFrameType.RECEIVE_PACKET), is(equalTo((long)FRAMES - 1)));
+		assertThat(analysis.getInvalidFrames(), is(equalTo(0L)));
+		assertThat(analysis.getChecksumErrors(), is(equalTo(1L)));
+		assertThat(analysis.getChecksumErrorPositions(), is(equalTo(Arrays.asList(errorPosition))));
+		assertThat(analysis.getSourceStatistics().size(), is(equalTo(10)));
+		assertThat(analysis.getTransmitLatency().getTotalCount(), is(equalTo(0L)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.capture.CaptureAnalyzer#analyzeRaw(File, OperatingMode)}.
+	 * 
+	 * <p>Verify that a raw capture in API escaped mode with truncated frames 
+	 * is resynchronized in the next start delimiter.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testAnalyzeRawEscaped() throws Exception {
+		// Setup the resources for the test.
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		for (int i = 0; i < FRAMES; i++) {
+			byte[] frame = createReceivePacket(i).generateByteArrayEscaped();
+			stream.write(frame, 0, i % 100 == 99 ? frame.length / 2 : frame.length);
+		}
+		File file = writeFile(stream.toByteArray());
+		CaptureAnalyzer analyzer = new CaptureAnalyzer();
+		analyzer.setChunkSize(1024);
+		
+		// Call the method under test.
+		CaptureAnalysis analysis = analyzer.analyzeRaw(file, OperatingMode.API_ESCAPE);
+		
+		// Verify the result.
+		assertThat(analysis.getFrameCount(), is(equalTo((long)FRAMES - FRAMES / 100)));
+		assertThat(analysis.getInvalidFrames(), is(equalTo((long)FRAMES / 100)));
+		assertThat(analysis.getChecksumErrors(), is(equalTo(0L)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.capture.CaptureAnalyzer#analyze(File)}.
+	 * 
+	 * <p>Verify that the requests and responses of a timestamped capture are 
+	 * matched even when they are analyzed in different chunks.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testAnalyzeCaptureLatency() throws Exception {
+		// Setup the resources for the test.
+		File file = folder.newFile("capture.xbc");
+		CaptureFileWriter writer = new CaptureFileWriter(file, OperatingMode.API_ESCAPE);
+		long millis = 1000000;
+		for (int i = 0; i < FRAMES; i++) {
+			int frameID = i % 255 + 1;
+			append(writer, i * millis, FrameDirection.TO_DEVICE, new TransmitPacket(frameID, 
+					XBee64BitAddress.BROADCAST_ADDRESS, XBee16BitAddress.UNKNOWN_ADDRESS, 0, 0, new byte[] {0x7E, 0x7D}));
+			append(writer, i * millis + 1, FrameDirection.TO_DEVICE, new ATCommandPacket(frameID, "NI", ""));
+			if (i > 0) {
+				// Answer the previous requests.
+				int previous = (i - 1) % 255 + 1;
+				append(writer, i * millis + 2, FrameDirection.FROM_DEVICE, new TransmitStatusPacket(previous, 
+						XBee16BitAddress.UNKNOWN_ADDRESS, 0, i % 10 == 0 ? XBeeTransmitStatus.NETWORK_ACK_FAILURE : XBeeTransmitStatus.SUCCESS, 
+						XBeeDiscoveryStatus.DISCOVERY_STATUS_NO_DISCOVERY_OVERHEAD));
+				append(writer, i * millis + 3, FrameDirection.FROM_DEVICE, new ATCommandResponsePacket(previous, 
+						ATCommandStatus.OK, "NI", new byte[] {0x41}));
+			}
+		}
+		byte[] corrupted = createReceivePacket(0).generateByteArrayEscaped();
+		corrupted[3]++;
+		writer.append(FRAMES * millis, FrameDirection.FROM_DEVICE, corrupted, 0, corrupted.length);
+		writer.close();
+		CaptureAnalyzer analyzer = new CaptureAnalyzer();
+		analyzer.setChunkSize(1024);
+		analyzer.setParallelism(4);
+		
+		// Call the method under test.
+		CaptureAnalysis analysis = analyzer.analyze(file);
+		
+		// Verify the result.
+		assertThat(analysis.getFrameCount(), is(equalTo((long)FRAMES * 4 - 2)));
+		assertThat(analysis.getChecksumErrors(), is(equalTo(1L)));
+		assertThat(analysis.getChecksumErrorPositions(), is(equalTo(Arrays.asList((long)FRAMES * 4 - 2))));
+		assertThat(analysis.getDuration(), is(equalTo((FRAMES - 1) * millis + 3)));
+		assertThat(analysis.getTransmitStatusCounts().get(XBeeTransmitStatus.NETWORK_ACK_FAILURE), is(equalTo((long)FRAMES / 10 - 1)));
+		assertThat(analysis.getTransmitLatency().getTotalCount(), is(equalTo((long)FRAMES - 1)));
+		assertThat(analysis.getTransmitLatency().getPercentile(50), is(equalTo(1000L)));
+		assertThat(analysis.getATCommandLatency().getTotalCount(), is(equalTo((long)FRAMES - 1)));
+		assertThat(analysis.getATCommandLatency().getMax(), is(equalTo(1000L)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.capture.CaptureAnalyzer#analyze(CaptureFileReader)}.
+	 * 
+	 * <p>Verify that a capture read in small windows, whose chunks start at 
+	 * offsets that do not fit in the windows, is analyzed like the whole 
+	 * capture.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testAnalyzeCaptureSmallWindows() throws Exception {
+		// Setup the resources for the test.
+		File file = folder.newFile("capture.xbc");
+		CaptureFileWriter writer = new CaptureFileWriter(file, OperatingMode.API);
+		for (int i = 0; i < FRAMES; i++) {
+			byte[] frame = createReceivePacket(i).generateByteArray();
+			if (i == 1500)
+				frame[frame.length - 1]++;
+			writer.append(i * 1000L, FrameDirection.FROM_DEVICE, frame, 0, frame.length);
+		}
+		writer.close();
+		CaptureAnalyzer analyzer = new CaptureAnalyzer();
+		analyzer.setChunkSize(1024);
+		analyzer.setParallelism(4);
+		CaptureFileReader reader = new CaptureFileReader(file, 100);
+		
+		// Call the method under test.
+		CaptureAnalysis analysis;
+		try {
+			analysis = analyzer.analyze(reader);
+		} finally {
+			reader.close();
+		}
+		
+		// Verify the result.
+		assertThat(analysis.getFrameCount(), is(equalTo((long)FRAMES - 1)));
+		assertThat(analysis.getInvalidFrames(), is(equalTo(0L)));
+		assertThat(analysis.getChecksumErrorPositions(), is(equalTo(Arrays.asList(1500L))));
+		assertThat(analysis.getSourceStatistics().size(), is(equalTo(10)));
+		assertThat(analysis.getDuration(), is(equalTo((FRAMES - 1) * 1000L)));
+	}
+	
+	/**
+	 * Creates a receive packet whose data contains special bytes.
+	 */
+	private static XBeePacket createReceivePacket(int index) {
+		return new ReceivePacket(new XBee64BitAddress("0013A2004000000" + (index % 10)), 
+				XBee16BitAddress.UNKNOWN_ADDRESS, 0, new byte[] {0x7E, (byte)index, 0x7D, 0x11, 0x13, (byte)(index >> 8)});
+	}
+	
+	/**
+	 * Appends the given packet to the capture as it is sent in API escaped mode.
+	 */
+	private static void append(CaptureFileWriter writer, long timestamp, FrameDirection direction, 
+			XBeePacket packet) throws Exception {
+		byte[] frame = packet.generateByteArrayEscaped();
+		writer.append(timestamp, direction, frame, 0, frame.length);
+	}
+	
+	/**
+	 * Writes the given raw capture into a temporary file.
+	 */
+	private File writeFile(byte[] data) throws Exception {
+		File file = folder.newFile("capture.bin");
+		FileOutputStream output = new FileOutputStream(file);
+		try {
+			output.write(data);
+		} finally {
+			output.close();
+		}
+		return file;
+	}
+}
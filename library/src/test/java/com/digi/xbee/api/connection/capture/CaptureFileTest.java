@@ -0,0 +1,190 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection.capture;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.digi.xbee.api.models.ATCommandStatus;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
+
+public class CaptureFileTest {
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.capture.CaptureFileReader#getFrame(int)}.
+	 * 
+	 * <p>Verify that the frames written to a capture are read back in order 
+	 * with their direction and timestamp.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testWriteAndReadFrames() throws Exception {
+		// Setup the resources for the test.
+		File file = folder.newFile("capture.xbc");
+		CaptureFileWriter writer = new CaptureFileWriter(file, OperatingMode.API_ESCAPE);
+		for (int i = 0; i < 1000; i++) {
+			byte[] data = new byte[] {0x7E, 0, 1, (byte)i, (byte)~i};
+			writer.append(i * 10L, i % 2 == 0 ? FrameDirection.FROM_DEVICE : FrameDirection.TO_DEVICE, data, 0, data.length);
+		}
+		writer.close();
+		
+		// Call the method under test.
+		CaptureFileReader reader = new CaptureFileReader(file);
+		
+		// Verify the result.
+		assertThat(reader.getOperatingMode(), is(equalTo(OperatingMode.API_ESCAPE)));
+		assertThat(reader.getFrameCount(), is(equalTo(1000)));
+		for (int i = 0; i < 1000; i++) {
+			CapturedFrame frame = reader.getFrame(i);
+			assertThat(frame.getTimestamp(), is(equalTo(i * 10L)));
+			assertThat(reader.getTimestamp(i), is(equalTo(i * 10L)));
+			assertThat(frame.getDirection(), is(equalTo(i % 2 == 0 ? FrameDirection.FROM_DEVICE : FrameDirection.TO_DEVICE)));
+			assertThat(frame.getData(), is(equalTo(new byte[] {0x7E, 0, 1, (byte)i, (byte)~i})));
+		}
+		reader.close();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.capture.CaptureFileReader#CaptureFileReader(File)}.
+	 * 
+	 * <p>Verify that a capture without index file can still be read.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testReadWithoutIndex() throws Exception {
+		// Setup the resources for the test.
+		File file = folder.newFile("capture.xbc");
+		CaptureFileWriter writer = new CaptureFileWriter(file, OperatingMode.API);
+		byte[] data = new byte[] {1, 2, 3};
+		writer.append(FrameDirection.FROM_DEVICE, data, 0, data.length);
+		writer.append(FrameDirection.TO_DEVICE, data, 1, 2);
+		writer.close();
+		assertThat(new File(file.getPath() + CaptureFileWriter.INDEX_EXTENSION).delete(), is(equalTo(true)));
+		
+		// Call the method under test.
+		CaptureFileReader reader = new CaptureFileReader(file);
+		
+		// Verify the result.
+		assertThat(reader.getOperatingMode(), is(equalTo(OperatingMode.API)));
+		assertThat(reader.getFrameCount(), is(equalTo(2)));
+		assertThat(reader.getFrame(0).getData(), is(equalTo(new byte[] {1, 2, 3})));
+		assertThat(reader.getFrame(1).getData(), is(equalTo(new byte[] {2, 3})));
+		reader.close();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.capture.CaptureFileReader#getFrame(int)}.
+	 * 
+	 * <p>Verify that frames are read when the data and index files are mapped 
+	 * in several windows and the records cross their boundaries.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testReadWithSmallWindows() throws Exception {
+		// Setup the resources for the test.
+		File file = folder.newFile("capture.xbc");
+		CaptureFileWriter writer = new CaptureFileWriter(file, OperatingMode.API);
+		for (int i = 0; i < 100; i++) {
+			byte[] data = new byte[i % 40];
+			for (int j = 0; j < data.length; j++)
+				data[j] = (byte)(i + j);
+			writer.append(i * 10L, FrameDirection.FROM_DEVICE, data, 0, data.length);
+		}
+		writer.close();
+		
+		// Call the method under test.
+		CaptureFileReader reader = new CaptureFileReader(file, 7);
+		
+		// Verify the result.
+		assertThat(reader.getFrameCount(), is(equalTo(100)));
+		for (int i = 0; i < 100; i++) {
+			CapturedFrame frame = reader.getFrame(i);
+			assertThat(frame.getTimestamp(), is(equalTo(i * 10L)));
+			assertThat(frame.getData().length, is(equalTo(i % 40)));
+			for (int j = 0; j < frame.getData().length; j++)
+				assertThat(frame.getData()[j], is(equalTo((byte)(i + j))));
+		}
+		reader.close();
+		
+		// The offsets calculated without index must be the same.
+		assertThat(new File(file.getPath() + CaptureFileWriter.INDEX_EXTENSION).delete(), is(equalTo(true)));
+		CaptureFileReader scanned = new CaptureFileReader(file, 7);
+		assertThat(scanned.getFrameCount(), is(equalTo(100)));
+		assertThat(scanned.getFrame(99).getData().length, is(equalTo(99 % 40)));
+		assertThat(scanned.getTimestamp(99), is(equalTo(990L)));
+		scanned.close();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.capture.ApiFrameSplitter#feed(byte[], int, int)}.
+	 * 
+	 * <p>Verify that frames split across several reads are reassembled.</p>
+	 */
+	@Test
+	public final void testSplitFrames() {
+		// Setup the resources for the test.
+		byte[] frame1 = new ATCommandResponsePacket(1, ATCommandStatus.OK, "NI", new byte[] {0x41}).generateByteArray();
+		byte[] frame2 = new ATCommandResponsePacket(2, ATCommandStatus.OK, "SH", new byte[] {0x00, 0x13}).generateByteArray();
+		byte[] stream = new byte[frame1.length + frame2.length];
+		System.arraycopy(frame1, 0, stream, 0, frame1.length);
+		System.arraycopy(frame2, 0, stream, frame1.length, frame2.length);
+		ApiFrameSplitter splitter = new ApiFrameSplitter(false);
+		
+		// Call the method under test.
+		List<byte[]> first = splitter.feed(stream, 0, 4);
+		List<byte[]> rest = splitter.feed(stream, 4, stream.length - 4);
+		
+		// Verify the result.
+		assertThat(first.size(), is(equalTo(0)));
+		assertThat(rest.size(), is(equalTo(2)));
+		assertThat(rest.get(0), is(equalTo(frame1)));
+		assertThat(rest.get(1), is(equalTo(frame2)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.capture.ApiFrameSplitter#feed(byte[], int, int)}.
+	 * 
+	 * <p>Verify that escaped frames are split using their decoded length.</p>
+	 */
+	@Test
+	public final void testSplitEscapedFrames() {
+		// Setup the resources for the test.
+		byte[] frame = new ATCommandResponsePacket(0x7E, ATCommandStatus.OK, "NI", new byte[] {0x11, 0x13, 0x7D}).generateByteArrayEscaped();
+		ApiFrameSplitter splitter = new ApiFrameSplitter(true);
+		
+		// Call the method under test.
+		List<byte[]> frames = splitter.feed(frame, 0, frame.length);
+		
+		// Verify the result.
+		assertThat(frames.size(), is(equalTo(1)));
+		assertThat(frames.get(0), is(equalTo(frame)));
+	}
+}
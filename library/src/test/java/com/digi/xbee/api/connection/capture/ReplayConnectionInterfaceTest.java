@@ -0,0 +1,230 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection.capture;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.InputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import com.digi.xbee.api.models.ATCommandStatus;
+import com.digi.xbee.api.models.SpecialByte;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.XBeePacketParser;
+import com.digi.xbee.api.packet.common.ATCommandPacket;
+import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
+import com.digi.xbee.api.packet.common.ReceivePacket;
+
+public class ReplayConnectionInterfaceTest {
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+	
+	// Variables.
+	private ReplayConnectionInterface replay;
+	
+	private byte[][] receivedFrames = new byte[10][];
+	
+	@Before
+	public void setUp() throws Exception {
+		File file = folder.newFile("capture.xbc");
+		CaptureFileWriter writer = new CaptureFileWriter(file, OperatingMode.API);
+		byte[] request = new ATCommandPacket(1, "NI", "").generateByteArray();
+		writer.append(0, FrameDirection.TO_DEVICE, request, 0, request.length);
+		byte[] response = new ATCommandResponsePacket(1, ATCommandStatus.OK, "NI", "NODE".getBytes()).generateByteArray();
+		writer.append(1000, FrameDirection.FROM_DEVICE, response, 0, response.length);
+		for (int i = 0; i < receivedFrames.length; i++) {
+			receivedFrames[i] = new ReceivePacket(new XBee64BitAddress("0013A20040A6A0DB"), XBee16BitAddress.UNKNOWN_ADDRESS, 
+					0, new byte[] {(byte)i}).generateByteArray();
+			writer.append(2000 + i * 1000000L, FrameDirection.FROM_DEVICE, receivedFrames[i], 0, receivedFrames[i].length);
+		}
+		writer.close();
+		
+		replay = new ReplayConnectionInterface(file);
+	}
+	
+	@After
+	public void tearDown() {
+		replay.close();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.capture.ReplayConnectionInterface#writeData(byte[])}.
+	 * 
+	 * <p>Verify that a recorded AT command is answered with the recorded 
+	 * value and the frame ID of the request.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testAnswerRecordedATCommand() throws Exception {
+		// Setup the resources for the test.
+		replay.open();
+		
+		// Call the method under test.
+		replay.writeData(new ATCommandPacket(7, "NI", "").generateByteArray());
+		
+		// Verify the result.
+		ATCommandResponsePacket response = (ATCommandResponsePacket)readPacket();
+		assertThat(response.getFrameID(), is(equalTo(7)));
+		assertThat(response.getStatus(), is(equalTo(ATCommandStatus.OK)));
+		assertThat(response.getCommandValue(), is(equalTo("NODE".getBytes())));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.capture.ReplayConnectionInterface#writeData(byte[])}.
+	 * 
+	 * <p>Verify that an AT command not present in the capture is answered 
+	 * with an error.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testAnswerUnknownATCommand() throws Exception {
+		// Setup the resources for the test.
+		replay.open();
+		
+		// Call the method under test.
+		replay.writeData(new ATCommandPacket(3, "SH", "").generateByteArray());
+		
+		// Verify the result.
+		ATCommandResponsePacket response = (ATCommandResponsePacket)readPacket();
+		assertThat(response.getFrameID(), is(equalTo(3)));
+		assertThat(response.getStatus(), is(equalTo(ATCommandStatus.ERROR)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.capture.ReplayConnectionInterface#startReplay()}.
+	 * 
+	 * <p>Verify that the received frames of the capture are streamed in 
+	 * order, skipping the AT command responses.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testReplayFrames() throws Exception {
+		// Setup the resources for the test.
+		replay.setSpeedFactor(ReplayConnectionInterface.MAXIMUM_SPEED);
+		replay.open();
+		
+		// Call the method under test.
+		replay.startReplay();
+		
+		// Verify the result.
+		for (int i = 0; i < receivedFrames.length; i++) {
+			ReceivePacket packet = (ReceivePacket)readPacket();
+			assertThat(packet.getRFData(), is(equalTo(new byte[] {(byte)i})));
+		}
+		assertThat(replay.waitForReplay(5000), is(equalTo(true)));
+		assertThat(replay.getReplayedFrames(), is(equalTo((long)receivedFrames.length)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.capture.ReplayConnectionInterface#close()}.
+	 * 
+	 * <p>Verify that closing the interface stops the replay before releasing 
+	 * the capture, and that the capture can be replayed again after opening 
+	 * the interface.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testCloseDuringReplay() throws Exception {
+		// Setup the resources for the test.
+		replay.setSpeedFactor(0.001);
+		replay.open();
+		replay.startReplay();
+		
+		// Call the method under test.
+		replay.close();
+		
+		// Verify the result.
+		assertThat(replay.isReplaying(), is(equalTo(false)));
+		assertThat(replay.isOpen(), is(equalTo(false)));
+		
+		replay.setSpeedFactor(ReplayConnectionInterface.MAXIMUM_SPEED);
+		replay.open();
+		replay.startReplay();
+		for (int i = 0; i < receivedFrames.length; i++) {
+			ReceivePacket packet = (ReceivePacket)readPacket();
+			assertThat(packet.getRFData(), is(equalTo(new byte[] {(byte)i})));
+		}
+		assertThat(replay.waitForReplay(5000), is(equalTo(true)));
+		assertThat(replay.getReplayedFrames(), is(equalTo((long)receivedFrames.length)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.capture.ReplayConnectionInterface#startReplay()}.
+	 * 
+	 * <p>Verify that the replay cannot start if the interface is closed.</p>
+	 */
+	@Test
+	public final void testStartReplayClosed() {
+		// Setup the resources for the test.
+		exception.expect(IllegalStateException.class);
+		exception.expectMessage(is(equalTo("The connection interface is closed.")));
+		
+		// Call the method under test.
+		replay.startReplay();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.capture.ReplayConnectionInterface#setSpeedFactor(double)}.
+	 * 
+	 * <p>Verify that the speed factor must be positive.</p>
+	 */
+	@Test
+	public final void testSetSpeedFactorInvalid() {
+		// Setup the resources for the test.
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Speed factor must be greater than 0.")));
+		
+		// Call the method under test.
+		replay.setSpeedFactor(0);
+	}
+	
+	/**
+	 * Reads the next packet delivered by the replay interface.
+	 * 
+	 * @return The read packet.
+	 * 
+	 * @throws Exception
+	 */
+	private XBeePacket readPacket() throws Exception {
+		InputStream inputStream = replay.getInputStream();
+		long deadline = System.currentTimeMillis() + 5000;
+		while (inputStream.available() == 0 && System.currentTimeMillis() < deadline)
+			Thread.sleep(1);
+		// The parser expects the start delimiter to be already consumed.
+		assertThat(inputStream.read(), is(equalTo(SpecialByte.HEADER_BYTE.getValue())));
+		return new XBeePacketParser().parsePacket(inputStream, OperatingMode.API);
+	}
+}
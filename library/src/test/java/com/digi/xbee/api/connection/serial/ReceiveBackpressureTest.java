@@ -0,0 +1,195 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection.serial;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class ReceiveBackpressureTest {
+	
+	// Variables.
+	private AbstractSerialPort port;
+	
+	private ReceiveBackpressure backpressure;
+	
+	private final AtomicInteger occupancy = new AtomicInteger();
+	
+	private final ReceiveBackpressure.IOccupancyProvider provider = new ReceiveBackpressure.IOccupancyProvider() {
+		@Override
+		public int getOccupancy(boolean queueIncluded) {
+			return occupancy.get();
+		}
+	};
+	
+	@Before
+	public void setUp() {
+		port = Mockito.mock(AbstractSerialPort.class);
+		Mockito.when(port.isHardwareFlowControl()).thenReturn(true);
+		
+		backpressure = new ReceiveBackpressure(4, 1, false);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.serial.ReceiveBackpressure#ReceiveBackpressure(int, int, boolean)}.
+	 * 
+	 * <p>Verify that the high watermark must be greater than the low 
+	 * watermark.</p>
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testCreateInvalidWatermarks() {
+		new ReceiveBackpressure(2, 2, false);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.serial.ReceiveBackpressure#update(AbstractSerialPort, ReceiveBackpressure.IOccupancyProvider)}.
+	 * 
+	 * <p>Verify that RTS is deasserted at the high watermark and only 
+	 * asserted again at the low watermark.</p>
+	 */
+	@Test
+	public void testHysteresis() {
+		update(3);
+		assertFalse(backpressure.isPaused());
+		
+		update(4);
+		assertTrue(backpressure.isPaused());
+		Mockito.verify(port, Mockito.times(1)).setRTS(false);
+		
+		// Between the watermarks nothing changes.
+		update(5);
+		update(2);
+		assertTrue(backpressure.isPaused());
+		Mockito.verify(port, Mockito.never()).setRTS(true);
+		
+		update(1);
+		assertFalse(backpressure.isPaused());
+		Mockito.verify(port, Mockito.times(1)).setRTS(true);
+		
+		// Going back down from 1 does not assert RTS again.
+		update(0);
+		Mockito.verify(port, Mockito.times(1)).setRTS(true);
+		assertEquals(1, backpressure.getPauseCount());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.serial.ReceiveBackpressure#update(AbstractSerialPort, ReceiveBackpressure.IOccupancyProvider)}.
+	 * 
+	 * <p>Verify that RTS is not changed if the port does not use hardware 
+	 * flow control.</p>
+	 */
+	@Test
+	public void testNoHardwareFlowControl() {
+		Mockito.when(port.isHardwareFlowControl()).thenReturn(false);
+		
+		update(10);
+		
+		assertFalse(backpressure.isPaused());
+		Mockito.verify(port, Mockito.never()).setRTS(Mockito.anyBoolean());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.serial.ReceiveBackpressure#release(AbstractSerialPort)}.
+	 * 
+	 * <p>Verify that releasing asserts RTS only if it was deasserted.</p>
+	 */
+	@Test
+	public void testRelease() {
+		backpressure.release(port);
+		Mockito.verify(port, Mockito.never()).setRTS(Mockito.anyBoolean());
+		
+		update(4);
+		backpressure.release(port);
+		
+		assertFalse(backpressure.isPaused());
+		Mockito.verify(port, Mockito.times(1)).setRTS(true);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.serial.ReceiveBackpressure#update(AbstractSerialPort, ReceiveBackpressure.IOccupancyProvider)}.
+	 * 
+	 * <p>Verify that an update that read a high occupancy cannot be applied 
+	 * after a concurrent update that read a lower one, leaving RTS 
+	 * deasserted.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testConcurrentUpdates() throws Exception {
+		// Setup the resources for the test.
+		final CountDownLatch reading = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		// Provider that takes a while to return the occupancy it read.
+		final ReceiveBackpressure.IOccupancyProvider slowProvider = new ReceiveBackpressure.IOccupancyProvider() {
+			@Override
+			public int getOccupancy(boolean queueIncluded) {
+				int value = occupancy.get();
+				reading.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return value;
+			}
+		};
+		Thread slowUpdate = new Thread() {
+			@Override
+			public void run() {
+				backpressure.update(port, slowProvider);
+			}
+		};
+		Thread fastUpdate = new Thread() {
+			@Override
+			public void run() {
+				backpressure.update(port, provider);
+			}
+		};
+		occupancy.set(4);
+		
+		// Call the method under test.
+		slowUpdate.start();
+		reading.await();
+		// The occupancy drops while the first update is in progress.
+		occupancy.set(0);
+		fastUpdate.start();
+		while (fastUpdate.getState() != Thread.State.BLOCKED 
+				&& fastUpdate.getState() != Thread.State.TERMINATED)
+			Thread.sleep(1);
+		release.countDown();
+		slowUpdate.join();
+		fastUpdate.join();
+		
+		// Verify the result.
+		assertFalse(backpressure.isPaused());
+		Mockito.verify(port, Mockito.times(1)).setRTS(true);
+	}
+	
+	/**
+	 * Sets the occupancy of the receive pipeline and updates the backpressure.
+	 * 
+	 * @param value The new occupancy.
+	 */
+	private void update(int value) {
+		occupancy.set(value);
+		backpressure.update(port, provider);
+	}
+}
@@ -0,0 +1,192 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection.virtual;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.XBeeDevice;
+import com.digi.xbee.api.XBeeNetwork;
+import com.digi.xbee.api.exceptions.TransmitException;
+import com.digi.xbee.api.io.IOLine;
+import com.digi.xbee.api.io.IOSample;
+import com.digi.xbee.api.listeners.IIOSampleReceiveListener;
+import com.digi.xbee.api.models.XBeeTransmitStatus;
+
+public class VirtualMeshNetworkTest {
+	
+	// Constants.
+	private static final int NODES = 200;
+	
+	// Variables.
+	private VirtualMeshNetwork network;
+	
+	private XBeeDevice device;
+	
+	@Before
+	public void setUp() throws Exception {
+		network = new VirtualMeshNetwork(NODES);
+		network.setMaxHops(3);
+		device = new XBeeDevice(network);
+		device.open();
+	}
+	
+	@After
+	public void tearDown() {
+		if (device.isOpen())
+			device.close();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.virtual.VirtualMeshNetwork#handleATCommand(int, String, byte[])}.
+	 * 
+	 * <p>Verify that the discovery finds all the nodes except the ones with 
+	 * a broken route.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testDiscoverNodes() throws Exception {
+		// Setup the resources for the test.
+		network.setRouteFailed(7, true);
+		XBeeNetwork xbeeNetwork = device.getNetwork();
+		xbeeNetwork.setDiscoveryTimeout(500);
+		
+		// Call the method under test.
+		long start = System.currentTimeMillis();
+		xbeeNetwork.startDiscoveryProcess();
+		while (xbeeNetwork.isDiscoveryRunning() && System.currentTimeMillis() - start < 10000)
+			Thread.sleep(10);
+		
+		// Verify the result.
+		assertThat(xbeeNetwork.getNumberOfDevices(), is(equalTo(NODES - 1)));
+		assertThat(xbeeNetwork.getDevice(network.getNode64BitAddress(7)) == null, is(equalTo(true)));
+		RemoteXBeeDevice remote = xbeeNetwork.getDevice(network.getNode64BitAddress(42));
+		assertThat(remote.getNodeID(), is(equalTo("NODE-42")));
+		assertThat(remote.get16BitAddress(), is(equalTo(network.getNode16BitAddress(42))));
+		assertThat(network.getDiscoveryResponses(), is(equalTo((long)(NODES - 1))));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.virtual.VirtualMeshNetwork#handleRemoteATCommand(com.digi.xbee.api.packet.common.RemoteATCommandPacket)}.
+	 * 
+	 * <p>Verify that remote AT commands are answered with the values of the 
+	 * node.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testRemoteATCommand() throws Exception {
+		// Setup the resources for the test.
+		network.setHopLatency(5);
+		RemoteXBeeDevice remote = new RemoteXBeeDevice(device, network.getNode64BitAddress(10));
+		
+		// Call the method under test.
+		remote.readDeviceInfo();
+		
+		// Verify the result.
+		assertThat(remote.getNodeID(), is(equalTo("NODE-10")));
+		assertThat(remote.get16BitAddress(), is(equalTo(network.getNode16BitAddress(10))));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.virtual.VirtualMeshNetwork#getTransmitStatus(com.digi.xbee.api.packet.XBeeAPIPacket)}.
+	 * 
+	 * <p>Verify that transmissions to nodes with a broken route fail.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testTransmitRouteFailure() throws Exception {
+		// Setup the resources for the test.
+		network.setRouteFailed(3, true);
+		
+		// Call the method under test.
+		device.sendData(new RemoteXBeeDevice(device, network.getNode64BitAddress(2)), new byte[] {0x01});
+		try {
+			device.sendData(new RemoteXBeeDevice(device, network.getNode64BitAddress(3)), new byte[] {0x01});
+			fail("Transmission should fail.");
+		} catch (TransmitException e) {
+			// Verify the result.
+			assertThat(e.getTransmitStatus(), is(equalTo(XBeeTransmitStatus.ROUTE_NOT_FOUND)));
+		}
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.virtual.VirtualMeshNetwork#startIOSamples(long)}.
+	 * 
+	 * <p>Verify that the nodes send periodic IO samples.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testStartIOSamples() throws Exception {
+		// Setup the resources for the test.
+		final CountDownLatch received = new CountDownLatch(NODES);
+		device.addIOSampleListener(new IIOSampleReceiveListener() {
+			@Override
+			public void ioSampleReceived(RemoteXBeeDevice remoteDevice, IOSample ioSample) {
+				if (ioSample.hasDigitalValue(IOLine.DIO0_AD0) && ioSample.hasAnalogValue(IOLine.DIO1_AD1))
+					received.countDown();
+			}
+		});
+		
+		// Call the method under test.
+		network.startIOSamples(200);
+		
+		// Verify the result.
+		assertThat(received.await(5, TimeUnit.SECONDS), is(equalTo(true)));
+		network.stopTraffic();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.virtual.MeshSimulation#run(VirtualMeshNetwork)}.
+	 * 
+	 * <p>Verify that the simulation reports the discovered nodes and the 
+	 * sent frames.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testRunSimulation() throws Exception {
+		// Setup the resources for the test.
+		device.close();
+		MeshSimulation simulation = new MeshSimulation();
+		simulation.setDiscoveryTimeout(500);
+		simulation.setSendDuration(300);
+		simulation.setSenderThreads(2);
+		
+		// Call the method under test.
+		MeshSimulationReport report = simulation.run(new VirtualMeshNetwork(NODES));
+		
+		// Verify the result.
+		assertThat(report.getNodeCount(), is(equalTo(NODES)));
+		assertThat(report.getDiscoveredNodes(), is(equalTo(NODES)));
+		assertThat(report.getSentFrames() > 0, is(equalTo(true)));
+		assertThat(report.getFailedFrames(), is(equalTo(0L)));
+	}
+}
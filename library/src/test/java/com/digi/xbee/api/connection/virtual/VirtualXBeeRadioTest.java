@@ -0,0 +1,213 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection.virtual;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.XBeeDevice;
+import com.digi.xbee.api.exceptions.ATCommandException;
+import com.digi.xbee.api.exceptions.TransmitException;
+import com.digi.xbee.api.listeners.IDataReceiveListener;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeeMessage;
+import com.digi.xbee.api.models.XBeeProtocol;
+import com.digi.xbee.api.models.XBeeTransmitStatus;
+import com.digi.xbee.api.packet.common.ReceivePacket;
+
+public class VirtualXBeeRadioTest {
+	
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+	
+	// Constants.
+	private static final XBee64BitAddress REMOTE_ADDRESS = new XBee64BitAddress("0013A20040A6A0DB");
+	
+	// Variables.
+	private VirtualXBeeRadio radio;
+	
+	private XBeeDevice device;
+	
+	@Before
+	public void setUp() {
+		radio = new VirtualXBeeRadio(OperatingMode.API_ESCAPE);
+		device = new XBeeDevice(radio);
+	}
+	
+	@After
+	public void tearDown() {
+		if (device.isOpen())
+			device.close();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#open()}.
+	 * 
+	 * <p>Verify that a device can be opened over the virtual radio and that 
+	 * it reads the configured device information.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testOpenDevice() throws Exception {
+		// Setup the resources for the test.
+		radio.setParameter("NI", "GATEWAY".getBytes());
+		
+		// Call the method under test.
+		device.open();
+		
+		// Verify the result.
+		assertThat(device.getOperatingMode(), is(equalTo(OperatingMode.API_ESCAPE)));
+		assertThat(device.get64BitAddress(), is(equalTo(VirtualXBeeRadio.DEFAULT_64BIT_ADDRESS)));
+		assertThat(device.get16BitAddress(), is(equalTo(new XBee16BitAddress("0000"))));
+		assertThat(device.getNodeID(), is(equalTo("GATEWAY")));
+		assertThat(device.getXBeeProtocol(), is(equalTo(XBeeProtocol.ZIGBEE)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.virtual.VirtualXBeeRadio#handleATCommand(int, String, byte[])}.
+	 * 
+	 * <p>Verify that setting a parameter updates the radio and that unknown 
+	 * commands fail.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testSetAndUnknownParameters() throws Exception {
+		// Setup the resources for the test.
+		device.open();
+		
+		// Call the method under test.
+		device.setParameter("NT", new byte[] {0x20});
+		
+		// Verify the result.
+		assertThat(radio.getParameter("NT"), is(equalTo(new byte[] {0x20})));
+		try {
+			device.getParameter("ZZ");
+			fail("Unknown command should fail.");
+		} catch (ATCommandException e) {
+			// Expected.
+		}
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.virtual.VirtualXBeeRadio#handleTransmit(com.digi.xbee.api.packet.XBeeAPIPacket)}.
+	 * 
+	 * <p>Verify that transmissions are acknowledged after the configured 
+	 * latency.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testTransmitSuccess() throws Exception {
+		// Setup the resources for the test.
+		radio.setTransmitLatency(20);
+		device.open();
+		RemoteXBeeDevice remote = new RemoteXBeeDevice(device, REMOTE_ADDRESS);
+		
+		// Call the method under test.
+		long start = System.nanoTime();
+		device.sendData(remote, new byte[] {1, 2, 3});
+		
+		// Verify the result.
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 20, is(equalTo(true)));
+		assertThat(radio.getWrittenFrames() > 0, is(equalTo(true)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.virtual.VirtualXBeeRadio#handleTransmit(com.digi.xbee.api.packet.XBeeAPIPacket)}.
+	 * 
+	 * <p>Verify that transmissions fail with the configured status when the 
+	 * failure rate is 1.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testTransmitFailure() throws Exception {
+		// Setup the resources for the test.
+		radio.setTransmitFailureRate(1);
+		radio.setTransmitFailureStatus(XBeeTransmitStatus.ROUTE_NOT_FOUND);
+		device.open();
+		RemoteXBeeDevice remote = new RemoteXBeeDevice(device, REMOTE_ADDRESS);
+		
+		// Call the method under test.
+		try {
+			device.sendData(remote, new byte[] {1, 2, 3});
+			fail("Transmission should fail.");
+		} catch (TransmitException e) {
+			// Verify the result.
+			assertThat(e.getTransmitStatus(), is(equalTo(XBeeTransmitStatus.ROUTE_NOT_FOUND)));
+		}
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.virtual.VirtualXBeeRadio#startTraffic(com.digi.xbee.api.packet.XBeePacket, int)}.
+	 * 
+	 * <p>Verify that the generated traffic reaches the data listeners.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testStartTraffic() throws Exception {
+		// Setup the resources for the test.
+		device.open();
+		final CountDownLatch received = new CountDownLatch(50);
+		device.addDataListener(new IDataReceiveListener() {
+			@Override
+			public void dataReceived(XBeeMessage xbeeMessage) {
+				if (xbeeMessage.getDevice().get64BitAddress().equals(REMOTE_ADDRESS))
+					received.countDown();
+			}
+		});
+		
+		// Call the method under test.
+		radio.startTraffic(new ReceivePacket(REMOTE_ADDRESS, XBee16BitAddress.UNKNOWN_ADDRESS, 0, new byte[] {0x11}), 1000);
+		
+		// Verify the result.
+		assertThat(received.await(5, TimeUnit.SECONDS), is(equalTo(true)));
+		radio.stopTraffic();
+		assertThat(radio.getDeliveredFrames() >= 50, is(equalTo(true)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.virtual.VirtualXBeeRadio#setTransmitFailureRate(double)}.
+	 * 
+	 * <p>Verify that the failure rate must be between 0 and 1.</p>
+	 */
+	@Test
+	public final void testSetTransmitFailureRateInvalid() {
+		// Setup the resources for the test.
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Failure rate must be between 0 and 1.")));
+		
+		// Call the method under test.
+		radio.setTransmitFailureRate(1.5);
+	}
+}
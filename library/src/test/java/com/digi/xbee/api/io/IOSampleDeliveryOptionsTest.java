@@ -0,0 +1,94 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.io;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class IOSampleDeliveryOptionsTest {
+
+	// Constants.
+	// DIO0 and DIO4 digital (HIGH, LOW), DIO1 analog 524.
+	private static final byte[] IO_DATA = new byte[]{0x01, 0x00, 0x11, 0x02, 0x00, 0x01, 0x02, 0x0C};
+	// DIO0 and DIO4 digital (HIGH, LOW), DIO1 analog 530.
+	private static final byte[] IO_DATA_ANALOG_MOVED = new byte[]{0x01, 0x00, 0x11, 0x02, 0x00, 0x01, 0x02, 0x12};
+	// DIO0 and DIO4 digital (LOW, LOW), DIO1 analog 524.
+	private static final byte[] IO_DATA_DIGITAL_CHANGED = new byte[]{0x01, 0x00, 0x11, 0x02, 0x00, 0x00, 0x02, 0x0C};
+	// DIO0 and DIO4 digital (HIGH, LOW), no analog lines.
+	private static final byte[] IO_DATA_NO_ANALOG = new byte[]{0x01, 0x00, 0x11, 0x00, 0x00, 0x01};
+	
+	/**
+	 * Verify that the options cannot be created with a negative deadband.
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testNegativeDeadband() {
+		new IOSampleDeliveryOptions(false, true, -1);
+	}
+	
+	/**
+	 * Verify that the first sample of a device is always a change.
+	 */
+	@Test
+	public void testFirstSampleIsChange() {
+		IOSampleDeliveryOptions options = new IOSampleDeliveryOptions(false, true, 0);
+		
+		assertTrue(options.isChange(null, new IOSample(IO_DATA)));
+	}
+	
+	/**
+	 * Verify that an identical sample is not a change.
+	 */
+	@Test
+	public void testSameSampleIsNotChange() {
+		IOSampleDeliveryOptions options = new IOSampleDeliveryOptions(false, true, 0);
+		
+		assertFalse(options.isChange(new IOSample(IO_DATA), new IOSample(IO_DATA)));
+	}
+	
+	/**
+	 * Verify that a digital change is always a change.
+	 */
+	@Test
+	public void testDigitalChange() {
+		IOSampleDeliveryOptions options = new IOSampleDeliveryOptions(false, true, 100);
+		
+		assertTrue(options.isChange(new IOSample(IO_DATA), new IOSample(IO_DATA_DIGITAL_CHANGED)));
+	}
+	
+	/**
+	 * Verify that analog values are compared with the deadband.
+	 */
+	@Test
+	public void testAnalogDeadband() {
+		IOSample previous = new IOSample(IO_DATA);
+		IOSample sample = new IOSample(IO_DATA_ANALOG_MOVED);
+		
+		assertFalse(new IOSampleDeliveryOptions(false, true, 6).isChange(previous, sample));
+		assertTrue(new IOSampleDeliveryOptions(false, true, 5).isChange(previous, sample));
+	}
+	
+	/**
+	 * Verify that a different set of lines is a change.
+	 */
+	@Test
+	public void testDifferentLines() {
+		IOSampleDeliveryOptions options = new IOSampleDeliveryOptions(false, true, 1000);
+		
+		assertTrue(options.isChange(new IOSample(IO_DATA), new IOSample(IO_DATA_NO_ANALOG)));
+	}
+}
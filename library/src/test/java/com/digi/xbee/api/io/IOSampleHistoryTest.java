@@ -0,0 +1,187 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.digi.xbee.api.models.XBee64BitAddress;
+
+public class IOSampleHistoryTest {
+
+	// Constants.
+	private static final XBee64BitAddress ADDRESS_1 = new XBee64BitAddress("0013A20040A9E77E");
+	private static final XBee64BitAddress ADDRESS_2 = new XBee64BitAddress("0013A20040A9E780");
+	
+	/*
+	 * DIO0 is digital in HIGH state, DIO4 is digital in LOW state, DIO9 is 
+	 * digital in HIGH state, DIO1 is ADC with value 524 and DIO3 is ADC with 
+	 * value 250.
+	 */
+	private static final byte[] IO_DATA_MIXED = new byte[]{0x01, 0x02, 0x11, (byte)0x8A, 0x02, 0x01, 0x02, 0x0C, 0x00, (byte)0xFA, 0x04, (byte)0xE2};
+	
+	// Variables.
+	private IOSampleHistory history;
+	
+	@Before
+	public void setup() {
+		history = new IOSampleHistory(4, 3);
+	}
+	
+	/**
+	 * Verify that the history cannot be created with invalid sizes.
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testCreateWithZeroLines() {
+		new IOSampleHistory(0, 10);
+	}
+	
+	/**
+	 * Verify that the history cannot be created if the required memory 
+	 * exceeds the maximum size of a buffer.
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testCreateTooBig() {
+		new IOSampleHistory(100000, 100000);
+	}
+	
+	/**
+	 * Verify that the memory size is fixed by the constructor parameters.
+	 */
+	@Test
+	public void testMemorySize() {
+		assertEquals(4 * 3 * IOSampleHistory.ENTRY_SIZE, history.getMemorySize());
+	}
+	
+	/**
+	 * Verify that the values of an IO sample are stored per line: analog 
+	 * values for ADC lines and 1/0 for digital lines.
+	 */
+	@Test
+	public void testAddSample() {
+		history = new IOSampleHistory(10, 3);
+		
+		history.addSample(ADDRESS_1, new IOSample(IO_DATA_MIXED), 1000);
+		
+		assertEquals(5, history.getLineCount());
+		assertEquals(new IOSampleHistoryEntry(1000, 1), history.getLatestEntry(ADDRESS_1, IOLine.DIO0_AD0));
+		assertEquals(new IOSampleHistoryEntry(1000, 524), history.getLatestEntry(ADDRESS_1, IOLine.DIO1_AD1));
+		assertEquals(new IOSampleHistoryEntry(1000, 250), history.getLatestEntry(ADDRESS_1, IOLine.DIO3_AD3));
+		assertEquals(new IOSampleHistoryEntry(1000, 0), history.getLatestEntry(ADDRESS_1, IOLine.DIO4_AD4));
+		assertEquals(new IOSampleHistoryEntry(1000, 1), history.getLatestEntry(ADDRESS_1, IOLine.DIO9));
+		assertNull(history.getLatestEntry(ADDRESS_1, IOLine.DIO2_AD2));
+		assertNull(history.getLatestEntry(ADDRESS_2, IOLine.DIO0_AD0));
+	}
+	
+	/**
+	 * Verify that the oldest values are overwritten when a ring is full.
+	 */
+	@Test
+	public void testRingOverwrite() {
+		for (int i = 0; i < 5; i++)
+			history.addValue(ADDRESS_1, IOLine.DIO0_AD0, 100 * i, i);
+		
+		List<IOSampleHistoryEntry> entries = history.getEntries(ADDRESS_1, IOLine.DIO0_AD0);
+		
+		assertEquals(3, entries.size());
+		assertEquals(new IOSampleHistoryEntry(200, 2), entries.get(0));
+		assertEquals(new IOSampleHistoryEntry(300, 3), entries.get(1));
+		assertEquals(new IOSampleHistoryEntry(400, 4), entries.get(2));
+	}
+	
+	/**
+	 * Verify that range queries include the start and exclude the end.
+	 */
+	@Test
+	public void testRangeQuery() {
+		history.addValue(ADDRESS_1, IOLine.DIO1_AD1, 100, 10);
+		history.addValue(ADDRESS_1, IOLine.DIO1_AD1, 200, 20);
+		history.addValue(ADDRESS_1, IOLine.DIO1_AD1, 300, 30);
+		
+		List<IOSampleHistoryEntry> entries = history.getEntries(ADDRESS_1, IOLine.DIO1_AD1, 200, 300);
+		
+		assertEquals(1, entries.size());
+		assertEquals(new IOSampleHistoryEntry(200, 20), entries.get(0));
+	}
+	
+	/**
+	 * Verify that the statistics of a range are calculated.
+	 */
+	@Test
+	public void testStatistics() {
+		history.addValue(ADDRESS_1, IOLine.DIO1_AD1, 100, 10);
+		history.addValue(ADDRESS_1, IOLine.DIO1_AD1, 200, 40);
+		history.addValue(ADDRESS_1, IOLine.DIO1_AD1, 300, 25);
+		
+		IOSampleHistoryStatistics stats = history.getStatistics(ADDRESS_1, IOLine.DIO1_AD1, 0, 1000);
+		
+		assertEquals(3, stats.getCount());
+		assertEquals(10, stats.getMinimum());
+		assertEquals(40, stats.getMaximum());
+		assertEquals(25.0, stats.getAverage(), 0.001);
+		
+		stats = history.getStatistics(ADDRESS_2, IOLine.DIO1_AD1, 0, 1000);
+		assertEquals(0, stats.getCount());
+	}
+	
+	/**
+	 * Verify that downsampling groups the values in buckets aligned to the 
+	 * start of the range and skips the empty ones.
+	 */
+	@Test
+	public void testDownsample() {
+		history = new IOSampleHistory(1, 10);
+		history.addValue(ADDRESS_1, IOLine.DIO1_AD1, 1000, 10);
+		history.addValue(ADDRESS_1, IOLine.DIO1_AD1, 1500, 20);
+		history.addValue(ADDRESS_1, IOLine.DIO1_AD1, 3100, 5);
+		
+		List<IOSampleHistoryStatistics> buckets = history.downsample(ADDRESS_1, IOLine.DIO1_AD1, 1000, 4000, 1000);
+		
+		assertEquals(2, buckets.size());
+		assertEquals(1000, buckets.get(0).getStartTime());
+		assertEquals(2000, buckets.get(0).getEndTime());
+		assertEquals(2, buckets.get(0).getCount());
+		assertEquals(15.0, buckets.get(0).getAverage(), 0.001);
+		assertEquals(3000, buckets.get(1).getStartTime());
+		assertEquals(5, buckets.get(1).getMinimum());
+	}
+	
+	/**
+	 * Verify that values of new lines are discarded when the history is full 
+	 * and that removing a device releases its lines.
+	 */
+	@Test
+	public void testFullAndRemove() {
+		history = new IOSampleHistory(1, 3);
+		
+		assertTrue(history.addValue(ADDRESS_1, IOLine.DIO0_AD0, 100, 1));
+		assertFalse(history.addValue(ADDRESS_2, IOLine.DIO0_AD0, 100, 1));
+		
+		history.remove(ADDRESS_1);
+		
+		assertEquals(0, history.getLineCount());
+		assertTrue(history.getEntries(ADDRESS_1, IOLine.DIO0_AD0).isEmpty());
+		assertTrue(history.addValue(ADDRESS_2, IOLine.DIO0_AD0, 200, 0));
+		assertEquals(1, history.getEntries(ADDRESS_2, IOLine.DIO0_AD0).size());
+	}
+}
@@ -0,0 +1,291 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.metrics;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.digi.xbee.api.XBeeDevice;
+import com.digi.xbee.api.listeners.IDataReceiveListener;
+import com.digi.xbee.api.connection.virtual.VirtualXBeeRadio;
+import com.digi.xbee.api.models.ModemStatusEvent;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.ReceiveTimestamps;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeeMessage;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.common.ATCommandPacket;
+import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
+import com.digi.xbee.api.packet.common.ModemStatusPacket;
+import com.digi.xbee.api.packet.common.ReceivePacket;
+
+public class XBeeMetricsTest {
+	
+	// Variables.
+	private VirtualXBeeRadio radio;
+	
+	private XBeeDevice device;
+	
+	@Before
+	public void setUp() {
+		radio = new VirtualXBeeRadio(OperatingMode.API) {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.connection.virtual.VirtualXBeeRadio#serialize(com.digi.xbee.api.packet.XBeePacket)
+			 */
+			@Override
+			protected byte[] serialize(XBeePacket packet) {
+				byte[] data = super.serialize(packet);
+				// Corrupt the checksum of the modem status frames.
+				if (packet instanceof ModemStatusPacket)
+					data[data.length - 1]++;
+				return data;
+			}
+		};
+		device = new XBeeDevice(radio);
+	}
+	
+	@After
+	public void tearDown() {
+		device.disableMetrics();
+		device.setPacketTracer(null);
+		if (device.isOpen())
+			device.close();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.metrics.MetricsHistogram#getSnapshot()}.
+	 * 
+	 * <p>Verify that the percentiles are the upper bounds of the buckets.</p>
+	 */
+	@Test
+	public final void testHistogramSnapshot() {
+		// Setup the resources for the test.
+		MetricsHistogram histogram = new MetricsHistogram();
+		for (int i = 0; i < 90; i++)
+			histogram.record(200000); // 200 us.
+		for (int i = 0; i < 10; i++)
+			histogram.record(30000000); // 30 ms.
+		
+		// Call the method under test.
+		LatencySnapshot snapshot = histogram.getSnapshot();
+		
+		// Verify the result.
+		assertThat(snapshot.getCount(), is(equalTo(100L)));
+		assertThat(snapshot.getP50(), is(equalTo(250L)));
+		assertThat(snapshot.getP90(), is(equalTo(250L)));
+		assertThat(snapshot.getP99(), is(equalTo(30000L)));
+		assertThat(snapshot.getMax(), is(equalTo(30000L)));
+		assertThat(snapshot.getMean(), is(equalTo(3180.0)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#enableMetrics()}.
+	 * 
+	 * <p>Verify that the frames, AT commands and latencies of a device are 
+	 * recorded and exposed through JMX.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testDeviceMetrics() throws Exception {
+		// Setup the resources for the test.
+		XBeeMetrics metrics = device.enableMetrics();
+		device.open();
+		
+		// Call the method under test.
+		device.getParameter("NI");
+		
+		// Verify the result.
+		long commands = metrics.getATCommands();
+		assertTrue(commands > 1);
+		assertThat(metrics.getATCommandLatency().getCount(), is(equalTo(commands)));
+		assertThat(metrics.getPacketResponseLatency().getCount(), is(equalTo(commands)));
+		assertThat(metrics.getFramesSent(), is(equalTo(commands)));
+		assertThat(metrics.getFramesReceived(), is(equalTo(commands)));
+		assertTrue(metrics.getBytesReceived() > 0);
+		assertThat(metrics.getListenerDispatchLatency().getCount(), is(equalTo(commands)));
+		assertThat(metrics.getResponseTimeouts(), is(equalTo(0L)));
+		
+		ObjectName name = metrics.getObjectName();
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		assertThat(server.getAttribute(name, "FramesSent"), is(equalTo((Object)commands)));
+		CompositeData latency = (CompositeData)server.getAttribute(name, "ATCommandLatency");
+		assertThat(latency.get("count"), is(equalTo((Object)commands)));
+		
+		device.disableMetrics();
+		assertThat(device.getMetricsRecorder(), is(nullValue()));
+		assertThat(server.isRegistered(name), is(equalTo(false)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#setMetricsRecorder(IMetricsRecorder)}.
+	 * 
+	 * <p>Verify that the frames with invalid checksum are counted and the 
+	 * received packets queue depth is reported.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testChecksumErrors() throws Exception {
+		// Setup the resources for the test.
+		XBeeMetrics metrics = new XBeeMetrics();
+		device.setMetricsRecorder(metrics);
+		device.open();
+		long received = metrics.getFramesReceived();
+		
+		// Call the method under test.
+		radio.deliverPacket(new ModemStatusPacket(ModemStatusEvent.STATUS_JOINED_NETWORK));
+		radio.deliverPacket(new ModemStatusPacket(ModemStatusEvent.STATUS_JOINED_NETWORK));
+		device.getParameter("NI");
+		
+		// Verify the result.
+		assertThat(metrics.getChecksumErrors(), is(equalTo(2L)));
+		assertThat(metrics.getParseErrors(), is(equalTo(0L)));
+		assertThat(metrics.getFramesReceived(), is(equalTo(received + 1)));
+		assertTrue(metrics.getQueueDepth() > 0);
+		assertThat(metrics.getObjectName(), is(nullValue()));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#setPacketTracer(IPacketTracer)}.
+	 * 
+	 * <p>Verify that every traced operation is begun and ended, and that the 
+	 * synchronous wait ends with the response of the request.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testPacketTracer() throws Exception {
+		// Setup the resources for the test.
+		final List<String> traces = Collections.synchronizedList(new ArrayList<String>());
+		final CountDownLatch dispatched = new CountDownLatch(1);
+		device.open();
+		device.setPacketTracer(new IPacketTracer() {
+			@Override
+			public Object beginSend(XBeePacket packet, int size) {
+				return "send " + packet.getClass().getSimpleName() + " " + (size == packet.getPacketLength() + 4);
+			}
+			@Override
+			public void endSend(Object trace) {
+				traces.add((String)trace);
+			}
+			@Override
+			public Object beginDispatch(XBeePacket packet, int size) {
+				return "dispatch " + packet.getClass().getSimpleName();
+			}
+			@Override
+			public void endDispatch(Object trace) {
+				traces.add((String)trace);
+				dispatched.countDown();
+			}
+			@Override
+			public Object beginResponseWait(XBeePacket request) {
+				return "wait " + request.getClass().getSimpleName();
+			}
+			@Override
+			public void endResponseWait(Object trace, XBeePacket response) {
+				traces.add(trace + " " + response.getClass().getSimpleName());
+			}
+		});
+		
+		// Call the method under test.
+		device.getParameter("NI");
+		
+		// Verify the result.
+		String send = "send " + ATCommandPacket.class.getSimpleName() + " true";
+		String dispatch = "dispatch " + ATCommandResponsePacket.class.getSimpleName();
+		String wait = "wait " + ATCommandPacket.class.getSimpleName() + " " + ATCommandResponsePacket.class.getSimpleName();
+		// The reader thread may end the dispatch after the wait ends.
+		assertTrue(dispatched.await(1, TimeUnit.SECONDS));
+		assertThat(traces.size(), is(equalTo(3)));
+		assertTrue(traces.contains(send));
+		assertTrue(traces.contains(dispatch));
+		assertTrue(traces.contains(wait));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBeeMessage#getReceiveTimestamps()}.
+	 * 
+	 * <p>Verify that the received messages carry their timestamps through the receive 
+	 * pipeline and that the stage latencies are recorded.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testReceiveTimestamps() throws Exception {
+		// Setup the resources for the test.
+		final BlockingQueue<XBeeMessage> messages = new ArrayBlockingQueue<XBeeMessage>(1);
+		XBeeMetrics metrics = new XBeeMetrics();
+		device.setMetricsRecorder(metrics);
+		device.open();
+		device.addDataListener(new IDataReceiveListener() {
+			@Override
+			public void dataReceived(XBeeMessage xbeeMessage) {
+				messages.add(xbeeMessage);
+			}
+		});
+		long frames = metrics.getFrameReadLatency().getCount();
+		
+		// Call the method under test.
+		radio.deliverPacket(new ReceivePacket(new XBee64BitAddress("0013A20040A1B2C3"), 
+				XBee16BitAddress.UNKNOWN_ADDRESS, 0, new byte[] {0x01, 0x02}));
+		XBeeMessage message = messages.poll(1, TimeUnit.SECONDS);
+		
+		// Verify the result.
+		ReceiveTimestamps timestamps = message.getReceiveTimestamps();
+		assertTrue(timestamps.getFirstByte() - timestamps.getFrameComplete() <= 0);
+		assertTrue(timestamps.getReadTime() >= 0);
+		assertTrue(timestamps.getDecodeTime() >= 0);
+		assertTrue(timestamps.getQueueTime() >= 0);
+		assertThat(metrics.getFrameReadLatency().getCount(), is(equalTo(frames + 1)));
+		assertThat(metrics.getFrameDecodeLatency().getCount(), is(equalTo(frames + 1)));
+		
+		// The listener return is recorded after the listener gets the message.
+		long deadline = System.currentTimeMillis() + 1000;
+		while (timestamps.getTotalTime() < 0 && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+		assertTrue(timestamps.getListenerTime() >= 0);
+		assertTrue(timestamps.getTotalTime() >= timestamps.getListenerTime());
+		deadline = System.currentTimeMillis() + 1000;
+		while (metrics.getEndToEndLatency().getCount() == 0 && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+		assertThat(metrics.getListenerQueueLatency().getCount(), is(equalTo(1L)));
+		assertThat(metrics.getListenerExecutionLatency().getCount(), is(equalTo(1L)));
+		assertThat(metrics.getEndToEndLatency().getCount(), is(equalTo(1L)));
+	}
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Test;
+
+public class DeviceProfileTest {
+	
+	// Constants.
+	private static final XBee64BitAddress ADDRESS_64 = new XBee64BitAddress("0013A20040A6A0DB");
+	private static final XBee16BitAddress ADDRESS_16 = new XBee16BitAddress("1234");
+	private static final HardwareVersion HARDWARE_VERSION = HardwareVersion.get(0x1E);
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.DeviceProfile#DeviceProfile(OperatingMode, XBee64BitAddress, HardwareVersion, String, XBeeProtocol, XBee16BitAddress, String)}.
+	 * 
+	 * <p>Verify that the profile cannot be created with a {@code null} 
+	 * 64-bit address.</p>
+	 */
+	@Test(expected=NullPointerException.class)
+	public void testCreateNullAddress() {
+		new DeviceProfile(OperatingMode.API, null, HARDWARE_VERSION, "4060", 
+				XBeeProtocol.ZIGBEE, ADDRESS_16, "NODE");
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.DeviceProfile#DeviceProfile(OperatingMode, XBee64BitAddress, HardwareVersion, String, XBeeProtocol, XBee16BitAddress, String)}.
+	 * 
+	 * <p>Verify that the profile cannot be created with an operating mode 
+	 * other than API or API escaped.</p>
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testCreateATMode() {
+		new DeviceProfile(OperatingMode.AT, ADDRESS_64, HARDWARE_VERSION, "4060", 
+				XBeeProtocol.ZIGBEE, ADDRESS_16, "NODE");
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.DeviceProfile}.
+	 * 
+	 * <p>Verify that the profile keeps its values after being serialized 
+	 * and deserialized.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testSerialization() throws Exception {
+		// Setup the resources for the test.
+		DeviceProfile profile = new DeviceProfile(OperatingMode.API_ESCAPE, ADDRESS_64, 
+				HARDWARE_VERSION, "4060", XBeeProtocol.ZIGBEE, ADDRESS_16, "NODE");
+		
+		// Call the method under test.
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(profile);
+		out.close();
+		DeviceProfile read = (DeviceProfile)new ObjectInputStream(
+				new ByteArrayInputStream(bytes.toByteArray())).readObject();
+		
+		// Verify the result.
+		assertEquals(OperatingMode.API_ESCAPE, read.getOperatingMode());
+		assertEquals(ADDRESS_64, read.get64BitAddress());
+		assertEquals(HARDWARE_VERSION, read.getHardwareVersion());
+		assertEquals("4060", read.getFirmwareVersion());
+		assertEquals(XBeeProtocol.ZIGBEE, read.getProtocol());
+		assertEquals(ADDRESS_16, read.get16BitAddress());
+		assertEquals("NODE", read.getNodeID());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.DeviceProfile#get16BitAddress()}.
+	 * 
+	 * <p>Verify that the 16-bit address is {@code null} if the profile was 
+	 * created without it.</p>
+	 */
+	@Test
+	public void testNo16BitAddress() {
+		// Setup the resources for the test.
+		DeviceProfile profile = new DeviceProfile(OperatingMode.API, ADDRESS_64, 
+				HARDWARE_VERSION, "9002", XBeeProtocol.DIGI_MESH, null, null);
+		
+		// Verify the result.
+		assertNull(profile.get16BitAddress());
+		assertNull(profile.getNodeID());
+	}
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.models;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class LinkStatisticsTableTest {
+	
+	// Constants.
+	private static final XBee64BitAddress ADDRESS = new XBee64BitAddress("0013A20040A1B2C3");
+	
+	// Variables.
+	private LinkStatisticsTable table;
+	
+	@Before
+	public void setUp() {
+		table = new LinkStatisticsTable();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.LinkStatisticsTable#addTransmitStatus(XBee64BitAddress, XBeeTransmitStatus, int, XBeeDiscoveryStatus)}.
+	 * 
+	 * <p>Verify that a transmit status cannot be added without status.</p>
+	 */
+	@Test(expected=NullPointerException.class)
+	public void testAddTransmitStatusNullStatus() {
+		table.addTransmitStatus(ADDRESS, null, 0, null);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.LinkStatisticsTable#setRSSI(XBee64BitAddress, int)}.
+	 * 
+	 * <p>Verify that the RSSI must be between 0 and 255.</p>
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testSetRSSIInvalid() {
+		table.setRSSI(ADDRESS, 256);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.LinkStatisticsTable#getStatistics(XBee64BitAddress)}.
+	 * 
+	 * <p>Verify that remote devices without statistics return {@code null}.</p>
+	 */
+	@Test
+	public void testUnknownDevice() {
+		assertNull(table.getStatistics(ADDRESS));
+		assertTrue(table.getAllStatistics().isEmpty());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.LinkStatisticsTable#addTransmitStatus(XBee64BitAddress, XBeeTransmitStatus, int, XBeeDiscoveryStatus)}.
+	 * 
+	 * <p>Verify that the delivery statistics are computed from the transmit 
+	 * status.</p>
+	 */
+	@Test
+	public void testDeliveryStatistics() {
+		table.addTransmitStatus(ADDRESS, XBeeTransmitStatus.SUCCESS, 0, 
+				XBeeDiscoveryStatus.DISCOVERY_STATUS_NO_DISCOVERY_OVERHEAD);
+		table.addTransmitStatus(ADDRESS, XBeeTransmitStatus.SUCCESS, 2, 
+				XBeeDiscoveryStatus.DISCOVERY_STATUS_ROUTE_DISCOVERY);
+		table.addTransmitStatus(ADDRESS, XBeeTransmitStatus.SUCCESS, 1, 
+				XBeeDiscoveryStatus.DISCOVERY_STATUS_ADDRESS_DISCOVERY);
+		table.addTransmitStatus(ADDRESS, XBeeTransmitStatus.NETWORK_ACK_FAILURE, 3, null);
+		
+		LinkStatistics statistics = table.getStatistics(ADDRESS);
+		assertEquals(ADDRESS, statistics.get64BitAddress());
+		assertEquals(4, statistics.getTransmissions());
+		assertEquals(3, statistics.getDeliveries());
+		assertEquals(0.75, statistics.getDeliveryRatio(), 0.0001);
+		assertEquals(6, statistics.getRetries());
+		assertEquals(1.5, statistics.getAverageRetries(), 0.0001);
+		assertEquals(1, statistics.getRouteDiscoveries());
+		assertEquals(0, statistics.getReceivedMessages());
+		assertEquals(LinkStatistics.UNKNOWN_RSSI, statistics.getLastRSSI());
+		assertTrue(statistics.getLastActivityTime() > 0);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.LinkStatisticsTable#addReceived(XBee64BitAddress, boolean, int)}.
+	 * 
+	 * <p>Verify that the reception statistics keep the last known RSSI.</p>
+	 */
+	@Test
+	public void testReceptionStatistics() {
+		table.addReceived(ADDRESS, false, 0x28);
+		table.addReceived(ADDRESS, true, LinkStatistics.UNKNOWN_RSSI);
+		
+		LinkStatistics statistics = table.getStatistics(ADDRESS);
+		assertEquals(2, statistics.getReceivedMessages());
+		assertEquals(1, statistics.getReceivedBroadcasts());
+		assertEquals(0x28, statistics.getLastRSSI());
+		assertTrue(statistics.getLastRSSITime() > 0);
+		assertEquals(2.0, statistics.getReceiveRate(), 0.0001);
+		assertEquals(0, statistics.getDeliveryRatio(), 0.0001);
+		
+		table.setRSSI(ADDRESS, 0x40);
+		assertEquals(0x40, table.getStatistics(ADDRESS).getLastRSSI());
+		
+		table.clear();
+		assertNull(table.getStatistics(ADDRESS));
+	}
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.models;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class ReceiveTimestampsTest {
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.ReceiveTimestamps#ReceiveTimestamps(long, long, long)}.
+	 * 
+	 * <p>Verify that the {@code ReceiveTimestamps} cannot be created if the frame is complete before 
+	 * its first byte.</p>
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testCreateFrameBeforeFirstByte() {
+		new ReceiveTimestamps(100, 99, 200);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.ReceiveTimestamps#ReceiveTimestamps(long, long, long)}.
+	 * 
+	 * <p>Verify that the {@code ReceiveTimestamps} cannot be created if the frame is decoded before 
+	 * it is complete.</p>
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testCreateDecodeBeforeFrame() {
+		new ReceiveTimestamps(100, 200, 199);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.ReceiveTimestamps#getReadTime()}, 
+	 * {@link com.digi.xbee.api.models.ReceiveTimestamps#getDecodeTime()}, 
+	 * {@link com.digi.xbee.api.models.ReceiveTimestamps#getQueueTime()}, 
+	 * {@link com.digi.xbee.api.models.ReceiveTimestamps#getListenerTime()} and 
+	 * {@link com.digi.xbee.api.models.ReceiveTimestamps#getTotalTime()}.
+	 * 
+	 * <p>Verify that the stage times are computed from the timestamps, the first dispatch start is 
+	 * kept and the last listener return is kept.</p>
+	 */
+	@Test
+	public void testStageTimes() {
+		ReceiveTimestamps timestamps = new ReceiveTimestamps(100, 150, 160);
+		
+		assertEquals(50, timestamps.getReadTime());
+		assertEquals(10, timestamps.getDecodeTime());
+		assertEquals(-1, timestamps.getQueueTime());
+		assertEquals(-1, timestamps.getListenerTime());
+		assertEquals(-1, timestamps.getTotalTime());
+		
+		timestamps.setDispatchStart(200);
+		timestamps.setDispatchStart(210);
+		timestamps.setListenerReturn(300);
+		timestamps.setListenerReturn(250);
+		
+		assertEquals(200, timestamps.getDispatchStart());
+		assertEquals(300, timestamps.getListenerReturn());
+		assertEquals(40, timestamps.getQueueTime());
+		assertEquals(100, timestamps.getListenerTime());
+		assertEquals(200, timestamps.getTotalTime());
+	}
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.models;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class RoundTripTimeEstimatorTest {
+	
+	// Constants.
+	private static final XBee64BitAddress ADDRESS = new XBee64BitAddress("0013A20040A1B2C3");
+	
+	private static final long MS = 1000000;
+	
+	// Variables.
+	private RoundTripTimeEstimator estimator;
+	
+	@Before
+	public void setUp() {
+		estimator = new RoundTripTimeEstimator(100, 5000);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.RoundTripTimeEstimator#RoundTripTimeEstimator(int, int)}.
+	 * 
+	 * <p>Verify that the estimator cannot be created with a maximum timeout lower than the minimum.</p>
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testCreateInvalidBounds() {
+		new RoundTripTimeEstimator(1000, 999);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.RoundTripTimeEstimator#addSample(XBee64BitAddress, long)}.
+	 * 
+	 * <p>Verify that a sample cannot be added without address.</p>
+	 */
+	@Test(expected=NullPointerException.class)
+	public void testAddSampleNullAddress() {
+		estimator.addSample(null, MS);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.RoundTripTimeEstimator#getTimeout(XBee64BitAddress, int)} 
+	 * and {@link com.digi.xbee.api.models.RoundTripTimeEstimator#getEstimate(XBee64BitAddress)}.
+	 * 
+	 * <p>Verify that remote devices without samples use the default timeout.</p>
+	 */
+	@Test
+	public void testUnknownDevice() {
+		assertEquals(2000, estimator.getTimeout(ADDRESS, 2000));
+		assertNull(estimator.getEstimate(ADDRESS));
+		assertTrue(estimator.getEstimates().isEmpty());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.RoundTripTimeEstimator#addSample(XBee64BitAddress, long)}.
+	 * 
+	 * <p>Verify that the smoothed round-trip time and variation follow RFC 6298.</p>
+	 */
+	@Test
+	public void testSmoothedEstimate() {
+		estimator.addSample(ADDRESS, 200 * MS);
+		
+		RoundTripTimeEstimate estimate = estimator.getEstimate(ADDRESS);
+		assertEquals(200, estimate.getSmoothedRTT(), 0.001);
+		assertEquals(100, estimate.getRTTVariance(), 0.001);
+		assertEquals(600, estimate.getTimeout());
+		
+		estimator.addSample(ADDRESS, 280 * MS);
+		
+		estimate = estimator.getEstimate(ADDRESS);
+		// RTTVAR = 3/4 * 100 + 1/4 * 80, SRTT = 7/8 * 200 + 1/8 * 280.
+		assertEquals(95, estimate.getRTTVariance(), 0.001);
+		assertEquals(210, estimate.getSmoothedRTT(), 0.001);
+		assertEquals(590, estimate.getTimeout());
+		assertEquals(2, estimate.getSamples());
+		assertEquals(590, estimator.getTimeout(ADDRESS, 2000));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.RoundTripTimeEstimator#getTimeout(XBee64BitAddress, int)}.
+	 * 
+	 * <p>Verify that the timeout is limited to the configured bounds.</p>
+	 */
+	@Test
+	public void testTimeoutBounds() {
+		estimator.addSample(ADDRESS, 1 * MS);
+		assertEquals(100, estimator.getTimeout(ADDRESS, 2000));
+		
+		estimator.addSample(ADDRESS, 60000 * MS);
+		assertEquals(5000, estimator.getTimeout(ADDRESS, 2000));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.RoundTripTimeEstimator#addTimeout(XBee64BitAddress)}.
+	 * 
+	 * <p>Verify that the timeout is doubled after every timeout and restored with the next sample.</p>
+	 */
+	@Test
+	public void testTimeoutBackoff() {
+		estimator.addSample(ADDRESS, 200 * MS);
+		
+		estimator.addTimeout(ADDRESS);
+		assertEquals(1200, estimator.getTimeout(ADDRESS, 2000));
+		estimator.addTimeout(ADDRESS);
+		assertEquals(2400, estimator.getTimeout(ADDRESS, 2000));
+		estimator.addTimeout(ADDRESS);
+		estimator.addTimeout(ADDRESS);
+		assertEquals(5000, estimator.getTimeout(ADDRESS, 2000));
+		assertEquals(4, estimator.getEstimate(ADDRESS).getTimeouts());
+		
+		estimator.addSample(ADDRESS, 200 * MS);
+		assertTrue(estimator.getTimeout(ADDRESS, 2000) < 1200);
+		
+		estimator.reset();
+		assertNull(estimator.getEstimate(ADDRESS));
+	}
+}
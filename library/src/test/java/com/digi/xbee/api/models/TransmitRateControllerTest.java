@@ -0,0 +1,145 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.models;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TransmitRateControllerTest {
+	
+	// Constants.
+	private static final XBee64BitAddress ADDRESS = new XBee64BitAddress("0013A20040A1B2C3");
+	
+	// Variables.
+	private TransmitRateController controller;
+	
+	@Before
+	public void setUp() {
+		controller = new TransmitRateController(2, 4, 1000, 10, 2000);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.TransmitRateController#TransmitRateController(int, int, double, double, double)}.
+	 * 
+	 * <p>Verify that the controller cannot be created with an initial rate 
+	 * lower than the minimum.</p>
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testCreateInvalidRate() {
+		new TransmitRateController(2, 4, 1, 10, 100);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.TransmitRateController#acquire(XBee64BitAddress, long)}.
+	 * 
+	 * <p>Verify that no more transmissions than the window are allowed until 
+	 * one of them finishes.</p>
+	 */
+	@Test
+	public void testWindow() {
+		assertTrue(controller.acquire(ADDRESS, 0));
+		assertTrue(controller.acquire(ADDRESS, 0));
+		assertFalse(controller.acquire(ADDRESS, 20));
+		assertEquals(2, controller.getInFlight());
+		
+		controller.cancel();
+		assertTrue(controller.acquire(ADDRESS, 0));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.TransmitRateController#release(XBeeTransmitStatus)}.
+	 * 
+	 * <p>Verify that delivered transmissions increase the window and the rate 
+	 * additively and congestion halves them.</p>
+	 */
+	@Test
+	public void testAdditiveIncreaseMultiplicativeDecrease() {
+		assertTrue(controller.acquire(null, 100));
+		controller.release(XBeeTransmitStatus.SUCCESS);
+		assertEquals(2.5, controller.getWindow(), 0.0001);
+		assertEquals(1000.5, controller.getRate(), 0.0001);
+		
+		assertTrue(controller.acquire(null, 100));
+		controller.release(XBeeTransmitStatus.NETWORK_ACK_FAILURE);
+		assertEquals(1.25, controller.getWindow(), 0.0001);
+		assertEquals(500.25, controller.getRate(), 0.0001);
+		
+		assertTrue(controller.acquire(null, 100));
+		controller.release(XBeeTransmitStatus.ADDRESS_NOT_FOUND);
+		assertEquals(1.25, controller.getWindow(), 0.0001);
+		
+		assertTrue(controller.acquire(null, 100));
+		controller.release(null);
+		assertEquals(1, controller.getWindow(), 0.0001);
+		assertEquals(1, controller.getDelivered());
+		assertEquals(2, controller.getCongested());
+		assertEquals(0, controller.getInFlight());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.TransmitRateController#modemStatusReceived(ModemStatusEvent)}.
+	 * 
+	 * <p>Verify that modem status events decrease or restore the window and 
+	 * the rate.</p>
+	 */
+	@Test
+	public void testModemStatus() {
+		controller.modemStatusReceived(ModemStatusEvent.STATUS_DISASSOCIATED);
+		assertEquals(1, controller.getWindow(), 0.0001);
+		assertEquals(500, controller.getRate(), 0.0001);
+		
+		controller.modemStatusReceived(ModemStatusEvent.STATUS_NETWORK_WOKE_UP);
+		assertEquals(1, controller.getWindow(), 0.0001);
+		
+		controller.modemStatusReceived(ModemStatusEvent.STATUS_JOINED_NETWORK);
+		assertEquals(2, controller.getWindow(), 0.0001);
+		assertEquals(1000, controller.getRate(), 0.0001);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.TransmitRateController#setDestinationRate(double, int)}.
+	 * 
+	 * <p>Verify that the transmissions to every destination are limited by 
+	 * its token bucket.</p>
+	 */
+	@Test
+	public void testDestinationRate() {
+		controller.setDestinationRate(10, 1);
+		
+		assertTrue(controller.acquire(ADDRESS, 0));
+		controller.release(XBeeTransmitStatus.SUCCESS);
+		// The bucket of the destination is empty for 100 ms.
+		assertFalse(controller.acquire(ADDRESS, 20));
+		assertTrue(controller.acquire(new XBee64BitAddress("0013A20040A1B2C4"), 0));
+		assertTrue(controller.acquire(ADDRESS, 1000));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.TransmitRateController#isCongestion(XBeeTransmitStatus)}.
+	 * 
+	 * <p>Verify which transmit status indicate congestion.</p>
+	 */
+	@Test
+	public void testIsCongestion() {
+		assertTrue(TransmitRateController.isCongestion(XBeeTransmitStatus.NO_BUFFERS));
+		assertTrue(TransmitRateController.isCongestion(XBeeTransmitStatus.ROUTE_NOT_FOUND));
+		assertFalse(TransmitRateController.isCongestion(XBeeTransmitStatus.SUCCESS));
+		assertFalse(TransmitRateController.isCongestion(XBeeTransmitStatus.PAYLOAD_TOO_LARGE));
+		assertFalse(TransmitRateController.isCongestion(null));
+	}
+}
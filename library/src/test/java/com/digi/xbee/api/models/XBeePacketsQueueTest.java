@@ -20,6 +20,7 @@ import static org.junit.Assert.*;
 import java.net.Inet4Address;
 import java.net.Inet6Address;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -224,6 +225,35 @@ public class XBeePacketsQueueTest {
 		assertEquals(0, xbeePacketsQueue.getCurrentSize());
 	}
 	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBeePacketsQueue#setSizeListener(Runnable)}.
+	 * 
+	 * <p>Verify that every packet added to or removed from the queue reports the new size of 
+	 * the queue.</p>
+	 */
+	@Test
+	public void testSizeListener() {
+		final ArrayList<Integer> sizes = new ArrayList<Integer>();
+		final XBeePacketsQueue xbeePacketsQueue = new XBeePacketsQueue(2);
+		xbeePacketsQueue.setSizeListener(new Runnable() {
+			@Override
+			public void run() {
+				sizes.add(xbeePacketsQueue.getCurrentSize());
+			}
+		});
+		
+		// Add 3 packets to a queue of 2, the oldest one is discarded.
+		for (int i = 0; i < 3; i++)
+			xbeePacketsQueue.addPacket(Mockito.mock(XBeePacket.class));
+		// Read a packet.
+		assertNotNull(xbeePacketsQueue.getFirstPacket(0));
+		// Clear the queue.
+		xbeePacketsQueue.clearQueue();
+		
+		// Verify the reported sizes.
+		assertEquals(Arrays.asList(1, 2, 2, 1, 0), sizes);
+	}
+	
 	/**
 	 * Test method for {@link com.digi.xbee.api.models.XBeePacketsQueue#addPacket(XBeePacket)} and 
 	 * {@link com.digi.xbee.api.models.XBeePacketsQueue#getFirstPacket(int)}.
@@ -0,0 +1,313 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.transport;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.XBeeDevice;
+import com.digi.xbee.api.connection.virtual.VirtualXBeeRadio;
+import com.digi.xbee.api.exceptions.TimeoutException;
+import com.digi.xbee.api.listeners.IDataReceiveListener;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBeeMessage;
+import com.digi.xbee.api.packet.XBeeAPIPacket;
+import com.digi.xbee.api.packet.common.ReceivePacket;
+import com.digi.xbee.api.packet.common.TransmitPacket;
+
+public class FragmentationTransportTest {
+	
+	// Variables.
+	private LinkedRadio radioA;
+	private LinkedRadio radioB;
+	
+	private XBeeDevice deviceA;
+	private XBeeDevice deviceB;
+	
+	private RemoteXBeeDevice remoteB;
+	
+	private FragmentationTransport transportA;
+	
+	private BlockingQueue<XBeeMessage> receivedB = new LinkedBlockingQueue<>();
+	
+	@Before
+	public void setUp() throws Exception {
+		radioA = new LinkedRadio();
+		radioB = new LinkedRadio();
+		radioB.setParameter("SL", new byte[] {0x40, 0x00, 0x00, 0x02});
+		radioA.peer = radioB;
+		radioB.peer = radioA;
+		
+		deviceA = new XBeeDevice(radioA);
+		deviceB = new XBeeDevice(radioB);
+		deviceA.open();
+		deviceB.open();
+		
+		transportA = deviceA.enableFragmentation();
+		transportA.setAckTimeout(200);
+		deviceB.enableFragmentation();
+		deviceB.addDataListener(new IDataReceiveListener() {
+			@Override
+			public void dataReceived(XBeeMessage xbeeMessage) {
+				receivedB.add(xbeeMessage);
+			}
+		});
+		
+		remoteB = new RemoteXBeeDevice(deviceA, radioB.get64BitAddress());
+	}
+	
+	@After
+	public void tearDown() {
+		deviceA.close();
+		deviceB.close();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.transport.FragmentationTransport#sendData(RemoteXBeeDevice, byte[])}.
+	 * 
+	 * <p>Verify that a message larger than the maximum payload is split and 
+	 * reassembled.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testSendLargeMessage() throws Exception {
+		// Setup the resources for the test.
+		byte[] data = new byte[5000];
+		new Random(1).nextBytes(data);
+		
+		// Call the method under test.
+		transportA.sendData(remoteB, data);
+		
+		// Verify the result.
+		assertEquals(0xFF, transportA.getMaxPayload());
+		XBeeMessage message = receivedB.poll(5, TimeUnit.SECONDS);
+		assertNotNull(message);
+		assertArrayEquals(data, message.getData());
+		assertEquals(radioA.get64BitAddress(), message.getDevice().get64BitAddress());
+		// 5000 bytes in fragments of 247 bytes.
+		assertEquals(21, radioA.fragments.get());
+		assertNull(receivedB.poll(100, TimeUnit.MILLISECONDS));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.transport.FragmentationTransport#sendData(RemoteXBeeDevice, byte[])}.
+	 * 
+	 * <p>Verify that only the lost fragments are retransmitted.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testSelectiveRetransmission() throws Exception {
+		// Setup the resources for the test.
+		byte[] data = new byte[5000];
+		new Random(2).nextBytes(data);
+		radioA.drop.add(3);
+		radioA.drop.add(17);
+		
+		// Call the method under test.
+		transportA.sendData(remoteB, data);
+		
+		// Verify the result.
+		XBeeMessage message = receivedB.poll(5, TimeUnit.SECONDS);
+		assertNotNull(message);
+		assertArrayEquals(data, message.getData());
+		assertEquals(23, radioA.fragments.get());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.transport.FragmentationTransport#sendData(RemoteXBeeDevice, byte[])}.
+	 * 
+	 * <p>Verify that the transmission fails if the fragments are not 
+	 * acknowledged.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test(expected=TimeoutException.class)
+	public void testSendNotAcknowledged() throws Exception {
+		// Setup the resources for the test.
+		deviceB.disableFragmentation();
+		transportA.setAckTimeout(50);
+		transportA.setMaxRetries(1);
+		
+		// Call the method under test.
+		transportA.sendData(remoteB, new byte[1000]);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.transport.FragmentationTransport#setMaxMessageSize(int)}.
+	 * 
+	 * <p>Verify that messages larger than the maximum size are discarded.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testMaxMessageSize() throws Exception {
+		// Setup the resources for the test.
+		deviceB.getFragmentationTransport().setMaxMessageSize(1000);
+		transportA.setAckTimeout(50);
+		transportA.setMaxRetries(1);
+		
+		// Call the method under test.
+		try {
+			transportA.sendData(remoteB, new byte[2000]);
+			fail("The message should not have been acknowledged.");
+		} catch (TimeoutException e) {
+			// Expected.
+		}
+		
+		// Verify the result.
+		assertNull(receivedB.poll(100, TimeUnit.MILLISECONDS));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.transport.FragmentationTransport#sendData(RemoteXBeeDevice, byte[])}.
+	 * 
+	 * <p>Verify that the messages of a new transport (for example, after 
+	 * restarting the sender) are delivered by a receiver that has already 
+	 * completed messages of the previous one.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testSendFromFreshTransport() throws Exception {
+		// Setup the resources for the test.
+		for (int i = 0; i < 3; i++) {
+			transportA.sendData(remoteB, new byte[] {(byte)i});
+			assertNotNull(receivedB.poll(5, TimeUnit.SECONDS));
+		}
+		deviceA.disableFragmentation();
+		FragmentationTransport freshTransport = deviceA.enableFragmentation();
+		freshTransport.setAckTimeout(200);
+		
+		// Call the method under test.
+		for (int i = 0; i < 3; i++)
+			freshTransport.sendData(remoteB, new byte[] {(byte)(0x10 + i)});
+		
+		// Verify the result.
+		for (int i = 0; i < 3; i++) {
+			XBeeMessage message = receivedB.poll(5, TimeUnit.SECONDS);
+			assertNotNull(message);
+			assertArrayEquals(new byte[] {(byte)(0x10 + i)}, message.getData());
+		}
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.transport.FragmentationTransport#dataReceived(XBeeMessage)}.
+	 * 
+	 * <p>Verify that a completed message identifier is forgotten after the 
+	 * reassembly timeout even if the remote device keeps sending.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testCompletedMessageExpires() throws Exception {
+		// Setup the resources for the test.
+		FragmentationTransport transportB = deviceB.getFragmentationTransport();
+		transportB.setReassemblyTimeout(100);
+		RemoteXBeeDevice remoteA = new RemoteXBeeDevice(deviceB, radioA.get64BitAddress());
+		XBeeMessage message = new XBeeMessage(remoteA, createFragment(7, 0, 1));
+		
+		assertNotNull(transportB.dataReceived(message));
+		assertNull(transportB.dataReceived(message));
+		// Keep the remote device active with an incomplete message.
+		for (int i = 0; i < 6; i++) {
+			assertNull(transportB.dataReceived(new XBeeMessage(remoteA, createFragment(8, 0, 2))));
+			Thread.sleep(50);
+		}
+		
+		// Call the method under test.
+		XBeeMessage repeated = transportB.dataReceived(message);
+		
+		// Verify the result.
+		assertNotNull(repeated);
+		assertArrayEquals(new byte[] {0x55}, repeated.getData());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.transport.FragmentationTransport#dataReceived(XBeeMessage)}.
+	 * 
+	 * <p>Verify that data that is not part of the transport is delivered 
+	 * as is.</p>
+	 */
+	@Test
+	public void testDataReceivedNotFragment() {
+		XBeeMessage message = new XBeeMessage(remoteB, new byte[] {0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08});
+		
+		assertSame(message, transportA.dataReceived(message));
+	}
+	
+	/**
+	 * Creates a fragment with one byte of data.
+	 * 
+	 * @param id The message identifier.
+	 * @param index Index of the fragment.
+	 * @param count Number of fragments of the message.
+	 * 
+	 * @return The fragment, including the header.
+	 */
+	private static byte[] createFragment(int id, int index, int count) {
+		return new byte[] {(byte)TransportUtils.MAGIC, FragmentationTransport.TYPE_DATA, 
+				(byte)(id >> 8), (byte)id, (byte)(index >> 8), (byte)index, 
+				(byte)(count >> 8), (byte)count, 0x55};
+	}
+	
+	/**
+	 * Virtual radio that delivers its transmissions to another one.
+	 */
+	private static class LinkedRadio extends VirtualXBeeRadio {
+		
+		// Variables.
+		private volatile LinkedRadio peer;
+		
+		private final Set<Integer> drop = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+		
+		private final AtomicInteger fragments = new AtomicInteger();
+		
+		/*
+		 * (non-Javadoc)
+		 * @see com.digi.xbee.api.connection.virtual.VirtualXBeeRadio#handleTransmit(com.digi.xbee.api.packet.XBeeAPIPacket)
+		 */
+		@Override
+		protected void handleTransmit(XBeeAPIPacket packet) {
+			super.handleTransmit(packet);
+			if (!(packet instanceof TransmitPacket))
+				return;
+			
+			byte[] data = ((TransmitPacket)packet).getRFData();
+			if (data[1] != FragmentationTransport.TYPE_ACK) {
+				fragments.incrementAndGet();
+				// Lose the first transmission of the selected fragments.
+				if (drop.remove(((data[4] & 0xFF) << 8) | (data[5] & 0xFF)))
+					return;
+			}
+			peer.deliverPacket(new ReceivePacket(get64BitAddress(), XBee16BitAddress.UNKNOWN_ADDRESS, 0, data));
+		}
+	}
+}
@@ -0,0 +1,252 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.transport;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.XBeeDevice;
+import com.digi.xbee.api.connection.virtual.VirtualXBeeRadio;
+import com.digi.xbee.api.listeners.IDataReceiveListener;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBeeMessage;
+import com.digi.xbee.api.packet.XBeeAPIPacket;
+import com.digi.xbee.api.packet.common.ReceivePacket;
+import com.digi.xbee.api.packet.common.TransmitPacket;
+
+public class MessageAggregatorTest {
+	
+	// Variables.
+	private LinkedRadio radioA;
+	private LinkedRadio radioB;
+	
+	private XBeeDevice deviceA;
+	private XBeeDevice deviceB;
+	
+	private RemoteXBeeDevice remoteB;
+	
+	private MessageAggregator aggregatorA;
+	
+	private BlockingQueue<XBeeMessage> receivedB = new LinkedBlockingQueue<>();
+	
+	@Before
+	public void setUp() throws Exception {
+		radioA = new LinkedRadio();
+		radioB = new LinkedRadio();
+		radioB.setParameter("SL", new byte[] {0x40, 0x00, 0x00, 0x02});
+		radioA.peer = radioB;
+		radioB.peer = radioA;
+		
+		deviceA = new XBeeDevice(radioA);
+		deviceB = new XBeeDevice(radioB);
+		deviceA.open();
+		deviceB.open();
+		
+		aggregatorA = deviceA.enableAggregation();
+		deviceB.enableAggregation();
+		deviceB.addDataListener(new IDataReceiveListener() {
+			@Override
+			public void dataReceived(XBeeMessage xbeeMessage) {
+				receivedB.add(xbeeMessage);
+			}
+		});
+		
+		remoteB = new RemoteXBeeDevice(deviceA, radioB.get64BitAddress());
+	}
+	
+	@After
+	public void tearDown() throws Exception {
+		deviceA.disableAggregation();
+		deviceA.close();
+		deviceB.close();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.transport.MessageAggregator#sendData(RemoteXBeeDevice, byte[])}.
+	 * 
+	 * <p>Verify that the messages sent within the linger time are 
+	 * transmitted together and delivered one by one.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testSendDataLinger() throws Exception {
+		// Setup the resources for the test.
+		aggregatorA.setMaxLinger(200);
+		
+		// Call the method under test.
+		for (int i = 0; i < 5; i++)
+			aggregatorA.sendData(remoteB, new byte[] {(byte)i, 0x10, 0x20});
+		
+		// Verify the result.
+		for (int i = 0; i < 5; i++) {
+			XBeeMessage message = receivedB.poll(5, TimeUnit.SECONDS);
+			assertNotNull(message);
+			assertArrayEquals(new byte[] {(byte)i, 0x10, 0x20}, message.getData());
+			assertEquals(radioA.get64BitAddress(), message.getDevice().get64BitAddress());
+		}
+		assertEquals(1, radioA.transmissions.get());
+		assertNull(receivedB.poll(100, TimeUnit.MILLISECONDS));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.transport.MessageAggregator#sendData(RemoteXBeeDevice, byte[])}.
+	 * 
+	 * <p>Verify that the buffer is transmitted when the next message does 
+	 * not fit in the maximum payload.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testSendDataFull() throws Exception {
+		// Setup the resources for the test.
+		aggregatorA.setMaxLinger(60000);
+		aggregatorA.setMaxPayload(32);
+		
+		// Call the method under test: 2 + 3 * 10 bytes fill the payload.
+		for (int i = 0; i < 4; i++)
+			aggregatorA.sendData(remoteB, new byte[9]);
+		
+		// Verify the result.
+		for (int i = 0; i < 3; i++)
+			assertNotNull(receivedB.poll(5, TimeUnit.SECONDS));
+		assertEquals(1, radioA.transmissions.get());
+		assertNull(receivedB.poll(100, TimeUnit.MILLISECONDS));
+		
+		aggregatorA.flush();
+		assertNotNull(receivedB.poll(5, TimeUnit.SECONDS));
+		assertEquals(2, radioA.transmissions.get());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.transport.MessageAggregator#sendData(RemoteXBeeDevice, byte[])}.
+	 * 
+	 * <p>Verify that messages are transmitted immediately without linger 
+	 * time.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testSendDataNoLinger() throws Exception {
+		// Setup the resources for the test.
+		aggregatorA.setMaxLinger(0);
+		
+		// Call the method under test.
+		aggregatorA.sendData(remoteB, new byte[] {0x01});
+		aggregatorA.sendData(remoteB, new byte[] {0x02});
+		
+		// Verify the result: frames are not necessarily delivered in order.
+		byte first = receivedB.poll(5, TimeUnit.SECONDS).getData()[0];
+		byte second = receivedB.poll(5, TimeUnit.SECONDS).getData()[0];
+		assertEquals(0x03, first | second);
+		assertEquals(2, radioA.transmissions.get());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.transport.MessageAggregator#sendData(RemoteXBeeDevice, byte[])}.
+	 * 
+	 * @throws Exception
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testSendDataTooLong() throws Exception {
+		aggregatorA.sendData(remoteB, new byte[MessageAggregator.MAX_MESSAGE_LENGTH + 1]);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.transport.MessageAggregator#split(XBeeMessage)}.
+	 * 
+	 * <p>Verify that data that is not aggregated is not split.</p>
+	 */
+	@Test
+	public void testSplitNotAggregated() {
+		assertNull(aggregatorA.split(new XBeeMessage(remoteB, new byte[] {0x01, 0x02, 0x03})));
+		assertNull(aggregatorA.split(new XBeeMessage(remoteB, new byte[] {(byte)0xFB, 0x01, 0x00})));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.transport.MessageAggregator#split(XBeeMessage)}.
+	 * 
+	 * <p>Verify that a truncated message is discarded.</p>
+	 */
+	@Test
+	public void testSplitTruncated() {
+		List<XBeeMessage> messages = aggregatorA.split(new XBeeMessage(remoteB, 
+				new byte[] {(byte)0xFB, 0x04, 0x01, 0x11, 0x05, 0x22}));
+		
+		assertEquals(1, messages.size());
+		assertArrayEquals(new byte[] {0x11}, messages.get(0).getData());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#disableAggregation()}.
+	 * 
+	 * <p>Verify that the buffered messages are transmitted and aggregated 
+	 * data is delivered as is once disabled.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testDisableAggregation() throws Exception {
+		// Setup the resources for the test.
+		aggregatorA.setMaxLinger(60000);
+		aggregatorA.sendData(remoteB, new byte[] {0x01});
+		deviceB.disableAggregation();
+		
+		// Call the method under test.
+		deviceA.disableAggregation();
+		
+		// Verify the result.
+		assertNull(deviceA.getMessageAggregator());
+		XBeeMessage message = receivedB.poll(5, TimeUnit.SECONDS);
+		assertArrayEquals(new byte[] {(byte)0xFB, 0x04, 0x01, 0x01}, message.getData());
+	}
+	
+	/**
+	 * Virtual radio that delivers its transmissions to another one.
+	 */
+	private static class LinkedRadio extends VirtualXBeeRadio {
+		
+		// Variables.
+		private volatile LinkedRadio peer;
+		
+		private final AtomicInteger transmissions = new AtomicInteger();
+		
+		/*
+		 * (non-Javadoc)
+		 * @see com.digi.xbee.api.connection.virtual.VirtualXBeeRadio#handleTransmit(com.digi.xbee.api.packet.XBeeAPIPacket)
+		 */
+		@Override
+		protected void handleTransmit(XBeeAPIPacket packet) {
+			super.handleTransmit(packet);
+			if (!(packet instanceof TransmitPacket))
+				return;
+			
+			transmissions.incrementAndGet();
+			peer.deliverPacket(new ReceivePacket(get64BitAddress(), XBee16BitAddress.UNKNOWN_ADDRESS, 0, 
+					((TransmitPacket)packet).getRFData()));
+		}
+	}
+}
@@ -0,0 +1,211 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.transport;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.XBeeDevice;
+import com.digi.xbee.api.connection.virtual.VirtualXBeeRadio;
+import com.digi.xbee.api.exceptions.TimeoutException;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBeeMessage;
+import com.digi.xbee.api.packet.XBeeAPIPacket;
+import com.digi.xbee.api.packet.common.ReceivePacket;
+import com.digi.xbee.api.packet.common.TransmitPacket;
+import com.digi.xbee.api.utils.XBeeFuture;
+
+public class RPCTransportTest {
+	
+	// Variables.
+	private LinkedRadio radioA;
+	private LinkedRadio radioB;
+	
+	private XBeeDevice deviceA;
+	private XBeeDevice deviceB;
+	
+	private RemoteXBeeDevice remoteB;
+	
+	private RPCTransport rpcA;
+	private RPCTransport rpcB;
+	
+	@Before
+	public void setUp() throws Exception {
+		radioA = new LinkedRadio();
+		radioB = new LinkedRadio();
+		radioB.setParameter("SL", new byte[] {0x40, 0x00, 0x00, 0x02});
+		radioA.peer = radioB;
+		radioB.peer = radioA;
+		
+		deviceA = new XBeeDevice(radioA);
+		deviceB = new XBeeDevice(radioB);
+		deviceA.open();
+		deviceB.open();
+		
+		rpcA = deviceA.enableRPC();
+		rpcB = deviceB.enableRPC();
+		// Answer every request with its data reversed.
+		rpcB.setRequestHandler(new IRequestHandler() {
+			@Override
+			public byte[] requestReceived(XBeeMessage request) {
+				byte[] data = request.getData();
+				if (data.length == 0)
+					return null;
+				byte[] response = new byte[data.length];
+				for (int i = 0; i < data.length; i++)
+					response[i] = data[data.length - 1 - i];
+				return response;
+			}
+		});
+		
+		remoteB = new RemoteXBeeDevice(deviceA, radioB.get64BitAddress());
+	}
+	
+	@After
+	public void tearDown() {
+		deviceA.disableRPC();
+		deviceB.disableRPC();
+		deviceA.close();
+		deviceB.close();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.transport.RPCTransport#sendRequest(RemoteXBeeDevice, byte[])}.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testSendRequest() throws Exception {
+		// Call the method under test.
+		XBeeFuture<XBeeMessage> future = rpcA.sendRequest(remoteB, new byte[] {0x01, 0x02, 0x03});
+		
+		// Verify the result.
+		XBeeMessage response = future.get(5, TimeUnit.SECONDS);
+		assertArrayEquals(new byte[] {0x03, 0x02, 0x01}, response.getData());
+		assertEquals(radioB.get64BitAddress(), response.getDevice().get64BitAddress());
+		assertEquals(0, rpcA.getPendingRequests());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.transport.RPCTransport#sendRequest(RemoteXBeeDevice, byte[], long)}.
+	 * 
+	 * <p>Verify that concurrent requests are matched with their own 
+	 * responses.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testSendConcurrentRequests() throws Exception {
+		// Call the method under test.
+		List<XBeeFuture<XBeeMessage>> futures = new ArrayList<>();
+		for (int i = 0; i < 50; i++)
+			futures.add(rpcA.sendRequest(remoteB, new byte[] {(byte)i, 0x7F}, 5000));
+		
+		// Verify the result.
+		for (int i = 0; i < 50; i++)
+			assertArrayEquals(new byte[] {0x7F, (byte)i}, futures.get(i).get(5, TimeUnit.SECONDS).getData());
+		assertEquals(0, rpcA.getPendingRequests());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.transport.RPCTransport#sendRequest(RemoteXBeeDevice, byte[], long)}.
+	 * 
+	 * <p>Verify that the request fails if it is not answered.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testSendRequestTimeout() throws Exception {
+		// Call the method under test: the handler does not answer empty requests.
+		XBeeFuture<XBeeMessage> future = rpcA.sendRequest(remoteB, new byte[0], 100);
+		
+		// Verify the result.
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			fail("The request should have timed out.");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof TimeoutException);
+		}
+		assertEquals(0, rpcA.getPendingRequests());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#disableRPC()}.
+	 * 
+	 * <p>Verify that the pending requests are cancelled.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test(expected=CancellationException.class)
+	public void testDisableRPC() throws Exception {
+		// Setup the resources for the test.
+		XBeeFuture<XBeeMessage> future = rpcA.sendRequest(remoteB, new byte[0], 60000);
+		
+		// Call the method under test.
+		deviceA.disableRPC();
+		
+		// Verify the result.
+		assertNull(deviceA.getRPCTransport());
+		assertEquals(0, rpcA.getPendingRequests());
+		future.get(5, TimeUnit.SECONDS);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.transport.RPCTransport#dataReceived(XBeeMessage)}.
+	 * 
+	 * <p>Verify that unexpected responses are discarded and data that is 
+	 * not part of the transport is delivered as is.</p>
+	 */
+	@Test
+	public void testDataReceived() {
+		XBeeMessage message = new XBeeMessage(remoteB, new byte[] {0x01, 0x02, 0x03, 0x04});
+		XBeeMessage response = new XBeeMessage(remoteB, new byte[] {(byte)0xFB, 0x06, 0x12, 0x34, 0x01});
+		
+		assertSame(message, rpcA.dataReceived(message));
+		assertNull(rpcA.dataReceived(response));
+	}
+	
+	/**
+	 * Virtual radio that delivers its transmissions to another one.
+	 */
+	private static class LinkedRadio extends VirtualXBeeRadio {
+		
+		// Variables.
+		private volatile LinkedRadio peer;
+		
+		/*
+		 * (non-Javadoc)
+		 * @see com.digi.xbee.api.connection.virtual.VirtualXBeeRadio#handleTransmit(com.digi.xbee.api.packet.XBeeAPIPacket)
+		 */
+		@Override
+		protected void handleTransmit(XBeeAPIPacket packet) {
+			super.handleTransmit(packet);
+			if (packet instanceof TransmitPacket)
+				peer.deliverPacket(new ReceivePacket(get64BitAddress(), XBee16BitAddress.UNKNOWN_ADDRESS, 0, 
+						((TransmitPacket)packet).getRFData()));
+		}
+	}
+}
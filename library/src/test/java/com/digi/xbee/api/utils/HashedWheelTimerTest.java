@@ -0,0 +1,139 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.utils;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class HashedWheelTimerTest {
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.utils.HashedWheelTimer#HashedWheelTimer(String, long, int)}.
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testCreateInvalidTick() {
+		new HashedWheelTimer("timer", 0, 8);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.utils.HashedWheelTimer#schedule(Runnable, long)}.
+	 * 
+	 * <p>Verify that the tasks run after their delay, in order.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testSchedule() throws Exception {
+		// Setup the resources for the test.
+		HashedWheelTimer timer = new HashedWheelTimer("timer", 5, 8);
+		final CountDownLatch latch = new CountDownLatch(2);
+		final StringBuffer order = new StringBuffer();
+		long start = System.nanoTime();
+		
+		// Call the method under test: the second delay takes several rounds.
+		timer.schedule(new Runnable() {
+			@Override
+			public void run() {
+				order.append("B");
+				latch.countDown();
+			}
+		}, 150);
+		timer.schedule(new Runnable() {
+			@Override
+			public void run() {
+				order.append("A");
+				latch.countDown();
+			}
+		}, 20);
+		
+		// Verify the result.
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		assertEquals("AB", order.toString());
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 150);
+		assertEquals(0, timer.getPendingTimeouts());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.utils.HashedWheelTimer.Timeout#cancel()}.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testCancel() throws Exception {
+		// Setup the resources for the test.
+		HashedWheelTimer timer = new HashedWheelTimer("timer");
+		final AtomicInteger runs = new AtomicInteger();
+		Runnable task = new Runnable() {
+			@Override
+			public void run() {
+				runs.incrementAndGet();
+			}
+		};
+		HashedWheelTimer.Timeout timeout = timer.schedule(task, 50);
+		
+		// Call the method under test.
+		assertTrue(timeout.cancel());
+		
+		// Verify the result.
+		assertFalse(timeout.cancel());
+		assertTrue(timeout.isCancelled());
+		assertEquals(0, timer.getPendingTimeouts());
+		
+		// The timer keeps working after its thread stops.
+		Thread.sleep(150);
+		HashedWheelTimer.Timeout other = timer.schedule(task, 10);
+		Thread.sleep(150);
+		assertEquals(1, runs.get());
+		assertTrue(other.isExpired());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.utils.HashedWheelTimer#schedule(Runnable, long)}.
+	 * 
+	 * <p>Verify that many timeouts are served by the same timer.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testScheduleMany() throws Exception {
+		// Setup the resources for the test.
+		HashedWheelTimer timer = new HashedWheelTimer("timer");
+		final CountDownLatch latch = new CountDownLatch(5000);
+		Runnable task = new Runnable() {
+			@Override
+			public void run() {
+				latch.countDown();
+			}
+		};
+		
+		// Call the method under test.
+		for (int i = 0; i < 10000; i++) {
+			HashedWheelTimer.Timeout timeout = timer.schedule(task, i % 100);
+			if (i % 2 == 1)
+				timeout.cancel();
+		}
+		
+		// Verify the result.
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		Thread.sleep(50);
+		assertEquals(0, timer.getPendingTimeouts());
+	}
+}
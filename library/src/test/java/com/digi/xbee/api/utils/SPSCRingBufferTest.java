@@ -0,0 +1,125 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.utils;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+public class SPSCRingBufferTest {
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.utils.SPSCRingBuffer#SPSCRingBuffer(int, WaitStrategy)}.
+	 * 
+	 * <p>Verify that the capacity is rounded up to the next power of 2.</p>
+	 */
+	@Test
+	public void testCapacity() {
+		assertEquals(1, new SPSCRingBuffer<Integer>(1, WaitStrategy.SPINNING).capacity());
+		assertEquals(8, new SPSCRingBuffer<Integer>(5, WaitStrategy.SPINNING).capacity());
+		assertEquals(8, new SPSCRingBuffer<Integer>(8, WaitStrategy.SPINNING).capacity());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.utils.SPSCRingBuffer#SPSCRingBuffer(int, WaitStrategy)}.
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testCreateInvalidCapacity() {
+		new SPSCRingBuffer<Integer>(0, WaitStrategy.BLOCKING);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.utils.SPSCRingBuffer#offer(Object)} and 
+	 * {@link com.digi.xbee.api.utils.SPSCRingBuffer#poll()}.
+	 * 
+	 * <p>Verify that the elements are returned in order and no more elements 
+	 * than the capacity are accepted.</p>
+	 */
+	@Test
+	public void testOfferPoll() {
+		SPSCRingBuffer<Integer> buffer = new SPSCRingBuffer<Integer>(4, WaitStrategy.YIELDING);
+		
+		for (int i = 0; i < 4; i++)
+			assertTrue(buffer.offer(i));
+		assertFalse(buffer.offer(4));
+		assertEquals(4, buffer.size());
+		
+		// Wrap around the end of the array.
+		assertEquals(Integer.valueOf(0), buffer.poll());
+		assertTrue(buffer.offer(4));
+		for (int i = 1; i <= 4; i++)
+			assertEquals(Integer.valueOf(i), buffer.poll());
+		assertNull(buffer.poll());
+		assertTrue(buffer.isEmpty());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.utils.SPSCRingBuffer#take(long)}.
+	 * 
+	 * <p>Verify that taking from an empty buffer returns {@code null} after 
+	 * the timeout.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testTakeTimeout() throws Exception {
+		SPSCRingBuffer<Integer> buffer = new SPSCRingBuffer<Integer>(4, WaitStrategy.BLOCKING);
+		
+		long start = System.nanoTime();
+		assertNull(buffer.take(50));
+		assertTrue(System.nanoTime() - start >= 50000000);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.utils.SPSCRingBuffer#put(Object, long)} and 
+	 * {@link com.digi.xbee.api.utils.SPSCRingBuffer#take(long)}.
+	 * 
+	 * <p>Verify that a producer and a consumer thread exchange all the 
+	 * elements in order with every wait strategy.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testProducerConsumer() throws Exception {
+		for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+			final SPSCRingBuffer<Integer> buffer = new SPSCRingBuffer<Integer>(8, waitStrategy);
+			final int count = 2000;
+			final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+			
+			Thread producer = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						for (int i = 0; i < count; i++)
+							assertTrue(buffer.put(i, 5000));
+					} catch (Throwable t) {
+						error.set(t);
+					}
+				}
+			});
+			producer.start();
+			
+			for (int i = 0; i < count; i++)
+				assertEquals(waitStrategy.name(), Integer.valueOf(i), buffer.take(5000));
+			producer.join(5000);
+			
+			assertNull(error.get());
+			assertTrue(buffer.isEmpty());
+		}
+	}
+}
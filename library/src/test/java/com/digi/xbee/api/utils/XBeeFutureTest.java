@@ -0,0 +1,139 @@
+/**
+ * Copyright 2024, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.utils;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.listeners.IFutureListener;
+
+public class XBeeFutureTest {
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.utils.XBeeFuture#complete(Object)}.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testComplete() throws Exception {
+		// Setup the resources for the test.
+		final XBeeFuture<String> future = new XBeeFuture<>();
+		new Thread(new Runnable() {
+			@Override
+			public void run() {
+				future.complete("result");
+			}
+		}).start();
+		
+		// Verify the result.
+		assertEquals("result", future.get(5, TimeUnit.SECONDS));
+		assertTrue(future.isDone());
+		assertFalse(future.isCancelled());
+		assertFalse(future.isCompletedExceptionally());
+		assertFalse(future.complete("other"));
+		assertEquals("result", future.get());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.utils.XBeeFuture#completeExceptionally(Exception)}.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testCompleteExceptionally() throws Exception {
+		// Setup the resources for the test.
+		XBeeFuture<String> future = new XBeeFuture<>();
+		XBeeException exception = new XBeeException("error");
+		
+		// Call the method under test.
+		assertTrue(future.completeExceptionally(exception));
+		
+		// Verify the result.
+		assertTrue(future.isCompletedExceptionally());
+		assertSame(exception, future.getException());
+		try {
+			future.get();
+			fail("The future should have failed.");
+		} catch (ExecutionException e) {
+			assertSame(exception, e.getCause());
+		}
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.utils.XBeeFuture#cancel(boolean)}.
+	 * 
+	 * @throws Exception
+	 */
+	@Test(expected=CancellationException.class)
+	public void testCancel() throws Exception {
+		// Setup the resources for the test.
+		XBeeFuture<String> future = new XBeeFuture<>();
+		
+		// Call the method under test.
+		assertTrue(future.cancel(true));
+		
+		// Verify the result.
+		assertTrue(future.isCancelled());
+		assertFalse(future.complete("result"));
+		future.get();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.utils.XBeeFuture#get(long, TimeUnit)}.
+	 * 
+	 * @throws Exception
+	 */
+	@Test(expected=TimeoutException.class)
+	public void testGetTimeout() throws Exception {
+		new XBeeFuture<String>().get(50, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.utils.XBeeFuture#addListener(IFutureListener)}.
+	 * 
+	 * <p>Verify that listeners are notified once, including the ones added 
+	 * after the future is done.</p>
+	 */
+	@Test
+	public void testAddListener() {
+		// Setup the resources for the test.
+		XBeeFuture<String> future = new XBeeFuture<>();
+		final AtomicInteger notifications = new AtomicInteger();
+		IFutureListener<String> listener = new IFutureListener<String>() {
+			@Override
+			public void operationComplete(XBeeFuture<String> future) {
+				notifications.incrementAndGet();
+			}
+		};
+		
+		// Call the method under test.
+		future.addListener(listener);
+		future.complete("result");
+		future.complete("other");
+		future.addListener(listener);
+		
+		// Verify the result.
+		assertEquals(2, notifications.get());
+	}
+}